@@ -40,6 +40,16 @@ public class ConnectionStatus implements Cloneable {
     private long outputBytes;
     private int maxQueuedCount;
     private long maxQueuedBytes;
+    private long swapOutCount;
+    private long swapOutBytes;
+    private long swapOutMillis;
+    private long swapInCount;
+    private long swapInBytes;
+    private long swapInMillis;
+    private long queueTimeCount;
+    private long queueTimeP50Millis;
+    private long queueTimeP99Millis;
+    private long queueTimeMaxMillis;
 
     public String getId() {
         return id;
@@ -186,6 +196,116 @@ public class ConnectionStatus implements Cloneable {
         this.backPressureBytesThreshold = backPressureBytesThreshold;
     }
 
+    /**
+     * @return the number of swap files that have been written for this connection
+     */
+    public long getSwapOutCount() {
+        return swapOutCount;
+    }
+
+    public void setSwapOutCount(final long swapOutCount) {
+        this.swapOutCount = swapOutCount;
+    }
+
+    /**
+     * @return the total size of the content of the FlowFiles that have been swapped out of this connection
+     */
+    public long getSwapOutBytes() {
+        return swapOutBytes;
+    }
+
+    public void setSwapOutBytes(final long swapOutBytes) {
+        this.swapOutBytes = swapOutBytes;
+    }
+
+    /**
+     * @return the total number of milliseconds spent writing swap files for this connection
+     */
+    public long getSwapOutMillis() {
+        return swapOutMillis;
+    }
+
+    public void setSwapOutMillis(final long swapOutMillis) {
+        this.swapOutMillis = swapOutMillis;
+    }
+
+    /**
+     * @return the number of swap files that have been swapped back into this connection
+     */
+    public long getSwapInCount() {
+        return swapInCount;
+    }
+
+    public void setSwapInCount(final long swapInCount) {
+        this.swapInCount = swapInCount;
+    }
+
+    /**
+     * @return the total size of the content of the FlowFiles that have been swapped back into this connection
+     */
+    public long getSwapInBytes() {
+        return swapInBytes;
+    }
+
+    public void setSwapInBytes(final long swapInBytes) {
+        this.swapInBytes = swapInBytes;
+    }
+
+    /**
+     * @return the total number of milliseconds spent swapping FlowFiles back into this connection
+     */
+    public long getSwapInMillis() {
+        return swapInMillis;
+    }
+
+    public void setSwapInMillis(final long swapInMillis) {
+        this.swapInMillis = swapInMillis;
+    }
+
+    /**
+     * @return the number of FlowFiles pulled from this connection in the last 5 minutes whose queue time was recorded
+     */
+    public long getQueueTimeCount() {
+        return queueTimeCount;
+    }
+
+    public void setQueueTimeCount(final long queueTimeCount) {
+        this.queueTimeCount = queueTimeCount;
+    }
+
+    /**
+     * @return the median number of milliseconds that FlowFiles pulled from this connection in the last 5 minutes had been queued
+     */
+    public long getQueueTimeP50Millis() {
+        return queueTimeP50Millis;
+    }
+
+    public void setQueueTimeP50Millis(final long queueTimeP50Millis) {
+        this.queueTimeP50Millis = queueTimeP50Millis;
+    }
+
+    /**
+     * @return the 99th percentile of the number of milliseconds that FlowFiles pulled from this connection in the last 5 minutes had been queued
+     */
+    public long getQueueTimeP99Millis() {
+        return queueTimeP99Millis;
+    }
+
+    public void setQueueTimeP99Millis(final long queueTimeP99Millis) {
+        this.queueTimeP99Millis = queueTimeP99Millis;
+    }
+
+    /**
+     * @return the largest number of milliseconds that a FlowFile pulled from this connection in the last 5 minutes had been queued
+     */
+    public long getQueueTimeMaxMillis() {
+        return queueTimeMaxMillis;
+    }
+
+    public void setQueueTimeMaxMillis(final long queueTimeMaxMillis) {
+        this.queueTimeMaxMillis = queueTimeMaxMillis;
+    }
+
     @Override
     public ConnectionStatus clone() {
         final ConnectionStatus clonedObj = new ConnectionStatus();
@@ -206,6 +326,16 @@ public class ConnectionStatus implements Cloneable {
         clonedObj.backPressureObjectThreshold = backPressureObjectThreshold;
         clonedObj.maxQueuedBytes = maxQueuedBytes;
         clonedObj.maxQueuedCount = maxQueuedCount;
+        clonedObj.swapOutCount = swapOutCount;
+        clonedObj.swapOutBytes = swapOutBytes;
+        clonedObj.swapOutMillis = swapOutMillis;
+        clonedObj.swapInCount = swapInCount;
+        clonedObj.swapInBytes = swapInBytes;
+        clonedObj.swapInMillis = swapInMillis;
+        clonedObj.queueTimeCount = queueTimeCount;
+        clonedObj.queueTimeP50Millis = queueTimeP50Millis;
+        clonedObj.queueTimeP99Millis = queueTimeP99Millis;
+        clonedObj.queueTimeMaxMillis = queueTimeMaxMillis;
         return clonedObj;
     }
 
@@ -246,6 +376,26 @@ public class ConnectionStatus implements Cloneable {
         builder.append(maxQueuedCount);
         builder.append(", maxQueueBytes=");
         builder.append(maxQueuedBytes);
+        builder.append(", swapOutCount=");
+        builder.append(swapOutCount);
+        builder.append(", swapOutBytes=");
+        builder.append(swapOutBytes);
+        builder.append(", swapOutMillis=");
+        builder.append(swapOutMillis);
+        builder.append(", swapInCount=");
+        builder.append(swapInCount);
+        builder.append(", swapInBytes=");
+        builder.append(swapInBytes);
+        builder.append(", swapInMillis=");
+        builder.append(swapInMillis);
+        builder.append(", queueTimeCount=");
+        builder.append(queueTimeCount);
+        builder.append(", queueTimeP50Millis=");
+        builder.append(queueTimeP50Millis);
+        builder.append(", queueTimeP99Millis=");
+        builder.append(queueTimeP99Millis);
+        builder.append(", queueTimeMaxMillis=");
+        builder.append(queueTimeMaxMillis);
         builder.append("]");
         return builder.toString();
     }
@@ -448,6 +448,24 @@ public class ProcessGroupStatus implements Cloneable {
             merged.setInputBytes(merged.getInputBytes() + statusToMerge.getInputBytes());
             merged.setOutputCount(merged.getOutputCount() + statusToMerge.getOutputCount());
             merged.setOutputBytes(merged.getOutputBytes() + statusToMerge.getOutputBytes());
+
+            // percentiles cannot be combined exactly without the underlying histograms, so the median is weighted
+            // by the number of FlowFiles that each node saw and the 99th percentile is the worst of the nodes.
+            final long queueTimeCount = merged.getQueueTimeCount() + statusToMerge.getQueueTimeCount();
+            if (queueTimeCount > 0) {
+                merged.setQueueTimeP50Millis((merged.getQueueTimeP50Millis() * merged.getQueueTimeCount()
+                    + statusToMerge.getQueueTimeP50Millis() * statusToMerge.getQueueTimeCount()) / queueTimeCount);
+            }
+            merged.setQueueTimeCount(queueTimeCount);
+            merged.setQueueTimeP99Millis(Math.max(merged.getQueueTimeP99Millis(), statusToMerge.getQueueTimeP99Millis()));
+            merged.setQueueTimeMaxMillis(Math.max(merged.getQueueTimeMaxMillis(), statusToMerge.getQueueTimeMaxMillis()));
+
+            merged.setSwapOutCount(merged.getSwapOutCount() + statusToMerge.getSwapOutCount());
+            merged.setSwapOutBytes(merged.getSwapOutBytes() + statusToMerge.getSwapOutBytes());
+            merged.setSwapOutMillis(merged.getSwapOutMillis() + statusToMerge.getSwapOutMillis());
+            merged.setSwapInCount(merged.getSwapInCount() + statusToMerge.getSwapInCount());
+            merged.setSwapInBytes(merged.getSwapInBytes() + statusToMerge.getSwapInBytes());
+            merged.setSwapInMillis(merged.getSwapInMillis() + statusToMerge.getSwapInMillis());
         }
         target.setConnectionStatus(mergedConnectionMap.values());
 
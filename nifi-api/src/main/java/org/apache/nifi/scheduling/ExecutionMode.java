@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.scheduling;
+
+/**
+ * Defines the kind of threads on which a Timer-Driven Component's tasks are run.
+ */
+public enum ExecutionMode {
+    /**
+     * A Component's tasks will be run by the shared Timer-Driven thread pool.
+     */
+    STANDARD,
+    /**
+     * A Component's tasks will each be run on a virtual thread, if the JVM supports virtual threads, or otherwise on a
+     * dedicated pool of platform threads, so that Components that spend most of their time blocked on I/O do not occupy
+     * the threads of the Timer-Driven thread pool.
+     */
+    VIRTUAL_THREADS;
+}
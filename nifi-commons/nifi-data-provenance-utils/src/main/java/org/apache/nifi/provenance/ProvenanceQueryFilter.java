@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.processor.DataUnit;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerm;
+import org.apache.nifi.provenance.search.SearchableField;
+
+/**
+ * Evaluates a {@link Query} directly against Provenance Events, for repositories that answer a query by reading events
+ * rather than consulting an index. Search Terms match case-insensitively and may use the <code>*</code> and <code>?</code>
+ * wildcards, as they do with the Lucene-based Event Index.
+ */
+public class ProvenanceQueryFilter implements Predicate<ProvenanceEventRecord> {
+    private final long minEventId;
+    private final long startTimestamp;
+    private final long endTimestamp;
+    private final List<Predicate<ProvenanceEventRecord>> criteria;
+
+    private ProvenanceQueryFilter(final long minEventId, final long startTimestamp, final long endTimestamp, final List<Predicate<ProvenanceEventRecord>> criteria) {
+        this.minEventId = minEventId;
+        this.startTimestamp = startTimestamp;
+        this.endTimestamp = endTimestamp;
+        this.criteria = criteria;
+    }
+
+    /**
+     * Creates a filter that matches the events that match the given query, regardless of Event ID
+     *
+     * @param query the query
+     * @return a filter for the query
+     */
+    public static ProvenanceQueryFilter forQuery(final Query query) {
+        return forQuery(query, 0L);
+    }
+
+    /**
+     * Creates a filter for a single page of the results of the given query, as requested through
+     * {@link ProvenanceRepository#queryEvents(Query, String, int, org.apache.nifi.authorization.user.NiFiUser)}. The continuation
+     * token of a page is the ID of the first event that may belong to the page, so that repositories that page through query results
+     * in this way can accept one another's tokens.
+     *
+     * @param query the query
+     * @param continuationToken the token returned with the previous page, or <code>null</code> for the first page
+     * @param pageSize the maximum number of events in the page
+     * @return a filter that matches the events of the query whose Event ID is at least that given by the continuation token
+     * @throws IllegalArgumentException if the page size is not positive, the query's start time is after its end time, or the continuation
+     *             token is not valid
+     */
+    public static ProvenanceQueryFilter forPage(final Query query, final String continuationToken, final int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        if (query.getEndDate() != null && query.getStartDate() != null && query.getStartDate().getTime() > query.getEndDate().getTime()) {
+            throw new IllegalArgumentException("Query End Time cannot be before Query Start Time");
+        }
+
+        return forQuery(query, parseContinuationToken(continuationToken));
+    }
+
+    private static ProvenanceQueryFilter forQuery(final Query query, final long minEventId) {
+        final List<Predicate<ProvenanceEventRecord>> criteria = new ArrayList<>();
+        for (final SearchTerm searchTerm : query.getSearchTerms()) {
+            if (searchTerm.getValue() != null) {
+                criteria.add(createCriterion(searchTerm.getSearchableField(), searchTerm.getValue()));
+            }
+        }
+
+        if (query.getMinFileSize() != null) {
+            final long minBytes = DataUnit.parseDataSize(query.getMinFileSize(), DataUnit.B).longValue();
+            criteria.add(event -> event.getFileSize() >= minBytes);
+        }
+        if (query.getMaxFileSize() != null) {
+            final long maxBytes = DataUnit.parseDataSize(query.getMaxFileSize(), DataUnit.B).longValue();
+            criteria.add(event -> event.getFileSize() <= maxBytes);
+        }
+
+        final long start = query.getStartDate() == null ? 0L : query.getStartDate().getTime();
+        final long end = query.getEndDate() == null ? Long.MAX_VALUE : query.getEndDate().getTime();
+        return new ProvenanceQueryFilter(minEventId, start, end, criteria);
+    }
+
+    private static long parseContinuationToken(final String continuationToken) {
+        if (continuationToken == null) {
+            return 0L;
+        }
+
+        try {
+            final long eventId = Long.parseLong(continuationToken);
+            if (eventId >= 0L) {
+                return eventId;
+            }
+        } catch (final NumberFormatException nfe) {
+            // fall through to throw IllegalArgumentException below
+        }
+
+        throw new IllegalArgumentException("Invalid continuation token: " + continuationToken);
+    }
+
+    private static Predicate<ProvenanceEventRecord> createCriterion(final SearchableField field, final String value) {
+        final Predicate<String> valueMatches;
+        if (value.contains("*") || value.contains("?")) {
+            final Pattern pattern = Pattern.compile(Pattern.quote(value).replace("*", "\\E.*\\Q").replace("?", "\\E.\\Q"), Pattern.CASE_INSENSITIVE);
+            valueMatches = fieldValue -> fieldValue != null && pattern.matcher(fieldValue).matches();
+        } else {
+            valueMatches = value::equalsIgnoreCase;
+        }
+
+        if (field.isAttribute()) {
+            final String attributeName = field.getIdentifier();
+            return event -> valueMatches.test(event.getAttributes().get(attributeName));
+        }
+
+        // As with the Event Index, a FlowFile UUID matches the parents and children of an event as well as its FlowFile.
+        if (SearchableFields.FlowFileUUID.equals(field)) {
+            return event -> getFlowFileUuids(event).stream().anyMatch(valueMatches);
+        }
+
+        return event -> valueMatches.test(getFieldValue(event, field));
+    }
+
+    private static String getFieldValue(final ProvenanceEventRecord event, final SearchableField field) {
+        final Object value;
+        if (SearchableFields.Identifier.equals(field)) {
+            value = event.getEventId();
+        } else if (SearchableFields.EventType.equals(field)) {
+            value = event.getEventType();
+        } else if (SearchableFields.ComponentID.equals(field)) {
+            value = event.getComponentId();
+        } else if (SearchableFields.Filename.equals(field)) {
+            value = event.getAttributes().get(CoreAttributes.FILENAME.key());
+        } else if (SearchableFields.TransitURI.equals(field)) {
+            value = event.getTransitUri();
+        } else if (SearchableFields.AlternateIdentifierURI.equals(field)) {
+            value = event.getAlternateIdentifierUri();
+        } else if (SearchableFields.Details.equals(field)) {
+            value = event.getDetails();
+        } else if (SearchableFields.Relationship.equals(field)) {
+            value = event.getRelationship();
+        } else if (SearchableFields.FileSize.equals(field)) {
+            value = event.getFileSize();
+        } else if (SearchableFields.EventTime.equals(field)) {
+            value = event.getEventTime();
+        } else if (SearchableFields.LineageStartDate.equals(field)) {
+            value = event.getLineageStartDate();
+        } else if (SearchableFields.SourceQueueIdentifier.equals(field)) {
+            value = event.getSourceQueueIdentifier();
+        } else if (SearchableFields.ContentClaimContainer.equals(field)) {
+            value = event.getContentClaimContainer();
+        } else if (SearchableFields.ContentClaimSection.equals(field)) {
+            value = event.getContentClaimSection();
+        } else if (SearchableFields.ContentClaimIdentifier.equals(field)) {
+            value = event.getContentClaimIdentifier();
+        } else if (SearchableFields.ContentClaimOffset.equals(field)) {
+            value = event.getContentClaimOffset();
+        } else {
+            value = null;
+        }
+
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Returns the FlowFile UUID's that the given event is associated with for the purposes of lineage. This mirrors the
+     * FlowFile UUID's that are indexed for the event by the Lucene-based Event Index.
+     *
+     * @param event the event
+     * @return the FlowFile UUID's that the event is associated with
+     */
+    public static List<String> getFlowFileUuids(final ProvenanceEventRecord event) {
+        final ProvenanceEventType eventType = event.getEventType();
+        final List<String> related;
+        if (eventType == ProvenanceEventType.FORK || eventType == ProvenanceEventType.CLONE || eventType == ProvenanceEventType.REPLAY) {
+            related = event.getChildUuids();
+        } else if (eventType == ProvenanceEventType.JOIN) {
+            related = event.getParentUuids();
+        } else if (eventType == ProvenanceEventType.RECEIVE && event.getSourceSystemFlowFileIdentifier() != null) {
+            final String sourceIdentifier = event.getSourceSystemFlowFileIdentifier();
+            final int lastColon = sourceIdentifier.lastIndexOf(":");
+            if (lastColon > -1 && lastColon < sourceIdentifier.length() - 2) {
+                related = Collections.singletonList(sourceIdentifier.substring(lastColon + 1));
+            } else {
+                related = Collections.emptyList();
+            }
+        } else {
+            related = Collections.emptyList();
+        }
+
+        final List<String> uuids = new ArrayList<>(related.size() + 1);
+        if (event.getFlowFileUuid() != null) {
+            uuids.add(event.getFlowFileUuid());
+        }
+        for (final String uuid : related) {
+            if (uuid != null) {
+                uuids.add(uuid);
+            }
+        }
+        return uuids;
+    }
+
+    /**
+     * @return the smallest Event ID that may match this filter
+     */
+    public long getMinEventId() {
+        return minEventId;
+    }
+
+    @Override
+    public boolean test(final ProvenanceEventRecord event) {
+        // A minimum of 0 places no restriction on the Event ID, even for events that have not yet been assigned one.
+        if ((minEventId > 0L && event.getEventId() < minEventId) || event.getEventTime() < startTimestamp || event.getEventTime() > endTimestamp) {
+            return false;
+        }
+
+        for (final Predicate<ProvenanceEventRecord> criterion : criteria) {
+            if (!criterion.test(event)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -64,6 +64,7 @@ public class StandardLineageResult implements ComputeLineageResult, ProgressiveR
     private Date expirationDate = null;
     private String error = null;
     private int numCompletedSteps = 0;
+    private boolean partial = false;
 
     private volatile boolean canceled = false;
     private final Object completionMonitor = new Object();
@@ -163,6 +164,28 @@ public class StandardLineageResult implements ComputeLineageResult, ProgressiveR
         }
     }
 
+    @Override
+    public boolean isPartial() {
+        readLock.lock();
+        try {
+            return partial;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Marks this lineage as partial, indicating that not all related events were retrieved
+     */
+    public void setPartial() {
+        writeLock.lock();
+        try {
+            this.partial = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
     @Override
     public void setError(final String error) {
         writeLock.lock();
@@ -22,6 +22,10 @@ import java.util.Set;
 
 import org.antlr.runtime.tree.Tree;
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.reduce.ReduceEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.AttributeEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.IteratingEvaluator;
 import org.apache.nifi.expression.AttributeValueDecorator;
 
 public class CompiledExpression implements Expression {
@@ -29,12 +33,26 @@ public class CompiledExpression implements Expression {
     private final Tree tree;
     private final String expression;
     private final Set<Evaluator<?>> allEvaluators;
+    private final boolean reusable;
+    private final String attributeName;
 
     public CompiledExpression(final String expression, final Evaluator<?> rootEvaluator, final Tree tree, final Set<Evaluator<?>> allEvaluators) {
         this.rootEvaluator = rootEvaluator;
         this.tree = tree;
         this.expression = expression;
         this.allEvaluators = allEvaluators;
+
+        // Evaluators that iterate over multiple attributes or reduce their values keep state between calls, so an expression
+        // that uses any of them has to be rebuilt from its tree for every evaluation. Any other expression is made up only of
+        // stateless Evaluators, which can be shared, along with any patterns and formats that they have pre-compiled.
+        this.reusable = allEvaluators.stream().noneMatch(eval -> eval instanceof IteratingEvaluator || eval instanceof ReduceEvaluator);
+
+        // A plain reference to a named attribute, such as ${filename}, is common enough to be worth a direct lookup
+        if (reusable && rootEvaluator instanceof AttributeEvaluator && ((AttributeEvaluator) rootEvaluator).getNameEvaluator() instanceof StringLiteralEvaluator) {
+            this.attributeName = ((AttributeEvaluator) rootEvaluator).getNameEvaluator().evaluate(null).getValue();
+        } else {
+            this.attributeName = null;
+        }
     }
 
     public Evaluator<?> getRootEvaluator() {
@@ -55,6 +73,13 @@ public class CompiledExpression implements Expression {
 
     @Override
     public String evaluate(final Map<String, String> variables, final AttributeValueDecorator decorator, final Map<String, String> stateVariables) {
+        if (attributeName != null) {
+            return Query.toExpressionValue(variables.get(attributeName), decorator);
+        }
+        if (reusable) {
+            return Query.evaluateExpression(rootEvaluator, variables, decorator, stateVariables);
+        }
+
         return Query.evaluateExpression(getTree(), expression, variables, decorator, stateVariables);
     }
 }
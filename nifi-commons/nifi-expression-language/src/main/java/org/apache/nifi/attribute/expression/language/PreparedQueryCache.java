@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread-safe cache of PreparedQuery objects, keyed by the raw text of the query. A PreparedQuery may be
+ * evaluated concurrently, so a single instance can be shared by every component that uses the same expression.
+ * When the cache is full, the entries that were added first are evicted first.
+ */
+public class PreparedQueryCache {
+    private final int maxSize;
+    private final ConcurrentMap<String, PreparedQuery> preparedQueries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong hitCount = new AtomicLong(0L);
+    private final AtomicLong missCount = new AtomicLong(0L);
+    private final AtomicLong evictionCount = new AtomicLong(0L);
+
+    /**
+     * @param maxSize the maximum number of queries to hold; a value of 0 or less disables caching
+     */
+    public PreparedQueryCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached PreparedQuery for the given query text, preparing and caching it if it is not already cached
+     *
+     * @param query the raw text of the query
+     * @param preparer the function to use to prepare the query if it is not cached
+     * @return the PreparedQuery for the given text
+     */
+    public PreparedQuery getPrepared(final String query, final Function<String, PreparedQuery> preparer) {
+        if (maxSize <= 0) {
+            return preparer.apply(query);
+        }
+
+        final PreparedQuery cached = preparedQueries.get(query);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            return cached;
+        }
+
+        missCount.incrementAndGet();
+        final PreparedQuery prepared = preparer.apply(query);
+
+        // Values without any Expression Language are cheap to prepare, and caching them would only hold on to
+        // arbitrarily large property values.
+        if (prepared instanceof EmptyPreparedQuery) {
+            return prepared;
+        }
+
+        final PreparedQuery existing = preparedQueries.putIfAbsent(query, prepared);
+        if (existing != null) {
+            return existing;
+        }
+
+        insertionOrder.offer(query);
+        while (preparedQueries.size() > maxSize) {
+            final String eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+
+            if (preparedQueries.remove(eldest) != null) {
+                evictionCount.incrementAndGet();
+            }
+        }
+
+        return prepared;
+    }
+
+    /**
+     * Removes all queries from the cache. The hit, miss, and eviction counts are not reset.
+     */
+    public void clear() {
+        preparedQueries.clear();
+        insertionOrder.clear();
+    }
+
+    public int getSize() {
+        return preparedQueries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedQueryCache[size=" + getSize() + ", maxSize=" + maxSize + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+            + ", evictions=" + getEvictionCount() + "]";
+    }
+}
@@ -23,6 +23,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.antlr.runtime.tree.Tree;
 import org.apache.nifi.attribute.expression.language.compile.ExpressionCompiler;
+import org.apache.nifi.attribute.expression.language.compile.LambdaCompiler;
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
 import org.apache.nifi.attribute.expression.language.exception.AttributeExpressionLanguageParsingException;
@@ -37,6 +38,22 @@ import org.apache.nifi.processor.exception.ProcessException;
  */
 public class Query {
 
+    /**
+     * System property that, when <code>true</code>, causes prepared queries to compile the expressions that
+     * they can into type-specialized lambdas rather than walking a tree of Evaluators for each evaluation
+     */
+    public static final String COMPILE_TO_LAMBDAS_PROPERTY = "nifi.expression.language.compile.lambdas";
+
+    /**
+     * System property that sets the maximum number of prepared queries that are cached and shared JVM-wide, so that
+     * components using the same expression do not each parse it. A value of 0 disables the cache.
+     */
+    public static final String PREPARED_QUERY_CACHE_SIZE_PROPERTY = "nifi.expression.language.prepared.query.cache.size";
+    public static final int DEFAULT_PREPARED_QUERY_CACHE_SIZE = 10000;
+
+    private static final PreparedQueryCache PREPARED_QUERY_CACHE = new PreparedQueryCache(Integer.getInteger(PREPARED_QUERY_CACHE_SIZE_PROPERTY, DEFAULT_PREPARED_QUERY_CACHE_SIZE));
+    private static volatile boolean cachedQueriesCompiledToLambdas = false;
+
     private final String query;
     private final Tree tree;
     private final Evaluator<?> evaluator;
@@ -201,12 +218,23 @@ public class Query {
     static String evaluateExpression(final Tree tree, final String queryText, final Map<String, String> valueMap, final AttributeValueDecorator decorator,
                                      final Map<String, String> stateVariables) throws ProcessException {
         final Object evaluated = Query.fromTree(tree, queryText).evaluate(valueMap, stateVariables).getValue();
+        return toExpressionValue(evaluated, decorator);
+    }
+
+    static String evaluateExpression(final Evaluator<?> evaluator, final Map<String, String> valueMap, final AttributeValueDecorator decorator,
+                                     final Map<String, String> stateVariables) throws ProcessException {
+        final Map<String, String> evaluationMap = stateVariables == null ? valueMap : new AttributesAndState(valueMap, stateVariables);
+        return toExpressionValue(evaluator.evaluate(evaluationMap).getValue(), decorator);
+    }
+
+    static String toExpressionValue(final Object evaluated, final AttributeValueDecorator decorator) {
         if (evaluated == null) {
             return null;
         }
 
         final String value = evaluated.toString();
-        final String escaped = value.replace("$$", "$");
+        // String.replace compiles a Pattern on each call, so avoid it unless there is something to un-escape
+        final String escaped = value.indexOf("$$") < 0 ? value : value.replace("$$", "$");
         return decorator == null ? escaped : decorator.decorate(escaped);
     }
 
@@ -245,6 +273,28 @@ public class Query {
             return new EmptyPreparedQuery(null);
         }
 
+        // queries that were cached with a different setting must not be handed out
+        final boolean compileToLambdas = Boolean.getBoolean(COMPILE_TO_LAMBDAS_PROPERTY);
+        if (compileToLambdas != cachedQueriesCompiledToLambdas) {
+            synchronized (PREPARED_QUERY_CACHE) {
+                if (compileToLambdas != cachedQueriesCompiledToLambdas) {
+                    PREPARED_QUERY_CACHE.clear();
+                    cachedQueriesCompiledToLambdas = compileToLambdas;
+                }
+            }
+        }
+
+        return PREPARED_QUERY_CACHE.getPrepared(query, text -> prepare(text, compileToLambdas));
+    }
+
+    /**
+     * @return the cache of prepared queries that is shared by all callers of {@link #prepare(String)}
+     */
+    public static PreparedQueryCache getPreparedQueryCache() {
+        return PREPARED_QUERY_CACHE;
+    }
+
+    static PreparedQuery prepare(final String query, final boolean compileToLambdas) throws AttributeExpressionLanguageParsingException {
         final List<Range> ranges = extractExpressionRanges(query);
 
         if (ranges.isEmpty()) {
@@ -252,6 +302,7 @@ public class Query {
         }
 
         final ExpressionCompiler compiler = new ExpressionCompiler();
+        final LambdaCompiler lambdaCompiler = compileToLambdas ? new LambdaCompiler() : null;
 
         try {
             final List<Expression> expressions = new ArrayList<>();
@@ -266,7 +317,7 @@ public class Query {
 
                 final String treeText = query.substring(range.getStart(), range.getEnd() + 1).replace("$$", "$");
                 final CompiledExpression compiledExpression = compiler.compile(treeText);
-                expressions.add(compiledExpression);
+                expressions.add(lambdaCompiler == null ? compiledExpression : lambdaCompiler.compile(compiledExpression));
 
                 lastIndex = range.getEnd() + 1;
             }
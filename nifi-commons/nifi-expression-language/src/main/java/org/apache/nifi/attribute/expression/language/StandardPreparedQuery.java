@@ -36,6 +36,9 @@ import org.apache.nifi.processor.exception.ProcessException;
 
 public class StandardPreparedQuery implements PreparedQuery {
 
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 8192;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
     private final List<Expression> expressions;
     private volatile VariableImpact variableImpact;
 
@@ -45,17 +48,32 @@ public class StandardPreparedQuery implements PreparedQuery {
 
     @Override
     public String evaluateExpressions(final Map<String, String> valMap, final AttributeValueDecorator decorator, final Map<String, String> stateVariables) throws ProcessException {
-        final StringBuilder sb = new StringBuilder();
+        if (expressions.size() == 1) {
+            final String evaluated = expressions.get(0).evaluate(valMap, decorator, stateVariables);
+            return evaluated == null ? "" : evaluated;
+        }
 
-        for (final Expression expression : expressions) {
-            final String evaluated = expression.evaluate(valMap, decorator, stateVariables);
+        // The buffer is shared by all queries on this thread. If it is not empty, this is a nested call made while
+        // evaluating another query, so a new buffer is needed. Otherwise, it is always left empty when we are done.
+        final StringBuilder sharedBuffer = BUFFER.get();
+        final StringBuilder sb = sharedBuffer.length() == 0 ? sharedBuffer : new StringBuilder();
+
+        try {
+            for (final Expression expression : expressions) {
+                final String evaluated = expression.evaluate(valMap, decorator, stateVariables);
 
-            if (evaluated != null) {
-                sb.append(evaluated);
+                if (evaluated != null) {
+                    sb.append(evaluated);
+                }
             }
-        }
 
-        return sb.toString();
+            return sb.toString();
+        } finally {
+            sb.setLength(0);
+            if (sb == sharedBuffer && sb.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+                BUFFER.remove();
+            }
+        }
     }
 
     @Override
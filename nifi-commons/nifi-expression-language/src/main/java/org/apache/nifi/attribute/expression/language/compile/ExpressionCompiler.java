@@ -21,6 +21,7 @@ import static org.apache.nifi.attribute.expression.language.antlr.AttributeExpre
 
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -378,7 +379,67 @@ public class ExpressionCompiler {
         for (int i = 1; i < functionTree.getChildCount(); i++) {
             argEvaluators.add(buildEvaluator(functionTree.getChild(i)));
         }
-        return buildFunctionEvaluator(functionNameTree, subjectEvaluator, argEvaluators);
+        final Evaluator<?> functionEvaluator = buildFunctionEvaluator(functionNameTree, subjectEvaluator, argEvaluators);
+
+        switch (functionNameTree.getType()) {
+        case MATH:
+        case RANDOM:
+            // not deterministic, so these can never be folded into a literal
+            return functionEvaluator;
+        default:
+            final List<Evaluator<?>> inputs = new ArrayList<>(argEvaluators);
+            inputs.add(subjectEvaluator);
+            return foldConstant(functionEvaluator, inputs);
+        }
+    }
+
+    private boolean isConstant(final Evaluator<?> evaluator) {
+        return evaluator instanceof StringLiteralEvaluator || evaluator instanceof BooleanLiteralEvaluator
+            || evaluator instanceof WholeNumberLiteralEvaluator || evaluator instanceof DecimalLiteralEvaluator;
+    }
+
+    /**
+     * If all of the inputs of the given Evaluator are literals, evaluates it once and replaces it with a literal
+     * holding the result, so that constant sub-expressions such as <code>${literal('a'):toUpper()}</code> are not
+     * re-evaluated, and so that functions taking the result as an argument can pre-compile it.
+     *
+     * @param evaluator the evaluator to fold
+     * @param inputs the evaluators that provide the subject and arguments of the given evaluator
+     * @return a literal evaluator with the same result, or the given evaluator if it cannot be folded
+     */
+    private Evaluator<?> foldConstant(final Evaluator<?> evaluator, final List<Evaluator<?>> inputs) {
+        if (evaluator instanceof ReduceEvaluator || evaluator instanceof IteratingEvaluator) {
+            return evaluator;
+        }
+
+        for (final Evaluator<?> input : inputs) {
+            if (!isConstant(input)) {
+                return evaluator;
+            }
+        }
+
+        final Object value;
+        try {
+            value = evaluator.evaluate(Collections.emptyMap()).getValue();
+        } catch (final Exception e) {
+            // leave the failure to be reported when the expression is evaluated, as it would be without folding
+            return evaluator;
+        }
+
+        final Evaluator<?> folded;
+        if (evaluator.getResultType() == ResultType.STRING && value instanceof String) {
+            folded = StringLiteralEvaluator.forValue((String) value);
+        } else if (evaluator.getResultType() == ResultType.BOOLEAN && value instanceof Boolean) {
+            folded = new BooleanLiteralEvaluator((Boolean) value);
+        } else if (evaluator.getResultType() == ResultType.WHOLE_NUMBER && value instanceof Long) {
+            folded = new WholeNumberLiteralEvaluator(value.toString());
+        } else if (evaluator.getResultType() == ResultType.DECIMAL && value instanceof Double) {
+            folded = new DecimalLiteralEvaluator(value.toString());
+        } else {
+            return evaluator;
+        }
+
+        return addToken(folded, evaluator.getToken());
     }
 
     private List<Evaluator<?>> verifyArgCount(final List<Evaluator<?>> args, final int count, final String functionName) {
@@ -1165,7 +1226,7 @@ public class ExpressionCompiler {
         }
         case TO_LITERAL: {
             final Evaluator<?> argEvaluator = buildEvaluator(tree.getChild(0));
-            return addToken(new ToLiteralEvaluator(argEvaluator), "toLiteral");
+            return foldConstant(addToken(new ToLiteralEvaluator(argEvaluator), "toLiteral"), Collections.singletonList(argEvaluator));
         }
         case IP: {
             try {
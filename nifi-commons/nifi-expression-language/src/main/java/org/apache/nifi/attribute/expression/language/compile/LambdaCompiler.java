@@ -0,0 +1,560 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.compile;
+
+import static org.apache.nifi.attribute.expression.language.antlr.AttributeExpressionParser.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.antlr.runtime.tree.Tree;
+import org.apache.nifi.attribute.expression.language.CompiledExpression;
+import org.apache.nifi.attribute.expression.language.Query;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.util.NumberParsing;
+import org.apache.nifi.expression.AttributeExpression.ResultType;
+import org.apache.nifi.expression.AttributeValueDecorator;
+
+/**
+ * Compiles the syntax tree of a {@link CompiledExpression} into a chain of lambdas that are specialized by result type:
+ * Boolean functions become {@link Predicate}s that return primitive booleans, while String and Number functions
+ * become {@link Function}s that return their values directly rather than wrapping them into QueryResults. The compiled
+ * chain holds no state, so unlike the Evaluator tree it does not have to be rebuilt for every evaluation.
+ *
+ * Only the commonly used functions that always produce the same result as their Evaluators are supported. An
+ * expression that uses any other function, or that references multiple attributes or state, is returned as is and
+ * continues to be evaluated through its Evaluator tree.
+ */
+public class LambdaCompiler {
+
+    /**
+     * Compiles the given expression into lambdas, if all of its functions are supported.
+     *
+     * @param expression the expression to compile
+     * @return an expression that evaluates through lambdas, or the given expression if it cannot be compiled
+     */
+    public CompiledExpression compile(final CompiledExpression expression) {
+        final Node root = compileNode(expression.getTree());
+        if (root == null) {
+            return expression;
+        }
+
+        return new LambdaExpression(expression, root.asString());
+    }
+
+    private Node compileNode(final Tree tree) {
+        switch (tree.getType()) {
+            case EXPRESSION:
+                return compileExpression(tree);
+            case ATTRIBUTE_REFERENCE:
+                return compileAttributeReference(tree.getChild(0));
+            case STRING_LITERAL: {
+                final String literal = toLiteral(tree.getText());
+                return literal == null ? null : Node.ofString(attributes -> literal);
+            }
+            case WHOLE_NUMBER: {
+                final Long literal = Long.parseLong(tree.getText());
+                return Node.ofNumber(ResultType.WHOLE_NUMBER, attributes -> literal);
+            }
+            case DECIMAL: {
+                final Double literal = Double.parseDouble(tree.getText());
+                return Node.ofNumber(ResultType.DECIMAL, attributes -> literal);
+            }
+            case TRUE:
+                return Node.ofBoolean(attributes -> true);
+            case FALSE:
+                return Node.ofBoolean(attributes -> false);
+            default:
+                return null;
+        }
+    }
+
+    private Node compileExpression(final Tree tree) {
+        if (tree.getChildCount() == 0) {
+            return null;
+        }
+
+        // the first child is the subject; each of the others is a function applied to the result of the one before it
+        Node node = compileNode(tree.getChild(0));
+        for (int i = 1; i < tree.getChildCount() && node != null; i++) {
+            final Tree functionTree = tree.getChild(i);
+
+            final List<Node> args = new ArrayList<>();
+            for (int j = 1; j < functionTree.getChildCount(); j++) {
+                final Node arg = compileNode(functionTree.getChild(j));
+                if (arg == null) {
+                    return null;
+                }
+                args.add(arg);
+            }
+
+            node = compileFunction(functionTree.getChild(0).getType(), node, args);
+        }
+
+        return node;
+    }
+
+    private Node compileAttributeReference(final Tree nameTree) {
+        if (nameTree.getType() == ATTR_NAME) {
+            final String name = toLiteral(nameTree.getChild(0).getText());
+            return name == null ? null : Node.ofString(attributes -> attributes.get(name));
+        }
+
+        final Node nameNode = compileNode(nameTree);
+        if (nameNode == null || nameNode.type == ResultType.BOOLEAN) {
+            return null;
+        }
+
+        final Function<Map<String, String>, String> name = nameNode.asString();
+        return Node.ofString(attributes -> attributes.get(name.apply(attributes)));
+    }
+
+    /**
+     * @return the value of the given String Literal, or <code>null</code> if the literal embeds an expression
+     */
+    private static String toLiteral(final String text) {
+        if (text != null && text.length() >= 2 && !Query.extractExpressionRanges(text).isEmpty()) {
+            return null;
+        }
+
+        return new StringLiteralEvaluator(text).evaluate(null).getValue();
+    }
+
+    private Node compileFunction(final int functionType, final Node subjectNode, final List<Node> args) {
+        switch (functionType) {
+            case TRIM:
+            case TO_LOWER:
+            case TO_UPPER:
+            case LENGTH:
+            case IS_NULL:
+            case NOT_NULL:
+            case IS_EMPTY:
+            case TO_NUMBER:
+            case NOT:
+                if (!args.isEmpty()) {
+                    return null;
+                }
+                return compileUnaryFunction(functionType, subjectNode);
+            case AND:
+            case OR:
+            case EQUALS:
+            case EQUALS_IGNORE_CASE:
+            case CONTAINS:
+            case STARTS_WITH:
+            case ENDS_WITH:
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUAL:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUAL:
+            case APPEND:
+            case PREPEND:
+            case SUBSTRING_BEFORE:
+            case SUBSTRING_BEFORE_LAST:
+            case SUBSTRING_AFTER:
+            case SUBSTRING_AFTER_LAST:
+            case REPLACE_NULL:
+            case REPLACE_EMPTY:
+                if (args.size() != 1) {
+                    return null;
+                }
+                return compileBinaryFunction(functionType, subjectNode, args.get(0));
+            default:
+                return null;
+        }
+    }
+
+    private Node compileUnaryFunction(final int functionType, final Node subjectNode) {
+        if (functionType == NOT) {
+            if (subjectNode.type != ResultType.BOOLEAN) {
+                return null;
+            }
+            return Node.ofBoolean(subjectNode.bool.negate());
+        }
+
+        if (functionType == TO_NUMBER) {
+            if (subjectNode.type == ResultType.BOOLEAN) {
+                return null;
+            }
+            final Function<Map<String, String>, Number> number = subjectNode.asNumber();
+            return Node.ofNumber(ResultType.WHOLE_NUMBER, attributes -> toWholeNumber(number.apply(attributes)));
+        }
+
+        final Function<Map<String, String>, String> subject = subjectNode.asString();
+        switch (functionType) {
+            case TRIM:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    return value == null ? null : value.trim();
+                });
+            case TO_LOWER:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    return value == null ? null : value.toLowerCase();
+                });
+            case TO_UPPER:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    return value == null ? null : value.toUpperCase();
+                });
+            case LENGTH:
+                return Node.ofNumber(ResultType.WHOLE_NUMBER, attributes -> {
+                    final String value = subject.apply(attributes);
+                    return (long) (value == null ? 0 : value.length());
+                });
+            case IS_NULL:
+                return Node.ofBoolean(attributes -> subject.apply(attributes) == null);
+            case NOT_NULL:
+                return Node.ofBoolean(attributes -> subject.apply(attributes) != null);
+            case IS_EMPTY:
+                return Node.ofBoolean(attributes -> {
+                    final String value = subject.apply(attributes);
+                    return value == null || value.trim().isEmpty();
+                });
+            default:
+                return null;
+        }
+    }
+
+    private Node compileBinaryFunction(final int functionType, final Node subjectNode, final Node argNode) {
+        switch (functionType) {
+            case AND: {
+                if (subjectNode.type != ResultType.BOOLEAN || argNode.type != ResultType.BOOLEAN) {
+                    return null;
+                }
+                return Node.ofBoolean(subjectNode.bool.and(argNode.bool));
+            }
+            case OR: {
+                if (subjectNode.type != ResultType.BOOLEAN || argNode.type != ResultType.BOOLEAN) {
+                    return null;
+                }
+                return Node.ofBoolean(subjectNode.bool.or(argNode.bool));
+            }
+            case EQUALS:
+                return compileEquals(subjectNode, argNode);
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUAL:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUAL:
+                return compileComparison(functionType, subjectNode, argNode);
+            default:
+                break;
+        }
+
+        final Function<Map<String, String>, String> subject = subjectNode.asString();
+        final Function<Map<String, String>, String> arg = argNode.asString();
+        switch (functionType) {
+            case EQUALS_IGNORE_CASE:
+                return Node.ofBoolean(attributes -> {
+                    final String value = subject.apply(attributes);
+                    if (value == null) {
+                        return false;
+                    }
+                    final String compareTo = arg.apply(attributes);
+                    return compareTo != null && value.equalsIgnoreCase(compareTo);
+                });
+            case CONTAINS:
+                return Node.ofBoolean(attributes -> {
+                    final String value = subject.apply(attributes);
+                    if (value == null) {
+                        return false;
+                    }
+                    final String search = arg.apply(attributes);
+                    return search != null && value.contains(search);
+                });
+            case STARTS_WITH:
+                return Node.ofBoolean(attributes -> {
+                    final String value = subject.apply(attributes);
+                    if (value == null) {
+                        return false;
+                    }
+                    final String search = arg.apply(attributes);
+                    return search != null && value.startsWith(search);
+                });
+            case ENDS_WITH:
+                return Node.ofBoolean(attributes -> {
+                    final String value = subject.apply(attributes);
+                    if (value == null) {
+                        return false;
+                    }
+                    final String search = arg.apply(attributes);
+                    return search != null && value.endsWith(search);
+                });
+            case APPEND:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    final String append = arg.apply(attributes);
+                    return (value == null ? "" : value) + (append == null ? "" : append);
+                });
+            case PREPEND:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    final String prepend = arg.apply(attributes);
+                    return (prepend == null ? "" : prepend) + (value == null ? "" : value);
+                });
+            case SUBSTRING_BEFORE:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    if (value == null) {
+                        return "";
+                    }
+                    final String before = arg.apply(attributes);
+                    if (before == null || before.isEmpty()) {
+                        return value;
+                    }
+                    final int index = value.indexOf(before);
+                    return index < 0 ? value : value.substring(0, index);
+                });
+            case SUBSTRING_BEFORE_LAST:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    if (value == null) {
+                        return "";
+                    }
+                    final int index = value.lastIndexOf(arg.apply(attributes));
+                    return index < 0 ? value : value.substring(0, index);
+                });
+            case SUBSTRING_AFTER:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    if (value == null) {
+                        return "";
+                    }
+                    final String after = arg.apply(attributes);
+                    if (after == null || after.isEmpty()) {
+                        return value;
+                    }
+                    final int index = value.indexOf(after);
+                    return index < 0 ? value : value.substring(index + after.length());
+                });
+            case SUBSTRING_AFTER_LAST:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    if (value == null) {
+                        return "";
+                    }
+                    final String after = arg.apply(attributes);
+                    final int index = value.lastIndexOf(after);
+                    return index < 0 || index >= value.length() ? value : value.substring(index + after.length());
+                });
+            case REPLACE_NULL:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    return value == null ? arg.apply(attributes) : value;
+                });
+            case REPLACE_EMPTY:
+                return Node.ofString(attributes -> {
+                    final String value = subject.apply(attributes);
+                    return value == null || value.trim().isEmpty() ? arg.apply(attributes) : value;
+                });
+            default:
+                return null;
+        }
+    }
+
+    private Node compileEquals(final Node subjectNode, final Node compareToNode) {
+        if (subjectNode.type == ResultType.BOOLEAN && compareToNode.type == ResultType.BOOLEAN) {
+            final Predicate<Map<String, String>> subject = subjectNode.bool;
+            final Predicate<Map<String, String>> compareTo = compareToNode.bool;
+            return Node.ofBoolean(attributes -> subject.test(attributes) == compareTo.test(attributes));
+        }
+
+        if (subjectNode.type == compareToNode.type && subjectNode.type != ResultType.STRING) {
+            final Function<Map<String, String>, Number> subject = subjectNode.number;
+            final Function<Map<String, String>, Number> compareTo = compareToNode.number;
+            return Node.ofBoolean(attributes -> {
+                final Number value = subject.apply(attributes);
+                if (value == null) {
+                    return false;
+                }
+                final Number other = compareTo.apply(attributes);
+                return other != null && value.equals(other);
+            });
+        }
+
+        // values of the same type are compared directly, and values of different types by their String forms
+        final Function<Map<String, String>, String> subject = subjectNode.asString();
+        final Function<Map<String, String>, String> compareTo = compareToNode.asString();
+        return Node.ofBoolean(attributes -> {
+            final String value = subject.apply(attributes);
+            if (value == null) {
+                return false;
+            }
+            final String other = compareTo.apply(attributes);
+            return other != null && value.equals(other);
+        });
+    }
+
+    private Node compileComparison(final int functionType, final Node subjectNode, final Node comparisonNode) {
+        if (subjectNode.type == ResultType.BOOLEAN || comparisonNode.type == ResultType.BOOLEAN) {
+            return null;
+        }
+
+        final BiPredicate<Number, Number> comparator;
+        switch (functionType) {
+            case GREATER_THAN:
+                comparator = LambdaCompiler::greaterThan;
+                break;
+            case GREATER_THAN_OR_EQUAL:
+                comparator = LambdaCompiler::greaterThanOrEqual;
+                break;
+            case LESS_THAN:
+                comparator = LambdaCompiler::lessThan;
+                break;
+            default:
+                comparator = LambdaCompiler::lessThanOrEqual;
+                break;
+        }
+
+        final Function<Map<String, String>, Number> subject = subjectNode.asNumber();
+        final Function<Map<String, String>, Number> comparison = comparisonNode.asNumber();
+        return Node.ofBoolean(attributes -> {
+            final Number value = subject.apply(attributes);
+            if (value == null) {
+                return false;
+            }
+            final Number other = comparison.apply(attributes);
+            return other != null && comparator.test(value, other);
+        });
+    }
+
+    private static boolean greaterThan(final Number a, final Number b) {
+        return (a instanceof Double || b instanceof Double) ? a.doubleValue() > b.doubleValue() : a.longValue() > b.longValue();
+    }
+
+    private static boolean greaterThanOrEqual(final Number a, final Number b) {
+        return (a instanceof Double || b instanceof Double) ? a.doubleValue() >= b.doubleValue() : a.longValue() >= b.longValue();
+    }
+
+    private static boolean lessThan(final Number a, final Number b) {
+        return (a instanceof Double || b instanceof Double) ? a.doubleValue() < b.doubleValue() : a.longValue() < b.longValue();
+    }
+
+    private static boolean lessThanOrEqual(final Number a, final Number b) {
+        return (a instanceof Double || b instanceof Double) ? a.doubleValue() <= b.doubleValue() : a.longValue() <= b.longValue();
+    }
+
+    private static Number parseNumber(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        final String trimmed = value.trim();
+        switch (NumberParsing.parse(trimmed)) {
+            case DECIMAL:
+                return Double.valueOf(trimmed);
+            case WHOLE_NUMBER:
+                try {
+                    return Long.valueOf(trimmed);
+                } catch (final NumberFormatException e) {
+                    // Will only occur if trimmed is a hex number
+                    return Long.decode(trimmed);
+                }
+            case NOT_NUMBER:
+            default:
+                return null;
+        }
+    }
+
+    private static Long toWholeNumber(final Number number) {
+        if (number == null || number instanceof Long) {
+            return (Long) number;
+        }
+
+        return number.longValue();
+    }
+
+    /**
+     * A compiled node of the syntax tree, holding the lambda that matches its result type
+     */
+    private static final class Node {
+        private final ResultType type;
+        private final Function<Map<String, String>, String> string;
+        private final Predicate<Map<String, String>> bool;
+        private final Function<Map<String, String>, Number> number;
+
+        private Node(final ResultType type, final Function<Map<String, String>, String> string, final Predicate<Map<String, String>> bool,
+                     final Function<Map<String, String>, Number> number) {
+            this.type = type;
+            this.string = string;
+            this.bool = bool;
+            this.number = number;
+        }
+
+        static Node ofString(final Function<Map<String, String>, String> string) {
+            return new Node(ResultType.STRING, string, null, null);
+        }
+
+        static Node ofBoolean(final Predicate<Map<String, String>> bool) {
+            return new Node(ResultType.BOOLEAN, null, bool, null);
+        }
+
+        static Node ofNumber(final ResultType type, final Function<Map<String, String>, Number> number) {
+            return new Node(type, null, null, number);
+        }
+
+        Function<Map<String, String>, String> asString() {
+            switch (type) {
+                case STRING:
+                    return string;
+                case BOOLEAN: {
+                    final Predicate<Map<String, String>> bool = this.bool;
+                    return attributes -> bool.test(attributes) ? "true" : "false";
+                }
+                default: {
+                    final Function<Map<String, String>, Number> number = this.number;
+                    return attributes -> {
+                        final Number value = number.apply(attributes);
+                        return value == null ? null : value.toString();
+                    };
+                }
+            }
+        }
+
+        Function<Map<String, String>, Number> asNumber() {
+            if (type != ResultType.STRING) {
+                return number;
+            }
+
+            final Function<Map<String, String>, String> string = this.string;
+            return attributes -> parseNumber(string.apply(attributes));
+        }
+    }
+
+    private static final class LambdaExpression extends CompiledExpression {
+        private final Function<Map<String, String>, String> lambda;
+
+        LambdaExpression(final CompiledExpression expression, final Function<Map<String, String>, String> lambda) {
+            super(expression.getExpression(), expression.getRootEvaluator(), expression.getTree(), expression.getAllEvaluators());
+            this.lambda = lambda;
+        }
+
+        @Override
+        public String evaluate(final Map<String, String> variables, final AttributeValueDecorator decorator, final Map<String, String> stateVariables) {
+            final String value = lambda.apply(variables);
+            if (value == null) {
+                return null;
+            }
+
+            final String escaped = value.indexOf("$$") < 0 ? value : value.replace("$$", "$");
+            return decorator == null ? escaped : decorator.decorate(escaped);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.StringEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.StringQueryResult;
+import org.apache.nifi.attribute.expression.language.evaluation.util.LiteralDateFormats;
 
 public class FormatEvaluator extends StringEvaluator {
 
@@ -34,10 +35,13 @@ public class FormatEvaluator extends StringEvaluator {
     private final Evaluator<String> format;
     private final Evaluator<String> timeZone;
 
+    private final ThreadLocal<SimpleDateFormat> compiledFormat;
+
     public FormatEvaluator(final DateEvaluator subject, final Evaluator<String> format, final Evaluator<String> timeZone) {
         this.subject = subject;
         this.format = format;
         this.timeZone = timeZone;
+        this.compiledFormat = LiteralDateFormats.compile(format, timeZone);
     }
 
     @Override
@@ -53,14 +57,19 @@ public class FormatEvaluator extends StringEvaluator {
             return null;
         }
 
-        final SimpleDateFormat sdf = new SimpleDateFormat(format, Locale.US);
+        final SimpleDateFormat sdf;
+        if (compiledFormat == null) {
+            sdf = new SimpleDateFormat(format, Locale.US);
 
-        if(timeZone != null) {
-            final QueryResult<String> tzResult = timeZone.evaluate(attributes);
-            final String tz = tzResult.getValue();
-            if(tz != null && TimeZone.getTimeZone(tz) != null) {
-                sdf.setTimeZone(TimeZone.getTimeZone(tz));
+            if(timeZone != null) {
+                final QueryResult<String> tzResult = timeZone.evaluate(attributes);
+                final String tz = tzResult.getValue();
+                if(tz != null && TimeZone.getTimeZone(tz) != null) {
+                    sdf.setTimeZone(TimeZone.getTimeZone(tz));
+                }
             }
+        } else {
+            sdf = compiledFormat.get();
         }
 
         return new StringQueryResult(sdf.format(subjectValue));
@@ -17,10 +17,13 @@
 package org.apache.nifi.attribute.expression.language.evaluation.functions;
 
 import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.StringEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.StringQueryResult;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
 
 public class ReplaceFirstEvaluator extends StringEvaluator {
 
@@ -28,10 +31,24 @@ public class ReplaceFirstEvaluator extends StringEvaluator {
     private final Evaluator<String> search;
     private final Evaluator<String> replacement;
 
+    private final Pattern compiledPattern;
+
     public ReplaceFirstEvaluator(final Evaluator<String> subject, final Evaluator<String> search, final Evaluator<String> replacement) {
         this.subject = subject;
         this.search = search;
         this.replacement = replacement;
+
+        // if the search string is a literal, we don't need to compile it each time. An invalid pattern is
+        // left to be compiled, and to fail, when the expression is evaluated, as String.replaceFirst would.
+        Pattern pattern = null;
+        if (search instanceof StringLiteralEvaluator) {
+            try {
+                pattern = Pattern.compile(search.evaluate(null).getValue());
+            } catch (final PatternSyntaxException pse) {
+                pattern = null;
+            }
+        }
+        this.compiledPattern = pattern;
     }
 
     @Override
@@ -40,6 +57,11 @@ public class ReplaceFirstEvaluator extends StringEvaluator {
         if (subjectValue == null) {
             return new StringQueryResult(null);
         }
+        if (compiledPattern != null) {
+            final String replacementValue = replacement.evaluate(attributes).getValue();
+            return new StringQueryResult(compiledPattern.matcher(subjectValue).replaceFirst(replacementValue));
+        }
+
         final String searchValue = search.evaluate(attributes).getValue();
         final String replacementValue = replacement.evaluate(attributes).getValue();
 
@@ -27,6 +27,7 @@ import org.apache.nifi.attribute.expression.language.evaluation.DateEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.DateQueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
+import org.apache.nifi.attribute.expression.language.evaluation.util.LiteralDateFormats;
 import org.apache.nifi.attribute.expression.language.exception.IllegalAttributeException;
 
 public class StringToDateEvaluator extends DateEvaluator {
@@ -35,10 +36,13 @@ public class StringToDateEvaluator extends DateEvaluator {
     private final Evaluator<String> format;
     private final Evaluator<String> timeZone;
 
+    private final ThreadLocal<SimpleDateFormat> compiledFormat;
+
     public StringToDateEvaluator(final Evaluator<String> subject, final Evaluator<String> format, final Evaluator<String> timeZone) {
         this.subject = subject;
         this.format = format;
         this.timeZone = timeZone;
+        this.compiledFormat = LiteralDateFormats.compile(format, timeZone);
     }
 
     @Override
@@ -49,14 +53,19 @@ public class StringToDateEvaluator extends DateEvaluator {
             return new DateQueryResult(null);
         }
 
-        final SimpleDateFormat sdf = new SimpleDateFormat(formatValue, Locale.US);
+        final SimpleDateFormat sdf;
+        if (compiledFormat == null) {
+            sdf = new SimpleDateFormat(formatValue, Locale.US);
 
-        if(timeZone != null) {
-            final QueryResult<String> tzResult = timeZone.evaluate(attributes);
-            final String tz = tzResult.getValue();
-            if(tz != null && TimeZone.getTimeZone(tz) != null) {
-                sdf.setTimeZone(TimeZone.getTimeZone(tz));
+            if(timeZone != null) {
+                final QueryResult<String> tzResult = timeZone.evaluate(attributes);
+                final String tz = tzResult.getValue();
+                if(tz != null && TimeZone.getTimeZone(tz) != null) {
+                    sdf.setTimeZone(TimeZone.getTimeZone(tz));
+                }
             }
+        } else {
+            sdf = compiledFormat.get();
         }
 
         try {
@@ -27,14 +27,16 @@ import java.util.Map;
 public class DecimalLiteralEvaluator extends DecimalEvaluator {
 
     private final double literal;
+    private final QueryResult<Double> result;
 
     public DecimalLiteralEvaluator(final String value) {
         this.literal = Double.parseDouble(value);
+        this.result = new DecimalQueryResult(literal);
     }
 
     @Override
     public QueryResult<Double> evaluate(final Map<String, String> attributes) {
-        return new DecimalQueryResult(literal);
+        return result;
     }
 
     @Override
@@ -25,7 +25,7 @@ import org.apache.nifi.attribute.expression.language.evaluation.StringQueryResul
 
 public class StringLiteralEvaluator extends StringEvaluator {
 
-    private final String value;
+    private final QueryResult<String> result;
 
     public StringLiteralEvaluator(final String value) {
         // need to escape characters after backslashes
@@ -61,12 +61,26 @@ public class StringLiteralEvaluator extends StringEvaluator {
             }
         }
 
-        this.value = sb.toString();
+        this.result = new StringQueryResult(sb.toString());
+    }
+
+    private StringLiteralEvaluator(final QueryResult<String> result) {
+        this.result = result;
+    }
+
+    /**
+     * Creates a literal for a value that has already been un-escaped, such as the result of folding a constant sub-expression
+     *
+     * @param value the value of the literal
+     * @return a StringLiteralEvaluator that always returns the given value
+     */
+    public static StringLiteralEvaluator forValue(final String value) {
+        return new StringLiteralEvaluator(new StringQueryResult(value));
     }
 
     @Override
     public QueryResult<String> evaluate(final Map<String, String> attributes) {
-        return new StringQueryResult(value);
+        return result;
     }
 
     @Override
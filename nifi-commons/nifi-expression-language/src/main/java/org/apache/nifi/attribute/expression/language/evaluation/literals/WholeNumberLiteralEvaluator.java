@@ -26,14 +26,16 @@ import org.apache.nifi.attribute.expression.language.evaluation.WholeNumberQuery
 public class WholeNumberLiteralEvaluator extends WholeNumberEvaluator {
 
     private final long literal;
+    private final QueryResult<Long> result;
 
     public WholeNumberLiteralEvaluator(final String value) {
         this.literal = Long.parseLong(value);
+        this.result = new WholeNumberQueryResult(literal);
     }
 
     @Override
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
-        return new WholeNumberQueryResult(literal);
+        return result;
     }
 
     @Override
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.evaluation.util;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
+
+public class LiteralDateFormats {
+
+    /**
+     * Pre-compiles the date format described by the given format and time zone arguments, if both are literals, so that
+     * the pattern does not have to be parsed on every evaluation. SimpleDateFormat is not thread-safe, so each thread is
+     * given its own copy.
+     *
+     * @param format the evaluator for the date format
+     * @param timeZone the evaluator for the time zone, or <code>null</code> if no time zone was given
+     * @return a per-thread date format, or <code>null</code> if the arguments are not literals or the format is not valid,
+     *         in which case the format must be created when the expression is evaluated
+     */
+    public static ThreadLocal<SimpleDateFormat> compile(final Evaluator<String> format, final Evaluator<String> timeZone) {
+        if (!(format instanceof StringLiteralEvaluator)) {
+            return null;
+        }
+        if (timeZone != null && !(timeZone instanceof StringLiteralEvaluator)) {
+            return null;
+        }
+
+        final String formatValue = format.evaluate(null).getValue();
+        if (formatValue == null) {
+            return null;
+        }
+
+        final SimpleDateFormat prototype;
+        try {
+            prototype = new SimpleDateFormat(formatValue, Locale.US);
+        } catch (final IllegalArgumentException iae) {
+            return null;
+        }
+
+        if (timeZone != null) {
+            final String tz = timeZone.evaluate(null).getValue();
+            if (tz != null && TimeZone.getTimeZone(tz) != null) {
+                prototype.setTimeZone(TimeZone.getTimeZone(tz));
+            }
+        }
+
+        return ThreadLocal.withInitial(() -> (SimpleDateFormat) prototype.clone());
+    }
+}
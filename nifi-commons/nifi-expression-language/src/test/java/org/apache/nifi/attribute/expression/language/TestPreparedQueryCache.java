@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class TestPreparedQueryCache {
+
+    @Test
+    public void testHitsAndMisses() {
+        final AtomicInteger prepareCount = new AtomicInteger(0);
+        final Function<String, PreparedQuery> preparer = countingPreparer(prepareCount);
+        final PreparedQueryCache cache = new PreparedQueryCache(10);
+
+        final PreparedQuery first = cache.getPrepared("${a:toUpper()}", preparer);
+        assertSame(first, cache.getPrepared("${a:toUpper()}", preparer));
+        assertSame(first, cache.getPrepared("${a:toUpper()}", preparer));
+        cache.getPrepared("${b}", preparer);
+
+        assertEquals(2, prepareCount.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getSize());
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("a", "hello");
+        assertEquals("HELLO", cache.getPrepared("${a:toUpper()}", preparer).evaluateExpressions(attributes, null));
+    }
+
+    @Test
+    public void testEldestEvictedWhenFull() {
+        final AtomicInteger prepareCount = new AtomicInteger(0);
+        final Function<String, PreparedQuery> preparer = countingPreparer(prepareCount);
+        final PreparedQueryCache cache = new PreparedQueryCache(3);
+
+        for (int i = 0; i < 5; i++) {
+            cache.getPrepared("${attr" + i + "}", preparer);
+        }
+
+        assertEquals(3, cache.getSize());
+        assertEquals(2, cache.getEvictionCount());
+
+        // only the two eldest queries were evicted, so only they must be prepared again
+        cache.getPrepared("${attr4}", preparer);
+        assertEquals(5, prepareCount.get());
+        cache.getPrepared("${attr0}", preparer);
+        assertEquals(6, prepareCount.get());
+        assertEquals(3, cache.getSize());
+    }
+
+    @Test
+    public void testValuesWithoutExpressionLanguageNotCached() {
+        final AtomicInteger prepareCount = new AtomicInteger(0);
+        final Function<String, PreparedQuery> preparer = countingPreparer(prepareCount);
+        final PreparedQueryCache cache = new PreparedQueryCache(10);
+
+        assertEquals("just a plain value", cache.getPrepared("just a plain value", preparer).evaluateExpressions(new HashMap<>(), null));
+        cache.getPrepared("just a plain value", preparer);
+
+        assertEquals(2, prepareCount.get());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testDisabled() {
+        final AtomicInteger prepareCount = new AtomicInteger(0);
+        final Function<String, PreparedQuery> preparer = countingPreparer(prepareCount);
+        final PreparedQueryCache cache = new PreparedQueryCache(0);
+
+        assertNotSame(cache.getPrepared("${a}", preparer), cache.getPrepared("${a}", preparer));
+        assertEquals(2, prepareCount.get());
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testQueryPrepareSharesPreparedQueries() {
+        final PreparedQuery prepared = Query.prepare("${shared:append('-cached')}");
+        assertSame(prepared, Query.prepare("${shared:append('-cached')}"));
+
+        // a query prepared with a different setting must not be shared
+        try {
+            System.setProperty(Query.COMPILE_TO_LAMBDAS_PROPERTY, "true");
+            assertNotSame(prepared, Query.prepare("${shared:append('-cached')}"));
+        } finally {
+            System.clearProperty(Query.COMPILE_TO_LAMBDAS_PROPERTY);
+        }
+    }
+
+    @Test
+    @Ignore("Intended for manual performance testing; should not be run in an automated environment")
+    public void testPrepareManyComponentsWithSameProperties() {
+        // simulate loading a flow in which 5,000 processors were instantiated from the same template
+        final String[] propertyValues = {
+            "${filename:substringBeforeLast('.'):append('.json')}",
+            "${path}/${now():format('yyyy/MM/dd')}/${uuid}",
+            "${mime.type:equals('application/json'):and(${fileSize:gt(0)})}",
+            "Received ${filename} from ${s2s.host} at ${entryDate:toDate('yyyy-MM-dd HH:mm:ss', 'GMT'):format('HH:mm')}"
+        };
+
+        final Function<String, PreparedQuery> preparer = text -> Query.prepare(text, false);
+        final PreparedQueryCache uncached = new PreparedQueryCache(0);
+        final PreparedQueryCache cached = new PreparedQueryCache(Query.DEFAULT_PREPARED_QUERY_CACHE_SIZE);
+
+        // alternate between the two, so that each is measured after the JIT has warmed up
+        for (int round = 0; round < 4; round++) {
+            final PreparedQueryCache cache = round % 2 == 0 ? uncached : cached;
+
+            final long start = System.nanoTime();
+            for (int i = 0; i < 5000; i++) {
+                for (final String propertyValue : propertyValues) {
+                    cache.getPrepared(propertyValue, preparer);
+                }
+            }
+            final long nanos = System.nanoTime() - start;
+            System.out.println((cache == cached ? "Cached: " : "Uncached: ") + TimeUnit.NANOSECONDS.toMillis(nanos) + " millis; " + cache);
+        }
+    }
+
+    private Function<String, PreparedQuery> countingPreparer(final AtomicInteger prepareCount) {
+        return text -> {
+            prepareCount.incrementAndGet();
+            return Query.prepare(text, false);
+        };
+    }
+}
@@ -18,14 +18,21 @@ package org.apache.nifi.attribute.expression.language;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.nifi.attribute.expression.language.compile.ExpressionCompiler;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.WholeNumberLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.exception.IllegalAttributeException;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -64,6 +71,133 @@ public class TestStandardPreparedQuery {
         System.out.println(TimeUnit.NANOSECONDS.toMillis(nanos));
     }
 
+    @Test
+    @Ignore("Intended for manual performance testing; should not be run in an automated environment")
+    public void testCompiledToLambdasComparison() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("filename", "data.csv");
+        attrs.put("fileSize", "4096");
+        attrs.put("mime.type", "text/plain");
+
+        final String expression = "${filename:toLower():endsWith('.csv'):and(${fileSize:gt(1024)}):or(${mime.type:equalsIgnoreCase('text/csv')})}";
+        try {
+            // alternate between the two, so that each is measured after the JIT has warmed up
+            for (int round = 0; round < 4; round++) {
+                final boolean lambdas = round % 2 == 1;
+                System.setProperty(Query.COMPILE_TO_LAMBDAS_PROPERTY, String.valueOf(lambdas));
+                final PreparedQuery prepared = Query.prepare(expression);
+
+                final long start = System.nanoTime();
+                for (int i = 0; i < 1000000; i++) {
+                    assertEquals("true", prepared.evaluateExpressions(attrs, null));
+                }
+                final long nanos = System.nanoTime() - start;
+                System.out.println((lambdas ? "Lambdas: " : "Evaluators: ") + TimeUnit.NANOSECONDS.toMillis(nanos) + " millis");
+            }
+        } finally {
+            System.clearProperty(Query.COMPILE_TO_LAMBDAS_PROPERTY);
+        }
+    }
+
+    @Test
+    @Ignore("Intended for manual performance testing; should not be run in an automated environment")
+    public void testAllocationsPerEvaluation() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("filename", "Report-2018-06-30.csv");
+        attrs.put("fileSize", "4096");
+        attrs.put("entryDate", "2018/06/30 12:34:56");
+
+        final String[] expressions = {
+            "${filename}",
+            "${filename:toUpper()}",
+            "${filename:substringBefore('.'):append('.txt')}",
+            "${filename:replaceAll('[0-9]+', '#')}",
+            "${filename:matches('.*\\.csv')}",
+            "${fileSize:gt(1024)}",
+            "${entryDate:toDate('yyyy/MM/dd HH:mm:ss'):format('yyyyMMdd')}",
+            "${filename:equals(${literal('report'):append('-2018-06-30.csv')})}",
+            "Received ${filename} of ${fileSize} bytes",
+            "${allAttributes('filename', 'fileSize'):join(', ')}"
+        };
+
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final int iterations = 1000000;
+
+        for (final String expression : expressions) {
+            final PreparedQuery prepared = Query.prepare(expression);
+            final String expected = prepared.evaluateExpressions(attrs, null);
+
+            // warm up, so that the measurement reflects the JIT-compiled code
+            for (int i = 0; i < iterations; i++) {
+                prepared.evaluateExpressions(attrs, null);
+            }
+
+            final long startBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+            final long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                assertEquals(expected, prepared.evaluateExpressions(attrs, null));
+            }
+            final long nanos = System.nanoTime() - start;
+            final long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - startBytes;
+
+            System.out.println(expression + ": " + bytes / iterations + " bytes and " + nanos / iterations + " nanos per evaluation");
+        }
+    }
+
+    @Test
+    public void testConstantSubExpressionsAreFolded() {
+        final ExpressionCompiler compiler = new ExpressionCompiler();
+        assertTrue(compiler.compile("${literal('hello'):toUpper():append(' world')}").getRootEvaluator() instanceof StringLiteralEvaluator);
+        assertTrue(compiler.compile("${literal('hello'):trim():length()}").getRootEvaluator() instanceof WholeNumberLiteralEvaluator);
+        assertFalse(compiler.compile("${literal('hello'):append(${xx})}").getRootEvaluator() instanceof StringLiteralEvaluator);
+        assertFalse(compiler.compile("${random():mod(10)}").getRootEvaluator() instanceof WholeNumberLiteralEvaluator);
+
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("xx", "Report-2018.csv");
+        assertEquals("HELLO world", evaluate("${literal('hello'):toUpper():append(' world')}", attrs));
+        assertEquals("5", evaluate("${literal('hello'):trim():length()}", attrs));
+        assertEquals("true", evaluate("${xx:startsWith(${literal('rep'):toUpper():substring(0, 1)})}", attrs));
+        assertEquals("Report-#.csv", evaluate("${xx:replaceAll(${literal('[0-9]'):append('+')}, '#')}", attrs));
+
+        // a constant sub-expression that fails must still fail when the expression is evaluated, rather than when it is compiled
+        final PreparedQuery invalid = Query.prepare("${literal('abc'):toDate('yyyy-MM-dd')}");
+        try {
+            invalid.evaluateExpressions(attrs, null);
+            fail("Expected invalid date to fail evaluation");
+        } catch (final IllegalAttributeException expected) {
+        }
+    }
+
+    @Test
+    public void testRepeatedEvaluationOfPreparedQuery() {
+        final PreparedQuery stateless = Query.prepare("${xx:replaceAll('^x+', ''):toDate('yyyy-M-dd', 'GMT'):format('dd/MM', 'GMT')}");
+        final PreparedQuery stateful = Query.prepare("${allAttributes('xx', 'yy'):join(',')}");
+
+        for (int i = 1; i <= 5; i++) {
+            final Map<String, String> attrs = new HashMap<>();
+            attrs.put("xx", "x1999-" + i + "-0" + i);
+            attrs.put("yy", String.valueOf(i));
+
+            assertEquals("0" + i + "/0" + i, stateless.evaluateExpressions(attrs, null));
+            assertEquals("x1999-" + i + "-0" + i + "," + i, stateful.evaluateExpressions(attrs, null));
+        }
+    }
+
+    @Test
+    public void testNestedEvaluation() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("xx", "world");
+        attrs.put("yy", "there");
+
+        // the decorator evaluates another query while the outer one is still being evaluated
+        final PreparedQuery inner = Query.prepare("[${yy}-${yy}]");
+        final PreparedQuery outer = Query.prepare("hello ${xx} and ${yy}!");
+        assertEquals("hello world[there-there] and there[there-there]!", outer.evaluateExpressions(attrs, value -> value + inner.evaluateExpressions(attrs, null)));
+        assertNotEquals("", outer.evaluateExpressions(attrs, null));
+        assertEquals("hello world and there!", outer.evaluateExpressions(attrs, null));
+    }
+
     @Test
     @Ignore("Takes too long")
     public void test10MIterationsWithQuery() {
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.compile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.nifi.attribute.expression.language.CompiledExpression;
+import org.junit.Test;
+
+public class TestLambdaCompiler {
+
+    private static final String[] SUPPORTED_EXPRESSIONS = {
+        "${a}",
+        "${'a'}",
+        "${${name}}",
+        "${a:trim():toUpper():toLower()}",
+        "${a:length()}",
+        "${a:isNull()}",
+        "${a:notNull()}",
+        "${a:isEmpty()}",
+        "${a:equals('hello')}",
+        "${a:equals(${b})}",
+        "${a:equalsIgnoreCase('HELLO')}",
+        "${a:toNumber():equals(10)}",
+        "${a:length():equals('5')}",
+        "${a:isEmpty():equals(true)}",
+        "${a:contains('ll')}",
+        "${a:startsWith('he'):and(${b:endsWith('0')})}",
+        "${a:startsWith('x'):or(${b:endsWith('0')}):not()}",
+        "${a:append(${b}):prepend('>')}",
+        "${a:substringBefore('l')}",
+        "${a:substringBeforeLast('l')}",
+        "${a:substringAfter('l')}",
+        "${a:substringAfterLast('l')}",
+        "${missing:replaceNull('default')}",
+        "${a:replaceEmpty('empty')}",
+        "${b:gt(5)}",
+        "${b:ge(10)}",
+        "${b:lt(10.5)}",
+        "${b:le(${c})}",
+        "${c:toNumber()}",
+        "${b:toNumber():gt(${c:toNumber()})}",
+        "${missing:gt(5)}",
+        "${a:equals('hello'):and(${b:gt(5)}):or(${c:isEmpty()})}",
+        "${'a$$b':equals('a$$b')}",
+    };
+
+    private static final String[] UNSUPPORTED_EXPRESSIONS = {
+        "${a:replaceAll('l+', 'L')}",
+        "${a:equals('${b}')}",
+        "${anyAttribute('a', 'b'):equals('hello')}",
+        "${a:not()}",
+        "${now():format('yyyy')}",
+        "${getStateValue('count')}",
+    };
+
+    @Test
+    public void testSupportedExpressionsEvaluateLikeEvaluators() {
+        final List<Map<String, String>> attributeMaps = new ArrayList<>();
+        attributeMaps.add(new HashMap<>());
+        attributeMaps.add(attributes("hello", "10", "3.5"));
+        attributeMaps.add(attributes("  ", "-7", "0x1F"));
+        attributeMaps.add(attributes("HeLLo world", "abc", "10"));
+        attributeMaps.add(attributes("", "", "NaN"));
+
+        final LambdaCompiler lambdaCompiler = new LambdaCompiler();
+        for (final String expression : SUPPORTED_EXPRESSIONS) {
+            final CompiledExpression compiled = new ExpressionCompiler().compile(expression);
+            final CompiledExpression lambdas = lambdaCompiler.compile(compiled);
+            assertNotSame(expression, compiled, lambdas);
+
+            for (final Map<String, String> attributes : attributeMaps) {
+                assertEquals(expression + " with " + attributes, compiled.evaluate(attributes, null, null), lambdas.evaluate(attributes, null, null));
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedExpressionsAreNotCompiled() {
+        final LambdaCompiler lambdaCompiler = new LambdaCompiler();
+        for (final String expression : UNSUPPORTED_EXPRESSIONS) {
+            final CompiledExpression compiled = new ExpressionCompiler().compile(expression);
+            assertSame(expression, compiled, lambdaCompiler.compile(compiled));
+        }
+    }
+
+    private Map<String, String> attributes(final String a, final String b, final String c) {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("a", a);
+        attributes.put("b", b);
+        attributes.put("c", c);
+        attributes.put("name", "a");
+        return attributes;
+    }
+}
@@ -79,6 +79,9 @@ public abstract class NiFiProperties {
     public static final String ADMINISTRATIVE_YIELD_DURATION = "nifi.administrative.yield.duration";
     public static final String PERSISTENT_STATE_DIRECTORY = "nifi.persistent.state.directory";
     public static final String BORED_YIELD_DURATION = "nifi.bored.yield.duration";
+    public static final String TIMER_DRIVEN_SCHEDULING_MODE = "nifi.timer.driven.scheduling.mode";
+    public static final String TIMER_DRIVEN_MAX_IDLE_BACKOFF = "nifi.timer.driven.max.idle.backoff";
+    public static final String VIRTUAL_THREAD_MAX_CONCURRENT_TASKS = "nifi.virtual.thread.max.concurrent.tasks";
     public static final String PROCESSOR_SCHEDULING_TIMEOUT = "nifi.processor.scheduling.timeout";
     public static final String BACKPRESSURE_COUNT = "nifi.queue.backpressure.count";
     public static final String BACKPRESSURE_SIZE = "nifi.queue.backpressure.size";
@@ -94,6 +97,7 @@ public abstract class NiFiProperties {
     public static final String CONTENT_REPOSITORY_IMPLEMENTATION = "nifi.content.repository.implementation";
     public static final String MAX_APPENDABLE_CLAIM_SIZE = "nifi.content.claim.max.appendable.size";
     public static final String MAX_FLOWFILES_PER_CLAIM = "nifi.content.claim.max.flow.files";
+    public static final String CONTENT_CLAIM_MEMORY_MAPPED = "nifi.content.claim.memory.mapped";
     public static final String CONTENT_ARCHIVE_MAX_RETENTION_PERIOD = "nifi.content.repository.archive.max.retention.period";
     public static final String CONTENT_ARCHIVE_MAX_USAGE_PERCENTAGE = "nifi.content.repository.archive.max.usage.percentage";
     public static final String CONTENT_ARCHIVE_BACK_PRESSURE_PERCENTAGE = "nifi.content.repository.archive.backpressure.percentage";
@@ -107,8 +111,13 @@ public abstract class NiFiProperties {
     public static final String FLOWFILE_REPOSITORY_DIRECTORY = "nifi.flowfile.repository.directory";
     public static final String FLOWFILE_REPOSITORY_PARTITIONS = "nifi.flowfile.repository.partitions";
     public static final String FLOWFILE_REPOSITORY_CHECKPOINT_INTERVAL = "nifi.flowfile.repository.checkpoint.interval";
+    public static final String FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_DELAY = "nifi.flowfile.repository.group.commit.max.delay";
+    public static final String FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_SIZE = "nifi.flowfile.repository.group.commit.max.size";
     public static final String FLOWFILE_SWAP_MANAGER_IMPLEMENTATION = "nifi.swap.manager.implementation";
     public static final String QUEUE_SWAP_THRESHOLD = "nifi.queue.swap.threshold";
+    public static final String QUEUE_IMPLEMENTATION = "nifi.queue.implementation";
+    public static final String FLOWFILE_ATTRIBUTES_OFF_HEAP = "nifi.flowfile.attributes.off.heap";
+    public static final String FLOWFILE_ATTRIBUTES_OFF_HEAP_MAX_SIZE = "nifi.flowfile.attributes.off.heap.max.size";
     public static final String SWAP_IN_THREADS = "nifi.swap.in.threads";
     public static final String SWAP_IN_PERIOD = "nifi.swap.in.period";
     public static final String SWAP_OUT_THREADS = "nifi.swap.out.threads";
@@ -256,9 +265,15 @@ public abstract class NiFiProperties {
     public static final String DEFAULT_NAR_LIBRARY_DIR = "./lib";
     public static final String DEFAULT_FLOWFILE_REPO_PARTITIONS = "256";
     public static final String DEFAULT_FLOWFILE_CHECKPOINT_INTERVAL = "2 min";
+    public static final String DEFAULT_FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_DELAY = "0 millis";
+    public static final String DEFAULT_FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_SIZE = "1 MB";
     public static final int DEFAULT_MAX_FLOWFILES_PER_CLAIM = 100;
     public static final String DEFAULT_MAX_APPENDABLE_CLAIM_SIZE = "1 MB";
+    public static final boolean DEFAULT_CONTENT_CLAIM_MEMORY_MAPPED = false;
     public static final int DEFAULT_QUEUE_SWAP_THRESHOLD = 20000;
+    public static final String DEFAULT_QUEUE_IMPLEMENTATION = "org.apache.nifi.controller.StandardFlowFileQueue";
+    public static final boolean DEFAULT_FLOWFILE_ATTRIBUTES_OFF_HEAP = false;
+    public static final String DEFAULT_FLOWFILE_ATTRIBUTES_OFF_HEAP_MAX_SIZE = "512 MB";
     public static final String DEFAULT_SWAP_STORAGE_LOCATION = "./flowfile_repository/swap";
     public static final String DEFAULT_SWAP_IN_PERIOD = "1 sec";
     public static final String DEFAULT_SWAP_OUT_PERIOD = "5 sec";
@@ -270,6 +285,9 @@ public abstract class NiFiProperties {
     public static final String DEFAULT_PERSISTENT_STATE_DIRECTORY = "./conf/state";
     public static final String DEFAULT_COMPONENT_STATUS_SNAPSHOT_FREQUENCY = "5 mins";
     public static final String DEFAULT_BORED_YIELD_DURATION = "10 millis";
+    public static final String DEFAULT_TIMER_DRIVEN_SCHEDULING_MODE = "fixed-rate";
+    public static final String DEFAULT_TIMER_DRIVEN_MAX_IDLE_BACKOFF = "1 sec";
+    public static final int DEFAULT_VIRTUAL_THREAD_MAX_CONCURRENT_TASKS = 256;
     public static final String DEFAULT_ZOOKEEPER_CONNECT_TIMEOUT = "3 secs";
     public static final String DEFAULT_ZOOKEEPER_SESSION_TIMEOUT = "3 secs";
     public static final String DEFAULT_ZOOKEEPER_ROOT_NODE = "/nifi";
@@ -367,6 +385,39 @@ public abstract class NiFiProperties {
         }
     }
 
+    /**
+     * @return the fully qualified class name of the FlowFile Queue implementation to use for connections
+     */
+    public String getQueueImplementation() {
+        return getProperty(QUEUE_IMPLEMENTATION, DEFAULT_QUEUE_IMPLEMENTATION);
+    }
+
+    /**
+     * Returns whether or not the attributes of FlowFiles should be held in direct (off-heap) memory rather than on the heap.
+     * This greatly reduces the heap that is required for FlowFiles that are queued, at the cost of decoding the attributes
+     * each time that they are read.
+     * <p>
+     * Default is {@link #DEFAULT_FLOWFILE_ATTRIBUTES_OFF_HEAP}
+     *
+     * @return whether or not FlowFile attributes are held off-heap
+     */
+    public boolean isFlowFileAttributesOffHeap() {
+        return Boolean.parseBoolean(getProperty(FLOWFILE_ATTRIBUTES_OFF_HEAP, String.valueOf(DEFAULT_FLOWFILE_ATTRIBUTES_OFF_HEAP)));
+    }
+
+    /**
+     * Returns the maximum amount of direct memory that may be used to hold FlowFile attributes when
+     * {@link #isFlowFileAttributesOffHeap()} is <code>true</code>. Once this much has been allocated, the attributes
+     * of further FlowFiles are held on the heap until memory is released.
+     * <p>
+     * Default is {@link #DEFAULT_FLOWFILE_ATTRIBUTES_OFF_HEAP_MAX_SIZE}
+     *
+     * @return the maximum size of off-heap FlowFile attributes
+     */
+    public String getFlowFileAttributesOffHeapMaxSize() {
+        return getProperty(FLOWFILE_ATTRIBUTES_OFF_HEAP_MAX_SIZE, DEFAULT_FLOWFILE_ATTRIBUTES_OFF_HEAP_MAX_SIZE);
+    }
+
     public Integer getIntegerProperty(final String propertyName, final Integer defaultValue) {
         final String value = getProperty(propertyName);
         if (value == null || value.trim().isEmpty()) {
@@ -537,6 +588,30 @@ public abstract class NiFiProperties {
                 DEFAULT_FLOWFILE_CHECKPOINT_INTERVAL);
     }
 
+    /**
+     * Returns the maximum amount of time that a FlowFile Repository update waits for other updates, so that they can all be
+     * synced to disk together. A value of zero disables group commit.
+     * <p>
+     * Default is {@link #DEFAULT_FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_DELAY}
+     *
+     * @return the maximum group commit delay
+     */
+    public String getFlowFileRepositoryGroupCommitMaxDelay() {
+        return getProperty(FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_DELAY, DEFAULT_FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_DELAY);
+    }
+
+    /**
+     * Returns the amount of data that, once written by a group of FlowFile Repository updates, causes the group to be synced to disk
+     * without waiting for the maximum group commit delay to elapse.
+     * <p>
+     * Default is {@link #DEFAULT_FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_SIZE}
+     *
+     * @return the maximum group commit size
+     */
+    public String getFlowFileRepositoryGroupCommitMaxSize() {
+        return getProperty(FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_SIZE, DEFAULT_FLOWFILE_REPOSITORY_GROUP_COMMIT_MAX_SIZE);
+    }
+
     /**
      * @return the restore directory or null if not configured
      */
@@ -1148,6 +1223,19 @@ public abstract class NiFiProperties {
         return getProperty(MAX_APPENDABLE_CLAIM_SIZE, DEFAULT_MAX_APPENDABLE_CLAIM_SIZE);
     }
 
+    /**
+     * Returns whether or not the files that back content claims should be written through a memory-mapped region
+     * of the file rather than through a FileOutputStream. This avoids a system call for each write, which is beneficial
+     * when the content of most FlowFiles is small.
+     * <p>
+     * Default is {@link #DEFAULT_CONTENT_CLAIM_MEMORY_MAPPED}
+     *
+     * @return whether or not content claims are written via memory-mapped files
+     */
+    public boolean isContentClaimMemoryMapped() {
+        return Boolean.parseBoolean(getProperty(CONTENT_CLAIM_MEMORY_MAPPED, String.valueOf(DEFAULT_CONTENT_CLAIM_MEMORY_MAPPED)));
+    }
+
     public String getProperty(final String key, final String defaultValue) {
         final String value = getProperty(key);
         return (value == null || value.trim().isEmpty()) ? defaultValue : value;
@@ -1157,6 +1245,43 @@ public abstract class NiFiProperties {
         return getProperty(BORED_YIELD_DURATION, DEFAULT_BORED_YIELD_DURATION);
     }
 
+    /**
+     * Returns how Timer-Driven components are scheduled: <code>fixed-rate</code>, where each concurrent task of each component
+     * is triggered by its own timer, or <code>work-stealing</code>, where components are triggered on a work-stealing pool as
+     * soon as they have work to do and back off while they are idle.
+     * <p>
+     * Default is {@link #DEFAULT_TIMER_DRIVEN_SCHEDULING_MODE}
+     *
+     * @return the scheduling mode for Timer-Driven components
+     */
+    public String getTimerDrivenSchedulingMode() {
+        return getProperty(TIMER_DRIVEN_SCHEDULING_MODE, DEFAULT_TIMER_DRIVEN_SCHEDULING_MODE).trim();
+    }
+
+    /**
+     * Returns the longest time that an idle component waits before checking again for work when Timer-Driven components
+     * are scheduled in <code>work-stealing</code> mode.
+     * <p>
+     * Default is {@link #DEFAULT_TIMER_DRIVEN_MAX_IDLE_BACKOFF}
+     *
+     * @return the maximum idle back-off
+     */
+    public String getTimerDrivenMaxIdleBackoff() {
+        return getProperty(TIMER_DRIVEN_MAX_IDLE_BACKOFF, DEFAULT_TIMER_DRIVEN_MAX_IDLE_BACKOFF);
+    }
+
+    /**
+     * Returns the maximum number of tasks, across all Processors whose Execution Mode is <code>VIRTUAL_THREADS</code>,
+     * that may be running at the same time.
+     * <p>
+     * Default is {@link #DEFAULT_VIRTUAL_THREAD_MAX_CONCURRENT_TASKS}
+     *
+     * @return the maximum number of concurrent tasks on virtual threads
+     */
+    public int getVirtualThreadMaxConcurrentTasks() {
+        return getIntegerProperty(VIRTUAL_THREAD_MAX_CONCURRENT_TASKS, DEFAULT_VIRTUAL_THREAD_MAX_CONCURRENT_TASKS);
+    }
+
     public File getStateManagementConfigFile() {
         return new File(getProperty(STATE_MANAGEMENT_CONFIG_FILE, DEFAULT_STATE_MANAGEMENT_CONFIG_FILE));
     }
@@ -17,10 +17,21 @@
 
 package org.apache.nifi.record.path;
 
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public interface RecordPathResult {
     String getPath();
 
     Stream<FieldValue> getSelectedFields();
+
+    /**
+     * Returns the first of the selected fields. For a RecordPath that always selects a single field, such as
+     * <code>/person/name/last</code>, this does not require that a Stream be created.
+     *
+     * @return the first of the selected fields, or an empty Optional if no field was selected
+     */
+    default Optional<FieldValue> getFirstSelectedField() {
+        return getSelectedFields().findFirst();
+    }
 }
@@ -17,7 +17,7 @@
 
 package org.apache.nifi.record.path.paths;
 
-import java.util.Optional;
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 import org.apache.nifi.record.path.FieldValue;
@@ -27,13 +27,32 @@ import org.apache.nifi.record.path.util.Filters;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
 
 public class ChildFieldPath extends RecordPathSegment {
     private final String childName;
+    // For a path such as /a/b/c or ./a/b/c, the ChildFieldPaths that follow the root or current field, up to and including this one,
+    // so that the path can be evaluated in a single loop. This is null if any of the segments can select more than one field.
+    private final ChildFieldPath[] childPaths;
+    private volatile ResolvedField resolvedField;
 
     ChildFieldPath(final String childName, final RecordPathSegment parent, final boolean absolute) {
         super("/" + childName, parent, absolute);
         this.childName = childName;
+
+        if (parent instanceof ChildFieldPath) {
+            final ChildFieldPath[] parentPaths = ((ChildFieldPath) parent).childPaths;
+            if (parentPaths == null) {
+                childPaths = null;
+            } else {
+                childPaths = Arrays.copyOf(parentPaths, parentPaths.length + 1);
+                childPaths[parentPaths.length] = this;
+            }
+        } else if (parent != null && parent.isSingleValued()) {
+            childPaths = new ChildFieldPath[] {this};
+        } else {
+            childPaths = null;
+        }
     }
 
     private FieldValue missingChild(final FieldValue parent) {
@@ -51,17 +70,25 @@ public class ChildFieldPath extends RecordPathSegment {
             return missingChild(fieldValue);
         }
 
-        final Object value = record.getValue(childName);
-        if (value == null) {
+        // Records that are evaluated one after another generally share a schema, so the index of the child field is resolved
+        // only when the schema differs from that of the previous Record
+        final RecordSchema schema = record.getSchema();
+        ResolvedField resolved = resolvedField;
+        if (resolved == null || resolved.schema != schema) {
+            resolved = new ResolvedField(schema, schema.getFieldIndex(childName));
+            resolvedField = resolved;
+        }
+
+        if (resolved.index < 0) {
             return missingChild(fieldValue);
         }
 
-        final Optional<RecordField> field = record.getSchema().getField(childName);
-        if (!field.isPresent()) {
+        final Object value = record.getValue(resolved.index);
+        if (value == null) {
             return missingChild(fieldValue);
         }
 
-        return new StandardFieldValue(value, field.get(), fieldValue);
+        return new StandardFieldValue(value, resolved.field, fieldValue);
     }
 
     @Override
@@ -70,4 +97,31 @@ public class ChildFieldPath extends RecordPathSegment {
             // map to Optional<FieldValue> containing child element
             .map(fieldVal -> getChild(fieldVal));
     }
+
+    @Override
+    boolean isSingleValued() {
+        return childPaths != null;
+    }
+
+    @Override
+    FieldValue evaluateSingle(final RecordPathEvaluationContext context) {
+        FieldValue fieldValue = childPaths[0].getParentPath().evaluateSingle(context);
+        for (final ChildFieldPath childPath : childPaths) {
+            fieldValue = childPath.getChild(fieldValue);
+        }
+
+        return fieldValue;
+    }
+
+    private static class ResolvedField {
+        private final RecordSchema schema;
+        private final int index;
+        private final RecordField field;
+
+        ResolvedField(final RecordSchema schema, final int index) {
+            this.schema = schema;
+            this.index = index;
+            this.field = index < 0 ? null : schema.getField(index);
+        }
+    }
 }
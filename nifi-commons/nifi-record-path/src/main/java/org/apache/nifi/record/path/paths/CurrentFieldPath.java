@@ -23,9 +23,11 @@ import org.apache.nifi.record.path.FieldValue;
 import org.apache.nifi.record.path.RecordPathEvaluationContext;
 
 public class CurrentFieldPath extends RecordPathSegment {
+    private final boolean singleValued;
 
     public CurrentFieldPath(final RecordPathSegment parentPath, final boolean absolute) {
         super(parentPath == null ? "." : parentPath.getPath() + "/.", parentPath, absolute);
+        this.singleValued = parentPath == null || parentPath.isSingleValued();
     }
 
     @Override
@@ -43,4 +45,20 @@ public class CurrentFieldPath extends RecordPathSegment {
         }
     }
 
+    @Override
+    boolean isSingleValued() {
+        return singleValued;
+    }
+
+    @Override
+    FieldValue evaluateSingle(final RecordPathEvaluationContext context) {
+        final FieldValue contextNode = context.getContextNode();
+        final RecordPathSegment parentPath = getParentPath();
+        if (contextNode != null || parentPath == null) {
+            return contextNode;
+        }
+
+        return parentPath.evaluateSingle(context);
+    }
+
 }
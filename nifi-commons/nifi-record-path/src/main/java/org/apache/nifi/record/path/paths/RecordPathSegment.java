@@ -18,6 +18,7 @@
 package org.apache.nifi.record.path.paths;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import org.apache.nifi.record.path.FieldValue;
@@ -81,25 +82,38 @@ public abstract class RecordPathSegment implements RecordPath {
     @Override
     public final RecordPathResult evaluate(final Record record) {
         final RecordPathEvaluationContext context = new StandardRecordPathEvaluationContext(record);
-        final Stream<FieldValue> selectedFields = evaluate(context);
-
-        return new RecordPathResult() {
-            @Override
-            public String getPath() {
-                return RecordPathSegment.this.getPath();
-            }
-
-            @Override
-            public Stream<FieldValue> getSelectedFields() {
-                return selectedFields;
-            }
-        };
+        return createResult(context);
     }
 
     @Override
     public final RecordPathResult evaluate(final Record record, final FieldValue contextNode) {
         final RecordPathEvaluationContext context = new StandardRecordPathEvaluationContext(record);
         context.setContextNode(contextNode);
+        return createResult(context);
+    }
+
+    private RecordPathResult createResult(final RecordPathEvaluationContext context) {
+        if (isSingleValued()) {
+            final FieldValue selectedField = evaluateSingle(context);
+
+            return new RecordPathResult() {
+                @Override
+                public String getPath() {
+                    return RecordPathSegment.this.getPath();
+                }
+
+                @Override
+                public Stream<FieldValue> getSelectedFields() {
+                    return Stream.of(selectedField);
+                }
+
+                @Override
+                public Optional<FieldValue> getFirstSelectedField() {
+                    return Optional.ofNullable(selectedField);
+                }
+            };
+        }
+
         final Stream<FieldValue> selectedFields = evaluate(context);
 
         return new RecordPathResult() {
@@ -115,5 +129,26 @@ public abstract class RecordPathSegment implements RecordPath {
         };
     }
 
+    /**
+     * Indicates whether this segment always selects exactly one field, as is the case for paths such as <code>/a/b/c</code>
+     * that consist only of child field references. Such a segment can be evaluated by {@link #evaluateSingle(RecordPathEvaluationContext)}
+     * without building a Stream.
+     *
+     * @return <code>true</code> if {@link #evaluateSingle(RecordPathEvaluationContext)} may be called, <code>false</code> otherwise
+     */
+    boolean isSingleValued() {
+        return false;
+    }
+
+    /**
+     * Evaluates a segment for which {@link #isSingleValued()} returns <code>true</code>
+     *
+     * @param context the context to evaluate the segment in
+     * @return the single field that is selected
+     */
+    FieldValue evaluateSingle(final RecordPathEvaluationContext context) {
+        throw new UnsupportedOperationException("RecordPath " + getPath() + " does not select a single field");
+    }
+
     public abstract Stream<FieldValue> evaluate(RecordPathEvaluationContext context);
 }
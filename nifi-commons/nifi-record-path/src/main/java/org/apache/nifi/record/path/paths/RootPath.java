@@ -22,11 +22,15 @@ import java.util.stream.Stream;
 import org.apache.nifi.record.path.FieldValue;
 import org.apache.nifi.record.path.RecordPathEvaluationContext;
 import org.apache.nifi.record.path.StandardFieldValue;
+import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.type.RecordDataType;
 
 public class RootPath extends RecordPathSegment {
     private static final String PATH = "";
+    private volatile RecordField rootField;
 
     public RootPath() {
         super(PATH, null, true);
@@ -34,8 +38,26 @@ public class RootPath extends RecordPathSegment {
 
     @Override
     public Stream<FieldValue> evaluate(final RecordPathEvaluationContext context) {
-        final RecordField field = new RecordField("root", RecordFieldType.RECORD.getRecordDataType(context.getRecord().getSchema()));
-        final FieldValue fieldValue = new StandardFieldValue(context.getRecord(), field, null);
-        return Stream.of(fieldValue);
+        return Stream.of(evaluateSingle(context));
+    }
+
+    @Override
+    boolean isSingleValued() {
+        return true;
+    }
+
+    @Override
+    FieldValue evaluateSingle(final RecordPathEvaluationContext context) {
+        final Record record = context.getRecord();
+        final RecordSchema schema = record.getSchema();
+
+        // Records that are evaluated one after another generally share a schema, so the field is reused while the schema is the same
+        RecordField field = rootField;
+        if (field == null || ((RecordDataType) field.getDataType()).getChildSchema() != schema) {
+            field = new RecordField("root", RecordFieldType.RECORD.getRecordDataType(schema));
+            rootField = field;
+        }
+
+        return new StandardFieldValue(record, field, null);
     }
 }
@@ -19,6 +19,7 @@ package org.apache.nifi.record.path;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.nio.charset.IllegalCharsetNameException;
@@ -27,6 +28,7 @@ import java.sql.Date;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,7 +36,9 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.apache.nifi.record.path.exception.RecordPathException;
+import org.apache.nifi.record.path.paths.RecordPathSegment;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
@@ -42,6 +46,7 @@ import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.serialization.record.util.DataTypeUtils;
+import org.junit.Ignore;
 import org.junit.Test;
 
 public class TestRecordPath {
@@ -1279,6 +1284,111 @@ public class TestRecordPath {
         RecordPath.compile("toBytes(/s, \"NOT A REAL CHARSET\")").evaluate(record).getSelectedFields().findFirst().get().getValue();
     }
 
+    @Test
+    public void testChildFieldWithDifferentSchemas() {
+        final RecordPath recordPath = RecordPath.compile("/name");
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 48);
+        values.put("name", "John Doe");
+        final Record record = new MapRecord(new SimpleRecordSchema(getDefaultFields()), values);
+        assertEquals("John Doe", recordPath.evaluate(record).getFirstSelectedField().get().getValue());
+
+        // the same RecordPath must resolve the field again for a Record that has a different schema
+        final List<RecordField> reorderedFields = new ArrayList<>(getDefaultFields());
+        Collections.reverse(reorderedFields);
+        final Record reordered = new ArrayRecord(new SimpleRecordSchema(reorderedFields), values);
+        final FieldValue reorderedValue = recordPath.evaluate(reordered).getFirstSelectedField().get();
+        assertEquals("John Doe", reorderedValue.getValue());
+        assertEquals(reordered.getSchema().getField("name").get(), reorderedValue.getField());
+
+        final List<RecordField> aliasedFields = new ArrayList<>();
+        aliasedFields.add(new RecordField("fullName", RecordFieldType.STRING.getDataType(), null, Collections.singleton("name")));
+        final Record aliased = new MapRecord(new SimpleRecordSchema(aliasedFields), Collections.<String, Object> singletonMap("fullName", "Jane Doe"));
+        final FieldValue aliasedValue = recordPath.evaluate(aliased).getFirstSelectedField().get();
+        assertEquals("Jane Doe", aliasedValue.getValue());
+        assertEquals("fullName", aliasedValue.getField().getFieldName());
+
+        final Record withoutName = new MapRecord(getAccountSchema(), Collections.<String, Object> singletonMap("id", 1));
+        final FieldValue missingValue = recordPath.evaluate(withoutName).getFirstSelectedField().get();
+        assertNull(missingValue.getValue());
+        assertEquals("name", missingValue.getField().getFieldName());
+
+        assertEquals("John Doe", recordPath.evaluate(record).getFirstSelectedField().get().getValue());
+    }
+
+    @Test
+    public void testSingleValuedPathsMatchStreamEvaluation() {
+        final Map<String, Object> accountValues = new HashMap<>();
+        accountValues.put("id", 1);
+        accountValues.put("balance", 123.45D);
+        final Record accountRecord = new MapRecord(getAccountSchema(), accountValues);
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 48);
+        values.put("name", "John Doe");
+        values.put("mainAccount", accountRecord);
+        final Record record = new ArrayRecord(new SimpleRecordSchema(getDefaultFields()), values);
+        final FieldValue contextNode = RecordPath.compile("/mainAccount").evaluate(record).getFirstSelectedField().get();
+
+        for (final String path : new String[] {"/", "/id", "/mainAccount/balance", "/mainAccount/missing", "/name/first", "./id", "./balance"}) {
+            final RecordPathSegment recordPath = (RecordPathSegment) RecordPath.compile(path);
+            final RecordPathEvaluationContext context = new StandardRecordPathEvaluationContext(record);
+            if (!recordPath.isAbsolute()) {
+                context.setContextNode(contextNode);
+            }
+
+            final List<FieldValue> expected = recordPath.evaluate(context).collect(Collectors.toList());
+            final RecordPathResult result = recordPath.isAbsolute() ? recordPath.evaluate(record) : recordPath.evaluate(record, contextNode);
+            final List<FieldValue> actual = result.getSelectedFields().collect(Collectors.toList());
+
+            assertEquals(path, 1, actual.size());
+            assertEquals(path, expected.get(0).getValue(), actual.get(0).getValue());
+            assertEquals(path, expected.get(0).getField(), actual.get(0).getField());
+            assertEquals(path, expected.get(0).getParentRecord(), actual.get(0).getParentRecord());
+        }
+    }
+
+    @Test
+    @Ignore("Intended for manual performance testing; should not be run in an automated environment")
+    public void testSingleValuedPathPerformance() {
+        final Map<String, Object> accountValues = new HashMap<>();
+        accountValues.put("id", 1);
+        accountValues.put("balance", 123.45D);
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 48);
+        values.put("name", "John Doe");
+        values.put("mainAccount", new MapRecord(getAccountSchema(), accountValues));
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+        final Record mapRecord = new MapRecord(schema, values);
+        final Record arrayRecord = new ArrayRecord(schema, values);
+
+        final RecordPathSegment recordPath = (RecordPathSegment) RecordPath.compile("/mainAccount/balance");
+        final int iterations = 5_000_000;
+
+        for (int i = 0; i < 5; i++) {
+            for (final Record record : new Record[] {mapRecord, arrayRecord}) {
+                final String recordType = record.getClass().getSimpleName();
+
+                // evaluate the path by way of a Stream, as a RecordPath that is not single-valued is evaluated
+                double sum = 0D;
+                long start = System.nanoTime();
+                for (int j = 0; j < iterations; j++) {
+                    sum += (Double) recordPath.evaluate(new StandardRecordPathEvaluationContext(record)).findFirst().get().getValue();
+                }
+                System.out.println(recordType + " Stream evaluation: " + (System.nanoTime() - start) / iterations + " nanos per evaluation (" + sum + ")");
+
+                sum = 0D;
+                start = System.nanoTime();
+                for (int j = 0; j < iterations; j++) {
+                    sum += (Double) recordPath.evaluate(record).getFirstSelectedField().get().getValue();
+                }
+                System.out.println(recordType + " single-valued evaluation: " + (System.nanoTime() - start) / iterations + " nanos per evaluation (" + sum + ")");
+            }
+        }
+    }
+
     private List<RecordField> getDefaultFields() {
         final List<RecordField> fields = new ArrayList<>();
         fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
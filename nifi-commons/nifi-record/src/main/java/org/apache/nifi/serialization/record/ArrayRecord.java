@@ -0,0 +1,621 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.record.type.ArrayDataType;
+import org.apache.nifi.serialization.record.type.MapDataType;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
+import org.apache.nifi.serialization.record.util.IllegalTypeConversionException;
+
+/**
+ * <p>
+ * A Record that holds the value of each field of its schema in an array, at the index of the field in the schema, rather
+ * than in a Map keyed by field name. Looking up a value is then a matter of resolving the index of the field through
+ * {@link RecordSchema#getFieldIndex(String)}, and no Map entries are allocated when the Record is created.
+ * </p>
+ *
+ * <p>
+ * The values that it returns are the same as those that a {@link MapRecord} with the same schema and values would return,
+ * including the handling of aliases, default values, and fields that are not in the schema. The raw field names are
+ * given in the order of the schema, followed by the names of any fields that are not in the schema.
+ * </p>
+ */
+public class ArrayRecord implements Record {
+    private RecordSchema schema;
+    private Object[] values;
+    // the name, either the field name or an alias, that the value at each index was given with; null if no value was given
+    private String[] rawNames;
+    private Map<String, Object> unknownValues;
+    private Set<String> rawFieldNames;
+    private Optional<SerializedForm> serializedForm;
+    private final boolean checkTypes;
+    private final boolean dropUnknownFields;
+
+    public ArrayRecord(final RecordSchema schema, final Map<String, Object> values) {
+        this(schema, values, null, false, false);
+    }
+
+    public ArrayRecord(final RecordSchema schema, final Map<String, Object> values, final boolean checkTypes, final boolean dropUnknownFields) {
+        this(schema, values, null, checkTypes, dropUnknownFields);
+    }
+
+    public ArrayRecord(final RecordSchema schema, final Map<String, Object> values, final SerializedForm serializedForm) {
+        this(schema, values, serializedForm, false, false);
+    }
+
+    public ArrayRecord(final RecordSchema schema, final Map<String, Object> values, final SerializedForm serializedForm, final boolean checkTypes, final boolean dropUnknownFields) {
+        Objects.requireNonNull(values);
+
+        this.schema = Objects.requireNonNull(schema);
+        this.values = new Object[schema.getFieldCount()];
+        this.rawNames = new String[schema.getFieldCount()];
+        this.serializedForm = Optional.ofNullable(serializedForm);
+        this.checkTypes = checkTypes;
+        this.dropUnknownFields = dropUnknownFields;
+
+        for (int i = 0; i < this.values.length; i++) {
+            resolveValue(i, values);
+        }
+
+        for (final Map.Entry<String, Object> entry : values.entrySet()) {
+            if (schema.getFieldIndex(entry.getKey()) < 0) {
+                putUnknownValue(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (checkTypes) {
+            checkTypes();
+        }
+    }
+
+    /**
+     * Creates a Record from the values of the fields of the given schema, in the order of the schema. This avoids building a
+     * Map of the values, for callers, such as Record Readers, that produce the values in the order of the schema.
+     *
+     * @param schema the schema of the record
+     * @param values the value of each field in the schema, at the index of the field in the schema. A <code>null</code> element
+     *            indicates that no value was given for that field. The array is used by the Record and must not be modified afterward.
+     * @param serializedForm the serialized form of the record, or <code>null</code>
+     * @param checkTypes whether or not the values must be checked against the schema
+     * @param dropUnknownFields whether or not fields that are not in the schema are to be dropped
+     */
+    public ArrayRecord(final RecordSchema schema, final Object[] values, final SerializedForm serializedForm, final boolean checkTypes, final boolean dropUnknownFields) {
+        Objects.requireNonNull(values);
+        if (values.length != schema.getFieldCount()) {
+            throw new IllegalArgumentException("Expected " + schema.getFieldCount() + " values for the fields of the schema but got " + values.length);
+        }
+
+        this.schema = Objects.requireNonNull(schema);
+        this.values = values;
+        this.rawNames = new String[values.length];
+        this.serializedForm = Optional.ofNullable(serializedForm);
+        this.checkTypes = checkTypes;
+        this.dropUnknownFields = dropUnknownFields;
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                rawNames[i] = schema.getField(i).getFieldName();
+            }
+        }
+
+        if (checkTypes) {
+            checkTypes();
+        }
+    }
+
+    /**
+     * As with a MapRecord, a non-null value given for the field name takes precedence over one given for an alias, and a
+     * non-null value given for an alias takes precedence over one given for any alias after it.
+     */
+    private void resolveValue(final int index, final Map<String, Object> givenValues) {
+        final RecordField field = schema.getField(index);
+        String rawName = givenValues.containsKey(field.getFieldName()) ? field.getFieldName() : null;
+        Object value = givenValues.get(field.getFieldName());
+
+        if (value == null) {
+            for (final String alias : field.getAliases()) {
+                final Object aliasValue = givenValues.get(alias);
+                if (aliasValue != null) {
+                    rawName = alias;
+                    value = aliasValue;
+                    break;
+                }
+                if (rawName == null && givenValues.containsKey(alias)) {
+                    rawName = alias;
+                }
+            }
+        }
+
+        values[index] = value;
+        rawNames[index] = rawName;
+    }
+
+    private void putUnknownValue(final String fieldName, final Object value) {
+        if (unknownValues == null) {
+            unknownValues = new LinkedHashMap<>();
+        }
+
+        unknownValues.put(fieldName, value);
+    }
+
+    private void checkTypes() {
+        for (int i = 0; i < values.length; i++) {
+            final RecordField field = schema.getField(i);
+            final Object value = values[i];
+
+            if (value == null) {
+                if (field.isNullable() || field.getDefaultValue() != null) {
+                    continue;
+                }
+
+                throw new SchemaValidationException("Field " + field.getFieldName() + " cannot be null");
+            }
+
+            if (!DataTypeUtils.isCompatibleDataType(value, field.getDataType())) {
+                throw new SchemaValidationException("Field " + field.getFieldName() + " has a value of " + value
+                    + ", which cannot be coerced into the appropriate data type of " + field.getDataType());
+            }
+        }
+    }
+
+    @Override
+    public boolean isDropUnknownFields() {
+        return dropUnknownFields;
+    }
+
+    @Override
+    public boolean isTypeChecked() {
+        return checkTypes;
+    }
+
+    @Override
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] getValues() {
+        final Object[] withDefaults = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            final Object value = values[i];
+            withDefaults[i] = value == null ? schema.getField(i).getDefaultValue() : value;
+        }
+        return withDefaults;
+    }
+
+    @Override
+    public Object getValue(final String fieldName) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index >= 0) {
+            final Object value = values[index];
+            return value == null ? schema.getField(index).getDefaultValue() : value;
+        }
+
+        if (dropUnknownFields || unknownValues == null) {
+            return null;
+        }
+
+        return unknownValues.get(fieldName);
+    }
+
+    @Override
+    public Object getValue(final RecordField field) {
+        final int index = schema.getFieldIndex(field.getFieldName());
+        if (index >= 0 && field.equals(schema.getField(index))) {
+            final Object value = values[index];
+            return value == null ? field.getDefaultValue() : value;
+        }
+
+        Object explicitValue = getExplicitValue(field);
+        if (explicitValue != null) {
+            return explicitValue;
+        }
+
+        final Optional<RecordField> resolvedField = resolveField(field);
+        final boolean resolvedFieldDifferent = resolvedField.isPresent() && !resolvedField.get().equals(field);
+        if (resolvedFieldDifferent) {
+            explicitValue = getExplicitValue(resolvedField.get());
+            if (explicitValue != null) {
+                return explicitValue;
+            }
+        }
+
+        Object defaultValue = field.getDefaultValue();
+        if (defaultValue != null) {
+            return defaultValue;
+        }
+
+        if (resolvedFieldDifferent) {
+            return resolvedField.get().getDefaultValue();
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object getValue(final int fieldIndex) {
+        final Object value = values[fieldIndex];
+        return value == null ? schema.getField(fieldIndex).getDefaultValue() : value;
+    }
+
+    private Optional<RecordField> resolveField(final RecordField field) {
+        Optional<RecordField> resolved = schema.getField(field.getFieldName());
+        if (resolved.isPresent()) {
+            return resolved;
+        }
+
+        for (final String alias : field.getAliases()) {
+            resolved = schema.getField(alias);
+            if (resolved.isPresent()) {
+                return resolved;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Object getExplicitValue(final RecordField field) {
+        Object value = getRawValue(field.getFieldName());
+        if (value != null) {
+            return value;
+        }
+
+        for (final String alias : field.getAliases()) {
+            value = getRawValue(alias);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    private Object getRawValue(final String fieldName) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index >= 0) {
+            return values[index];
+        }
+
+        return unknownValues == null ? null : unknownValues.get(fieldName);
+    }
+
+    @Override
+    public String getAsString(final String fieldName) {
+        final Optional<DataType> dataTypeOption = schema.getDataType(fieldName);
+        if (dataTypeOption.isPresent()) {
+            return convertToString(getValue(fieldName), dataTypeOption.get().getFormat());
+        }
+
+        return DataTypeUtils.toString(getValue(fieldName), (Supplier<DateFormat>) null);
+    }
+
+    @Override
+    public String getAsString(final String fieldName, final String format) {
+        return convertToString(getValue(fieldName), format);
+    }
+
+    @Override
+    public String getAsString(final RecordField field, final String format) {
+        return convertToString(getValue(field), format);
+    }
+
+    private String convertToString(final Object value, final String format) {
+        if (value == null) {
+            return null;
+        }
+
+        return DataTypeUtils.toString(value, format);
+    }
+
+    @Override
+    public Long getAsLong(final String fieldName) {
+        return DataTypeUtils.toLong(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Integer getAsInt(final String fieldName) {
+        return DataTypeUtils.toInteger(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Double getAsDouble(final String fieldName) {
+        return DataTypeUtils.toDouble(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Float getAsFloat(final String fieldName) {
+        return DataTypeUtils.toFloat(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Record getAsRecord(String fieldName, final RecordSchema schema) {
+        return DataTypeUtils.toRecord(getValue(fieldName), schema, fieldName);
+    }
+
+    @Override
+    public Boolean getAsBoolean(final String fieldName) {
+        return DataTypeUtils.toBoolean(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Date getAsDate(final String fieldName, final String format) {
+        return DataTypeUtils.toDate(getValue(fieldName), () -> DataTypeUtils.getDateFormat(format), fieldName);
+    }
+
+    @Override
+    public Object[] getAsArray(final String fieldName) {
+        return DataTypeUtils.toArray(getValue(fieldName), fieldName, null, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int hashCode() {
+        return RecordEquality.hashCode(this);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return RecordEquality.equals(this, obj);
+    }
+
+    @Override
+    public String toString() {
+        final Map<String, Object> rawValues = new LinkedHashMap<>();
+        for (final String fieldName : getRawFieldNames()) {
+            rawValues.put(fieldName, getRawValue(fieldName));
+        }
+        return "ArrayRecord[" + rawValues + "]";
+    }
+
+    @Override
+    public Optional<SerializedForm> getSerializedForm() {
+        return serializedForm;
+    }
+
+    @Override
+    public void setValue(final String fieldName, final Object value) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index < 0) {
+            if (dropUnknownFields) {
+                return;
+            }
+
+            final Object previousValue = unknownValues == null ? null : unknownValues.get(fieldName);
+            putUnknownValue(fieldName, value);
+            if (!Objects.equals(value, previousValue)) {
+                serializedForm = Optional.empty();
+            }
+
+            return;
+        }
+
+        final RecordField recordField = schema.getField(index);
+        final Object coerced = isTypeChecked() ? DataTypeUtils.convertType(value, recordField.getDataType(), fieldName) : value;
+        final Object previousValue = values[index];
+        values[index] = coerced;
+        rawNames[index] = recordField.getFieldName();
+        if (!Objects.equals(coerced, previousValue)) {
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    public void setArrayValue(final String fieldName, final int arrayIndex, final Object value) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index < 0) {
+            return;
+        }
+
+        final RecordField recordField = schema.getField(index);
+        final DataType dataType = recordField.getDataType();
+        if (dataType.getFieldType() != RecordFieldType.ARRAY) {
+            throw new IllegalTypeConversionException("Cannot set the value of an array index on Record because the field '" + fieldName
+                + "' is of type '" + dataType + "' and cannot be coerced into an ARRAY type");
+        }
+
+        final Object arrayObject = values[index];
+        if (arrayObject == null) {
+            return;
+        }
+        if (!(arrayObject instanceof Object[])) {
+            return;
+        }
+
+        final Object[] array = (Object[]) arrayObject;
+        if (arrayIndex >= array.length) {
+            return;
+        }
+
+        final ArrayDataType arrayDataType = (ArrayDataType) dataType;
+        final DataType elementType = arrayDataType.getElementType();
+        final Object coerced = DataTypeUtils.convertType(value, elementType, fieldName);
+
+        final boolean update = !Objects.equals(coerced, array[arrayIndex]);
+        if (update) {
+            array[arrayIndex] = coerced;
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setMapValue(final String fieldName, final String mapKey, final Object value) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index < 0) {
+            return;
+        }
+
+        final RecordField recordField = schema.getField(index);
+        final DataType dataType = recordField.getDataType();
+        if (dataType.getFieldType() != RecordFieldType.MAP) {
+            throw new IllegalTypeConversionException("Cannot set the value of map entry on Record because the field '" + fieldName
+                + "' is of type '" + dataType + "' and cannot be coerced into an MAP type");
+        }
+
+        Object mapObject = values[index];
+        if (mapObject == null) {
+            mapObject = new HashMap<String, Object>();
+        }
+        if (!(mapObject instanceof Map)) {
+            return;
+        }
+
+        final Map<String, Object> map = (Map<String, Object>) mapObject;
+
+        final MapDataType mapDataType = (MapDataType) dataType;
+        final DataType valueDataType = mapDataType.getValueType();
+        final Object coerced = DataTypeUtils.convertType(value, valueDataType, fieldName);
+
+        final Object replaced = map.put(mapKey, coerced);
+        if (replaced == null || !replaced.equals(coerced)) {
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    public void incorporateSchema(final RecordSchema other) {
+        final RecordSchema merged = DataTypeUtils.merge(this.schema, other);
+        if (merged == this.schema) {
+            return;
+        }
+
+        // the merged schema may have more fields, so the values have to be moved to the indexes of the fields in the merged schema
+        final Object[] mergedValues = new Object[merged.getFieldCount()];
+        final String[] mergedRawNames = new String[merged.getFieldCount()];
+        for (int i = 0; i < values.length; i++) {
+            if (rawNames[i] == null) {
+                continue;
+            }
+
+            final int mergedIndex = merged.getFieldIndex(schema.getField(i).getFieldName());
+            if (mergedIndex >= 0) {
+                mergedValues[mergedIndex] = values[i];
+                mergedRawNames[mergedIndex] = rawNames[i];
+            }
+        }
+
+        // values for fields that were unknown to the old schema but are known to the merged schema move into the array
+        if (unknownValues != null) {
+            for (final String fieldName : unknownValues.keySet().toArray(new String[0])) {
+                final int mergedIndex = merged.getFieldIndex(fieldName);
+                if (mergedIndex < 0) {
+                    continue;
+                }
+
+                final Object value = unknownValues.remove(fieldName);
+                if (mergedRawNames[mergedIndex] == null) {
+                    mergedValues[mergedIndex] = value;
+                    mergedRawNames[mergedIndex] = fieldName;
+                }
+            }
+        }
+
+        this.schema = merged;
+        this.values = mergedValues;
+        this.rawNames = mergedRawNames;
+    }
+
+    @Override
+    public Set<String> getRawFieldNames() {
+        if (rawFieldNames == null) {
+            rawFieldNames = new RawFieldNames();
+        }
+
+        return rawFieldNames;
+    }
+
+    /**
+     * An unmodifiable view of the names that values were given with, so that no Set has to be built each time that a
+     * Record Set Writer asks for them. Like the key set of a MapRecord's values, it reflects later changes to the Record.
+     */
+    private class RawFieldNames extends AbstractSet<String> {
+        @Override
+        public boolean contains(final Object obj) {
+            if (!(obj instanceof String)) {
+                return false;
+            }
+
+            final String fieldName = (String) obj;
+            final int index = schema.getFieldIndex(fieldName);
+            if (index >= 0 && fieldName.equals(rawNames[index])) {
+                return true;
+            }
+
+            return unknownValues != null && unknownValues.containsKey(fieldName);
+        }
+
+        @Override
+        public int size() {
+            int size = unknownValues == null ? 0 : unknownValues.size();
+            for (final String rawName : rawNames) {
+                if (rawName != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            final String[] names = rawNames;
+            final Iterator<String> unknownNames = unknownValues == null ? Collections.<String> emptyIterator() : unknownValues.keySet().iterator();
+
+            return new Iterator<String>() {
+                private int index = nextIndex(0);
+
+                private int nextIndex(final int start) {
+                    int next = start;
+                    while (next < names.length && names[next] == null) {
+                        next++;
+                    }
+                    return next;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return index < names.length || unknownNames.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    if (index < names.length) {
+                        final String name = names[index];
+                        index = nextIndex(index + 1);
+                        return name;
+                    }
+
+                    return unknownNames.next();
+                }
+            };
+        }
+    }
+}
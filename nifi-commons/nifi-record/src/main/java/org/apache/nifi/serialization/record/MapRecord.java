@@ -275,22 +275,12 @@ public class MapRecord implements Record {
 
     @Override
     public int hashCode() {
-        return 31 + 41 * values.hashCode() + 7 * schema.hashCode();
+        return RecordEquality.hashCode(this);
     }
 
     @Override
     public boolean equals(final Object obj) {
-        if (obj == this) {
-            return true;
-        }
-        if (obj == null) {
-            return false;
-        }
-        if (!(obj instanceof MapRecord)) {
-            return false;
-        }
-        final MapRecord other = (MapRecord) obj;
-        return schema.equals(other.schema) && values.equals(other.values);
+        return RecordEquality.equals(this, obj);
     }
 
     @Override
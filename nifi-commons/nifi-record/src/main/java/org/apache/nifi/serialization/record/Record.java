@@ -81,6 +81,18 @@ public interface Record {
 
     Object getValue(RecordField field);
 
+    /**
+     * Returns the value of the field at the given index of this Record's schema. This gives the same result as calling
+     * {@link #getValue(RecordField)} with that field of the schema, but allows a caller that has already resolved the index
+     * of a field, such as a compiled RecordPath, to avoid looking the field up by name for each Record.
+     *
+     * @param fieldIndex the 0-based index of the field in this Record's schema
+     * @return the value of the field at the given index
+     */
+    default Object getValue(final int fieldIndex) {
+        return getValue(getSchema().getField(fieldIndex));
+    }
+
     String getAsString(String fieldName);
 
     String getAsString(String fieldName, String format);
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Defines equality for Records regardless of their implementation, so that a Record returned by a Record Reader is equal
+ * to a Record that was built by hand with the same schema and values. Two Records are equal if their schemas are equal and
+ * they hold equal values for each field of the schema, as well as for any field that was added outside of the schema.
+ */
+final class RecordEquality {
+
+    private RecordEquality() {
+    }
+
+    static boolean equals(final Record record, final Object obj) {
+        if (obj == record) {
+            return true;
+        }
+        if (!(obj instanceof Record)) {
+            return false;
+        }
+
+        final Record other = (Record) obj;
+        final RecordSchema schema = record.getSchema();
+        if (!schema.equals(other.getSchema())) {
+            return false;
+        }
+
+        for (final RecordField field : schema.getFields()) {
+            if (!Objects.deepEquals(record.getValue(field), other.getValue(field))) {
+                return false;
+            }
+        }
+
+        return unknownValuesEqual(record, other) && unknownValuesEqual(other, record);
+    }
+
+    private static boolean unknownValuesEqual(final Record record, final Record other) {
+        final RecordSchema schema = record.getSchema();
+        for (final String fieldName : record.getRawFieldNames()) {
+            if (!schema.getField(fieldName).isPresent() && !Objects.deepEquals(record.getValue(fieldName), other.getValue(fieldName))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static int hashCode(final Record record) {
+        final RecordSchema schema = record.getSchema();
+        final List<RecordField> fields = schema.getFields();
+        final Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = record.getValue(fields.get(i));
+        }
+
+        return 31 + 41 * Arrays.deepHashCode(values) + 7 * schema.hashCode();
+    }
+}
@@ -72,6 +72,20 @@ public interface RecordSchema {
      */
     Optional<RecordField> getField(String fieldName);
 
+    /**
+     * @param fieldName the name, or an alias, of the field
+     * @return the 0-based index of the field with the given name or alias, or -1 if the schema does not contain
+     *         a field with the given name or alias
+     */
+    default int getFieldIndex(final String fieldName) {
+        final Optional<RecordField> field = getField(fieldName);
+        if (!field.isPresent()) {
+            return -1;
+        }
+
+        return getFields().indexOf(field.get());
+    }
+
     /**
      * @return the SchemaIdentifier, which provides various attributes for identifying a schema
      */
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class TestArrayRecord {
+
+    @Test
+    public void testDefaultValue() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("noDefault", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("defaultOfHello", RecordFieldType.STRING.getDataType(), "hello"));
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final Record record = new ArrayRecord(schema, new HashMap<>());
+
+        assertNull(record.getValue("noDefault"));
+        assertEquals("hello", record.getValue("defaultOfHello"));
+        assertArrayEquals(new Object[] {null, "hello"}, record.getValues());
+
+        final RecordField newField = new RecordField("noDefault", RecordFieldType.STRING.getDataType(), "new");
+        assertEquals("new", record.getValue(newField));
+    }
+
+    @Test
+    public void testAliasConflictingValues() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("foo", RecordFieldType.STRING.getDataType(), null, set("bar", "baz")));
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final Map<String, Object> values = new HashMap<>();
+        values.put("bar", 1);
+        values.put("foo", null);
+
+        final Record record = new ArrayRecord(schema, values);
+        assertEquals(1, record.getValue("foo"));
+        assertEquals(1, record.getValue("bar"));
+        assertEquals(1, record.getValue("baz"));
+
+        values.put("foo", 2);
+        final Record fieldNameFirst = new ArrayRecord(schema, values);
+        assertEquals(2, fieldNameFirst.getValue("bar"));
+        assertEquals(new HashSet<>(Arrays.asList("foo")), fieldNameFirst.getRawFieldNames());
+    }
+
+    @Test
+    public void testAliasInGivenField() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("foo", RecordFieldType.STRING.getDataType(), null, set("bar", "baz")));
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final Map<String, Object> values = new HashMap<>();
+        values.put("bar", 33);
+
+        final Record record = new ArrayRecord(schema, values);
+        assertEquals(33, record.getValue("foo"));
+        assertEquals(set("bar"), record.getRawFieldNames());
+
+        final RecordField noAlias = new RecordField("hello", RecordFieldType.STRING.getDataType());
+        assertNull(record.getValue(noAlias));
+
+        final RecordField withAlias = new RecordField("hello", RecordFieldType.STRING.getDataType(), null, set("baz"));
+        assertEquals(33, record.getValue(withAlias));
+        assertEquals("33", record.getAsString(withAlias, withAlias.getDataType().getFormat()));
+    }
+
+    @Test
+    public void testUnknownFields() {
+        final RecordSchema schema = new SimpleRecordSchema(Arrays.asList(new RecordField("name", RecordFieldType.STRING.getDataType())));
+        final Map<String, Object> values = new LinkedHashMap<>();
+        values.put("other", "value");
+        values.put("name", "John");
+
+        final Record record = new ArrayRecord(schema, values);
+        assertEquals("value", record.getValue("other"));
+        assertEquals(Arrays.asList("name", "other"), new ArrayList<>(record.getRawFieldNames()));
+
+        final Record dropping = new ArrayRecord(schema, values, false, true);
+        assertNull(dropping.getValue("other"));
+        dropping.setValue("another", "value");
+        assertNull(dropping.getValue("another"));
+    }
+
+    @Test
+    public void testSetValue() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("age", RecordFieldType.INT.getDataType(), null, set("years")));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("name", "John");
+        final Record record = new ArrayRecord(schema, values, SerializedForm.of("{}", "application/json"), true, false);
+        assertEquals(set("name"), record.getRawFieldNames());
+        assertTrue(record.getSerializedForm().isPresent());
+
+        record.setValue("years", "42");
+        assertEquals(42, record.getValue("age"));
+        assertEquals(set("name", "age"), record.getRawFieldNames());
+        assertFalse(record.getSerializedForm().isPresent());
+
+        record.setValue("other", "value");
+        assertEquals("value", record.getValue("other"));
+        assertEquals(set("name", "age", "other"), record.getRawFieldNames());
+    }
+
+    @Test
+    public void testObjectArrayConstructor() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("age", RecordFieldType.INT.getDataType(), 18));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final Record record = new ArrayRecord(schema, new Object[] {"John", null}, null, false, false);
+        assertEquals("John", record.getValue("name"));
+        assertEquals(18, record.getValue("age"));
+        assertEquals(set("name"), record.getRawFieldNames());
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("name", "John");
+        assertEquals(new ArrayRecord(schema, values), record);
+    }
+
+    @Test(expected = SchemaValidationException.class)
+    public void testCheckTypes() {
+        final RecordSchema schema = new SimpleRecordSchema(Arrays.asList(new RecordField("name", RecordFieldType.STRING.getDataType(), false)));
+        new ArrayRecord(schema, new HashMap<>(), true, false);
+    }
+
+    @Test
+    public void testIncorporateSchema() {
+        final RecordSchema schema = new SimpleRecordSchema(Arrays.asList(new RecordField("name", RecordFieldType.STRING.getDataType())));
+        final Map<String, Object> values = new HashMap<>();
+        values.put("name", "John");
+        values.put("age", 42);
+        final Record record = new ArrayRecord(schema, values);
+
+        final List<RecordField> otherFields = new ArrayList<>();
+        otherFields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        otherFields.add(new RecordField("age", RecordFieldType.INT.getDataType()));
+        record.incorporateSchema(new SimpleRecordSchema(otherFields));
+
+        assertEquals(3, record.getSchema().getFieldCount());
+        assertEquals("John", record.getValue("name"));
+        assertEquals(42, record.getValue("age"));
+        assertNull(record.getValue("id"));
+        assertEquals(Arrays.asList("name", "age"), new ArrayList<>(record.getRawFieldNames()));
+    }
+
+    @Test
+    public void testSameValuesAsMapRecord() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("foo", RecordFieldType.STRING.getDataType(), "hello", set("bar", "baz")));
+        fields.add(new RecordField("count", RecordFieldType.INT.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("baz", 1);
+        values.put("bar", 33);
+        values.put("count", "12");
+        values.put("other", true);
+
+        final Record mapRecord = new MapRecord(schema, values);
+        final Record arrayRecord = new ArrayRecord(schema, values);
+        for (final String fieldName : Arrays.asList("foo", "bar", "baz", "count", "other", "missing")) {
+            assertEquals(mapRecord.getValue(fieldName), arrayRecord.getValue(fieldName));
+            assertEquals(mapRecord.getAsString(fieldName), arrayRecord.getAsString(fieldName));
+        }
+        assertArrayEquals(mapRecord.getValues(), arrayRecord.getValues());
+        assertEquals(mapRecord.getAsInt("count"), arrayRecord.getAsInt("count"));
+    }
+
+    @Test
+    @Ignore("Intended for manual performance testing; should not be run in an automated environment")
+    public void testPerformanceComparedToMapRecord() {
+        final List<RecordField> fields = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fields.add(new RecordField("field" + i, i % 2 == 0 ? RecordFieldType.STRING.getDataType() : RecordFieldType.LONG.getDataType()));
+        }
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        for (int i = 0; i < 5; i++) {
+            runPerformanceTest("MapRecord", schema, MapRecord::new);
+            runPerformanceTest("ArrayRecord", schema, ArrayRecord::new);
+        }
+    }
+
+    private void runPerformanceTest(final String name, final RecordSchema schema, final BiFunction<RecordSchema, Map<String, Object>, Record> recordFactory) {
+        final int recordCount = 1_000_000;
+        final List<String> fieldNames = schema.getFieldNames();
+        final Record[] records = new Record[recordCount];
+
+        // read: create each record as a Record Reader does, from a map of the values
+        final long readStart = System.nanoTime();
+        for (int i = 0; i < recordCount; i++) {
+            final Map<String, Object> values = new LinkedHashMap<>(fieldNames.size() * 2);
+            for (int j = 0; j < fieldNames.size(); j++) {
+                values.put(fieldNames.get(j), j % 2 == 0 ? "value" : Long.valueOf(i + j));
+            }
+            records[i] = recordFactory.apply(schema, values);
+        }
+        final long readNanos = System.nanoTime() - readStart;
+
+        // transform: update a field from the values of others
+        final long transformStart = System.nanoTime();
+        for (final Record record : records) {
+            record.setValue("field1", (Long) record.getValue("field3") + (Long) record.getValue("field5"));
+        }
+        final long transformNanos = System.nanoTime() - transformStart;
+
+        // write: visit each field of each record as a Record Set Writer does
+        long length = 0;
+        final long writeStart = System.nanoTime();
+        for (final Record record : records) {
+            for (final String fieldName : record.getRawFieldNames()) {
+                length += String.valueOf(record.getValue(fieldName)).length();
+            }
+        }
+        final long writeNanos = System.nanoTime() - writeStart;
+
+        System.out.println(name + ": read " + readNanos / 1_000_000 + " millis, transform " + transformNanos / 1_000_000
+            + " millis, write " + writeNanos / 1_000_000 + " millis (" + length + " characters)");
+    }
+
+    @Test
+    public void testEqualsMapRecord() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("age", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("tags", RecordFieldType.ARRAY.getArrayDataType(RecordFieldType.STRING.getDataType())));
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final Map<String, Object> values = new HashMap<>();
+        values.put("name", "John Doe");
+        values.put("age", 42);
+        values.put("tags", new Object[] {"a", "b"});
+
+        final Record arrayRecord = new ArrayRecord(schema, values);
+        final Record mapRecord = new MapRecord(schema, new HashMap<>(values));
+        assertTrue(new MapRecord(schema, values).equals(arrayRecord));
+        assertTrue(arrayRecord.equals(new MapRecord(schema, values)));
+        assertEquals(mapRecord.hashCode(), arrayRecord.hashCode());
+
+        mapRecord.setValue("age", 43);
+        assertFalse(mapRecord.equals(arrayRecord));
+        assertFalse(arrayRecord.equals(mapRecord));
+    }
+
+    private Set<String> set(final String... values) {
+        final Set<String> set = new HashSet<>();
+        for (final String value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+}
@@ -18,13 +18,21 @@ package org.apache.nifi.remote;
 
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.remote.codec.FlowFileCodec;
+import org.apache.nifi.remote.codec.StandardFlowFileCodec;
 import org.apache.nifi.remote.exception.ProtocolException;
 import org.apache.nifi.remote.io.CompressionInputStream;
 import org.apache.nifi.remote.io.CompressionOutputStream;
+import org.apache.nifi.remote.io.CompressionStatistics;
+import org.apache.nifi.remote.io.socket.SocketChannelInput;
+import org.apache.nifi.remote.io.socket.SocketChannelOutput;
+import org.apache.nifi.remote.protocol.CommunicationsInput;
+import org.apache.nifi.remote.protocol.CommunicationsOutput;
 import org.apache.nifi.remote.protocol.CommunicationsSession;
 import org.apache.nifi.remote.protocol.DataPacket;
 import org.apache.nifi.remote.protocol.Response;
 import org.apache.nifi.remote.protocol.ResponseCode;
+import org.apache.nifi.remote.util.ChannelDataPacket;
+import org.apache.nifi.remote.util.FileRegionDataPacket;
 import org.apache.nifi.remote.util.StandardDataPacket;
 import org.apache.nifi.reporting.Severity;
 import org.slf4j.Logger;
@@ -57,6 +65,7 @@ public abstract class AbstractTransaction implements Transaction {
     private final long creationNanoTime = System.nanoTime();
     private int transfers = 0;
     private long contentBytes = 0;
+    private CompressionStatistics compressionStatistics;
 
     public AbstractTransaction(final Peer peer, final TransferDirection direction, final boolean useCompression,
                                final FlowFileCodec codec, final EventReporter eventReporter, final int protocolVersion,
@@ -72,6 +81,16 @@ public abstract class AbstractTransaction implements Transaction {
         this.destinationId = destinationId;
     }
 
+    /**
+     * Sets the statistics that are shared by the compressed streams of this and other Transactions,
+     * so that chunks of incompressible data can be stored rather than deflated.
+     *
+     * @param compressionStatistics the statistics to use, or <code>null</code> to always deflate
+     */
+    public void setCompressionStatistics(final CompressionStatistics compressionStatistics) {
+        this.compressionStatistics = compressionStatistics;
+    }
+
     protected void close() throws IOException {
     }
 
@@ -144,9 +163,15 @@ public abstract class AbstractTransaction implements Transaction {
                 }
 
                 logger.debug("{} Receiving data from {}", this, peer);
-                final InputStream is = peer.getCommunicationsSession().getInput().getInputStream();
+                final CommunicationsInput input = peer.getCommunicationsSession().getInput();
+                final InputStream is = input.getInputStream();
                 final InputStream dataIn = compress ? new CompressionInputStream(is) : is;
-                final DataPacket packet = codec.decode(new CheckedInputStream(dataIn, crc));
+                DataPacket packet = codec.decode(new CheckedInputStream(dataIn, crc));
+
+                // Over a plain socket, let the caller hand the content straight from the socket to a channel of its own
+                if (packet != null && !compress && input instanceof SocketChannelInput && codec instanceof StandardFlowFileCodec) {
+                    packet = new ChannelDataPacket(packet.getAttributes(), ((SocketChannelInput) input).checkedChannel(crc), packet.getSize());
+                }
 
                 if (packet == null) {
                     this.dataAvailable = false;
@@ -362,11 +387,19 @@ public abstract class AbstractTransaction implements Transaction {
 
                 logger.debug("{} Sending data to {}", this, peer);
 
-                final OutputStream os = peer.getCommunicationsSession().getOutput().getOutputStream();
-                final OutputStream dataOut = compress ? new CompressionOutputStream(os) : os;
+                final CommunicationsOutput output = peer.getCommunicationsSession().getOutput();
+                final OutputStream os = output.getOutputStream();
+                final OutputStream dataOut = compress ? new CompressionOutputStream(os, compressionStatistics) : os;
                 final OutputStream out = new CheckedOutputStream(dataOut, crc);
 
-                codec.encode(dataPacket, out);
+                if (!compress && dataPacket instanceof FileRegionDataPacket && output instanceof SocketChannelOutput && codec instanceof StandardFlowFileCodec) {
+                    // Hand the content from the file straight to the socket rather than copying it through the stream
+                    final FileRegionDataPacket fileRegion = (FileRegionDataPacket) dataPacket;
+                    ((StandardFlowFileCodec) codec).encodeHeader(fileRegion, out);
+                    ((SocketChannelOutput) output).transferFrom(fileRegion.getChannel(), fileRegion.getPosition(), fileRegion.getSize(), crc);
+                } else {
+                    codec.encode(dataPacket, out);
+                }
 
                 // need to close the CompressionOutputStream in order to force it write out any remaining bytes.
                 // Otherwise, do NOT close it because we don't want to close the underlying stream
@@ -25,6 +25,7 @@ import org.apache.nifi.remote.exception.HandshakeException;
 import org.apache.nifi.remote.exception.PortNotRunningException;
 import org.apache.nifi.remote.exception.ProtocolException;
 import org.apache.nifi.remote.exception.UnknownPortException;
+import org.apache.nifi.remote.io.CompressionStatistics;
 import org.apache.nifi.remote.protocol.DataPacket;
 import org.apache.nifi.remote.protocol.SiteToSiteTransportProtocol;
 import org.apache.nifi.remote.protocol.http.HttpProxy;
@@ -748,6 +749,7 @@ public interface SiteToSiteClient extends Closeable {
         private final EventReporter eventReporter;
         private final File peerPersistenceFile;
         private final boolean useCompression;
+        private final transient CompressionStatistics compressionStatistics;
         private final SiteToSiteTransportProtocol transportProtocol;
         private final String portName;
         private final String portIdentifier;
@@ -773,6 +775,7 @@ public interface SiteToSiteClient extends Closeable {
             this.eventReporter = null;
             this.peerPersistenceFile = null;
             this.useCompression = false;
+            this.compressionStatistics = null;
             this.portName = null;
             this.portIdentifier = null;
             this.batchCount = 0;
@@ -801,6 +804,7 @@ public interface SiteToSiteClient extends Closeable {
             this.eventReporter = builder.eventReporter;
             this.peerPersistenceFile = builder.peerPersistenceFile;
             this.useCompression = builder.useCompression;
+            this.compressionStatistics = builder.useCompression ? new CompressionStatistics() : null;
             this.portName = builder.portName;
             this.portIdentifier = builder.portIdentifier;
             this.batchCount = builder.batchCount;
@@ -816,6 +820,11 @@ public interface SiteToSiteClient extends Closeable {
             return useCompression;
         }
 
+        @Override
+        public CompressionStatistics getCompressionStatistics() {
+            return compressionStatistics;
+        }
+
         @Override
         public String getUrl() {
             if (urls != null && urls.size() > 0) {
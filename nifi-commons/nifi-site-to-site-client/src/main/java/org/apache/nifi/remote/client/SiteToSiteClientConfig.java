@@ -25,6 +25,7 @@ import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLContext;
 
 import org.apache.nifi.events.EventReporter;
+import org.apache.nifi.remote.io.CompressionStatistics;
 import org.apache.nifi.remote.protocol.DataPacket;
 import org.apache.nifi.remote.protocol.SiteToSiteTransportProtocol;
 import org.apache.nifi.remote.protocol.http.HttpProxy;
@@ -116,6 +117,15 @@ public interface SiteToSiteClientConfig extends Serializable {
      */
     boolean isUseCompression();
 
+    /**
+     * @return the statistics shared by all compressed transfers of the client, used to skip
+     * compressing data that has proven to be incompressible, or <code>null</code> if compression is
+     * not used or its statistics are not tracked
+     */
+    default CompressionStatistics getCompressionStatistics() {
+        return null;
+    }
+
     /**
      * @return a transport protocol to use
      */
@@ -21,6 +21,7 @@ import org.apache.nifi.remote.Peer;
 import org.apache.nifi.remote.PeerDescription;
 import org.apache.nifi.remote.PeerStatus;
 import org.apache.nifi.remote.Transaction;
+import org.apache.nifi.remote.Transaction.TransactionState;
 import org.apache.nifi.remote.TransferDirection;
 import org.apache.nifi.remote.client.AbstractSiteToSiteClient;
 import org.apache.nifi.remote.client.PeerSelector;
@@ -32,6 +33,7 @@ import org.apache.nifi.remote.exception.ProtocolException;
 import org.apache.nifi.remote.exception.UnknownPortException;
 import org.apache.nifi.remote.io.http.HttpCommunicationsSession;
 import org.apache.nifi.remote.protocol.CommunicationsSession;
+import org.apache.nifi.remote.protocol.ResponseCode;
 import org.apache.nifi.remote.protocol.http.HttpClientTransaction;
 import org.apache.nifi.remote.util.SiteToSiteRestApiClient;
 import org.apache.nifi.web.api.dto.remote.PeerDTO;
@@ -43,7 +45,11 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
@@ -57,6 +63,8 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
     private final ScheduledExecutorService taskExecutor;
     private final PeerSelector peerSelector;
     private final Set<HttpClientTransaction> activeTransactions = Collections.synchronizedSet(new HashSet<>());
+    private final ConcurrentMap<String, Queue<PipelinedTransaction>> pipelinedTransactions = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
 
     public HttpClient(final SiteToSiteClientConfig config) {
         super(config);
@@ -129,7 +137,6 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
         while ((peerStatus = peerSelector.getNextPeerStatus(direction)) != null) {
             logger.debug("peerStatus={}", peerStatus);
 
-            final CommunicationsSession commSession = new HttpCommunicationsSession();
             final String nodeApiUrl = resolveNodeApiUrl(peerStatus.getPeerDescription());
             final StringBuilder clusterUrls = new StringBuilder();
             config.getUrls().forEach(url -> {
@@ -138,18 +145,26 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
                     clusterUrls.append(url);
                 }
             });
-            final Peer peer = new Peer(peerStatus.getPeerDescription(), commSession, nodeApiUrl, clusterUrls.toString());
 
             final int penaltyMillis = (int) config.getPenalizationPeriod(TimeUnit.MILLISECONDS);
             String portId = config.getPortIdentifier();
             if (StringUtils.isEmpty(portId)) {
                 portId = siteInfoProvider.getPortIdentifier(config.getPortName(), direction);
                 if (StringUtils.isEmpty(portId)) {
-                    peer.close();
                     throw new IOException("Failed to determine the identifier of port " + config.getPortName());
                 }
             }
 
+            // Use a transaction which the peer has already created along with a previous commit, if any.
+            final HttpClientTransaction pipelinedTransaction = initializePipelinedTransaction(peerStatus, nodeApiUrl, clusterUrls.toString(),
+                direction, portId, penaltyMillis);
+            if (pipelinedTransaction != null) {
+                return pipelinedTransaction;
+            }
+
+            final CommunicationsSession commSession = new HttpCommunicationsSession();
+            final Peer peer = new Peer(peerStatus.getPeerDescription(), commSession, nodeApiUrl, clusterUrls.toString());
+
             final SiteToSiteRestApiClient apiClient = new SiteToSiteRestApiClient(config.getSslContext(), config.getHttpProxy(), config.getEventReporter());
 
             apiClient.setBaseUrl(peer.getUrl());
@@ -185,19 +200,7 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
             }
 
             // We found a valid peer to communicate with.
-            final Integer transactionProtocolVersion = apiClient.getTransactionProtocolVersion();
-            final HttpClientTransaction transaction = new HttpClientTransaction(transactionProtocolVersion, peer, direction,
-                config.isUseCompression(), portId, penaltyMillis, config.getEventReporter()) {
-
-                @Override
-                protected void close() throws IOException {
-                    try {
-                        super.close();
-                    } finally {
-                        activeTransactions.remove(this);
-                    }
-                }
-            };
+            final HttpClientTransaction transaction = createTransaction(apiClient, peer, direction, portId, penaltyMillis);
 
             try {
                 transaction.initialize(apiClient, transactionUrl);
@@ -214,6 +217,142 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
         return null;
     }
 
+    private HttpClientTransaction createTransaction(final SiteToSiteRestApiClient apiClient, final Peer peer, final TransferDirection direction,
+                                                    final String portId, final int penaltyMillis) throws IOException {
+        final Integer transactionProtocolVersion = apiClient.getTransactionProtocolVersion();
+        final HttpClientTransaction transaction = new HttpClientTransaction(transactionProtocolVersion, peer, direction,
+            config.isUseCompression(), portId, penaltyMillis, config.getEventReporter()) {
+
+            @Override
+            protected void close() throws IOException {
+                try {
+                    if (TransactionState.TRANSACTION_COMPLETED.equals(getState())) {
+                        offerPipelinedTransaction(apiClient, peer.getUrl(), direction, portId);
+                    }
+                    super.close();
+                } finally {
+                    activeTransactions.remove(this);
+                }
+            }
+        };
+        transaction.setCompressionStatistics(config.getCompressionStatistics());
+        return transaction;
+    }
+
+    private HttpClientTransaction initializePipelinedTransaction(final PeerStatus peerStatus, final String nodeApiUrl, final String clusterUrls,
+                                                                 final TransferDirection direction, final String portId, final int penaltyMillis) throws IOException {
+        final PipelinedTransaction pipelined = pollPipelinedTransaction(getPipelineKey(nodeApiUrl, direction, portId));
+        if (pipelined == null) {
+            return null;
+        }
+
+        final CommunicationsSession commSession = new HttpCommunicationsSession();
+        commSession.setUserDn(pipelined.apiClient.getTrustedPeerDn());
+        final Peer peer = new Peer(peerStatus.getPeerDescription(), commSession, nodeApiUrl, clusterUrls);
+
+        final HttpClientTransaction transaction = createTransaction(pipelined.apiClient, peer, direction, portId, penaltyMillis);
+        try {
+            transaction.initialize(pipelined.apiClient, pipelined.transactionUrl);
+        } catch (final Exception e) {
+            // The peer may have expired the transaction in the meantime, a new one will be created instead.
+            logger.debug("Failed to initialize pipelined transaction {} due to {}", pipelined.transactionUrl, e.toString());
+            transaction.error();
+            return null;
+        }
+
+        logger.debug("Initialized pipelined transaction {}", pipelined.transactionUrl);
+        activeTransactions.add(transaction);
+        return transaction;
+    }
+
+    private void offerPipelinedTransaction(final SiteToSiteRestApiClient apiClient, final String nodeApiUrl, final TransferDirection direction, final String portId) {
+        final String nextTransactionUrl = apiClient.getNextTransactionUrl();
+        if (StringUtils.isEmpty(nextTransactionUrl)) {
+            return;
+        }
+
+        final String pipelineKey = getPipelineKey(nodeApiUrl, direction, portId);
+        final PipelinedTransaction pipelined = new PipelinedTransaction(apiClient.createPipelinedClient(), nextTransactionUrl, direction);
+        pipelinedTransactions.computeIfAbsent(pipelineKey, key -> new ConcurrentLinkedQueue<>()).offer(pipelined);
+
+        if (closed) {
+            cancelPipelinedTransactions();
+        }
+    }
+
+    private PipelinedTransaction pollPipelinedTransaction(final String pipelineKey) {
+        final Queue<PipelinedTransaction> queue = pipelinedTransactions.get(pipelineKey);
+        if (queue == null) {
+            return null;
+        }
+
+        PipelinedTransaction pipelined;
+        while ((pipelined = queue.poll()) != null) {
+            if (!pipelined.isStale()) {
+                return pipelined;
+            }
+
+            // The peer will expire this transaction soon, do not start transferring data with it.
+            pipelined.cancel();
+        }
+
+        return null;
+    }
+
+    private void cancelPipelinedTransactions() {
+        for (final Queue<PipelinedTransaction> queue : pipelinedTransactions.values()) {
+            PipelinedTransaction pipelined;
+            while ((pipelined = queue.poll()) != null) {
+                pipelined.cancel();
+            }
+        }
+    }
+
+    private static String getPipelineKey(final String nodeApiUrl, final TransferDirection direction, final String portId) {
+        return nodeApiUrl + "/" + direction + "/" + portId;
+    }
+
+    /**
+     * A transaction which a peer has created along with the commit of a previous transaction,
+     * waiting for the next call of {@link #createTransaction(TransferDirection)}.
+     */
+    private static class PipelinedTransaction {
+        private final SiteToSiteRestApiClient apiClient;
+        private final String transactionUrl;
+        private final TransferDirection direction;
+        private final long createdNanos = System.nanoTime();
+
+        private PipelinedTransaction(final SiteToSiteRestApiClient apiClient, final String transactionUrl, final TransferDirection direction) {
+            this.apiClient = apiClient;
+            this.transactionUrl = transactionUrl;
+            this.direction = direction;
+        }
+
+        private boolean isStale() {
+            // Leave half of the server side TTL as a margin, the same as the interval to extend a transaction.
+            final long usableNanos = TimeUnit.SECONDS.toNanos(apiClient.getServerTransactionTtl()) / 2;
+            return System.nanoTime() - createdNanos > usableNanos;
+        }
+
+        private void cancel() {
+            try {
+                if (TransferDirection.RECEIVE.equals(direction)) {
+                    apiClient.commitReceivingFlowFiles(transactionUrl, ResponseCode.CANCEL_TRANSACTION, null);
+                } else {
+                    apiClient.commitTransferFlowFiles(transactionUrl, ResponseCode.CANCEL_TRANSACTION);
+                }
+            } catch (final IOException e) {
+                logger.debug("Failed to cancel pipelined transaction {} due to {}", transactionUrl, e.toString());
+            } finally {
+                try {
+                    apiClient.close();
+                } catch (final IOException e) {
+                    logger.debug("Failed to close API client for pipelined transaction {} due to {}", transactionUrl, e.toString());
+                }
+            }
+        }
+    }
+
     private String resolveNodeApiUrl(final PeerDescription description) {
         return (description.isSecure() ? "https" : "http") + "://" + description.getHostname() + ":" + description.getPort() + "/nifi-api";
     }
@@ -225,8 +364,10 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
 
     @Override
     public void close() throws IOException {
+        closed = true;
         taskExecutor.shutdown();
         peerSelector.clear();
+        cancelPipelinedTransactions();
 
         for (final HttpClientTransaction transaction : activeTransactions) {
             transaction.getCommunicant().getCommunicationsSession().interrupt();
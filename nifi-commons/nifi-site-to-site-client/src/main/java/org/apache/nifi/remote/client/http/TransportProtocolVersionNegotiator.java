@@ -32,6 +32,7 @@ public class TransportProtocolVersionNegotiator extends StandardVersionNegotiato
     public int getTransactionProtocolVersion() {
         switch (getVersion()) {
             case 1:
+            case 2:
                 return 5;
             default:
                 throw new RuntimeException("Transport protocol version " + getVersion()
@@ -39,4 +40,13 @@ public class TransportProtocolVersionNegotiator extends StandardVersionNegotiato
         }
     }
 
+    /**
+     * Returns whether the negotiated transport protocol version lets a transaction commit request ask the server
+     * to create the next transaction for the same port, so that the client does not need another round trip to start it.
+     * @return true if the next transaction can be pipelined into a commit response
+     */
+    public boolean isPipeliningSupported() {
+        return getVersion() >= 2;
+    }
+
 }
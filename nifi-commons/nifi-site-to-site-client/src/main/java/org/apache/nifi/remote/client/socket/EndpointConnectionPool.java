@@ -240,6 +240,7 @@ public class EndpointConnectionPool implements PeerStatusProvider {
                         protocol.setPreferredBatchCount(config.getPreferredBatchCount());
                         protocol.setPreferredBatchSize(config.getPreferredBatchSize());
                         protocol.setPreferredBatchDuration(config.getPreferredBatchDuration(TimeUnit.MILLISECONDS));
+                        protocol.setCompressionStatistics(config.getCompressionStatistics());
                     }
 
                     // perform handshake
@@ -47,6 +47,24 @@ public class StandardFlowFileCodec implements FlowFileCodec {
 
     @Override
     public void encode(final DataPacket dataPacket, final OutputStream encodedOut) throws IOException {
+        encodeHeader(dataPacket, encodedOut);
+
+        final InputStream in = dataPacket.getData();
+        StreamUtils.copy(in, encodedOut);
+        encodedOut.flush();
+    }
+
+    /**
+     * Writes the attributes and size of the given DataPacket exactly as {@link #encode(DataPacket, OutputStream)} does,
+     * but not its content. The caller is then responsible for writing exactly <code>dataPacket.getSize()</code> bytes of
+     * content, which allows the content to be sent to a channel directly rather than being copied from
+     * {@link DataPacket#getData()}.
+     *
+     * @param dataPacket the DataPacket whose attributes and size should be written
+     * @param encodedOut the OutputStream to write to
+     * @throws IOException if unable to write to the OutputStream
+     */
+    public void encodeHeader(final DataPacket dataPacket, final OutputStream encodedOut) throws IOException {
         final DataOutputStream out = new DataOutputStream(encodedOut);
 
         final Map<String, String> attributes = dataPacket.getAttributes();
@@ -57,10 +75,6 @@ public class StandardFlowFileCodec implements FlowFileCodec {
         }
 
         out.writeLong(dataPacket.getSize());
-
-        final InputStream in = dataPacket.getData();
-        StreamUtils.copy(in, encodedOut);
-        encodedOut.flush();
     }
 
     @Override
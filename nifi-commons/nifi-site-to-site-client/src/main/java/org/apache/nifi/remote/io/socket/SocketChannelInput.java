@@ -18,10 +18,14 @@ package org.apache.nifi.remote.io.socket;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SocketChannel;
+import java.util.zip.CRC32;
 
 import org.apache.nifi.stream.io.BufferedInputStream;
 import org.apache.nifi.stream.io.ByteCountingInputStream;
+import org.apache.nifi.remote.exception.TransmissionDisabledException;
 import org.apache.nifi.remote.io.InterruptableInputStream;
 import org.apache.nifi.remote.protocol.CommunicationsInput;
 
@@ -29,13 +33,14 @@ public class SocketChannelInput implements CommunicationsInput {
 
     private final SocketChannelInputStream socketIn;
     private final ByteCountingInputStream countingIn;
-    private final InputStream bufferedIn;
+    private final DrainableBufferedInputStream bufferedIn;
     private final InterruptableInputStream interruptableIn;
+    private long bytesTransferred = 0L;
 
     public SocketChannelInput(final SocketChannel socketChannel) throws IOException {
         this.socketIn = new SocketChannelInputStream(socketChannel);
         countingIn = new ByteCountingInputStream(socketIn);
-        bufferedIn = new BufferedInputStream(countingIn);
+        bufferedIn = new DrainableBufferedInputStream(countingIn);
         interruptableIn = new InterruptableInputStream(bufferedIn);
     }
 
@@ -56,9 +61,48 @@ public class SocketChannelInput implements CommunicationsInput {
         }
     }
 
+    /**
+     * Reads up to <code>destination.remaining()</code> bytes into the given buffer, bypassing the
+     * {@link #getInputStream() InputStream} so that bulk content can be handed to a channel without being copied
+     * through the JVM heap. Any bytes that the InputStream has already buffered from the socket are returned first,
+     * so the two may be used interchangeably.
+     *
+     * @param destination the buffer to read into
+     * @return the number of bytes read, or -1 if the peer has closed the stream
+     * @throws IOException if unable to read from the socket
+     */
+    public int read(final ByteBuffer destination) throws IOException {
+        if (interruptableIn.isInterrupted()) {
+            throw new TransmissionDisabledException();
+        }
+
+        final int drained = bufferedIn.drainTo(destination);
+        if (drained > 0) {
+            return drained;
+        }
+
+        final int bytesRead = socketIn.read(destination);
+        if (bytesRead > 0) {
+            bytesTransferred += bytesRead;
+        }
+        return bytesRead;
+    }
+
+    /**
+     * Returns a channel that reads with {@link #read(ByteBuffer)} and updates the given checksum with every byte read, so
+     * that content can be handed from the socket to another channel while the peer can still verify the transaction.
+     * Closing the channel does not close the socket.
+     *
+     * @param checksum the checksum to update with the bytes that are read
+     * @return a channel over the remaining bytes of the socket
+     */
+    public ReadableByteChannel checkedChannel(final CRC32 checksum) {
+        return new CheckedChannel(this, checksum);
+    }
+
     @Override
     public long getBytesRead() {
-        return countingIn.getBytesRead();
+        return countingIn.getBytesRead() + bytesTransferred;
     }
 
     public void interrupt() {
@@ -69,4 +113,68 @@ public class SocketChannelInput implements CommunicationsInput {
     public void consume() throws IOException {
         socketIn.consume();
     }
+
+    /**
+     * A BufferedInputStream that can hand over the bytes it has already buffered, so that reads may switch from the
+     * stream to the underlying channel without losing data.
+     */
+    private static class DrainableBufferedInputStream extends BufferedInputStream {
+
+        public DrainableBufferedInputStream(final InputStream in) {
+            super(in);
+        }
+
+        public synchronized int drainTo(final ByteBuffer destination) {
+            if (buf == null) {
+                return 0;
+            }
+
+            final int len = Math.min(count - pos, destination.remaining());
+            if (len <= 0) {
+                return 0;
+            }
+
+            destination.put(buf, pos, len);
+            pos += len;
+            return len;
+        }
+    }
+
+    /**
+     * A channel over the socket that updates a checksum with every byte read.
+     */
+    private static class CheckedChannel implements ReadableByteChannel {
+        private final SocketChannelInput input;
+        private final CRC32 checksum;
+        private boolean open = true;
+
+        public CheckedChannel(final SocketChannelInput input, final CRC32 checksum) {
+            this.input = input;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public int read(final ByteBuffer destination) throws IOException {
+            final int start = destination.position();
+            final int bytesRead = input.read(destination);
+            if (bytesRead > 0) {
+                final ByteBuffer readBytes = destination.duplicate();
+                readBytes.limit(start + bytesRead);
+                readBytes.position(start);
+                checksum.update(readBytes);
+            }
+            return bytesRead;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            // Do not close the socket; the transaction continues after the content has been read
+            open = false;
+        }
+    }
 }
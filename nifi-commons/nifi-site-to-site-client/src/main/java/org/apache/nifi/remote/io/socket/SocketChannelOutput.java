@@ -16,9 +16,13 @@
  */
 package org.apache.nifi.remote.io.socket;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SocketChannel;
+import java.util.zip.CRC32;
 
 import org.apache.nifi.stream.io.BufferedOutputStream;
 import org.apache.nifi.stream.io.ByteCountingOutputStream;
@@ -27,10 +31,14 @@ import org.apache.nifi.remote.protocol.CommunicationsOutput;
 
 public class SocketChannelOutput implements CommunicationsOutput {
 
+    private static final int CHECKSUM_BUFFER_SIZE = 64 * 1024;
+
     private final SocketChannelOutputStream socketOutStream;
     private final ByteCountingOutputStream countingOut;
     private final OutputStream bufferedOut;
     private final InterruptableOutputStream interruptableOut;
+    private long bytesTransferred = 0L;
+    private ByteBuffer checksumBuffer;
 
     public SocketChannelOutput(final SocketChannel socketChannel) throws IOException {
         socketOutStream = new SocketChannelOutputStream(socketChannel);
@@ -48,9 +56,47 @@ public class SocketChannelOutput implements CommunicationsOutput {
         socketOutStream.setTimeout(timeout);
     }
 
+    /**
+     * Writes the given region of the given file to the socket without copying it through the JVM, after flushing
+     * anything that has already been written to the {@link #getOutputStream() OutputStream} so that the bytes
+     * reach the peer in the order in which they were written. Because the peer verifies a checksum of everything
+     * that is sent, the region is first read once into a direct buffer in order to update the given checksum.
+     *
+     * @param source the file to read from
+     * @param position the position in the file of the first byte to write
+     * @param count the number of bytes to write
+     * @param checksum the checksum to update with the bytes that are written
+     * @return the number of bytes written
+     * @throws IOException if unable to read from the file or write to the socket
+     */
+    public long transferFrom(final FileChannel source, final long position, final long count, final CRC32 checksum) throws IOException {
+        if (checksumBuffer == null) {
+            checksumBuffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_SIZE);
+        }
+
+        long bytesRead = 0L;
+        while (bytesRead < count) {
+            checksumBuffer.clear();
+            checksumBuffer.limit((int) Math.min(checksumBuffer.capacity(), count - bytesRead));
+            final int len = source.read(checksumBuffer, position + bytesRead);
+            if (len < 0) {
+                throw new EOFException("Expected " + count + " bytes of content but file ended after " + bytesRead + " bytes");
+            }
+
+            checksumBuffer.flip();
+            checksum.update(checksumBuffer);
+            bytesRead += len;
+        }
+
+        interruptableOut.flush();
+        final long transferred = socketOutStream.transferFrom(source, position, count);
+        bytesTransferred += transferred;
+        return transferred;
+    }
+
     @Override
     public long getBytesWritten() {
-        return countingOut.getBytesWritten();
+        return countingOut.getBytesWritten() + bytesTransferred;
     }
 
     public void interrupt() {
@@ -31,5 +31,7 @@ public class HttpHeaders {
     public static final String HANDSHAKE_PROPERTY_BATCH_COUNT = "x-nifi-site-to-site-batch-count";
     public static final String HANDSHAKE_PROPERTY_BATCH_SIZE = "x-nifi-site-to-site-batch-size";
     public static final String HANDSHAKE_PROPERTY_BATCH_DURATION = "x-nifi-site-to-site-batch-duration";
+    public static final String PIPELINE_NEXT_TRANSACTION = "x-nifi-site-to-site-pipeline-next-transaction";
+    public static final String NEXT_TRANSACTION_URL = "x-nifi-site-to-site-next-transaction-url";
 
 }
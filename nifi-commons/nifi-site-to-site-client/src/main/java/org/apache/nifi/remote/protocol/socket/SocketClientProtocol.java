@@ -30,6 +30,7 @@ import org.apache.nifi.remote.codec.FlowFileCodec;
 import org.apache.nifi.remote.codec.StandardFlowFileCodec;
 import org.apache.nifi.remote.exception.HandshakeException;
 import org.apache.nifi.remote.exception.ProtocolException;
+import org.apache.nifi.remote.io.CompressionStatistics;
 import org.apache.nifi.remote.protocol.ClientProtocol;
 import org.apache.nifi.remote.protocol.CommunicationsSession;
 import org.apache.nifi.remote.protocol.HandshakeProperty;
@@ -71,6 +72,7 @@ public class SocketClientProtocol implements ClientProtocol {
     private long batchSize;
     private long batchMillis;
     private EventReporter eventReporter;
+    private CompressionStatistics compressionStatistics;
 
     public SocketClientProtocol() {
     }
@@ -87,6 +89,10 @@ public class SocketClientProtocol implements ClientProtocol {
         this.batchMillis = millis;
     }
 
+    public void setCompressionStatistics(final CompressionStatistics compressionStatistics) {
+        this.compressionStatistics = compressionStatistics;
+    }
+
     public void setEventReporter(final EventReporter eventReporter) {
         this.eventReporter = eventReporter;
     }
@@ -269,8 +275,10 @@ public class SocketClientProtocol implements ClientProtocol {
             throw new IllegalStateException("Cannot start transaction; handshake resolution was " + handshakeResponse);
         }
 
-        return new SocketClientTransaction(versionNegotiator.getVersion(), destination.getIdentifier(), peer, codec,
+        final SocketClientTransaction transaction = new SocketClientTransaction(versionNegotiator.getVersion(), destination.getIdentifier(), peer, codec,
                 direction, useCompression, (int) destination.getYieldPeriod(TimeUnit.MILLISECONDS), eventReporter);
+        transaction.setCompressionStatistics(compressionStatistics);
+        return transaction;
     }
 
     @Override
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.util;
+
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
+
+/**
+ * A DataPacket whose content is read from a channel, such as the remainder of a plain (non-TLS) socket. The content can
+ * be read either through {@link #getData()} or by reading exactly {@link #getSize()} bytes from {@link #getChannel()},
+ * which allows it to be handed to another channel without being copied through a stream, but not both.
+ */
+public class ChannelDataPacket extends StandardDataPacket {
+
+    private final ReadableByteChannel channel;
+
+    public ChannelDataPacket(final Map<String, String> attributes, final ReadableByteChannel channel, final long size) {
+        super(attributes, Channels.newInputStream(channel), size);
+        this.channel = channel;
+    }
+
+    /**
+     * @return the channel that the content is read from
+     */
+    public ReadableByteChannel getChannel() {
+        return channel;
+    }
+}
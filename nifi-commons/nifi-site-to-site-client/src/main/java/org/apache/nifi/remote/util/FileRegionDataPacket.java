@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.util;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+
+/**
+ * A DataPacket whose content is a region of a file. When the content is sent over a plain (non-TLS) socket without
+ * compression, the region is handed from the file to the socket with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} rather than being read through
+ * {@link #getData()}. The channel must remain open until the DataPacket has been sent.
+ */
+public class FileRegionDataPacket extends StandardDataPacket {
+
+    private final FileChannel channel;
+    private final long position;
+
+    public FileRegionDataPacket(final Map<String, String> attributes, final FileChannel channel, final long position, final long size) throws IOException {
+        super(attributes, Channels.newInputStream(channel.position(position)), size);
+        this.channel = channel;
+        this.position = position;
+    }
+
+    /**
+     * @return the file that holds the content
+     */
+    public FileChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return the position within the file of the first byte of content
+     */
+    public long getPosition() {
+        return position;
+    }
+}
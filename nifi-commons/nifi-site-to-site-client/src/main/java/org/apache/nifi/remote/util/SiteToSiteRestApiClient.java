@@ -171,7 +171,7 @@ public class SiteToSiteRestApiClient implements Closeable {
     private int batchCount = 0;
     private long batchSize = 0;
     private long batchDurationMillis = 0;
-    private TransportProtocolVersionNegotiator transportProtocolVersionNegotiator = new TransportProtocolVersionNegotiator(1);
+    private TransportProtocolVersionNegotiator transportProtocolVersionNegotiator = new TransportProtocolVersionNegotiator(2, 1);
 
     private String trustedPeerDn;
     private final ScheduledExecutorService ttlExtendTaskExecutor;
@@ -184,6 +184,7 @@ public class SiteToSiteRestApiClient implements Closeable {
     private static final Pattern HTTP_ABS_URL = Pattern.compile("^https?://.+$");
 
     private Future<HttpResponse> postResult;
+    private String nextTransactionUrl;
     private CountDownLatch transferDataLatch = new CountDownLatch(1);
 
     private static final ConcurrentMap<String, RemoteGroupContents> contentsMap = new ConcurrentHashMap<>();
@@ -214,6 +215,38 @@ public class SiteToSiteRestApiClient implements Closeable {
         closeSilently(httpAsyncClient);
     }
 
+    /**
+     * Creates an API client for the transaction which the remote instance created in response to this client's commit request.
+     * The returned client takes over the HTTP clients of this one, so that the next transaction is carried on the
+     * connections which are already established. This client can not send requests afterward, but still has to be closed.
+     * @return an API client to carry out the transaction located at {@link #getNextTransactionUrl()}
+     */
+    public SiteToSiteRestApiClient createPipelinedClient() {
+        final SiteToSiteRestApiClient pipelinedClient = new SiteToSiteRestApiClient(sslContext, proxy, eventReporter);
+        pipelinedClient.baseUrl = this.baseUrl;
+        pipelinedClient.connectTimeoutMillis = this.connectTimeoutMillis;
+        pipelinedClient.readTimeoutMillis = this.readTimeoutMillis;
+        pipelinedClient.cacheExpirationMillis = this.cacheExpirationMillis;
+        pipelinedClient.localAddress = this.localAddress;
+        pipelinedClient.compress = this.compress;
+        pipelinedClient.requestExpirationMillis = this.requestExpirationMillis;
+        pipelinedClient.batchCount = this.batchCount;
+        pipelinedClient.batchSize = this.batchSize;
+        pipelinedClient.batchDurationMillis = this.batchDurationMillis;
+        pipelinedClient.transportProtocolVersionNegotiator = this.transportProtocolVersionNegotiator;
+        pipelinedClient.serverTransactionTtl = this.serverTransactionTtl;
+        pipelinedClient.trustedPeerDn = this.trustedPeerDn;
+
+        pipelinedClient.requestConfig = this.requestConfig;
+        pipelinedClient.credentialsProvider = this.credentialsProvider;
+        pipelinedClient.httpClient = this.httpClient;
+        pipelinedClient.httpAsyncClient = this.httpAsyncClient;
+        this.httpClient = null;
+        this.httpAsyncClient = null;
+
+        return pipelinedClient;
+    }
+
     private CloseableHttpClient getHttpClient() {
         if (httpClient == null) {
             setupClient();
@@ -1448,6 +1481,33 @@ public class SiteToSiteRestApiClient implements Closeable {
         return this.trustedPeerDn;
     }
 
+    public int getServerTransactionTtl() {
+        return serverTransactionTtl;
+    }
+
+    /**
+     * @return the URL of the transaction which the remote instance created along with the last commit response,
+     * or null if the remote instance did not pipeline a next transaction
+     */
+    public String getNextTransactionUrl() {
+        return nextTransactionUrl;
+    }
+
+    private void requestNextTransaction(final HttpDelete delete, final ResponseCode clientResponse) {
+        nextTransactionUrl = null;
+        if (ResponseCode.CONFIRM_TRANSACTION.equals(clientResponse) && transportProtocolVersionNegotiator.isPipeliningSupported()) {
+            delete.setHeader(HttpHeaders.PIPELINE_NEXT_TRANSACTION, "true");
+        }
+    }
+
+    private void readNextTransactionUrl(final HttpResponse response) {
+        final Header nextTransactionUrlHeader = response.getFirstHeader(HttpHeaders.NEXT_TRANSACTION_URL);
+        if (nextTransactionUrlHeader != null && !isEmpty(nextTransactionUrlHeader.getValue())) {
+            nextTransactionUrl = nextTransactionUrlHeader.getValue();
+            logger.debug("nextTransactionUrl={}", nextTransactionUrl);
+        }
+    }
+
     public TransactionResultEntity commitReceivingFlowFiles(final String transactionUrl, final ResponseCode clientResponse, final String checksum) throws IOException {
         logger.debug("Sending commitReceivingFlowFiles request to transactionUrl: {}, clientResponse={}, checksum={}",
             transactionUrl, clientResponse, checksum);
@@ -1464,6 +1524,7 @@ public class SiteToSiteRestApiClient implements Closeable {
         delete.setHeader(HttpHeaders.PROTOCOL_VERSION, String.valueOf(transportProtocolVersionNegotiator.getVersion()));
 
         setHandshakeProperties(delete);
+        requestNextTransaction(delete, clientResponse);
 
         try (CloseableHttpResponse response = getHttpClient().execute(delete)) {
             final int responseCode = response.getStatusLine().getStatusCode();
@@ -1472,6 +1533,7 @@ public class SiteToSiteRestApiClient implements Closeable {
             try (InputStream content = response.getEntity().getContent()) {
                 switch (responseCode) {
                     case RESPONSE_CODE_OK:
+                        readNextTransactionUrl(response);
                         return readResponse(content);
 
                     case RESPONSE_CODE_BAD_REQUEST:
@@ -1494,6 +1556,7 @@ public class SiteToSiteRestApiClient implements Closeable {
         delete.setHeader(HttpHeaders.PROTOCOL_VERSION, String.valueOf(transportProtocolVersionNegotiator.getVersion()));
 
         setHandshakeProperties(delete);
+        requestNextTransaction(delete, clientResponse);
 
         try (CloseableHttpResponse response = getHttpClient().execute(delete)) {
             final int responseCode = response.getStatusLine().getStatusCode();
@@ -1502,6 +1565,7 @@ public class SiteToSiteRestApiClient implements Closeable {
             try (InputStream content = response.getEntity().getContent()) {
                 switch (responseCode) {
                     case RESPONSE_CODE_OK:
+                        readNextTransactionUrl(response);
                         return readResponse(content);
 
                     case RESPONSE_CODE_BAD_REQUEST:
@@ -85,6 +85,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.nifi.remote.protocol.http.HttpHeaders.LOCATION_HEADER_NAME;
@@ -92,6 +93,7 @@ import static org.apache.nifi.remote.protocol.http.HttpHeaders.LOCATION_URI_INTE
 import static org.apache.nifi.remote.protocol.http.HttpHeaders.LOCATION_URI_INTENT_VALUE;
 import static org.apache.nifi.remote.protocol.http.HttpHeaders.PROTOCOL_VERSION;
 import static org.apache.nifi.remote.protocol.http.HttpHeaders.SERVER_SIDE_TRANSACTION_TTL;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -115,6 +117,8 @@ public class TestHttpClient {
     private static Set<PeerDTO> peers;
     private static Set<PeerDTO> peersSecure;
     private static String serverChecksum;
+    private static final AtomicInteger pipelinedTransactionsCreated = new AtomicInteger();
+    private static final AtomicInteger pipelinedTransactionsCanceled = new AtomicInteger();
 
     public static class SiteInfoServlet extends HttpServlet {
 
@@ -272,6 +276,36 @@ public class TestHttpClient {
 
     }
 
+    public static class PipelinedPortTransactionsServlet extends PortTransactionsServlet {
+
+        @Override
+        protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+            pipelinedTransactionsCreated.incrementAndGet();
+            super.doPost(req, resp);
+        }
+
+    }
+
+    public static class PipelinedInputPortTransactionServlet extends InputPortTransactionServlet {
+
+        @Override
+        protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+            pipelineNextTransaction(req, resp);
+            super.doDelete(req, resp);
+        }
+
+    }
+
+    public static class PipelinedOutputPortTransactionServlet extends OutputPortTransactionServlet {
+
+        @Override
+        protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+            pipelineNextTransaction(req, resp);
+            super.doDelete(req, resp);
+        }
+
+    }
+
     public static class FlowFilesServlet extends HttpServlet {
 
         @Override
@@ -396,6 +430,16 @@ public class TestHttpClient {
         return codec.decode(inputStream);
     }
 
+    private static void pipelineNextTransaction(HttpServletRequest req, HttpServletResponse resp) {
+        final int responseCode = Integer.parseInt(req.getParameter("responseCode"));
+        if (ResponseCode.CANCEL_TRANSACTION.getCode() == responseCode) {
+            pipelinedTransactionsCanceled.incrementAndGet();
+        } else if (Boolean.valueOf(req.getHeader(HttpHeaders.PIPELINE_NEXT_TRANSACTION))) {
+            // This servlet serves the same transaction id again, the next one would have a new id at a real NiFi.
+            resp.setHeader(HttpHeaders.NEXT_TRANSACTION_URL, req.getRequestURL().toString());
+        }
+    }
+
     private static int getReqProtocolVersion(HttpServletRequest req) {
         final String reqProtocolVersionStr = req.getHeader(PROTOCOL_VERSION);
         assertTrue(!isEmpty(reqProtocolVersionStr));
@@ -486,10 +530,18 @@ public class TestHttpClient {
         servletHandler.addServletWithMapping(InputPortTransactionServlet.class, "/data-transfer/input-ports/input-timeout-data-ex-id/transactions/transaction-id");
         servletHandler.addServletWithMapping(FlowFilesTimeoutAfterDataExchangeServlet.class, "/data-transfer/input-ports/input-timeout-data-ex-id/transactions/transaction-id/flow-files");
 
+        servletHandler.addServletWithMapping(PipelinedPortTransactionsServlet.class, "/data-transfer/input-ports/input-pipelined-id/transactions");
+        servletHandler.addServletWithMapping(PipelinedInputPortTransactionServlet.class, "/data-transfer/input-ports/input-pipelined-id/transactions/transaction-id");
+        servletHandler.addServletWithMapping(FlowFilesServlet.class, "/data-transfer/input-ports/input-pipelined-id/transactions/transaction-id/flow-files");
+
         servletHandler.addServletWithMapping(PortTransactionsServlet.class, "/data-transfer/output-ports/output-running-id/transactions");
         servletHandler.addServletWithMapping(OutputPortTransactionServlet.class, "/data-transfer/output-ports/output-running-id/transactions/transaction-id");
         servletHandler.addServletWithMapping(FlowFilesServlet.class, "/data-transfer/output-ports/output-running-id/transactions/transaction-id/flow-files");
 
+        servletHandler.addServletWithMapping(PipelinedPortTransactionsServlet.class, "/data-transfer/output-ports/output-pipelined-id/transactions");
+        servletHandler.addServletWithMapping(PipelinedOutputPortTransactionServlet.class, "/data-transfer/output-ports/output-pipelined-id/transactions/transaction-id");
+        servletHandler.addServletWithMapping(FlowFilesServlet.class, "/data-transfer/output-ports/output-pipelined-id/transactions/transaction-id/flow-files");
+
         servletHandler.addServletWithMapping(PortTransactionsServlet.class, "/data-transfer/output-ports/output-timeout-id/transactions");
         servletHandler.addServletWithMapping(OutputPortTransactionServlet.class, "/data-transfer/output-ports/output-timeout-id/transactions/transaction-id");
         servletHandler.addServletWithMapping(FlowFilesTimeoutServlet.class, "/data-transfer/output-ports/output-timeout-id/transactions/transaction-id/flow-files");
@@ -641,6 +693,13 @@ public class TestHttpClient {
         timeoutDataExInputPort.setState(ScheduledState.RUNNING.name());
         inputPorts.add(timeoutDataExInputPort);
 
+        final PortDTO pipelinedInputPort = new PortDTO();
+        pipelinedInputPort.setName("input-pipelined");
+        pipelinedInputPort.setId("input-pipelined-id");
+        pipelinedInputPort.setType("INPUT_PORT");
+        pipelinedInputPort.setState(ScheduledState.RUNNING.name());
+        inputPorts.add(pipelinedInputPort);
+
         final PortDTO accessDeniedInputPort = new PortDTO();
         accessDeniedInputPort.setName("input-access-denied");
         accessDeniedInputPort.setId("input-access-denied-id");
@@ -657,6 +716,13 @@ public class TestHttpClient {
         runningOutputPort.setState(ScheduledState.RUNNING.name());
         outputPorts.add(runningOutputPort);
 
+        final PortDTO pipelinedOutputPort = new PortDTO();
+        pipelinedOutputPort.setName("output-pipelined");
+        pipelinedOutputPort.setId("output-pipelined-id");
+        pipelinedOutputPort.setType("OUTPUT_PORT");
+        pipelinedOutputPort.setState(ScheduledState.RUNNING.name());
+        outputPorts.add(pipelinedOutputPort);
+
         final PortDTO timeoutOutputPort = new PortDTO();
         timeoutOutputPort.setName("output-timeout");
         timeoutOutputPort.setId("output-timeout-id");
@@ -813,6 +879,28 @@ public class TestHttpClient {
 
     }
 
+    @Test
+    public void testSendPipelinedTransactions() throws Exception {
+        pipelinedTransactionsCreated.set(0);
+        pipelinedTransactionsCanceled.set(0);
+
+        try (
+                final SiteToSiteClient client = getDefaultBuilder()
+                    .portName("input-pipelined")
+                    .build()
+        ) {
+            for (int i = 0; i < 3; i++) {
+                testSend(client);
+            }
+
+            // Only the first transaction is created by its own request, the rest are created along with commits.
+            assertEquals(1, pipelinedTransactionsCreated.get());
+        }
+
+        // The transaction pipelined by the last commit is canceled when the client is closed.
+        assertEquals(1, pipelinedTransactionsCanceled.get());
+    }
+
     @Test
     public void testSendSuccessMultipleUrls() throws Exception {
 
@@ -1250,6 +1338,26 @@ public class TestHttpClient {
         }
     }
 
+    @Test
+    public void testReceivePipelinedTransactions() throws Exception {
+        pipelinedTransactionsCreated.set(0);
+        pipelinedTransactionsCanceled.set(0);
+
+        try (
+            SiteToSiteClient client = getDefaultBuilder()
+                .portName("output-pipelined")
+                .build()
+        ) {
+            for (int i = 0; i < 3; i++) {
+                testReceive(client);
+            }
+
+            assertEquals(1, pipelinedTransactionsCreated.get());
+        }
+
+        assertEquals(1, pipelinedTransactionsCanceled.get());
+    }
+
     @Test
     public void testReceiveSuccessWithProxy() throws Exception {
 
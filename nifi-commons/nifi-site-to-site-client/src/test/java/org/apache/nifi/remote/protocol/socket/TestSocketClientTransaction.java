@@ -30,6 +30,8 @@ import org.apache.nifi.remote.protocol.DataPacket;
 import org.apache.nifi.remote.protocol.RequestType;
 import org.apache.nifi.remote.protocol.Response;
 import org.apache.nifi.remote.protocol.ResponseCode;
+import org.apache.nifi.remote.util.ChannelDataPacket;
+import org.apache.nifi.remote.util.FileRegionDataPacket;
 import org.apache.nifi.stream.io.ByteArrayInputStream;
 import org.apache.nifi.stream.io.ByteArrayOutputStream;
 import org.junit.Test;
@@ -39,6 +41,19 @@ import org.slf4j.LoggerFactory;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 import static org.apache.nifi.remote.protocol.SiteToSiteTestUtils.createDataPacket;
 import static org.apache.nifi.remote.protocol.SiteToSiteTestUtils.execReceiveOneFlowFile;
@@ -52,6 +67,9 @@ import static org.apache.nifi.remote.protocol.SiteToSiteTestUtils.execSendWithIn
 import static org.apache.nifi.remote.protocol.SiteToSiteTestUtils.execSendZeroFlowFile;
 import static org.apache.nifi.remote.protocol.SiteToSiteTestUtils.readContents;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -61,16 +79,21 @@ public class TestSocketClientTransaction {
     private FlowFileCodec codec = new StandardFlowFileCodec();
 
     private SocketClientTransaction getClientTransaction(ByteArrayInputStream bis, ByteArrayOutputStream bos, TransferDirection direction) throws IOException {
+        SocketChannelOutput socketOut = mock(SocketChannelOutput.class);
+        when(socketOut.getOutputStream()).thenReturn(bos);
+        return getClientTransaction(bis, socketOut, direction);
+    }
+
+    private SocketClientTransaction getClientTransaction(ByteArrayInputStream bis, SocketChannelOutput socketOut, TransferDirection direction) throws IOException {
         PeerDescription description = null;
         String peerUrl = "";
         SocketChannelCommunicationsSession commsSession = mock(SocketChannelCommunicationsSession.class);
         SocketChannelInput socketIn = mock(SocketChannelInput.class);
-        SocketChannelOutput socketOut = mock(SocketChannelOutput.class);
         when(commsSession.getInput()).thenReturn(socketIn);
         when(commsSession.getOutput()).thenReturn(socketOut);
 
         when(socketIn.getInputStream()).thenReturn(bis);
-        when(socketOut.getOutputStream()).thenReturn(bos);
+        when(socketIn.checkedChannel(any(CRC32.class))).thenAnswer(invocation -> Channels.newChannel(new CheckedInputStream(bis, invocation.getArgumentAt(0, CRC32.class))));
 
         String clusterUrl = "";
         Peer peer = new Peer(description, commsSession, peerUrl, clusterUrl);
@@ -238,6 +261,88 @@ public class TestSocketClientTransaction {
         assertEquals(-1, sentByClient.read());
     }
 
+    @Test
+    public void testReceiveOneFlowFileThroughChannel() throws IOException {
+
+        ByteArrayOutputStream serverResponseBos = new ByteArrayOutputStream();
+        DataOutputStream serverResponse = new DataOutputStream(serverResponseBos);
+        ResponseCode.MORE_DATA.writeResponse(serverResponse);
+        codec.encode(createDataPacket("contents on server 1"), serverResponse);
+        ResponseCode.FINISH_TRANSACTION.writeResponse(serverResponse);
+        ResponseCode.CONFIRM_TRANSACTION.writeResponse(serverResponse, "Checksum has been verified at server.");
+
+        ByteArrayInputStream bis = new ByteArrayInputStream(serverResponseBos.toByteArray());
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        SocketClientTransaction transaction = getClientTransaction(bis, bos, TransferDirection.RECEIVE);
+
+        DataPacket packet = transaction.receive();
+        assertTrue(packet instanceof ChannelDataPacket);
+        ByteBuffer contents = ByteBuffer.allocate((int) packet.getSize());
+        while (contents.hasRemaining()) {
+            assertTrue(((ChannelDataPacket) packet).getChannel().read(contents) > 0);
+        }
+        assertEquals("contents on server 1", new String(contents.array(), StandardCharsets.UTF_8));
+        assertNull(transaction.receive());
+        transaction.confirm();
+        transaction.complete();
+
+        // The checksum covers the content that was read through the channel
+        DataInputStream sentByClient = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertEquals(RequestType.RECEIVE_FLOWFILES, RequestType.readRequestType(sentByClient));
+        Response confirmResponse = Response.read(sentByClient);
+        assertEquals(ResponseCode.CONFIRM_TRANSACTION, confirmResponse.getCode());
+        assertEquals("Checksum should be calculated at client", "3680976076", confirmResponse.getMessage());
+    }
+
+    @Test
+    public void testSendOneFlowFileFromFileRegion() throws IOException {
+
+        ByteArrayOutputStream serverResponseBos = new ByteArrayOutputStream();
+        DataOutputStream serverResponse = new DataOutputStream(serverResponseBos);
+        ResponseCode.CONFIRM_TRANSACTION.writeResponse(serverResponse, "2946083981");
+        ResponseCode.TRANSACTION_FINISHED.writeResponse(serverResponse);
+
+        ByteArrayInputStream bis = new ByteArrayInputStream(serverResponseBos.toByteArray());
+
+        // Place the content after a few leading bytes, as content claims share Resource Claim files
+        final byte[] leadingBytes = "leading".getBytes(StandardCharsets.UTF_8);
+        final byte[] contents = "contents on client 1".getBytes(StandardCharsets.UTF_8);
+        final Path file = Files.createTempFile("file-region", ".bin");
+        try (final ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            Files.write(file, leadingBytes);
+            Files.write(file, contents, StandardOpenOption.APPEND);
+
+            serverChannel.bind(new InetSocketAddress("localhost", 0));
+            try (final SocketChannel clientChannel = SocketChannel.open(serverChannel.getLocalAddress());
+                 final SocketChannel acceptedChannel = serverChannel.accept()) {
+
+                final SocketChannelOutput socketOut = new SocketChannelOutput(clientChannel);
+                SocketClientTransaction transaction = getClientTransaction(bis, socketOut, TransferDirection.SEND);
+                try (final FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    transaction.send(new FileRegionDataPacket(new HashMap<>(), fileChannel, leadingBytes.length, contents.length));
+                }
+
+                // Confirming fails unless the checksum of the transferred region matches the one the server calculated
+                transaction.confirm();
+                transaction.complete();
+                socketOut.getOutputStream().flush();
+                clientChannel.shutdownOutput();
+
+                // Verify what client has sent.
+                DataInputStream sentByClient = new DataInputStream(Channels.newInputStream(acceptedChannel));
+                assertEquals(RequestType.SEND_FLOWFILES, RequestType.readRequestType(sentByClient));
+                DataPacket packetByClient = codec.decode(sentByClient);
+                assertEquals("contents on client 1", readContents(packetByClient));
+                assertEquals(ResponseCode.FINISH_TRANSACTION, Response.read(sentByClient).getCode());
+                assertEquals(ResponseCode.CONFIRM_TRANSACTION, Response.read(sentByClient).getCode());
+                assertEquals(-1, sentByClient.read());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     @Test
     public void testSendTwoFlowFiles() throws IOException {
 
@@ -30,6 +30,8 @@ public class CompressionOutputStream extends OutputStream {
 
     private final OutputStream out;
     private final Deflater deflater;
+    private final CompressionStatistics statistics;
+    private Deflater storer;
 
     private final byte[] buffer;
     private final byte[] compressed;
@@ -45,7 +47,22 @@ public class CompressionOutputStream extends OutputStream {
         this(outStream, bufferSize, DEFAULT_COMPRESSION_LEVEL, Deflater.DEFAULT_STRATEGY);
     }
 
+    /**
+     * Creates a stream that records its chunks in the given statistics, and stores chunks without compressing
+     * them while the statistics indicate that the data is incompressible.
+     *
+     * @param outStream the stream to write to
+     * @param statistics the statistics to record chunks in and to consult before compressing a chunk
+     */
+    public CompressionOutputStream(final OutputStream outStream, final CompressionStatistics statistics) {
+        this(outStream, DEFAULT_BUFFER_SIZE, DEFAULT_COMPRESSION_LEVEL, Deflater.DEFAULT_STRATEGY, statistics);
+    }
+
     public CompressionOutputStream(final OutputStream outStream, final int bufferSize, final int level, final int strategy) {
+        this(outStream, bufferSize, level, strategy, null);
+    }
+
+    public CompressionOutputStream(final OutputStream outStream, final int bufferSize, final int level, final int strategy, final CompressionStatistics statistics) {
         if (bufferSize < MIN_BUFFER_SIZE) {
             throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE);
         }
@@ -53,6 +70,7 @@ public class CompressionOutputStream extends OutputStream {
         this.out = outStream;
         this.deflater = new Deflater(level);
         this.deflater.setStrategy(strategy);
+        this.statistics = statistics;
         buffer = new byte[bufferSize];
         compressed = new byte[bufferSize + 64];
     }
@@ -67,15 +85,32 @@ public class CompressionOutputStream extends OutputStream {
             return;
         }
 
-        deflater.setInput(buffer, 0, bufferIndex);
-        deflater.finish();
-        final int compressedBytes = deflater.deflate(compressed);
+        final boolean compress = statistics == null || statistics.shouldCompress();
+        final Deflater chunkDeflater = compress ? deflater : getStorer();
+
+        chunkDeflater.setInput(buffer, 0, bufferIndex);
+        chunkDeflater.finish();
+        final int compressedBytes = chunkDeflater.deflate(compressed);
 
         writeChunkHeader(compressedBytes);
         out.write(compressed, 0, compressedBytes);
 
+        if (statistics != null) {
+            statistics.recordChunk(bufferIndex, compressedBytes, compress);
+        }
+
         bufferIndex = 0;
-        deflater.reset();
+        chunkDeflater.reset();
+    }
+
+    /**
+     * @return a Deflater that writes stored blocks, which the receiving Inflater reads like any other block
+     */
+    private Deflater getStorer() {
+        if (storer == null) {
+            storer = new Deflater(Deflater.NO_COMPRESSION);
+        }
+        return storer;
     }
 
     private void writeChunkHeader(final int compressedBytes) throws IOException {
@@ -147,5 +182,8 @@ public class CompressionOutputStream extends OutputStream {
         out.write(0);   // indicate that the stream is finished.
         out.flush();
         deflater.end();
+        if (storer != null) {
+            storer.end();
+        }
     }
 }
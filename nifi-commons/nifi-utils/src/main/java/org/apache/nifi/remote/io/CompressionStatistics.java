@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.io;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of how well the data written through one or more {@link CompressionOutputStream}s compresses, and lets
+ * those streams stop spending CPU on compression while the data turns out to be incompressible. Chunks that are not
+ * compressed are still written as (stored) deflate blocks, so the receiving side does not need to know about it.
+ * <p>
+ * Once a compressed chunk shrinks to no less than {@link #INCOMPRESSIBLE_RATIO} of its size, the next
+ * {@link #CHUNKS_TO_SKIP} chunks are stored as they are, after which compression is probed again.
+ * </p>
+ * <p>
+ * This class is thread-safe, so that a single instance can be shared by all transactions of a port.
+ * </p>
+ */
+public class CompressionStatistics {
+
+    public static final double INCOMPRESSIBLE_RATIO = 0.9D;
+    public static final int CHUNKS_TO_SKIP = 16;
+
+    private final AtomicLong uncompressedBytes = new AtomicLong(0L);
+    private final AtomicLong compressedBytes = new AtomicLong(0L);
+    private final AtomicLong skippedChunks = new AtomicLong(0L);
+    private final AtomicInteger chunksLeftToSkip = new AtomicInteger(0);
+
+    /**
+     * @return whether the next chunk should be compressed, or stored as it is because the recent chunks were incompressible
+     */
+    public boolean shouldCompress() {
+        int left;
+        do {
+            left = chunksLeftToSkip.get();
+            if (left <= 0) {
+                return true;
+            }
+        } while (!chunksLeftToSkip.compareAndSet(left, left - 1));
+
+        skippedChunks.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Records a chunk that has been written.
+     *
+     * @param uncompressedLength the number of bytes of the chunk before compression
+     * @param compressedLength the number of bytes that were actually written for the chunk
+     * @param compressed whether the chunk was compressed, or stored as it is
+     */
+    public void recordChunk(final int uncompressedLength, final int compressedLength, final boolean compressed) {
+        uncompressedBytes.addAndGet(uncompressedLength);
+        compressedBytes.addAndGet(compressedLength);
+
+        if (compressed && compressedLength >= uncompressedLength * INCOMPRESSIBLE_RATIO) {
+            chunksLeftToSkip.set(CHUNKS_TO_SKIP);
+        }
+    }
+
+    public long getUncompressedBytes() {
+        return uncompressedBytes.get();
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    public long getSkippedChunks() {
+        return skippedChunks.get();
+    }
+
+    /**
+     * @return the number of bytes written divided by the number of bytes before compression, or 1.0 if nothing has been written yet
+     */
+    public double getCompressionRatio() {
+        final long uncompressed = uncompressedBytes.get();
+        if (uncompressed == 0L) {
+            return 1.0D;
+        }
+
+        return (double) compressedBytes.get() / uncompressed;
+    }
+}
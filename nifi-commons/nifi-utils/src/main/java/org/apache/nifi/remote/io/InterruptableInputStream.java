@@ -114,4 +114,8 @@ public class InterruptableInputStream extends InputStream {
     public void interrupt() {
         interrupted = true;
     }
+
+    public boolean isInterrupted() {
+        return interrupted;
+    }
 }
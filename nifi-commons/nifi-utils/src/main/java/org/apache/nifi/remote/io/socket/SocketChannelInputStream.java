@@ -135,6 +135,48 @@ public class SocketChannelInputStream extends InputStream {
         }
     }
 
+    /**
+     * Reads up to <code>destination.remaining()</code> bytes from the socket directly into the given buffer, waiting up to
+     * the configured timeout for data to become available.
+     *
+     * @param destination the buffer to read into
+     * @return the number of bytes read, or -1 if the peer has closed the stream
+     * @throws IOException if unable to read from the socket or no data becomes available before the timeout elapses
+     */
+    public int read(final ByteBuffer destination) throws IOException {
+        if (!destination.hasRemaining()) {
+            return 0;
+        }
+
+        if (bufferedByte != null) {
+            destination.put(bufferedByte);
+            bufferedByte = null;
+            return 1;
+        }
+
+        final boolean blocking = channel.isBlocking();
+        try {
+            channel.configureBlocking(true);
+
+            final long maxTime = System.currentTimeMillis() + timeoutMillis;
+            int bytesRead;
+            do {
+                bytesRead = channel.read(destination);
+                if (bytesRead == 0) {
+                    if (System.currentTimeMillis() > maxTime) {
+                        throw new SocketTimeoutException("Timed out reading from socket");
+                    }
+                }
+            } while (bytesRead == 0);
+
+            return bytesRead;
+        } finally {
+            if (!blocking) {
+                channel.configureBlocking(false);
+            }
+        }
+    }
+
     @Override
     public int available() throws IOException {
         if (bufferedByte != null) {
@@ -16,11 +16,13 @@
  */
 package org.apache.nifi.remote.io.socket;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SocketChannel;
 import java.util.concurrent.TimeUnit;
 
@@ -112,6 +114,51 @@ public class SocketChannelOutputStream extends OutputStream {
         }
     }
 
+    /**
+     * Writes the given region of the given file to the socket with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+     * so that the bytes are handed from the file to the socket by the operating system rather than being copied through the JVM.
+     *
+     * @param source the file to read from
+     * @param position the position in the file of the first byte to write
+     * @param count the number of bytes to write
+     * @return the number of bytes written, which is always equal to <code>count</code>
+     * @throws IOException if unable to write to the socket, if the file ends before <code>count</code> bytes have been written,
+     *             or if the socket does not accept any data before the timeout elapses
+     */
+    public long transferFrom(final FileChannel source, final long position, final long count) throws IOException {
+        final int timeoutMillis = this.timeout;
+        long maxTime = System.currentTimeMillis() + timeoutMillis;
+        long bytesTransferred = 0L;
+
+        long sleepNanos = 1L;
+        while (bytesTransferred < count) {
+            final long bytesWritten = source.transferTo(position + bytesTransferred, count - bytesTransferred, channel);
+            if (bytesWritten == 0) {
+                if (position + bytesTransferred >= source.size()) {
+                    throw new EOFException("Expected to transfer " + count + " bytes but file ended after " + bytesTransferred + " bytes");
+                }
+                if (System.currentTimeMillis() > maxTime) {
+                    throw new SocketTimeoutException("Timed out writing to socket");
+                }
+
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    close();
+                    Thread.currentThread().interrupt(); // set the interrupt status
+                    throw new ClosedByInterruptException(); // simulate an interrupted blocked write operation
+                }
+
+                sleepNanos = Math.min(sleepNanos * 2, CHANNEL_FULL_WAIT_NANOS);
+            } else {
+                bytesTransferred += bytesWritten;
+                maxTime = System.currentTimeMillis() + timeoutMillis;
+            }
+        }
+
+        return bytesTransferred;
+    }
+
     /**
      * Closes the underlying SocketChannel
      *
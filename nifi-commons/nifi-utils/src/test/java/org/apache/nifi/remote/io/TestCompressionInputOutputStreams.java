@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.remote.io;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
@@ -23,6 +24,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Random;
 
 import org.apache.nifi.remote.io.CompressionInputStream;
 import org.apache.nifi.remote.io.CompressionOutputStream;
@@ -139,6 +141,42 @@ public class TestCompressionInputOutputStreams {
         assertTrue(Arrays.equals(data512, decompressed2));
     }
 
+    @Test
+    public void testIncompressibleChunksAreStored() throws IOException {
+        final byte[] random = new byte[CompressionOutputStream.DEFAULT_BUFFER_SIZE * (CompressionStatistics.CHUNKS_TO_SKIP + 1)];
+        new Random(42L).nextBytes(random);
+
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < CompressionOutputStream.DEFAULT_BUFFER_SIZE * 20) {
+            sb.append("The quick brown fox jumps over the lazy dog\r\n");
+        }
+        final byte[] text = sb.toString().getBytes("UTF-8");
+
+        final CompressionStatistics statistics = new CompressionStatistics();
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        final CompressionOutputStream cos = new CompressionOutputStream(baos, statistics);
+        cos.write(random);
+        cos.close();
+
+        // Only the first chunk is compressed, the rest are stored until compression is probed again.
+        assertEquals(CompressionStatistics.CHUNKS_TO_SKIP, statistics.getSkippedChunks());
+        assertTrue(statistics.getCompressionRatio() > CompressionStatistics.INCOMPRESSIBLE_RATIO);
+
+        final CompressionOutputStream cos2 = new CompressionOutputStream(baos, statistics);
+        cos2.write(text);
+        cos2.close();
+
+        // The next chunk probes compression again, and the compressible data is compressed from then on.
+        assertEquals(CompressionStatistics.CHUNKS_TO_SKIP, statistics.getSkippedChunks());
+        assertEquals(random.length + text.length, statistics.getUncompressedBytes());
+        assertTrue(statistics.getCompressionRatio() < 0.75D);
+
+        final ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        assertTrue(Arrays.equals(random, readFully(new CompressionInputStream(bais))));
+        assertTrue(Arrays.equals(text, readFully(new CompressionInputStream(bais))));
+    }
+
     private byte[] readFully(final InputStream in) throws IOException {
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.wali;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * Coordinates group commit of updates to a write-ahead journal. Each thread that has written a transaction to the
+ * journal and requires that transaction to be durable calls {@link #commit(long, SyncAction)}. The first thread to do so
+ * becomes the leader of a new group. It waits until either the configured maximum delay has elapsed or the transactions
+ * in the group have reached the configured maximum number of bytes, and then performs a single sync on behalf of every
+ * thread that joined the group in the meantime. No call to {@link #commit(long, SyncAction)} returns until a sync that
+ * covers the caller's transaction has completed.
+ * </p>
+ *
+ * <p>
+ * While one group is being synced, the next group is already being formed, so that a slow sync does not prevent
+ * other threads from writing to the journal.
+ * </p>
+ */
+public class GroupCommitSync {
+    // Bucket i counts groups of size in the range (2^(i-1), 2^i], with the last bucket counting all larger groups
+    private static final int HISTOGRAM_BUCKETS = 9;
+
+    private final long maxDelayNanos;
+    private final long maxBytes;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition groupChanged = lock.newCondition();
+    private Group currentGroup = new Group(); // guarded by lock
+
+    private final AtomicLong commitCount = new AtomicLong(0L);
+    private final AtomicLong syncCount = new AtomicLong(0L);
+    private final AtomicLong syncNanos = new AtomicLong(0L);
+    private final AtomicLong maxSyncNanos = new AtomicLong(0L);
+    private final AtomicLongArray batchSizeHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+    /**
+     * @param maxDelay the maximum amount of time that the leader of a group will wait for other threads to join the group before syncing
+     * @param timeUnit the unit of the maximum delay
+     * @param maxBytes the number of bytes that, once written by the members of a group, causes the group to be synced without further delay
+     */
+    public GroupCommitSync(final long maxDelay, final TimeUnit timeUnit, final long maxBytes) {
+        this.maxDelayNanos = timeUnit.toNanos(maxDelay);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Waits until a transaction that has already been written to the journal has been synced to disk, performing the sync if this
+     * thread becomes the leader of the group.
+     *
+     * @param bytesWritten the number of bytes that the transaction wrote to the journal
+     * @param syncAction the action that syncs the journal
+     * @throws IOException if the sync that was to cover this transaction failed
+     */
+    public void commit(final long bytesWritten, final SyncAction syncAction) throws IOException {
+        final Group group;
+        lock.lock();
+        try {
+            group = currentGroup;
+            group.members++;
+            group.bytes += bytesWritten;
+
+            if (group.members > 1) {
+                if (group.bytes >= maxBytes) {
+                    groupChanged.signalAll();
+                }
+
+                while (!group.synced) {
+                    groupChanged.awaitUninterruptibly();
+                }
+
+                if (group.failure != null) {
+                    throw new IOException("Failed to sync Write-Ahead Log", group.failure);
+                }
+
+                return;
+            }
+
+            // We are the leader of this group. Wait for other threads to join, then close the group so that subsequent
+            // threads start a new group while we perform the sync.
+            long remainingNanos = maxDelayNanos;
+            while (group.bytes < maxBytes && remainingNanos > 0L) {
+                try {
+                    remainingNanos = groupChanged.awaitNanos(remainingNanos);
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            currentGroup = new Group();
+        } finally {
+            lock.unlock();
+        }
+
+        IOException failure = null;
+        final long syncStart = System.nanoTime();
+        try {
+            syncAction.sync();
+        } catch (final Throwable t) {
+            failure = (t instanceof IOException) ? (IOException) t : new IOException("Failed to sync Write-Ahead Log", t);
+        } finally {
+            recordSync(group.members, System.nanoTime() - syncStart);
+
+            lock.lock();
+            try {
+                group.failure = failure;
+                group.synced = true;
+                groupChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void recordSync(final int members, final long nanos) {
+        commitCount.addAndGet(members);
+        syncCount.incrementAndGet();
+        syncNanos.addAndGet(nanos);
+
+        long currentMax = maxSyncNanos.get();
+        while (nanos > currentMax && !maxSyncNanos.compareAndSet(currentMax, nanos)) {
+            currentMax = maxSyncNanos.get();
+        }
+
+        final int bucket = Math.min(HISTOGRAM_BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(members - 1));
+        batchSizeHistogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * @return the number of commits that have been made durable
+     */
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+
+    /**
+     * @return the number of times that the journal has been synced
+     */
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+
+    /**
+     * @return the total amount of time spent syncing the journal, in nanoseconds
+     */
+    public long getSyncNanos() {
+        return syncNanos.get();
+    }
+
+    /**
+     * @return the longest amount of time that a single sync of the journal has taken, in nanoseconds
+     */
+    public long getMaxSyncNanos() {
+        return maxSyncNanos.get();
+    }
+
+    /**
+     * Returns the number of syncs, bucketed by the number of commits that each sync covered. The element at index 0 is the number of
+     * syncs that covered a single commit; the element at index <code>i</code> is the number of syncs that covered more than
+     * <code>2^(i-1)</code> and at most <code>2^i</code> commits. The last element also includes all larger groups.
+     *
+     * @return the distribution of the number of commits covered by each sync
+     */
+    public long[] getBatchSizeHistogram() {
+        final long[] histogram = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = batchSizeHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        final long syncs = getSyncCount();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("GroupCommitSync[commits=").append(getCommitCount());
+        sb.append(", syncs=").append(syncs);
+        sb.append(", avgSyncMicros=").append(syncs == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(getSyncNanos() / syncs));
+        sb.append(", maxSyncMicros=").append(TimeUnit.NANOSECONDS.toMicros(getMaxSyncNanos()));
+        sb.append(", batchSizes={");
+
+        final long[] histogram = getBatchSizeHistogram();
+        for (int i = 0; i < histogram.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(i == histogram.length - 1 ? ">" + (1 << (i - 1)) : "<=" + (1 << i)).append("=").append(histogram[i]);
+        }
+        sb.append("}]");
+        return sb.toString();
+    }
+
+    /**
+     * The action that makes all of the transactions that have been written to the journal durable
+     */
+    public interface SyncAction {
+        void sync() throws IOException;
+    }
+
+    private static class Group {
+        private int members = 0;
+        private long bytes = 0L;
+        private boolean synced = false;
+        private IOException failure;
+    }
+}
@@ -171,12 +171,17 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
 
     @Override
     public void update(final Collection<T> records, final RecordLookup<T> recordLookup) throws IOException {
+        update(records, recordLookup, true);
+    }
+
+    @Override
+    public int update(final Collection<T> records, final RecordLookup<T> recordLookup, final boolean flush) throws IOException {
         if (!headerWritten) {
             throw new IllegalStateException("Cannot update journal file " + journalFile + " because no header has been written yet.");
         }
 
         if (records.isEmpty()) {
-            return;
+            return 0;
         }
 
         checkState();
@@ -204,10 +209,13 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
                 out.write(TRANSACTION_FOLLOWS);
                 out.write(transactionPreamble.array());
                 baos.writeTo(out);
-                out.flush();
+                if (flush) {
+                    out.flush();
+                }
             }
 
             logger.debug("Wrote Transaction {} to journal {} with length {} and {} records", transactionId, journalFile, baos.size(), records.size());
+            return 1 + transactionPreamble.capacity() + baos.size();
         } catch (final Throwable t) {
             poison(t);
             throw t;
@@ -250,6 +258,8 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
 
         try {
             if (fileOut != null) {
+                // ensure that any transactions that were written without being flushed are included in the sync
+                bufferedOut.flush();
                 fileOut.getChannel().force(false);
             }
         } catch (final IOException ioe) {
@@ -268,6 +278,7 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
         try {
             if (fileOut != null) {
                 if (!poisoned) {
+                    bufferedOut.flush();
                     fileOut.write(JOURNAL_COMPLETE);
                 }
 
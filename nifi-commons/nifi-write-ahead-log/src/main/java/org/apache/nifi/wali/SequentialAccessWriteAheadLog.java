@@ -53,6 +53,12 @@ import java.util.regex.Pattern;
  * that records are recovered correctly if two threads simultaneously update the write-ahead log
  * with updates for the same record.
  * </p>
+ *
+ * <p>
+ * If a {@link GroupCommitSync} is provided, updates that require a sync are not individually flushed and synced to disk.
+ * Instead, concurrent updates are gathered together and made durable by a single sync of the journal. Each such call to
+ * {@link #update(Collection, boolean)} still does not return until its update has been synced.
+ * </p>
  */
 public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T> {
     private static final int PARTITION_INDEX = 0;
@@ -65,6 +71,7 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
     private final File journalsDirectory;
     private final SerDeFactory<T> serdeFactory;
     private final SyncListener syncListener;
+    private final GroupCommitSync groupCommitSync;
 
     private final ReadWriteLock journalRWLock = new ReentrantReadWriteLock();
     private final Lock journalReadLock = journalRWLock.readLock();
@@ -87,6 +94,18 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
     }
 
     public SequentialAccessWriteAheadLog(final File storageDirectory, final SerDeFactory<T> serdeFactory, final SyncListener syncListener) throws IOException {
+        this(storageDirectory, serdeFactory, syncListener, null);
+    }
+
+    /**
+     * @param storageDirectory the directory in which to store the snapshot and journals
+     * @param serdeFactory the factory for the serializer/deserializer to use for records
+     * @param syncListener the listener to notify when the journal is synced
+     * @param groupCommitSync the group commit coordinator to use for updates that require a sync, or <code>null</code> to sync each such update individually
+     * @throws IOException if unable to create the storage directories
+     */
+    public SequentialAccessWriteAheadLog(final File storageDirectory, final SerDeFactory<T> serdeFactory, final SyncListener syncListener,
+                                         final GroupCommitSync groupCommitSync) throws IOException {
         if (!storageDirectory.exists() && !storageDirectory.mkdirs()) {
             throw new IOException("Directory " + storageDirectory + " does not exist and cannot be created");
         }
@@ -108,6 +127,7 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
 
         this.serdeFactory = serdeFactory;
         this.syncListener = (syncListener == null) ? SyncListener.NOP_SYNC_LISTENER : syncListener;
+        this.groupCommitSync = groupCommitSync;
     }
 
     @Override
@@ -118,11 +138,26 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
 
         journalReadLock.lock();
         try {
-            journal.update(records, recordLookup);
-
-            if (forceSync) {
-                journal.fsync();
-                syncListener.onSync(PARTITION_INDEX);
+            if (forceSync && groupCommitSync != null) {
+                // The journal cannot be replaced while we hold the read lock, so the journal that is synced by the
+                // leader of the group is the same journal that we wrote to.
+                final WriteAheadJournal<T> currentJournal = journal;
+                final int bytesWritten = currentJournal.update(records, recordLookup, false);
+                groupCommitSync.commit(bytesWritten, () -> {
+                    currentJournal.fsync();
+                    if (!currentJournal.isHealthy()) {
+                        throw new IOException("Failed to sync journal for Write-Ahead Log at " + storageDirectory);
+                    }
+
+                    syncListener.onSync(PARTITION_INDEX);
+                });
+            } else {
+                journal.update(records, recordLookup);
+
+                if (forceSync) {
+                    journal.fsync();
+                    syncListener.onSync(PARTITION_INDEX);
+                }
             }
 
             snapshot.update(records);
@@ -315,6 +350,13 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
     }
 
 
+    /**
+     * @return the group commit coordinator used by this Write-Ahead Log, or <code>null</code> if group commit is not enabled
+     */
+    public GroupCommitSync getGroupCommitSync() {
+        return groupCommitSync;
+    }
+
     @Override
     public void shutdown() throws IOException {
         journalWriteLock.lock();
@@ -37,6 +37,20 @@ public interface WriteAheadJournal<T> extends Closeable {
      */
     void update(Collection<T> records, RecordLookup<T> recordLookup) throws IOException;
 
+    /**
+     * Updates the journal with the given set of records, optionally leaving the data buffered rather than handing it to the
+     * underlying storage mechanism. Any data that is left buffered is written out the next time that the journal is
+     * updated with <code>flush</code> set to <code>true</code> or the next time that {@link #fsync()} is called.
+     *
+     * @param records the records to update
+     * @param recordLookup a lookup that can be used to access the current value of a record, given its ID
+     * @param flush whether or not the data should be handed to the underlying storage mechanism before returning
+     * @return the number of bytes that were written to the journal for this update
+     *
+     * @throws IOException if unable to write to the underlying storage mechanism
+     */
+    int update(Collection<T> records, RecordLookup<T> recordLookup, boolean flush) throws IOException;
+
     void writeHeader() throws IOException;
 
     void fsync() throws IOException;
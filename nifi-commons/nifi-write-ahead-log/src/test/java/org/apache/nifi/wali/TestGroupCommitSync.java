@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.wali;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TestGroupCommitSync {
+
+    @Test(timeout = 10000)
+    public void testSingleCommitSyncsAfterMaxDelay() throws IOException {
+        final GroupCommitSync groupCommitSync = new GroupCommitSync(20, TimeUnit.MILLISECONDS, Long.MAX_VALUE);
+        final AtomicInteger syncs = new AtomicInteger(0);
+
+        final long start = System.nanoTime();
+        groupCommitSync.commit(10, syncs::incrementAndGet);
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(1, syncs.get());
+        assertTrue(millis >= 15);
+        assertEquals(1, groupCommitSync.getCommitCount());
+        assertEquals(1, groupCommitSync.getSyncCount());
+        assertArrayEquals(new long[] {1, 0, 0, 0, 0, 0, 0, 0, 0}, groupCommitSync.getBatchSizeHistogram());
+    }
+
+    @Test(timeout = 10000)
+    public void testMaxBytesEndsDelay() throws IOException {
+        final GroupCommitSync groupCommitSync = new GroupCommitSync(1, TimeUnit.HOURS, 100);
+        final AtomicInteger syncs = new AtomicInteger(0);
+
+        groupCommitSync.commit(100, syncs::incrementAndGet);
+        assertEquals(1, syncs.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentCommitsShareSync() throws InterruptedException {
+        final GroupCommitSync groupCommitSync = new GroupCommitSync(200, TimeUnit.MILLISECONDS, Long.MAX_VALUE);
+        final AtomicInteger syncs = new AtomicInteger(0);
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        final int numThreads = 4;
+        final Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    groupCommitSync.commit(10, syncs::incrementAndGet);
+                } catch (final IOException e) {
+                    failures.incrementAndGet();
+                }
+            });
+            threads[i].start();
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, failures.get());
+        assertEquals(numThreads, groupCommitSync.getCommitCount());
+        assertEquals(syncs.get(), groupCommitSync.getSyncCount());
+        assertTrue(syncs.get() < numThreads);
+
+        long histogramTotal = 0L;
+        for (final long count : groupCommitSync.getBatchSizeHistogram()) {
+            histogramTotal += count;
+        }
+        assertEquals(syncs.get(), histogramTotal);
+    }
+
+    @Test(timeout = 10000)
+    public void testSyncFailureReportedToEntireGroup() throws InterruptedException {
+        final GroupCommitSync groupCommitSync = new GroupCommitSync(1, TimeUnit.HOURS, 20);
+        final CountDownLatch leaderWaiting = new CountDownLatch(1);
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        final Thread leader = new Thread(() -> {
+            try {
+                leaderWaiting.countDown();
+                groupCommitSync.commit(10, () -> {
+                    throw new IOException("Intentional Unit Test Exception");
+                });
+            } catch (final IOException e) {
+                failures.incrementAndGet();
+            }
+        });
+        leader.start();
+        leaderWaiting.await();
+
+        // Wait until the leader has started its group, so that this commit joins the group rather than leading a new one.
+        while (leader.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1L);
+        }
+
+        try {
+            groupCommitSync.commit(10, () -> fail("Follower should not perform the sync"));
+            fail("Expected IOException");
+        } catch (final IOException expected) {
+            failures.incrementAndGet();
+        }
+
+        leader.join();
+        assertEquals(2, failures.get());
+        assertEquals(1, groupCommitSync.getSyncCount());
+        assertArrayEquals(new long[] {0, 1, 0, 0, 0, 0, 0, 0, 0}, groupCommitSync.getBatchSizeHistogram());
+    }
+}
@@ -133,6 +133,47 @@ public class TestSequentialAccessWriteAheadLog {
         assertEquals(expected, new HashSet<>(recovered));
     }
 
+    @Test
+    public void testRecoverWithGroupCommit() throws IOException, InterruptedException {
+        final File storageDir = new File("target", testName.getMethodName());
+        deleteRecursively(storageDir);
+        assertTrue(storageDir.mkdirs());
+
+        final GroupCommitSync groupCommitSync = new GroupCommitSync(50, TimeUnit.MILLISECONDS, Long.MAX_VALUE);
+        final SerDeFactory<DummyRecord> serdeFactory = new SingletonSerDeFactory<>(new DummyRecordSerde());
+        final SequentialAccessWriteAheadLog<DummyRecord> repo = new SequentialAccessWriteAheadLog<>(storageDir, serdeFactory, null, groupCommitSync);
+        assertTrue(repo.recoverRecords().isEmpty());
+
+        final int numThreads = 8;
+        final List<DummyRecord> records = Collections.synchronizedList(new ArrayList<>());
+        final Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            final DummyRecord record = new DummyRecord(String.valueOf(i), UpdateType.CREATE);
+            records.add(record);
+
+            threads[i] = new Thread(() -> {
+                try {
+                    repo.update(Collections.singleton(record), true);
+                } catch (final IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(numThreads, groupCommitSync.getCommitCount());
+        assertTrue(groupCommitSync.getSyncCount() < numThreads);
+        repo.shutdown();
+
+        final SequentialAccessWriteAheadLog<DummyRecord> recoveryRepo = createRecoveryRepo();
+        final Collection<DummyRecord> recovered = recoveryRepo.recoverRecords();
+        assertEquals(new HashSet<>(records), new HashSet<>(recovered));
+    }
+
     private SequentialAccessWriteAheadLog<DummyRecord> createRecoveryRepo() throws IOException {
         final File targetDir = new File("target");
         final File storageDir = new File(targetDir, testName.getMethodName());
@@ -61,6 +61,17 @@ public interface FlowFileQueue {
 
     int getSwapFileCount();
 
+    /**
+     * @return cumulative statistics about the swap files that this queue has written and read
+     */
+    SwapStatistics getSwapStatistics();
+
+    /**
+     * @return statistics about how long the FlowFiles that were pulled from this queue in the last
+     *         five minutes had been waiting in it
+     */
+    QueueTimeStatistics getQueueTimeStatistics();
+
     /**
      * Resets the comparator used by this queue to maintain order.
      *
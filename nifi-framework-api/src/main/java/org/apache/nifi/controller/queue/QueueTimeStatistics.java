@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.queue;
+
+/**
+ * Statistics about how long the FlowFiles that were pulled from a {@link FlowFileQueue} in the last
+ * five minutes had been waiting in the queue. Percentiles are approximate; the maximum is exact.
+ */
+public class QueueTimeStatistics {
+    public static final QueueTimeStatistics EMPTY = new QueueTimeStatistics(0L, 0L, 0L, 0L);
+
+    private final long count;
+    private final long p50Millis;
+    private final long p99Millis;
+    private final long maxMillis;
+
+    public QueueTimeStatistics(final long count, final long p50Millis, final long p99Millis, final long maxMillis) {
+        this.count = count;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * @return the number of FlowFiles whose queue time was recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the median amount of time that a FlowFile waited in the queue, in milliseconds
+     */
+    public long getP50Millis() {
+        return p50Millis;
+    }
+
+    /**
+     * @return the 99th percentile of the amount of time that a FlowFile waited in the queue, in milliseconds
+     */
+    public long getP99Millis() {
+        return p99Millis;
+    }
+
+    /**
+     * @return the longest amount of time that a FlowFile waited in the queue, in milliseconds
+     */
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueTimeStatistics[count=" + count + ", p50Millis=" + p50Millis + ", p99Millis=" + p99Millis + ", maxMillis=" + maxMillis + "]";
+    }
+}
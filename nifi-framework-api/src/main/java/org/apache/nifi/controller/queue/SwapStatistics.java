@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.queue;
+
+/**
+ * Cumulative statistics about the swap files that a {@link FlowFileQueue} has written and read
+ * since it was created.
+ */
+public class SwapStatistics {
+    public static final SwapStatistics EMPTY = new SwapStatistics(0L, 0L, 0L, 0L, 0L, 0L);
+
+    private final long swapOutCount;
+    private final long swapOutBytes;
+    private final long swapOutNanos;
+    private final long swapInCount;
+    private final long swapInBytes;
+    private final long swapInNanos;
+
+    public SwapStatistics(final long swapOutCount, final long swapOutBytes, final long swapOutNanos, final long swapInCount, final long swapInBytes, final long swapInNanos) {
+        this.swapOutCount = swapOutCount;
+        this.swapOutBytes = swapOutBytes;
+        this.swapOutNanos = swapOutNanos;
+        this.swapInCount = swapInCount;
+        this.swapInBytes = swapInBytes;
+        this.swapInNanos = swapInNanos;
+    }
+
+    /**
+     * @return the number of swap files that have been written
+     */
+    public long getSwapOutCount() {
+        return swapOutCount;
+    }
+
+    /**
+     * @return the total size of the content of the FlowFiles that have been swapped out
+     */
+    public long getSwapOutBytes() {
+        return swapOutBytes;
+    }
+
+    /**
+     * @return the total amount of time spent writing swap files, in nanoseconds
+     */
+    public long getSwapOutNanos() {
+        return swapOutNanos;
+    }
+
+    /**
+     * @return the number of swap files that have been swapped back in
+     */
+    public long getSwapInCount() {
+        return swapInCount;
+    }
+
+    /**
+     * @return the total size of the content of the FlowFiles that have been swapped back in
+     */
+    public long getSwapInBytes() {
+        return swapInBytes;
+    }
+
+    /**
+     * @return the total amount of time spent swapping FlowFiles back in, in nanoseconds
+     */
+    public long getSwapInNanos() {
+        return swapInNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SwapStatistics[swapOutCount=" + swapOutCount + ", swapOutBytes=" + swapOutBytes + ", swapOutNanos=" + swapOutNanos
+            + ", swapInCount=" + swapInCount + ", swapInBytes=" + swapInBytes + ", swapInNanos=" + swapInNanos + "]";
+    }
+}
@@ -16,9 +16,12 @@
  */
 package org.apache.nifi.controller.repository;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Set;
@@ -184,6 +187,39 @@ public interface ContentRepository {
      */
     long importFrom(InputStream content, ContentClaim claim) throws IOException;
 
+    /**
+     * Imports exactly <code>length</code> bytes from the given channel into the
+     * given claim. Repositories that keep content in plain files may override
+     * this to move the bytes with
+     * {@link java.nio.channels.FileChannel#transferFrom(ReadableByteChannel, long, long)}
+     * rather than copying them through a stream.
+     *
+     * @param content the channel to import from
+     * @param length the number of bytes to import
+     * @param claim the claim to write imported content to
+     * @return the size of the claim
+     * @throws IOException if unable to read content, or if the channel ends
+     *             before <code>length</code> bytes have been read
+     */
+    default long importFrom(final ReadableByteChannel content, final long length, final ContentClaim claim) throws IOException {
+        try (final OutputStream out = write(claim)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(8192);
+            long copied = 0L;
+            while (copied < length) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), length - copied));
+                final int len = content.read(buffer);
+                if (len < 0) {
+                    throw new EOFException("Expected " + length + " bytes but channel ended after " + copied + " bytes");
+                }
+
+                out.write(buffer.array(), 0, len);
+                copied += len;
+            }
+            return copied;
+        }
+    }
+
     /**
      * Exports the content of the given claim to the given destination.
      *
@@ -251,6 +287,23 @@ public interface ContentRepository {
      */
     InputStream read(ContentClaim claim) throws IOException;
 
+    /**
+     * Returns the path of the file that holds the content of the given claim,
+     * so that the content can be handed to a channel directly (for instance with
+     * {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)})
+     * rather than being copied through {@link #read(ContentClaim)}. The content
+     * of the claim starts at {@link ContentClaim#getOffset()} within the file.
+     *
+     * @param claim the claim whose file should be returned
+     * @return the path of the file that holds the content of the claim, or
+     *         <code>null</code> if the content is not held in a plain file that
+     *         can be read directly
+     * @throws IOException if unable to determine the location of the content
+     */
+    default Path getContentPath(final ContentClaim claim) throws IOException {
+        return null;
+    }
+
     /**
      * Obtains an OutputStream to the content for the given claim.
      *
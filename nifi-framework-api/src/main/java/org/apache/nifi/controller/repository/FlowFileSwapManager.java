@@ -78,6 +78,24 @@ public interface FlowFileSwapManager {
      */
     SwapContents swapIn(String swapLocation, FlowFileQueue flowFileQueue) throws IncompleteSwapFileException, IOException;
 
+    /**
+     * Swaps in the FlowFiles from the swap file that lives at the given location, using the contents that were
+     * already obtained from a call to {@link #peek(String, FlowFileQueue)} so that the swap file does not need to
+     * be read again. The FlowFile Repository is then updated and the swap file is permanently removed from the
+     * external storage. This allows a queue to read the next swap file before it is needed, without holding its lock.
+     *
+     * @param swapLocation the location of the swap file
+     * @param flowFileQueue the queue to which the FlowFiles belong
+     * @param swapContents the contents of the swap file, as returned by {@link #peek(String, FlowFileQueue)}
+     *
+     * @return a SwapContents that includes FlowFiles that are stored in the given location
+     *
+     * @throws IOException if unable to update the FlowFileRepository or recover the FlowFiles from the given location
+     */
+    default SwapContents swapIn(String swapLocation, FlowFileQueue flowFileQueue, SwapContents swapContents) throws IOException {
+        return swapIn(swapLocation, flowFileQueue);
+    }
+
     /**
      * Determines swap files that exist for the given FlowFileQueue
      *
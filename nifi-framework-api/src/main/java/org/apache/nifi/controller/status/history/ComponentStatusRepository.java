@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.controller.status.history;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.List;
 
@@ -132,4 +133,16 @@ public interface ComponentStatusRepository {
     StatusHistory getRemoteProcessGroupStatusHistory(String remoteGroupId, Date start, Date end, int preferredDataPoints);
 
     GarbageCollectionHistory getGarbageCollectionHistory(Date start, Date end);
+
+    /**
+     * Persists any status information that has been captured but not yet
+     * persisted and releases any resources held by the repository. This is
+     * called when NiFi is shut down, after which no further status is captured.
+     * The default implementation does nothing, which is appropriate for a
+     * repository that holds status information only in memory.
+     *
+     * @throws IOException if unable to persist the status information
+     */
+    default void close() throws IOException {
+    }
 }
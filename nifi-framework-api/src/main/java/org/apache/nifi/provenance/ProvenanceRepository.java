@@ -22,6 +22,7 @@ import org.apache.nifi.authorization.user.NiFiUser;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
 import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QueryPage;
 import org.apache.nifi.provenance.search.QuerySubmission;
 import org.apache.nifi.provenance.search.SearchableField;
 
@@ -94,6 +95,27 @@ public interface ProvenanceRepository extends ProvenanceEventRepository {
      */
     QuerySubmission submitQuery(Query query, NiFiUser user);
 
+    /**
+     * Synchronously retrieves a single page of the events that match the given query. Unlike {@link #submitQuery(Query, NiFiUser)},
+     * the results are not collected and held by the repository, so a client may page through any number of matching events.
+     * Events are returned in the order that they were added to the repository, and only those events that the given user
+     * is authorized to access are returned. The query's max results are ignored in favor of the given page size.
+     *
+     * @param query the query to run
+     * @param continuationToken the token returned with the previous page, or <code>null</code> to retrieve the first page
+     * @param pageSize the maximum number of events to return
+     * @param user The NiFi User to authorize the events against.
+     *             It can be {@code null} if called by NiFi components internally where authorization is not required.
+     *
+     * @return the page of matching events
+     * @throws IOException if unable to read events from the repository
+     * @throws IllegalArgumentException if the continuation token is not valid
+     * @throws UnsupportedOperationException if the repository does not support paging through query results
+     */
+    default QueryPage queryEvents(Query query, String continuationToken, int pageSize, NiFiUser user) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support paging through query results");
+    }
+
     /**
      * @param queryIdentifier of the query
      * @param user The user who is retrieving the query.
@@ -241,4 +263,20 @@ public interface ProvenanceRepository extends ProvenanceEventRepository {
      * name
      */
     long getContainerUsableSpace(String containerName) throws IOException;
+
+    /**
+     * @return the number of events that have been stored but not yet indexed, or <code>null</code>
+     * if this repository does not index events asynchronously
+     */
+    default Long getIndexLagEvents() {
+        return null;
+    }
+
+    /**
+     * @return the number of milliseconds that the oldest event that has been stored but not yet indexed
+     * has been waiting to be indexed, or <code>null</code> if this repository does not index events asynchronously
+     */
+    default Long getIndexLagMillis() {
+        return null;
+    }
 }
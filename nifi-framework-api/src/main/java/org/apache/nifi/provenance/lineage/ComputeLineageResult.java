@@ -57,5 +57,14 @@ public interface ComputeLineageResult {
      */
     boolean isFinished();
 
+    /**
+     * @return <code>true</code> if the lineage was truncated because more events were related to the FlowFiles
+     *         of interest than the repository is configured to retrieve at once. A partial lineage can be
+     *         expanded further by expanding the parents or children of its nodes.
+     */
+    default boolean isPartial() {
+        return false;
+    }
+
     boolean awaitCompletion(long time, TimeUnit unit) throws InterruptedException;
 }
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.search;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+
+/**
+ * A single page of the events that match a {@link Query}, as returned by
+ * {@link org.apache.nifi.provenance.ProvenanceRepository#queryEvents(Query, String, int, org.apache.nifi.authorization.user.NiFiUser)}.
+ */
+public class QueryPage {
+
+    private final List<ProvenanceEventRecord> events;
+    private final String continuationToken;
+
+    public QueryPage(final List<ProvenanceEventRecord> events, final String continuationToken) {
+        this.events = Collections.unmodifiableList(events);
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * @return the matching events in this page, in the order that they were added to the repository
+     */
+    public List<ProvenanceEventRecord> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return an opaque token that can be passed back to the repository in order to retrieve the next page of
+     * results, or <code>null</code> if there are no more results
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+}
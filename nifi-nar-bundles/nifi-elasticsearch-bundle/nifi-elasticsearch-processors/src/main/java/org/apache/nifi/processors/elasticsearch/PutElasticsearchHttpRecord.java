@@ -316,7 +316,7 @@ public class PutElasticsearchHttpRecord extends AbstractElasticsearchHttpProcess
 
                 final String id;
                 if (recordPath != null) {
-                    Optional<FieldValue> idPathValue = recordPath.evaluate(record).getSelectedFields().findFirst();
+                    Optional<FieldValue> idPathValue = recordPath.evaluate(record).getFirstSelectedField();
                     if (!idPathValue.isPresent() || idPathValue.get().getValue() == null) {
                         throw new IdentifierNotFoundException("Identifier Record Path specified but no value was found, transferring {} to failure.");
                     }
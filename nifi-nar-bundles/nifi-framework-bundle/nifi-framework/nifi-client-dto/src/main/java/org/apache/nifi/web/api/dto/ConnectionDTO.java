@@ -40,6 +40,7 @@ public class ConnectionDTO extends ComponentDTO {
     private String backPressureDataSizeThreshold;
     private String flowFileExpiration;
     private List<String> prioritizers;
+    private String flowFileQueueImplementation;
     private List<PositionDTO> bends;
 
     /**
@@ -231,6 +232,23 @@ public class ConnectionDTO extends ComponentDTO {
         this.prioritizers = prioritizers;
     }
 
+    /**
+     * The FlowFile Queue implementation this connection is using.
+     *
+     * @return The fully qualified class name of the FlowFile Queue implementation
+     */
+    @ApiModelProperty(
+            value = "The fully qualified class name of the FlowFile Queue implementation used by the connection. If not set, the implementation that is "
+                    + "configured in nifi.properties is used. It can only be set when the connection is created."
+    )
+    public String getFlowFileQueueImplementation() {
+        return flowFileQueueImplementation;
+    }
+
+    public void setFlowFileQueueImplementation(String flowFileQueueImplementation) {
+        this.flowFileQueueImplementation = flowFileQueueImplementation;
+    }
+
     @Override
     public String toString() {
         return "ConnectionDTO [id: " + getId() + "]";
@@ -35,6 +35,7 @@ public class ProcessorConfigDTO {
     private String schedulingPeriod;
     private String schedulingStrategy;
     private String executionNode;
+    private String executionMode;
     private String penaltyDuration;
     private String yieldDuration;
     private String bulletinLevel;
@@ -103,6 +104,23 @@ public class ProcessorConfigDTO {
         this.executionNode = executionNode;
     }
 
+    /**
+     * Indicates whether the processor's tasks run on the shared timer driven thread pool or on virtual threads
+     *
+     * @return execution mode
+     */
+    @ApiModelProperty(
+            value = "Indicates whether the processor's tasks run on the shared timer driven thread pool or on virtual threads. Only applies to timer driven processors.",
+            allowableValues = "STANDARD, VIRTUAL_THREADS"
+    )
+    public String getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(String executionMode) {
+        this.executionMode = executionMode;
+    }
+
     /**
      * @return the amount of time that is used when this processor penalizes a flowfile
      */
@@ -38,6 +38,12 @@ public class RemoteProcessGroupPortDTO {
     private Boolean targetRunning;
     private Boolean connected;
     private BatchSettingsDTO batchSettings;
+    private Integer effectiveBatchCount;
+    private Long effectiveBatchSize;
+    private Double compressionRatio;
+    private Long transferRate;
+    private Long transactionCount;
+    private Long uncompressedBytesSent;
 
     /**
      * @return comments as configured in the target port
@@ -211,6 +217,96 @@ public class RemoteProcessGroupPortDTO {
         this.batchSettings = batchSettings;
     }
 
+    /**
+     * @return the average number of flow files of recent transactions
+     */
+    @ApiModelProperty(
+            value = "The average number of flow files that recent transactions of the port have carried.",
+            readOnly = true
+    )
+    public Integer getEffectiveBatchCount() {
+        return effectiveBatchCount;
+    }
+
+    public void setEffectiveBatchCount(Integer effectiveBatchCount) {
+        this.effectiveBatchCount = effectiveBatchCount;
+    }
+
+    /**
+     * @return the average number of bytes of recent transactions
+     */
+    @ApiModelProperty(
+            value = "The average number of bytes that recent transactions of the port have carried.",
+            readOnly = true
+    )
+    public Long getEffectiveBatchSize() {
+        return effectiveBatchSize;
+    }
+
+    public void setEffectiveBatchSize(Long effectiveBatchSize) {
+        this.effectiveBatchSize = effectiveBatchSize;
+    }
+
+    /**
+     * @return the ratio of compressed to uncompressed bytes sent by the port
+     */
+    @ApiModelProperty(
+            value = "The ratio of compressed to uncompressed bytes sent by the port, if it has compressed any data.",
+            readOnly = true
+    )
+    public Double getCompressionRatio() {
+        return compressionRatio;
+    }
+
+    public void setCompressionRatio(Double compressionRatio) {
+        this.compressionRatio = compressionRatio;
+    }
+
+    /**
+     * @return the recent rate at which the port has transferred content, in bytes per second
+     */
+    @ApiModelProperty(
+            value = "The recent rate at which the port has transferred flow file content, in bytes per second.",
+            readOnly = true
+    )
+    public Long getTransferRate() {
+        return transferRate;
+    }
+
+    public void setTransferRate(Long transferRate) {
+        this.transferRate = transferRate;
+    }
+
+    /**
+     * @return the number of transactions that the average batch count and size have been measured over
+     */
+    @ApiModelProperty(
+            value = "The number of transactions that the average batch count and size of the port have been measured over.",
+            readOnly = true
+    )
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    /**
+     * @return the number of bytes, before compression, that the port has sent compressed
+     */
+    @ApiModelProperty(
+            value = "The number of bytes, before compression, that the port has sent compressed. The compression ratio is measured over these bytes.",
+            readOnly = true
+    )
+    public Long getUncompressedBytesSent() {
+        return uncompressedBytesSent;
+    }
+
+    public void setUncompressedBytesSent(Long uncompressedBytesSent) {
+        this.uncompressedBytesSent = uncompressedBytesSent;
+    }
+
     @Override
     public int hashCode() {
         return 923847 + String.valueOf(name).hashCode();
@@ -63,6 +63,14 @@ public class SystemDiagnosticsSnapshotDTO implements Cloneable {
     private StorageUsageDTO flowFileRepositoryStorageUsage;
     private Set<StorageUsageDTO> contentRepositoryStorageUsage;
     private Set<StorageUsageDTO> provenanceRepositoryStorageUsage;
+    private Long provenanceIndexLagEvents;
+    private Long provenanceIndexLagSeconds;
+    private Long provenanceEventsDroppedByPolicy;
+    private Long provenanceEventsProjectedByPolicy;
+    private Long offHeapFlowFileAttributeBytes;
+    private Long preparedQueryCacheHits;
+    private Long preparedQueryCacheMisses;
+    private Long preparedQueryCacheEvictions;
     private Set<GarbageCollectionDTO> garbageCollection;
 
     private Date statsLastRefreshed;
@@ -214,6 +222,79 @@ public class SystemDiagnosticsSnapshotDTO implements Cloneable {
         this.provenanceRepositoryStorageUsage = provenanceRepositoryStorageUsage;
     }
 
+    @ApiModelProperty("The number of provenance events that have been stored but not yet indexed, if the provenance repository indexes events asynchronously.")
+    public Long getProvenanceIndexLagEvents() {
+        return provenanceIndexLagEvents;
+    }
+
+    public void setProvenanceIndexLagEvents(Long provenanceIndexLagEvents) {
+        this.provenanceIndexLagEvents = provenanceIndexLagEvents;
+    }
+
+    @ApiModelProperty("The number of seconds that the oldest provenance event that has not yet been indexed has been waiting, "
+        + "if the provenance repository indexes events asynchronously.")
+    public Long getProvenanceIndexLagSeconds() {
+        return provenanceIndexLagSeconds;
+    }
+
+    public void setProvenanceIndexLagSeconds(Long provenanceIndexLagSeconds) {
+        this.provenanceIndexLagSeconds = provenanceIndexLagSeconds;
+    }
+
+    @ApiModelProperty("The number of provenance events that were not reported because a provenance sampling policy dropped them.")
+    public Long getProvenanceEventsDroppedByPolicy() {
+        return provenanceEventsDroppedByPolicy;
+    }
+
+    public void setProvenanceEventsDroppedByPolicy(Long provenanceEventsDroppedByPolicy) {
+        this.provenanceEventsDroppedByPolicy = provenanceEventsDroppedByPolicy;
+    }
+
+    @ApiModelProperty("The number of provenance events that were reported with only the attributes kept by a provenance attribute policy.")
+    public Long getProvenanceEventsProjectedByPolicy() {
+        return provenanceEventsProjectedByPolicy;
+    }
+
+    public void setProvenanceEventsProjectedByPolicy(Long provenanceEventsProjectedByPolicy) {
+        this.provenanceEventsProjectedByPolicy = provenanceEventsProjectedByPolicy;
+    }
+
+    @ApiModelProperty("The number of bytes of direct memory that are allocated to hold FlowFile attributes off-heap.")
+    public Long getOffHeapFlowFileAttributeBytes() {
+        return offHeapFlowFileAttributeBytes;
+    }
+
+    public void setOffHeapFlowFileAttributeBytes(Long offHeapFlowFileAttributeBytes) {
+        this.offHeapFlowFileAttributeBytes = offHeapFlowFileAttributeBytes;
+    }
+
+    @ApiModelProperty("The number of times a prepared Expression Language query was found in the JVM-wide cache.")
+    public Long getPreparedQueryCacheHits() {
+        return preparedQueryCacheHits;
+    }
+
+    public void setPreparedQueryCacheHits(Long preparedQueryCacheHits) {
+        this.preparedQueryCacheHits = preparedQueryCacheHits;
+    }
+
+    @ApiModelProperty("The number of times an Expression Language query was not found in the JVM-wide cache and had to be prepared.")
+    public Long getPreparedQueryCacheMisses() {
+        return preparedQueryCacheMisses;
+    }
+
+    public void setPreparedQueryCacheMisses(Long preparedQueryCacheMisses) {
+        this.preparedQueryCacheMisses = preparedQueryCacheMisses;
+    }
+
+    @ApiModelProperty("The number of prepared Expression Language queries that were evicted from the full JVM-wide cache.")
+    public Long getPreparedQueryCacheEvictions() {
+        return preparedQueryCacheEvictions;
+    }
+
+    public void setPreparedQueryCacheEvictions(Long preparedQueryCacheEvictions) {
+        this.preparedQueryCacheEvictions = preparedQueryCacheEvictions;
+    }
+
     @ApiModelProperty("The flowfile repository storage usage.")
     public StorageUsageDTO getFlowFileRepositoryStorageUsage() {
         return flowFileRepositoryStorageUsage;
@@ -362,6 +443,14 @@ public class SystemDiagnosticsSnapshotDTO implements Cloneable {
         other.setUsedHeapBytes(getUsedHeapBytes());
         other.setUsedNonHeap(getUsedNonHeap());
         other.setUsedNonHeapBytes(getUsedNonHeapBytes());
+        other.setProvenanceIndexLagEvents(getProvenanceIndexLagEvents());
+        other.setProvenanceIndexLagSeconds(getProvenanceIndexLagSeconds());
+        other.setProvenanceEventsDroppedByPolicy(getProvenanceEventsDroppedByPolicy());
+        other.setProvenanceEventsProjectedByPolicy(getProvenanceEventsProjectedByPolicy());
+        other.setOffHeapFlowFileAttributeBytes(getOffHeapFlowFileAttributeBytes());
+        other.setPreparedQueryCacheHits(getPreparedQueryCacheHits());
+        other.setPreparedQueryCacheMisses(getPreparedQueryCacheMisses());
+        other.setPreparedQueryCacheEvictions(getPreparedQueryCacheEvictions());
 
         other.setFlowFileRepositoryStorageUsage(getFlowFileRepositoryStorageUsage().clone());
 
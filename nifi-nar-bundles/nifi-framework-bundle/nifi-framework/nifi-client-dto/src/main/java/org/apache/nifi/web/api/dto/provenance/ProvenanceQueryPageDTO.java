@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.web.api.dto.provenance;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.xml.bind.annotation.XmlType;
+import java.util.List;
+
+/**
+ * A single page of the provenance events that match a provenance request.
+ */
+@XmlType(name = "provenanceQueryPage")
+public class ProvenanceQueryPageDTO {
+
+    private ProvenanceRequestDTO request;
+    private String continuationToken;
+    private Integer pageSize;
+
+    private List<ProvenanceEventDTO> provenanceEvents;
+    private String nextContinuationToken;
+
+    /**
+     * @return provenance request
+     */
+    @ApiModelProperty(
+            value = "The provenance request. The max results of the request are not used; the page size is used instead."
+    )
+    public ProvenanceRequestDTO getRequest() {
+        return request;
+    }
+
+    public void setRequest(ProvenanceRequestDTO request) {
+        this.request = request;
+    }
+
+    /**
+     * @return the token identifying the page to retrieve, or null for the first page
+     */
+    @ApiModelProperty(
+            value = "The token identifying the page to retrieve, as returned with the previous page. If not specified, the first page is retrieved."
+    )
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * @return the maximum number of events to return
+     */
+    @ApiModelProperty(
+            value = "The maximum number of events to return."
+    )
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return provenance events in this page
+     */
+    @ApiModelProperty(
+            value = "The provenance events in this page, in the order that they were added to the repository.",
+            readOnly = true
+    )
+    public List<ProvenanceEventDTO> getProvenanceEvents() {
+        return provenanceEvents;
+    }
+
+    public void setProvenanceEvents(List<ProvenanceEventDTO> provenanceEvents) {
+        this.provenanceEvents = provenanceEvents;
+    }
+
+    /**
+     * @return the token identifying the next page, or null if there are no more matching events
+     */
+    @ApiModelProperty(
+            value = "The token identifying the next page, or null if there are no more matching events.",
+            readOnly = true
+    )
+    public String getNextContinuationToken() {
+        return nextContinuationToken;
+    }
+
+    public void setNextContinuationToken(String nextContinuationToken) {
+        this.nextContinuationToken = nextContinuationToken;
+    }
+
+}
@@ -29,6 +29,7 @@ import java.util.Set;
 public class LineageResultsDTO {
 
     private Set<String> errors;
+    private Boolean partial;
 
     private List<ProvenanceNodeDTO> nodes;
     private List<ProvenanceLinkDTO> links;
@@ -47,6 +48,21 @@ public class LineageResultsDTO {
         this.errors = errors;
     }
 
+    /**
+     * @return whether the lineage is partial
+     */
+    @ApiModelProperty(
+            value = "Whether the lineage is partial because more events were related to the FlowFiles than could be retrieved at once. "
+                    + "A partial lineage can be expanded further by expanding the parents or children of its events."
+    )
+    public Boolean getPartial() {
+        return partial;
+    }
+
+    public void setPartial(Boolean partial) {
+        this.partial = partial;
+    }
+
     /**
      * @return the nodes
      */
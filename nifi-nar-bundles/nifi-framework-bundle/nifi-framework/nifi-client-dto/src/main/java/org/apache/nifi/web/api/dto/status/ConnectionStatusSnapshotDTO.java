@@ -48,6 +48,16 @@ public class ConnectionStatusSnapshotDTO implements Cloneable {
     private String queuedCount;
     private Integer percentUseCount;
     private Integer percentUseBytes;
+    private Long queueTimeCount = 0L;
+    private Long queueTimeP50Millis = 0L;
+    private Long queueTimeP99Millis = 0L;
+    private Long queueTimeMaxMillis = 0L;
+    private Long swapOutCount = 0L;
+    private Long swapOutBytes = 0L;
+    private Long swapOutMillis = 0L;
+    private Long swapInCount = 0L;
+    private Long swapInBytes = 0L;
+    private Long swapInMillis = 0L;
 
     /* getters / setters */
     /**
@@ -271,6 +281,98 @@ public class ConnectionStatusSnapshotDTO implements Cloneable {
         this.percentUseBytes = percentUseBytes;
     }
 
+    @ApiModelProperty("The number of FlowFiles pulled from the connection in the last 5 minutes whose queue time was recorded.")
+    public Long getQueueTimeCount() {
+        return queueTimeCount;
+    }
+
+    public void setQueueTimeCount(Long queueTimeCount) {
+        this.queueTimeCount = queueTimeCount;
+    }
+
+    @ApiModelProperty("The median number of milliseconds that FlowFiles pulled from the connection in the last 5 minutes had been queued. "
+        + "When merged across a cluster, this is the average of each node's median weighted by the queue time count.")
+    public Long getQueueTimeP50Millis() {
+        return queueTimeP50Millis;
+    }
+
+    public void setQueueTimeP50Millis(Long queueTimeP50Millis) {
+        this.queueTimeP50Millis = queueTimeP50Millis;
+    }
+
+    @ApiModelProperty("The 99th percentile of the number of milliseconds that FlowFiles pulled from the connection in the last 5 minutes had been queued. "
+        + "When merged across a cluster, this is the largest of each node's 99th percentile.")
+    public Long getQueueTimeP99Millis() {
+        return queueTimeP99Millis;
+    }
+
+    public void setQueueTimeP99Millis(Long queueTimeP99Millis) {
+        this.queueTimeP99Millis = queueTimeP99Millis;
+    }
+
+    @ApiModelProperty("The largest number of milliseconds that a FlowFile pulled from the connection in the last 5 minutes had been queued.")
+    public Long getQueueTimeMaxMillis() {
+        return queueTimeMaxMillis;
+    }
+
+    public void setQueueTimeMaxMillis(Long queueTimeMaxMillis) {
+        this.queueTimeMaxMillis = queueTimeMaxMillis;
+    }
+
+    @ApiModelProperty("The number of swap files that have been written for the connection.")
+    public Long getSwapOutCount() {
+        return swapOutCount;
+    }
+
+    public void setSwapOutCount(Long swapOutCount) {
+        this.swapOutCount = swapOutCount;
+    }
+
+    @ApiModelProperty("The total size of the content of the FlowFiles that have been swapped out of the connection.")
+    public Long getSwapOutBytes() {
+        return swapOutBytes;
+    }
+
+    public void setSwapOutBytes(Long swapOutBytes) {
+        this.swapOutBytes = swapOutBytes;
+    }
+
+    @ApiModelProperty("The total number of milliseconds spent writing swap files for the connection.")
+    public Long getSwapOutMillis() {
+        return swapOutMillis;
+    }
+
+    public void setSwapOutMillis(Long swapOutMillis) {
+        this.swapOutMillis = swapOutMillis;
+    }
+
+    @ApiModelProperty("The number of swap files that have been swapped back into the connection.")
+    public Long getSwapInCount() {
+        return swapInCount;
+    }
+
+    public void setSwapInCount(Long swapInCount) {
+        this.swapInCount = swapInCount;
+    }
+
+    @ApiModelProperty("The total size of the content of the FlowFiles that have been swapped back into the connection.")
+    public Long getSwapInBytes() {
+        return swapInBytes;
+    }
+
+    public void setSwapInBytes(Long swapInBytes) {
+        this.swapInBytes = swapInBytes;
+    }
+
+    @ApiModelProperty("The total number of milliseconds spent swapping FlowFiles back into the connection.")
+    public Long getSwapInMillis() {
+        return swapInMillis;
+    }
+
+    public void setSwapInMillis(Long swapInMillis) {
+        this.swapInMillis = swapInMillis;
+    }
+
     @Override
     public ConnectionStatusSnapshotDTO clone() {
         final ConnectionStatusSnapshotDTO other = new ConnectionStatusSnapshotDTO();
@@ -295,6 +397,16 @@ public class ConnectionStatusSnapshotDTO implements Cloneable {
         other.setQueuedSize(getQueuedSize());
         other.setPercentUseBytes(getPercentUseBytes());
         other.setPercentUseCount(getPercentUseCount());
+        other.setQueueTimeCount(getQueueTimeCount());
+        other.setQueueTimeP50Millis(getQueueTimeP50Millis());
+        other.setQueueTimeP99Millis(getQueueTimeP99Millis());
+        other.setQueueTimeMaxMillis(getQueueTimeMaxMillis());
+        other.setSwapOutCount(getSwapOutCount());
+        other.setSwapOutBytes(getSwapOutBytes());
+        other.setSwapOutMillis(getSwapOutMillis());
+        other.setSwapInCount(getSwapInCount());
+        other.setSwapInBytes(getSwapInBytes());
+        other.setSwapInMillis(getSwapInMillis());
 
         return other;
     }
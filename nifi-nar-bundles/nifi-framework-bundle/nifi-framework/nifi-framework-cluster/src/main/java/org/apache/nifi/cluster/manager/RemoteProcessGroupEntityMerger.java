@@ -108,6 +108,7 @@ public class RemoteProcessGroupEntityMerger implements ComponentEntityMerger<Rem
                             mergedInputPorts = new HashSet<>(nodeInputPorts);
                         } else {
                             mergedInputPorts.retainAll(nodeInputPorts);
+                            mergePorts(mergedInputPorts, nodeInputPorts);
                         }
                     }
 
@@ -117,6 +118,7 @@ public class RemoteProcessGroupEntityMerger implements ComponentEntityMerger<Rem
                             mergedOutputPorts = new HashSet<>(nodeOutputPorts);
                         } else {
                             mergedOutputPorts.retainAll(nodeOutputPorts);
+                            mergePorts(mergedOutputPorts, nodeOutputPorts);
                         }
                     }
                 }
@@ -140,4 +142,16 @@ public class RemoteProcessGroupEntityMerger implements ComponentEntityMerger<Rem
         clientDto.setAuthorizationIssues(ErrorMerger.normalizedMergedErrors(authorizationErrorMap, dtoMap.size()));
         clientDto.setValidationErrors(ErrorMerger.normalizedMergedErrors(validationErrorMap, dtoMap.size()));
     }
+
+    private static void mergePorts(final Set<RemoteProcessGroupPortDTO> mergedPorts, final Set<RemoteProcessGroupPortDTO> nodePorts) {
+        final Map<RemoteProcessGroupPortDTO, RemoteProcessGroupPortDTO> nodePortMap = new HashMap<>();
+        nodePorts.forEach(nodePort -> nodePortMap.put(nodePort, nodePort));
+
+        for (final RemoteProcessGroupPortDTO mergedPort : mergedPorts) {
+            final RemoteProcessGroupPortDTO nodePort = nodePortMap.get(mergedPort);
+            if (nodePort != null) {
+                StatusMerger.merge(mergedPort, nodePort);
+            }
+        }
+    }
 }
@@ -26,6 +26,7 @@ import org.apache.nifi.web.api.dto.CountersDTO;
 import org.apache.nifi.web.api.dto.CountersSnapshotDTO;
 import org.apache.nifi.web.api.dto.NodeCountersSnapshotDTO;
 import org.apache.nifi.web.api.dto.NodeSystemDiagnosticsSnapshotDTO;
+import org.apache.nifi.web.api.dto.RemoteProcessGroupPortDTO;
 import org.apache.nifi.web.api.dto.SystemDiagnosticsDTO;
 import org.apache.nifi.web.api.dto.SystemDiagnosticsSnapshotDTO;
 import org.apache.nifi.web.api.dto.SystemDiagnosticsSnapshotDTO.GarbageCollectionDTO;
@@ -319,6 +320,35 @@ public class StatusMerger {
         }
     }
 
+    public static void merge(final RemoteProcessGroupPortDTO target, final RemoteProcessGroupPortDTO toMerge) {
+        // each node transfers its own data, so the rates add up, while the averages are weighted by the number of
+        // transactions and bytes that each node measured them over
+        final long targetTransactions = target.getTransactionCount() == null ? 0L : target.getTransactionCount();
+        final long toMergeTransactions = toMerge.getTransactionCount() == null ? 0L : toMerge.getTransactionCount();
+        if (targetTransactions + toMergeTransactions > 0) {
+            target.setEffectiveBatchCount((int) Math.round(weightedAverage(target.getEffectiveBatchCount(), targetTransactions,
+                toMerge.getEffectiveBatchCount(), toMergeTransactions)));
+            target.setEffectiveBatchSize(Math.round(weightedAverage(target.getEffectiveBatchSize(), targetTransactions,
+                toMerge.getEffectiveBatchSize(), toMergeTransactions)));
+        }
+        target.setTransactionCount(add(target.getTransactionCount(), toMerge.getTransactionCount()));
+
+        final long targetBytesSent = target.getCompressionRatio() == null || target.getUncompressedBytesSent() == null ? 0L : target.getUncompressedBytesSent();
+        final long toMergeBytesSent = toMerge.getCompressionRatio() == null || toMerge.getUncompressedBytesSent() == null ? 0L : toMerge.getUncompressedBytesSent();
+        if (targetBytesSent + toMergeBytesSent > 0) {
+            target.setCompressionRatio(weightedAverage(target.getCompressionRatio(), targetBytesSent, toMerge.getCompressionRatio(), toMergeBytesSent));
+        }
+        target.setUncompressedBytesSent(add(target.getUncompressedBytesSent(), toMerge.getUncompressedBytesSent()));
+
+        target.setTransferRate(add(target.getTransferRate(), toMerge.getTransferRate()));
+    }
+
+    private static double weightedAverage(final Number a, final long aWeight, final Number b, final long bWeight) {
+        final double weightedA = a == null ? 0D : a.doubleValue() * aWeight;
+        final double weightedB = b == null ? 0D : b.doubleValue() * bWeight;
+        return (weightedA + weightedB) / (aWeight + bWeight);
+    }
+
     public static void merge(final PortStatusDTO target, final boolean targetReadablePermission, final PortStatusDTO toMerge, final boolean toMergeReadablePermission, final String nodeId,
                              final String nodeAddress, final Integer nodeApiPort) {
         if (targetReadablePermission && !toMergeReadablePermission) {
@@ -483,6 +513,24 @@ public class StatusMerger {
         target.setFlowFilesQueued(target.getFlowFilesQueued() + toMerge.getFlowFilesQueued());
         target.setBytesQueued(target.getBytesQueued() + toMerge.getBytesQueued());
 
+        // the node histograms are not available here, so the median is weighted by the number of FlowFiles that
+        // each node saw and the 99th percentile is the worst of the nodes
+        final long queueTimeCount = target.getQueueTimeCount() + toMerge.getQueueTimeCount();
+        if (queueTimeCount > 0) {
+            target.setQueueTimeP50Millis((target.getQueueTimeP50Millis() * target.getQueueTimeCount()
+                + toMerge.getQueueTimeP50Millis() * toMerge.getQueueTimeCount()) / queueTimeCount);
+        }
+        target.setQueueTimeCount(queueTimeCount);
+        target.setQueueTimeP99Millis(Math.max(target.getQueueTimeP99Millis(), toMerge.getQueueTimeP99Millis()));
+        target.setQueueTimeMaxMillis(Math.max(target.getQueueTimeMaxMillis(), toMerge.getQueueTimeMaxMillis()));
+
+        target.setSwapOutCount(target.getSwapOutCount() + toMerge.getSwapOutCount());
+        target.setSwapOutBytes(target.getSwapOutBytes() + toMerge.getSwapOutBytes());
+        target.setSwapOutMillis(target.getSwapOutMillis() + toMerge.getSwapOutMillis());
+        target.setSwapInCount(target.getSwapInCount() + toMerge.getSwapInCount());
+        target.setSwapInBytes(target.getSwapInBytes() + toMerge.getSwapInBytes());
+        target.setSwapInMillis(target.getSwapInMillis() + toMerge.getSwapInMillis());
+
         if (target.getPercentUseBytes() == null) {
             target.setPercentUseBytes(toMerge.getPercentUseBytes());
         } else if (toMerge.getPercentUseBytes() != null) {
@@ -631,6 +679,40 @@ public class StatusMerger {
         target.setUsedHeapBytes(target.getUsedHeapBytes() + toMerge.getUsedHeapBytes());
         target.setUsedNonHeapBytes(target.getUsedNonHeapBytes() + toMerge.getUsedNonHeapBytes());
 
+        // Index lag is summed in terms of events but, in terms of time, the cluster is only as current as its most lagging node.
+        if (toMerge.getProvenanceIndexLagEvents() != null) {
+            target.setProvenanceIndexLagEvents(target.getProvenanceIndexLagEvents() == null ? toMerge.getProvenanceIndexLagEvents()
+                : target.getProvenanceIndexLagEvents() + toMerge.getProvenanceIndexLagEvents());
+        }
+        if (toMerge.getProvenanceIndexLagSeconds() != null) {
+            target.setProvenanceIndexLagSeconds(target.getProvenanceIndexLagSeconds() == null ? toMerge.getProvenanceIndexLagSeconds()
+                : Math.max(target.getProvenanceIndexLagSeconds(), toMerge.getProvenanceIndexLagSeconds()));
+        }
+        if (toMerge.getProvenanceEventsDroppedByPolicy() != null) {
+            target.setProvenanceEventsDroppedByPolicy(target.getProvenanceEventsDroppedByPolicy() == null ? toMerge.getProvenanceEventsDroppedByPolicy()
+                : target.getProvenanceEventsDroppedByPolicy() + toMerge.getProvenanceEventsDroppedByPolicy());
+        }
+        if (toMerge.getProvenanceEventsProjectedByPolicy() != null) {
+            target.setProvenanceEventsProjectedByPolicy(target.getProvenanceEventsProjectedByPolicy() == null ? toMerge.getProvenanceEventsProjectedByPolicy()
+                : target.getProvenanceEventsProjectedByPolicy() + toMerge.getProvenanceEventsProjectedByPolicy());
+        }
+        if (toMerge.getOffHeapFlowFileAttributeBytes() != null) {
+            target.setOffHeapFlowFileAttributeBytes(target.getOffHeapFlowFileAttributeBytes() == null ? toMerge.getOffHeapFlowFileAttributeBytes()
+                : target.getOffHeapFlowFileAttributeBytes() + toMerge.getOffHeapFlowFileAttributeBytes());
+        }
+        if (toMerge.getPreparedQueryCacheHits() != null) {
+            target.setPreparedQueryCacheHits(target.getPreparedQueryCacheHits() == null ? toMerge.getPreparedQueryCacheHits()
+                : target.getPreparedQueryCacheHits() + toMerge.getPreparedQueryCacheHits());
+        }
+        if (toMerge.getPreparedQueryCacheMisses() != null) {
+            target.setPreparedQueryCacheMisses(target.getPreparedQueryCacheMisses() == null ? toMerge.getPreparedQueryCacheMisses()
+                : target.getPreparedQueryCacheMisses() + toMerge.getPreparedQueryCacheMisses());
+        }
+        if (toMerge.getPreparedQueryCacheEvictions() != null) {
+            target.setPreparedQueryCacheEvictions(target.getPreparedQueryCacheEvictions() == null ? toMerge.getPreparedQueryCacheEvictions()
+                : target.getPreparedQueryCacheEvictions() + toMerge.getPreparedQueryCacheEvictions());
+        }
+
         merge(target.getContentRepositoryStorageUsage(), toMerge.getContentRepositoryStorageUsage());
         merge(target.getProvenanceRepositoryStorageUsage(), toMerge.getProvenanceRepositoryStorageUsage());
         merge(target.getFlowFileRepositoryStorageUsage(), toMerge.getFlowFileRepositoryStorageUsage());
@@ -116,4 +116,71 @@ public class RemoteProcessGroupEntityMergerTest {
         assertEquals(1, entity1.getComponent().getContents().getOutputPorts().size());
         assertEquals("out1", entity1.getComponent().getContents().getOutputPorts().iterator().next().getName());
     }
+
+    @Test
+    public void testMergeRemoteProcessGroupPortStatistics() throws Exception {
+        final NodeIdentifier node1 = new NodeIdentifier("node-1", "host-1", 8080, "host-1", 19998, null, null, null, false);
+        final NodeIdentifier node2 = new NodeIdentifier("node-2", "host-2", 8081, "host-2", 19999, null, null, null, false);
+
+        final PermissionsDTO permissed = new PermissionsDTO();
+        permissed.setCanRead(true);
+        permissed.setCanWrite(true);
+
+        final RemoteProcessGroupStatusDTO status = new RemoteProcessGroupStatusDTO();
+        status.setAggregateSnapshot(new RemoteProcessGroupStatusSnapshotDTO());
+
+        final RemoteProcessGroupPortDTO in1 = new RemoteProcessGroupPortDTO();
+        in1.setName("in1");
+        in1.setTransactionCount(1L);
+        in1.setEffectiveBatchCount(10);
+        in1.setEffectiveBatchSize(1000L);
+        in1.setCompressionRatio(0.5D);
+        in1.setUncompressedBytesSent(1000L);
+        in1.setTransferRate(100L);
+
+        final RemoteProcessGroupPortDTO in2 = new RemoteProcessGroupPortDTO();
+        in2.setName("in1");
+        in2.setTransactionCount(3L);
+        in2.setEffectiveBatchCount(2);
+        in2.setEffectiveBatchSize(200L);
+        in2.setCompressionRatio(0.9D);
+        in2.setUncompressedBytesSent(3000L);
+        in2.setTransferRate(300L);
+
+        final RemoteProcessGroupEntity entity1 = createEntity(permissed, status, in1);
+        final RemoteProcessGroupEntity entity2 = createEntity(permissed, status, in2);
+
+        final Map<NodeIdentifier, RemoteProcessGroupEntity> nodeMap = new HashMap<>();
+        nodeMap.put(node1, entity1);
+        nodeMap.put(node2, entity2);
+
+        final RemoteProcessGroupEntityMerger merger = new RemoteProcessGroupEntityMerger();
+        merger.merge(entity1, nodeMap);
+
+        // rates add up, averages are weighted by transactions and by the bytes the compression ratio was measured over
+        final RemoteProcessGroupPortDTO merged = entity1.getComponent().getContents().getInputPorts().iterator().next();
+        assertEquals(Long.valueOf(4L), merged.getTransactionCount());
+        assertEquals(Integer.valueOf(4), merged.getEffectiveBatchCount());
+        assertEquals(Long.valueOf(400L), merged.getEffectiveBatchSize());
+        assertEquals(0.8D, merged.getCompressionRatio(), 0.0001D);
+        assertEquals(Long.valueOf(4000L), merged.getUncompressedBytesSent());
+        assertEquals(Long.valueOf(400L), merged.getTransferRate());
+    }
+
+    private static RemoteProcessGroupEntity createEntity(final PermissionsDTO permissions, final RemoteProcessGroupStatusDTO status, final RemoteProcessGroupPortDTO inputPort) {
+        final Set<RemoteProcessGroupPortDTO> inputs = new HashSet<>();
+        inputs.add(inputPort);
+
+        final RemoteProcessGroupContentsDTO contents = new RemoteProcessGroupContentsDTO();
+        contents.setInputPorts(inputs);
+
+        final RemoteProcessGroupDTO rpg = new RemoteProcessGroupDTO();
+        rpg.setContents(contents);
+
+        final RemoteProcessGroupEntity entity = new RemoteProcessGroupEntity();
+        entity.setPermissions(permissions);
+        entity.setStatus(status);
+        entity.setComponent(rpg);
+        return entity;
+    }
 }
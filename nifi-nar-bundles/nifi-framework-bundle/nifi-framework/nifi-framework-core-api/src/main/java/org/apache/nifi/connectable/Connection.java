@@ -48,6 +48,12 @@ public interface Connection extends Authorizable, VersionedComponent {
 
     void setName(String name);
 
+    /**
+     * @return the fully qualified class name of the FlowFile Queue implementation that was configured for this Connection, or
+     *         <code>null</code> if this Connection uses the implementation that is configured in nifi.properties
+     */
+    String getFlowFileQueueImplementation();
+
     void setBendPoints(List<Position> position);
 
     List<Position> getBendPoints();
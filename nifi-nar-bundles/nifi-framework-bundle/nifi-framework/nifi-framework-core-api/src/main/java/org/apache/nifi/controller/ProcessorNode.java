@@ -36,6 +36,7 @@ import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.Processor;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.registry.ComponentVariableRegistry;
+import org.apache.nifi.scheduling.ExecutionMode;
 import org.apache.nifi.scheduling.ExecutionNode;
 import org.apache.nifi.scheduling.SchedulingStrategy;
 
@@ -105,6 +106,10 @@ public abstract class ProcessorNode extends AbstractComponentNode implements Con
 
     public abstract ExecutionNode getExecutionNode();
 
+    public abstract void setExecutionMode(ExecutionMode executionMode);
+
+    public abstract ExecutionMode getExecutionMode();
+
     public abstract void setRunDuration(long duration, TimeUnit timeUnit);
 
     @Override
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+import org.apache.nifi.flowfile.FlowFile;
+
+/**
+ * A ProcessSession that can move FlowFile content between the Content Repository and a channel without copying it
+ * through the JVM heap. Framework components that stream large amounts of content, such as site-to-site, may use it
+ * when the session they are given implements it, and otherwise fall back to the stream-based methods of ProcessSession.
+ */
+public interface ChannelTransferSession {
+
+    /**
+     * Invokes the given callback with the file that holds the content of the given FlowFile, if the Content Repository
+     * keeps the content in a plain file. The channel is closed when the callback returns.
+     *
+     * @param source the FlowFile whose content should be read
+     * @param callback the callback to invoke with the file that holds the content
+     * @return <code>true</code> if the callback was invoked, <code>false</code> if the content is not held in a plain file
+     *         (or is empty), in which case the caller should read the content with ProcessSession#read instead
+     * @throws IOException if thrown by the callback
+     */
+    boolean readFileRegion(FlowFile source, FileRegionCallback callback) throws IOException;
+
+    /**
+     * Imports exactly <code>length</code> bytes from the given channel as the content of the given FlowFile, in the same
+     * way as ProcessSession#importFrom(java.io.InputStream, FlowFile).
+     *
+     * @param source the channel to read from
+     * @param length the number of bytes to import
+     * @param destination the FlowFile whose content should be replaced
+     * @return the updated FlowFile
+     */
+    FlowFile importFrom(ReadableByteChannel source, long length, FlowFile destination);
+}
@@ -55,4 +55,36 @@ public abstract class RemoteGroupPort extends AbstractPort implements Port, Remo
     public abstract String getBatchDuration();
 
     public abstract void setBatchDuration(String batchDuration);
+
+    /**
+     * @return the average number of FlowFiles that recent transactions of this port have carried
+     */
+    public abstract int getEffectiveBatchCount();
+
+    /**
+     * @return the average number of bytes that recent transactions of this port have carried
+     */
+    public abstract long getEffectiveBatchSize();
+
+    /**
+     * @return the ratio of compressed to uncompressed bytes sent by this port, or <code>null</code> if
+     * this port has not compressed any data
+     */
+    public abstract Double getCompressionRatio();
+
+    /**
+     * @return the recent rate, in bytes per second, at which this port has transferred FlowFile content
+     */
+    public abstract long getTransferRate();
+
+    /**
+     * @return the number of transactions that the batch averages of this port have been measured over
+     */
+    public abstract long getTransactionCount();
+
+    /**
+     * @return the number of bytes, before compression, that this port has sent compressed, which
+     * the compression ratio has been measured over
+     */
+    public abstract long getUncompressedBytesSent();
 }
@@ -29,6 +29,7 @@ import org.apache.nifi.authorization.Resource;
 import org.apache.nifi.authorization.resource.Authorizable;
 import org.apache.nifi.authorization.user.NiFiUser;
 import org.apache.nifi.controller.ProcessScheduler;
+import org.apache.nifi.controller.ShardedFlowFileQueue;
 import org.apache.nifi.controller.StandardFlowFileQueue;
 import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.repository.FlowFileRecord;
@@ -43,13 +44,16 @@ import org.apache.nifi.provenance.ProvenanceEventRepository;
 import org.apache.nifi.remote.RemoteGroupPort;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -62,6 +66,12 @@ import java.util.stream.Collectors;
  */
 public final class StandardConnection implements Connection {
 
+    /**
+     * The class names of the FlowFile Queue implementations that a Connection may be configured to use
+     */
+    public static final Set<String> FLOWFILE_QUEUE_IMPLEMENTATIONS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList(StandardFlowFileQueue.class.getName(), ShardedFlowFileQueue.class.getName())));
+
     private final String id;
     private final AtomicReference<ProcessGroup> processGroup;
     private final AtomicReference<String> name;
@@ -70,6 +80,7 @@ public final class StandardConnection implements Connection {
     private final AtomicReference<Connectable> destination;
     private final AtomicReference<Collection<Relationship>> relationships;
     private final StandardFlowFileQueue flowFileQueue;
+    private final String flowFileQueueImplementation;
     private final AtomicInteger labelIndex = new AtomicInteger(1);
     private final AtomicLong zIndex = new AtomicLong(0L);
     private final AtomicReference<String> versionedComponentId = new AtomicReference<>();
@@ -85,9 +96,17 @@ public final class StandardConnection implements Connection {
         destination = new AtomicReference<>(builder.destination);
         relationships = new AtomicReference<>(Collections.unmodifiableCollection(builder.relationships));
         scheduler = builder.scheduler;
-        flowFileQueue = new StandardFlowFileQueue(id, this, builder.flowFileRepository, builder.provenanceRepository, builder.resourceClaimManager,
-                scheduler, builder.swapManager, builder.eventReporter, builder.queueSwapThreshold,
-                builder.defaultBackPressureObjectThreshold, builder.defaultBackPressureDataSizeThreshold);
+        flowFileQueueImplementation = builder.flowFileQueueImplementation;
+        final String queueImplementation = flowFileQueueImplementation == null ? builder.defaultFlowFileQueueImplementation : flowFileQueueImplementation;
+        if (ShardedFlowFileQueue.class.getName().equals(queueImplementation)) {
+            flowFileQueue = new ShardedFlowFileQueue(id, this, builder.flowFileRepository, builder.provenanceRepository, builder.resourceClaimManager,
+                    scheduler, builder.swapManager, builder.eventReporter, builder.queueSwapThreshold,
+                    builder.defaultBackPressureObjectThreshold, builder.defaultBackPressureDataSizeThreshold, builder.swapOutExecutor);
+        } else {
+            flowFileQueue = new StandardFlowFileQueue(id, this, builder.flowFileRepository, builder.provenanceRepository, builder.resourceClaimManager,
+                    scheduler, builder.swapManager, builder.eventReporter, builder.queueSwapThreshold,
+                    builder.defaultBackPressureObjectThreshold, builder.defaultBackPressureDataSizeThreshold, builder.swapOutExecutor);
+        }
         hashCode = new HashCodeBuilder(7, 67).append(id).toHashCode();
     }
 
@@ -111,6 +130,11 @@ public final class StandardConnection implements Connection {
         this.name.set(name);
     }
 
+    @Override
+    public String getFlowFileQueueImplementation() {
+        return flowFileQueueImplementation;
+    }
+
     @Override
     public Authorizable getParentAuthorizable() {
         return getProcessGroup();
@@ -394,6 +418,9 @@ public final class StandardConnection implements Connection {
         private int queueSwapThreshold;
         private Long defaultBackPressureObjectThreshold;
         private String defaultBackPressureDataSizeThreshold;
+        private String flowFileQueueImplementation;
+        private String defaultFlowFileQueueImplementation;
+        private Executor swapOutExecutor;
 
         public Builder(final ProcessScheduler scheduler) {
             this.scheduler = scheduler;
@@ -480,6 +507,21 @@ public final class StandardConnection implements Connection {
             return this;
         }
 
+        public Builder flowFileQueueImplementation(final String flowFileQueueImplementation) {
+            this.flowFileQueueImplementation = flowFileQueueImplementation;
+            return this;
+        }
+
+        public Builder swapOutExecutor(final Executor swapOutExecutor) {
+            this.swapOutExecutor = swapOutExecutor;
+            return this;
+        }
+
+        public Builder defaultFlowFileQueueImplementation(final String defaultFlowFileQueueImplementation) {
+            this.defaultFlowFileQueueImplementation = defaultFlowFileQueueImplementation;
+            return this;
+        }
+
         public StandardConnection build() {
             if (source == null) {
                 throw new IllegalStateException("Cannot build a Connection without a Source");
@@ -499,6 +541,12 @@ public final class StandardConnection implements Connection {
             if (resourceClaimManager == null) {
                 throw new IllegalStateException("Cannot build a Connection without a Resource Claim Manager");
             }
+            if (flowFileQueueImplementation != null && !FLOWFILE_QUEUE_IMPLEMENTATIONS.contains(flowFileQueueImplementation)) {
+                throw new IllegalStateException("Cannot build a Connection with unknown FlowFile Queue implementation " + flowFileQueueImplementation);
+            }
+            if (defaultFlowFileQueueImplementation != null && !FLOWFILE_QUEUE_IMPLEMENTATIONS.contains(defaultFlowFileQueueImplementation)) {
+                throw new IllegalStateException("Cannot build a Connection with unknown FlowFile Queue implementation " + defaultFlowFileQueueImplementation);
+            }
 
             if (relationships == null) {
                 relationships = new ArrayList<>();
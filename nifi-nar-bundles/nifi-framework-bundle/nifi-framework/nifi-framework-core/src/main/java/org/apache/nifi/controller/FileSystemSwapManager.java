@@ -46,8 +46,9 @@ import org.apache.nifi.controller.repository.SwapContents;
 import org.apache.nifi.controller.repository.SwapManagerInitializationContext;
 import org.apache.nifi.controller.repository.SwapSummary;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.swap.CompressedSchemaSwapDeserializer;
+import org.apache.nifi.controller.swap.CompressedSchemaSwapSerializer;
 import org.apache.nifi.controller.swap.SchemaSwapDeserializer;
-import org.apache.nifi.controller.swap.SchemaSwapSerializer;
 import org.apache.nifi.controller.swap.SimpleSwapDeserializer;
 import org.apache.nifi.controller.swap.SwapDeserializer;
 import org.apache.nifi.controller.swap.SwapSerializer;
@@ -116,7 +117,7 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         final File swapTempFile = new File(swapFile.getParentFile(), swapFile.getName() + ".part");
         final String swapLocation = swapFile.getAbsolutePath();
 
-        final SwapSerializer serializer = new SchemaSwapSerializer();
+        final SwapSerializer serializer = new CompressedSchemaSwapSerializer();
         try (final FileOutputStream fos = new FileOutputStream(swapTempFile);
             final OutputStream out = new BufferedOutputStream(fos)) {
             out.write(MAGIC_HEADER);
@@ -142,8 +143,12 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
     @Override
     public SwapContents swapIn(final String swapLocation, final FlowFileQueue flowFileQueue) throws IOException {
+        return swapIn(swapLocation, flowFileQueue, peek(swapLocation, flowFileQueue));
+    }
+
+    @Override
+    public SwapContents swapIn(final String swapLocation, final FlowFileQueue flowFileQueue, final SwapContents swapContents) throws IOException {
         final File swapFile = new File(swapLocation);
-        final SwapContents swapContents = peek(swapLocation, flowFileQueue);
         flowFileRepository.swapFlowFilesIn(swapFile.getAbsolutePath(), swapContents.getFlowFiles(), flowFileQueue);
 
         if (!swapFile.delete()) {
@@ -280,6 +285,9 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
         if (Arrays.equals(magicHeader, MAGIC_HEADER)) {
             final String serializationName = dis.readUTF();
+            if (serializationName.equals(CompressedSchemaSwapDeserializer.getSerializationName())) {
+                return new CompressedSchemaSwapDeserializer();
+            }
             if (serializationName.equals(SchemaSwapDeserializer.getSerializationName())) {
                 return new SchemaSwapDeserializer();
             }
@@ -78,6 +78,8 @@ import org.apache.nifi.controller.leader.election.LeaderElectionManager;
 import org.apache.nifi.controller.leader.election.LeaderElectionStateChangeListener;
 import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.queue.QueueTimeStatistics;
+import org.apache.nifi.controller.queue.SwapStatistics;
 import org.apache.nifi.controller.reporting.ReportingTaskInstantiationException;
 import org.apache.nifi.controller.reporting.ReportingTaskProvider;
 import org.apache.nifi.controller.reporting.StandardReportingInitializationContext;
@@ -89,6 +91,7 @@ import org.apache.nifi.controller.repository.FlowFileEventRepository;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.FlowFileRepository;
 import org.apache.nifi.controller.repository.FlowFileSwapManager;
+import org.apache.nifi.controller.repository.ProvenanceEventPolicyStatistics;
 import org.apache.nifi.controller.repository.QueueProvider;
 import org.apache.nifi.controller.repository.RepositoryStatusReport;
 import org.apache.nifi.controller.repository.StandardCounterRepository;
@@ -106,8 +109,11 @@ import org.apache.nifi.controller.repository.io.LimitedInputStream;
 import org.apache.nifi.controller.scheduling.EventDrivenSchedulingAgent;
 import org.apache.nifi.controller.scheduling.QuartzSchedulingAgent;
 import org.apache.nifi.controller.scheduling.RepositoryContextFactory;
+import org.apache.nifi.controller.scheduling.SchedulingAgent;
 import org.apache.nifi.controller.scheduling.StandardProcessScheduler;
 import org.apache.nifi.controller.scheduling.TimerDrivenSchedulingAgent;
+import org.apache.nifi.controller.scheduling.VirtualThreadSchedulingAgent;
+import org.apache.nifi.controller.scheduling.WorkStealingSchedulingAgent;
 import org.apache.nifi.controller.serialization.FlowSerializationException;
 import org.apache.nifi.controller.serialization.FlowSerializer;
 import org.apache.nifi.controller.serialization.FlowSynchronizationException;
@@ -157,6 +163,7 @@ import org.apache.nifi.logging.ReportingTaskLogObserver;
 import org.apache.nifi.nar.ExtensionManager;
 import org.apache.nifi.nar.NarCloseable;
 import org.apache.nifi.nar.NarThreadContextClassLoader;
+import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.processor.GhostProcessor;
 import org.apache.nifi.processor.Processor;
 import org.apache.nifi.processor.ProcessorInitializationContext;
@@ -201,6 +208,7 @@ import org.apache.nifi.reporting.InitializationException;
 import org.apache.nifi.reporting.ReportingInitializationContext;
 import org.apache.nifi.reporting.ReportingTask;
 import org.apache.nifi.reporting.Severity;
+import org.apache.nifi.scheduling.ExecutionMode;
 import org.apache.nifi.scheduling.ExecutionNode;
 import org.apache.nifi.scheduling.SchedulingStrategy;
 import org.apache.nifi.stream.io.LimitingInputStream;
@@ -297,11 +305,14 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
     private final AtomicReference<FlowEngine> timerDrivenEngineRef;
     private final AtomicReference<FlowEngine> eventDrivenEngineRef;
     private final EventDrivenSchedulingAgent eventDrivenSchedulingAgent;
+    private final WorkStealingSchedulingAgent workStealingSchedulingAgent;
+    private final VirtualThreadSchedulingAgent virtualThreadSchedulingAgent;
 
     private final ContentRepository contentRepository;
     private final FlowFileRepository flowFileRepository;
     private final FlowFileEventRepository flowFileEventRepository;
     private final ProvenanceRepository provenanceRepository;
+    private final ProvenanceEventPolicyStatistics provenancePolicyStatistics = new ProvenanceEventPolicyStatistics();
     private final BulletinRepository bulletinRepository;
     private final StandardProcessScheduler processScheduler;
     private final SnippetManager snippetManager;
@@ -350,6 +361,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
     private final ClusterCoordinator clusterCoordinator;
     private final FlowRegistryClient flowRegistryClient;
     private final FlowEngine validationThreadPool;
+    private final FlowEngine swapOutThreadPool;
     private final ValidationTrigger validationTrigger;
 
     /**
@@ -490,6 +502,8 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
         this.encryptor = encryptor;
         this.nifiProperties = nifiProperties;
         this.heartbeatMonitor = heartbeatMonitor;
+        StandardFlowFileRecord.setOffHeapAttributesEnabled(nifiProperties.isFlowFileAttributesOffHeap());
+        StandardFlowFileRecord.setOffHeapAttributesMaxBytes(DataUnit.parseDataSize(nifiProperties.getFlowFileAttributesOffHeapMaxSize(), DataUnit.B).longValue());
         sslContext = SslContextFactory.createSslContext(nifiProperties, false);
         extensionManager = new ExtensionManager();
         this.clusterCoordinator = clusterCoordinator;
@@ -527,19 +541,34 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
         processScheduler = new StandardProcessScheduler(timerDrivenEngineRef.get(), this, encryptor, stateManagerProvider, this.nifiProperties);
         eventDrivenWorkerQueue = new EventDrivenWorkerQueue(false, false, processScheduler);
 
-        final RepositoryContextFactory contextFactory = new RepositoryContextFactory(contentRepository, flowFileRepository, flowFileEventRepository, counterRepositoryRef.get(), provenanceRepository);
+        final RepositoryContextFactory contextFactory = new RepositoryContextFactory(contentRepository, flowFileRepository, flowFileEventRepository, counterRepositoryRef.get(),
+            provenanceRepository, provenancePolicyStatistics);
 
         eventDrivenSchedulingAgent = new EventDrivenSchedulingAgent(
             eventDrivenEngineRef.get(), this, stateManagerProvider, eventDrivenWorkerQueue, contextFactory, maxEventDrivenThreads.get(), encryptor);
         processScheduler.setSchedulingAgent(SchedulingStrategy.EVENT_DRIVEN, eventDrivenSchedulingAgent);
 
         final QuartzSchedulingAgent quartzSchedulingAgent = new QuartzSchedulingAgent(this, timerDrivenEngineRef.get(), contextFactory, encryptor);
-        final TimerDrivenSchedulingAgent timerDrivenAgent = new TimerDrivenSchedulingAgent(this, timerDrivenEngineRef.get(), contextFactory, encryptor, this.nifiProperties);
+        final String timerDrivenSchedulingMode = nifiProperties.getTimerDrivenSchedulingMode();
+        final SchedulingAgent timerDrivenAgent;
+        if (WorkStealingSchedulingAgent.SCHEDULING_MODE.equalsIgnoreCase(timerDrivenSchedulingMode)) {
+            workStealingSchedulingAgent = new WorkStealingSchedulingAgent(this, timerDrivenEngineRef.get(), contextFactory, encryptor, this.nifiProperties, maxTimerDrivenThreads.get());
+            timerDrivenAgent = workStealingSchedulingAgent;
+        } else if (NiFiProperties.DEFAULT_TIMER_DRIVEN_SCHEDULING_MODE.equalsIgnoreCase(timerDrivenSchedulingMode)) {
+            workStealingSchedulingAgent = null;
+            timerDrivenAgent = new TimerDrivenSchedulingAgent(this, timerDrivenEngineRef.get(), contextFactory, encryptor, this.nifiProperties);
+        } else {
+            throw new RuntimeException("The " + NiFiProperties.TIMER_DRIVEN_SCHEDULING_MODE + " property is set to an invalid value: " + timerDrivenSchedulingMode
+                + "; must be either " + NiFiProperties.DEFAULT_TIMER_DRIVEN_SCHEDULING_MODE + " or " + WorkStealingSchedulingAgent.SCHEDULING_MODE);
+        }
         processScheduler.setSchedulingAgent(SchedulingStrategy.TIMER_DRIVEN, timerDrivenAgent);
         // PRIMARY_NODE_ONLY is deprecated, but still exists to handle processors that are still defined with it (they haven't been re-configured with executeNode = PRIMARY).
         processScheduler.setSchedulingAgent(SchedulingStrategy.PRIMARY_NODE_ONLY, timerDrivenAgent);
         processScheduler.setSchedulingAgent(SchedulingStrategy.CRON_DRIVEN, quartzSchedulingAgent);
 
+        virtualThreadSchedulingAgent = new VirtualThreadSchedulingAgent(this, timerDrivenEngineRef.get(), contextFactory, encryptor, this.nifiProperties);
+        processScheduler.setVirtualThreadSchedulingAgent(virtualThreadSchedulingAgent);
+
         startConnectablesAfterInitialization = new ArrayList<>();
         startRemoteGroupPortsAfterInitialization = new ArrayList<>();
         this.authorizer = authorizer;
@@ -578,6 +607,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
         instanceId = ComponentIdGenerator.generateId().toString();
 
         this.validationThreadPool = new FlowEngine(5, "Validate Components", true);
+        this.swapOutThreadPool = new FlowEngine(nifiProperties.getSwapOutThreads(), "Swap Out FlowFiles", true);
         this.validationTrigger = new StandardValidationTrigger(validationThreadPool, this::isInitialized);
 
         controllerServiceProvider = new StandardControllerServiceProvider(this, processScheduler, bulletinRepository, stateManagerProvider,
@@ -760,7 +790,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
 
             // Begin expiring FlowFiles that are old
             final RepositoryContextFactory contextFactory = new RepositoryContextFactory(contentRepository, flowFileRepository,
-                flowFileEventRepository, counterRepositoryRef.get(), provenanceRepository);
+                flowFileEventRepository, counterRepositoryRef.get(), provenanceRepository, provenancePolicyStatistics);
             processScheduler.scheduleFrameworkTask(new ExpireFlowFiles(this, contextFactory), "Expire FlowFiles", 30L, 30L, TimeUnit.SECONDS);
 
             // now that we've loaded the FlowFiles, this has restored our ContentClaims' states, so we can tell the
@@ -1004,6 +1034,30 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
      * empty collection
      */
     public Connection createConnection(final String id, final String name, final Connectable source, final Connectable destination, final Collection<String> relationshipNames) {
+        return createConnection(id, name, source, destination, relationshipNames, null);
+    }
+
+    /**
+     * Creates a connection between two Connectable objects that uses the given FlowFile Queue implementation.
+     *
+     * @param id required ID of the connection
+     * @param name the name of the connection, or <code>null</code> to leave the
+     * connection unnamed
+     * @param source required source
+     * @param destination required destination
+     * @param relationshipNames required collection of relationship names
+     * @param flowFileQueueImplementation the fully qualified class name of the FlowFile Queue implementation to use,
+     * or <code>null</code> to use the implementation configured in nifi.properties
+     * @return
+     *
+     * @throws NullPointerException if the ID, source, destination, or set of
+     * relationships is null.
+     * @throws IllegalArgumentException if <code>relationships</code> is an
+     * empty collection
+     * @throws IllegalStateException if the FlowFile Queue implementation is not known
+     */
+    public Connection createConnection(final String id, final String name, final Connectable source, final Connectable destination, final Collection<String> relationshipNames,
+                                       final String flowFileQueueImplementation) {
         final StandardConnection.Builder builder = new StandardConnection.Builder(processScheduler);
 
         final List<Relationship> relationships = new ArrayList<>();
@@ -1042,7 +1096,10 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                 .source(requireNonNull(source))
                 .destination(destination)
                 .swapManager(swapManager)
+                .swapOutExecutor(swapOutThreadPool)
                 .queueSwapThreshold(nifiProperties.getQueueSwapThreshold())
+                .flowFileQueueImplementation(flowFileQueueImplementation)
+                .defaultFlowFileQueueImplementation(nifiProperties.getQueueImplementation())
                 .defaultBackPressureObjectThreshold(nifiProperties.getDefaultBackPressureObjectThreshold())
                 .defaultBackPressureDataSizeThreshold(nifiProperties.getDefaultBackPressureDataSizeThreshold())
                 .eventReporter(eventReporter)
@@ -1587,6 +1644,14 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                 LOG.info("Interrupted while waiting for controller termination.");
             }
 
+            // allow swap files that are being written to complete before the FlowFile Repository is closed
+            swapOutThreadPool.shutdown();
+            try {
+                swapOutThreadPool.awaitTermination(gracefulShutdownSeconds / 2, TimeUnit.SECONDS);
+            } catch (final InterruptedException ie) {
+                LOG.info("Interrupted while waiting for swap files to be written.");
+            }
+
             try {
                 flowFileRepository.close();
             } catch (final Throwable t) {
@@ -1622,6 +1687,16 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                     }
                 }
             }
+
+            // status is captured by the timer-driven thread pool, which has terminated by now
+            try {
+                componentStatusRepository.close();
+            } catch (final IOException ioe) {
+                LOG.warn("There was a problem shutting down the Component Status Repository: " + ioe.toString());
+                if (LOG.isDebugEnabled()) {
+                    LOG.warn("", ioe);
+                }
+            }
         } finally {
             readLock.unlock("shutdown");
         }
@@ -1722,13 +1797,19 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
     }
 
     public int getActiveTimerDrivenThreadCount() {
-        return timerDrivenEngineRef.get().getActiveCount();
+        final int timerDrivenCount = timerDrivenEngineRef.get().getActiveCount();
+        if (workStealingSchedulingAgent == null) {
+            return timerDrivenCount;
+        }
+
+        return timerDrivenCount + workStealingSchedulingAgent.getActiveThreadCount();
     }
 
     public void setMaxTimerDrivenThreadCount(final int maxThreadCount) {
         writeLock.lock();
         try {
             setMaxThreadCount(maxThreadCount, this.timerDrivenEngineRef.get(), this.maxTimerDrivenThreads);
+            processScheduler.setMaxThreadCount(SchedulingStrategy.TIMER_DRIVEN, maxThreadCount);
         } finally {
             writeLock.unlock("setMaxTimerDrivenThreadCount");
         }
@@ -1800,7 +1881,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
 
     public SystemDiagnostics getSystemDiagnostics() {
         final SystemDiagnosticsFactory factory = new SystemDiagnosticsFactory();
-        return factory.create(flowFileRepository, contentRepository, provenanceRepository);
+        return factory.create(flowFileRepository, contentRepository, provenanceRepository, provenancePolicyStatistics);
     }
 
     public String getContentRepoFileStoreName(final String containerName) {
@@ -2036,6 +2117,10 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                         procNode.setExecutionNode(ExecutionNode.valueOf(config.getExecutionNode()));
                     }
 
+                    if (config.getExecutionMode() != null) {
+                        procNode.setExecutionMode(ExecutionMode.valueOf(config.getExecutionMode()));
+                    }
+
                     if (processorDTO.getState().equals(ScheduledState.DISABLED.toString())) {
                         procNode.disable();
                     }
@@ -2200,7 +2285,8 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                     relationships.addAll(connectionDTO.getSelectedRelationships());
                 }
 
-                final Connection connection = createConnection(connectionDTO.getId(), connectionDTO.getName(), source, destination, relationships);
+                final Connection connection = createConnection(connectionDTO.getId(), connectionDTO.getName(), source, destination, relationships,
+                    connectionDTO.getFlowFileQueueImplementation());
                 if (!topLevel) {
                     connection.setVersionedComponentId(connectionDTO.getVersionedComponentId());
                 }
@@ -3047,6 +3133,20 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                 connStatus.setQueuedCount(connectionQueuedCount);
             }
 
+            final SwapStatistics swapStatistics = conn.getFlowFileQueue().getSwapStatistics();
+            connStatus.setSwapOutCount(swapStatistics.getSwapOutCount());
+            connStatus.setSwapOutBytes(swapStatistics.getSwapOutBytes());
+            connStatus.setSwapOutMillis(TimeUnit.NANOSECONDS.toMillis(swapStatistics.getSwapOutNanos()));
+            connStatus.setSwapInCount(swapStatistics.getSwapInCount());
+            connStatus.setSwapInBytes(swapStatistics.getSwapInBytes());
+            connStatus.setSwapInMillis(TimeUnit.NANOSECONDS.toMillis(swapStatistics.getSwapInNanos()));
+
+            final QueueTimeStatistics queueTimeStatistics = conn.getFlowFileQueue().getQueueTimeStatistics();
+            connStatus.setQueueTimeCount(queueTimeStatistics.getCount());
+            connStatus.setQueueTimeP50Millis(queueTimeStatistics.getP50Millis());
+            connStatus.setQueueTimeP99Millis(queueTimeStatistics.getP99Millis());
+            connStatus.setQueueTimeMaxMillis(queueTimeStatistics.getMaxMillis());
+
             if (populateChildStatuses) {
                 connectionStatusCollection.add(connStatus);
             }
@@ -4096,9 +4196,10 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
     }
 
     public int getActiveThreadCount() {
-        final int timerDrivenCount = timerDrivenEngineRef.get().getActiveCount();
+        final int timerDrivenCount = getActiveTimerDrivenThreadCount();
         final int eventDrivenCount = eventDrivenSchedulingAgent.getActiveThreadCount();
-        return timerDrivenCount + eventDrivenCount;
+        final int virtualThreadCount = virtualThreadSchedulingAgent.getActiveThreadCount();
+        return timerDrivenCount + eventDrivenCount + virtualThreadCount;
     }
 
     private RepositoryStatusReport getProcessorStats() {
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller;
+
+import org.apache.nifi.controller.queue.QueueTimeStatistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A fixed-size, log-linear histogram of the amount of time that FlowFiles wait in a queue. Values are
+ * recorded in milliseconds into buckets whose width grows with the magnitude of the value, in the same
+ * manner as HdrHistogram: each power of two is split into {@value #SUB_BUCKET_COUNT} linear sub-buckets,
+ * so any reported percentile is within 12.5% of the true value. Recording a value is a single atomic
+ * increment and never allocates.
+ * </p>
+ *
+ * <p>
+ * Counts are kept in a ring of one-minute windows so that the reported statistics cover the last
+ * five minutes, consistent with the other connection statistics. A window is cleared by the first thread
+ * that records into it after it has expired; a value recorded concurrently with that reset may be lost,
+ * which is acceptable for the purpose of these statistics.
+ * </p>
+ */
+public class QueueTimeHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_TRACKABLE_MILLIS = (1L << 36) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_MILLIS) + 1;
+
+    private static final int WINDOW_COUNT = 5;
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(WINDOW_COUNT * BUCKET_COUNT);
+    private final AtomicLongArray windowMaxMillis = new AtomicLongArray(WINDOW_COUNT);
+    private final AtomicLongArray windowIds = new AtomicLongArray(WINDOW_COUNT);
+
+    /**
+     * Records that a FlowFile waited in the queue for the given amount of time
+     *
+     * @param queueMillis the number of milliseconds that the FlowFile waited
+     * @param now the current time, in milliseconds since epoch
+     */
+    public void record(final long queueMillis, final long now) {
+        final long windowId = now / WINDOW_MILLIS;
+        final int window = (int) (windowId % WINDOW_COUNT);
+
+        final long currentWindowId = windowIds.get(window);
+        if (currentWindowId != windowId) {
+            if (currentWindowId > windowId) {
+                // the clock moved backward; the value cannot be attributed to a window.
+                return;
+            }
+
+            if (windowIds.compareAndSet(window, currentWindowId, windowId)) {
+                final int offset = window * BUCKET_COUNT;
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    counts.set(offset + i, 0L);
+                }
+                windowMaxMillis.set(window, 0L);
+            }
+        }
+
+        final long value = Math.max(0L, Math.min(queueMillis, MAX_TRACKABLE_MILLIS));
+        counts.incrementAndGet(window * BUCKET_COUNT + bucketIndex(value));
+
+        long max = windowMaxMillis.get(window);
+        while (value > max && !windowMaxMillis.compareAndSet(window, max, value)) {
+            max = windowMaxMillis.get(window);
+        }
+    }
+
+    /**
+     * @param now the current time, in milliseconds since epoch
+     * @return the statistics for the values recorded in the last five minutes
+     */
+    public QueueTimeStatistics getStatistics(final long now) {
+        final long windowId = now / WINDOW_MILLIS;
+        final long[] merged = new long[BUCKET_COUNT];
+        long total = 0L;
+        long max = 0L;
+
+        for (int window = 0; window < WINDOW_COUNT; window++) {
+            final long id = windowIds.get(window);
+            if (id <= windowId - WINDOW_COUNT || id > windowId) {
+                continue;
+            }
+
+            final int offset = window * BUCKET_COUNT;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                final long count = counts.get(offset + i);
+                merged[i] += count;
+                total += count;
+            }
+            max = Math.max(max, windowMaxMillis.get(window));
+        }
+
+        if (total == 0L) {
+            return QueueTimeStatistics.EMPTY;
+        }
+
+        return new QueueTimeStatistics(total, getValueAtPercentile(merged, total, 50D, max), getValueAtPercentile(merged, total, 99D, max), max);
+    }
+
+    private static long getValueAtPercentile(final long[] buckets, final long total, final double percentile, final long max) {
+        final long target = Math.max(1L, (long) Math.ceil(total * percentile / 100D));
+        long cumulative = 0L;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i];
+            if (cumulative >= target) {
+                return Math.min(getHighestEquivalentValue(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    static long getHighestEquivalentValue(final int bucketIndex) {
+        final int shift = bucketIndex < SUB_BUCKET_COUNT ? 0 : bucketIndex / SUB_BUCKET_COUNT - 1;
+        final long mantissa = bucketIndex - (long) shift * SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,595 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller;
+
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.controller.queue.DropFlowFileStatus;
+import org.apache.nifi.controller.queue.ListFlowFileStatus;
+import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.FlowFileSwapManager;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.events.EventReporter;
+import org.apache.nifi.flowfile.FlowFilePrioritizer;
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.processor.DataUnit;
+import org.apache.nifi.processor.FlowFileFilter;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.apache.nifi.scheduling.SchedulingStrategy;
+import org.apache.nifi.util.FormatUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A FlowFileQueue that is intended for connections that have many concurrent tasks pulling from them. When no
+ * prioritizers are configured, FlowFiles are held in a set of lock-free, first-in-first-out shards (one per
+ * available core) so that concurrent producers and consumers do not contend for the single lock that guards the
+ * {@link StandardFlowFileQueue}. Each thread puts to and polls from its 'home' shard first and steals from the
+ * other shards only when its own shard is empty.
+ * </p>
+ *
+ * <p>
+ * Anything that requires ordering other than first-in-first-out is handled by the StandardFlowFileQueue that this
+ * class extends: FlowFiles are handed to it when prioritizers are configured, when a FlowFile is penalized, when
+ * the shards have reached the swap threshold, and while FlowFiles are swapped out. Once a FlowFile has overflowed
+ * into the StandardFlowFileQueue, the contents of the shards are moved in ahead of it and all FlowFiles are queued
+ * there until it has been drained, so that the StandardFlowFileQueue never holds FlowFiles that are newer than
+ * those in the shards. Operations that need a single,
+ * ordered view of the queue (listing, dropping, and polling with a FlowFileFilter) first move the contents of the
+ * shards into the StandardFlowFileQueue.
+ * </p>
+ */
+public class ShardedFlowFileQueue extends StandardFlowFileQueue {
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final int shardCapacity;
+
+    private final Connection connection;
+    private final ProcessScheduler scheduler;
+
+    private final LongAdder unacknowledgedCount = new LongAdder();
+    private final LongAdder unacknowledgedBytes = new LongAdder();
+
+    private volatile boolean prioritized = false;
+    // Set when a FlowFile could not be placed into a shard. While set, every FlowFile is queued in the StandardFlowFileQueue,
+    // behind the FlowFiles that were moved out of the shards, and it is cleared when the StandardFlowFileQueue has been drained.
+    private volatile boolean overflowed = false;
+    private volatile long expirationMillis = 0L;
+    private volatile long maxBytes;
+
+    public ShardedFlowFileQueue(final String identifier, final Connection connection, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
+                                final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter,
+                                final int swapThreshold, final long defaultBackPressureObjectThreshold, final String defaultBackPressureDataSizeThreshold) {
+        this(identifier, connection, flowFileRepo, provRepo, resourceClaimManager, scheduler, swapManager, eventReporter, swapThreshold,
+            defaultBackPressureObjectThreshold, defaultBackPressureDataSizeThreshold, null);
+    }
+
+    /**
+     * @param swapOutExecutor the Executor that writes swap files in the background, or <code>null</code> to write swap files on the
+     *            thread that adds the FlowFiles that cause the queue to swap out
+     */
+    public ShardedFlowFileQueue(final String identifier, final Connection connection, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
+                                final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter,
+                                final int swapThreshold, final long defaultBackPressureObjectThreshold, final String defaultBackPressureDataSizeThreshold,
+                                final Executor swapOutExecutor) {
+        this(identifier, connection, flowFileRepo, provRepo, resourceClaimManager, scheduler, swapManager, eventReporter, swapThreshold,
+            defaultBackPressureObjectThreshold, defaultBackPressureDataSizeThreshold, swapOutExecutor, Runtime.getRuntime().availableProcessors());
+    }
+
+    ShardedFlowFileQueue(final String identifier, final Connection connection, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
+                         final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter,
+                         final int swapThreshold, final long defaultBackPressureObjectThreshold, final String defaultBackPressureDataSizeThreshold,
+                         final Executor swapOutExecutor, final int concurrency) {
+        super(identifier, connection, flowFileRepo, provRepo, resourceClaimManager, scheduler, swapManager, eventReporter, swapThreshold,
+            defaultBackPressureObjectThreshold, defaultBackPressureDataSizeThreshold, swapOutExecutor);
+
+        this.connection = connection;
+        this.scheduler = scheduler;
+        this.maxBytes = DataUnit.parseDataSize(defaultBackPressureDataSizeThreshold, DataUnit.B).longValue();
+
+        // use a power of two so that the shard for a thread can be determined with a mask rather than a modulo
+        int shardCount = 1;
+        while (shardCount < concurrency) {
+            shardCount <<= 1;
+        }
+
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        shardMask = shardCount - 1;
+        shardCapacity = Math.max(1, swapThreshold / shardCount);
+    }
+
+    private int getHomeShardIndex() {
+        return (int) Thread.currentThread().getId() & shardMask;
+    }
+
+    private boolean isShardable(final FlowFileRecord flowFile) {
+        // Prioritized and penalized FlowFiles are not ordered first-in-first-out, so they are always handed to the StandardFlowFileQueue
+        return !prioritized && !flowFile.isPenalized();
+    }
+
+    private boolean isOverflowing() {
+        // Once FlowFiles have started to swap we must keep feeding the swap queue so that FlowFiles are swapped back in
+        // before newer FlowFiles are processed.
+        return overflowed || super.getSwapQueueSize().getObjectCount() > 0;
+    }
+
+    /**
+     * Queues the given FlowFiles in the StandardFlowFileQueue, behind all of the FlowFiles that are currently held by the shards,
+     * and directs all subsequent FlowFiles to the StandardFlowFileQueue until it has been drained.
+     */
+    private void overflow(final Collection<FlowFileRecord> flowFiles) {
+        lock();
+        try {
+            overflowed = true;
+            migrateShards();
+            enqueue(flowFiles);
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Called after FlowFiles were added to a shard. If another thread started to overflow while they were being added, they
+     * may have missed being moved to the StandardFlowFileQueue, in which case they would be polled after FlowFiles that were
+     * queued later, so they are moved now.
+     */
+    private void checkOverflowAfterOffer() {
+        if (overflowed) {
+            lock();
+            try {
+                migrateShards();
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    /**
+     * Called by the polling methods when the StandardFlowFileQueue has no FlowFiles to offer, so that FlowFiles may once again be
+     * placed into the shards
+     */
+    private void clearOverflow() {
+        if (overflowed) {
+            lock();
+            try {
+                // another thread may have overflowed since the caller found the StandardFlowFileQueue empty
+                if (super.isActiveQueueEmpty()) {
+                    overflowed = false;
+                }
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    private void notifyDestination() {
+        if (connection.getDestination().getSchedulingStrategy() != SchedulingStrategy.CRON_DRIVEN) {
+            // Event-Driven components, and Timer-Driven components when they are scheduled in work-stealing mode, are triggered by this event.
+            scheduler.registerEvent(connection.getDestination());
+        }
+    }
+
+    @Override
+    public void put(final FlowFileRecord file) {
+        if (!isShardable(file) || overflowed) {
+            super.put(file);
+            return;
+        }
+
+        if (isOverflowing() || !shards[getHomeShardIndex()].offer(file, shardCapacity)) {
+            overflow(Collections.singletonList(file));
+            notifyDestination();
+            return;
+        }
+
+        checkOverflowAfterOffer();
+        notifyDestination();
+    }
+
+    @Override
+    public void putAll(final Collection<FlowFileRecord> files) {
+        if (overflowed) {
+            super.putAll(files);
+            return;
+        }
+
+        final Shard shard = shards[getHomeShardIndex()];
+        List<FlowFileRecord> unordered = null;
+        List<FlowFileRecord> overflow = null;
+        boolean overflowing = isOverflowing();
+
+        for (final FlowFileRecord file : files) {
+            if (!isShardable(file)) {
+                if (unordered == null) {
+                    unordered = new ArrayList<>();
+                }
+                unordered.add(file);
+                continue;
+            }
+
+            // once one FlowFile has overflowed, the rest of the FlowFiles must follow it in order to remain in order
+            if (!overflowing && shard.offer(file, shardCapacity)) {
+                continue;
+            }
+
+            overflowing = true;
+            if (overflow == null) {
+                overflow = new ArrayList<>();
+            }
+            overflow.add(file);
+        }
+
+        if (unordered != null) {
+            super.putAll(unordered);
+        }
+
+        if (overflow == null) {
+            checkOverflowAfterOffer();
+        } else {
+            overflow(overflow);
+        }
+
+        notifyDestination();
+    }
+
+    @Override
+    public FlowFileRecord poll(final Set<FlowFileRecord> expiredRecords) {
+        // Anything held by the StandardFlowFileQueue was queued before the FlowFiles that are currently in the shards
+        // (or is ordered by prioritizers or penalization), because FlowFiles are not placed into the shards while it is
+        // being drained after an overflow. So it is given precedence.
+        if (super.isActiveQueueEmpty()) {
+            clearOverflow();
+        } else {
+            final FlowFileRecord flowFile = super.poll(expiredRecords);
+            if (flowFile != null) {
+                takeUnacknowledged(flowFile);
+                return flowFile;
+            }
+
+            if (expiredRecords.size() >= MAX_EXPIRED_RECORDS_PER_ITERATION) {
+                return null;
+            }
+        }
+
+        final long expiration = expirationMillis;
+        final int homeIndex = getHomeShardIndex();
+        for (int i = 0; i < shards.length; i++) {
+            final Shard shard = shards[(homeIndex + i) & shardMask];
+
+            FlowFileRecord flowFile;
+            while ((flowFile = shard.poll()) != null) {
+                if (isExpired(flowFile, expiration)) {
+                    expiredRecords.add(flowFile);
+                    if (expiredRecords.size() >= MAX_EXPIRED_RECORDS_PER_ITERATION) {
+                        return null;
+                    }
+
+                    continue;
+                }
+
+                unacknowledgedCount.increment();
+                unacknowledgedBytes.add(flowFile.getSize());
+                recordQueueTime(flowFile, System.currentTimeMillis());
+                return flowFile;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<FlowFileRecord> poll(final int maxResults, final Set<FlowFileRecord> expiredRecords) {
+        final List<FlowFileRecord> records;
+        if (super.isActiveQueueEmpty()) {
+            clearOverflow();
+            records = new ArrayList<>(Math.min(1024, maxResults));
+        } else {
+            records = super.poll(maxResults, expiredRecords);
+            for (final FlowFileRecord flowFile : records) {
+                takeUnacknowledged(flowFile);
+            }
+        }
+
+        final long expiration = expirationMillis;
+        final long now = System.currentTimeMillis();
+        final int homeIndex = getHomeShardIndex();
+        for (int i = 0; i < shards.length && records.size() < maxResults && expiredRecords.size() < MAX_EXPIRED_RECORDS_PER_ITERATION; i++) {
+            final Shard shard = shards[(homeIndex + i) & shardMask];
+
+            FlowFileRecord flowFile;
+            while (records.size() < maxResults && (flowFile = shard.poll()) != null) {
+                if (isExpired(flowFile, expiration)) {
+                    expiredRecords.add(flowFile);
+                    if (expiredRecords.size() >= MAX_EXPIRED_RECORDS_PER_ITERATION) {
+                        break;
+                    }
+
+                    continue;
+                }
+
+                unacknowledgedCount.increment();
+                unacknowledgedBytes.add(flowFile.getSize());
+                recordQueueTime(flowFile, now);
+                records.add(flowFile);
+            }
+        }
+
+        return records;
+    }
+
+    @Override
+    public List<FlowFileRecord> poll(final FlowFileFilter filter, final Set<FlowFileRecord> expiredRecords) {
+        lock();
+        try {
+            migrateShards();
+            final List<FlowFileRecord> records = super.poll(filter, expiredRecords);
+            for (final FlowFileRecord flowFile : records) {
+                takeUnacknowledged(flowFile);
+            }
+
+            return records;
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Moves the accounting for a FlowFile that was polled from the StandardFlowFileQueue into this queue's
+     * unacknowledged counters, so that {@link #acknowledge(FlowFileRecord)} does not need to know where a
+     * FlowFile was polled from.
+     */
+    private void takeUnacknowledged(final FlowFileRecord flowFile) {
+        incrementUnacknowledgedQueueSize(-1, -flowFile.getSize());
+        unacknowledgedCount.increment();
+        unacknowledgedBytes.add(flowFile.getSize());
+    }
+
+    private boolean isExpired(final FlowFileRecord flowFile, final long expiration) {
+        return expiration > 0 && flowFile.getEntryDate() + expiration < System.currentTimeMillis();
+    }
+
+    /**
+     * Moves all FlowFiles that are held by the shards into the StandardFlowFileQueue
+     */
+    private void migrateShards() {
+        final List<FlowFileRecord> migrated = new ArrayList<>();
+        for (final Shard shard : shards) {
+            FlowFileRecord flowFile;
+            while ((flowFile = shard.poll()) != null) {
+                migrated.add(flowFile);
+            }
+        }
+
+        if (!migrated.isEmpty()) {
+            // the scheduler must not be notified while the lock is held, and the FlowFiles were already announced when they were put
+            enqueue(migrated);
+        }
+    }
+
+    @Override
+    public void acknowledge(final FlowFileRecord flowFile) {
+        unacknowledgedCount.decrement();
+        unacknowledgedBytes.add(-flowFile.getSize());
+
+        if (connection.getSource().getSchedulingStrategy() != SchedulingStrategy.CRON_DRIVEN) {
+            scheduler.registerEvent(connection.getSource());
+        }
+    }
+
+    @Override
+    public void acknowledge(final Collection<FlowFileRecord> flowFiles) {
+        long totalSize = 0L;
+        for (final FlowFileRecord flowFile : flowFiles) {
+            totalSize += flowFile.getSize();
+        }
+
+        unacknowledgedCount.add(-flowFiles.size());
+        unacknowledgedBytes.add(-totalSize);
+
+        if (connection.getSource().getSchedulingStrategy() != SchedulingStrategy.CRON_DRIVEN) {
+            scheduler.registerEvent(connection.getSource());
+        }
+    }
+
+    private QueueSize getShardedQueueSize() {
+        int count = 0;
+        long bytes = 0L;
+        for (final Shard shard : shards) {
+            count += shard.count.get();
+            bytes += shard.bytes.get();
+        }
+
+        return new QueueSize(Math.max(0, count), Math.max(0L, bytes));
+    }
+
+    private boolean isShardsEmpty() {
+        for (final Shard shard : shards) {
+            if (shard.count.get() > 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public QueueSize size() {
+        return super.size().add(getShardedQueueSize()).add(getUnacknowledgedQueueSize());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return isShardsEmpty() && unacknowledgedCount.sum() <= 0 && super.isEmpty();
+    }
+
+    @Override
+    public boolean isActiveQueueEmpty() {
+        return isShardsEmpty() && super.isActiveQueueEmpty();
+    }
+
+    @Override
+    public QueueSize getActiveQueueSize() {
+        return super.getActiveQueueSize().add(getShardedQueueSize());
+    }
+
+    @Override
+    public QueueSize getUnacknowledgedQueueSize() {
+        return new QueueSize((int) Math.max(0L, unacknowledgedCount.sum()), Math.max(0L, unacknowledgedBytes.sum()));
+    }
+
+    @Override
+    public boolean isFull() {
+        final long maxCount = getBackPressureObjectThreshold();
+        final long maxSizeBytes = maxBytes;
+        if (maxCount <= 0 && maxSizeBytes <= 0) {
+            return false;
+        }
+
+        final QueueSize queueSize = size();
+        if (maxCount > 0 && queueSize.getObjectCount() >= maxCount) {
+            return true;
+        }
+
+        return maxSizeBytes > 0 && queueSize.getByteCount() >= maxSizeBytes;
+    }
+
+    @Override
+    public void setBackPressureDataSizeThreshold(final String maxDataSize) {
+        super.setBackPressureDataSizeThreshold(maxDataSize);
+        maxBytes = DataUnit.parseDataSize(maxDataSize, DataUnit.B).longValue();
+    }
+
+    @Override
+    public boolean isAllActiveFlowFilesPenalized() {
+        // FlowFiles that are penalized are never placed into the shards.
+        return isShardsEmpty() && super.isAllActiveFlowFilesPenalized();
+    }
+
+    @Override
+    public void setPriorities(final List<FlowFilePrioritizer> newPriorities) {
+        lock();
+        try {
+            super.setPriorities(newPriorities);
+            prioritized = !newPriorities.isEmpty();
+            if (prioritized) {
+                migrateShards();
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public void setFlowFileExpiration(final String flowExpirationPeriod) {
+        super.setFlowFileExpiration(flowExpirationPeriod);
+        expirationMillis = FormatUtils.getTimeDuration(flowExpirationPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public ListFlowFileStatus listFlowFiles(final String requestIdentifier, final int maxResults) {
+        lock();
+        try {
+            migrateShards();
+        } finally {
+            unlock();
+        }
+
+        return super.listFlowFiles(requestIdentifier, maxResults);
+    }
+
+    @Override
+    public DropFlowFileStatus dropFlowFiles(final String requestIdentifier, final String requestor) {
+        lock();
+        try {
+            migrateShards();
+        } finally {
+            unlock();
+        }
+
+        return super.dropFlowFiles(requestIdentifier, requestor);
+    }
+
+    @Override
+    public FlowFileRecord getFlowFile(final String flowFileUuid) throws IOException {
+        if (flowFileUuid == null) {
+            return null;
+        }
+
+        for (final Shard shard : shards) {
+            for (final FlowFileRecord flowFile : shard.queue) {
+                if (flowFileUuid.equals(flowFile.getAttribute(CoreAttributes.UUID.key()))) {
+                    return flowFile;
+                }
+            }
+        }
+
+        return super.getFlowFile(flowFileUuid);
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedFlowFileQueue[id=" + getIdentifier() + "]";
+    }
+
+
+    private static class Shard {
+        private final ConcurrentLinkedQueue<FlowFileRecord> queue = new ConcurrentLinkedQueue<>();
+
+        // The counters are incremented before a FlowFile is added to the queue and decremented after it is removed,
+        // so that they never report fewer FlowFiles than the queue actually holds.
+        private final AtomicInteger count = new AtomicInteger(0);
+        private final AtomicLong bytes = new AtomicLong(0L);
+
+        boolean offer(final FlowFileRecord flowFile, final int capacity) {
+            if (count.incrementAndGet() > capacity) {
+                count.decrementAndGet();
+                return false;
+            }
+
+            bytes.addAndGet(flowFile.getSize());
+            queue.offer(flowFile);
+            return true;
+        }
+
+        FlowFileRecord poll() {
+            final FlowFileRecord flowFile = queue.poll();
+            if (flowFile != null) {
+                count.decrementAndGet();
+                bytes.addAndGet(-flowFile.getSize());
+            }
+
+            return flowFile;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import org.apache.nifi.controller.queue.ListFlowFileRequest;
 import org.apache.nifi.controller.queue.ListFlowFileState;
 import org.apache.nifi.controller.queue.ListFlowFileStatus;
 import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.queue.QueueTimeStatistics;
+import org.apache.nifi.controller.queue.SwapStatistics;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.FlowFileRepository;
 import org.apache.nifi.controller.repository.FlowFileSwapManager;
@@ -70,8 +72,14 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -95,15 +103,36 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
     private boolean swapMode = false;
 
+    // guarded by lock. Indicates that a set of FlowFiles has been removed from the queue in order to be written to swap files
+    // outside of the lock, so that only a single thread at a time writes swap files for this queue.
+    private boolean swapOutPending = false;
+
+    // guarded by lock. The number of threads that are waiting for the pending swap files to be written before they drop the
+    // contents of the queue. No further FlowFiles are selected for swapping out while this is greater than 0.
+    private int swapOutWaiters = 0;
+
+    // the next swap file to be swapped in, which may be read by a polling thread outside of the lock before it is needed
+    private final AtomicReference<PrefetchedSwapFile> prefetchedSwapFile = new AtomicReference<>();
+
+    private final AtomicLong swapOutCount = new AtomicLong(0L);
+    private final AtomicLong swapOutBytes = new AtomicLong(0L);
+    private final AtomicLong swapOutNanos = new AtomicLong(0L);
+    private final AtomicLong swapInCount = new AtomicLong(0L);
+    private final AtomicLong swapInBytes = new AtomicLong(0L);
+    private final AtomicLong swapInNanos = new AtomicLong(0L);
+    private final QueueTimeHistogram queueTimeHistogram = new QueueTimeHistogram();
+
     private final AtomicReference<MaxQueueSize> maxQueueSize = new AtomicReference<>();
     private final AtomicReference<TimePeriod> expirationPeriod = new AtomicReference<>(new TimePeriod("0 mins", 0L));
 
     private final EventReporter eventReporter;
     private final Connection connection;
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private final Condition swapOutComplete = lock.writeLock().newCondition();
     private final List<FlowFilePrioritizer> priorities;
     private final int swapThreshold;
     private final FlowFileSwapManager swapManager;
+    private final Executor swapOutExecutor;
     private final List<String> swapLocations = new ArrayList<>();
     private final TimedLock readLock;
     private final TimedLock writeLock;
@@ -121,11 +150,24 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     public StandardFlowFileQueue(final String identifier, final Connection connection, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
                                  final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter,
                                  final int swapThreshold, final long defaultBackPressureObjectThreshold, final String defaultBackPressureDataSizeThreshold) {
+        this(identifier, connection, flowFileRepo, provRepo, resourceClaimManager, scheduler, swapManager, eventReporter, swapThreshold,
+            defaultBackPressureObjectThreshold, defaultBackPressureDataSizeThreshold, null);
+    }
+
+    /**
+     * @param swapOutExecutor the Executor that writes swap files in the background, or <code>null</code> to write swap files on the
+     *            thread that adds the FlowFiles that cause the queue to swap out
+     */
+    public StandardFlowFileQueue(final String identifier, final Connection connection, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
+                                 final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter,
+                                 final int swapThreshold, final long defaultBackPressureObjectThreshold, final String defaultBackPressureDataSizeThreshold,
+                                 final Executor swapOutExecutor) {
         activeQueue = new PriorityQueue<>(20, new Prioritizer(new ArrayList<FlowFilePrioritizer>()));
         priorities = new ArrayList<>();
         swapQueue = new ArrayList<>();
         this.eventReporter = eventReporter;
         this.swapManager = swapManager;
+        this.swapOutExecutor = swapOutExecutor;
         this.flowFileRepository = flowFileRepo;
         this.provRepository = provRepo;
         this.resourceClaimManager = resourceClaimManager;
@@ -240,6 +282,29 @@ public class StandardFlowFileQueue implements FlowFileQueue {
         }
     }
 
+    @Override
+    public SwapStatistics getSwapStatistics() {
+        return new SwapStatistics(swapOutCount.get(), swapOutBytes.get(), swapOutNanos.get(), swapInCount.get(), swapInBytes.get(), swapInNanos.get());
+    }
+
+    @Override
+    public QueueTimeStatistics getQueueTimeStatistics() {
+        return queueTimeHistogram.getStatistics(System.currentTimeMillis());
+    }
+
+    /**
+     * Records how long the given FlowFile waited in this queue before it was polled
+     *
+     * @param flowFile the FlowFile that was polled
+     * @param now the current time, in milliseconds since epoch
+     */
+    protected void recordQueueTime(final FlowFileRecord flowFile, final long now) {
+        final Long lastQueueDate = flowFile.getLastQueueDate();
+        if (lastQueueDate != null) {
+            queueTimeHistogram.record(now - lastQueueDate, now);
+        }
+    }
+
     @Override
     public boolean isAllActiveFlowFilesPenalized() {
         readLock.lock();
@@ -274,7 +339,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     public void acknowledge(final FlowFileRecord flowFile) {
         incrementUnacknowledgedQueueSize(-1, -flowFile.getSize());
 
-        if (connection.getSource().getSchedulingStrategy() == SchedulingStrategy.EVENT_DRIVEN) {
+        if (connection.getSource().getSchedulingStrategy() != SchedulingStrategy.CRON_DRIVEN) {
             // queue was full but no longer is. Notify that the source may now be available to run,
             // because of back pressure caused by this queue.
             scheduler.registerEvent(connection.getSource());
@@ -290,7 +355,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
         incrementUnacknowledgedQueueSize(-flowFiles.size(), -totalSize);
 
-        if (connection.getSource().getSchedulingStrategy() == SchedulingStrategy.EVENT_DRIVEN) {
+        if (connection.getSource().getSchedulingStrategy() != SchedulingStrategy.CRON_DRIVEN) {
             // it's possible that queue was full but no longer is. Notify that the source may now be available to run,
             // because of back pressure caused by this queue.
             scheduler.registerEvent(connection.getSource());
@@ -321,13 +386,14 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
     @Override
     public void put(final FlowFileRecord file) {
+        List<List<FlowFileRecord>> toSwapOut = Collections.emptyList();
         writeLock.lock();
         try {
             if (swapMode || activeQueue.size() >= swapThreshold) {
                 swapQueue.add(file);
                 incrementSwapQueueSize(1, file.getSize(), 0);
                 swapMode = true;
-                writeSwapFilesIfNecessary();
+                toSwapOut = selectFlowFilesToSwapOut();
             } else {
                 incrementActiveQueueSize(1, file.getSize());
                 activeQueue.add(file);
@@ -336,26 +402,47 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             writeLock.unlock("put(FlowFileRecord)");
         }
 
-        if (connection.getDestination().getSchedulingStrategy() == SchedulingStrategy.EVENT_DRIVEN) {
+        if (!toSwapOut.isEmpty()) {
+            swapOut(toSwapOut);
+        }
+
+        if (connection.getDestination().getSchedulingStrategy() != SchedulingStrategy.CRON_DRIVEN) {
+            // Event-Driven components, and Timer-Driven components when they are scheduled in work-stealing mode, are triggered by this event.
             scheduler.registerEvent(connection.getDestination());
         }
     }
 
     @Override
     public void putAll(final Collection<FlowFileRecord> files) {
+        enqueue(files);
+
+        if (connection.getDestination().getSchedulingStrategy() != SchedulingStrategy.CRON_DRIVEN) {
+            // Event-Driven components, and Timer-Driven components when they are scheduled in work-stealing mode, are triggered by this event.
+            scheduler.registerEvent(connection.getDestination());
+        }
+    }
+
+    /**
+     * Adds the given FlowFiles to the queue without notifying the scheduler, so that subclasses may queue FlowFiles while
+     * holding the queue's lock. The caller is responsible for notifying the scheduler once the lock has been released.
+     *
+     * @param files the FlowFiles to queue
+     */
+    protected void enqueue(final Collection<FlowFileRecord> files) {
         final int numFiles = files.size();
         long bytes = 0L;
         for (final FlowFile flowFile : files) {
             bytes += flowFile.getSize();
         }
 
+        List<List<FlowFileRecord>> toSwapOut = Collections.emptyList();
         writeLock.lock();
         try {
             if (swapMode || activeQueue.size() >= swapThreshold - numFiles) {
                 swapQueue.addAll(files);
                 incrementSwapQueueSize(numFiles, bytes, 0);
                 swapMode = true;
-                writeSwapFilesIfNecessary();
+                toSwapOut = selectFlowFilesToSwapOut();
             } else {
                 incrementActiveQueueSize(numFiles, bytes);
                 activeQueue.addAll(files);
@@ -364,8 +451,8 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             writeLock.unlock("putAll");
         }
 
-        if (connection.getDestination().getSchedulingStrategy() == SchedulingStrategy.EVENT_DRIVEN) {
-            scheduler.registerEvent(connection.getDestination());
+        if (!toSwapOut.isEmpty()) {
+            swapOut(toSwapOut);
         }
     }
 
@@ -406,6 +493,8 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             if (flowFile != null) {
                 incrementUnacknowledgedQueueSize(1, flowFile.getSize());
             }
+
+            prefetchSwapFile();
         }
     }
 
@@ -444,6 +533,10 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             incrementActiveQueueSize(-expiredRecords.size(), -expiredBytes);
         }
 
+        if (flowFile != null) {
+            recordQueueTime(flowFile, System.currentTimeMillis());
+        }
+
         return flowFile;
     }
 
@@ -458,6 +551,8 @@ public class StandardFlowFileQueue implements FlowFileQueue {
         } finally {
             writeLock.unlock("poll(int, Set)");
         }
+
+        prefetchSwapFile();
         return records;
     }
 
@@ -473,6 +568,11 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
         incrementActiveQueueSize(-(expiredRecords.size() + records.size()), -bytesDrained);
         incrementUnacknowledgedQueueSize(records.size(), bytesDrained - expiredBytes);
+
+        final long now = System.currentTimeMillis();
+        for (final FlowFileRecord record : records) {
+            recordQueueTime(record, now);
+        }
     }
 
     /**
@@ -510,8 +610,14 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             final String swapLocation = swapLocations.get(0);
             boolean partialContents = false;
             SwapContents swapContents = null;
+            final long swapInStart = System.nanoTime();
             try {
-                swapContents = swapManager.swapIn(swapLocation, this);
+                final SwapContents prefetchedContents = getPrefetchedContents(swapLocation);
+                if (prefetchedContents == null) {
+                    swapContents = swapManager.swapIn(swapLocation, this);
+                } else {
+                    swapContents = swapManager.swapIn(swapLocation, this, prefetchedContents);
+                }
                 swapLocations.remove(0);
             } catch (final IncompleteSwapFileException isfe) {
                 logger.error("Failed to swap in all FlowFiles from Swap File {}; Swap File ended prematurely. The records that were present will still be swapped in", swapLocation);
@@ -567,6 +673,15 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             }
 
             activeQueue.addAll(swapContents.getFlowFiles());
+
+            swapInCount.incrementAndGet();
+            swapInBytes.addAndGet(contentSize);
+            swapInNanos.addAndGet(System.nanoTime() - swapInStart);
+
+            // Allow the next swap file to be read from disk by a polling thread while the FlowFiles that were just swapped in are processed.
+            if (!swapLocations.isEmpty()) {
+                prefetchedSwapFile.set(new PrefetchedSwapFile(swapLocations.get(0)));
+            }
             return;
         }
 
@@ -604,11 +719,17 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     }
 
     /**
+     * Determines which FlowFiles should be swapped out, removes them from the queue, and accounts for them as swapped.
+     * The swap files themselves are not written by this method; instead, the FlowFiles to write are returned so that
+     * the caller can pass them to {@link #swapOut(List)} after the lock has been released.
+     *
      * This method MUST be called with the write lock held
+     *
+     * @return the FlowFiles to swap out, one List per swap file, or an empty List if there is nothing to swap out
      */
-    private void writeSwapFilesIfNecessary() {
-        if (swapQueue.size() < SWAP_RECORD_POLL_SIZE) {
-            return;
+    private List<List<FlowFileRecord>> selectFlowFilesToSwapOut() {
+        if (swapOutPending || swapOutWaiters > 0 || swapQueue.size() < SWAP_RECORD_POLL_SIZE) {
+            return Collections.emptyList();
         }
 
         migrateSwapToActive();
@@ -629,7 +750,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
         long bytesSwappedOut = 0L;
         int flowFilesSwappedOut = 0;
-        final List<String> swapLocations = new ArrayList<>(numSwapFiles);
+        final List<List<FlowFileRecord>> toSwapOut = new ArrayList<>(numSwapFiles);
         for (int i = 0; i < numSwapFiles; i++) {
             // Create a new swap file for the next SWAP_RECORD_POLL_SIZE records
             final List<FlowFileRecord> toSwap = new ArrayList<>(SWAP_RECORD_POLL_SIZE);
@@ -640,23 +761,8 @@ public class StandardFlowFileQueue implements FlowFileQueue {
                 flowFilesSwappedOut++;
             }
 
-            try {
-                Collections.reverse(toSwap); // currently ordered in reverse priority order based on the ordering of the temp queue.
-                final String swapLocation = swapManager.swapOut(toSwap, this);
-                swapLocations.add(swapLocation);
-            } catch (final IOException ioe) {
-                tempQueue.addAll(toSwap); // if we failed, we must add the FlowFiles back to the queue.
-                logger.error("FlowFile Queue with identifier {} has {} FlowFiles queued up. Attempted to spill FlowFile information over to disk in order to avoid exhausting "
-                    + "the Java heap space but failed to write information to disk due to {}", getIdentifier(), getQueueSize().getObjectCount(), ioe.toString());
-                logger.error("", ioe);
-                if (eventReporter != null) {
-                    eventReporter.reportEvent(Severity.ERROR, "Failed to Overflow to Disk", "Flowfile Queue with identifier " + getIdentifier() + " has " + getQueueSize().getObjectCount() +
-                        " queued up. Attempted to spill FlowFile information over to disk in order to avoid exhausting the Java heap space but failed to write information to disk. "
-                        + "See logs for more information.");
-                }
-
-                break;
-            }
+            Collections.reverse(toSwap); // currently ordered in reverse priority order based on the ordering of the temp queue.
+            toSwapOut.add(toSwap);
         }
 
         // Pull any records off of the temp queue that won't fit back on the active queue, and add those to the
@@ -680,6 +786,8 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             activeQueueBytes += toRequeue.getSize();
         }
 
+        // The FlowFiles that are about to be written are counted as swapped out, but the swap file count is not
+        // updated until the swap files have actually been written.
         boolean updated = false;
         while (!updated) {
             final FlowFileQueueSize originalSize = size.get();
@@ -690,14 +798,159 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             final FlowFileQueueSize newSize = new FlowFileQueueSize(activeQueue.size(), activeQueueBytes,
                 originalSize.swappedCount + addedSwapRecords + flowFilesSwappedOut,
                 originalSize.swappedBytes + addedSwapBytes + bytesSwappedOut,
-                originalSize.swapFiles + numSwapFiles,
+                originalSize.swapFiles,
                 originalSize.unacknowledgedCount, originalSize.unacknowledgedBytes);
             updated = size.compareAndSet(originalSize, newSize);
         }
 
-        this.swapLocations.addAll(swapLocations);
+        if (!toSwapOut.isEmpty()) {
+            swapOutPending = true;
+        }
+
+        return toSwapOut;
+    }
+
+    /**
+     * Hands the given FlowFiles to the swap-out Executor to be written to swap files, or writes them on the calling thread if
+     * there is no such Executor or it no longer accepts tasks.
+     *
+     * This method MUST be called WITHOUT the write lock held, and only with FlowFiles that were obtained from
+     * {@link #selectFlowFilesToSwapOut()}.
+     *
+     * @param toSwapOut the FlowFiles to swap out, one List per swap file
+     */
+    private void swapOut(final List<List<FlowFileRecord>> toSwapOut) {
+        if (swapOutExecutor != null) {
+            try {
+                swapOutExecutor.execute(() -> writeSwapFiles(toSwapOut));
+                return;
+            } catch (final RejectedExecutionException ree) {
+                logger.debug("Swap-out Executor for {} rejected task; writing swap files on the current thread", this);
+            }
+        }
+
+        writeSwapFiles(toSwapOut);
+    }
+
+    /**
+     * Writes the given FlowFiles to swap files and then records the locations of the swap files so that they can later
+     * be swapped back in. Any FlowFiles that could not be written are returned to the swap queue. If, once the swap files
+     * have been written, enough FlowFiles have been queued in the meantime to fill further swap files, those are written
+     * as well.
+     *
+     * This method MUST be called WITHOUT the write lock held, and only with FlowFiles that were obtained from
+     * {@link #selectFlowFilesToSwapOut()}, so that other threads are able to continue interacting with the queue
+     * while the swap files are written.
+     *
+     * @param toSwapOut the FlowFiles to swap out, one List per swap file
+     */
+    private void writeSwapFiles(final List<List<FlowFileRecord>> toSwapOut) {
+        List<List<FlowFileRecord>> batches = toSwapOut;
+        while (!batches.isEmpty()) {
+            final List<String> swapLocations = new ArrayList<>(batches.size());
+            try {
+                for (final List<FlowFileRecord> toSwap : batches) {
+                    final long swapOutStart = System.nanoTime();
+                    try {
+                        final String swapLocation = swapManager.swapOut(toSwap, this);
+                        swapLocations.add(swapLocation);
+                    } catch (final IOException ioe) {
+                        logger.error("FlowFile Queue with identifier {} has {} FlowFiles queued up. Attempted to spill FlowFile information over to disk in order to avoid exhausting "
+                            + "the Java heap space but failed to write information to disk due to {}", getIdentifier(), getQueueSize().getObjectCount(), ioe.toString());
+                        logger.error("", ioe);
+                        if (eventReporter != null) {
+                            eventReporter.reportEvent(Severity.ERROR, "Failed to Overflow to Disk", "Flowfile Queue with identifier " + getIdentifier() + " has " + getQueueSize().getObjectCount() +
+                                " queued up. Attempted to spill FlowFile information over to disk in order to avoid exhausting the Java heap space but failed to write information to disk. "
+                                + "See logs for more information.");
+                        }
+
+                        break;
+                    }
+
+                    long bytesSwappedOut = 0L;
+                    for (final FlowFileRecord flowFile : toSwap) {
+                        bytesSwappedOut += flowFile.getSize();
+                    }
+
+                    swapOutCount.incrementAndGet();
+                    swapOutBytes.addAndGet(bytesSwappedOut);
+                    swapOutNanos.addAndGet(System.nanoTime() - swapOutStart);
+                }
+            } finally {
+                writeLock.lock();
+                try {
+                    this.swapLocations.addAll(swapLocations);
+                    incrementSwapQueueSize(0, 0L, swapLocations.size());
+
+                    // if we failed to write any of the swap files, we must add the FlowFiles back to the queue. They are
+                    // still accounted for as swapped, so they belong on the swap queue. FlowFiles may have been added to the
+                    // swap queue while the swap files were being written, so the swap queue is re-sorted to ensure that those
+                    // newer FlowFiles are not migrated to the active queue ahead of the FlowFiles that are being returned.
+                    if (swapLocations.size() < batches.size()) {
+                        for (int i = swapLocations.size(); i < batches.size(); i++) {
+                            swapQueue.addAll(batches.get(i));
+                        }
+                        swapQueue.sort(new Prioritizer(priorities));
+                    }
+
+                    swapOutPending = false;
+                    swapOutComplete.signalAll();
+
+                    // Only continue if the swap files were written successfully, so that we do not retry in a loop against a failing disk
+                    batches = swapLocations.size() < batches.size() ? Collections.emptyList() : selectFlowFilesToSwapOut();
+                } finally {
+                    writeLock.unlock("writeSwapFiles");
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until any FlowFiles that have been selected to be swapped out have been written to swap files and the
+     * locations of those swap files have been recorded. Until then, those FlowFiles are accounted for as swapped out but are
+     * held by neither the swap queue nor the swap locations, so they would be missed by an operation such as a drop, and
+     * then be written to a swap file after that operation completed.
+     *
+     * This method MUST be called with the write lock held, and the lock is released while waiting.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void awaitPendingSwapOut() throws InterruptedException {
+        swapOutWaiters++;
+        try {
+            while (swapOutPending) {
+                swapOutComplete.await();
+            }
+        } finally {
+            swapOutWaiters--;
+        }
+    }
+
+    /**
+     * Reads the next swap file from disk, if it has been designated for prefetching and has not yet been read. This is
+     * done without the write lock held, so that the next call to {@link #migrateSwapToActive()} does not have to hold the
+     * lock while the swap file is read.
+     */
+    private void prefetchSwapFile() {
+        final PrefetchedSwapFile prefetch = prefetchedSwapFile.get();
+        if (prefetch != null) {
+            prefetch.run();
+        }
     }
 
+    /**
+     * @param swapLocation the location of the swap file that is about to be swapped in
+     * @return the contents of the given swap file if it was prefetched successfully, or <code>null</code> if the swap file
+     *         must be read from disk
+     */
+    private SwapContents getPrefetchedContents(final String swapLocation) {
+        final PrefetchedSwapFile prefetch = prefetchedSwapFile.getAndSet(null);
+        if (prefetch == null || !prefetch.getSwapLocation().equals(swapLocation)) {
+            return null;
+        }
+
+        return prefetch.getContents();
+    }
 
     @Override
     public long drainQueue(final Queue<FlowFileRecord> sourceQueue, final List<FlowFileRecord> destination, int maxResults, final Set<FlowFileRecord> expiredRecords) {
@@ -733,6 +986,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             migrateSwapToActive();
 
             final long expirationMillis = expirationPeriod.get().getMillis();
+            final long now = System.currentTimeMillis();
 
             final List<FlowFileRecord> selectedFlowFiles = new ArrayList<>();
             final List<FlowFileRecord> unselected = new ArrayList<>();
@@ -766,6 +1020,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
                     flowFilesPulled++;
 
                     incrementUnacknowledgedQueueSize(1, flowFile.getSize());
+                    recordQueueTime(flowFile, now);
                     selectedFlowFiles.add(flowFile);
                 } else {
                     unselected.add(flowFile);
@@ -874,6 +1129,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
     @Override
     public void purgeSwapFiles() {
+        prefetchedSwapFile.set(null);
         swapManager.purge();
     }
 
@@ -1149,9 +1405,11 @@ public class StandardFlowFileQueue implements FlowFileQueue {
                 writeLock.lock();
                 try {
                     dropRequest.setState(DropFlowFileState.DROPPING_FLOWFILES);
+                    prefetchedSwapFile.set(null);
                     logger.debug("For DropFlowFileRequest {}, original size is {}", requestIdentifier, getQueueSize());
 
                     try {
+                        awaitPendingSwapOut();
                         final List<FlowFileRecord> activeQueueRecords = new ArrayList<>(activeQueue);
 
                         QueueSize droppedSize;
@@ -1445,7 +1703,8 @@ public class StandardFlowFileQueue implements FlowFileQueue {
         }
     }
 
-    private void incrementUnacknowledgedQueueSize(final int count, final long bytes) {
+    // package-private so that the ShardedFlowFileQueue can take over the accounting of FlowFiles that it polls from this queue
+    void incrementUnacknowledgedQueueSize(final int count, final long bytes) {
         boolean updated = false;
         while (!updated) {
             final FlowFileQueueSize original = size.get();
@@ -1469,6 +1728,49 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     }
 
 
+    /**
+     * A swap file whose contents may be read ahead of time, so that swapping it in does not require reading from disk
+     * while the write lock is held.
+     */
+    private class PrefetchedSwapFile {
+        private final String swapLocation;
+        private final FutureTask<SwapContents> future;
+
+        public PrefetchedSwapFile(final String swapLocation) {
+            this.swapLocation = swapLocation;
+            this.future = new FutureTask<>(() -> swapManager.peek(swapLocation, StandardFlowFileQueue.this));
+        }
+
+        public String getSwapLocation() {
+            return swapLocation;
+        }
+
+        /**
+         * Reads the swap file, unless it has already been read or is being read by another thread
+         */
+        public void run() {
+            future.run();
+        }
+
+        /**
+         * @return the contents of the swap file, reading the swap file if necessary, or <code>null</code> if the swap file could not be read
+         */
+        public SwapContents getContents() {
+            future.run();
+
+            try {
+                return future.get();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (final ExecutionException ee) {
+                // The swap file will be read again when it is swapped in, and any failure will be handled at that point.
+                logger.debug("Failed to prefetch Swap File {} for {}", swapLocation, StandardFlowFileQueue.this, ee.getCause());
+                return null;
+            }
+        }
+    }
+
     private static class FlowFileQueueSize {
         private final int activeQueueCount;
         private final long activeQueueBytes;
@@ -17,6 +17,7 @@
 package org.apache.nifi.controller;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.attribute.expression.language.Query;
 import org.apache.nifi.authorization.Authorizer;
 import org.apache.nifi.authorization.AuthorizerCapabilityDetection;
 import org.apache.nifi.authorization.ManagedAuthorizer;
@@ -734,7 +735,10 @@ public class StandardFlowService implements FlowService, ProtocolHandler {
 
         // load the flow
         logger.debug("Loading proposed flow into FlowController");
+        final long loadStart = System.nanoTime();
         dao.load(controller, actualProposedFlow);
+        final long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStart);
+        logger.info("Loaded flow into FlowController in {} millis; Expression Language {}", loadMillis, Query.getPreparedQueryCache());
 
         final ProcessGroup rootGroup = controller.getGroup(controller.getRootGroupId());
         if (rootGroup.isEmpty() && !allowEmptyFlow) {
@@ -98,6 +98,7 @@ import org.apache.nifi.remote.protocol.SiteToSiteTransportProtocol;
 import org.apache.nifi.reporting.InitializationException;
 import org.apache.nifi.reporting.ReportingInitializationContext;
 import org.apache.nifi.reporting.Severity;
+import org.apache.nifi.scheduling.ExecutionMode;
 import org.apache.nifi.scheduling.ExecutionNode;
 import org.apache.nifi.scheduling.SchedulingStrategy;
 import org.apache.nifi.util.BundleUtils;
@@ -1101,6 +1102,10 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
                 procNode.setExecutionNode(ExecutionNode.valueOf(config.getExecutionNode()));
             }
 
+            if (config.getExecutionMode() != null) {
+                procNode.setExecutionMode(ExecutionMode.valueOf(config.getExecutionMode()));
+            }
+
             // must set scheduling strategy before these two
             procNode.setMaxConcurrentTasks(config.getConcurrentlySchedulableTaskCount());
             procNode.setScheduldingPeriod(config.getSchedulingPeriod());
@@ -1462,7 +1467,8 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
                 throw new RuntimeException("Found Invalid Connectable ID for Destination: " + dto.getDestination().getId());
             }
 
-            final Connection connection = controller.createConnection(dto.getId(), dto.getName(), source, destination, dto.getSelectedRelationships());
+            final Connection connection = controller.createConnection(dto.getId(), dto.getName(), source, destination, dto.getSelectedRelationships(),
+                dto.getFlowFileQueueImplementation());
             connection.setVersionedComponentId(dto.getVersionedComponentId());
             connection.setProcessGroup(processGroup);
 
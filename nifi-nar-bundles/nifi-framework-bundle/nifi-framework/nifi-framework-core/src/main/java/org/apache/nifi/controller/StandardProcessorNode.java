@@ -92,6 +92,7 @@ import org.apache.nifi.processor.Processor;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.SimpleProcessLogger;
 import org.apache.nifi.registry.ComponentVariableRegistry;
+import org.apache.nifi.scheduling.ExecutionMode;
 import org.apache.nifi.scheduling.ExecutionNode;
 import org.apache.nifi.scheduling.SchedulingStrategy;
 import org.apache.nifi.util.CharacterFilterUtils;
@@ -147,6 +148,7 @@ public class StandardProcessorNode extends ProcessorNode implements Connectable
     private SchedulingStrategy schedulingStrategy; // guarded by read/write lock
                                                    // ??????? NOT any more
     private ExecutionNode executionNode;
+    private volatile ExecutionMode executionMode = ExecutionMode.STANDARD;
     private final long onScheduleTimeoutMillis;
     private final Map<Thread, ActiveTask> activeThreads = new HashMap<>(48);
     private final int hashCode;
@@ -559,6 +561,30 @@ public class StandardProcessorNode extends ProcessorNode implements Connectable
         return this.executionNode;
     }
 
+    /**
+     * Updates the Execution Mode used for this Processor. The Execution Mode only applies to
+     * Timer-Driven scheduling and is ignored for the other Scheduling Strategies.
+     *
+     * @param executionMode
+     *            the execution mode
+     *
+     * @throws IllegalStateException
+     *             if the Processor is running, since its tasks are already bound to a thread pool
+     */
+    @Override
+    public synchronized void setExecutionMode(final ExecutionMode executionMode) {
+        if (isRunning()) {
+            throw new IllegalStateException("Cannot modify Processor configuration while the Processor is running");
+        }
+
+        this.executionMode = requireNonNull(executionMode);
+    }
+
+    @Override
+    public ExecutionMode getExecutionMode() {
+        return this.executionMode;
+    }
+
     @Override
     public long getRunDuration(final TimeUnit timeUnit) {
         return timeUnit.convert(this.runNanos, TimeUnit.NANOSECONDS);
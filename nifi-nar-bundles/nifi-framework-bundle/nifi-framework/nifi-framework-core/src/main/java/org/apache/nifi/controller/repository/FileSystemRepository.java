@@ -17,12 +17,15 @@
 package org.apache.nifi.controller.repository;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
@@ -121,6 +124,8 @@ public class FileSystemRepository implements ContentRepository {
     private final long maxArchiveMillis;
     private final Map<String, Long> minUsableContainerBytesForArchive = new HashMap<>();
     private final boolean alwaysSync;
+    // if true, Resource Claim files are written via MappedClaimOutputStream rather than FileOutputStream
+    private final boolean memoryMappedClaims;
     private final ScheduledExecutorService containerCleanupExecutor;
 
     private ResourceClaimManager resourceClaimManager; // effectively final
@@ -143,6 +148,7 @@ public class FileSystemRepository implements ContentRepository {
         archiveData = false;
         maxArchiveMillis = 0;
         alwaysSync = false;
+        memoryMappedClaims = false;
         containerCleanupExecutor = null;
         nifiProperties = null;
         maxAppendableClaimLength = 0;
@@ -248,6 +254,8 @@ public class FileSystemRepository implements ContentRepository {
 
         this.alwaysSync = Boolean.parseBoolean(nifiProperties.getProperty("nifi.content.repository.always.sync"));
         LOG.info("Initializing FileSystemRepository with 'Always Sync' set to {}", alwaysSync);
+        this.memoryMappedClaims = nifiProperties.isContentClaimMemoryMapped();
+        LOG.info("Initializing FileSystemRepository with 'Memory Mapped Claims' set to {}", memoryMappedClaims);
         initializeRepository();
 
         containerCleanupExecutor = new FlowEngine(containers.size(), "Cleanup FileSystemRepository Container", true);
@@ -591,7 +599,9 @@ public class FileSystemRepository implements ContentRepository {
             // and when we call create(), it will remove it from the Queue, which means that no other
             // thread will get the same Claim until we've finished writing to it.
             final File file = getPath(resourceClaim).toFile();
-            ByteCountingOutputStream claimStream = new SynchronizedByteCountingOutputStream(new FileOutputStream(file, true), file.length());
+            final long fileLength = file.length();
+            final OutputStream fileOut = memoryMappedClaims ? new MappedClaimOutputStream(file, maxAppendableClaimLength) : new FileOutputStream(file, true);
+            ByteCountingOutputStream claimStream = new SynchronizedByteCountingOutputStream(fileOut, fileLength);
             writableClaimStreams.put(resourceClaim, claimStream);
 
             incrementClaimantCount(resourceClaim, true);
@@ -745,6 +755,33 @@ public class FileSystemRepository implements ContentRepository {
         }
     }
 
+    @Override
+    public long importFrom(final ReadableByteChannel content, final long length, final ContentClaim claim) throws IOException {
+        final ByteCountingOutputStream claimStream = claim == null ? null : writableClaimStreams.get(claim.getResourceClaim());
+        if (claimStream == null || !(claimStream.getWrappedStream() instanceof FileOutputStream) || !(claim instanceof StandardContentClaim)) {
+            return ContentRepository.super.importFrom(content, length, claim);
+        }
+
+        // The Resource Claim's file is always opened for appending and no other thread may write to it until this claim's
+        // stream is closed, so we can splice the bytes onto the end of the file directly. We still obtain the claim's stream
+        // so that closing it recycles or freezes the Resource Claim exactly as for any other write.
+        final StandardContentClaim scc = (StandardContentClaim) claim;
+        final FileChannel fileChannel = ((FileOutputStream) claimStream.getWrappedStream()).getChannel();
+        try (final OutputStream out = write(claim, false)) {
+            long transferred = 0L;
+            while (transferred < length) {
+                final long count = fileChannel.transferFrom(content, fileChannel.size(), length - transferred);
+                if (count <= 0) {
+                    throw new EOFException("Expected " + length + " bytes but channel ended after " + transferred + " bytes");
+                }
+
+                transferred += count;
+                scc.setLength(transferred);
+            }
+            return transferred;
+        }
+    }
+
     @Override
     public long exportTo(final ContentClaim claim, final Path destination, final boolean append) throws IOException {
         if (claim == null) {
@@ -852,6 +889,15 @@ public class FileSystemRepository implements ContentRepository {
         if (claim == null) {
             return new ByteArrayInputStream(new byte[0]);
         }
+
+        if (memoryMappedClaims && claim.getLength() >= 0) {
+            // If the Resource Claim is still being written to, we can read the content directly from the mapped region
+            final InputStream mappedIn = readMapped(claim);
+            if (mappedIn != null) {
+                return mappedIn;
+            }
+        }
+
         final Path path = getPath(claim, true);
         final FileInputStream fis = new FileInputStream(path.toFile());
         if (claim.getOffset() > 0L) {
@@ -872,6 +918,34 @@ public class FileSystemRepository implements ContentRepository {
         }
     }
 
+    @Override
+    public Path getContentPath(final ContentClaim claim) throws IOException {
+        if (claim == null) {
+            return null;
+        }
+
+        // A Resource Claim that is still being written through a memory-mapped region is read from that region rather than from the file
+        if (memoryMappedClaims && writableClaimStreams.containsKey(claim.getResourceClaim())) {
+            return null;
+        }
+
+        return getPath(claim, true);
+    }
+
+    private InputStream readMapped(final ContentClaim claim) {
+        final ByteCountingOutputStream claimStream = writableClaimStreams.get(claim.getResourceClaim());
+        if (claimStream == null) {
+            return null;
+        }
+
+        final OutputStream wrapped = claimStream.getWrappedStream();
+        if (!(wrapped instanceof MappedClaimOutputStream)) {
+            return null;
+        }
+
+        return ((MappedClaimOutputStream) wrapped).read(claim.getOffset(), claim.getLength());
+    }
+
     @Override
     public OutputStream write(final ContentClaim claim) throws IOException {
         return write(claim, false);
@@ -973,7 +1047,7 @@ public class FileSystemRepository implements ContentRepository {
                 closed = true;
 
                 if (alwaysSync) {
-                    ((FileOutputStream) bcos.getWrappedStream()).getFD().sync();
+                    sync(bcos);
                 }
 
                 if (scc.getLength() < 0) {
@@ -1038,6 +1112,15 @@ public class FileSystemRepository implements ContentRepository {
         return out;
     }
 
+    private void sync(final ByteCountingOutputStream claimStream) throws IOException {
+        final OutputStream wrapped = claimStream.getWrappedStream();
+        if (wrapped instanceof MappedClaimOutputStream) {
+            ((MappedClaimOutputStream) wrapped).sync();
+        } else {
+            ((FileOutputStream) wrapped).getFD().sync();
+        }
+    }
+
     @Override
     public void purge() {
         // delete all content from repositories
@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * An OutputStream that appends to the file backing a Resource Claim by copying bytes into a memory-mapped region of
+ * the file, rather than issuing a system call for every write. The file is extended one segment at a time as the mapped
+ * region fills up. When the stream is closed, the mapped regions are released and the file is truncated to the number of
+ * bytes that were actually written. A region that is still being read cannot be released, and a file cannot be truncated
+ * while any part of it is mapped on all platforms, so in that case the file is left at its extended length.
+ * </p>
+ *
+ * <p>
+ * Content that has already been written may be read back from the mapping via {@link #read(long, long)}, which allows
+ * content claims to be read without opening the file while it is still being written to.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe for writing. As with the FileOutputStream that it replaces, only a single thread may
+ * write to it at a time. It is, however, safe to call {@link #read(long, long)} concurrently with writes.
+ * </p>
+ */
+class MappedClaimOutputStream extends OutputStream {
+    private static final Logger logger = LoggerFactory.getLogger(MappedClaimOutputStream.class);
+
+    static final long MINIMUM_SEGMENT_SIZE = 64 * 1024;
+
+    private final File file;
+    private final FileChannel channel;
+    private final long segmentSize;
+    private final List<MappedRegion> regions = new CopyOnWriteArrayList<>();
+
+    private volatile MappedRegion region;
+    private volatile long position;
+    private volatile boolean closed = false;
+
+    /**
+     * @param file the file to append to
+     * @param segmentSize the number of bytes by which to extend the file each time that the mapped region is full
+     * @throws IOException if unable to open or map the file
+     */
+    MappedClaimOutputStream(final File file, final long segmentSize) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segmentSize = Math.min(Integer.MAX_VALUE, Math.max(MINIMUM_SEGMENT_SIZE, segmentSize));
+        this.position = channel.size();
+
+        try {
+            map(0);
+        } catch (final IOException ioe) {
+            channel.close();
+            throw ioe;
+        }
+    }
+
+    private void map(final int minimumSize) throws IOException {
+        final long regionSize = Math.max(segmentSize, minimumSize);
+        final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, position, regionSize);
+        final MappedRegion previous = region;
+        region = new MappedRegion(buffer, position);
+        regions.add(region);
+
+        // The previous region is unmapped as soon as no reader is using it, rather than whenever it is garbage collected
+        if (previous != null) {
+            previous.release();
+        }
+        regions.removeIf(MappedRegion::isUnmapped);
+    }
+
+    private MappedByteBuffer ensureCapacity(final int length) throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+
+        MappedByteBuffer buffer = region.getBuffer();
+        if (buffer.remaining() < length) {
+            map(length);
+            buffer = region.getBuffer();
+        }
+
+        return buffer;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureCapacity(1).put((byte) b);
+        position++;
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        ensureCapacity(len).put(b, off, len);
+        position += len;
+    }
+
+    @Override
+    public void flush() {
+        // Nothing to do. Data copied into the mapped region is visible to any other reader of the file as soon as it is written.
+    }
+
+    /**
+     * Forces all content that has been written to this stream to be written to the storage device
+     *
+     * @throws IOException if unable to sync the content
+     */
+    public void sync() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        final MappedRegion currentRegion = region;
+        if (!currentRegion.acquire()) {
+            return;
+        }
+
+        try {
+            currentRegion.getBuffer().force();
+        } finally {
+            currentRegion.release();
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Provides an InputStream that reads content that has already been written to this stream directly from the mapped region.
+     *
+     * @param offset the offset into the file at which to begin reading
+     * @param length the number of bytes to read
+     * @return an InputStream that reads the given range from memory, or <code>null</code> if the range is not available
+     *         in the current mapped region or the stream has been closed. The InputStream must be closed so that the
+     *         region can be released.
+     */
+    public InputStream read(final long offset, final long length) {
+        if (closed) {
+            return null;
+        }
+
+        // Obtain the region before checking the position. If the range has been written, then either the range falls within
+        // this region or a newer region has been mapped, in which case we will not serve the range from memory.
+        final MappedRegion currentRegion = region;
+        final long regionOffset = currentRegion.getOffset();
+        if (offset < regionOffset || offset + length > position || offset + length > regionOffset + currentRegion.getBuffer().capacity()) {
+            return null;
+        }
+
+        // If the region has already been released, the range is no longer available from memory
+        if (!currentRegion.acquire()) {
+            return null;
+        }
+
+        final ByteBuffer buffer = currentRegion.getBuffer().duplicate();
+        final int start = (int) (offset - regionOffset);
+        buffer.limit(start + (int) length);
+        buffer.position(start);
+        return new ByteBufferInputStream(buffer, currentRegion);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            region.release();
+
+            final long mappedCount = regions.stream().filter(mappedRegion -> !mappedRegion.isUnmapped()).count();
+            if (mappedCount == 0) {
+                // remove the portion of the last segment that was never written to
+                channel.truncate(position);
+            } else {
+                logger.warn("{} memory-mapped region(s) of {} could not be released, most likely because they are still being read; "
+                    + "the file will not be truncated from {} to {} bytes", mappedCount, file, channel.size(), position);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Unmaps the given buffer immediately rather than waiting for it to be garbage collected. The buffer must not be
+     * accessed after it has been unmapped.
+     *
+     * @param buffer the buffer to unmap
+     * @return <code>true</code> if the buffer was unmapped, <code>false</code> if the JVM does not allow it
+     */
+    private static boolean unmap(final MappedByteBuffer buffer) {
+        try {
+            // Java 8 exposes the Cleaner of a direct buffer; later versions only allow it to be invoked through Unsafe
+            try {
+                final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            } catch (final NoSuchMethodException | RuntimeException e) {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+                unsafeField.setAccessible(true);
+                unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(unsafeField.get(null), buffer);
+            }
+
+            return true;
+        } catch (final Exception e) {
+            logger.debug("Unable to unmap memory-mapped region", e);
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MappedClaimOutputStream[file=" + file + ", position=" + position + "]";
+    }
+
+    private static class MappedRegion {
+        private final MappedByteBuffer buffer;
+        private final long offset;
+
+        // One reference is held by the output stream while the region is current, and one by each reader of the region
+        private final AtomicInteger references = new AtomicInteger(1);
+        private volatile boolean unmapped = false;
+
+        public MappedRegion(final MappedByteBuffer buffer, final long offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        public MappedByteBuffer getBuffer() {
+            return buffer;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return <code>true</code> if a reference to the region was obtained, <code>false</code> if the region has already been released
+         */
+        public boolean acquire() {
+            while (true) {
+                final int count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        public void release() {
+            if (references.decrementAndGet() == 0) {
+                unmapped = unmap(buffer);
+            }
+        }
+
+        public boolean isUnmapped() {
+            return unmapped;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+        private final MappedRegion region;
+        private boolean closed = false;
+
+        public ByteBufferInputStream(final ByteBuffer buffer, final MappedRegion region) {
+            this.buffer = buffer;
+            this.region = region;
+        }
+
+        // The region may be unmapped once the stream is closed, after which the buffer must not be touched
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("Stream is closed");
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            ensureOpen();
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            ensureOpen();
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            final int toRead = Math.min(len, buffer.remaining());
+            buffer.get(b, off, toRead);
+            return toRead;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            ensureOpen();
+            final int toSkip = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + toSkip);
+            return toSkip;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            return buffer.remaining();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                region.release();
+            }
+        }
+    }
+}
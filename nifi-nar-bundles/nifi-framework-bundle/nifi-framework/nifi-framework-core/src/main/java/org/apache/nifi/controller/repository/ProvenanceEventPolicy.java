@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.registry.VariableRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Determines which Provenance Events a component reports to the Provenance Repository and which FlowFile attributes they carry.
+ * A policy is configured through Variables, so that it can be set for a Process Group (and inherited by its descendants)
+ * or for a single component:
+ * </p>
+ *
+ * <ul>
+ * <li><code>provenance.sampling.&lt;EVENT_TYPE&gt;</code> - a number between 0 and 1 giving the fraction of events of that type to keep.
+ * Only event types that do not change the lineage of a FlowFile may be sampled: ATTRIBUTES_MODIFIED, CONTENT_MODIFIED and ROUTE.</li>
+ * <li><code>provenance.attributes.&lt;EVENT_TYPE&gt;</code> - a comma-separated list of the FlowFile attributes to keep on events of that type.
+ * The uuid, filename and path attributes are always kept.</li>
+ * </ul>
+ *
+ * <p>
+ * Appending <code>.&lt;component id&gt;</code> to either variable name scopes it to a single component, taking precedence over the
+ * variable without the suffix.
+ * </p>
+ *
+ * <p>
+ * Sampling is deterministic per FlowFile: for a given rate, either all or none of a FlowFile's sampled events of a type are kept,
+ * so that the history of the FlowFiles that are kept remains complete.
+ * </p>
+ */
+public class ProvenanceEventPolicy {
+    private static final Logger logger = LoggerFactory.getLogger(ProvenanceEventPolicy.class);
+
+    public static final String SAMPLING_VARIABLE_PREFIX = "provenance.sampling.";
+    public static final String ATTRIBUTES_VARIABLE_PREFIX = "provenance.attributes.";
+
+    public static final ProvenanceEventPolicy KEEP_ALL = new ProvenanceEventPolicy(Collections.emptyMap(), Collections.emptyMap());
+
+    private static final Set<ProvenanceEventType> SAMPLEABLE_EVENT_TYPES = Collections.unmodifiableSet(
+        EnumSet.of(ProvenanceEventType.ATTRIBUTES_MODIFIED, ProvenanceEventType.CONTENT_MODIFIED, ProvenanceEventType.ROUTE));
+    private static final Set<String> RETAINED_ATTRIBUTES = Collections.unmodifiableSet(new HashSet<>(
+        Arrays.asList(CoreAttributes.UUID.key(), CoreAttributes.FILENAME.key(), CoreAttributes.PATH.key())));
+
+    private final Map<ProvenanceEventType, Double> samplingRates;
+    private final Map<ProvenanceEventType, Set<String>> attributeProjections;
+
+    ProvenanceEventPolicy(final Map<ProvenanceEventType, Double> samplingRates, final Map<ProvenanceEventType, Set<String>> attributeProjections) {
+        this.samplingRates = samplingRates;
+        this.attributeProjections = attributeProjections;
+    }
+
+    /**
+     * Creates the policy for the given component from the given Variable Registry
+     *
+     * @param variableRegistry the Variable Registry of the component's Process Group
+     * @param componentId the identifier of the component
+     * @return the policy for the component
+     */
+    public static ProvenanceEventPolicy fromVariables(final VariableRegistry variableRegistry, final String componentId) {
+        if (variableRegistry == null) {
+            return KEEP_ALL;
+        }
+
+        final Map<ProvenanceEventType, Double> samplingRates = new EnumMap<>(ProvenanceEventType.class);
+        final Map<ProvenanceEventType, Set<String>> attributeProjections = new EnumMap<>(ProvenanceEventType.class);
+
+        for (final ProvenanceEventType eventType : ProvenanceEventType.values()) {
+            final String samplingVariable = SAMPLING_VARIABLE_PREFIX + eventType.name();
+            final String samplingRate = getVariableValue(variableRegistry, samplingVariable, componentId);
+            if (samplingRate != null) {
+                if (!SAMPLEABLE_EVENT_TYPES.contains(eventType)) {
+                    logger.warn("Ignoring Variable {} for component {} because events of type {} cannot be sampled", samplingVariable, componentId, eventType);
+                } else {
+                    try {
+                        final double rate = Double.parseDouble(samplingRate.trim());
+                        if (rate < 0D || rate > 1D) {
+                            logger.warn("Ignoring Variable {} for component {} because its value, {}, is not between 0 and 1", samplingVariable, componentId, samplingRate);
+                        } else if (rate < 1D) {
+                            samplingRates.put(eventType, rate);
+                        }
+                    } catch (final NumberFormatException nfe) {
+                        logger.warn("Ignoring Variable {} for component {} because its value, {}, is not a number", samplingVariable, componentId, samplingRate);
+                    }
+                }
+            }
+
+            final String attributeNames = getVariableValue(variableRegistry, ATTRIBUTES_VARIABLE_PREFIX + eventType.name(), componentId);
+            if (attributeNames != null) {
+                final Set<String> projection = new HashSet<>(RETAINED_ATTRIBUTES);
+                for (final String attributeName : attributeNames.split(",")) {
+                    final String trimmed = attributeName.trim();
+                    if (!trimmed.isEmpty()) {
+                        projection.add(trimmed);
+                    }
+                }
+
+                attributeProjections.put(eventType, projection);
+            }
+        }
+
+        if (samplingRates.isEmpty() && attributeProjections.isEmpty()) {
+            return KEEP_ALL;
+        }
+
+        return new ProvenanceEventPolicy(samplingRates, attributeProjections);
+    }
+
+    private static String getVariableValue(final VariableRegistry variableRegistry, final String variableName, final String componentId) {
+        final String componentValue = componentId == null ? null : variableRegistry.getVariableValue(variableName + "." + componentId);
+        return componentValue == null ? variableRegistry.getVariableValue(variableName) : componentValue;
+    }
+
+    /**
+     * @return <code>true</code> if this policy samples any type of event
+     */
+    public boolean isSampling() {
+        return !samplingRates.isEmpty();
+    }
+
+    /**
+     * @return <code>true</code> if this policy restricts the attributes of any type of event
+     */
+    public boolean isProjecting() {
+        return !attributeProjections.isEmpty();
+    }
+
+    /**
+     * @param event the event
+     * @return <code>true</code> if the event should not be reported to the Provenance Repository
+     */
+    public boolean isSampledOut(final ProvenanceEventRecord event) {
+        final Double rate = samplingRates.get(event.getEventType());
+        if (rate == null) {
+            return false;
+        }
+
+        final String uuid = event.getFlowFileUuid();
+        if (uuid == null) {
+            return false;
+        }
+
+        // Spread the bits of the UUID's hash so that similar UUIDs do not fall into the same bucket, then map it into [0, 1)
+        int hash = uuid.hashCode() * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        final double bucket = (hash & 0x7FFFFFFF) / (double) (1L << 31);
+        return bucket >= rate;
+    }
+
+    /**
+     * Removes from the given event any attribute that the policy does not keep for events of its type
+     *
+     * @param event the event
+     * @return the given event, if it is unaffected by the policy, or a copy of it with only the attributes that are to be kept
+     */
+    public StandardProvenanceEventRecord project(final StandardProvenanceEventRecord event) {
+        final Set<String> projection = attributeProjections.get(event.getEventType());
+        if (projection == null) {
+            return event;
+        }
+
+        final Map<String, String> previousAttributes = event.getPreviousAttributes();
+        final Map<String, String> updatedAttributes = event.getUpdatedAttributes();
+        if (projection.containsAll(previousAttributes.keySet()) && projection.containsAll(updatedAttributes.keySet())) {
+            return event;
+        }
+
+        return new StandardProvenanceEventRecord.Builder()
+            .fromEvent(event)
+            .setAttributes(project(previousAttributes, projection), project(updatedAttributes, projection))
+            .build();
+    }
+
+    private static Map<String, String> project(final Map<String, String> attributes, final Set<String> projection) {
+        final Map<String, String> projected = new HashMap<>();
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            if (projection.contains(entry.getKey())) {
+                projected.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return projected;
+    }
+}
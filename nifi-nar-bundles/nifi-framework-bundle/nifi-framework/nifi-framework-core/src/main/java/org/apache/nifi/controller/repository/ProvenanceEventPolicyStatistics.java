@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the Provenance Events that were dropped or stripped of attributes by {@link ProvenanceEventPolicy Provenance Event Policies}
+ * before being reported to the Provenance Repository.
+ */
+public class ProvenanceEventPolicyStatistics {
+    private final AtomicLong droppedEvents = new AtomicLong(0L);
+    private final AtomicLong projectedEvents = new AtomicLong(0L);
+
+    public void record(final long dropped, final long projected) {
+        if (dropped > 0) {
+            droppedEvents.addAndGet(dropped);
+        }
+        if (projected > 0) {
+            projectedEvents.addAndGet(projected);
+        }
+    }
+
+    /**
+     * @return the number of events that were not reported because they were sampled out
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * @return the number of events that were reported with only a subset of their attributes
+     */
+    public long getProjectedEventCount() {
+        return projectedEvents.get();
+    }
+}
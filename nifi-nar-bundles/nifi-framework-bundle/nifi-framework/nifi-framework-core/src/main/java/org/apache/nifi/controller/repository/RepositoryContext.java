@@ -22,12 +22,14 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.nifi.connectable.Connectable;
 import org.apache.nifi.connectable.ConnectableType;
 import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.controller.ProcessorNode;
+import org.apache.nifi.groups.ProcessGroup;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.provenance.ProvenanceEventRepository;
 import org.apache.nifi.util.Connectables;
@@ -36,6 +38,7 @@ import org.apache.nifi.util.Connectables;
  *
  */
 public class RepositoryContext {
+    private static final long PROVENANCE_POLICY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(5L);
 
     private final Connectable connectable;
     private final ContentRepository contentRepo;
@@ -44,16 +47,29 @@ public class RepositoryContext {
     private final CounterRepository counterRepo;
     private final ProvenanceEventRepository provenanceRepo;
     private final AtomicLong connectionIndex;
+    private final ProvenanceEventPolicyStatistics provenancePolicyStatistics;
+
+    private volatile ProvenanceEventPolicy provenancePolicy;
+    private volatile long provenancePolicyRefreshNanos;
 
     public RepositoryContext(final Connectable connectable, final AtomicLong connectionIndex, final ContentRepository contentRepository,
             final FlowFileRepository flowFileRepository, final FlowFileEventRepository flowFileEventRepository,
             final CounterRepository counterRepository, final ProvenanceEventRepository provenanceRepository) {
+        this(connectable, connectionIndex, contentRepository, flowFileRepository, flowFileEventRepository, counterRepository, provenanceRepository,
+            new ProvenanceEventPolicyStatistics());
+    }
+
+    public RepositoryContext(final Connectable connectable, final AtomicLong connectionIndex, final ContentRepository contentRepository,
+            final FlowFileRepository flowFileRepository, final FlowFileEventRepository flowFileEventRepository,
+            final CounterRepository counterRepository, final ProvenanceEventRepository provenanceRepository,
+            final ProvenanceEventPolicyStatistics provenancePolicyStatistics) {
         this.connectable = connectable;
         contentRepo = contentRepository;
         flowFileRepo = flowFileRepository;
         flowFileEventRepo = flowFileEventRepository;
         counterRepo = counterRepository;
         provenanceRepo = provenanceRepository;
+        this.provenancePolicyStatistics = provenancePolicyStatistics;
 
         this.connectionIndex = connectionIndex;
     }
@@ -147,6 +163,27 @@ public class RepositoryContext {
         return provenanceRepo;
     }
 
+    /**
+     * @return the Provenance Event Policy of the component. Because the policy is defined by Variables, which are rarely changed,
+     *         it is re-read only every few seconds rather than for every session that is committed.
+     */
+    ProvenanceEventPolicy getProvenanceEventPolicy() {
+        final long now = System.nanoTime();
+        ProvenanceEventPolicy policy = provenancePolicy;
+        if (policy == null || now - provenancePolicyRefreshNanos > PROVENANCE_POLICY_REFRESH_NANOS) {
+            final ProcessGroup group = connectable.getProcessGroup();
+            policy = group == null ? ProvenanceEventPolicy.KEEP_ALL : ProvenanceEventPolicy.fromVariables(group.getVariableRegistry(), connectable.getIdentifier());
+            provenancePolicy = policy;
+            provenancePolicyRefreshNanos = now;
+        }
+
+        return policy;
+    }
+
+    void recordProvenancePolicyResults(final long droppedEvents, final long projectedEvents) {
+        provenancePolicyStatistics.record(droppedEvents, projectedEvents);
+    }
+
     long getNextFlowFileSequence() {
         return flowFileRepo.getNextFlowFileSequence();
     }
@@ -65,8 +65,11 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -97,7 +100,7 @@ import java.util.stream.Collectors;
  * </p>
  * <p/>
  */
-public final class StandardProcessSession implements ProcessSession, ProvenanceEventEnricher {
+public final class StandardProcessSession implements ProcessSession, ChannelTransferSession, ProvenanceEventEnricher {
 
     private static final AtomicLong idGenerator = new AtomicLong(0L);
     private static final AtomicLong enqueuedIndex = new AtomicLong(0L);
@@ -252,8 +255,11 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         // Processor-reported events.
         List<ProvenanceEventRecord> autoTerminatedEvents = null;
 
-        // validate that all records have a transfer relationship for them and if so determine the destination node and clone as necessary
+        // validate that all records have a transfer relationship for them and if so determine the destination node and clone as necessary.
+        // Sessions that commit many FlowFiles typically route them to only a few relationships, so we look up the destinations of each
+        // relationship only once.
         final Map<FlowFileRecord, StandardRepositoryRecord> toAdd = new HashMap<>();
+        final Map<Relationship, List<Connection>> destinationsByRelationship = new HashMap<>();
         for (final StandardRepositoryRecord record : records.values()) {
             if (record.isMarkedForDelete()) {
                 continue;
@@ -263,7 +269,12 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
                 rollback();
                 throw new FlowFileHandlingException(record.getCurrent() + " transfer relationship not specified");
             }
-            final List<Connection> destinations = new ArrayList<>(context.getConnections(relationship));
+            List<Connection> destinations = destinationsByRelationship.get(relationship);
+            if (destinations == null) {
+                destinations = new ArrayList<>(context.getConnections(relationship));
+                destinationsByRelationship.put(relationship, destinations);
+            }
+
             if (destinations.isEmpty() && !context.getConnectable().isAutoTerminated(relationship)) {
                 if (relationship != Relationship.SELF) {
                     rollback();
@@ -289,11 +300,13 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
                     LOG.warn("", e);
                 }
             } else {
-                final Connection finalDestination = destinations.remove(destinations.size() - 1); // remove last element
+                final int lastDestinationIndex = destinations.size() - 1;
+                final Connection finalDestination = destinations.get(lastDestinationIndex);
                 record.setDestination(finalDestination.getFlowFileQueue());
                 incrementConnectionInputCounts(finalDestination, record);
 
-                for (final Connection destination : destinations) { // iterate over remaining destinations and "clone" as needed
+                for (int i = 0; i < lastDestinationIndex; i++) { // iterate over remaining destinations and "clone" as needed
+                    final Connection destination = destinations.get(i);
                     incrementConnectionInputCounts(destination, record);
                     final FlowFileRecord currRec = record.getCurrent();
                     final StandardFlowFileRecord.Builder builder = new StandardFlowFileRecord.Builder().fromFlowFile(currRec);
@@ -335,7 +348,6 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         this.checkpoint = null;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     private void commit(final Checkpoint checkpoint) {
         try {
             final long commitStartNanos = System.nanoTime();
@@ -363,9 +375,22 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
              * points to the Original Claim -- which has already been removed!
              *
              */
+            // In the same pass, we build the list of updates for the FlowFile Repository and group the FlowFiles that are to be
+            // transferred by destination queue, so that a session that commits many FlowFiles does not need to iterate over them
+            // several times, and each queue is updated with a single call.
+            final List<RepositoryRecord> repoRecords = new ArrayList<>(checkpoint.records.size());
+            final Map<FlowFileQueue, List<FlowFileRecord>> recordsByQueue = new HashMap<>();
+            FlowFileQueue previousQueue = null;
+            List<FlowFileRecord> previousQueueRecords = null;
+
+            final Connectable connectable = context.getConnectable();
+            final Object terminator = connectable instanceof ProcessorNode ? ((ProcessorNode) connectable).getProcessor() : connectable;
+            final long claimRemovalTimestamp = System.currentTimeMillis();
+
             for (final Map.Entry<FlowFileRecord, StandardRepositoryRecord> entry : checkpoint.records.entrySet()) {
                 final FlowFile flowFile = entry.getKey();
                 final StandardRepositoryRecord record = entry.getValue();
+                repoRecords.add(record);
 
                 if (record.isMarkedForDelete()) {
                     // if the working claim is not the same as the original claim, we can immediately destroy the working claim
@@ -378,14 +403,34 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
                         // an issue if we only updated the FlowFile attributes.
                         decrementClaimCount(record.getOriginalClaim());
                     }
-                    final long flowFileLife = System.currentTimeMillis() - flowFile.getEntryDate();
-                    final Connectable connectable = context.getConnectable();
-                    final Object terminator = connectable instanceof ProcessorNode ? ((ProcessorNode) connectable).getProcessor() : connectable;
-                    LOG.info("{} terminated by {}; life of FlowFile = {} ms", new Object[] {flowFile, terminator, flowFileLife});
+
+                    if (LOG.isInfoEnabled()) {
+                        final long flowFileLife = claimRemovalTimestamp - flowFile.getEntryDate();
+                        LOG.info("{} terminated by {}; life of FlowFile = {} ms", new Object[] {flowFile, terminator, flowFileLife});
+                    }
+                    continue;
                 } else if (record.isWorking() && record.getWorkingClaim() != record.getOriginalClaim()) {
                     // records which have been updated - remove original if exists
                     decrementClaimCount(record.getOriginalClaim());
                 }
+
+                // record.getCurrent() will return null if this record was created in this session --
+                // in this case, we just ignore it, and it will be cleaned up by clearing the records map.
+                if (record.isMarkedForAbort() || record.getCurrent() == null) {
+                    continue;
+                }
+
+                // FlowFiles that are routed to the same queue are usually adjacent, so avoid the map lookup when we can
+                final FlowFileQueue destination = record.getDestination();
+                if (destination != previousQueue) {
+                    previousQueueRecords = recordsByQueue.get(destination);
+                    if (previousQueueRecords == null) {
+                        previousQueueRecords = new ArrayList<>();
+                        recordsByQueue.put(destination, previousQueueRecords);
+                    }
+                    previousQueue = destination;
+                }
+                previousQueueRecords.add(record.getCurrent());
             }
 
             final long claimRemovalFinishNanos = System.nanoTime();
@@ -393,8 +438,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
 
             // Update the FlowFile Repository
             try {
-                final Collection<StandardRepositoryRecord> repoRecords = checkpoint.records.values();
-                context.getFlowFileRepository().updateRepository((Collection) repoRecords);
+                context.getFlowFileRepository().updateRepository(repoRecords);
             } catch (final IOException ioe) {
                 // if we fail to commit the session, we need to roll back
                 // the checkpoints as well because none of the checkpoints
@@ -412,24 +456,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
             final long updateEventRepositoryNanos = updateEventRepositoryFinishNanos - flowFileRepoUpdateFinishNanos;
 
             // transfer the flowfiles to the connections' queues.
-            final Map<FlowFileQueue, Collection<FlowFileRecord>> recordMap = new HashMap<>();
-            for (final StandardRepositoryRecord record : checkpoint.records.values()) {
-                if (record.isMarkedForAbort() || record.isMarkedForDelete()) {
-                    continue; // these don't need to be transferred
-                }
-                // record.getCurrent() will return null if this record was created in this session --
-                // in this case, we just ignore it, and it will be cleaned up by clearing the records map.
-                if (record.getCurrent() != null) {
-                    Collection<FlowFileRecord> collection = recordMap.get(record.getDestination());
-                    if (collection == null) {
-                        collection = new ArrayList<>();
-                        recordMap.put(record.getDestination(), collection);
-                    }
-                    collection.add(record.getCurrent());
-                }
-            }
-
-            for (final Map.Entry<FlowFileQueue, Collection<FlowFileRecord>> entry : recordMap.entrySet()) {
+            for (final Map.Entry<FlowFileQueue, List<FlowFileRecord>> entry : recordsByQueue.entrySet()) {
                 entry.getKey().putAll(entry.getValue());
             }
 
@@ -541,9 +568,9 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
             flowFileEvent.setBytesSent(bytesSent);
 
             long lineageMillis = 0L;
-            for (final Map.Entry<FlowFileRecord, StandardRepositoryRecord> entry : checkpoint.records.entrySet()) {
-                final FlowFile flowFile = entry.getKey();
-                final long lineageDuration = System.currentTimeMillis() - flowFile.getLineageStartDate();
+            final long now = System.currentTimeMillis();
+            for (final FlowFile flowFile : checkpoint.records.keySet()) {
+                final long lineageDuration = now - flowFile.getLineageStartDate();
                 lineageMillis += lineageDuration;
             }
             flowFileEvent.setAggregateLineageMillis(lineageMillis);
@@ -718,6 +745,20 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
             }
         }
 
+        // Drop any event that the component's Provenance Event Policy samples out. Attributes are projected further below,
+        // once each event has been enriched with the committed attributes of its FlowFile.
+        final ProvenanceEventPolicy provenancePolicy = context.getProvenanceEventPolicy();
+        long droppedEvents = 0L;
+        if (provenancePolicy.isSampling()) {
+            final Iterator<ProvenanceEventRecord> sampleItr = recordsToSubmit.iterator();
+            while (sampleItr.hasNext()) {
+                if (provenancePolicy.isSampledOut(sampleItr.next())) {
+                    sampleItr.remove();
+                    droppedEvents++;
+                }
+            }
+        }
+
         // We want to submit the 'recordsToSubmit' collection, followed by the auto-terminated events to the Provenance Repository.
         // We want to do this with a single call to ProvenanceEventRepository#registerEvents because it may be much more efficient
         // to do so.
@@ -729,13 +770,14 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         // This is done in a similar veign to how Java 8's streams work, iterating over the events and returning a processed version
         // one-at-a-time as opposed to iterating over the entire Collection and putting the results in another Collection. However,
         // we don't want to change the Framework to require Java 8 at this time, because it's not yet as prevalent as we would desire
-        final Map<String, FlowFileRecord> flowFileRecordMap = new HashMap<>();
+        final Map<String, FlowFileRecord> flowFileRecordMap = new HashMap<>((int) (checkpoint.records.size() / 0.75f) + 1);
         for (final StandardRepositoryRecord repoRecord : checkpoint.records.values()) {
             final FlowFileRecord flowFile = repoRecord.getCurrent();
             flowFileRecordMap.put(flowFile.getAttribute(CoreAttributes.UUID.key()), flowFile);
         }
 
         final List<ProvenanceEventRecord> autoTermEvents = checkpoint.autoTerminatedEvents;
+        final AtomicLong projectedEvents = new AtomicLong(0L);
         final Iterable<ProvenanceEventRecord> iterable = new Iterable<ProvenanceEventRecord>() {
             final Iterator<ProvenanceEventRecord> recordsToSubmitIterator = recordsToSubmit.iterator();
             final Iterator<ProvenanceEventRecord> autoTermIterator = autoTermEvents == null ? null : autoTermEvents.iterator();
@@ -759,9 +801,9 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
                             // the representation of the FlowFile as it is committed, as this is the only way in which it really
                             // exists in our system -- all other representations are volatile representations that have not been
                             // exposed.
-                            return enrich(rawEvent, flowFileRecordMap, checkpoint.records, rawEvent.getEventType() != ProvenanceEventType.SEND);
+                            return project(enrich(rawEvent, flowFileRecordMap, checkpoint.records, rawEvent.getEventType() != ProvenanceEventType.SEND));
                         } else if (autoTermIterator != null && autoTermIterator.hasNext()) {
-                            return enrich(autoTermIterator.next(), flowFileRecordMap, checkpoint.records, true);
+                            return project(enrich(autoTermIterator.next(), flowFileRecordMap, checkpoint.records, true));
                         }
 
                         throw new NoSuchElementException();
@@ -771,11 +813,20 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
                     public void remove() {
                         throw new UnsupportedOperationException();
                     }
+
+                    private ProvenanceEventRecord project(final StandardProvenanceEventRecord event) {
+                        final StandardProvenanceEventRecord projected = provenancePolicy.project(event);
+                        if (projected != event) {
+                            projectedEvents.incrementAndGet();
+                        }
+                        return projected;
+                    }
                 };
             }
         };
 
         provenanceRepo.registerEvents(iterable);
+        context.recordProvenancePolicyResults(droppedEvents, projectedEvents.get());
     }
 
     private void updateEventContentClaims(final ProvenanceEventBuilder builder, final FlowFile flowFile, final StandardRepositoryRecord repoRecord) {
@@ -3007,6 +3058,85 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         return newFile;
     }
 
+    @Override
+    public FlowFile importFrom(final ReadableByteChannel source, final long length, FlowFile destination) {
+        verifyTaskActive();
+
+        destination = validateRecordState(destination);
+        final StandardRepositoryRecord record = records.get(destination);
+        ContentClaim newClaim = null;
+        final long claimOffset = 0L;
+
+        final long newSize;
+        try {
+            try {
+                newClaim = context.getContentRepository().create(context.getConnectable().isLossTolerant());
+                claimLog.debug("Creating ContentClaim {} for 'importFrom' for {}", newClaim, destination);
+
+                newSize = context.getContentRepository().importFrom(source, length, newClaim);
+                bytesWritten += newSize;
+            } catch (final IOException e) {
+                throw new FlowFileAccessException("Unable to create ContentClaim due to " + e.toString(), e);
+            }
+        } catch (final Throwable t) {
+            if (newClaim != null) {
+                destroyContent(newClaim);
+            }
+
+            throw new FlowFileAccessException("Failed to import data from " + source + " for " + destination + " due to " + t.toString(), t);
+        }
+
+        removeTemporaryClaim(record);
+        final FlowFileRecord newFile = new StandardFlowFileRecord.Builder()
+            .fromFlowFile(record.getCurrent())
+            .contentClaim(newClaim)
+            .contentClaimOffset(claimOffset)
+            .size(newSize)
+            .build();
+        record.setWorking(newFile);
+        return newFile;
+    }
+
+    @Override
+    public boolean readFileRegion(FlowFile source, final FileRegionCallback callback) throws IOException {
+        verifyTaskActive();
+
+        source = validateRecordState(source, true);
+        final StandardRepositoryRecord record = records.get(source);
+        final ContentClaim claim = record.getCurrentClaim();
+        if (claim == null || source.getSize() == 0L) {
+            return false;
+        }
+
+        final Path contentPath;
+        try {
+            ensureNotAppending(claim);
+            claimCache.flush(claim);
+            contentPath = context.getContentRepository().getContentPath(claim);
+        } catch (final ContentNotFoundException nfe) {
+            handleContentNotFound(nfe, record);
+            return false;
+        } catch (final IOException e) {
+            throw new FlowFileAccessException("Failed to access ContentClaim for " + source.toString(), e);
+        }
+
+        if (contentPath == null) {
+            return false;
+        }
+
+        try (final FileChannel channel = FileChannel.open(contentPath, StandardOpenOption.READ)) {
+            incrementReadCount(source);
+            try {
+                callback.process(channel, claim.getOffset() + record.getCurrentClaimOffset(), source.getSize());
+            } finally {
+                decrementReadCount(source);
+            }
+        }
+
+        bytesRead += source.getSize();
+        return true;
+    }
+
     @Override
     public void exportTo(FlowFile source, final Path destination, final boolean append) {
         verifyTaskActive();
@@ -46,8 +46,10 @@ import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.NiFiProperties;
+import org.apache.nifi.wali.GroupCommitSync;
 import org.apache.nifi.wali.SequentialAccessWriteAheadLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,6 +79,17 @@ import org.wali.WriteAheadRepository;
  * choose instead to not sync to disk for every write but instead sync only when
  * we checkpoint.
  * </p>
+ *
+ * <p>
+ * As a middle ground, when using the SequentialAccessWriteAheadLog, the
+ * <code>nifi.flowfile.repository.group.commit.max.delay</code> property may be set
+ * to a positive time period. In this case, every update is synced to disk before
+ * it returns, but updates that are made concurrently are gathered together and
+ * share a single sync. The first update of each group waits up to the configured
+ * delay, or until the group has written
+ * <code>nifi.flowfile.repository.group.commit.max.size</code> bytes, before
+ * syncing on behalf of the entire group.
+ * </p>
  */
 public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncListener {
     private static final String FLOWFILE_REPOSITORY_DIRECTORY_PREFIX = "nifi.flowfile.repository.directory";
@@ -91,6 +104,8 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
 
     private final AtomicLong flowFileSequenceGenerator = new AtomicLong(0L);
     private final boolean alwaysSync;
+    private final long groupCommitMaxDelayNanos;
+    private final long groupCommitMaxBytes;
 
     private static final Logger logger = LoggerFactory.getLogger(WriteAheadFlowFileRepository.class);
     private volatile ScheduledFuture<?> checkpointFuture;
@@ -103,6 +118,7 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
 
     // effectively final
     private WriteAheadRepository<RepositoryRecord> wal;
+    private GroupCommitSync groupCommitSync;
     private RepositoryRecordSerdeFactory serdeFactory;
     private ResourceClaimManager claimManager;
 
@@ -134,6 +150,8 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
      */
     public WriteAheadFlowFileRepository() {
         alwaysSync = false;
+        groupCommitMaxDelayNanos = 0L;
+        groupCommitMaxBytes = 0L;
         checkpointDelayMillis = 0l;
         numPartitions = 0;
         checkpointExecutor = null;
@@ -143,6 +161,8 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
 
     public WriteAheadFlowFileRepository(final NiFiProperties nifiProperties) {
         alwaysSync = Boolean.parseBoolean(nifiProperties.getProperty(NiFiProperties.FLOWFILE_REPOSITORY_ALWAYS_SYNC, "false"));
+        groupCommitMaxDelayNanos = FormatUtils.getTimeDuration(nifiProperties.getFlowFileRepositoryGroupCommitMaxDelay(), TimeUnit.NANOSECONDS);
+        groupCommitMaxBytes = DataUnit.parseDataSize(nifiProperties.getFlowFileRepositoryGroupCommitMaxSize(), DataUnit.B).longValue();
         this.nifiProperties = nifiProperties;
 
         // determine the database file path and ensure it exists
@@ -191,7 +211,13 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
         serdeFactory = new RepositoryRecordSerdeFactory(claimManager);
 
         if (walImplementation.equals(SEQUENTIAL_ACCESS_WAL)) {
-            wal = new SequentialAccessWriteAheadLog<>(flowFileRepositoryPaths.get(0), serdeFactory, this);
+            if (groupCommitMaxDelayNanos > 0L) {
+                groupCommitSync = new GroupCommitSync(groupCommitMaxDelayNanos, TimeUnit.NANOSECONDS, groupCommitMaxBytes);
+                logger.info("FlowFile Repository will use group commit with a maximum delay of {} and a maximum size of {}",
+                    nifiProperties.getFlowFileRepositoryGroupCommitMaxDelay(), nifiProperties.getFlowFileRepositoryGroupCommitMaxSize());
+            }
+
+            wal = new SequentialAccessWriteAheadLog<>(flowFileRepositoryPaths.get(0), serdeFactory, this, groupCommitSync);
         } else if (walImplementation.equals(MINIMAL_LOCKING_WALI)) {
             final SortedSet<Path> paths = flowFileRepositoryPaths.stream()
                 .map(File::toPath)
@@ -254,7 +280,7 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
 
     @Override
     public void updateRepository(final Collection<RepositoryRecord> records) throws IOException {
-        updateRepository(records, alwaysSync);
+        updateRepository(records, alwaysSync || groupCommitSync != null);
     }
 
     private void markDestructable(final ResourceClaim resourceClaim) {
@@ -606,6 +632,9 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
                     final long end = System.nanoTime();
                     final long millis = TimeUnit.MILLISECONDS.convert(end - start, TimeUnit.NANOSECONDS);
                     logger.info("Successfully checkpointed FlowFile Repository with {} records in {} milliseconds", numRecordsCheckpointed, millis);
+                    if (groupCommitSync != null) {
+                        logger.info("FlowFile Repository group commit statistics: {}", groupCommitSync);
+                    }
                 } catch (final Throwable t) {
                     logger.error("Unable to checkpoint FlowFile Repository due to " + t.toString(), t);
                 }
@@ -631,4 +660,11 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
     public int checkpoint() throws IOException {
         return wal.checkpoint();
     }
+
+    /**
+     * @return the group commit coordinator used by the FlowFile Repository, or <code>null</code> if group commit is not enabled
+     */
+    public GroupCommitSync getGroupCommitSync() {
+        return groupCommitSync;
+    }
 }
@@ -23,6 +23,7 @@ import org.apache.nifi.controller.repository.ContentRepository;
 import org.apache.nifi.controller.repository.CounterRepository;
 import org.apache.nifi.controller.repository.FlowFileEventRepository;
 import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.ProvenanceEventPolicyStatistics;
 import org.apache.nifi.controller.repository.RepositoryContext;
 import org.apache.nifi.provenance.ProvenanceEventRepository;
 
@@ -33,19 +34,27 @@ public class RepositoryContextFactory {
     private final FlowFileEventRepository flowFileEventRepo;
     private final CounterRepository counterRepo;
     private final ProvenanceEventRepository provenanceRepo;
+    private final ProvenanceEventPolicyStatistics provenancePolicyStatistics;
 
     public RepositoryContextFactory(final ContentRepository contentRepository, final FlowFileRepository flowFileRepository,
             final FlowFileEventRepository flowFileEventRepository, final CounterRepository counterRepository,
             final ProvenanceEventRepository provenanceRepository) {
+        this(contentRepository, flowFileRepository, flowFileEventRepository, counterRepository, provenanceRepository, new ProvenanceEventPolicyStatistics());
+    }
+
+    public RepositoryContextFactory(final ContentRepository contentRepository, final FlowFileRepository flowFileRepository,
+            final FlowFileEventRepository flowFileEventRepository, final CounterRepository counterRepository,
+            final ProvenanceEventRepository provenanceRepository, final ProvenanceEventPolicyStatistics provenancePolicyStatistics) {
 
         this.contentRepo = contentRepository;
         this.flowFileRepo = flowFileRepository;
         this.flowFileEventRepo = flowFileEventRepository;
         this.counterRepo = counterRepository;
         this.provenanceRepo = provenanceRepository;
+        this.provenancePolicyStatistics = provenancePolicyStatistics;
     }
 
     public RepositoryContext newProcessContext(final Connectable connectable, final AtomicLong connectionIndex) {
-        return new RepositoryContext(connectable, connectionIndex, contentRepo, flowFileRepo, flowFileEventRepo, counterRepo, provenanceRepo);
+        return new RepositoryContext(connectable, connectionIndex, contentRepo, flowFileRepo, flowFileEventRepo, counterRepo, provenanceRepo, provenancePolicyStatistics);
     }
 }
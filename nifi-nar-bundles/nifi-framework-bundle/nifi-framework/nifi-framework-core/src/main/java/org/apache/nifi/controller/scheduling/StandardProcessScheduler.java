@@ -20,7 +20,9 @@ import static java.util.Objects.requireNonNull;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -57,6 +59,7 @@ import org.apache.nifi.processor.Processor;
 import org.apache.nifi.processor.SimpleProcessLogger;
 import org.apache.nifi.processor.StandardProcessContext;
 import org.apache.nifi.reporting.ReportingTask;
+import org.apache.nifi.scheduling.ExecutionMode;
 import org.apache.nifi.scheduling.SchedulingStrategy;
 import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.NiFiProperties;
@@ -82,6 +85,7 @@ public final class StandardProcessScheduler implements ProcessScheduler {
     private final ConcurrentMap<Object, LifecycleState> lifecycleStates = new ConcurrentHashMap<>();
     private final ScheduledExecutorService frameworkTaskExecutor;
     private final ConcurrentMap<SchedulingStrategy, SchedulingAgent> strategyAgentMap = new ConcurrentHashMap<>();
+    private volatile SchedulingAgent virtualThreadSchedulingAgent;
 
     // thread pool for starting/stopping components
     private final ScheduledExecutorService componentLifeCycleThreadPool;
@@ -151,13 +155,35 @@ public final class StandardProcessScheduler implements ProcessScheduler {
         return strategyAgentMap.get(strategy);
     }
 
+    /**
+     * Sets the agent that runs Timer-Driven Processors whose Execution Mode is {@link ExecutionMode#VIRTUAL_THREADS}
+     *
+     * @param agent the agent
+     */
+    public void setVirtualThreadSchedulingAgent(final SchedulingAgent agent) {
+        this.virtualThreadSchedulingAgent = agent;
+    }
+
+    @SuppressWarnings("deprecation")
     private SchedulingAgent getSchedulingAgent(final Connectable connectable) {
-        return getSchedulingAgent(connectable.getSchedulingStrategy());
+        final SchedulingStrategy schedulingStrategy = connectable.getSchedulingStrategy();
+        final boolean timerDriven = schedulingStrategy == SchedulingStrategy.TIMER_DRIVEN || schedulingStrategy == SchedulingStrategy.PRIMARY_NODE_ONLY;
+        if (timerDriven && virtualThreadSchedulingAgent != null && connectable instanceof ProcessorNode
+            && ((ProcessorNode) connectable).getExecutionMode() == ExecutionMode.VIRTUAL_THREADS) {
+            return virtualThreadSchedulingAgent;
+        }
+
+        return getSchedulingAgent(schedulingStrategy);
     }
 
     @Override
     public void shutdown() {
-        for (final SchedulingAgent schedulingAgent : strategyAgentMap.values()) {
+        final Set<SchedulingAgent> schedulingAgents = new HashSet<>(strategyAgentMap.values());
+        if (virtualThreadSchedulingAgent != null) {
+            schedulingAgents.add(virtualThreadSchedulingAgent);
+        }
+
+        for (final SchedulingAgent schedulingAgent : schedulingAgents) {
             try {
                 schedulingAgent.shutdown();
             } catch (final Throwable t) {
@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.ReportingTaskNode;
+import org.apache.nifi.controller.tasks.ConnectableTask;
+import org.apache.nifi.controller.tasks.InvocationResult;
+import org.apache.nifi.encrypt.StringEncryptor;
+import org.apache.nifi.engine.FlowEngine;
+import org.apache.nifi.nar.NarThreadContextClassLoader;
+import org.apache.nifi.scheduling.ExecutionMode;
+import org.apache.nifi.util.FormatUtils;
+import org.apache.nifi.util.NiFiProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Runs the tasks of Timer-Driven Processors whose {@link ExecutionMode} is {@link ExecutionMode#VIRTUAL_THREADS}.
+ * Each concurrent task of such a Processor is a loop on its own virtual thread that invokes the Processor, then
+ * sleeps for its Run Schedule, its yield or the bored yield duration, in the same way that the
+ * {@link TimerDrivenSchedulingAgent} would re-schedule it. A virtual thread that is blocked on I/O or sleeping
+ * does not hold an operating system thread, so these Processors can have hundreds of concurrent tasks without
+ * taking threads away from the Timer-Driven thread pool.
+ * </p>
+ *
+ * <p>
+ * The number of tasks that may be invoking Processors at the same time, across all Processors, is bounded by
+ * {@link NiFiProperties#VIRTUAL_THREAD_MAX_CONCURRENT_TASKS}. If the JVM does not support virtual threads, the
+ * loops run on a dedicated pool of platform threads instead.
+ * </p>
+ */
+public class VirtualThreadSchedulingAgent extends AbstractSchedulingAgent {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadSchedulingAgent.class);
+
+    private static final String THREAD_NAME_PREFIX = "Virtual-Thread Process Thread-";
+
+    private final FlowController flowController;
+    private final RepositoryContextFactory contextFactory;
+    private final StringEncryptor encryptor;
+    private final int exceptionToleranceCount;
+    private final long noWorkYieldNanos;
+    private final Semaphore concurrentTaskPermits;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    private final ConcurrentMap<Connectable, ScheduledComponent> scheduledComponents = new ConcurrentHashMap<>();
+    private final AtomicInteger activeThreadCount = new AtomicInteger(0);
+
+    private volatile String adminYieldDuration = "1 sec";
+
+    public VirtualThreadSchedulingAgent(final FlowController flowController, final FlowEngine flowEngine, final RepositoryContextFactory contextFactory,
+            final StringEncryptor encryptor, final NiFiProperties nifiProperties) {
+        super(flowEngine);
+        this.flowController = flowController;
+        this.contextFactory = contextFactory;
+        this.encryptor = encryptor;
+        this.exceptionToleranceCount = nifiProperties.getExceptionToleranceCount();
+
+        final String boredYieldDuration = nifiProperties.getBoredYieldDuration();
+        try {
+            noWorkYieldNanos = FormatUtils.getTimeDuration(boredYieldDuration, TimeUnit.NANOSECONDS);
+        } catch (final IllegalArgumentException e) {
+            throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.BORED_YIELD_DURATION + " property is set to an invalid time duration: " + boredYieldDuration);
+        }
+
+        final int maxConcurrentTasks = nifiProperties.getVirtualThreadMaxConcurrentTasks();
+        if (maxConcurrentTasks < 1) {
+            throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.VIRTUAL_THREAD_MAX_CONCURRENT_TASKS + " property must be at least 1 but is "
+                + maxConcurrentTasks);
+        }
+        this.concurrentTaskPermits = new Semaphore(maxConcurrentTasks, true);
+
+        ExecutorService virtualThreadExecutor = null;
+        try {
+            virtualThreadExecutor = createVirtualThreadExecutor();
+        } catch (final Exception e) {
+            logger.debug("Virtual threads are not available in this JVM", e);
+        }
+
+        if (virtualThreadExecutor == null) {
+            logger.info("Virtual threads are not supported by this JVM; Processors with an Execution Mode of {} will run on a dedicated pool of platform threads, "
+                + "with at most {} of them running at once", ExecutionMode.VIRTUAL_THREADS, maxConcurrentTasks);
+            this.executor = createPlatformThreadExecutor();
+            this.virtualThreads = false;
+        } else {
+            this.executor = virtualThreadExecutor;
+            this.virtualThreads = true;
+        }
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task. The Java 21 API is called reflectively
+     * so that the framework can still be built and run on earlier versions of Java.
+     */
+    private static ExecutorService createVirtualThreadExecutor() throws Exception {
+        final Method ofVirtual;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+        } catch (final NoSuchMethodException nsme) {
+            return null;
+        }
+
+        final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        final Object builder = builderClass.getMethod("name", String.class, long.class).invoke(ofVirtual.invoke(null), THREAD_NAME_PREFIX, 1L);
+        final ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory);
+    }
+
+    private static ExecutorService createPlatformThreadExecutor() {
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        return Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadIndex.incrementAndGet());
+            thread.setContextClassLoader(NarThreadContextClassLoader.getInstance());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isVirtualThreadsSupported() {
+        return virtualThreads;
+    }
+
+    public int getActiveThreadCount() {
+        return activeThreadCount.get();
+    }
+
+    @Override
+    public void shutdown() {
+        for (final ScheduledComponent component : scheduledComponents.values()) {
+            component.cancel();
+        }
+
+        executor.shutdown();
+    }
+
+    @Override
+    public void doSchedule(final ReportingTaskNode taskNode, final LifecycleState scheduleState) {
+        throw new UnsupportedOperationException("ReportingTasks cannot be scheduled on virtual threads");
+    }
+
+    @Override
+    public void doUnschedule(final ReportingTaskNode taskNode, final LifecycleState scheduleState) {
+        throw new UnsupportedOperationException("ReportingTasks cannot be scheduled on virtual threads");
+    }
+
+    @Override
+    public void doSchedule(final Connectable connectable, final LifecycleState scheduleState) {
+        final ConnectableTask connectableTask = new ConnectableTask(this, connectable, flowController, contextFactory, scheduleState, encryptor);
+        connectableTask.setExceptionToleranceCount(this.exceptionToleranceCount);
+
+        final ScheduledComponent component = new ScheduledComponent(connectableTask, scheduleState);
+        final ScheduledComponent previous = scheduledComponents.put(connectable, component);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        final int taskCount = Math.max(1, connectable.getMaxConcurrentTasks());
+        try {
+            for (int i = 0; i < taskCount; i++) {
+                executor.execute(component);
+            }
+        } catch (final RejectedExecutionException ree) {
+            logger.warn("Could not start all {} tasks of {} because the scheduling agent has been shut down", taskCount, connectable);
+        }
+
+        logger.info("Scheduled {} to run with {} {} threads", connectable, taskCount, virtualThreads ? "virtual" : "dedicated");
+    }
+
+    @Override
+    public void doUnschedule(final Connectable connectable, final LifecycleState scheduleState) {
+        final ScheduledComponent component = scheduledComponents.remove(connectable);
+        if (component != null) {
+            // stop scheduling to run but do not interrupt currently running tasks.
+            component.cancel();
+        }
+
+        logger.info("Stopped scheduling {} to run", connectable);
+    }
+
+    @Override
+    public void onEvent(final Connectable connectable) {
+        final ScheduledComponent component = scheduledComponents.get(connectable);
+        if (component != null) {
+            component.onEvent();
+        }
+    }
+
+    @Override
+    public void setMaxThreadCount(final int maxThreads) {
+    }
+
+    @Override
+    public void incrementMaxThreadCount(final int toAdd) {
+    }
+
+    @Override
+    public void setAdministrativeYieldDuration(final String yieldDuration) {
+        this.adminYieldDuration = yieldDuration;
+    }
+
+    @Override
+    public String getAdministrativeYieldDuration() {
+        return adminYieldDuration;
+    }
+
+    @Override
+    public long getAdministrativeYieldDuration(final TimeUnit timeUnit) {
+        return FormatUtils.getTimeDuration(adminYieldDuration, timeUnit);
+    }
+
+
+    /**
+     * The loop that is run by each concurrent task of a scheduled component. Sleeping is done on a {@link Condition} rather
+     * than with {@link Thread#sleep(long)} so that idle tasks can be woken as soon as FlowFiles are queued for the component
+     * and so that stopping the component does not have to wait for the tasks' sleep to end. A {@link ReentrantLock} is used
+     * instead of a monitor so that a waiting virtual thread does not pin its carrier thread.
+     */
+    private class ScheduledComponent implements Runnable {
+        private final ConnectableTask connectableTask;
+        private final Connectable connectable;
+        private final LifecycleState scheduleState;
+
+        private final Lock lock = new ReentrantLock();
+        private final Condition wakeup = lock.newCondition();
+        private volatile boolean cancelled = false;
+        private volatile long eventCount = 0L;
+
+        ScheduledComponent(final ConnectableTask connectableTask, final LifecycleState scheduleState) {
+            this.connectableTask = connectableTask;
+            this.connectable = connectableTask.getConnectable();
+            this.scheduleState = scheduleState;
+        }
+
+        void onEvent() {
+            lock.lock();
+            try {
+                eventCount++;
+                wakeup.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                wakeup.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isScheduled() {
+            return !cancelled && scheduleState.isScheduled();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (isScheduled()) {
+                    final long schedulingNanos = connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS);
+                    final long yieldMillis = connectable.getYieldExpiration() - System.currentTimeMillis();
+                    if (yieldMillis > 0L) {
+                        pause(Math.max(schedulingNanos, TimeUnit.MILLISECONDS.toNanos(yieldMillis)), false);
+                        continue;
+                    }
+
+                    final long eventCountBeforeInvocation = eventCount;
+                    final InvocationResult invocationResult;
+                    concurrentTaskPermits.acquire();
+                    activeThreadCount.incrementAndGet();
+                    try {
+                        invocationResult = connectableTask.invoke();
+                    } finally {
+                        activeThreadCount.decrementAndGet();
+                        concurrentTaskPermits.release();
+                    }
+
+                    final long newYieldMillis = connectable.getYieldExpiration() - System.currentTimeMillis();
+                    if (newYieldMillis > 0L) {
+                        pause(Math.max(schedulingNanos, TimeUnit.MILLISECONDS.toNanos(newYieldMillis)), false);
+                    } else if (invocationResult.isYield()) {
+                        logger.debug("Yielding {} due to {}", connectable, invocationResult.getYieldExplanation());
+
+                        // Don't go to sleep if FlowFiles were queued for the component while it was checking for work.
+                        if (eventCount == eventCountBeforeInvocation) {
+                            pause(Math.max(schedulingNanos, noWorkYieldNanos), true);
+                        }
+                    } else if (schedulingNanos > 0L) {
+                        pause(schedulingNanos, false);
+                    }
+                }
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Waits for the given amount of time, or until the component is unscheduled. If interruptibleByEvent is true, the
+         * wait also ends when FlowFiles are queued for the component.
+         */
+        private void pause(final long nanos, final boolean interruptibleByEvent) throws InterruptedException {
+            if (nanos <= 0L) {
+                return;
+            }
+
+            lock.lock();
+            try {
+                final long startEventCount = eventCount;
+                long remainingNanos = nanos;
+                while (remainingNanos > 0L && !cancelled) {
+                    if (interruptibleByEvent && eventCount != startEventCount) {
+                        return;
+                    }
+
+                    remainingNanos = wakeup.awaitNanos(remainingNanos);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
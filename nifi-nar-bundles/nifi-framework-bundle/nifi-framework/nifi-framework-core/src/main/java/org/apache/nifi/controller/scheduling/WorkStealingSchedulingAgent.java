@@ -0,0 +1,384 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.ReportingTaskNode;
+import org.apache.nifi.controller.tasks.ConnectableTask;
+import org.apache.nifi.controller.tasks.InvocationResult;
+import org.apache.nifi.controller.tasks.ReportingTaskWrapper;
+import org.apache.nifi.encrypt.StringEncryptor;
+import org.apache.nifi.engine.FlowEngine;
+import org.apache.nifi.nar.NarThreadContextClassLoader;
+import org.apache.nifi.util.FormatUtils;
+import org.apache.nifi.util.NiFiProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * An alternative to the {@link TimerDrivenSchedulingAgent} that runs Timer-Driven components on a work-stealing
+ * {@link ForkJoinPool} instead of giving each concurrent task of each component its own fixed-delay timer.
+ * </p>
+ *
+ * <p>
+ * As long as a component has work to do, each of its concurrent tasks is re-submitted to the pool as soon as it
+ * finishes (or after the component's Run Schedule, if one is configured), so that busy components never wait for
+ * a timer tick. When a component has no work to do, its tasks are parked and a single wake-up is scheduled after an
+ * idle back-off that doubles on each consecutive idle invocation, starting at the bored yield duration and bounded
+ * by the {@link NiFiProperties#TIMER_DRIVEN_MAX_IDLE_BACKOFF max idle back-off}. A parked component is woken
+ * immediately when FlowFiles are added to one of its incoming connections, or when one of its outgoing connections
+ * is drained, via {@link #onEvent(Connectable)}.
+ * </p>
+ *
+ * <p>
+ * The {@link FlowEngine} is still used to run Reporting Tasks and to fire delayed wake-ups, but components are
+ * never triggered on its threads.
+ * </p>
+ */
+public class WorkStealingSchedulingAgent extends AbstractSchedulingAgent {
+
+    public static final String SCHEDULING_MODE = "work-stealing";
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkStealingSchedulingAgent.class);
+
+    private final FlowController flowController;
+    private final RepositoryContextFactory contextFactory;
+    private final StringEncryptor encryptor;
+    private final int exceptionToleranceCount;
+    private final long minIdleBackoffNanos;
+    private final long maxIdleBackoffNanos;
+
+    private final ConcurrentMap<Connectable, ComponentTrigger> triggers = new ConcurrentHashMap<>();
+    private final AtomicInteger activeThreadCount = new AtomicInteger(0);
+    private final AtomicInteger threadIndex = new AtomicInteger(0);
+    private volatile ForkJoinPool workerPool;
+
+    private volatile String adminYieldDuration = "1 sec";
+
+    public WorkStealingSchedulingAgent(final FlowController flowController, final FlowEngine flowEngine, final RepositoryContextFactory contextFactory,
+            final StringEncryptor encryptor, final NiFiProperties nifiProperties, final int maxThreadCount) {
+        super(flowEngine);
+        this.flowController = flowController;
+        this.contextFactory = contextFactory;
+        this.encryptor = encryptor;
+        this.exceptionToleranceCount = nifiProperties.getExceptionToleranceCount();
+
+        final String boredYieldDuration = nifiProperties.getBoredYieldDuration();
+        try {
+            // A bored yield duration of 0 disables the yield of the Timer-Driven agent, but an idle back-off must start somewhere.
+            minIdleBackoffNanos = Math.max(FormatUtils.getTimeDuration(boredYieldDuration, TimeUnit.NANOSECONDS), TimeUnit.MILLISECONDS.toNanos(1L));
+        } catch (final IllegalArgumentException e) {
+            throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.BORED_YIELD_DURATION + " property is set to an invalid time duration: " + boredYieldDuration);
+        }
+
+        final String maxIdleBackoff = nifiProperties.getTimerDrivenMaxIdleBackoff();
+        try {
+            maxIdleBackoffNanos = Math.max(FormatUtils.getTimeDuration(maxIdleBackoff, TimeUnit.NANOSECONDS), minIdleBackoffNanos);
+        } catch (final IllegalArgumentException e) {
+            throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.TIMER_DRIVEN_MAX_IDLE_BACKOFF + " property is set to an invalid time duration: " + maxIdleBackoff);
+        }
+
+        this.workerPool = createWorkerPool(maxThreadCount);
+    }
+
+    private ForkJoinPool createWorkerPool(final int parallelism) {
+        final ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Work-Stealing Process Thread-" + threadIndex.incrementAndGet());
+            thread.setContextClassLoader(NarThreadContextClassLoader.getInstance());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // asyncMode gives FIFO ordering of locally submitted tasks, so that a component that re-submits itself goes to the
+        // back of its worker's queue rather than starving the components that were woken before it.
+        return new ForkJoinPool(Math.max(1, parallelism), threadFactory, null, true);
+    }
+
+    public int getActiveThreadCount() {
+        return activeThreadCount.get();
+    }
+
+    @Override
+    public void shutdown() {
+        workerPool.shutdown();
+        flowEngine.shutdown();
+    }
+
+    @Override
+    public void doSchedule(final ReportingTaskNode taskNode, final LifecycleState scheduleState) {
+        final Runnable reportingTaskWrapper = new ReportingTaskWrapper(taskNode, scheduleState);
+        final long schedulingNanos = taskNode.getSchedulingPeriod(TimeUnit.NANOSECONDS);
+
+        final ScheduledFuture<?> future = flowEngine.scheduleWithFixedDelay(reportingTaskWrapper, 0L, schedulingNanos, TimeUnit.NANOSECONDS);
+        final List<ScheduledFuture<?>> futures = new ArrayList<>(1);
+        futures.add(future);
+        scheduleState.setFutures(futures);
+
+        logger.info("{} started.", taskNode.getReportingTask());
+    }
+
+    @Override
+    public void doSchedule(final Connectable connectable, final LifecycleState scheduleState) {
+        final ConnectableTask connectableTask = new ConnectableTask(this, connectable, flowController, contextFactory, scheduleState, encryptor);
+        connectableTask.setExceptionToleranceCount(this.exceptionToleranceCount);
+
+        final ComponentTrigger trigger = new ComponentTrigger(connectableTask, scheduleState, connectable.getMaxConcurrentTasks());
+        final ComponentTrigger previous = triggers.put(connectable, trigger);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        trigger.wakeIdleTasks(1);
+        logger.info("Scheduled {} to run with up to {} concurrent tasks on the work-stealing pool", connectable, connectable.getMaxConcurrentTasks());
+    }
+
+    @Override
+    public void doUnschedule(final Connectable connectable, final LifecycleState scheduleState) {
+        final ComponentTrigger trigger = triggers.remove(connectable);
+        if (trigger != null) {
+            // stop scheduling to run but do not interrupt currently running tasks.
+            trigger.cancel();
+        }
+
+        logger.info("Stopped scheduling {} to run", connectable);
+    }
+
+    @Override
+    public void doUnschedule(final ReportingTaskNode taskNode, final LifecycleState scheduleState) {
+        for (final ScheduledFuture<?> future : scheduleState.getFutures()) {
+            // stop scheduling to run but do not interrupt currently running tasks.
+            future.cancel(false);
+        }
+
+        logger.info("Stopped scheduling {} to run", taskNode.getReportingTask());
+    }
+
+    @Override
+    public void onEvent(final Connectable connectable) {
+        final ComponentTrigger trigger = triggers.get(connectable);
+        if (trigger != null) {
+            trigger.onEvent();
+        }
+    }
+
+    @Override
+    public void setAdministrativeYieldDuration(final String yieldDuration) {
+        this.adminYieldDuration = yieldDuration;
+    }
+
+    @Override
+    public String getAdministrativeYieldDuration() {
+        return adminYieldDuration;
+    }
+
+    @Override
+    public long getAdministrativeYieldDuration(final TimeUnit timeUnit) {
+        return FormatUtils.getTimeDuration(adminYieldDuration, timeUnit);
+    }
+
+    @Override
+    public void setMaxThreadCount(final int maxThreads) {
+        replaceWorkerPool(maxThreads);
+    }
+
+    @Override
+    public void incrementMaxThreadCount(final int toAdd) {
+        final int corePoolSize = flowEngine.getCorePoolSize();
+        if (toAdd < 0 && corePoolSize + toAdd < 1) {
+            throw new IllegalStateException("Cannot remove " + (-toAdd) + " threads from pool because there are only " + corePoolSize + " threads in the pool");
+        }
+
+        flowEngine.setCorePoolSize(corePoolSize + toAdd);
+        replaceWorkerPool(workerPool.getParallelism() + toAdd);
+    }
+
+    /**
+     * The parallelism of a ForkJoinPool is fixed, so the pool is replaced instead. Tasks that are already queued
+     * in the previous pool still run there, and re-submit themselves to the new pool when they finish.
+     */
+    private synchronized void replaceWorkerPool(final int parallelism) {
+        final ForkJoinPool previous = workerPool;
+        if (previous.getParallelism() == parallelism) {
+            return;
+        }
+
+        workerPool = createWorkerPool(parallelism);
+        previous.shutdown();
+        logger.info("Work-stealing pool parallelism changed from {} to {}", previous.getParallelism(), parallelism);
+    }
+
+    private void submit(final Runnable task) {
+        while (true) {
+            final ForkJoinPool pool = workerPool;
+            try {
+                pool.execute(task);
+                return;
+            } catch (final RejectedExecutionException ree) {
+                // the pool was either replaced, in which case we try again, or shut down along with the agent.
+                if (pool == workerPool) {
+                    return;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Tracks the concurrent tasks of a single scheduled component. The tasks are not individual objects: this
+     * trigger is submitted to the pool once per running task, and {@link #idleTasks} counts how many more times
+     * it may be submitted before the component reaches its Max Concurrent Tasks.
+     */
+    private class ComponentTrigger implements Runnable {
+        private final ConnectableTask connectableTask;
+        private final Connectable connectable;
+        private final LifecycleState scheduleState;
+        private final AtomicInteger idleTasks;
+
+        private volatile boolean cancelled = false;
+        private volatile long idleBackoffNanos = 0L;
+
+        // guarded by this
+        private ScheduledFuture<?> wakeupFuture;
+        private long wakeupNanoTime;
+
+        ComponentTrigger(final ConnectableTask connectableTask, final LifecycleState scheduleState, final int maxConcurrentTasks) {
+            this.connectableTask = connectableTask;
+            this.connectable = connectableTask.getConnectable();
+            this.scheduleState = scheduleState;
+            this.idleTasks = new AtomicInteger(Math.max(1, maxConcurrentTasks));
+        }
+
+        void onEvent() {
+            idleBackoffNanos = 0L;
+            wakeIdleTasks(1);
+        }
+
+        void cancel() {
+            cancelled = true;
+
+            synchronized (this) {
+                if (wakeupFuture != null) {
+                    wakeupFuture.cancel(false);
+                    wakeupFuture = null;
+                }
+            }
+        }
+
+        /**
+         * Submits up to the given number of the component's idle tasks to the pool.
+         */
+        void wakeIdleTasks(final int maxTasks) {
+            for (int i = 0; i < maxTasks && !cancelled; i++) {
+                int idle;
+                do {
+                    idle = idleTasks.get();
+                    if (idle < 1) {
+                        return;
+                    }
+                } while (!idleTasks.compareAndSet(idle, idle - 1));
+
+                submit(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled || !scheduleState.isScheduled()) {
+                idleTasks.incrementAndGet();
+                return;
+            }
+
+            final long schedulingNanos = connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS);
+            final long yieldMillis = connectable.getYieldExpiration() - System.currentTimeMillis();
+            if (yieldMillis > 0L) {
+                park(Math.max(schedulingNanos, TimeUnit.MILLISECONDS.toNanos(yieldMillis)));
+                return;
+            }
+
+            // If the task throws, this concurrent task is not re-submitted, just as a Timer-Driven task's future would stop.
+            final InvocationResult invocationResult;
+            activeThreadCount.incrementAndGet();
+            try {
+                invocationResult = connectableTask.invoke();
+            } finally {
+                activeThreadCount.decrementAndGet();
+            }
+
+            final long newYieldMillis = connectable.getYieldExpiration() - System.currentTimeMillis();
+            if (newYieldMillis > 0L) {
+                park(Math.max(schedulingNanos, TimeUnit.MILLISECONDS.toNanos(newYieldMillis)));
+            } else if (invocationResult.isYield()) {
+                logger.debug("Parking {} due to {}", connectable, invocationResult.getYieldExplanation());
+
+                final long backoffNanos = Math.min(Math.max(idleBackoffNanos * 2, minIdleBackoffNanos), maxIdleBackoffNanos);
+                idleBackoffNanos = backoffNanos;
+                park(Math.max(schedulingNanos, backoffNanos));
+            } else {
+                idleBackoffNanos = 0L;
+
+                // There is work to do, so let another of the component's tasks help with it, if it has any to spare.
+                wakeIdleTasks(1);
+
+                if (schedulingNanos > 0L) {
+                    flowEngine.schedule(() -> submit(this), schedulingNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    submit(this);
+                }
+            }
+        }
+
+        /**
+         * Returns the running task to the idle tasks and makes sure that one of them is woken up after the given delay.
+         * A component has at most one pending wake-up, so that parking many concurrent tasks schedules a single timer.
+         */
+        private void park(final long delayNanos) {
+            idleTasks.incrementAndGet();
+
+            final long wakeupTime = System.nanoTime() + delayNanos;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+
+                if (wakeupFuture != null && !wakeupFuture.isDone()) {
+                    if (wakeupNanoTime - wakeupTime <= 0L) {
+                        return;
+                    }
+
+                    wakeupFuture.cancel(false);
+                }
+
+                wakeupNanoTime = wakeupTime;
+                wakeupFuture = flowEngine.schedule(() -> wakeIdleTasks(1), delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
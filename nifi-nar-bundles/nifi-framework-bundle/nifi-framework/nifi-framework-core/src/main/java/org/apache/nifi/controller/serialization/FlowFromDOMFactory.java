@@ -35,6 +35,7 @@ import org.apache.nifi.groups.ProcessAdditions;
 import org.apache.nifi.groups.ProcessTags;
 import org.apache.nifi.groups.RemoteProcessGroupPortDescriptor;
 import org.apache.nifi.remote.StandardRemoteProcessGroupPortDescriptor;
+import org.apache.nifi.scheduling.ExecutionMode;
 import org.apache.nifi.scheduling.ExecutionNode;
 import org.apache.nifi.scheduling.SchedulingStrategy;
 import org.apache.nifi.util.DomUtils;
@@ -306,6 +307,7 @@ public class FlowFromDOMFactory {
             prioritizerClasses.add(prioritizerElement.getTextContent().trim());
         }
         dto.setPrioritizers(prioritizerClasses);
+        dto.setFlowFileQueueImplementation(getString(element, "flowFileQueueImplementation"));
 
         return dto;
     }
@@ -462,6 +464,14 @@ public class FlowFromDOMFactory {
             configDto.setExecutionNode(executionNode.trim());
         }
 
+        // handle execution mode
+        final String executionMode = getString(element, "executionMode");
+        if (executionMode == null || executionMode.trim().isEmpty()) {
+            configDto.setExecutionMode(ExecutionMode.STANDARD.name());
+        } else {
+            configDto.setExecutionMode(executionMode.trim());
+        }
+
         final Long runDurationNanos = getOptionalLong(element, "runDurationNanos");
         if (runDurationNanos != null) {
             configDto.setRunDurationMillis(TimeUnit.NANOSECONDS.toMillis(runDurationNanos));
@@ -496,6 +496,7 @@ public class StandardFlowSerializer implements FlowSerializer<Document> {
         addTextElement(element, "scheduledState", scheduledStateLookup.getScheduledState(processor).name());
         addTextElement(element, "schedulingStrategy", processor.getSchedulingStrategy().name());
         addTextElement(element, "executionNode", processor.getExecutionNode().name());
+        addTextElement(element, "executionMode", processor.getExecutionMode().name());
         addTextElement(element, "runDurationNanos", processor.getRunDuration(TimeUnit.NANOSECONDS));
 
         addConfiguration(element, processor.getProperties(), processor.getAnnotationData(), encryptor);
@@ -589,6 +590,10 @@ public class StandardFlowSerializer implements FlowSerializer<Document> {
             addTextElement(element, "queuePrioritizerClass", className);
         }
 
+        if (connection.getFlowFileQueueImplementation() != null) {
+            addTextElement(element, "flowFileQueueImplementation", connection.getFlowFileQueueImplementation());
+        }
+
         parentElement.appendChild(element);
     }
 
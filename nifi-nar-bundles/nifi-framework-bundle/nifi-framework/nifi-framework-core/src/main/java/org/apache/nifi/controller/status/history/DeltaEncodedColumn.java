@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A growable column of long values in which each value is stored as the zig-zag, variable-length encoded
+ * difference from the previous value. Status metrics change slowly from one capture to the next, so most
+ * values take a single byte.
+ */
+class DeltaEncodedColumn {
+    private byte[] bytes;
+    private int length = 0;
+    private int count = 0;
+    private long lastValue = 0L;
+
+    DeltaEncodedColumn() {
+        this(16);
+    }
+
+    DeltaEncodedColumn(final int initialCapacity) {
+        bytes = new byte[Math.max(initialCapacity, 8)];
+    }
+
+    void append(final long value) {
+        long zigZag = zigZagEncode(value - lastValue);
+        lastValue = value;
+        count++;
+
+        ensureCapacity(length + 10);
+        while ((zigZag & ~0x7FL) != 0L) {
+            bytes[length++] = (byte) ((zigZag & 0x7F) | 0x80);
+            zigZag >>>= 7;
+        }
+        bytes[length++] = (byte) zigZag;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    int getEncodedLength() {
+        return length;
+    }
+
+    byte[] getEncodedBytes() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    long[] decode() {
+        return decode(ByteBuffer.wrap(bytes, 0, length), count);
+    }
+
+    /**
+     * Decodes the given number of values from the buffer, advancing its position past them
+     */
+    static long[] decode(final ByteBuffer buffer, final int count) {
+        final long[] values = new long[count];
+        long value = 0L;
+        for (int i = 0; i < count; i++) {
+            long zigZag = 0L;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                zigZag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            value += zigZagDecode(zigZag);
+            values[i] = value;
+        }
+
+        return values;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+
+    private static long zigZagEncode(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigZagDecode(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
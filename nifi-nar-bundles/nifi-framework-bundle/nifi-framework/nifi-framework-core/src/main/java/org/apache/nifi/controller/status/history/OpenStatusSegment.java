@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * The segment that status history is currently being appended to. Each series is kept in memory as a set of
+ * {@link DeltaEncodedColumn}s until the segment is written to disk, at which point it can be read back
+ * through a {@link StatusSegmentFile}. The segment may be written any number of times while it is open so that
+ * little history is lost if NiFi is not shut down cleanly; each write atomically replaces the previous one.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+class OpenStatusSegment implements StatusSegment {
+    private final File file;
+    private final long endTime;
+    private final Map<String, SeriesBuilder> series = new LinkedHashMap<>();
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    /**
+     * @param file the file to write the segment to
+     * @param endTime the time at which the segment should no longer be appended to, exclusive
+     */
+    OpenStatusSegment(final File file, final long endTime) {
+        this.file = file;
+        this.endTime = endTime;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long getEndTime() {
+        return endTime;
+    }
+
+    boolean isEmpty() {
+        return series.isEmpty();
+    }
+
+    void append(final String seriesKey, final Map<String, String> details, final long timestamp, final Map<String, Long> values) {
+        SeriesBuilder builder = series.get(seriesKey);
+        if (builder == null) {
+            builder = new SeriesBuilder();
+            series.put(seriesKey, builder);
+        }
+
+        builder.append(details, timestamp, values);
+        firstTimestamp = Math.min(firstTimestamp, timestamp);
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+    }
+
+    @Override
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    @Override
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    @Override
+    public Set<String> getSeriesKeys() {
+        return Collections.unmodifiableSet(series.keySet());
+    }
+
+    @Override
+    public Map<String, String> getDetails(final String seriesKey) {
+        final SeriesBuilder builder = series.get(seriesKey);
+        return builder == null ? null : builder.details;
+    }
+
+    @Override
+    public List<StatusPoint> getPoints(final String seriesKey, final long start, final long end) {
+        final SeriesBuilder builder = series.get(seriesKey);
+        if (builder == null) {
+            return Collections.emptyList();
+        }
+
+        final long[] timestamps = builder.timestamps.decode();
+        final Map<String, long[]> columns = new LinkedHashMap<>();
+        for (final Map.Entry<String, DeltaEncodedColumn> entry : builder.columns.entrySet()) {
+            columns.put(entry.getKey(), entry.getValue().decode());
+        }
+
+        return toPoints(timestamps, columns, start, end);
+    }
+
+    static List<StatusPoint> toPoints(final long[] timestamps, final Map<String, long[]> columns, final long start, final long end) {
+        final List<StatusPoint> points = new ArrayList<>();
+        for (int i = 0; i < timestamps.length; i++) {
+            final long timestamp = timestamps[i];
+            if (timestamp < start || timestamp > end) {
+                continue;
+            }
+
+            final Map<String, Long> values = new LinkedHashMap<>();
+            for (final Map.Entry<String, long[]> entry : columns.entrySet()) {
+                values.put(entry.getKey(), entry.getValue()[i]);
+            }
+            points.add(new StatusPoint(timestamp, values));
+        }
+
+        return points;
+    }
+
+    /**
+     * Writes the segment to its file, replacing any previous version of the file
+     *
+     * @throws IOException if unable to write the file
+     */
+    void write() throws IOException {
+        final List<byte[]> keys = new ArrayList<>(series.size());
+        final List<byte[]> blocks = new ArrayList<>(series.size());
+        int indexLength = StatusSegmentFile.HEADER_LENGTH;
+        for (final Map.Entry<String, SeriesBuilder> entry : series.entrySet()) {
+            final byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            keys.add(key);
+            blocks.add(entry.getValue().toBlock());
+            indexLength += 4 + key.length + 4 + 4;
+        }
+
+        final File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (final FileOutputStream fos = new FileOutputStream(tmpFile);
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+
+            out.writeInt(StatusSegmentFile.MAGIC);
+            out.writeInt(StatusSegmentFile.VERSION);
+            out.writeLong(firstTimestamp);
+            out.writeLong(lastTimestamp);
+            out.writeInt(series.size());
+
+            int offset = indexLength;
+            for (int i = 0; i < keys.size(); i++) {
+                final byte[] key = keys.get(i);
+                out.writeInt(key.length);
+                out.write(key);
+                out.writeInt(offset);
+                out.writeInt(blocks.get(i).length);
+                offset += blocks.get(i).length;
+            }
+
+            for (final byte[] block : blocks) {
+                out.write(block);
+            }
+
+            out.flush();
+            fos.getFD().sync();
+        }
+
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class SeriesBuilder {
+        private final DeltaEncodedColumn timestamps = new DeltaEncodedColumn();
+        private final Map<String, DeltaEncodedColumn> columns = new LinkedHashMap<>();
+        private Map<String, String> details = Collections.emptyMap();
+        private int rowCount = 0;
+
+        void append(final Map<String, String> details, final long timestamp, final Map<String, Long> values) {
+            this.details = details;
+            timestamps.append(timestamp);
+
+            for (final Map.Entry<String, DeltaEncodedColumn> entry : columns.entrySet()) {
+                final Long value = values.get(entry.getKey());
+                entry.getValue().append(value == null ? 0L : value);
+            }
+
+            // a metric that has not been seen before for this series, such as a new processor counter, gets a
+            // column of its own, with a value of 0 for the points that were appended before it was first seen.
+            for (final Map.Entry<String, Long> entry : values.entrySet()) {
+                if (!columns.containsKey(entry.getKey())) {
+                    final DeltaEncodedColumn column = new DeltaEncodedColumn();
+                    for (int i = 0; i < rowCount; i++) {
+                        column.append(0L);
+                    }
+                    column.append(entry.getValue() == null ? 0L : entry.getValue());
+                    columns.put(entry.getKey(), column);
+                }
+            }
+
+            rowCount++;
+        }
+
+        byte[] toBlock() throws IOException {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(baos);
+
+            out.writeInt(details.size());
+            for (final Map.Entry<String, String> entry : details.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue() == null ? "" : entry.getValue());
+            }
+
+            out.writeInt(rowCount);
+            out.writeInt(timestamps.getEncodedLength());
+            out.write(timestamps.getEncodedBytes());
+
+            out.writeInt(columns.size());
+            for (final Map.Entry<String, DeltaEncodedColumn> entry : columns.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().getEncodedLength());
+                out.write(entry.getValue().getEncodedBytes());
+            }
+
+            out.flush();
+            return baos.toByteArray();
+        }
+    }
+}
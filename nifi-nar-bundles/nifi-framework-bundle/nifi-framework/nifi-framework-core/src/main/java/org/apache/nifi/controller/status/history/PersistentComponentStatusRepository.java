@@ -0,0 +1,670 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.controller.status.ConnectionStatus;
+import org.apache.nifi.controller.status.ProcessGroupStatus;
+import org.apache.nifi.controller.status.ProcessorStatus;
+import org.apache.nifi.controller.status.RemoteProcessGroupStatus;
+import org.apache.nifi.controller.status.history.MetricDescriptor.Formatter;
+import org.apache.nifi.util.FormatUtils;
+import org.apache.nifi.util.NiFiProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A {@link ComponentStatusRepository} that persists status history to disk so that it survives a restart, and that
+ * keeps far less of it on the heap than the {@link VolatileComponentStatusRepository}.
+ * </p>
+ *
+ * <p>
+ * Each component's metrics are stored as a time series of delta-encoded columns (see {@link StatusSegment}), so that
+ * the history of one component is read without touching any other component. History is kept at three resolutions:
+ * every capture, rolled up to one point per 5 minutes, and rolled up to one point per hour. Each resolution has its
+ * own retention period, and a query uses the finest resolution that is available for each part of the requested
+ * time range.
+ * </p>
+ *
+ * <p>
+ * A 5-minute point is the last capture within those 5 minutes: every metric is either a gauge or is already
+ * computed over the trailing 5 minutes. An hourly point is the average of the hour's 5-minute points.
+ * </p>
+ *
+ * <p>
+ * The segments that are being appended to are written to disk at the end of every 5-minute interval and when the
+ * repository is closed. Closing the repository also persists the 5-minute point of the interval in progress, and the
+ * hourly average of the hour in progress is rebuilt from the persisted 5-minute points when the repository is reopened.
+ * </p>
+ */
+public class PersistentComponentStatusRepository implements ComponentStatusRepository {
+
+    public static final String DIRECTORY_PROPERTY = "nifi.components.status.repository.directory";
+    public static final String RAW_RETENTION_PROPERTY = "nifi.components.status.repository.raw.retention";
+    public static final String FIVE_MINUTE_RETENTION_PROPERTY = "nifi.components.status.repository.five.minute.retention";
+    public static final String HOURLY_RETENTION_PROPERTY = "nifi.components.status.repository.hourly.retention";
+
+    public static final String DEFAULT_DIRECTORY = "./status_repository";
+    public static final String DEFAULT_RAW_RETENTION = "1 day";
+    public static final String DEFAULT_FIVE_MINUTE_RETENTION = "7 days";
+    public static final String DEFAULT_HOURLY_RETENTION = "90 days";
+
+    private static final String PROCESSOR_PREFIX = "processor:";
+    private static final String CONNECTION_PREFIX = "connection:";
+    private static final String PROCESS_GROUP_PREFIX = "group:";
+    private static final String REMOTE_PROCESS_GROUP_PREFIX = "rpg:";
+    private static final String GARBAGE_COLLECTION_PREFIX = "gc:";
+    private static final String COUNTER_PREFIX = "counter:";
+    private static final String GC_COUNT_FIELD = "collectionCount";
+    private static final String GC_MILLIS_FIELD = "collectionMillis";
+
+    private static final long FIVE_MINUTES = TimeUnit.MINUTES.toMillis(5);
+    private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentComponentStatusRepository.class);
+
+    private final ResolutionStore rawStore;
+    private final ResolutionStore fiveMinuteStore;
+    private final ResolutionStore hourlyStore;
+
+    // the last capture of each series in the current 5-minute interval
+    private final Map<String, Row> fiveMinuteRows = new LinkedHashMap<>();
+    private long fiveMinuteBucket = -1L;
+
+    // the last 5-minute interval that had been persisted when the repository was opened; captures that are made in that
+    // interval after a restart do not replace its point
+    private final long persistedFiveMinuteBucket;
+
+    // the sum of the 5-minute points of each series in the current hour
+    private final Map<String, RowAccumulator> hourlyAccumulators = new LinkedHashMap<>();
+    private long hourBucket = -1L;
+
+    private volatile long lastCaptureTime = 0L;
+    private boolean closed = false;
+
+    /**
+     * Default no args constructor for service loading only
+     */
+    public PersistentComponentStatusRepository() {
+        rawStore = null;
+        fiveMinuteStore = null;
+        hourlyStore = null;
+        persistedFiveMinuteBucket = Long.MIN_VALUE;
+    }
+
+    public PersistentComponentStatusRepository(final NiFiProperties nifiProperties) throws IOException {
+        final File directory = new File(nifiProperties.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY));
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Unable to create Component Status Repository directory " + directory.getAbsolutePath());
+        }
+
+        rawStore = new ResolutionStore(directory, "raw", ONE_HOUR, getMillis(nifiProperties, RAW_RETENTION_PROPERTY, DEFAULT_RAW_RETENTION));
+        fiveMinuteStore = new ResolutionStore(directory, "5min", TimeUnit.DAYS.toMillis(1),
+            getMillis(nifiProperties, FIVE_MINUTE_RETENTION_PROPERTY, DEFAULT_FIVE_MINUTE_RETENTION));
+        hourlyStore = new ResolutionStore(directory, "1hour", TimeUnit.DAYS.toMillis(7), getMillis(nifiProperties, HOURLY_RETENTION_PROPERTY, DEFAULT_HOURLY_RETENTION));
+
+        persistedFiveMinuteBucket = fiveMinuteStore.getLastTimestamp();
+        restoreHourlyAccumulators();
+
+        lastCaptureTime = Math.max(0L, rawStore.getLastTimestamp());
+        logger.info("Loaded status history from {}", directory.getAbsolutePath());
+    }
+
+    /**
+     * Rebuilds the sums of the 5-minute points of the hour that was in progress when the repository was last closed,
+     * so that the hourly point of that hour is the average of all of its 5-minute points rather than only those that
+     * are captured after a restart
+     */
+    private void restoreHourlyAccumulators() {
+        if (persistedFiveMinuteBucket < 0L) {
+            return;
+        }
+
+        final long hour = persistedFiveMinuteBucket - persistedFiveMinuteBucket % ONE_HOUR;
+        if (hourlyStore.getLastTimestamp() >= hour) {
+            return;
+        }
+
+        for (final StatusSegment segment : fiveMinuteStore.getSegments()) {
+            if (segment.getLastTimestamp() < hour) {
+                continue;
+            }
+
+            for (final String seriesKey : segment.getSeriesKeys()) {
+                final Map<String, String> details = segment.getDetails(seriesKey);
+                for (final StatusPoint point : segment.getPoints(seriesKey, hour, hour + ONE_HOUR - 1)) {
+                    RowAccumulator accumulator = hourlyAccumulators.get(seriesKey);
+                    if (accumulator == null) {
+                        accumulator = new RowAccumulator();
+                        hourlyAccumulators.put(seriesKey, accumulator);
+                    }
+                    accumulator.add(new Row(details, point.getValues()));
+                }
+            }
+        }
+
+        hourBucket = hour;
+    }
+
+    private static long getMillis(final NiFiProperties nifiProperties, final String propertyName, final String defaultValue) {
+        return FormatUtils.getTimeDuration(nifiProperties.getProperty(propertyName, defaultValue), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void capture(final ProcessGroupStatus rootGroupStatus, final List<GarbageCollectionStatus> gcStatus) {
+        capture(rootGroupStatus, gcStatus, new Date());
+    }
+
+    @Override
+    public synchronized void capture(final ProcessGroupStatus rootGroupStatus, final List<GarbageCollectionStatus> gcStatus, final Date timestamp) {
+        if (closed) {
+            logger.debug("Will not capture metrics for {} because it has been closed", this);
+            return;
+        }
+
+        final long captureTime = timestamp.getTime();
+        final Map<String, Row> rows = new LinkedHashMap<>();
+        addRows(rootGroupStatus, rows);
+        if (gcStatus != null) {
+            for (final GarbageCollectionStatus status : gcStatus) {
+                final Map<String, Long> values = new LinkedHashMap<>();
+                values.put(GC_COUNT_FIELD, status.getCollectionCount());
+                values.put(GC_MILLIS_FIELD, status.getCollectionMillis());
+                rows.put(GARBAGE_COLLECTION_PREFIX + status.getMemoryManagerName(), new Row(Collections.emptyMap(), values));
+            }
+        }
+
+        try {
+            final long bucket = captureTime - captureTime % FIVE_MINUTES;
+            if (fiveMinuteBucket >= 0 && bucket != fiveMinuteBucket) {
+                rollUpFiveMinutes();
+                checkpoint(captureTime);
+            }
+
+            rawStore.append(rows, captureTime);
+            fiveMinuteRows.putAll(rows);
+            fiveMinuteBucket = bucket;
+        } catch (final IOException e) {
+            logger.error("Failed to persist status history", e);
+        }
+
+        logger.debug("Captured metrics for {}", this);
+        lastCaptureTime = Math.max(lastCaptureTime, captureTime);
+    }
+
+    private void rollUpFiveMinutes() throws IOException {
+        final long hour = fiveMinuteBucket - fiveMinuteBucket % ONE_HOUR;
+        if (hourBucket >= 0 && hour != hourBucket) {
+            final Map<String, Row> averages = new LinkedHashMap<>();
+            for (final Map.Entry<String, RowAccumulator> entry : hourlyAccumulators.entrySet()) {
+                averages.put(entry.getKey(), entry.getValue().toAverage());
+            }
+            hourlyStore.append(averages, hourBucket);
+            hourlyAccumulators.clear();
+        }
+        hourBucket = hour;
+
+        // the point of this interval was persisted when the repository was closed, and was counted toward the hourly
+        // average when the repository was reopened
+        if (fiveMinuteBucket <= persistedFiveMinuteBucket) {
+            fiveMinuteRows.clear();
+            return;
+        }
+
+        fiveMinuteStore.append(fiveMinuteRows, fiveMinuteBucket);
+        for (final Map.Entry<String, Row> entry : fiveMinuteRows.entrySet()) {
+            RowAccumulator accumulator = hourlyAccumulators.get(entry.getKey());
+            if (accumulator == null) {
+                accumulator = new RowAccumulator();
+                hourlyAccumulators.put(entry.getKey(), accumulator);
+            }
+            accumulator.add(entry.getValue());
+        }
+        fiveMinuteRows.clear();
+    }
+
+    /**
+     * Persists the 5-minute point of the interval in progress and writes the segments that are being appended to, so
+     * that all captured status history is available after a restart
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        if (fiveMinuteBucket > persistedFiveMinuteBucket && !fiveMinuteRows.isEmpty()) {
+            fiveMinuteStore.append(fiveMinuteRows, fiveMinuteBucket);
+            fiveMinuteRows.clear();
+        }
+
+        checkpoint(lastCaptureTime);
+        logger.info("Persisted status history for {}", this);
+    }
+
+    private void checkpoint(final long now) throws IOException {
+        rawStore.checkpoint(now);
+        fiveMinuteStore.checkpoint(now);
+        hourlyStore.checkpoint(now);
+    }
+
+    private void addRows(final ProcessGroupStatus groupStatus, final Map<String, Row> rows) {
+        final Map<String, String> groupDetails = new LinkedHashMap<>();
+        groupDetails.put(COMPONENT_DETAIL_NAME, groupStatus.getName());
+        final Map<String, Long> groupValues = new LinkedHashMap<>();
+        for (final ProcessGroupStatusDescriptor descriptor : ProcessGroupStatusDescriptor.values()) {
+            groupValues.put(descriptor.getField(), descriptor.getDescriptor().getValueFunction().getValue(groupStatus));
+        }
+        rows.put(PROCESS_GROUP_PREFIX + groupStatus.getId(), new Row(groupDetails, groupValues));
+
+        for (final ProcessorStatus status : groupStatus.getProcessorStatus()) {
+            final Map<String, String> details = new LinkedHashMap<>();
+            details.put(COMPONENT_DETAIL_GROUP_ID, status.getGroupId());
+            details.put(COMPONENT_DETAIL_NAME, status.getName());
+            details.put(COMPONENT_DETAIL_TYPE, status.getType());
+
+            final Map<String, Long> values = new LinkedHashMap<>();
+            for (final ProcessorStatusDescriptor descriptor : ProcessorStatusDescriptor.values()) {
+                if (descriptor.isVisible()) {
+                    values.put(descriptor.getField(), descriptor.getDescriptor().getValueFunction().getValue(status));
+                }
+            }
+
+            final Map<String, Long> counters = status.getCounters();
+            if (counters != null) {
+                for (final Map.Entry<String, Long> entry : counters.entrySet()) {
+                    values.put(COUNTER_PREFIX + entry.getKey(), entry.getValue());
+                }
+            }
+
+            rows.put(PROCESSOR_PREFIX + status.getId(), new Row(details, values));
+        }
+
+        for (final ConnectionStatus status : groupStatus.getConnectionStatus()) {
+            final Map<String, String> details = new LinkedHashMap<>();
+            details.put(COMPONENT_DETAIL_GROUP_ID, status.getGroupId());
+            details.put(COMPONENT_DETAIL_NAME, status.getName());
+            details.put(COMPONENT_DETAIL_SOURCE_NAME, status.getSourceName());
+            details.put(COMPONENT_DETAIL_DESTINATION_NAME, status.getDestinationName());
+
+            final Map<String, Long> values = new LinkedHashMap<>();
+            for (final ConnectionStatusDescriptor descriptor : ConnectionStatusDescriptor.values()) {
+                values.put(descriptor.getField(), descriptor.getDescriptor().getValueFunction().getValue(status));
+            }
+
+            rows.put(CONNECTION_PREFIX + status.getId(), new Row(details, values));
+        }
+
+        for (final RemoteProcessGroupStatus status : groupStatus.getRemoteProcessGroupStatus()) {
+            final Map<String, String> details = new LinkedHashMap<>();
+            details.put(COMPONENT_DETAIL_GROUP_ID, status.getGroupId());
+            details.put(COMPONENT_DETAIL_NAME, status.getName());
+            details.put(COMPONENT_DETAIL_URI, status.getTargetUri());
+
+            final Map<String, Long> values = new LinkedHashMap<>();
+            for (final RemoteProcessGroupStatusDescriptor descriptor : RemoteProcessGroupStatusDescriptor.values()) {
+                values.put(descriptor.getField(), descriptor.getDescriptor().getValueFunction().getValue(status));
+            }
+
+            rows.put(REMOTE_PROCESS_GROUP_PREFIX + status.getId(), new Row(details, values));
+        }
+
+        for (final ProcessGroupStatus childStatus : groupStatus.getProcessGroupStatus()) {
+            addRows(childStatus, rows);
+        }
+    }
+
+    @Override
+    public Date getLastCaptureDate() {
+        return new Date(lastCaptureTime);
+    }
+
+    @Override
+    public synchronized StatusHistory getProcessorStatusHistory(final String processorId, final Date start, final Date end, final int preferredDataPoints,
+                                                                final boolean includeCounters) {
+        final String seriesKey = PROCESSOR_PREFIX + processorId;
+        final StandardStatusHistory history = createHistory(processorId, seriesKey);
+
+        for (final StatusPoint point : getPoints(seriesKey, start, end)) {
+            final StandardStatusSnapshot snapshot = createSnapshot(point);
+            for (final ProcessorStatusDescriptor descriptor : ProcessorStatusDescriptor.values()) {
+                if (descriptor.isVisible()) {
+                    snapshot.addStatusMetric(descriptor.getDescriptor(), getValue(point, descriptor.getField()));
+                }
+            }
+
+            if (includeCounters) {
+                for (final Map.Entry<String, Long> entry : point.getValues().entrySet()) {
+                    if (!entry.getKey().startsWith(COUNTER_PREFIX)) {
+                        continue;
+                    }
+
+                    final String counterName = entry.getKey().substring(COUNTER_PREFIX.length());
+                    final String label = counterName + " (5 mins)";
+                    final MetricDescriptor<ProcessorStatus> metricDescriptor = new StandardMetricDescriptor<>(counterName, label, label, Formatter.COUNT,
+                        s -> s.getCounters() == null ? null : s.getCounters().get(counterName));
+
+                    snapshot.addStatusMetric(metricDescriptor, entry.getValue());
+                }
+            }
+
+            history.addStatusSnapshot(snapshot);
+        }
+
+        return history;
+    }
+
+    @Override
+    public synchronized StatusHistory getConnectionStatusHistory(final String connectionId, final Date start, final Date end, final int preferredDataPoints) {
+        final String seriesKey = CONNECTION_PREFIX + connectionId;
+        final StandardStatusHistory history = createHistory(connectionId, seriesKey);
+
+        for (final StatusPoint point : getPoints(seriesKey, start, end)) {
+            final StandardStatusSnapshot snapshot = createSnapshot(point);
+            for (final ConnectionStatusDescriptor descriptor : ConnectionStatusDescriptor.values()) {
+                snapshot.addStatusMetric(descriptor.getDescriptor(), getValue(point, descriptor.getField()));
+            }
+            history.addStatusSnapshot(snapshot);
+        }
+
+        return history;
+    }
+
+    @Override
+    public synchronized StatusHistory getProcessGroupStatusHistory(final String processGroupId, final Date start, final Date end, final int preferredDataPoints) {
+        final String seriesKey = PROCESS_GROUP_PREFIX + processGroupId;
+        final StandardStatusHistory history = createHistory(processGroupId, seriesKey);
+
+        for (final StatusPoint point : getPoints(seriesKey, start, end)) {
+            final StandardStatusSnapshot snapshot = createSnapshot(point);
+            for (final ProcessGroupStatusDescriptor descriptor : ProcessGroupStatusDescriptor.values()) {
+                snapshot.addStatusMetric(descriptor.getDescriptor(), getValue(point, descriptor.getField()));
+            }
+            history.addStatusSnapshot(snapshot);
+        }
+
+        return history;
+    }
+
+    @Override
+    public synchronized StatusHistory getRemoteProcessGroupStatusHistory(final String remoteGroupId, final Date start, final Date end, final int preferredDataPoints) {
+        final String seriesKey = REMOTE_PROCESS_GROUP_PREFIX + remoteGroupId;
+        final StandardStatusHistory history = createHistory(remoteGroupId, seriesKey);
+
+        for (final StatusPoint point : getPoints(seriesKey, start, end)) {
+            final StandardStatusSnapshot snapshot = createSnapshot(point);
+            for (final RemoteProcessGroupStatusDescriptor descriptor : RemoteProcessGroupStatusDescriptor.values()) {
+                snapshot.addStatusMetric(descriptor.getDescriptor(), getValue(point, descriptor.getField()));
+            }
+            history.addStatusSnapshot(snapshot);
+        }
+
+        return history;
+    }
+
+    @Override
+    public synchronized GarbageCollectionHistory getGarbageCollectionHistory(final Date start, final Date end) {
+        final StandardGarbageCollectionHistory history = new StandardGarbageCollectionHistory();
+
+        final TreeSet<String> seriesKeys = new TreeSet<>();
+        for (final ResolutionStore store : new ResolutionStore[] {rawStore, fiveMinuteStore, hourlyStore}) {
+            for (final StatusSegment segment : store.getSegments()) {
+                for (final String seriesKey : segment.getSeriesKeys()) {
+                    if (seriesKey.startsWith(GARBAGE_COLLECTION_PREFIX)) {
+                        seriesKeys.add(seriesKey);
+                    }
+                }
+            }
+        }
+
+        for (final String seriesKey : seriesKeys) {
+            final String managerName = seriesKey.substring(GARBAGE_COLLECTION_PREFIX.length());
+            for (final StatusPoint point : getPoints(seriesKey, start, end)) {
+                history.addGarbageCollectionStatus(new StandardGarbageCollectionStatus(managerName, new Date(point.getTimestamp()),
+                    getValue(point, GC_COUNT_FIELD), getValue(point, GC_MILLIS_FIELD)));
+            }
+        }
+
+        return history;
+    }
+
+    private StandardStatusHistory createHistory(final String componentId, final String seriesKey) {
+        final StandardStatusHistory history = new StandardStatusHistory();
+        history.setComponentDetail(COMPONENT_DETAIL_ID, componentId);
+
+        final Map<String, String> details = getDetails(seriesKey);
+        if (details != null) {
+            for (final Map.Entry<String, String> entry : details.entrySet()) {
+                history.setComponentDetail(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return history;
+    }
+
+    private static StandardStatusSnapshot createSnapshot(final StatusPoint point) {
+        final StandardStatusSnapshot snapshot = new StandardStatusSnapshot();
+        snapshot.setTimestamp(new Date(point.getTimestamp()));
+        return snapshot;
+    }
+
+    private static long getValue(final StatusPoint point, final String field) {
+        final Long value = point.getValues().get(field);
+        return value == null ? 0L : value;
+    }
+
+    private Map<String, String> getDetails(final String seriesKey) {
+        for (final ResolutionStore store : new ResolutionStore[] {rawStore, fiveMinuteStore, hourlyStore}) {
+            final List<StatusSegment> segments = store.getSegments();
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                final Map<String, String> details = segments.get(i).getDetails(seriesKey);
+                if (details != null) {
+                    return details;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the points of the given series within the given time range, using the hourly points only for the
+     * time before the 5-minute points begin, and the 5-minute points only for the time before the raw points begin
+     */
+    private List<StatusPoint> getPoints(final String seriesKey, final Date start, final Date end) {
+        final long startTime = start == null ? 0L : start.getTime();
+        final long endTime = end == null ? System.currentTimeMillis() : end.getTime();
+
+        final long rawStart = rawStore.getFirstTimestamp();
+        final long fiveMinuteStart = Math.min(rawStart, fiveMinuteStore.getFirstTimestamp());
+
+        final List<StatusPoint> points = new ArrayList<>();
+        points.addAll(hourlyStore.getPoints(seriesKey, startTime, Math.min(endTime, fiveMinuteStart - 1)));
+        points.addAll(fiveMinuteStore.getPoints(seriesKey, startTime, Math.min(endTime, rawStart - 1)));
+        points.addAll(rawStore.getPoints(seriesKey, startTime, endTime));
+        return points;
+    }
+
+    private static class Row {
+        private final Map<String, String> details;
+        private final Map<String, Long> values;
+
+        Row(final Map<String, String> details, final Map<String, Long> values) {
+            this.details = details;
+            this.values = values;
+        }
+    }
+
+    private static class RowAccumulator {
+        private final Map<String, long[]> sums = new LinkedHashMap<>();
+        private Map<String, String> details = Collections.emptyMap();
+
+        void add(final Row row) {
+            details = row.details;
+            for (final Map.Entry<String, Long> entry : row.values.entrySet()) {
+                long[] sum = sums.get(entry.getKey());
+                if (sum == null) {
+                    sum = new long[2];
+                    sums.put(entry.getKey(), sum);
+                }
+
+                sum[0] += entry.getValue() == null ? 0L : entry.getValue();
+                sum[1]++;
+            }
+        }
+
+        Row toAverage() {
+            final Map<String, Long> averages = new LinkedHashMap<>();
+            for (final Map.Entry<String, long[]> entry : sums.entrySet()) {
+                final long[] sum = entry.getValue();
+                averages.put(entry.getKey(), Math.round((double) sum[0] / sum[1]));
+            }
+            return new Row(details, averages);
+        }
+    }
+
+    /**
+     * The segments of a single resolution: those that have been written to disk, plus the one that is being
+     * appended to
+     */
+    private static class ResolutionStore {
+        private final File directory;
+        private final String prefix;
+        private final long segmentMillis;
+        private final long retentionMillis;
+        private final List<StatusSegmentFile> segmentFiles = new ArrayList<>();
+        private OpenStatusSegment openSegment;
+
+        ResolutionStore(final File directory, final String prefix, final long segmentMillis, final long retentionMillis) throws IOException {
+            this.directory = directory;
+            this.prefix = prefix;
+            this.segmentMillis = segmentMillis;
+            this.retentionMillis = retentionMillis;
+
+            final File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix + "-") && name.endsWith(".seg"));
+            if (files != null) {
+                for (final File file : files) {
+                    try {
+                        segmentFiles.add(StatusSegmentFile.open(file));
+                    } catch (final IOException | RuntimeException e) {
+                        logger.warn("Unable to read status history segment {}; it will be ignored", file, e);
+                    }
+                }
+            }
+            segmentFiles.sort(Comparator.comparingLong(StatusSegmentFile::getFirstTimestamp));
+        }
+
+        void append(final Map<String, Row> rows, final long timestamp) throws IOException {
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            if (openSegment != null && timestamp >= openSegment.getEndTime()) {
+                seal();
+            }
+
+            if (openSegment == null) {
+                final long segmentEnd = timestamp - timestamp % segmentMillis + segmentMillis;
+                openSegment = new OpenStatusSegment(new File(directory, prefix + "-" + timestamp + ".seg"), segmentEnd);
+            }
+
+            for (final Map.Entry<String, Row> entry : rows.entrySet()) {
+                final Row row = entry.getValue();
+                openSegment.append(entry.getKey(), row.details, timestamp, row.values);
+            }
+        }
+
+        private void seal() throws IOException {
+            openSegment.write();
+            segmentFiles.add(StatusSegmentFile.open(openSegment.getFile()));
+            openSegment = null;
+        }
+
+        void checkpoint(final long now) throws IOException {
+            if (openSegment != null && !openSegment.isEmpty()) {
+                openSegment.write();
+            }
+
+            final Iterator<StatusSegmentFile> itr = segmentFiles.iterator();
+            while (itr.hasNext()) {
+                final StatusSegmentFile segmentFile = itr.next();
+                if (segmentFile.getLastTimestamp() < now - retentionMillis) {
+                    itr.remove();
+                    if (!segmentFile.getFile().delete()) {
+                        logger.warn("Unable to delete expired status history segment {}", segmentFile.getFile());
+                    }
+                }
+            }
+        }
+
+        List<StatusSegment> getSegments() {
+            final List<StatusSegment> segments = new ArrayList<>(segmentFiles);
+            if (openSegment != null && !openSegment.isEmpty()) {
+                segments.add(openSegment);
+            }
+            return segments;
+        }
+
+        long getFirstTimestamp() {
+            long first = Long.MAX_VALUE;
+            for (final StatusSegment segment : getSegments()) {
+                first = Math.min(first, segment.getFirstTimestamp());
+            }
+            return first;
+        }
+
+        long getLastTimestamp() {
+            long last = Long.MIN_VALUE;
+            for (final StatusSegment segment : getSegments()) {
+                last = Math.max(last, segment.getLastTimestamp());
+            }
+            return last;
+        }
+
+        List<StatusPoint> getPoints(final String seriesKey, final long start, final long end) {
+            if (end < start) {
+                return Collections.emptyList();
+            }
+
+            final List<StatusPoint> points = new ArrayList<>();
+            for (final StatusSegment segment : getSegments()) {
+                points.addAll(segment.getPoints(seriesKey, start, end));
+            }
+            return points;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentComponentStatusRepository[raw=" + rawStore.getSegments().size() + " segments, 5min=" + fiveMinuteStore.getSegments().size()
+            + " segments, hourly=" + hourlyStore.getSegments().size() + " segments]";
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.util.Map;
+
+/**
+ * The metric values of a single component at a single point in time, as stored by the
+ * {@link PersistentComponentStatusRepository}
+ */
+class StatusPoint {
+    private final long timestamp;
+    private final Map<String, Long> values;
+
+    StatusPoint(final long timestamp, final Map<String, Long> values) {
+        this.timestamp = timestamp;
+        this.values = values;
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    Map<String, Long> getValues() {
+        return values;
+    }
+}
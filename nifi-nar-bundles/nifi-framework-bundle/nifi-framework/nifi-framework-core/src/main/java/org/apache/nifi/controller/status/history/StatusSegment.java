@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * A time range of status history that is stored column by column. Each series (one component, or one
+ * garbage collector) within a segment holds a column of timestamps and one column per metric, so the
+ * history of a single series can be read without reading any other series.
+ * </p>
+ */
+interface StatusSegment {
+
+    /**
+     * @return the timestamp of the earliest point in this segment
+     */
+    long getFirstTimestamp();
+
+    /**
+     * @return the timestamp of the latest point in this segment
+     */
+    long getLastTimestamp();
+
+    /**
+     * @return the keys of all of the series that have at least one point in this segment
+     */
+    Set<String> getSeriesKeys();
+
+    /**
+     * @param seriesKey the key of the series
+     * @return the details (name, group, etc.) of the component, as of the latest point in this segment,
+     *         or <code>null</code> if the series has no points in this segment
+     */
+    Map<String, String> getDetails(String seriesKey);
+
+    /**
+     * @param seriesKey the key of the series
+     * @param start the earliest timestamp to return, inclusive
+     * @param end the latest timestamp to return, inclusive
+     * @return the points of the series within the given range, ordered by timestamp
+     */
+    List<StatusPoint> getPoints(String seriesKey, long start, long end);
+}
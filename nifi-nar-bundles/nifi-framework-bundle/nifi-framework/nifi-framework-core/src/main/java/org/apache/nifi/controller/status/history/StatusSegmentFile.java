@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * A segment of status history that has been written to disk by an {@link OpenStatusSegment}. The file is
+ * memory-mapped and only its index is read when it is opened; the block of a series is decoded only when
+ * that series is queried.
+ * </p>
+ *
+ * <p>
+ * The file consists of a header (magic, version, first and last timestamp, series count), followed by an index
+ * of the key, offset and length of each series' block, followed by the blocks. A block holds the details of the
+ * component, the number of points, the delta-encoded timestamps and then each delta-encoded metric column.
+ * </p>
+ */
+class StatusSegmentFile implements StatusSegment {
+    static final int MAGIC = 0x4E535331; // NSS1
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 4;
+
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final Map<String, int[]> index;
+
+    private StatusSegmentFile(final File file, final MappedByteBuffer buffer, final long firstTimestamp, final long lastTimestamp, final Map<String, int[]> index) {
+        this.file = file;
+        this.buffer = buffer;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.index = index;
+    }
+
+    static StatusSegmentFile open(final File file) throws IOException {
+        final MappedByteBuffer buffer;
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        final ByteBuffer header = buffer.duplicate();
+        if (header.remaining() < HEADER_LENGTH || header.getInt() != MAGIC) {
+            throw new IOException("File " + file + " is not a status history segment");
+        }
+
+        final int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Status history segment " + file + " has version " + version + " but only version " + VERSION + " is supported");
+        }
+
+        final long firstTimestamp = header.getLong();
+        final long lastTimestamp = header.getLong();
+        final int seriesCount = header.getInt();
+        final Map<String, int[]> index = new HashMap<>(seriesCount * 2);
+        for (int i = 0; i < seriesCount; i++) {
+            final String key = OpenStatusSegment.readString(header);
+            final int offset = header.getInt();
+            final int length = header.getInt();
+            index.put(key, new int[] {offset, length});
+        }
+
+        return new StatusSegmentFile(file, buffer, firstTimestamp, lastTimestamp, index);
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    @Override
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    @Override
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    @Override
+    public Set<String> getSeriesKeys() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    @Override
+    public Map<String, String> getDetails(final String seriesKey) {
+        final ByteBuffer block = getBlock(seriesKey);
+        return block == null ? null : readDetails(block);
+    }
+
+    @Override
+    public List<StatusPoint> getPoints(final String seriesKey, final long start, final long end) {
+        if (start > lastTimestamp || end < firstTimestamp) {
+            return Collections.emptyList();
+        }
+
+        final ByteBuffer block = getBlock(seriesKey);
+        if (block == null) {
+            return Collections.emptyList();
+        }
+
+        readDetails(block);
+        final int rowCount = block.getInt();
+        block.getInt(); // encoded length of the timestamps, which is only needed to skip over them
+        final long[] timestamps = DeltaEncodedColumn.decode(block, rowCount);
+
+        final int columnCount = block.getInt();
+        final Map<String, long[]> columns = new LinkedHashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            final String name = OpenStatusSegment.readString(block);
+            block.getInt(); // encoded length of the column
+            columns.put(name, DeltaEncodedColumn.decode(block, rowCount));
+        }
+
+        return OpenStatusSegment.toPoints(timestamps, columns, start, end);
+    }
+
+    private ByteBuffer getBlock(final String seriesKey) {
+        final int[] location = index.get(seriesKey);
+        if (location == null) {
+            return null;
+        }
+
+        final ByteBuffer block = buffer.duplicate();
+        block.position(location[0]);
+        block.limit(location[0] + location[1]);
+        return block;
+    }
+
+    private static Map<String, String> readDetails(final ByteBuffer block) {
+        final int detailCount = block.getInt();
+        final Map<String, String> details = new LinkedHashMap<>();
+        for (int i = 0; i < detailCount; i++) {
+            details.put(OpenStatusSegment.readString(block), OpenStatusSegment.readString(block));
+        }
+        return details;
+    }
+}
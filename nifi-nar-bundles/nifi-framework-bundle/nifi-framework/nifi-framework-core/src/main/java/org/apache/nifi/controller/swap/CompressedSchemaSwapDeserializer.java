@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.swap;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.SwapSummary;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.stream.io.NonCloseableInputStream;
+
+/**
+ * <p>
+ * A {@link SwapDeserializer} that is capable of reading swap files that were written by the {@link CompressedSchemaSwapSerializer}.
+ * </p>
+ */
+public class CompressedSchemaSwapDeserializer implements SwapDeserializer {
+
+    private final SchemaSwapDeserializer delegate = new SchemaSwapDeserializer();
+
+    @Override
+    public SwapContents deserializeFlowFiles(final DataInputStream in, final String swapLocation, final FlowFileQueue queue, final ResourceClaimManager claimManager) throws IOException {
+        try (final DataInputStream decompressed = createDecompressedStream(in)) {
+            return delegate.deserializeFlowFiles(decompressed, swapLocation, queue, claimManager);
+        }
+    }
+
+    @Override
+    public SwapSummary getSwapSummary(final DataInputStream in, final String swapLocation, final ResourceClaimManager claimManager) throws IOException {
+        try (final DataInputStream decompressed = createDecompressedStream(in)) {
+            return delegate.getSwapSummary(decompressed, swapLocation, claimManager);
+        }
+    }
+
+    private DataInputStream createDecompressedStream(final DataInputStream in) throws IOException {
+        return new DataInputStream(new BufferedInputStream(new GZIPInputStream(new NonCloseableInputStream(in))));
+    }
+
+    public static String getSerializationName() {
+        return CompressedSchemaSwapSerializer.SERIALIZATION_NAME;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.swap;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.stream.io.GZIPOutputStream;
+import org.apache.nifi.stream.io.NonCloseableOutputStream;
+
+/**
+ * <p>
+ * A {@link SwapSerializer} that writes the same records as the {@link SchemaSwapSerializer} but GZIP-compresses
+ * them (at the fastest compression level) before they are written to the swap file. FlowFile attributes tend to
+ * be highly repetitive across the FlowFiles in a single swap file, so this significantly reduces the amount of
+ * data that must be written to and read back from disk.
+ * </p>
+ */
+public class CompressedSchemaSwapSerializer implements SwapSerializer {
+    static final String SERIALIZATION_NAME = "Compressed Schema Swap Serialization";
+
+    private final SchemaSwapSerializer delegate = new SchemaSwapSerializer();
+
+    @Override
+    public void serializeFlowFiles(final List<FlowFileRecord> toSwap, final FlowFileQueue queue, final String swapLocation, final OutputStream out) throws IOException {
+        // Closing the compressed stream is necessary in order to write the GZIP trailer, but we must not close the underlying stream,
+        // as the caller is responsible for syncing and closing it.
+        try (final OutputStream compressed = new BufferedOutputStream(new GZIPOutputStream(new NonCloseableOutputStream(out)))) {
+            delegate.serializeFlowFiles(toSwap, queue, swapLocation, compressed);
+        }
+
+        out.flush();
+    }
+
+    @Override
+    public String getSerializationName() {
+        return SERIALIZATION_NAME;
+    }
+}
@@ -48,6 +48,14 @@ public class SystemDiagnostics implements Cloneable {
     private StorageUsage flowFileRepositoryStorageUsage;
     private Map<String, StorageUsage> contentRepositoryStorageUsage;
     private Map<String, StorageUsage> provenanceRepositoryStorageUsage;
+    private Long provenanceIndexLagEvents;
+    private Long provenanceIndexLagMillis;
+    private long provenanceEventsDroppedByPolicy;
+    private long provenanceEventsProjectedByPolicy;
+    private long offHeapFlowFileAttributeBytes;
+    private long preparedQueryCacheHits;
+    private long preparedQueryCacheMisses;
+    private long preparedQueryCacheEvictions;
     private Map<String, GarbageCollection> garbageCollection;
 
     private long creationTimestamp;
@@ -104,6 +112,38 @@ public class SystemDiagnostics implements Cloneable {
         this.provenanceRepositoryStorageUsage = provenanceRepositoryStorageUsage;
     }
 
+    public void setProvenanceIndexLagEvents(final Long provenanceIndexLagEvents) {
+        this.provenanceIndexLagEvents = provenanceIndexLagEvents;
+    }
+
+    public void setProvenanceIndexLagMillis(final Long provenanceIndexLagMillis) {
+        this.provenanceIndexLagMillis = provenanceIndexLagMillis;
+    }
+
+    public void setProvenanceEventsDroppedByPolicy(final long provenanceEventsDroppedByPolicy) {
+        this.provenanceEventsDroppedByPolicy = provenanceEventsDroppedByPolicy;
+    }
+
+    public void setProvenanceEventsProjectedByPolicy(final long provenanceEventsProjectedByPolicy) {
+        this.provenanceEventsProjectedByPolicy = provenanceEventsProjectedByPolicy;
+    }
+
+    public void setOffHeapFlowFileAttributeBytes(final long offHeapFlowFileAttributeBytes) {
+        this.offHeapFlowFileAttributeBytes = offHeapFlowFileAttributeBytes;
+    }
+
+    public void setPreparedQueryCacheHits(final long preparedQueryCacheHits) {
+        this.preparedQueryCacheHits = preparedQueryCacheHits;
+    }
+
+    public void setPreparedQueryCacheMisses(final long preparedQueryCacheMisses) {
+        this.preparedQueryCacheMisses = preparedQueryCacheMisses;
+    }
+
+    public void setPreparedQueryCacheEvictions(final long preparedQueryCacheEvictions) {
+        this.preparedQueryCacheEvictions = preparedQueryCacheEvictions;
+    }
+
     public long getTotalNonHeap() {
         return totalNonHeap;
     }
@@ -156,6 +196,62 @@ public class SystemDiagnostics implements Cloneable {
         return provenanceRepositoryStorageUsage;
     }
 
+    /**
+     * @return the number of Provenance Events that have been stored but not yet indexed, or <code>null</code> if not applicable
+     */
+    public Long getProvenanceIndexLagEvents() {
+        return provenanceIndexLagEvents;
+    }
+
+    /**
+     * @return how long the oldest Provenance Event that has not yet been indexed has been waiting, or <code>null</code> if not applicable
+     */
+    public Long getProvenanceIndexLagMillis() {
+        return provenanceIndexLagMillis;
+    }
+
+    /**
+     * @return the number of Provenance Events that were not reported because a Provenance Event Policy sampled them out
+     */
+    public long getProvenanceEventsDroppedByPolicy() {
+        return provenanceEventsDroppedByPolicy;
+    }
+
+    /**
+     * @return the number of Provenance Events that were reported with only the attributes kept by a Provenance Event Policy
+     */
+    public long getProvenanceEventsProjectedByPolicy() {
+        return provenanceEventsProjectedByPolicy;
+    }
+
+    /**
+     * @return the number of bytes of direct memory that are allocated to hold FlowFile attributes off-heap
+     */
+    public long getOffHeapFlowFileAttributeBytes() {
+        return offHeapFlowFileAttributeBytes;
+    }
+
+    /**
+     * @return the number of times a prepared Expression Language query was found in the JVM-wide cache
+     */
+    public long getPreparedQueryCacheHits() {
+        return preparedQueryCacheHits;
+    }
+
+    /**
+     * @return the number of times an Expression Language query was not found in the JVM-wide cache and had to be prepared
+     */
+    public long getPreparedQueryCacheMisses() {
+        return preparedQueryCacheMisses;
+    }
+
+    /**
+     * @return the number of prepared Expression Language queries that were evicted from the full JVM-wide cache
+     */
+    public long getPreparedQueryCacheEvictions() {
+        return preparedQueryCacheEvictions;
+    }
+
     public long getFreeNonHeap() {
         return totalNonHeap - usedNonHeap;
     }
@@ -270,6 +366,14 @@ public class SystemDiagnostics implements Cloneable {
         clonedObj.totalPhysicalMemory = totalPhysicalMemory;
         clonedObj.openFileHandles = openFileHandles;
         clonedObj.maxOpenFileHandles = maxOpenFileHandles;
+        clonedObj.provenanceIndexLagEvents = provenanceIndexLagEvents;
+        clonedObj.provenanceIndexLagMillis = provenanceIndexLagMillis;
+        clonedObj.provenanceEventsDroppedByPolicy = provenanceEventsDroppedByPolicy;
+        clonedObj.provenanceEventsProjectedByPolicy = provenanceEventsProjectedByPolicy;
+        clonedObj.offHeapFlowFileAttributeBytes = offHeapFlowFileAttributeBytes;
+        clonedObj.preparedQueryCacheHits = preparedQueryCacheHits;
+        clonedObj.preparedQueryCacheMisses = preparedQueryCacheMisses;
+        clonedObj.preparedQueryCacheEvictions = preparedQueryCacheEvictions;
 
         return clonedObj;
     }
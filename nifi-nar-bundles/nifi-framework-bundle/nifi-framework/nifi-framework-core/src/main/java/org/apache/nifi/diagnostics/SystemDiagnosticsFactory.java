@@ -31,8 +31,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.nifi.attribute.expression.language.PreparedQueryCache;
+import org.apache.nifi.attribute.expression.language.Query;
 import org.apache.nifi.controller.repository.ContentRepository;
 import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.ProvenanceEventPolicyStatistics;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
 import org.apache.nifi.provenance.ProvenanceRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,7 +49,8 @@ public class SystemDiagnosticsFactory {
 
     private final Logger logger = LoggerFactory.getLogger(SystemDiagnosticsFactory.class);
 
-    public SystemDiagnostics create(final FlowFileRepository flowFileRepo, final ContentRepository contentRepo, ProvenanceRepository provenanceRepository) {
+    public SystemDiagnostics create(final FlowFileRepository flowFileRepo, final ContentRepository contentRepo, ProvenanceRepository provenanceRepository,
+        final ProvenanceEventPolicyStatistics provenancePolicyStatistics) {
         final SystemDiagnostics systemDiagnostics = new SystemDiagnostics();
 
         final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
@@ -144,6 +149,16 @@ public class SystemDiagnosticsFactory {
             provRepositoryUsage.put(containerName, storageUsage);
         }
         systemDiagnostics.setProvenanceRepositoryStorageUsage(provRepositoryUsage);
+        systemDiagnostics.setProvenanceIndexLagEvents(provenanceRepository.getIndexLagEvents());
+        systemDiagnostics.setProvenanceIndexLagMillis(provenanceRepository.getIndexLagMillis());
+        systemDiagnostics.setProvenanceEventsDroppedByPolicy(provenancePolicyStatistics.getDroppedEventCount());
+        systemDiagnostics.setProvenanceEventsProjectedByPolicy(provenancePolicyStatistics.getProjectedEventCount());
+        systemDiagnostics.setOffHeapFlowFileAttributeBytes(StandardFlowFileRecord.getOffHeapAttributeBytes());
+
+        final PreparedQueryCache preparedQueryCache = Query.getPreparedQueryCache();
+        systemDiagnostics.setPreparedQueryCacheHits(preparedQueryCache.getHitCount());
+        systemDiagnostics.setPreparedQueryCacheMisses(preparedQueryCache.getMissCount());
+        systemDiagnostics.setPreparedQueryCacheEvictions(preparedQueryCache.getEvictionCount());
 
         // get the garbage collection statistics
         final Map<String, GarbageCollection> garbageCollection = new LinkedHashMap<>(garbageCollectors.size());
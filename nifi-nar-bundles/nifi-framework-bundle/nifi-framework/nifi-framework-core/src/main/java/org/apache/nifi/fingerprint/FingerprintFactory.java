@@ -404,6 +404,8 @@ public class FingerprintFactory {
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(processorElem, "schedulingStrategy"));
         // execution node
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(processorElem, "executionNode"));
+        // execution mode
+        appendFirstValue(builder, DomUtils.getChildNodesByTagName(processorElem, "executionMode"));
         // run duration nanos
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(processorElem, "runDurationNanos"));
 
@@ -606,6 +608,9 @@ public class FingerprintFactory {
 
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(connectionElem, "name"));
 
+        // the queue implementation cannot be changed once the connection has been created
+        appendFirstValue(builder, DomUtils.getChildNodesByTagName(connectionElem, "flowFileQueueImplementation"));
+
         // relationships
         final NodeList relationshipElems = DomUtils.getChildNodesByTagName(connectionElem, "relationship");
         final List<Element> sortedRelationshipElems = sortElements(relationshipElems, getConnectionRelationshipsComparator());
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller;
+
+import org.apache.nifi.controller.queue.QueueTimeStatistics;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestQueueTimeHistogram {
+
+    private static final long NOW = TimeUnit.DAYS.toMillis(20000);
+
+    @Test
+    public void testEmpty() {
+        final QueueTimeHistogram histogram = new QueueTimeHistogram();
+        assertSame(QueueTimeStatistics.EMPTY, histogram.getStatistics(NOW));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final QueueTimeHistogram histogram = new QueueTimeHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i, NOW);
+        }
+
+        final QueueTimeStatistics stats = histogram.getStatistics(NOW);
+        assertEquals(1000L, stats.getCount());
+        assertEquals(1000L, stats.getMaxMillis());
+        assertWithinPrecision(500L, stats.getP50Millis());
+        assertWithinPrecision(990L, stats.getP99Millis());
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        final QueueTimeHistogram histogram = new QueueTimeHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(3L, NOW);
+        }
+        histogram.record(7L, NOW);
+
+        final QueueTimeStatistics stats = histogram.getStatistics(NOW);
+        assertEquals(3L, stats.getP50Millis());
+        assertEquals(3L, stats.getP99Millis());
+        assertEquals(7L, stats.getMaxMillis());
+    }
+
+    @Test
+    public void testNegativeAndHugeValues() {
+        final QueueTimeHistogram histogram = new QueueTimeHistogram();
+        histogram.record(-5L, NOW);
+        histogram.record(Long.MAX_VALUE, NOW);
+
+        final QueueTimeStatistics stats = histogram.getStatistics(NOW);
+        assertEquals(2L, stats.getCount());
+        assertEquals(0L, stats.getP50Millis());
+        assertTrue(stats.getMaxMillis() > TimeUnit.DAYS.toMillis(365));
+    }
+
+    @Test
+    public void testOnlyLastFiveMinutesReported() {
+        final QueueTimeHistogram histogram = new QueueTimeHistogram();
+        histogram.record(10_000L, NOW);
+
+        final long oneMinuteLater = NOW + TimeUnit.MINUTES.toMillis(1);
+        histogram.record(20L, oneMinuteLater);
+        assertEquals(2L, histogram.getStatistics(oneMinuteLater).getCount());
+        assertEquals(10_000L, histogram.getStatistics(oneMinuteLater).getMaxMillis());
+
+        final long fiveMinutesLater = NOW + TimeUnit.MINUTES.toMillis(5);
+        final QueueTimeStatistics stats = histogram.getStatistics(fiveMinutesLater);
+        assertEquals(1L, stats.getCount());
+        assertEquals(20L, stats.getMaxMillis());
+
+        // recording into a window that was used five minutes ago must clear it first
+        histogram.record(30L, fiveMinutesLater);
+        final QueueTimeStatistics afterReuse = histogram.getStatistics(fiveMinutesLater);
+        assertEquals(2L, afterReuse.getCount());
+        assertEquals(30L, afterReuse.getMaxMillis());
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long value = 0; value < 1_000_000L; value++) {
+            final int index = QueueTimeHistogram.bucketIndex(value);
+            assertTrue(index < QueueTimeHistogram.BUCKET_COUNT);
+            final long highest = QueueTimeHistogram.getHighestEquivalentValue(index);
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / 8);
+        }
+    }
+
+    private void assertWithinPrecision(final long expected, final long actual) {
+        assertTrue("Expected " + actual + " to be within 12.5% of " + expected, Math.abs(actual - expected) <= expected / 8);
+    }
+}
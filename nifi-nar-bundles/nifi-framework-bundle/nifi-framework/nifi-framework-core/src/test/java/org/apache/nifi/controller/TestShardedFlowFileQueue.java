@@ -0,0 +1,461 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.controller.queue.DropFlowFileState;
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.FlowFileSwapManager;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.swap.StandardSwapContents;
+import org.apache.nifi.controller.swap.StandardSwapSummary;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.flowfile.FlowFilePrioritizer;
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestShardedFlowFileQueue {
+    private static final AtomicLong idGenerator = new AtomicLong(0L);
+
+    private Connection connection;
+    private FlowFileRepository flowFileRepo;
+    private ProvenanceEventRepository provRepo;
+    private ResourceClaimManager claimManager;
+    private ProcessScheduler scheduler;
+    private FlowFileSwapManager swapManager;
+    private final Map<String, List<FlowFileRecord>> swappedOut = new ConcurrentHashMap<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        swappedOut.clear();
+
+        // the queue calls these for every FlowFile that is put, so they must not record invocations, or the concurrent tests exhaust the heap
+        connection = Mockito.mock(Connection.class, Mockito.withSettings().stubOnly());
+        Mockito.when(connection.getSource()).thenReturn(Mockito.mock(Connectable.class));
+        Mockito.when(connection.getDestination()).thenReturn(Mockito.mock(Connectable.class, Mockito.withSettings().stubOnly()));
+
+        scheduler = Mockito.mock(ProcessScheduler.class, Mockito.withSettings().stubOnly());
+        flowFileRepo = Mockito.mock(FlowFileRepository.class);
+        provRepo = Mockito.mock(ProvenanceEventRepository.class);
+        claimManager = Mockito.mock(ResourceClaimManager.class);
+        Mockito.when(provRepo.eventBuilder()).thenReturn(new StandardProvenanceEventRecord.Builder());
+
+        swapManager = Mockito.mock(FlowFileSwapManager.class);
+        Mockito.when(swapManager.swapOut(Mockito.anyList(), Mockito.any(FlowFileQueue.class))).thenAnswer(invocation -> {
+            final String location = UUID.randomUUID().toString();
+            swappedOut.put(location, new ArrayList<>((List<FlowFileRecord>) invocation.getArguments()[0]));
+            return location;
+        });
+        Mockito.when(swapManager.swapIn(Mockito.anyString(), Mockito.any(FlowFileQueue.class))).thenAnswer(invocation -> {
+            final List<FlowFileRecord> flowFiles = swappedOut.remove((String) invocation.getArguments()[0]);
+            long bytes = 0L;
+            for (final FlowFileRecord flowFile : flowFiles) {
+                bytes += flowFile.getSize();
+            }
+            final SwapContents contents = new StandardSwapContents(new StandardSwapSummary(new QueueSize(flowFiles.size(), bytes), null, Collections.emptyList()), flowFiles);
+            return contents;
+        });
+    }
+
+    private ShardedFlowFileQueue createQueue(final int swapThreshold, final int concurrency) {
+        return new ShardedFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, swapThreshold, 0L, "0 B", null, concurrency);
+    }
+
+    private static FlowFileRecord createFlowFile(final long size) {
+        return new StandardFlowFileRecord.Builder()
+            .id(idGenerator.getAndIncrement())
+            .addAttribute(CoreAttributes.UUID.key(), UUID.randomUUID().toString())
+            .size(size)
+            .build();
+    }
+
+    private static FlowFileRecord createPenalizedFlowFile() {
+        return new StandardFlowFileRecord.Builder()
+            .id(idGenerator.getAndIncrement())
+            .addAttribute(CoreAttributes.UUID.key(), UUID.randomUUID().toString())
+            .size(1L)
+            .penaltyExpirationTime(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5L))
+            .build();
+    }
+
+    @Test
+    public void testFirstInFirstOutWithinShard() {
+        final ShardedFlowFileQueue queue = createQueue(10000, 1);
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final FlowFileRecord flowFile = createFlowFile(10 - i);
+            flowFiles.add(flowFile);
+            queue.put(flowFile);
+        }
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        for (final FlowFileRecord expected : flowFiles) {
+            assertEquals(expected, queue.poll(expired));
+        }
+
+        assertNull(queue.poll(expired));
+        assertTrue(expired.isEmpty());
+    }
+
+    @Test
+    public void testSizesAndAcknowledge() {
+        final ShardedFlowFileQueue queue = createQueue(10000, 4);
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.isActiveQueueEmpty());
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            flowFiles.add(createFlowFile(100L));
+        }
+        queue.putAll(flowFiles);
+
+        assertEquals(new QueueSize(10, 1000L), queue.size());
+        assertEquals(new QueueSize(10, 1000L), queue.getActiveQueueSize());
+        assertFalse(queue.isEmpty());
+        assertFalse(queue.isActiveQueueEmpty());
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        final List<FlowFileRecord> polled = queue.poll(3, expired);
+        assertEquals(3, polled.size());
+        assertEquals(new QueueSize(10, 1000L), queue.size());
+        assertEquals(new QueueSize(7, 700L), queue.getActiveQueueSize());
+        assertEquals(new QueueSize(3, 300L), queue.getUnacknowledgedQueueSize());
+
+        queue.acknowledge(polled);
+        assertEquals(new QueueSize(7, 700L), queue.size());
+        assertEquals(new QueueSize(0, 0L), queue.getUnacknowledgedQueueSize());
+
+        final List<FlowFileRecord> remaining = queue.poll(100, expired);
+        assertEquals(7, remaining.size());
+        assertTrue(queue.isActiveQueueEmpty());
+        assertFalse(queue.isEmpty());
+
+        queue.acknowledge(remaining);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testBackPressure() {
+        final ShardedFlowFileQueue queue = createQueue(10000, 2);
+        queue.setBackPressureObjectThreshold(10);
+
+        for (int i = 0; i < 9; i++) {
+            queue.put(createFlowFile(1L));
+            assertFalse(queue.isFull());
+        }
+
+        queue.put(createFlowFile(1L));
+        assertTrue(queue.isFull());
+
+        final FlowFileRecord polled = queue.poll(new HashSet<>());
+        assertNotNull(polled);
+
+        // queue is still full because FlowFile has not yet been acknowledged.
+        assertTrue(queue.isFull());
+        queue.acknowledge(polled);
+        assertFalse(queue.isFull());
+
+        queue.setBackPressureObjectThreshold(0L);
+        queue.setBackPressureDataSizeThreshold("5 B");
+        assertTrue(queue.isFull());
+    }
+
+    @Test
+    public void testExpire() throws InterruptedException {
+        final ShardedFlowFileQueue queue = createQueue(10000, 2);
+        queue.setFlowFileExpiration("1 ms");
+
+        for (int i = 0; i < 100; i++) {
+            queue.put(createFlowFile(1L));
+        }
+
+        Thread.sleep(100L);
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        assertNull(queue.poll(expired));
+        assertEquals(100, expired.size());
+        assertEquals(0, queue.getActiveQueueSize().getObjectCount());
+        assertEquals(0, queue.getUnacknowledgedQueueSize().getObjectCount());
+    }
+
+    @Test
+    public void testPenalizedFlowFilesAreNotPolled() {
+        final ShardedFlowFileQueue queue = createQueue(10000, 2);
+        final FlowFileRecord penalized = createPenalizedFlowFile();
+        final FlowFileRecord flowFile = createFlowFile(1L);
+
+        queue.put(penalized);
+        assertTrue(queue.isAllActiveFlowFilesPenalized());
+
+        queue.put(flowFile);
+        assertFalse(queue.isAllActiveFlowFilesPenalized());
+        assertTrue(queue.isAnyActiveFlowFilePenalized());
+        assertEquals(2, queue.getActiveQueueSize().getObjectCount());
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        assertEquals(flowFile, queue.poll(expired));
+        assertNull(queue.poll(expired));
+        assertEquals(1, queue.getActiveQueueSize().getObjectCount());
+    }
+
+    @Test
+    public void testPrioritizersApplyToShardedFlowFiles() {
+        final ShardedFlowFileQueue queue = createQueue(10000, 4);
+        for (int i = 0; i < 10; i++) {
+            queue.put(createFlowFile(10 - i));
+        }
+
+        queue.setPriorities(Collections.singletonList(new FlowFileSizePrioritizer()));
+        queue.put(createFlowFile(100L));
+        queue.put(createFlowFile(0L));
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        long previousSize = -1L;
+        for (int i = 0; i < 12; i++) {
+            final FlowFileRecord polled = queue.poll(expired);
+            assertNotNull(polled);
+            assertTrue(polled.getSize() >= previousSize);
+            previousSize = polled.getSize();
+        }
+
+        assertNull(queue.poll(expired));
+    }
+
+    @Test
+    public void testShardOverflowRetainsOrder() {
+        // 2 shards with a capacity of 500 FlowFiles each; all FlowFiles are put by this thread, so they go to the same shard
+        final ShardedFlowFileQueue queue = createQueue(1000, 2);
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            final FlowFileRecord flowFile = createFlowFile(1L);
+            flowFiles.add(flowFile);
+            queue.put(flowFile);
+        }
+
+        final List<FlowFileRecord> batch = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(createFlowFile(1L));
+        }
+        flowFiles.addAll(batch);
+        queue.putAll(batch);
+
+        assertEquals(650, queue.size().getObjectCount());
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        for (final FlowFileRecord expected : flowFiles.subList(0, 300)) {
+            final FlowFileRecord polled = queue.poll(expired);
+            assertEquals(expected.getId(), polled.getId());
+            queue.acknowledge(polled);
+        }
+
+        // FlowFiles that are put while the overflow is being drained must not overtake the overflowed FlowFiles
+        final FlowFileRecord latest = createFlowFile(1L);
+        flowFiles.add(latest);
+        queue.put(latest);
+
+        final List<FlowFileRecord> polled = queue.poll(1000, expired);
+        assertEquals(351, polled.size());
+        for (int i = 0; i < polled.size(); i++) {
+            assertEquals(flowFiles.get(300 + i).getId(), polled.get(i).getId());
+        }
+        queue.acknowledge(polled);
+
+        assertNull(queue.poll(expired));
+        assertTrue(expired.isEmpty());
+
+        // once drained, FlowFiles are placed into the shards again
+        final FlowFileRecord sharded = createFlowFile(1L);
+        queue.put(sharded);
+        assertEquals(1, queue.getActiveQueueSize().getObjectCount());
+        assertEquals(0, queue.getSwapQueueSize().getObjectCount());
+        assertEquals(sharded, queue.poll(expired));
+    }
+
+    @Test
+    public void testOverflowIsSwappedOut() {
+        final ShardedFlowFileQueue queue = createQueue(100, 1);
+
+        final int flowFileCount = 10200;
+        for (int i = 0; i < flowFileCount; i++) {
+            queue.put(createFlowFile(1L));
+        }
+
+        assertEquals(flowFileCount, queue.size().getObjectCount());
+        assertEquals(1, queue.getSwapFileCount());
+        assertEquals(1, swappedOut.size());
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        final Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < flowFileCount; i++) {
+            final FlowFileRecord polled = queue.poll(expired);
+            assertNotNull(polled);
+            assertTrue(ids.add(polled.getId()));
+            queue.acknowledge(polled);
+        }
+
+        assertNull(queue.poll(expired));
+        assertTrue(queue.isEmpty());
+        assertTrue(swappedOut.isEmpty());
+    }
+
+    @Test
+    public void testDropIncludesShardedFlowFiles() throws InterruptedException {
+        final ShardedFlowFileQueue queue = createQueue(10000, 4);
+        for (int i = 0; i < 100; i++) {
+            queue.put(createFlowFile(1L));
+        }
+
+        queue.dropFlowFiles("1", "Unit Test");
+        while (queue.getDropFlowFileStatus("1").getState() != DropFlowFileState.COMPLETE) {
+            Thread.sleep(10L);
+        }
+
+        assertTrue(queue.isEmpty());
+        assertEquals(100, queue.getDropFlowFileStatus("1").getDroppedSize().getObjectCount());
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentPutAndPoll() throws InterruptedException {
+        final ShardedFlowFileQueue queue = createQueue(1_000_000, 4);
+        final int threadCount = 8;
+        final int flowFilesPerThread = 10000;
+
+        final CountDownLatch producersDone = new CountDownLatch(threadCount);
+        final Set<Long> polledIds = ConcurrentHashMap.newKeySet();
+        final AtomicInteger polledCount = new AtomicInteger(0);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < flowFilesPerThread; i++) {
+                    queue.put(createFlowFile(1L));
+                }
+                producersDone.countDown();
+            }));
+
+            threads.add(new Thread(() -> {
+                final Set<FlowFileRecord> expired = new HashSet<>();
+                while (producersDone.getCount() > 0 || !queue.isActiveQueueEmpty()) {
+                    final List<FlowFileRecord> polled = queue.poll(10, expired);
+                    for (final FlowFileRecord flowFile : polled) {
+                        polledIds.add(flowFile.getId());
+                    }
+                    polledCount.addAndGet(polled.size());
+                    queue.acknowledge(polled);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threadCount * flowFilesPerThread, polledCount.get());
+        assertEquals(threadCount * flowFilesPerThread, polledIds.size());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @Ignore("For local performance testing only")
+    public void testThroughputComparedToStandardQueue() throws InterruptedException {
+        final int threadCount = 16;
+        final int iterations = 1_000_000;
+
+        for (int i = 0; i < 3; i++) {
+            final FlowFileQueue standardQueue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 1_000_000, 0L, "0 B");
+            final FlowFileQueue shardedQueue = createQueue(1_000_000, Runtime.getRuntime().availableProcessors());
+
+            System.out.println("Standard put/poll: " + measure(standardQueue, threadCount, iterations, 1) + " ops/sec");
+            System.out.println("Sharded put/poll: " + measure(shardedQueue, threadCount, iterations, 1) + " ops/sec");
+            System.out.println("Standard put/poll(100): " + measure(standardQueue, threadCount, iterations, 100) + " ops/sec");
+            System.out.println("Sharded put/poll(100): " + measure(shardedQueue, threadCount, iterations, 100) + " ops/sec");
+        }
+    }
+
+    private long measure(final FlowFileQueue queue, final int threadCount, final int iterationsPerThread, final int batchSize) throws InterruptedException {
+        final FlowFileRecord flowFile = createFlowFile(1L);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            threads.add(new Thread(() -> {
+                final Set<FlowFileRecord> expired = new HashSet<>();
+                for (int i = 0; i < iterationsPerThread; i += batchSize) {
+                    if (batchSize == 1) {
+                        queue.put(flowFile);
+                        final FlowFileRecord polled = queue.poll(expired);
+                        if (polled != null) {
+                            queue.acknowledge(polled);
+                        }
+                    } else {
+                        queue.putAll(Collections.nCopies(batchSize, flowFile));
+                        queue.acknowledge(queue.poll(batchSize, expired));
+                    }
+                }
+            }));
+        }
+
+        final long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final long nanos = System.nanoTime() - start;
+
+        return (long) threadCount * iterationsPerThread * TimeUnit.SECONDS.toNanos(1L) / nanos;
+    }
+
+    private static class FlowFileSizePrioritizer implements FlowFilePrioritizer {
+        @Override
+        public int compare(final FlowFile o1, final FlowFile o2) {
+            return Long.compare(o1.getSize(), o2.getSize());
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.nifi.controller;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -33,6 +34,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.nifi.connectable.Connectable;
@@ -43,6 +49,7 @@ import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.queue.ListFlowFileState;
 import org.apache.nifi.controller.queue.ListFlowFileStatus;
 import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.queue.SwapStatistics;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.FlowFileRepository;
 import org.apache.nifi.controller.repository.FlowFileSwapManager;
@@ -389,6 +396,47 @@ public class TestStandardFlowFileQueue {
         queue.poll(exp);
     }
 
+    @Test
+    public void testNextSwapFilePrefetched() {
+        for (int i = 1; i <= 30000; i++) {
+            queue.put(new TestFlowFile());
+        }
+
+        assertEquals(2, swapManager.swappedOut.size());
+        assertEquals(2, queue.getSwapFileCount());
+
+        final Set<FlowFileRecord> exp = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            assertNotNull(queue.poll(exp));
+        }
+
+        assertEquals(0, swapManager.peekCalledCount);
+
+        // this should swap in the first swap file, and then read the second swap file once the lock has been released
+        assertNotNull(queue.poll(exp));
+        assertEquals(1, swapManager.swapInCalledCount);
+        assertEquals(1, swapManager.peekCalledCount);
+        assertEquals(0, swapManager.prefetchedSwapInCount);
+
+        for (int i = 0; i < 9999; i++) {
+            assertNotNull(queue.poll(exp));
+        }
+
+        // the second swap file should be swapped in using the contents that were already read
+        assertNotNull(queue.poll(exp));
+        assertEquals(2, swapManager.swapInCalledCount);
+        assertEquals(1, swapManager.peekCalledCount);
+        assertEquals(1, swapManager.prefetchedSwapInCount);
+        assertTrue(swapManager.swappedOut.isEmpty());
+        assertEquals(9999, queue.getActiveQueueSize().getObjectCount());
+
+        final SwapStatistics swapStatistics = queue.getSwapStatistics();
+        assertEquals(2, swapStatistics.getSwapOutCount());
+        assertEquals(20000, swapStatistics.getSwapOutBytes());
+        assertEquals(2, swapStatistics.getSwapInCount());
+        assertEquals(20000, swapStatistics.getSwapInBytes());
+    }
+
     @Test
     public void testSwapInWhenThresholdIsLessThanSwapSize() {
         // create a queue where the swap threshold is less than 10k
@@ -521,6 +569,103 @@ public class TestStandardFlowFileQueue {
     }
 
 
+    @Test(timeout = 30000)
+    public void testDropWaitsForBackgroundSwapOut() throws InterruptedException {
+        final ExecutorService swapOutExecutor = Executors.newSingleThreadExecutor();
+        try {
+            queue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 10000, 0L, "0 B", swapOutExecutor);
+            swapManager.swapOutGate = new CountDownLatch(1);
+
+            // the swap file is written in the background, so the put does not block while the swap manager is held up
+            for (int i = 0; i < 20000; i++) {
+                queue.put(new TestFlowFile());
+            }
+            assertEquals(20000, queue.size().getObjectCount());
+            assertEquals(0, queue.getSwapFileCount());
+
+            final int concurrentPuts = 15000;
+            final Thread producer = new Thread(() -> {
+                for (int i = 0; i < concurrentPuts; i++) {
+                    queue.put(new TestFlowFile());
+                }
+            });
+
+            final DropFlowFileStatus status = queue.dropFlowFiles("1", "Unit Test");
+            producer.start();
+
+            // the drop cannot complete while FlowFiles that are accounted for as swapped out are still being written
+            Thread.sleep(250L);
+            assertNotEquals(DropFlowFileState.COMPLETE, status.getState());
+
+            swapManager.swapOutGate.countDown();
+            producer.join();
+            while (status.getState() != DropFlowFileState.COMPLETE) {
+                assertNotEquals(DropFlowFileState.FAILURE, status.getState());
+                Thread.sleep(10L);
+            }
+
+            swapOutExecutor.shutdown();
+            assertTrue(swapOutExecutor.awaitTermination(10, TimeUnit.SECONDS));
+
+            // every FlowFile was either dropped or is still in the queue, and can be polled
+            final int remaining = queue.size().getObjectCount();
+            assertEquals(20000 + concurrentPuts, status.getDroppedSize().getObjectCount() + remaining);
+
+            final Set<FlowFileRecord> expired = new HashSet<>();
+            int polled = 0;
+            FlowFileRecord flowFile;
+            while ((flowFile = queue.poll(expired)) != null) {
+                queue.acknowledge(flowFile);
+                polled++;
+            }
+
+            assertEquals(remaining, polled);
+            assertTrue(queue.isEmpty());
+            assertTrue(swapManager.swappedOut.isEmpty());
+        } finally {
+            swapOutExecutor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testFailedBackgroundSwapOutRetainsOrder() throws InterruptedException {
+        final ExecutorService swapOutExecutor = Executors.newSingleThreadExecutor();
+        try {
+            queue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 10000, 0L, "0 B", swapOutExecutor);
+            swapManager.swapOutGate = new CountDownLatch(1);
+            swapManager.failSwapOut = true;
+
+            for (int i = 0; i < 20000; i++) {
+                queue.put(new TestFlowFile());
+            }
+
+            // queued while the swap file is being written, so these are newer than the FlowFiles that fail to be swapped out
+            for (int i = 0; i < 100; i++) {
+                queue.put(new TestFlowFile());
+            }
+
+            swapManager.swapOutGate.countDown();
+            swapOutExecutor.shutdown();
+            assertTrue(swapOutExecutor.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertEquals(1, swapManager.swapOutCalledCount);
+            assertEquals(0, queue.getSwapFileCount());
+            assertEquals(20100, queue.size().getObjectCount());
+
+            final Set<FlowFileRecord> expired = new HashSet<>();
+            for (long expectedId = 0; expectedId < 20100; expectedId++) {
+                final FlowFileRecord flowFile = queue.poll(expired);
+                assertNotNull(flowFile);
+                assertEquals(expectedId, flowFile.getId());
+                queue.acknowledge(flowFile);
+            }
+
+            assertNull(queue.poll(expired));
+        } finally {
+            swapOutExecutor.shutdownNow();
+        }
+    }
+
     @Test(timeout = 5000)
     public void testListFlowFilesOnlyActiveQueue() throws InterruptedException {
         for (int i = 0; i < 9999; i++) {
@@ -641,9 +786,13 @@ public class TestStandardFlowFileQueue {
 
 
     private class TestSwapManager implements FlowFileSwapManager {
-        private final Map<String, List<FlowFileRecord>> swappedOut = new HashMap<>();
-        int swapOutCalledCount = 0;
+        private final Map<String, List<FlowFileRecord>> swappedOut = new ConcurrentHashMap<>();
+        private volatile CountDownLatch swapOutGate = null;
+        private volatile boolean failSwapOut = false;
+        volatile int swapOutCalledCount = 0;
         int swapInCalledCount = 0;
+        int peekCalledCount = 0;
+        int prefetchedSwapInCount = 0;
 
         private int incompleteSwapFileRecordsToInclude = -1;
 
@@ -666,6 +815,17 @@ public class TestStandardFlowFileQueue {
         @Override
         public String swapOut(List<FlowFileRecord> flowFiles, FlowFileQueue flowFileQueue) throws IOException {
             swapOutCalledCount++;
+            if (swapOutGate != null) {
+                try {
+                    swapOutGate.await();
+                } catch (final InterruptedException ie) {
+                    throw new IOException(ie);
+                }
+            }
+            if (failSwapOut) {
+                throw new IOException("Intentional unit test failure");
+            }
+
             final String location = UUID.randomUUID().toString();
             swappedOut.put(location, new ArrayList<>(flowFiles));
             return location;
@@ -701,6 +861,7 @@ public class TestStandardFlowFileQueue {
 
         @Override
         public SwapContents peek(String swapLocation, final FlowFileQueue flowFileQueue) throws IOException {
+            peekCalledCount++;
             throwIncompleteIfNecessary(swapLocation, false);
             return new StandardSwapContents(getSwapSummary(swapLocation), swappedOut.get(swapLocation));
         }
@@ -712,6 +873,12 @@ public class TestStandardFlowFileQueue {
             return new StandardSwapContents(getSwapSummary(swapLocation), swappedOut.remove(swapLocation));
         }
 
+        @Override
+        public SwapContents swapIn(String swapLocation, FlowFileQueue flowFileQueue, SwapContents swapContents) throws IOException {
+            prefetchedSwapInCount++;
+            return swapIn(swapLocation, flowFileQueue);
+        }
+
         @Override
         public List<String> recoverSwapLocations(FlowFileQueue flowFileQueue) throws IOException {
             return new ArrayList<>(swappedOut.keySet());
@@ -25,11 +25,16 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -46,6 +51,7 @@ import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.StandardContentClaim;
 import org.apache.nifi.controller.repository.claim.StandardResourceClaim;
 import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
@@ -365,6 +371,47 @@ public class TestFileSystemRepository {
         assertTrue(Arrays.equals(data, Files.readAllBytes(claimPath)));
     }
 
+    @Test
+    public void testImportFromChannel() throws IOException {
+        final ContentClaim firstClaim = repository.create(false);
+        try (final OutputStream out = repository.write(firstClaim)) {
+            out.write("hello".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // The second claim shares the first claim's Resource Claim, so the channel's bytes must be appended after "hello"
+        final ContentClaim secondClaim = repository.create(false);
+        assertEquals(firstClaim.getResourceClaim(), secondClaim.getResourceClaim());
+        final byte[] data = "world, and some more".getBytes(StandardCharsets.UTF_8);
+        assertEquals(5L, repository.importFrom(Channels.newChannel(new ByteArrayInputStream(data)), 5L, secondClaim));
+        assertEquals(5L, secondClaim.getOffset());
+        assertEquals(5L, secondClaim.getLength());
+
+        final ContentClaim thirdClaim = repository.create(false);
+        assertEquals(secondClaim.getResourceClaim(), thirdClaim.getResourceClaim());
+        assertEquals(10L, thirdClaim.getOffset());
+        try (final OutputStream out = repository.write(thirdClaim)) {
+            out.write("!".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        repository.exportTo(secondClaim, baos);
+        assertEquals("world", new String(baos.toByteArray(), StandardCharsets.UTF_8));
+
+        final Path contentPath = repository.getContentPath(secondClaim);
+        assertEquals(getPath(secondClaim), contentPath);
+        try (final FileChannel channel = FileChannel.open(contentPath, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) secondClaim.getLength());
+            channel.read(buffer, secondClaim.getOffset());
+            assertEquals("world", new String(buffer.array(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void testImportFromChannelThatEndsEarly() throws IOException {
+        final ContentClaim claim = repository.create(false);
+        repository.importFrom(Channels.newChannel(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8))), 10L, claim);
+    }
+
     @Test
     public void testExportToOutputStream() throws IOException {
         final ContentClaim claim = repository.create(true);
@@ -706,6 +753,74 @@ public class TestFileSystemRepository {
         }
     }
 
+    @Test
+    public void testMemoryMappedClaimsReadWhileWritable() throws IOException {
+        shutdown();
+
+        final Map<String, String> addProps = new HashMap<>();
+        addProps.put(NiFiProperties.CONTENT_CLAIM_MEMORY_MAPPED, "true");
+        repository = new FileSystemRepository(NiFiProperties.createBasicNiFiProperties(null, addProps));
+        repository.initialize(new StandardResourceClaimManager());
+        repository.purge();
+
+        final List<ContentClaim> claims = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final ContentClaim claim = repository.create(false);
+            claims.add(claim);
+            try (final OutputStream out = repository.write(claim)) {
+                out.write(("Hello " + i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        // all claims should have been written to the same Resource Claim, which is still open for writing
+        final ResourceClaim resourceClaim = claims.get(0).getResourceClaim();
+        for (int i = 0; i < claims.size(); i++) {
+            final ContentClaim claim = claims.get(i);
+            assertEquals(resourceClaim, claim.getResourceClaim());
+
+            try (final InputStream in = repository.read(claim)) {
+                assertEquals("Hello " + i, new String(readFully(in, 32), StandardCharsets.UTF_8));
+            }
+        }
+
+        // on shutdown, the preallocated portion of the file should be removed
+        final ContentClaim lastClaim = claims.get(claims.size() - 1);
+        final Path path = getPath(lastClaim);
+        assertTrue(Files.size(path) > lastClaim.getOffset() + lastClaim.getLength());
+        repository.shutdown();
+        assertEquals(lastClaim.getOffset() + lastClaim.getLength(), Files.size(path));
+    }
+
+    @Test
+    public void testMemoryMappedClaimLargerThanSegment() throws IOException {
+        shutdown();
+
+        final Map<String, String> addProps = new HashMap<>();
+        addProps.put(NiFiProperties.CONTENT_CLAIM_MEMORY_MAPPED, "true");
+        addProps.put(NiFiProperties.MAX_APPENDABLE_CLAIM_SIZE, "1 KB");
+        repository = new FileSystemRepository(NiFiProperties.createBasicNiFiProperties(null, addProps));
+        repository.initialize(new StandardResourceClaimManager());
+        repository.purge();
+
+        final byte[] content = new byte[(int) MappedClaimOutputStream.MINIMUM_SEGMENT_SIZE * 3 + 17];
+        new Random().nextBytes(content);
+
+        final ContentClaim claim = repository.create(false);
+        try (final OutputStream out = repository.write(claim)) {
+            out.write(content, 0, 10);
+            out.write(content, 10, content.length - 10);
+        }
+
+        // the claim exceeded the max appendable size, so the file should have been closed and truncated
+        assertEquals(content.length, Files.size(getPath(claim)));
+        try (final InputStream in = repository.read(claim)) {
+            assertTrue(Arrays.equals(content, readFully(in, content.length)));
+        }
+
+        final ContentClaim nextClaim = repository.create(false);
+        assertNotSame(claim.getResourceClaim(), nextClaim.getResourceClaim());
+    }
+
     @Test
     public void testMergeWithHeaderFooterDemarcator() throws IOException {
         testMerge("HEADER", "FOOTER", "DEMARCATOR");
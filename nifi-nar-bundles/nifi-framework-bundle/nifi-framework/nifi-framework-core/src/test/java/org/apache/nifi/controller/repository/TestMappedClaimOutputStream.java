@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestMappedClaimOutputStream {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testCloseTruncatesOnceReadersAreClosed() throws IOException {
+        final File file = tempFolder.newFile();
+        final byte[] content = "hello world".getBytes(StandardCharsets.UTF_8);
+
+        final MappedClaimOutputStream out = new MappedClaimOutputStream(file, MappedClaimOutputStream.MINIMUM_SEGMENT_SIZE);
+        out.write(content);
+        try (final InputStream in = out.read(0, content.length)) {
+            final byte[] read = new byte[content.length];
+            assertEquals(content.length, in.read(read));
+            assertArrayEquals(content, read);
+        }
+
+        out.close();
+        assertEquals(content.length, file.length());
+        assertNull(out.read(0, content.length));
+    }
+
+    @Test
+    public void testCloseDoesNotTruncateWhileRegionIsRead() throws IOException {
+        final File file = tempFolder.newFile();
+        final byte[] content = "hello world".getBytes(StandardCharsets.UTF_8);
+
+        final MappedClaimOutputStream out = new MappedClaimOutputStream(file, MappedClaimOutputStream.MINIMUM_SEGMENT_SIZE);
+        out.write(content);
+        try (final InputStream in = out.read(0, content.length)) {
+            out.close();
+            assertEquals(MappedClaimOutputStream.MINIMUM_SEGMENT_SIZE, file.length());
+
+            // the region stays mapped until the reader is closed
+            final byte[] read = new byte[content.length];
+            assertEquals(content.length, in.read(read));
+            assertArrayEquals(content, read);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.junit.After;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class TestOffHeapAttributeMap {
+
+    @After
+    public void disableOffHeapAttributes() {
+        StandardFlowFileRecord.setOffHeapAttributesEnabled(false);
+        StandardFlowFileRecord.setOffHeapAttributesMaxBytes(OffHeapAttributeArena.DEFAULT_MAX_BYTES);
+    }
+
+    @Test
+    public void testCopyOf() {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put(CoreAttributes.FILENAME.key(), "file.txt");
+        attributes.put(CoreAttributes.UUID.key(), UUID.randomUUID().toString());
+        attributes.put("custom.attribute." + UUID.randomUUID(), "ünicode ☃");
+        attributes.put("empty", "");
+
+        final Map<String, String> offHeap = OffHeapAttributeMap.copyOf(attributes);
+        assertEquals(attributes, offHeap);
+        assertEquals(attributes.hashCode(), offHeap.hashCode());
+        assertEquals(4, offHeap.size());
+
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            assertEquals(entry.getValue(), offHeap.get(entry.getKey()));
+            assertTrue(offHeap.containsKey(entry.getKey()));
+        }
+
+        assertNull(offHeap.get("missing"));
+        assertNull(offHeap.get(CoreAttributes.MIME_TYPE.key()));
+        assertFalse(offHeap.containsKey("missing"));
+    }
+
+    @Test
+    public void testLargeAttributes() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < OffHeapAttributeArena.SLAB_SIZE; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("large", sb.toString());
+        attributes.put("small", "abc");
+
+        final Map<String, String> offHeap = OffHeapAttributeMap.copyOf(attributes);
+        assertEquals(attributes, offHeap);
+        assertEquals("abc", OffHeapAttributeMap.copyOf(attributes).get("small"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("a", "b");
+        OffHeapAttributeMap.copyOf(attributes).put("a", "c");
+    }
+
+    @Test
+    public void testFlowFileRecordWithOffHeapAttributes() {
+        StandardFlowFileRecord.setOffHeapAttributesEnabled(true);
+
+        final FlowFileRecord original = new StandardFlowFileRecord.Builder()
+            .id(1L)
+            .addAttribute(CoreAttributes.FILENAME.key(), "file.txt")
+            .addAttribute("greeting", "hello")
+            .build();
+
+        assertEquals("file.txt", original.getAttribute(CoreAttributes.FILENAME.key()));
+        assertEquals("hello", original.getAttribute("greeting"));
+        assertEquals(2, original.getAttributes().size());
+
+        final FlowFileRecord updated = new StandardFlowFileRecord.Builder()
+            .fromFlowFile(original)
+            .addAttribute("greeting", "goodbye")
+            .removeAttributes(CoreAttributes.FILENAME.key())
+            .build();
+
+        assertEquals("goodbye", updated.getAttribute("greeting"));
+        assertNull(updated.getAttribute(CoreAttributes.FILENAME.key()));
+        assertEquals("hello", original.getAttribute("greeting"));
+    }
+
+    @Test
+    public void testArenaLimit() {
+        final OffHeapAttributeArena arena = new OffHeapAttributeArena(1024, 2048);
+        assertEquals(0L, arena.getAllocatedBytes());
+
+        // 20 regions of 100 bytes fit into the two slabs that the limit allows
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(arena.store(new byte[100], 0));
+        }
+        assertEquals(2048L, arena.getAllocatedBytes());
+
+        assertNull(arena.store(new byte[100], 0));
+        assertNull(arena.store(new byte[1000], 0));
+        assertEquals(2048L, arena.getAllocatedBytes());
+
+        arena.setMaxBytes(4096);
+        assertNotNull(arena.store(new byte[1000], 0));
+        assertEquals(3048L, arena.getAllocatedBytes());
+    }
+
+    @Test(timeout = 30000)
+    public void testArenaReleasesUnreachableSlabs() throws InterruptedException {
+        // regions larger than a quarter of a slab get their own buffer, which is released once its map is unreachable
+        final OffHeapAttributeArena arena = new OffHeapAttributeArena(1024, 1000);
+        assertNotNull(arena.store(new byte[1000], 0));
+        assertEquals(1000L, arena.getAllocatedBytes());
+        assertNull(arena.store(new byte[1000], 0));
+
+        while (arena.getAllocatedBytes() > 0L) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+
+        assertNotNull(arena.store(new byte[1000], 0));
+        assertEquals(1000L, arena.getAllocatedBytes());
+    }
+
+    @Test
+    public void testFlowFileRecordFallsBackToHeapAttributes() {
+        StandardFlowFileRecord.setOffHeapAttributesEnabled(true);
+        StandardFlowFileRecord.setOffHeapAttributesMaxBytes(0L);
+
+        // the attribute is too large to be placed into a slab that is already allocated, so it requires new direct memory
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < OffHeapAttributeArena.SLAB_SIZE / 2; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+
+        final FlowFileRecord flowFile = new StandardFlowFileRecord.Builder()
+            .id(1L)
+            .addAttribute(CoreAttributes.FILENAME.key(), "file.txt")
+            .addAttribute("large", sb.toString())
+            .build();
+
+        assertEquals("file.txt", flowFile.getAttribute(CoreAttributes.FILENAME.key()));
+        assertEquals(sb.toString(), flowFile.getAttribute("large"));
+        assertEquals(2, flowFile.getAttributes().size());
+        assertFalse(flowFile.getAttributes() instanceof OffHeapAttributeMap);
+    }
+
+    @Test
+    @Ignore("Intended only for local performance testing before/after making changes")
+    public void testHeapUsageWithOneMillionFlowFiles() {
+        for (final boolean offHeap : new boolean[] {false, true}) {
+            StandardFlowFileRecord.setOffHeapAttributesEnabled(offHeap);
+
+            final long heapBefore = usedHeap();
+            final List<FlowFileRecord> queued = new ArrayList<>(1_000_000);
+            for (int i = 0; i < 1_000_000; i++) {
+                queued.add(new StandardFlowFileRecord.Builder()
+                    .id(i)
+                    .addAttribute(CoreAttributes.UUID.key(), UUID.randomUUID().toString())
+                    .addAttribute(CoreAttributes.FILENAME.key(), "file-" + i + ".txt")
+                    .addAttribute(CoreAttributes.PATH.key(), "./")
+                    .addAttribute(CoreAttributes.MIME_TYPE.key(), "application/json")
+                    .addAttribute("record.count", String.valueOf(i % 1000))
+                    .addAttribute("source.host", "host-" + (i % 10))
+                    .build());
+            }
+
+            final long heapAfter = usedHeap();
+            System.out.println("Off-Heap Attributes = " + offHeap + ": " + queued.size() + " FlowFiles use "
+                + (heapAfter - heapBefore) / (1024 * 1024) + " MB of heap");
+            queued.clear();
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        final Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
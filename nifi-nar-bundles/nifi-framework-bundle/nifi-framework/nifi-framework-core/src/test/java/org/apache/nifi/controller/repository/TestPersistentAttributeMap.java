@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestPersistentAttributeMap {
+
+    @Test
+    public void testPlusAndMinusMatchHashMap() {
+        final Random random = new Random(1L);
+        final Map<String, String> expected = new HashMap<>();
+        PersistentAttributeMap map = PersistentAttributeMap.EMPTY;
+
+        for (int i = 0; i < 20_000; i++) {
+            final String key = "key-" + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                final String value = "value-" + random.nextInt(10);
+                expected.put(key, value);
+                map = map.plus(key, value);
+            }
+
+            if (i % 1000 == 0) {
+                assertEquals(expected, map);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+        for (final Map.Entry<String, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testOriginalUnchanged() {
+        final PersistentAttributeMap original = PersistentAttributeMap.EMPTY.plus("a", "1").plus("b", "2");
+        final PersistentAttributeMap updated = original.plus("a", "3").minus("b").plus("c", "4");
+
+        assertEquals("1", original.get("a"));
+        assertEquals("2", original.get("b"));
+        assertNull(original.get("c"));
+        assertEquals(2, original.size());
+
+        assertEquals("3", updated.get("a"));
+        assertFalse(updated.containsKey("b"));
+        assertEquals("4", updated.get("c"));
+        assertEquals(2, updated.size());
+    }
+
+    @Test
+    public void testUnchangedReturnsSameInstance() {
+        final PersistentAttributeMap map = PersistentAttributeMap.EMPTY.plus("a", "1");
+        assertSame(map, map.plus("a", "1"));
+        assertSame(map, map.minus("b"));
+        assertSame(PersistentAttributeMap.EMPTY, map.minus("a"));
+    }
+
+    @Test
+    public void testNullValues() {
+        final PersistentAttributeMap map = PersistentAttributeMap.EMPTY.plus("removed", null);
+        assertTrue(map.containsKey("removed"));
+        assertNull(map.get("removed"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testHashCollisions() {
+        // "Aa" and "BB" have the same hash code, as do all strings that are built from them
+        final List<String> keys = new ArrayList<>();
+        for (final String first : new String[] {"Aa", "BB"}) {
+            for (final String second : new String[] {"Aa", "BB"}) {
+                keys.add(first + second);
+            }
+        }
+
+        PersistentAttributeMap map = PersistentAttributeMap.EMPTY;
+        for (final String key : keys) {
+            map = map.plus(key, key.toLowerCase());
+        }
+
+        assertEquals(4, map.size());
+        for (final String key : keys) {
+            assertEquals(key.toLowerCase(), map.get(key));
+        }
+
+        map = map.minus("AaAa").minus("BBBB").minus("AaBB");
+        assertEquals(1, map.size());
+        assertEquals("bbaa", map.get("BBAa"));
+        assertNull(map.get("AaAa"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        PersistentAttributeMap.EMPTY.plus("a", "1").put("b", "2");
+    }
+}
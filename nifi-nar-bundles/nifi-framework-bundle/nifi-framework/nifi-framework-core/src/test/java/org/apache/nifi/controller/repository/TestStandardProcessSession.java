@@ -38,6 +38,9 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -51,6 +54,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -86,6 +90,8 @@ import org.apache.nifi.provenance.MockProvenanceRepository;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventRepository;
 import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.registry.VariableDescriptor;
+import org.apache.nifi.registry.variable.StandardComponentVariableRegistry;
 import org.apache.nifi.stream.io.StreamUtils;
 import org.apache.nifi.util.MockFlowFile;
 import org.apache.nifi.util.NiFiProperties;
@@ -293,6 +299,124 @@ public class TestStandardProcessSession {
         verify(conn2, times(1)).poll(any(Set.class));
     }
 
+    @Test
+    public void testCloneThenModifyAttributes() {
+        final StandardFlowFileRecord.Builder builder = new StandardFlowFileRecord.Builder()
+            .id(1000L)
+            .addAttribute("uuid", "12345678-1234-1234-1234-123456789012")
+            .entryDate(System.currentTimeMillis());
+        for (int i = 0; i < 100; i++) {
+            builder.addAttribute("attribute." + i, "value " + i);
+        }
+        flowFileQueue.put(builder.build());
+
+        final FlowFile original = session.get();
+        FlowFile clone = session.clone(original);
+        clone = session.putAttribute(clone, "attribute.7", "updated");
+        clone = session.removeAttribute(clone, "attribute.8");
+
+        assertEquals("value 7", original.getAttribute("attribute.7"));
+        assertEquals("value 8", original.getAttribute("attribute.8"));
+        assertEquals(101, original.getAttributes().size());
+
+        assertEquals("updated", clone.getAttribute("attribute.7"));
+        assertEquals(null, clone.getAttribute("attribute.8"));
+        assertEquals("value 9", clone.getAttribute("attribute.9"));
+        assertEquals(100, clone.getAttributes().size());
+        assertFalse(original.getAttribute(CoreAttributes.UUID.key()).equals(clone.getAttribute(CoreAttributes.UUID.key())));
+
+        session.transfer(original);
+        session.remove(clone);
+        session.commit();
+
+        assertEquals(1, flowFileQueue.size().getObjectCount());
+        final FlowFile polled = flowFileQueue.poll(Collections.emptySet());
+        assertEquals("value 7", polled.getAttribute("attribute.7"));
+        assertEquals(101, polled.getAttributes().size());
+    }
+
+    @Test
+    @Ignore("Intended only for local performance testing before/after making changes")
+    public void testAllocationPerCommitWithManyAttributes() {
+        final StandardFlowFileRecord.Builder builder = new StandardFlowFileRecord.Builder()
+            .id(Long.MAX_VALUE)
+            .addAttribute("uuid", "12345678-1234-1234-1234-123456789012")
+            .entryDate(System.currentTimeMillis());
+        for (int i = 0; i < 100; i++) {
+            builder.addAttribute("attribute." + i, "value " + i);
+        }
+        flowFileQueue.put(builder.build());
+
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final int iterations = 1_000;
+
+        for (int run = 0; run < 3; run++) {
+            final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+            final long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                FlowFile flowFile = session.get();
+                for (int j = 0; j < 10; j++) {
+                    final FlowFile clone = session.putAttribute(session.clone(flowFile), "clone.index", String.valueOf(j));
+                    session.remove(clone);
+                }
+
+                flowFile = session.putAttribute(flowFile, "iteration", String.valueOf(i));
+                session.transfer(flowFile);
+                session.commit();
+            }
+
+            final long millis = (System.nanoTime() - start) / 1_000_000L;
+            final long bytesPerCommit = (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / iterations;
+            System.out.println("Allocated " + bytesPerCommit + " bytes per commit; " + iterations + " commits took " + millis + " millis");
+        }
+    }
+
+    @Test
+    @Ignore("Intended only for local performance testing before/after making changes")
+    public void testCommitTenThousandFlowFiles() {
+        final Relationship relationship = new Relationship.Builder().name("A").build();
+        final int flowFilesPerCommit = 10_000;
+
+        // Use stub-only mocks and a queue that is not a spy, so that Mockito does not retain every invocation
+        final Connection connection = Mockito.mock(Connection.class, Mockito.withSettings().stubOnly());
+        final StandardFlowFileQueue queue = new StandardFlowFileQueue("benchmark", connection, flowFileRepo, provenanceRepo, null,
+            Mockito.mock(ProcessScheduler.class), Mockito.mock(FlowFileSwapManager.class), null, 1_000_000, 0L, "0 B");
+        when(connection.getFlowFileQueue()).thenReturn(queue);
+        when(connection.getIdentifier()).thenReturn("benchmark-connection");
+
+        final Connectable destination = Mockito.mock(Connectable.class, Mockito.withSettings().stubOnly());
+        when(connection.getSource()).thenReturn(destination);
+        when(connection.getDestination()).thenReturn(destination);
+
+        final Connectable source = Mockito.mock(Connectable.class, Mockito.withSettings().stubOnly());
+        when(source.getIdentifier()).thenReturn("benchmark-source");
+        when(source.getConnectableType()).thenReturn(ConnectableType.INPUT_PORT);
+        when(source.getConnections(relationship)).thenReturn(Collections.singleton(connection));
+
+        for (int run = 0; run < 20; run++) {
+            // use fresh repositories for each run so that the events and updates of previous runs are not retained
+            flowFileRepo.getUpdates().clear();
+            final RepositoryContext runContext = new RepositoryContext(source, new AtomicLong(0L), contentRepo, flowFileRepo,
+                Mockito.mock(FlowFileEventRepository.class, Mockito.withSettings().stubOnly()), Mockito.mock(CounterRepository.class), new MockProvenanceRepository());
+            final StandardProcessSession runSession = new StandardProcessSession(runContext, () -> false);
+
+            for (int i = 0; i < flowFilesPerCommit; i++) {
+                FlowFile flowFile = runSession.create();
+                flowFile = runSession.putAttribute(flowFile, "index", String.valueOf(i));
+                runSession.transfer(flowFile, relationship);
+            }
+
+            final long start = System.nanoTime();
+            runSession.commit();
+            final long micros = (System.nanoTime() - start) / 1000L;
+            System.out.println("Committed " + flowFilesPerCommit + " FlowFiles in " + micros + " micros");
+
+            // drain the queue so that each run starts from the same state
+            queue.acknowledge(queue.poll(Integer.MAX_VALUE, new HashSet<>()));
+        }
+    }
+
     @Test
     public void testCloneOriginalDataSmaller() throws IOException {
         final byte[] originalContent = "hello".getBytes();
@@ -1671,6 +1795,65 @@ public class TestStandardProcessSession {
         assertEquals(ProvenanceEventType.ATTRIBUTES_MODIFIED, event.getEventType());
     }
 
+    @Test
+    public void testProvenanceEventPolicySamplesEvents() throws IOException {
+        final Map<VariableDescriptor, String> variables = new HashMap<>();
+        variables.put(new VariableDescriptor("provenance.sampling.ATTRIBUTES_MODIFIED"), "0.5");
+        // CREATE events establish lineage and must never be sampled out
+        variables.put(new VariableDescriptor("provenance.sampling.CREATE"), "0");
+        when(connectable.getProcessGroup().getVariableRegistry()).thenReturn(new StandardComponentVariableRegistry(() -> variables));
+
+        for (int i = 0; i < 200; i++) {
+            this.flowFileQueue.put(new StandardFlowFileRecord.Builder()
+                .id(i)
+                .addAttribute("uuid", UUID.randomUUID().toString())
+                .build());
+        }
+
+        final Relationship relationship = new Relationship.Builder().name("A").build();
+        for (final FlowFile flowFile : session.get(200)) {
+            session.transfer(session.putAttribute(flowFile, "attr", "a"), relationship);
+        }
+        session.transfer(session.create(), relationship);
+        session.commit();
+
+        final List<ProvenanceEventRecord> events = provenanceRepo.getEvents(0L, 10000);
+        final long attributesModified = events.stream().filter(event -> event.getEventType() == ProvenanceEventType.ATTRIBUTES_MODIFIED).count();
+        assertTrue(attributesModified > 50 && attributesModified < 150);
+        assertEquals(1L, events.stream().filter(event -> event.getEventType() == ProvenanceEventType.CREATE).count());
+    }
+
+    @Test
+    public void testProvenanceEventPolicyProjectsAttributes() throws IOException {
+        final Map<VariableDescriptor, String> variables = new HashMap<>();
+        variables.put(new VariableDescriptor("provenance.attributes.ATTRIBUTES_MODIFIED"), "kept");
+        variables.put(new VariableDescriptor("provenance.attributes.ATTRIBUTES_MODIFIED.connectable-1"), "kept, alsoKept");
+        when(connectable.getProcessGroup().getVariableRegistry()).thenReturn(new StandardComponentVariableRegistry(() -> variables));
+
+        this.flowFileQueue.put(new StandardFlowFileRecord.Builder()
+            .id(1L)
+            .addAttribute("uuid", "000000000000-0000-0000-0000-00000000")
+            .addAttribute("kept", "1")
+            .addAttribute("dropped", "2")
+            .build());
+
+        FlowFile flowFile = session.get();
+        flowFile = session.putAttribute(flowFile, "alsoKept", "3");
+        flowFile = session.putAttribute(flowFile, "alsoDropped", "4");
+        session.transfer(flowFile, new Relationship.Builder().name("A").build());
+        session.commit();
+
+        final List<ProvenanceEventRecord> events = provenanceRepo.getEvents(0L, 10000);
+        assertEquals(1, events.size());
+
+        final Map<String, String> attributes = events.get(0).getAttributes();
+        assertEquals("000000000000-0000-0000-0000-00000000", attributes.get("uuid"));
+        assertEquals("1", attributes.get("kept"));
+        assertEquals("3", attributes.get("alsoKept"));
+        assertFalse(attributes.containsKey("dropped"));
+        assertFalse(attributes.containsKey("alsoDropped"));
+    }
+
     @Test
     public void testReadFromInputStream() throws IOException {
         FlowFile flowFile = session.create();
@@ -1691,6 +1874,31 @@ public class TestStandardProcessSession {
         session.commit();
     }
 
+    @Test
+    public void testImportFromChannelAndReadFileRegion() throws IOException {
+        FlowFile flowFile = session.create();
+        final byte[] data = "hello, world and some more".getBytes(StandardCharsets.UTF_8);
+        flowFile = session.importFrom(Channels.newChannel(new ByteArrayInputStream(data)), 12L, flowFile);
+        assertEquals(12L, flowFile.getSize());
+
+        final AtomicReference<String> content = new AtomicReference<>();
+        assertTrue(session.readFileRegion(flowFile, (channel, position, length) -> {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) length);
+            channel.read(buffer, position);
+            content.set(new String(buffer.array(), StandardCharsets.UTF_8));
+        }));
+        assertEquals("hello, world", content.get());
+
+        // Empty content is never handed out as a file region
+        final FlowFile empty = session.create();
+        assertFalse(session.readFileRegion(empty, (channel, position, length) -> content.set(null)));
+        assertEquals("hello, world", content.get());
+
+        session.remove(flowFile);
+        session.remove(empty);
+        session.commit();
+    }
+
     @Test
     public void testReadFromInputStreamWithoutClosingThenRemove() throws IOException {
         FlowFile flowFile = session.create();
@@ -2206,6 +2414,11 @@ public class TestStandardProcessSession {
             return 0;
         }
 
+        @Override
+        public Path getContentPath(final ContentClaim claim) {
+            return claim == null ? null : getPath(claim);
+        }
+
         private Path getPath(final ContentClaim contentClaim) {
             final ResourceClaim claim = contentClaim.getResourceClaim();
             return Paths.get("target").resolve("contentRepo").resolve(claim.getContainer()).resolve(claim.getSection()).resolve(claim.getId());
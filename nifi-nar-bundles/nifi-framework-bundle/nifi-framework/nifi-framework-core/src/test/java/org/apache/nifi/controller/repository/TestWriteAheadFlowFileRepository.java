@@ -46,6 +46,8 @@ import org.apache.nifi.controller.queue.DropFlowFileStatus;
 import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.queue.ListFlowFileStatus;
 import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.queue.QueueTimeStatistics;
+import org.apache.nifi.controller.queue.SwapStatistics;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
@@ -117,6 +119,16 @@ public class TestWriteAheadFlowFileRepository {
                 return 0;
             }
 
+            @Override
+            public SwapStatistics getSwapStatistics() {
+                return SwapStatistics.EMPTY;
+            }
+
+            @Override
+            public QueueTimeStatistics getQueueTimeStatistics() {
+                return QueueTimeStatistics.EMPTY;
+            }
+
             @Override
             public void setPriorities(List<FlowFilePrioritizer> newPriorities) {
             }
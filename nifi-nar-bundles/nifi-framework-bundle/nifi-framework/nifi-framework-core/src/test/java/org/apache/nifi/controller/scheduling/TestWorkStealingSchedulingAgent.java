@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.components.state.StateManagerProvider;
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.ProcessorNode;
+import org.apache.nifi.controller.ScheduledState;
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.FlowFileEventRepository;
+import org.apache.nifi.controller.repository.RepositoryContext;
+import org.apache.nifi.encrypt.StringEncryptor;
+import org.apache.nifi.engine.FlowEngine;
+import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSessionFactory;
+import org.apache.nifi.processor.Processor;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestWorkStealingSchedulingAgent {
+
+    private FlowEngine flowEngine;
+
+    @Before
+    public void setup() {
+        flowEngine = new FlowEngine(2, "Test Timer", true);
+    }
+
+    @After
+    public void cleanup() {
+        flowEngine.shutdownNow();
+    }
+
+    private WorkStealingSchedulingAgent createAgent(final String boredYieldDuration, final String maxIdleBackoff) {
+        final FlowController flowController = Mockito.mock(FlowController.class);
+        when(flowController.getStateManagerProvider()).thenReturn(Mockito.mock(StateManagerProvider.class));
+
+        final RepositoryContext repoContext = Mockito.mock(RepositoryContext.class);
+        when(repoContext.getFlowFileEventRepository()).thenReturn(Mockito.mock(FlowFileEventRepository.class));
+
+        final RepositoryContextFactory contextFactory = Mockito.mock(RepositoryContextFactory.class);
+        when(contextFactory.newProcessContext(Mockito.any(Connectable.class), Mockito.any(AtomicLong.class))).thenReturn(repoContext);
+
+        final NiFiProperties nifiProperties = Mockito.mock(NiFiProperties.class);
+        when(nifiProperties.getBoredYieldDuration()).thenReturn(boredYieldDuration);
+        when(nifiProperties.getTimerDrivenMaxIdleBackoff()).thenReturn(maxIdleBackoff);
+
+        return new WorkStealingSchedulingAgent(flowController, flowEngine, contextFactory, Mockito.mock(StringEncryptor.class), nifiProperties, 2);
+    }
+
+    private ProcessorNode createProcessorNode(final AtomicInteger triggerCount, final CountDownLatch triggerLatch) {
+        final ProcessorNode procNode = Mockito.mock(ProcessorNode.class);
+        when(procNode.getIdentifier()).thenReturn("1234");
+        when(procNode.getRunnableComponent()).thenReturn(Mockito.mock(Processor.class));
+        when(procNode.getScheduledState()).thenReturn(ScheduledState.RUNNING);
+        when(procNode.getMaxConcurrentTasks()).thenReturn(1);
+
+        Mockito.doAnswer(invocation -> {
+            triggerCount.incrementAndGet();
+            triggerLatch.countDown();
+            return null;
+        }).when(procNode).onTrigger(Mockito.any(ProcessContext.class), Mockito.any(ProcessSessionFactory.class));
+
+        return procNode;
+    }
+
+    @Test(timeout = 10000)
+    public void testSourceComponentRunsUntilUnscheduled() throws InterruptedException {
+        final WorkStealingSchedulingAgent agent = createAgent("10 millis", "1 sec");
+        final AtomicInteger triggerCount = new AtomicInteger(0);
+        final CountDownLatch triggerLatch = new CountDownLatch(100);
+        final ProcessorNode procNode = createProcessorNode(triggerCount, triggerLatch);
+        when(procNode.hasIncomingConnection()).thenReturn(false);
+
+        final LifecycleState scheduleState = new LifecycleState();
+        agent.schedule(procNode, scheduleState);
+
+        // A source component always has work to do, so it is re-submitted without waiting for a timer.
+        assertTrue(triggerLatch.await(5, TimeUnit.SECONDS));
+
+        agent.unschedule(procNode, scheduleState);
+        Thread.sleep(100L);
+        final int countAfterUnschedule = triggerCount.get();
+        Thread.sleep(200L);
+        assertEquals(countAfterUnschedule, triggerCount.get());
+        assertEquals(0, agent.getActiveThreadCount());
+
+        agent.shutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void testIdleComponentIsWokenByEvent() throws InterruptedException {
+        // The idle back-off is far longer than the test waits, so only the event can trigger the component again.
+        final WorkStealingSchedulingAgent agent = createAgent("1 min", "1 min");
+        final AtomicInteger triggerCount = new AtomicInteger(0);
+        final CountDownLatch triggerLatch = new CountDownLatch(1);
+        final ProcessorNode procNode = createProcessorNode(triggerCount, triggerLatch);
+
+        final FlowFileQueue queue = Mockito.mock(FlowFileQueue.class);
+        when(queue.isActiveQueueEmpty()).thenReturn(true);
+
+        final Connection connection = Mockito.mock(Connection.class);
+        when(connection.getSource()).thenReturn(Mockito.mock(ProcessorNode.class));
+        when(connection.getDestination()).thenReturn(procNode);
+        when(connection.getFlowFileQueue()).thenReturn(queue);
+        when(procNode.hasIncomingConnection()).thenReturn(true);
+        when(procNode.getIncomingConnections()).thenReturn(Collections.singletonList(connection));
+
+        final LifecycleState scheduleState = new LifecycleState();
+        agent.schedule(procNode, scheduleState);
+
+        // Give the first invocation time to find no work and park the component.
+        Thread.sleep(200L);
+        assertEquals(0, triggerCount.get());
+
+        when(queue.isActiveQueueEmpty()).thenReturn(false);
+        agent.onEvent(procNode);
+        assertTrue(triggerLatch.await(5, TimeUnit.SECONDS));
+
+        agent.unschedule(procNode, scheduleState);
+        agent.shutdown();
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.controller.status.ConnectionStatus;
+import org.apache.nifi.controller.status.ProcessGroupStatus;
+import org.apache.nifi.controller.status.ProcessorStatus;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestPersistentComponentStatusRepository {
+
+    private static final long START = TimeUnit.DAYS.toMillis(20000);
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testHistoryIsReadBackAfterRestart() throws IOException {
+        final File directory = tempFolder.newFolder();
+        final PersistentComponentStatusRepository repository = createRepository(directory, "1 day");
+
+        // the open segment is written to disk each time a 5-minute interval ends
+        for (int i = 0; i <= 5; i++) {
+            repository.capture(createGroupStatus(i), Collections.emptyList(), new Date(START + i * ONE_MINUTE));
+        }
+
+        final StatusHistory connectionHistory = repository.getConnectionStatusHistory("conn", null, new Date(START + 10 * ONE_MINUTE), 100);
+        assertEquals(6, connectionHistory.getStatusSnapshots().size());
+        assertEquals("source", connectionHistory.getComponentDetails().get(ComponentStatusRepository.COMPONENT_DETAIL_SOURCE_NAME));
+
+        final PersistentComponentStatusRepository restarted = createRepository(directory, "1 day");
+        final StatusHistory restartedHistory = restarted.getConnectionStatusHistory("conn", null, new Date(START + 10 * ONE_MINUTE), 100);
+        final List<StatusSnapshot> snapshots = restartedHistory.getStatusSnapshots();
+        assertEquals(5, snapshots.size());
+        for (int i = 0; i < 5; i++) {
+            final StatusSnapshot snapshot = snapshots.get(i);
+            assertEquals(START + i * ONE_MINUTE, snapshot.getTimestamp().getTime());
+            assertEquals(Long.valueOf(i * 10), snapshot.getStatusMetrics().get(ConnectionStatusDescriptor.QUEUED_COUNT.getDescriptor()));
+            assertEquals(Long.valueOf(i * 1000), snapshot.getStatusMetrics().get(ConnectionStatusDescriptor.QUEUED_BYTES.getDescriptor()));
+        }
+        assertEquals("conn-name", restartedHistory.getComponentDetails().get(ComponentStatusRepository.COMPONENT_DETAIL_NAME));
+
+        final StatusHistory processorHistory = restarted.getProcessorStatusHistory("proc", null, new Date(START + 10 * ONE_MINUTE), 100, true);
+        assertEquals(5, processorHistory.getStatusSnapshots().size());
+        final StatusSnapshot lastProcessorSnapshot = processorHistory.getStatusSnapshots().get(4);
+        assertEquals(Long.valueOf(4), lastProcessorSnapshot.getStatusMetrics().get(ProcessorStatusDescriptor.TASK_COUNT.getDescriptor()));
+        assertTrue(lastProcessorSnapshot.getStatusMetrics().keySet().stream().anyMatch(descriptor -> descriptor.getField().equals("my counter")));
+    }
+
+    @Test
+    public void testLatestCapturesAreQueryableAfterClose() throws IOException {
+        final File directory = tempFolder.newFolder();
+        final PersistentComponentStatusRepository repository = createRepository(directory, "30 mins");
+
+        // the last 3 captures are in a 5-minute interval that has not ended, so only closing the repository persists them
+        for (int i = 0; i < 8; i++) {
+            repository.capture(createGroupStatus(i), Collections.emptyList(), new Date(START + i * ONE_MINUTE));
+        }
+        repository.close();
+
+        final PersistentComponentStatusRepository restarted = createRepository(directory, "30 mins");
+        assertEquals(START + 7 * ONE_MINUTE, restarted.getLastCaptureDate().getTime());
+
+        final List<StatusSnapshot> snapshots = restarted.getConnectionStatusHistory("conn", null, new Date(START + 10 * ONE_MINUTE), 100).getStatusSnapshots();
+        assertEquals(8, snapshots.size());
+        final StatusSnapshot latest = snapshots.get(7);
+        assertEquals(START + 7 * ONE_MINUTE, latest.getTimestamp().getTime());
+        assertEquals(Long.valueOf(70), latest.getStatusMetrics().get(ConnectionStatusDescriptor.QUEUED_COUNT.getDescriptor()));
+
+        final List<StatusSnapshot> processorSnapshots = restarted.getProcessorStatusHistory("proc", null, new Date(START + 10 * ONE_MINUTE), 100, true).getStatusSnapshots();
+        assertEquals(8, processorSnapshots.size());
+        assertEquals(Long.valueOf(7), processorSnapshots.get(7).getStatusMetrics().get(ProcessorStatusDescriptor.TASK_COUNT.getDescriptor()));
+
+        // keep capturing for another 2 hours, so that the raw history from before the restart expires
+        final int captures = 2 * 60;
+        for (int i = 8; i < captures; i++) {
+            restarted.capture(createGroupStatus(i), Collections.emptyList(), new Date(START + i * ONE_MINUTE));
+        }
+
+        // the 5-minute point of the interval that was in progress at shutdown is the last capture before the shutdown,
+        // and is not duplicated by the captures of that interval that were made after the restart
+        final List<StatusSnapshot> rolledUp = restarted.getConnectionStatusHistory("conn", null, new Date(START + captures * ONE_MINUTE), 1000).getStatusSnapshots();
+        assertEquals(START, rolledUp.get(0).getTimestamp().getTime());
+        assertEquals(START + 5 * ONE_MINUTE, rolledUp.get(1).getTimestamp().getTime());
+        assertEquals(Long.valueOf(70), rolledUp.get(1).getStatusMetrics().get(ConnectionStatusDescriptor.QUEUED_COUNT.getDescriptor()));
+        assertEquals(START + 10 * ONE_MINUTE, rolledUp.get(2).getTimestamp().getTime());
+
+        long previous = -1L;
+        for (final StatusSnapshot snapshot : rolledUp) {
+            assertTrue(snapshot.getTimestamp().getTime() > previous);
+            previous = snapshot.getTimestamp().getTime();
+        }
+        assertEquals(START + (captures - 1) * ONE_MINUTE, previous);
+    }
+
+    @Test
+    public void testOlderHistoryIsRolledUp() throws IOException {
+        final File directory = tempFolder.newFolder();
+        final PersistentComponentStatusRepository repository = createRepository(directory, "30 mins");
+
+        final int captures = 3 * 60;
+        for (int i = 0; i < captures; i++) {
+            repository.capture(createGroupStatus(i), Collections.emptyList(), new Date(START + i * ONE_MINUTE));
+        }
+
+        final Date end = new Date(START + captures * ONE_MINUTE);
+        final List<StatusSnapshot> snapshots = repository.getConnectionStatusHistory("conn", null, end, 1000).getStatusSnapshots();
+
+        // the raw segment of the first hour has expired, so that hour is covered by one point per 5 minutes
+        // (each being the last capture of its interval), followed by every capture since
+        final StatusSnapshot first = snapshots.get(0);
+        assertEquals(START, first.getTimestamp().getTime());
+        assertEquals(Long.valueOf(40), first.getStatusMetrics().get(ConnectionStatusDescriptor.QUEUED_COUNT.getDescriptor()));
+        assertEquals(START + 5 * ONE_MINUTE, snapshots.get(1).getTimestamp().getTime());
+        assertTrue(snapshots.size() < captures);
+
+        long previous = 0L;
+        for (final StatusSnapshot snapshot : snapshots) {
+            assertTrue(snapshot.getTimestamp().getTime() >= previous);
+            previous = snapshot.getTimestamp().getTime();
+        }
+        assertEquals(START + (captures - 1) * ONE_MINUTE, previous);
+
+        final List<StatusSnapshot> groupSnapshots = repository.getProcessGroupStatusHistory("root", null, end, 1000).getStatusSnapshots();
+        assertEquals(snapshots.size(), groupSnapshots.size());
+    }
+
+    private PersistentComponentStatusRepository createRepository(final File directory, final String rawRetention) throws IOException {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(PersistentComponentStatusRepository.DIRECTORY_PROPERTY, directory.getAbsolutePath());
+        properties.put(PersistentComponentStatusRepository.RAW_RETENTION_PROPERTY, rawRetention);
+        return new PersistentComponentStatusRepository(NiFiProperties.createBasicNiFiProperties(null, properties));
+    }
+
+    private ProcessGroupStatus createGroupStatus(final int iteration) {
+        final ConnectionStatus connectionStatus = new ConnectionStatus();
+        connectionStatus.setId("conn");
+        connectionStatus.setGroupId("root");
+        connectionStatus.setName("conn-name");
+        connectionStatus.setSourceName("source");
+        connectionStatus.setDestinationName("destination");
+        connectionStatus.setQueuedCount(iteration * 10);
+        connectionStatus.setQueuedBytes(iteration * 1000L);
+
+        final ProcessorStatus processorStatus = new ProcessorStatus();
+        processorStatus.setId("proc");
+        processorStatus.setGroupId("root");
+        processorStatus.setName("proc-name");
+        processorStatus.setType("GenerateFlowFile");
+        processorStatus.setInvocations(iteration);
+        processorStatus.setCounters(Collections.singletonMap("my counter", (long) iteration));
+
+        final ProcessGroupStatus groupStatus = new ProcessGroupStatus();
+        groupStatus.setId("root");
+        groupStatus.setName("root-name");
+        groupStatus.setInputCount(iteration);
+        groupStatus.setInputContentSize(0L);
+        groupStatus.setOutputCount(0);
+        groupStatus.setOutputContentSize(0L);
+        groupStatus.setActiveThreadCount(0);
+        groupStatus.setTerminatedThreadCount(0);
+        groupStatus.setQueuedCount(iteration * 10);
+        groupStatus.setQueuedContentSize(iteration * 1000L);
+        groupStatus.setBytesRead(0L);
+        groupStatus.setBytesWritten(0L);
+        groupStatus.setConnectionStatus(Collections.singletonList(connectionStatus));
+        groupStatus.setProcessorStatus(Collections.singletonList(processorStatus));
+        return groupStatus;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.swap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.SwapSummary;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestCompressedSchemaSwapSerializerDeserializer {
+
+    private final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
+    private final List<FlowFileRecord> toSwap = new ArrayList<>(10000);
+    private long size = 0L;
+    private FlowFileQueue flowFileQueue;
+
+    @Before
+    public void setup() {
+        MockFlowFile.resetIdGenerator();
+
+        final Map<String, String> attrs = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            attrs.put("i", String.valueOf(i));
+            final FlowFileRecord ff = new MockFlowFile(attrs, i, resourceClaimManager);
+            toSwap.add(ff);
+            size += i;
+        }
+
+        flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        Mockito.when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+    }
+
+    @Test
+    public void testRoundTripSerializeDeserializeSummary() throws IOException {
+        final String swapLocation = "target/testCompressedRoundTripSummary.swap";
+        final File swapFile = write(swapLocation);
+
+        final SwapSummary swapSummary;
+        try (final FileInputStream fis = new FileInputStream(swapFile);
+            final DataInputStream dis = new DataInputStream(fis)) {
+
+            swapSummary = new CompressedSchemaSwapDeserializer().getSwapSummary(dis, swapLocation, resourceClaimManager);
+        }
+
+        assertEquals(10000, swapSummary.getQueueSize().getObjectCount());
+        assertEquals(size, swapSummary.getQueueSize().getByteCount());
+        assertEquals(9999, swapSummary.getMaxFlowFileId().intValue());
+        assertEquals(10000, swapSummary.getResourceClaims().size());
+    }
+
+    @Test
+    public void testRoundTripSerializeDeserializeFullSwapFile() throws IOException {
+        final String swapLocation = "target/testCompressedRoundTrip.swap";
+        final File swapFile = write(swapLocation);
+
+        final SwapContents contents;
+        try (final FileInputStream fis = new FileInputStream(swapFile);
+            final InputStream bufferedIn = new BufferedInputStream(fis);
+            final DataInputStream dis = new DataInputStream(bufferedIn)) {
+
+            contents = new CompressedSchemaSwapDeserializer().deserializeFlowFiles(dis, swapLocation, flowFileQueue, resourceClaimManager);
+        }
+
+        final SwapSummary swapSummary = contents.getSummary();
+        assertEquals(10000, swapSummary.getQueueSize().getObjectCount());
+        assertEquals(size, swapSummary.getQueueSize().getByteCount());
+        assertEquals(9999, swapSummary.getMaxFlowFileId().intValue());
+
+        assertEquals(10000, contents.getFlowFiles().size());
+
+        int counter = 0;
+        for (final FlowFileRecord flowFile : contents.getFlowFiles()) {
+            final int i = counter++;
+            assertEquals(String.valueOf(i), flowFile.getAttribute("i"));
+            assertEquals(i, flowFile.getSize());
+        }
+    }
+
+    @Test
+    public void testCompressedSmallerThanUncompressed() throws IOException {
+        final File compressedFile = write("target/testCompressedSize.swap");
+
+        final File uncompressedFile = new File("target/testUncompressedSize.swap");
+        Files.deleteIfExists(uncompressedFile.toPath());
+        try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(uncompressedFile))) {
+            new SchemaSwapSerializer().serializeFlowFiles(toSwap, flowFileQueue, uncompressedFile.getPath(), out);
+        }
+
+        assertTrue(compressedFile.length() < uncompressedFile.length());
+    }
+
+    private File write(final String swapLocation) throws IOException {
+        final File swapFile = new File(swapLocation);
+        Files.deleteIfExists(swapFile.toPath());
+
+        try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(swapFile))) {
+            new CompressedSchemaSwapSerializer().serializeFlowFiles(toSwap, flowFileQueue, swapLocation, out);
+        }
+
+        return swapFile;
+    }
+}
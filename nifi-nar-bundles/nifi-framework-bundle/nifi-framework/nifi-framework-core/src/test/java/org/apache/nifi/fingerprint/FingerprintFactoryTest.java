@@ -20,6 +20,7 @@ import static org.apache.nifi.controller.serialization.ScheduledStateLookup.IDEN
 import static org.apache.nifi.fingerprint.FingerprintFactory.FLOW_CONFIG_XSD;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -36,13 +37,21 @@ import java.util.Optional;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.ConnectableType;
+import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.connectable.Position;
 import org.apache.nifi.controller.ScheduledState;
+import org.apache.nifi.controller.ShardedFlowFileQueue;
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.serialization.FlowFromDOMFactory;
 import org.apache.nifi.controller.serialization.FlowSerializer;
 import org.apache.nifi.controller.serialization.ScheduledStateLookup;
 import org.apache.nifi.controller.serialization.StandardFlowSerializer;
 import org.apache.nifi.encrypt.StringEncryptor;
+import org.apache.nifi.groups.ProcessGroup;
 import org.apache.nifi.groups.RemoteProcessGroup;
+import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.remote.RemoteGroupPort;
 import org.apache.nifi.remote.protocol.SiteToSiteTransportProtocol;
 import org.junit.Before;
@@ -311,4 +320,88 @@ public class FingerprintFactoryTest {
         final Element componentElement = (Element) rootElement.getElementsByTagName("inputPort").item(0);
         assertEquals(expected, fingerprint("addRemoteGroupPortFingerprint", Element.class, componentElement));
     }
+
+    private Element serializeConnection(final Connection connection) throws Exception {
+        final DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
+        final DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+        final Document doc = docBuilder.newDocument();
+
+        final FlowSerializer flowSerializer = new StandardFlowSerializer(encryptor);
+        final Method serializeMethod = StandardFlowSerializer.class.getDeclaredMethod("addConnection", Element.class, Connection.class);
+        serializeMethod.setAccessible(true);
+        final Element rootElement = doc.createElement("root");
+        serializeMethod.invoke(flowSerializer, rootElement, connection);
+        return (Element) rootElement.getElementsByTagName("connection").item(0);
+    }
+
+    private Connection mockConnection(final String flowFileQueueImplementation) {
+        final ProcessGroup group = mock(ProcessGroup.class);
+        when(group.getIdentifier()).thenReturn("groupId");
+
+        final Connectable source = mock(Connectable.class);
+        when(source.getIdentifier()).thenReturn("sourceId");
+        when(source.getConnectableType()).thenReturn(ConnectableType.PROCESSOR);
+        when(source.getProcessGroup()).thenReturn(group);
+
+        final Connectable destination = mock(Connectable.class);
+        when(destination.getIdentifier()).thenReturn("destinationId");
+        when(destination.getConnectableType()).thenReturn(ConnectableType.FUNNEL);
+        when(destination.getProcessGroup()).thenReturn(group);
+
+        final FlowFileQueue queue = mock(FlowFileQueue.class);
+        when(queue.getBackPressureObjectThreshold()).thenReturn(10000L);
+        when(queue.getBackPressureDataSizeThreshold()).thenReturn("1 GB");
+        when(queue.getFlowFileExpiration()).thenReturn("0 sec");
+        when(queue.getPriorities()).thenReturn(Collections.emptyList());
+
+        final Connection connection = mock(Connection.class);
+        when(connection.getIdentifier()).thenReturn("id");
+        when(connection.getVersionedComponentId()).thenReturn(Optional.empty());
+        when(connection.getName()).thenReturn("name");
+        when(connection.getBendPoints()).thenReturn(Collections.emptyList());
+        when(connection.getSource()).thenReturn(source);
+        when(connection.getDestination()).thenReturn(destination);
+        when(connection.getRelationships()).thenReturn(Collections.singleton(new Relationship.Builder().name("success").build()));
+        when(connection.getFlowFileQueue()).thenReturn(queue);
+        when(connection.getFlowFileQueueImplementation()).thenReturn(flowFileQueueImplementation);
+        return connection;
+    }
+
+    @Test
+    public void testConnectionFingerprintWithFlowFileQueueImplementation() throws Exception {
+        final Element componentElement = serializeConnection(mockConnection(ShardedFlowFileQueue.class.getName()));
+
+        final String expected = "id" +
+                "NO_VALUE" +
+                "sourceId" +
+                "groupId" +
+                "PROCESSOR" +
+                "destinationId" +
+                "groupId" +
+                "FUNNEL" +
+                "name" +
+                ShardedFlowFileQueue.class.getName() +
+                "success";
+        assertEquals(expected, fingerprint("addConnectionFingerprint", Element.class, componentElement));
+        assertEquals(ShardedFlowFileQueue.class.getName(), FlowFromDOMFactory.getConnection(componentElement).getFlowFileQueueImplementation());
+    }
+
+    @Test
+    public void testConnectionFingerprintWithDefaultFlowFileQueueImplementation() throws Exception {
+        final Element componentElement = serializeConnection(mockConnection(null));
+
+        final String expected = "id" +
+                "NO_VALUE" +
+                "sourceId" +
+                "groupId" +
+                "PROCESSOR" +
+                "destinationId" +
+                "groupId" +
+                "FUNNEL" +
+                "name" +
+                "NO_VALUE" +
+                "success";
+        assertEquals(expected, fingerprint("addConnectionFingerprint", Element.class, componentElement));
+        assertNull(FlowFromDOMFactory.getConnection(componentElement).getFlowFileQueueImplementation());
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * <p>
+ * A JVM-wide interner for the keys and short values of FlowFile attributes. Processors that extract attributes
+ * from content produce new String objects for the same attribute names (and often the same values) for every
+ * FlowFile. Interning them allows every FlowFile to refer to a single copy. Strings are held weakly, so an interned
+ * String is discarded once no FlowFile refers to it any longer.
+ * </p>
+ *
+ * <p>
+ * Only values of at most {@link #MAX_INTERNED_VALUE_LENGTH} characters are interned. Longer values, such as
+ * UUIDs, are typically unique to a FlowFile, and interning them would only add overhead.
+ * </p>
+ *
+ * <b>Thread Safe</b>
+ */
+final class AttributeInterner {
+    static final int MAX_INTERNED_VALUE_LENGTH = 24;
+
+    private static final int STRIPES = 16;
+
+    @SuppressWarnings("unchecked")
+    private static final Map<String, WeakReference<String>>[] tables = new Map[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            tables[i] = new WeakHashMap<>();
+        }
+    }
+
+    private AttributeInterner() {
+    }
+
+    static String internKey(final String key) {
+        return intern(key);
+    }
+
+    static String internValue(final String value) {
+        if (value == null || value.length() > MAX_INTERNED_VALUE_LENGTH) {
+            return value;
+        }
+
+        return intern(value);
+    }
+
+    private static String intern(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        final int hash = value.hashCode();
+        final Map<String, WeakReference<String>> table = tables[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        synchronized (table) {
+            final WeakReference<String> reference = table.get(value);
+            final String existing = reference == null ? null : reference.get();
+            if (existing != null) {
+                return existing;
+            }
+
+            table.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Allocates regions of direct (off-heap) memory for {@link OffHeapAttributeMap}s. Memory is handed out from slabs
+ * by bumping a pointer, so that the JVM manages a single direct buffer for many FlowFiles rather than one buffer
+ * per FlowFile. Regions are never freed individually: a slab is released by the garbage collector once no map that
+ * was allocated from it is reachable any longer. Because FlowFiles tend to leave queues in roughly the order in which
+ * they were created, slabs are generally released in a timely manner.
+ * </p>
+ *
+ * <p>
+ * The arena will not allocate more than a configurable number of bytes. Once that limit has been reached, or if the
+ * JVM refuses to allocate more direct memory, {@link #store(byte[], int)} returns <code>null</code> and the caller
+ * keeps the attributes on the heap instead. The arena learns that a slab has been released through a phantom reference,
+ * so the allocated byte count is brought up to date lazily, when memory is next allocated.
+ * </p>
+ *
+ * <b>Thread Safe</b>
+ */
+final class OffHeapAttributeArena {
+    static final int SLAB_SIZE = 256 * 1024;
+    static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+
+    static final OffHeapAttributeArena INSTANCE = new OffHeapAttributeArena(SLAB_SIZE, DEFAULT_MAX_BYTES);
+
+    private final int slabSize;
+    private volatile long maxBytes;
+    private final AtomicLong allocatedBytes = new AtomicLong(0L);
+    private final ReferenceQueue<ByteBuffer> releasedBuffers = new ReferenceQueue<>();
+    private final Set<BufferReference> liveBuffers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private ByteBuffer currentSlab; // guarded by this
+    private int slabPosition; // guarded by this
+
+    OffHeapAttributeArena(final int slabSize, final long maxBytes) {
+        this.slabSize = slabSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Sets the maximum number of bytes of direct memory that this arena may have allocated at any one time. Lowering the
+     * limit does not release memory that has already been allocated; it only prevents further allocations until enough
+     * memory has been released.
+     *
+     * @param maxBytes the maximum number of bytes to allocate
+     */
+    void setMaxBytes(final long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the number of bytes of direct memory that this arena has allocated and that has not yet been released
+     */
+    long getAllocatedBytes() {
+        expungeReleasedBuffers();
+        return allocatedBytes.get();
+    }
+
+    /**
+     * Copies the given encoded attributes into off-heap memory.
+     *
+     * @param encoded the attributes, encoded as described by {@link OffHeapAttributeMap}
+     * @param entryCount the number of attributes that are encoded
+     * @return a map that is backed by the off-heap copy of the attributes, or <code>null</code> if the memory could not
+     *         be allocated, in which case the attributes should be kept on the heap
+     */
+    OffHeapAttributeMap store(final byte[] encoded, final int entryCount) {
+        final int length = encoded.length;
+        if (length > slabSize / 4) {
+            // Large regions get their own buffer so that they do not waste the remainder of a slab
+            final ByteBuffer buffer = allocate(length);
+            if (buffer == null) {
+                return null;
+            }
+
+            buffer.put(encoded);
+            return new OffHeapAttributeMap(buffer, 0, entryCount);
+        }
+
+        final ByteBuffer slab;
+        final int offset;
+        synchronized (this) {
+            if (currentSlab == null || slabPosition + length > slabSize) {
+                final ByteBuffer newSlab = allocate(slabSize);
+                if (newSlab == null) {
+                    return null;
+                }
+
+                currentSlab = newSlab;
+                slabPosition = 0;
+            }
+
+            slab = currentSlab;
+            offset = slabPosition;
+            slabPosition += length;
+        }
+
+        // Other threads may be writing to other regions of the same slab, so write through a duplicate
+        final ByteBuffer region = slab.duplicate();
+        region.position(offset);
+        region.put(encoded);
+        return new OffHeapAttributeMap(slab, offset, entryCount);
+    }
+
+    private ByteBuffer allocate(final int capacity) {
+        expungeReleasedBuffers();
+
+        long allocated;
+        do {
+            allocated = allocatedBytes.get();
+            if (allocated + capacity > maxBytes) {
+                return null;
+            }
+        } while (!allocatedBytes.compareAndSet(allocated, allocated + capacity));
+
+        final ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.allocateDirect(capacity);
+        } catch (final OutOfMemoryError oome) {
+            // Direct memory is exhausted (-XX:MaxDirectMemorySize); keep the attributes on the heap rather than fail the FlowFile
+            allocatedBytes.addAndGet(-capacity);
+            return null;
+        }
+
+        liveBuffers.add(new BufferReference(buffer, capacity, releasedBuffers));
+        return buffer;
+    }
+
+    private void expungeReleasedBuffers() {
+        Reference<? extends ByteBuffer> reference;
+        while ((reference = releasedBuffers.poll()) != null) {
+            final BufferReference released = (BufferReference) reference;
+            if (liveBuffers.remove(released)) {
+                allocatedBytes.addAndGet(-released.capacity);
+            }
+        }
+    }
+
+    private static class BufferReference extends PhantomReference<ByteBuffer> {
+        private final int capacity;
+
+        BufferReference(final ByteBuffer buffer, final int capacity, final ReferenceQueue<ByteBuffer> queue) {
+            super(buffer, queue);
+            this.capacity = capacity;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+
+/**
+ * <p>
+ * An immutable Map of FlowFile attributes whose keys and values are held in direct (off-heap) memory, so that
+ * a FlowFile that is sitting in a queue costs only a few dozen bytes of heap regardless of how many attributes
+ * it has. The attributes are encoded as a 4-byte entry count followed by, for each entry, a 4-byte key reference,
+ * the key's UTF-8 bytes if the key is not interned, a 4-byte value length and the value's UTF-8 bytes. A key
+ * reference that is zero or positive is the identifier of an interned key; a negative key reference <code>r</code>
+ * indicates a key of <code>-(r + 1)</code> bytes that follows.
+ * </p>
+ *
+ * <p>
+ * The keys of the core attributes are always interned. Other keys are interned as they are seen, until
+ * {@link #MAX_INTERNED_KEYS} keys have been interned, so that the keys that are common to a flow are stored
+ * as small integers and are not re-created on the heap when the attributes are read.
+ * </p>
+ *
+ * <b>Immutable - Thread Safe</b>
+ */
+final class OffHeapAttributeMap extends AbstractMap<String, String> {
+    static final int MAX_INTERNED_KEYS = 4096;
+
+    private static final ConcurrentMap<String, Integer> internedKeyIds = new ConcurrentHashMap<>();
+    private static volatile String[] internedKeys = new String[0];
+
+    static {
+        for (final CoreAttributes coreAttribute : CoreAttributes.values()) {
+            internKey(coreAttribute.key());
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int entryCount;
+
+    OffHeapAttributeMap(final ByteBuffer buffer, final int offset, final int entryCount) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Copies the given attributes into off-heap memory
+     *
+     * @param attributes the attributes to copy
+     * @return a map that is backed by off-heap memory and contains the same attributes, or <code>null</code> if the
+     *         {@link OffHeapAttributeArena} could not allocate the memory
+     */
+    static OffHeapAttributeMap copyOf(final Map<String, String> attributes) {
+        final int count = attributes.size();
+        final int[] keyRefs = new int[count];
+        final byte[][] keyBytes = new byte[count][];
+        final byte[][] valueBytes = new byte[count][];
+
+        int encodedLength = 4;
+        int i = 0;
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            final int keyId = internKey(entry.getKey());
+            if (keyId < 0) {
+                keyBytes[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                keyRefs[i] = -(keyBytes[i].length + 1);
+                encodedLength += keyBytes[i].length;
+            } else {
+                keyRefs[i] = keyId;
+            }
+
+            valueBytes[i] = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            encodedLength += 8 + valueBytes[i].length;
+            i++;
+        }
+
+        final ByteBuffer encoded = ByteBuffer.allocate(encodedLength);
+        encoded.putInt(count);
+        for (i = 0; i < count; i++) {
+            encoded.putInt(keyRefs[i]);
+            if (keyBytes[i] != null) {
+                encoded.put(keyBytes[i]);
+            }
+
+            encoded.putInt(valueBytes[i].length);
+            encoded.put(valueBytes[i]);
+        }
+
+        return OffHeapAttributeArena.INSTANCE.store(encoded.array(), count);
+    }
+
+    /**
+     * Returns the identifier of the given key, interning the key if it has not been interned and the maximum number
+     * of interned keys has not been reached
+     *
+     * @param key the key
+     * @return the identifier of the key, or <code>-1</code> if the key is not interned
+     */
+    private static int internKey(final String key) {
+        final Integer existing = internedKeyIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        synchronized (internedKeyIds) {
+            final Integer registered = internedKeyIds.get(key);
+            if (registered != null) {
+                return registered;
+            }
+
+            final String[] keys = internedKeys;
+            if (keys.length >= MAX_INTERNED_KEYS) {
+                return -1;
+            }
+
+            // Publish the key before its identifier so that any thread that obtains the identifier can resolve it
+            final String[] updated = Arrays.copyOf(keys, keys.length + 1);
+            updated[keys.length] = key;
+            internedKeys = updated;
+            internedKeyIds.put(key, keys.length);
+            return keys.length;
+        }
+    }
+
+    /**
+     * Decodes the UTF-8 bytes at the given absolute position of the given buffer, copying only those bytes onto the heap
+     */
+    private static String decode(final ByteBuffer encoded, final int position, final int length) {
+        final byte[] bytes = new byte[length];
+        encoded.position(position);
+        encoded.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean regionEquals(final ByteBuffer encoded, final int position, final byte[] other) {
+        for (int i = 0; i < other.length; i++) {
+            if (encoded.get(position + i) != other[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return entryCount;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entryCount == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public String get(final Object key) {
+        if (!(key instanceof String) || entryCount == 0) {
+            return null;
+        }
+
+        final Integer keyId = internedKeyIds.get(key);
+        byte[] literalKey = null;
+
+        // Scan the entries in place, using absolute reads on a private view of the shared buffer
+        final ByteBuffer encoded = buffer.duplicate();
+        int position = offset + 4;
+        for (int i = 0; i < entryCount; i++) {
+            final int keyRef = encoded.getInt(position);
+            position += 4;
+
+            boolean matches;
+            if (keyRef >= 0) {
+                matches = keyId != null && keyId == keyRef;
+            } else {
+                final int keyLength = -(keyRef + 1);
+                if (keyId != null) {
+                    // A key that is interned is always encoded by its identifier
+                    matches = false;
+                } else {
+                    if (literalKey == null) {
+                        literalKey = ((String) key).getBytes(StandardCharsets.UTF_8);
+                    }
+                    matches = keyLength == literalKey.length && regionEquals(encoded, position, literalKey);
+                }
+                position += keyLength;
+            }
+
+            final int valueLength = encoded.getInt(position);
+            position += 4;
+            if (matches) {
+                return decode(encoded, position, valueLength);
+            }
+            position += valueLength;
+        }
+
+        return null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<Map.Entry<String, String>>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return entryCount;
+            }
+        };
+    }
+
+    @Override
+    public String put(final String key, final String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String remove(final Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<String, String>> {
+        private final ByteBuffer encoded = buffer.duplicate();
+        private int position = offset + 4;
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < entryCount;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final int keyRef = encoded.getInt(position);
+            position += 4;
+
+            final String key;
+            if (keyRef >= 0) {
+                key = internedKeys[keyRef];
+            } else {
+                final int keyLength = -(keyRef + 1);
+                key = decode(encoded, position, keyLength);
+                position += keyLength;
+            }
+
+            final int valueLength = encoded.getInt(position);
+            position += 4;
+            final String value = decode(encoded, position, valueLength);
+            position += valueLength;
+
+            index++;
+            return new SimpleImmutableEntry<>(key, value);
+        }
+    }
+}
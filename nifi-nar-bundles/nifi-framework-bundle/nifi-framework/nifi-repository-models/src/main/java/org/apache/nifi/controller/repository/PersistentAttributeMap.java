@@ -0,0 +1,434 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>
+ * An immutable Map of FlowFile attributes that supports adding and removing attributes by creating a new Map
+ * that shares all unchanged structure with the original. The Map is a hash array mapped trie, so that
+ * {@link #plus(String, String)} and {@link #minus(String)} copy only the nodes along the path to the changed entry
+ * rather than every entry of the Map. This allows a ProcessSession to modify or clone a FlowFile at a cost that is
+ * proportional to the number of attributes that change rather than to the number of attributes that the FlowFile has.
+ * </p>
+ *
+ * <p>
+ * Values may be <code>null</code>, which is used to record that an attribute has been removed.
+ * </p>
+ *
+ * <b>Immutable - Thread Safe</b>
+ */
+final class PersistentAttributeMap extends AbstractMap<String, String> {
+    static final PersistentAttributeMap EMPTY = new PersistentAttributeMap(null, 0);
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    private final Node root;
+    private final int size;
+
+    private PersistentAttributeMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param attributes the attributes to copy
+     * @return a PersistentAttributeMap that contains the given attributes, or the given Map itself if it is already a PersistentAttributeMap
+     */
+    static PersistentAttributeMap copyOf(final Map<String, String> attributes) {
+        if (attributes instanceof PersistentAttributeMap) {
+            return (PersistentAttributeMap) attributes;
+        }
+
+        PersistentAttributeMap copy = EMPTY;
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            copy = copy.plus(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    private static int hash(final Object key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private Leaf findLeaf(final Object key) {
+        if (root == null || key == null) {
+            return null;
+        }
+
+        return root.find(0, hash(key), key);
+    }
+
+    /**
+     * @param key the key of the attribute
+     * @param value the value of the attribute
+     * @return a Map that contains all of the attributes of this Map, with the given key mapped to the given value
+     */
+    PersistentAttributeMap plus(final String key, final String value) {
+        Objects.requireNonNull(key);
+
+        final Leaf existing = findLeaf(key);
+        if (existing != null && Objects.equals(existing.value, value)) {
+            return this;
+        }
+
+        final Leaf leaf = new Leaf(hash(key), key, value);
+        final Node updatedRoot = root == null ? leaf : root.plus(0, leaf);
+        return new PersistentAttributeMap(updatedRoot, existing == null ? size + 1 : size);
+    }
+
+    /**
+     * @param key the key of the attribute to remove
+     * @return a Map that contains all of the attributes of this Map except for the given key
+     */
+    PersistentAttributeMap minus(final String key) {
+        if (findLeaf(key) == null) {
+            return this;
+        }
+
+        final Node updatedRoot = root.minus(0, hash(key), key);
+        return updatedRoot == null ? EMPTY : new PersistentAttributeMap(updatedRoot, size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String get(final Object key) {
+        final Leaf leaf = findLeaf(key);
+        return leaf == null ? null : leaf.value;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return findLeaf(key) != null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<Map.Entry<String, String>>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new LeafIterator(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private abstract static class Node {
+        abstract Leaf find(int shift, int hash, Object key);
+
+        abstract Node plus(int shift, Leaf leaf);
+
+        abstract Node minus(int shift, int hash, Object key);
+
+        /**
+         * @return the hash that is shared by every entry in this node, for nodes whose position does not depend on their depth
+         */
+        abstract int hash();
+
+        static Node merge(final int shift, final Node first, final Node second) {
+            final int firstIndex = (first.hash() >>> shift) & LEVEL_MASK;
+            final int secondIndex = (second.hash() >>> shift) & LEVEL_MASK;
+            if (firstIndex == secondIndex) {
+                return new BitmapNode(1 << firstIndex, new Node[] {merge(shift + BITS_PER_LEVEL, first, second)});
+            }
+
+            final Node[] children = firstIndex < secondIndex ? new Node[] {first, second} : new Node[] {second, first};
+            return new BitmapNode((1 << firstIndex) | (1 << secondIndex), children);
+        }
+    }
+
+    private static final class Leaf extends Node implements Map.Entry<String, String> {
+        private final int hash;
+        private final String key;
+        private final String value;
+
+        private Leaf(final int hash, final String key, final String value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        Leaf find(final int shift, final int hash, final Object key) {
+            return this.hash == hash && this.key.equals(key) ? this : null;
+        }
+
+        @Override
+        Node plus(final int shift, final Leaf leaf) {
+            if (leaf.hash == hash) {
+                return key.equals(leaf.key) ? leaf : new CollisionNode(hash, new Leaf[] {this, leaf});
+            }
+
+            return merge(shift, this, leaf);
+        }
+
+        @Override
+        Node minus(final int shift, final int hash, final Object key) {
+            return find(shift, hash, key) == null ? this : null;
+        }
+
+        @Override
+        int hash() {
+            return hash;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public String setValue(final String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+
+            final Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            return key.equals(other.getKey()) && Objects.equals(value, other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private final Leaf[] leaves;
+
+        private CollisionNode(final int hash, final Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        Leaf find(final int shift, final int hash, final Object key) {
+            if (hash != this.hash) {
+                return null;
+            }
+
+            for (final Leaf leaf : leaves) {
+                if (leaf.key.equals(key)) {
+                    return leaf;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node plus(final int shift, final Leaf leaf) {
+            if (leaf.hash != hash) {
+                return merge(shift, this, leaf);
+            }
+
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(leaf.key)) {
+                    final Leaf[] updated = leaves.clone();
+                    updated[i] = leaf;
+                    return new CollisionNode(hash, updated);
+                }
+            }
+
+            final Leaf[] updated = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, updated, 0, leaves.length);
+            updated[leaves.length] = leaf;
+            return new CollisionNode(hash, updated);
+        }
+
+        @Override
+        Node minus(final int shift, final int hash, final Object key) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+
+                    final Leaf[] updated = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, updated, 0, i);
+                    System.arraycopy(leaves, i + 1, updated, i, leaves.length - i - 1);
+                    return new CollisionNode(hash, updated);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        int hash() {
+            return hash;
+        }
+    }
+
+    private static final class BitmapNode extends Node {
+        private final int bitmap;
+        private final Node[] children;
+
+        private BitmapNode(final int bitmap, final Node[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        @Override
+        Leaf find(final int shift, final int hash, final Object key) {
+            final int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+
+            return children[Integer.bitCount(bitmap & (bit - 1))].find(shift + BITS_PER_LEVEL, hash, key);
+        }
+
+        @Override
+        Node plus(final int shift, final Leaf leaf) {
+            final int bit = 1 << ((leaf.hash >>> shift) & LEVEL_MASK);
+            final int position = Integer.bitCount(bitmap & (bit - 1));
+
+            if ((bitmap & bit) == 0) {
+                final Node[] updated = new Node[children.length + 1];
+                System.arraycopy(children, 0, updated, 0, position);
+                updated[position] = leaf;
+                System.arraycopy(children, position, updated, position + 1, children.length - position);
+                return new BitmapNode(bitmap | bit, updated);
+            }
+
+            final Node[] updated = children.clone();
+            updated[position] = children[position].plus(shift + BITS_PER_LEVEL, leaf);
+            return new BitmapNode(bitmap, updated);
+        }
+
+        @Override
+        Node minus(final int shift, final int hash, final Object key) {
+            final int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            final int position = Integer.bitCount(bitmap & (bit - 1));
+            final Node child = children[position].minus(shift + BITS_PER_LEVEL, hash, key);
+            if (child == children[position]) {
+                return this;
+            }
+
+            if (child != null) {
+                if (children.length == 1 && !(child instanceof BitmapNode)) {
+                    // Leaves and collision nodes can live at any depth, so there is no need for this node to remain
+                    return child;
+                }
+
+                final Node[] updated = children.clone();
+                updated[position] = child;
+                return new BitmapNode(bitmap, updated);
+            }
+
+            if (children.length == 1) {
+                return null;
+            }
+
+            if (children.length == 2 && !(children[1 - position] instanceof BitmapNode)) {
+                return children[1 - position];
+            }
+
+            final Node[] updated = new Node[children.length - 1];
+            System.arraycopy(children, 0, updated, 0, position);
+            System.arraycopy(children, position + 1, updated, position, children.length - position - 1);
+            return new BitmapNode(bitmap & ~bit, updated);
+        }
+
+        @Override
+        int hash() {
+            throw new IllegalStateException("The position of a BitmapNode depends on its depth");
+        }
+    }
+
+    private static final class LeafIterator implements Iterator<Map.Entry<String, String>> {
+        private final Deque<Node> stack = new ArrayDeque<>();
+
+        private LeafIterator(final Node root) {
+            if (root != null) {
+                stack.push(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            while (!stack.isEmpty()) {
+                final Node node = stack.pop();
+                if (node instanceof Leaf) {
+                    return (Leaf) node;
+                }
+
+                if (node instanceof CollisionNode) {
+                    final Leaf[] leaves = ((CollisionNode) node).leaves;
+                    for (int i = leaves.length - 1; i >= 0; i--) {
+                        stack.push(leaves[i]);
+                    }
+                } else {
+                    final Node[] children = ((BitmapNode) node).children;
+                    for (int i = children.length - 1; i >= 0; i--) {
+                        stack.push(children[i]);
+                    }
+                }
+            }
+
+            throw new NoSuchElementException();
+        }
+    }
+}
@@ -17,9 +17,7 @@
 package org.apache.nifi.controller.repository;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -38,11 +36,26 @@ import org.apache.nifi.flowfile.attributes.CoreAttributes;
  * A flow file is a logical notion of an item in a flow with its associated attributes and identity which can be used as a reference for its actual content.
  * </p>
  *
+ * <p>
+ * Attributes are held in a {@link PersistentAttributeMap}, so that building a record from another record with a few
+ * changed attributes shares the unchanged attributes rather than copying them. Attribute keys and short values are
+ * interned by the {@link AttributeInterner}.
+ * </p>
+ *
+ * <p>
+ * If off-heap attributes have been enabled via {@link #setOffHeapAttributesEnabled(boolean)}, the attributes of each
+ * record whose attributes were modified by the {@link Builder} are copied into direct memory when the record is built.
+ * Records whose attributes were not modified share the attributes of the record that they were built from. If the
+ * limit set via {@link #setOffHeapAttributesMaxBytes(long)} has been reached, the attributes are kept on the heap instead.
+ * </p>
+ *
  * <b>Immutable - Thread Safe</b>
  *
  */
 public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
 
+    private static volatile boolean offHeapAttributesEnabled = false;
+
     private final long id;
     private final long entryDate;
     private final long lineageStartDate;
@@ -57,7 +70,14 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
 
     private StandardFlowFileRecord(final Builder builder) {
         this.id = builder.bId;
-        this.attributes = builder.bAttributes == null ? Collections.emptyMap() : builder.bAttributes;
+        if (builder.bAttributes == null) {
+            this.attributes = Collections.emptyMap();
+        } else if (offHeapAttributesEnabled && builder.bAttributesModified && !builder.bAttributes.isEmpty()) {
+            final Map<String, String> offHeapAttributes = OffHeapAttributeMap.copyOf(builder.bAttributes);
+            this.attributes = offHeapAttributes == null ? builder.bAttributes : offHeapAttributes;
+        } else {
+            this.attributes = builder.bAttributes;
+        }
         this.entryDate = builder.bEntryDate;
         this.lineageStartDate = builder.bLineageStartDate;
         this.lineageStartIndex = builder.bLineageStartIndex;
@@ -69,6 +89,39 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
         this.queueDateIndex = builder.bQueueDateIndex;
     }
 
+    /**
+     * Specifies whether or not the attributes of FlowFile records should be held in direct (off-heap) memory. This applies
+     * to all records that are built after this method is called. Because records are built throughout the framework, this
+     * setting is JVM-wide.
+     *
+     * @param enabled whether or not attributes should be held off-heap
+     */
+    public static void setOffHeapAttributesEnabled(final boolean enabled) {
+        offHeapAttributesEnabled = enabled;
+    }
+
+    public static boolean isOffHeapAttributesEnabled() {
+        return offHeapAttributesEnabled;
+    }
+
+    /**
+     * Specifies the maximum number of bytes of direct memory that may hold the attributes of records at any one time.
+     * Once this limit has been reached, the attributes of further records are held on the heap until the records that
+     * hold direct memory have been garbage collected.
+     *
+     * @param maxBytes the maximum number of bytes of direct memory to use for attributes
+     */
+    public static void setOffHeapAttributesMaxBytes(final long maxBytes) {
+        OffHeapAttributeArena.INSTANCE.setMaxBytes(maxBytes);
+    }
+
+    /**
+     * @return the number of bytes of direct memory that are currently allocated for the attributes of records
+     */
+    public static long getOffHeapAttributeBytes() {
+        return OffHeapAttributeArena.INSTANCE.getAllocatedBytes();
+    }
+
     @Override
     public long getId() {
         return id;
@@ -106,6 +159,10 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
 
     @Override
     public Map<String, String> getAttributes() {
+        // Persistent and off-heap maps are immutable already, so there is no need to wrap them
+        if (attributes instanceof PersistentAttributeMap || attributes instanceof OffHeapAttributeMap) {
+            return attributes;
+        }
         return Collections.unmodifiableMap(this.attributes);
     }
 
@@ -181,7 +238,7 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
         private long bLastQueueDate = System.currentTimeMillis();
         private long bQueueDateIndex = 0L;
         private Map<String, String> bAttributes;
-        private boolean bAttributesCopied = false;
+        private boolean bAttributesModified = false;
 
         public Builder id(final long id) {
             bId = id;
@@ -211,27 +268,24 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
             return this;
         }
 
-        private Map<String, String> initializeAttributes() {
-            if (bAttributes == null) {
-                bAttributes = new HashMap<>();
-                bAttributesCopied = true;
-            } else if (!bAttributesCopied) {
-                bAttributes = new HashMap<>(bAttributes);
-                bAttributesCopied = true;
-            }
-
-            return bAttributes;
+        private PersistentAttributeMap initializeAttributes() {
+            // Copying is only necessary if the attributes came from a record that does not use a PersistentAttributeMap
+            final PersistentAttributeMap persistentAttributes = bAttributes == null ? PersistentAttributeMap.EMPTY : PersistentAttributeMap.copyOf(bAttributes);
+            bAttributes = persistentAttributes;
+            bAttributesModified = true;
+            return persistentAttributes;
         }
 
         public Builder addAttribute(final String key, final String value) {
             if (key != null && value != null) {
-                initializeAttributes().put(FlowFile.KeyValidator.validateKey(key), value);
+                FlowFile.KeyValidator.validateKey(key);
+                bAttributes = initializeAttributes().plus(AttributeInterner.internKey(key), AttributeInterner.internValue(value));
             }
             return this;
         }
 
         public Builder addAttributes(final Map<String, String> attributes) {
-            final Map<String, String> initializedAttributes = initializeAttributes();
+            PersistentAttributeMap initializedAttributes = initializeAttributes();
 
             if (null != attributes) {
                 for (final String key : attributes.keySet()) {
@@ -241,10 +295,12 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
                     final String key = entry.getKey();
                     final String value = entry.getValue();
                     if (key != null && value != null) {
-                        initializedAttributes.put(key, value);
+                        initializedAttributes = initializedAttributes.plus(AttributeInterner.internKey(key), AttributeInterner.internValue(value));
                     }
                 }
             }
+
+            bAttributes = initializedAttributes;
             return this;
         }
 
@@ -255,7 +311,7 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
                         continue;
                     }
 
-                    initializeAttributes().remove(key);
+                    bAttributes = initializeAttributes().minus(key);
                 }
             }
             return this;
@@ -268,7 +324,7 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
                         continue;
                     }
 
-                    initializeAttributes().remove(key);
+                    bAttributes = initializeAttributes().minus(key);
                 }
             }
             return this;
@@ -276,18 +332,18 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
 
         public Builder removeAttributes(final Pattern keyPattern) {
             if (keyPattern != null) {
-                final Iterator<String> iterator = initializeAttributes().keySet().iterator();
-                while (iterator.hasNext()) {
-                    final String key = iterator.next();
-
+                PersistentAttributeMap initializedAttributes = initializeAttributes();
+                for (final String key : initializedAttributes.keySet()) {
                     if (CoreAttributes.UUID.key().equals(key)) {
                         continue;
                     }
 
                     if (keyPattern.matcher(key).matches()) {
-                        iterator.remove();
+                        initializedAttributes = initializedAttributes.minus(key);
                     }
                 }
+
+                bAttributes = initializedAttributes;
             }
             return this;
         }
@@ -325,7 +381,7 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
             // Map is wrapped thousands of times until it hits a StackOverflowError. We want the getter to return
             // UnmodifiableMap, though, so that Processors cannot directly modify that Map.
             bAttributes = specFlowFile instanceof StandardFlowFileRecord ? ((StandardFlowFileRecord) specFlowFile).attributes : specFlowFile.getAttributes();
-            bAttributesCopied = false;
+            bAttributesModified = false;
             bClaim = specFlowFile.getContentClaim();
             bClaimOffset = specFlowFile.getContentClaimOffset();
             bLastQueueDate = specFlowFile.getLastQueueDate();
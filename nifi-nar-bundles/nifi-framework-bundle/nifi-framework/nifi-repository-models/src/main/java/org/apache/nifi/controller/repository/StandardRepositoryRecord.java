@@ -18,7 +18,6 @@ package org.apache.nifi.controller.repository;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -35,7 +34,7 @@ public class StandardRepositoryRecord implements RepositoryRecord {
     private final FlowFileRecord originalFlowFileRecord;
     private final FlowFileQueue originalQueue;
     private String swapLocation;
-    private final Map<String, String> updatedAttributes = new HashMap<>();
+    private PersistentAttributeMap updatedAttributes = PersistentAttributeMap.EMPTY;
     private final Map<String, String> originalAttributes;
     private List<ContentClaim> transientClaims;
 
@@ -118,19 +117,27 @@ public class StandardRepositoryRecord implements RepositoryRecord {
         // If setting attribute to same value as original, don't add to updated attributes
         final String currentValue = originalAttributes.get(attributeKey);
         if (currentValue == null || !currentValue.equals(attributeValue)) {
-            updatedAttributes.put(attributeKey, attributeValue);
+            updatedAttributes = updatedAttributes.plus(attributeKey, attributeValue);
         }
     }
 
     public void setWorking(final FlowFileRecord flowFile, final Map<String, String> updatedAttribs) {
         workingFlowFileRecord = flowFile;
 
+        // A new record whose attributes are all being set can share the persistent map rather than copying each attribute
+        if (originalAttributes.isEmpty() && updatedAttributes.isEmpty() && updatedAttribs instanceof PersistentAttributeMap) {
+            updatedAttributes = (PersistentAttributeMap) updatedAttribs;
+            return;
+        }
+
+        PersistentAttributeMap updated = updatedAttributes;
         for (final Map.Entry<String, String> entry : updatedAttribs.entrySet()) {
             final String currentValue = originalAttributes.get(entry.getKey());
             if (currentValue == null || !currentValue.equals(entry.getValue())) {
-                updatedAttributes.put(entry.getKey(), entry.getValue());
+                updated = updated.plus(entry.getKey(), entry.getValue());
             }
         }
+        updatedAttributes = updated;
     }
 
     @Override
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes the duration of the batches that a Remote Group Port sends in a single transaction from the
+ * measurements of its completed transactions. The fixed cost of a transaction (creating, confirming and
+ * completing it) is amortized over a batch that is long enough to keep that cost to about a tenth of
+ * the transaction. The averaged batch size and throughput are kept so that they can be reported.
+ */
+class AdaptiveBatchSizer {
+
+    static final long MIN_BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(20L);
+    static final long MAX_BATCH_NANOS = TimeUnit.SECONDS.toNanos(5L);
+
+    // the batch spends this many times the transaction overhead transferring data
+    private static final int OVERHEAD_MULTIPLIER = 9;
+    private static final double SMOOTHING_FACTOR = 0.2D;
+
+    private final long initialBatchNanos;
+
+    private boolean measured = false;
+    private double overheadNanos;
+    private double bytesPerSecond;
+    private double batchCount;
+    private double batchBytes;
+    private long transactionCount = 0L;
+
+    AdaptiveBatchSizer(final long initialBatchNanos) {
+        this.initialBatchNanos = initialBatchNanos;
+    }
+
+    /**
+     * Records a completed transaction.
+     *
+     * @param flowFiles the number of FlowFiles transferred
+     * @param bytes the number of content bytes transferred
+     * @param dataNanos the time spent transferring the FlowFiles
+     * @param overheadNanos the time spent creating, confirming and completing the transaction
+     */
+    synchronized void recordTransaction(final int flowFiles, final long bytes, final long dataNanos, final long overheadNanos) {
+        if (flowFiles <= 0) {
+            return;
+        }
+
+        transactionCount++;
+        final double rate = dataNanos > 0 ? bytes * (double) TimeUnit.SECONDS.toNanos(1L) / dataNanos : bytesPerSecond;
+        if (measured) {
+            this.overheadNanos = smooth(this.overheadNanos, Math.max(0L, overheadNanos));
+            this.bytesPerSecond = smooth(this.bytesPerSecond, rate);
+            this.batchCount = smooth(this.batchCount, flowFiles);
+            this.batchBytes = smooth(this.batchBytes, bytes);
+        } else {
+            this.overheadNanos = Math.max(0L, overheadNanos);
+            this.bytesPerSecond = rate;
+            this.batchCount = flowFiles;
+            this.batchBytes = bytes;
+            measured = true;
+        }
+    }
+
+    private static double smooth(final double average, final double sample) {
+        return average + SMOOTHING_FACTOR * (sample - average);
+    }
+
+    /**
+     * @return how long the next batch should spend transferring FlowFiles
+     */
+    synchronized long getBatchNanos() {
+        if (!measured) {
+            return initialBatchNanos;
+        }
+
+        final long target = (long) (overheadNanos * OVERHEAD_MULTIPLIER);
+        return Math.min(MAX_BATCH_NANOS, Math.max(MIN_BATCH_NANOS, target));
+    }
+
+    /**
+     * @return the average number of FlowFiles of recent transactions
+     */
+    synchronized int getBatchCount() {
+        return (int) Math.round(batchCount);
+    }
+
+    /**
+     * @return the average number of bytes of recent transactions
+     */
+    synchronized long getBatchSize() {
+        return Math.round(batchBytes);
+    }
+
+    /**
+     * @return the average rate, in bytes per second, at which recent transactions transferred data
+     */
+    synchronized long getBytesPerSecond() {
+        return Math.round(bytesPerSecond);
+    }
+
+    /**
+     * @return the number of transactions that transferred FlowFiles and have been measured
+     */
+    synchronized long getTransactionCount() {
+        return transactionCount;
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.nifi.connectable.ConnectableType;
 import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.controller.ProcessScheduler;
 import org.apache.nifi.controller.ScheduledState;
+import org.apache.nifi.controller.repository.ChannelTransferSession;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.flowfile.attributes.SiteToSiteAttributes;
@@ -33,7 +34,9 @@ import org.apache.nifi.groups.RemoteProcessGroup;
 import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.processor.ProcessSessionFactory;
 import org.apache.nifi.processor.Relationship;
+import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.remote.client.SiteToSiteClient;
 import org.apache.nifi.remote.client.SiteToSiteClientConfig;
@@ -41,9 +44,12 @@ import org.apache.nifi.remote.exception.PortNotRunningException;
 import org.apache.nifi.remote.exception.ProtocolException;
 import org.apache.nifi.remote.exception.UnknownPortException;
 import org.apache.nifi.remote.exception.UnreachableClusterException;
+import org.apache.nifi.remote.io.CompressionStatistics;
 import org.apache.nifi.remote.protocol.DataPacket;
 import org.apache.nifi.remote.protocol.SiteToSiteTransportProtocol;
 import org.apache.nifi.remote.protocol.http.HttpProxy;
+import org.apache.nifi.remote.util.ChannelDataPacket;
+import org.apache.nifi.remote.util.FileRegionDataPacket;
 import org.apache.nifi.remote.util.SiteToSiteRestApiClient;
 import org.apache.nifi.remote.util.StandardDataPacket;
 import org.apache.nifi.reporting.Severity;
@@ -66,6 +72,10 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -73,6 +83,7 @@ import java.util.concurrent.atomic.AtomicReference;
 public class StandardRemoteGroupPort extends RemoteGroupPort {
 
     private static final long BATCH_SEND_NANOS = TimeUnit.MILLISECONDS.toNanos(500L); // send batches of up to 500 millis
+    private static final long PIPELINE_NANOS = TimeUnit.SECONDS.toNanos(1L); // keep pipelining HTTP transactions for up to 1 second per trigger
     public static final String USER_AGENT = "NiFi-Site-to-Site";
     public static final String CONTENT_TYPE = "application/octet-stream";
 
@@ -81,6 +92,14 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
     private static final String CATEGORY = "Site to Site";
 
     private static final Logger logger = LoggerFactory.getLogger(StandardRemoteGroupPort.class);
+
+    // Commits HTTP transactions with the remote instance while the next transaction exchanges its data. Idle threads expire.
+    private static final ExecutorService COMMIT_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        final Thread thread = new Thread(r, "Site-to-Site Transaction Commit");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final RemoteProcessGroup remoteGroup;
     private final AtomicBoolean useCompression = new AtomicBoolean(false);
     private final AtomicReference<Integer> batchCount = new AtomicReference<>();
@@ -94,6 +113,7 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
     private volatile String targetId;
 
     private final AtomicReference<SiteToSiteClient> clientRef = new AtomicReference<>();
+    private final AdaptiveBatchSizer batchSizer = new AdaptiveBatchSizer(BATCH_SEND_NANOS);
 
     SiteToSiteClient getSiteToSiteClient() {
         return clientRef.get();
@@ -206,16 +226,103 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
         clientRef.set(clientBuilder.build());
     }
 
+    @Override
+    public void onTrigger(final ProcessContext context, final ProcessSessionFactory sessionFactory) throws ProcessException {
+        if (remoteGroup.getTransportProtocol() != SiteToSiteTransportProtocol.HTTP) {
+            super.onTrigger(context, sessionFactory);
+            return;
+        }
+
+        // Over HTTP, committing a transaction with the remote instance takes a request of its own. Rather than waiting for it,
+        // exchange the data of the next transaction while that request is in flight. Each session is still committed only
+        // after its own transaction has been committed with the remote instance, just as when transactions run one at a time.
+        final long pipelineEndNanos = System.nanoTime() + PIPELINE_NANOS;
+        ExchangedTransaction committing = null;
+        Future<?> remoteCommit = null;
+        try {
+            while (true) {
+                final ProcessSession session = sessionFactory.createSession();
+                final ExchangedTransaction exchanged = exchangeData(context, session);
+                if (exchanged == null) {
+                    session.rollback();
+                    return;
+                }
+
+                if (committing != null) {
+                    commitLocally(committing, remoteCommit);
+                }
+
+                committing = exchanged;
+                remoteCommit = COMMIT_EXECUTOR.submit(() -> {
+                    exchanged.commitRemotely();
+                    return null;
+                });
+
+                if (exchanged.getFlowFileCount() == 0 || System.nanoTime() > pipelineEndNanos || !isRunning()) {
+                    return;
+                }
+            }
+        } finally {
+            if (committing != null) {
+                commitLocally(committing, remoteCommit);
+            }
+        }
+    }
+
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) {
+        final ExchangedTransaction exchanged = exchangeData(context, session);
+        if (exchanged == null) {
+            return;
+        }
+
+        try {
+            exchanged.commitRemotely();
+            exchanged.commitLocally();
+        } catch (final Throwable t) {
+            exchanged.fail(t);
+        }
+    }
+
+    private void commitLocally(final ExchangedTransaction exchanged, final Future<?> remoteCommit) {
+        try {
+            // Wait for the remote commit even if interrupted, as the session must not be rolled back once the remote instance may have committed
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    remoteCommit.get();
+                    break;
+                } catch (final InterruptedException ie) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            exchanged.commitLocally();
+        } catch (final ExecutionException ee) {
+            exchanged.fail(ee.getCause());
+        } catch (final Throwable t) {
+            exchanged.fail(t);
+        }
+    }
+
+    /**
+     * Creates a transaction and sends or receives a batch of FlowFiles with it, leaving the transaction to be committed.
+     *
+     * @return the transaction whose data has been exchanged, or <code>null</code> if there was nothing to exchange or the
+     *         transaction failed, in which case the session has been rolled back
+     */
+    private ExchangedTransaction exchangeData(final ProcessContext context, final ProcessSession session) {
         if (!remoteGroup.isTransmitting()) {
             logger.debug("{} {} is not transmitting; will not send/receive", this, remoteGroup);
-            return;
+            return null;
         }
 
         if (getConnectableType() == ConnectableType.REMOTE_INPUT_PORT && session.getQueueSize().getObjectCount() == 0) {
             logger.debug("{} No data to send", this);
-            return;
+            return null;
         }
 
         final String url = getRemoteProcessGroup().getTargetUri();
@@ -226,7 +333,7 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
         if (getConnectableType() == ConnectableType.REMOTE_INPUT_PORT) {
             firstFlowFile = session.get();
             if (firstFlowFile == null) {
-                return;
+                return null;
             }
         } else {
             firstFlowFile = null;
@@ -234,6 +341,7 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
 
         final SiteToSiteClient client = getSiteToSiteClient();
         final Transaction transaction;
+        final long createStartNanos = System.nanoTime();
         try {
             transaction = client.createTransaction(transferDirection);
         } catch (final PortNotRunningException e) {
@@ -243,7 +351,7 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
             logger.error(message);
             session.rollback();
             remoteGroup.getEventReporter().reportEvent(Severity.ERROR, CATEGORY, message);
-            return;
+            return null;
         } catch (final UnknownPortException e) {
             context.yield();
             this.targetExists.set(false);
@@ -251,14 +359,14 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
             logger.error(message);
             session.rollback();
             remoteGroup.getEventReporter().reportEvent(Severity.ERROR, CATEGORY, message);
-            return;
+            return null;
         } catch (final UnreachableClusterException e) {
             context.yield();
             final String message = String.format("%s failed to communicate with %s due to %s", this, url, e.toString());
             logger.error(message);
             session.rollback();
             remoteGroup.getEventReporter().reportEvent(Severity.ERROR, CATEGORY, message);
-            return;
+            return null;
         } catch (final IOException e) {
             // we do not yield here because the 'peer' will be penalized, and we won't communicate with that particular nifi instance
             // for a while due to penalization, but we can continue to talk to other nifi instances
@@ -269,38 +377,33 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
             }
             session.rollback();
             remoteGroup.getEventReporter().reportEvent(Severity.ERROR, CATEGORY, message);
-            return;
+            return null;
         }
 
         if (transaction == null) {
             logger.debug("{} Unable to create transaction to communicate with; all peers must be penalized, so yielding context", this);
             session.rollback();
             context.yield();
-            return;
+            return null;
         }
 
+        final long createNanos = System.nanoTime() - createStartNanos;
+        final ExchangedTransaction exchanged = new ExchangedTransaction(transaction, session, createNanos);
         try {
             if (getConnectableType() == ConnectableType.REMOTE_INPUT_PORT) {
-                transferFlowFiles(transaction, context, session, firstFlowFile);
+                transferFlowFiles(exchanged, firstFlowFile);
             } else {
-                final int numReceived = receiveFlowFiles(transaction, context, session);
-                if (numReceived == 0) {
+                receiveFlowFiles(exchanged);
+                if (exchanged.getFlowFileCount() == 0) {
                     context.yield();
                 }
             }
-
-            session.commit();
         } catch (final Throwable t) {
-            final String message = String.format("%s failed to communicate with remote NiFi instance due to %s", this, t.toString());
-            logger.error("{} failed to communicate with remote NiFi instance due to {}", this, t.toString());
-            if (logger.isDebugEnabled()) {
-                logger.error("", t);
-            }
-
-            remoteGroup.getEventReporter().reportEvent(Severity.ERROR, CATEGORY, message);
-            transaction.error();
-            session.rollback();
+            exchanged.fail(t);
+            return null;
         }
+
+        return exchanged;
     }
 
     @Override
@@ -309,28 +412,30 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
         return remoteGroup.getYieldDuration();
     }
 
-    private int transferFlowFiles(final Transaction transaction, final ProcessContext context, final ProcessSession session, final FlowFile firstFlowFile) throws IOException, ProtocolException {
+    private void transferFlowFiles(final ExchangedTransaction exchanged, final FlowFile firstFlowFile) throws IOException, ProtocolException {
+        final Transaction transaction = exchanged.transaction;
+        final ProcessSession session = exchanged.session;
         FlowFile flowFile = firstFlowFile;
 
-        try {
-            final String userDn = transaction.getCommunicant().getDistinguishedName();
-            final long startSendingNanos = System.nanoTime();
-            final StopWatch stopWatch = new StopWatch(true);
-            long bytesSent = 0L;
-
-            final SiteToSiteClientConfig siteToSiteClientConfig = getSiteToSiteClient().getConfig();
-            final long maxBatchBytes = siteToSiteClientConfig.getPreferredBatchSize();
-            final int maxBatchCount = siteToSiteClientConfig.getPreferredBatchCount();
-            final long preferredBatchDuration = siteToSiteClientConfig.getPreferredBatchDuration(TimeUnit.NANOSECONDS);
-            final long maxBatchDuration = preferredBatchDuration > 0 ? preferredBatchDuration : BATCH_SEND_NANOS;
-
-
-            final Set<FlowFile> flowFilesSent = new HashSet<>();
-            boolean continueTransaction = true;
-            while (continueTransaction) {
-                final long startNanos = System.nanoTime();
-                // call codec.encode within a session callback so that we have the InputStream to read the FlowFile
-                final FlowFile toWrap = flowFile;
+        final String userDn = transaction.getCommunicant().getDistinguishedName();
+        final long startSendingNanos = System.nanoTime();
+
+        final SiteToSiteClientConfig siteToSiteClientConfig = getSiteToSiteClient().getConfig();
+        final long maxBatchBytes = siteToSiteClientConfig.getPreferredBatchSize();
+        final int maxBatchCount = siteToSiteClientConfig.getPreferredBatchCount();
+        final long preferredBatchDuration = siteToSiteClientConfig.getPreferredBatchDuration(TimeUnit.NANOSECONDS);
+        // without a configured duration, the batch is sized from the overhead of previous transactions
+        final long maxBatchDuration = preferredBatchDuration > 0 ? preferredBatchDuration : batchSizer.getBatchNanos();
+
+        boolean continueTransaction = true;
+        while (continueTransaction) {
+            final long startNanos = System.nanoTime();
+            // call codec.encode within a session callback so that we have the InputStream to read the FlowFile
+            final FlowFile toWrap = flowFile;
+            // when the content is held in a plain file, the transaction may hand it to the socket without copying it through the JVM
+            final boolean sentFileRegion = session instanceof ChannelTransferSession && ((ChannelTransferSession) session).readFileRegion(flowFile,
+                (channel, position, length) -> transaction.send(new FileRegionDataPacket(toWrap.getAttributes(), channel, position, length)));
+            if (!sentFileRegion) {
                 session.read(flowFile, new InputStreamCallback() {
                     @Override
                     public void process(final InputStream in) throws IOException {
@@ -338,63 +443,46 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
                         transaction.send(dataPacket);
                     }
                 });
+            }
 
-                final long transferNanos = System.nanoTime() - startNanos;
-                final long transferMillis = TimeUnit.MILLISECONDS.convert(transferNanos, TimeUnit.NANOSECONDS);
+            final long transferNanos = System.nanoTime() - startNanos;
+            final long transferMillis = TimeUnit.MILLISECONDS.convert(transferNanos, TimeUnit.NANOSECONDS);
 
-                flowFilesSent.add(flowFile);
-                bytesSent += flowFile.getSize();
-                logger.debug("{} Sent {} to {}", this, flowFile, transaction.getCommunicant().getUrl());
+            exchanged.flowFiles.add(flowFile);
+            exchanged.bytes += flowFile.getSize();
+            logger.debug("{} Sent {} to {}", this, flowFile, transaction.getCommunicant().getUrl());
 
-                final String transitUri = transaction.getCommunicant().createTransitUri(flowFile.getAttribute(CoreAttributes.UUID.key()));
-                session.getProvenanceReporter().send(flowFile, transitUri, "Remote DN=" + userDn, transferMillis, false);
-                session.remove(flowFile);
+            final String transitUri = transaction.getCommunicant().createTransitUri(flowFile.getAttribute(CoreAttributes.UUID.key()));
+            session.getProvenanceReporter().send(flowFile, transitUri, "Remote DN=" + userDn, transferMillis, false);
+            session.remove(flowFile);
 
-                final long sendingNanos = System.nanoTime() - startSendingNanos;
+            final long sendingNanos = System.nanoTime() - startSendingNanos;
 
-                if (maxBatchCount > 0 && flowFilesSent.size() >= maxBatchCount) {
-                    flowFile = null;
-                } else if (maxBatchBytes > 0 && bytesSent >= maxBatchBytes) {
-                    flowFile = null;
-                } else if (sendingNanos >= maxBatchDuration) {
-                    flowFile = null;
-                } else {
-                    flowFile = session.get();
-                }
-
-                continueTransaction = (flowFile != null);
+            if (maxBatchCount > 0 && exchanged.flowFiles.size() >= maxBatchCount) {
+                flowFile = null;
+            } else if (maxBatchBytes > 0 && exchanged.bytes >= maxBatchBytes) {
+                flowFile = null;
+            } else if (sendingNanos >= maxBatchDuration) {
+                flowFile = null;
+            } else {
+                flowFile = session.get();
             }
 
-            transaction.confirm();
-
-            // consume input stream entirely, ignoring its contents. If we
-            // don't do this, the Connection will not be returned to the pool
-            stopWatch.stop();
-            final String uploadDataRate = stopWatch.calculateDataRate(bytesSent);
-            final long uploadMillis = stopWatch.getDuration(TimeUnit.MILLISECONDS);
-            final String dataSize = FormatUtils.formatDataSize(bytesSent);
-
-            transaction.complete();
-            session.commit();
-
-            final String flowFileDescription = (flowFilesSent.size() < 20) ? flowFilesSent.toString() : flowFilesSent.size() + " FlowFiles";
-            logger.info("{} Successfully sent {} ({}) to {} in {} milliseconds at a rate of {}", new Object[]{
-                this, flowFileDescription, dataSize, transaction.getCommunicant().getUrl(), uploadMillis, uploadDataRate});
-
-            return flowFilesSent.size();
-        } catch (final Exception e) {
-            session.rollback();
-            throw e;
+            continueTransaction = (flowFile != null);
         }
 
+        final long confirmStartNanos = System.nanoTime();
+        exchanged.dataNanos = confirmStartNanos - startSendingNanos;
+        transaction.confirm();
+        exchanged.overheadNanos += System.nanoTime() - confirmStartNanos;
     }
 
-    private int receiveFlowFiles(final Transaction transaction, final ProcessContext context, final ProcessSession session) throws IOException, ProtocolException {
+    private void receiveFlowFiles(final ExchangedTransaction exchanged) throws IOException, ProtocolException {
+        final Transaction transaction = exchanged.transaction;
+        final ProcessSession session = exchanged.session;
         final String userDn = transaction.getCommunicant().getDistinguishedName();
 
-        final StopWatch stopWatch = new StopWatch(true);
-        final Set<FlowFile> flowFilesReceived = new HashSet<>();
-        long bytesReceived = 0L;
+        final long startReceivingNanos = System.nanoTime();
 
         while (true) {
             final long start = System.nanoTime();
@@ -416,9 +504,13 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
 
             flowFile = session.putAllAttributes(flowFile, attributes);
 
-            flowFile = session.importFrom(dataPacket.getData(), flowFile);
+            if (dataPacket instanceof ChannelDataPacket && session instanceof ChannelTransferSession) {
+                flowFile = ((ChannelTransferSession) session).importFrom(((ChannelDataPacket) dataPacket).getChannel(), dataPacket.getSize(), flowFile);
+            } else {
+                flowFile = session.importFrom(dataPacket.getData(), flowFile);
+            }
             final long receiveNanos = System.nanoTime() - start;
-            flowFilesReceived.add(flowFile);
+            exchanged.flowFiles.add(flowFile);
 
             String sourceFlowFileIdentifier = dataPacket.getAttributes().get(CoreAttributes.UUID.key());
             if (sourceFlowFileIdentifier == null) {
@@ -430,28 +522,92 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
                     "Remote DN=" + userDn, TimeUnit.NANOSECONDS.toMillis(receiveNanos));
 
             session.transfer(flowFile, Relationship.ANONYMOUS);
-            bytesReceived += dataPacket.getSize();
+            exchanged.bytes += dataPacket.getSize();
         }
 
-        // Confirm that what we received was the correct data.
-        transaction.confirm();
+        exchanged.dataNanos = System.nanoTime() - startReceivingNanos;
+    }
+
+    /**
+     * A transaction whose FlowFiles have been sent or received, along with the session they belong to. Committing it
+     * remotely may happen on another thread, while the data of the next transaction is exchanged; committing it
+     * locally happens afterward, on the thread that owns the session.
+     */
+    private class ExchangedTransaction {
+        private final Transaction transaction;
+        private final ProcessSession session;
+        private final StopWatch stopWatch = new StopWatch(true);
+        private final Set<FlowFile> flowFiles = new HashSet<>();
+        private long bytes = 0L;
+        private long dataNanos = 0L;
+        private long overheadNanos;
+
+        private ExchangedTransaction(final Transaction transaction, final ProcessSession session, final long createNanos) {
+            this.transaction = transaction;
+            this.session = session;
+            this.overheadNanos = createNanos;
+        }
 
-        // Commit the session so that we have persisted the data
-        session.commit();
+        private int getFlowFileCount() {
+            return flowFiles.size();
+        }
 
-        transaction.complete();
+        /**
+         * Commits the transaction with the remote instance. When sending, the remote instance has already confirmed the data,
+         * so this completes the transaction. When receiving, this confirms the data, after which the remote instance
+         * considers it delivered.
+         */
+        private void commitRemotely() throws IOException {
+            final long commitStartNanos = System.nanoTime();
+            if (getConnectableType() == ConnectableType.REMOTE_INPUT_PORT) {
+                transaction.complete();
+            } else {
+                // Confirm that what we received was the correct data.
+                transaction.confirm();
+            }
+            overheadNanos += System.nanoTime() - commitStartNanos;
+        }
+
+        private void commitLocally() throws IOException {
+            if (getConnectableType() == ConnectableType.REMOTE_INPUT_PORT) {
+                stopWatch.stop();
+                batchSizer.recordTransaction(flowFiles.size(), bytes, dataNanos, overheadNanos);
+                session.commit();
+
+                final String flowFileDescription = (flowFiles.size() < 20) ? flowFiles.toString() : flowFiles.size() + " FlowFiles";
+                logger.info("{} Successfully sent {} ({}) to {} in {} milliseconds at a rate of {}", new Object[]{
+                    StandardRemoteGroupPort.this, flowFileDescription, FormatUtils.formatDataSize(bytes), transaction.getCommunicant().getUrl(),
+                    stopWatch.getDuration(TimeUnit.MILLISECONDS), stopWatch.calculateDataRate(bytes)});
+                return;
+            }
+
+            // Commit the session so that we have persisted the data
+            session.commit();
 
-        if (!flowFilesReceived.isEmpty()) {
-            stopWatch.stop();
-            final String flowFileDescription = flowFilesReceived.size() < 20 ? flowFilesReceived.toString() : flowFilesReceived.size() + " FlowFiles";
-            final String uploadDataRate = stopWatch.calculateDataRate(bytesReceived);
-            final long uploadMillis = stopWatch.getDuration(TimeUnit.MILLISECONDS);
-            final String dataSize = FormatUtils.formatDataSize(bytesReceived);
-            logger.info("{} Successfully received {} ({}) from {} in {} milliseconds at a rate of {}", new Object[]{
-                this, flowFileDescription, dataSize, transaction.getCommunicant().getUrl(), uploadMillis, uploadDataRate});
+            final long completeStartNanos = System.nanoTime();
+            transaction.complete();
+            batchSizer.recordTransaction(flowFiles.size(), bytes, dataNanos, overheadNanos + System.nanoTime() - completeStartNanos);
+
+            if (!flowFiles.isEmpty()) {
+                stopWatch.stop();
+                final String flowFileDescription = flowFiles.size() < 20 ? flowFiles.toString() : flowFiles.size() + " FlowFiles";
+                logger.info("{} Successfully received {} ({}) from {} in {} milliseconds at a rate of {}", new Object[]{
+                    StandardRemoteGroupPort.this, flowFileDescription, FormatUtils.formatDataSize(bytes), transaction.getCommunicant().getUrl(),
+                    stopWatch.getDuration(TimeUnit.MILLISECONDS), stopWatch.calculateDataRate(bytes)});
+            }
         }
 
-        return flowFilesReceived.size();
+        private void fail(final Throwable t) {
+            final String message = String.format("%s failed to communicate with remote NiFi instance due to %s", StandardRemoteGroupPort.this, t.toString());
+            logger.error("{} failed to communicate with remote NiFi instance due to {}", StandardRemoteGroupPort.this, t.toString());
+            if (logger.isDebugEnabled()) {
+                logger.error("", t);
+            }
+
+            remoteGroup.getEventReporter().reportEvent(Severity.ERROR, CATEGORY, message);
+            transaction.error();
+            session.rollback();
+        }
     }
 
     @Override
@@ -559,6 +715,44 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
         this.batchDuration.set(batchDuration);
     }
 
+    @Override
+    public int getEffectiveBatchCount() {
+        return batchSizer.getBatchCount();
+    }
+
+    @Override
+    public long getEffectiveBatchSize() {
+        return batchSizer.getBatchSize();
+    }
+
+    @Override
+    public Double getCompressionRatio() {
+        final SiteToSiteClient client = getSiteToSiteClient();
+        final CompressionStatistics statistics = client == null ? null : client.getConfig().getCompressionStatistics();
+        if (statistics == null || statistics.getUncompressedBytes() == 0L) {
+            return null;
+        }
+
+        return statistics.getCompressionRatio();
+    }
+
+    @Override
+    public long getTransferRate() {
+        return batchSizer.getBytesPerSecond();
+    }
+
+    @Override
+    public long getTransactionCount() {
+        return batchSizer.getTransactionCount();
+    }
+
+    @Override
+    public long getUncompressedBytesSent() {
+        final SiteToSiteClient client = getSiteToSiteClient();
+        final CompressionStatistics statistics = client == null ? null : client.getConfig().getCompressionStatistics();
+        return statistics == null ? 0L : statistics.getUncompressedBytes();
+    }
+
     @Override
     public String toString() {
         return "RemoteGroupPort[name=" + getName() + ",targets=" + remoteGroup.getTargetUris() + "]";
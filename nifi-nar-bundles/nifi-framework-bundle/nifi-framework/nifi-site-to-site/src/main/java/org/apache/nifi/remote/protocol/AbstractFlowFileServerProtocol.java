@@ -18,6 +18,7 @@ package org.apache.nifi.remote.protocol;
 
 import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.connectable.Port;
+import org.apache.nifi.controller.repository.ChannelTransferSession;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.flowfile.attributes.SiteToSiteAttributes;
@@ -31,10 +32,14 @@ import org.apache.nifi.remote.PortAuthorizationResult;
 import org.apache.nifi.remote.RootGroupPort;
 import org.apache.nifi.remote.cluster.NodeInformant;
 import org.apache.nifi.remote.codec.FlowFileCodec;
+import org.apache.nifi.remote.codec.StandardFlowFileCodec;
 import org.apache.nifi.remote.exception.HandshakeException;
 import org.apache.nifi.remote.exception.ProtocolException;
 import org.apache.nifi.remote.io.CompressionInputStream;
 import org.apache.nifi.remote.io.CompressionOutputStream;
+import org.apache.nifi.remote.io.CompressionStatistics;
+import org.apache.nifi.remote.io.socket.SocketChannelInput;
+import org.apache.nifi.remote.io.socket.SocketChannelOutput;
 import org.apache.nifi.remote.util.StandardDataPacket;
 import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.StopWatch;
@@ -47,6 +52,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -70,6 +76,9 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
 
     protected static final long DEFAULT_BATCH_NANOS = TimeUnit.SECONDS.toNanos(5L);
 
+    // shared by the transactions of this protocol so that incompressible data stops being deflated
+    private final CompressionStatistics compressionStatistics = new CompressionStatistics();
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Override
@@ -246,7 +255,7 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
         OutputStream os = new DataOutputStream(commsSession.getOutput().getOutputStream());
         while (continueTransaction) {
             final boolean useGzip = handshakeProperties.isUseGzip();
-            final OutputStream flowFileOutputStream = useGzip ? new CompressionOutputStream(os) : os;
+            final OutputStream flowFileOutputStream = useGzip ? new CompressionOutputStream(os, compressionStatistics) : os;
             logger.debug("{} Sending {} to {}", new Object[]{this, flowFile, peer});
 
             final CheckedOutputStream checkedOutputStream = new CheckedOutputStream(flowFileOutputStream, crc);
@@ -254,13 +263,16 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
             final StopWatch transferWatch = new StopWatch(true);
 
             final FlowFile toSend = flowFile;
-            session.read(flowFile, new InputStreamCallback() {
-                @Override
-                public void process(final InputStream in) throws IOException {
-                    final DataPacket dataPacket = new StandardDataPacket(toSend.getAttributes(), in, toSend.getSize());
-                    codec.encode(dataPacket, checkedOutputStream);
-                }
-            });
+            final boolean transferredFileRegion = !useGzip && transferFileRegion(commsSession, session, toSend, codec, checkedOutputStream, crc);
+            if (!transferredFileRegion) {
+                session.read(flowFile, new InputStreamCallback() {
+                    @Override
+                    public void process(final InputStream in) throws IOException {
+                        final DataPacket dataPacket = new StandardDataPacket(toSend.getAttributes(), in, toSend.getSize());
+                        codec.encode(dataPacket, checkedOutputStream);
+                    }
+                });
+            }
 
             final long transmissionMillis = transferWatch.getElapsed(TimeUnit.MILLISECONDS);
 
@@ -321,6 +333,28 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
 
     }
 
+    /**
+     * Sends the given FlowFile by writing its attributes through the given stream and then handing its content from the
+     * Content Repository's file straight to the socket with FileChannel#transferTo. This is only possible when the peer is
+     * connected over a plain (non-TLS) socket, the content is not being compressed and the Content Repository keeps the
+     * content in a plain file.
+     *
+     * @return <code>true</code> if the FlowFile was sent, <code>false</code> if nothing was written and the FlowFile must be sent with the codec
+     */
+    private boolean transferFileRegion(final CommunicationsSession commsSession, final ProcessSession session, final FlowFile flowFile,
+            final FlowFileCodec codec, final OutputStream checkedOutputStream, final CRC32 crc) throws IOException {
+        if (!(commsSession.getOutput() instanceof SocketChannelOutput) || !(session instanceof ChannelTransferSession) || !(codec instanceof StandardFlowFileCodec)) {
+            return false;
+        }
+
+        final SocketChannelOutput socketOutput = (SocketChannelOutput) commsSession.getOutput();
+        final DataPacket header = new StandardDataPacket(flowFile.getAttributes(), null, flowFile.getSize());
+        return ((ChannelTransferSession) session).readFileRegion(flowFile, (channel, position, length) -> {
+            ((StandardFlowFileCodec) codec).encodeHeader(header, checkedOutputStream);
+            socketOutput.transferFrom(channel, position, length, crc);
+        });
+    }
+
     protected String createTransitUri(Peer peer, String sourceFlowFileIdentifier) {
         return peer.createTransitUri(sourceFlowFileIdentifier);
     }
@@ -446,7 +480,13 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
                 break;
             }
             FlowFile flowFile = session.create();
-            flowFile = session.importFrom(dataPacket.getData(), flowFile);
+            if (!handshakeProperties.isUseGzip() && commsSession.getInput() instanceof SocketChannelInput && session instanceof ChannelTransferSession) {
+                // Hand the content from the socket to the Content Repository's channel rather than copying it through the stream
+                final ReadableByteChannel contentChannel = ((SocketChannelInput) commsSession.getInput()).checkedChannel(crc);
+                flowFile = ((ChannelTransferSession) session).importFrom(contentChannel, dataPacket.getSize(), flowFile);
+            } else {
+                flowFile = session.importFrom(dataPacket.getData(), flowFile);
+            }
             flowFile = session.putAllAttributes(flowFile, dataPacket.getAttributes());
 
             if (handshakeProperties.isUseGzip()) {
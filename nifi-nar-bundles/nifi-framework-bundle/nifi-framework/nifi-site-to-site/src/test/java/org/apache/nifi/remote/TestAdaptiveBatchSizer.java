@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestAdaptiveBatchSizer {
+
+    private static final long INITIAL_BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(500L);
+
+    @Test
+    public void testInitialBatchDurationUntilMeasured() {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(INITIAL_BATCH_NANOS);
+        assertEquals(INITIAL_BATCH_NANOS, sizer.getBatchNanos());
+        assertEquals(0, sizer.getBatchCount());
+        assertEquals(0L, sizer.getBatchSize());
+        assertEquals(0L, sizer.getBytesPerSecond());
+
+        // transactions that transferred nothing are not measured
+        sizer.recordTransaction(0, 0L, 0L, TimeUnit.SECONDS.toNanos(1L));
+        assertEquals(INITIAL_BATCH_NANOS, sizer.getBatchNanos());
+    }
+
+    @Test
+    public void testBatchDurationFollowsOverhead() {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(INITIAL_BATCH_NANOS);
+
+        // 10 MB in 100 millis with 50 millis of overhead
+        sizer.recordTransaction(10, 10_000_000L, TimeUnit.MILLISECONDS.toNanos(100L), TimeUnit.MILLISECONDS.toNanos(50L));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(450L), sizer.getBatchNanos());
+        assertEquals(10, sizer.getBatchCount());
+        assertEquals(10_000_000L, sizer.getBatchSize());
+        assertEquals(100_000_000L, sizer.getBytesPerSecond());
+
+        // the overhead drops, so the batches become shorter, but only gradually
+        for (int i = 0; i < 5; i++) {
+            sizer.recordTransaction(10, 10_000_000L, TimeUnit.MILLISECONDS.toNanos(100L), TimeUnit.MILLISECONDS.toNanos(5L));
+        }
+        final long batchNanos = sizer.getBatchNanos();
+        assertTrue(batchNanos < TimeUnit.MILLISECONDS.toNanos(450L));
+        assertTrue(batchNanos > TimeUnit.MILLISECONDS.toNanos(45L));
+    }
+
+    @Test
+    public void testBatchDurationIsBounded() {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(INITIAL_BATCH_NANOS);
+        sizer.recordTransaction(1, 1024L, TimeUnit.MILLISECONDS.toNanos(1L), 0L);
+        assertEquals(AdaptiveBatchSizer.MIN_BATCH_NANOS, sizer.getBatchNanos());
+
+        final AdaptiveBatchSizer slowSizer = new AdaptiveBatchSizer(INITIAL_BATCH_NANOS);
+        slowSizer.recordTransaction(1, 1024L, TimeUnit.MILLISECONDS.toNanos(1L), TimeUnit.SECONDS.toNanos(10L));
+        assertEquals(AdaptiveBatchSizer.MAX_BATCH_NANOS, slowSizer.getBatchNanos());
+    }
+}
@@ -18,6 +18,8 @@ package org.apache.nifi.remote;
 
 import org.apache.nifi.connectable.ConnectableType;
 import org.apache.nifi.controller.ProcessScheduler;
+import org.apache.nifi.controller.repository.ChannelTransferSession;
+import org.apache.nifi.controller.repository.FileRegionCallback;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
@@ -35,7 +37,10 @@ import org.apache.nifi.remote.io.socket.SocketChannelCommunicationsSession;
 import org.apache.nifi.remote.protocol.CommunicationsSession;
 import org.apache.nifi.remote.protocol.DataPacket;
 import org.apache.nifi.remote.protocol.SiteToSiteTransportProtocol;
+import org.apache.nifi.remote.util.ChannelDataPacket;
+import org.apache.nifi.remote.util.FileRegionDataPacket;
 import org.apache.nifi.remote.util.StandardDataPacket;
+import org.apache.nifi.stream.io.LimitingInputStream;
 import org.apache.nifi.util.MockFlowFile;
 import org.apache.nifi.util.MockProcessContext;
 import org.apache.nifi.util.MockProcessSession;
@@ -44,14 +49,26 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
@@ -83,6 +100,7 @@ public class TestStandardRemoteGroupPort {
     private SharedSessionState sessionState;
     private MockProcessSession processSession;
     private MockProcessContext processContext;
+    private Processor processor;
 
     @BeforeClass
     public static void setup() throws Exception {
@@ -134,15 +152,20 @@ public class TestStandardRemoteGroupPort {
     }
 
     private void setupMockProcessSession() {
+        setupMockProcessSession(false);
+    }
+
+    private void setupMockProcessSession(final boolean channelTransfer) {
         // Construct a RemoteGroupPort as a processor to use NiFi mock library.
         final Processor remoteGroupPort = mock(Processor.class);
         final Set<Relationship> relationships = new HashSet<>();
         relationships.add(Relationship.ANONYMOUS);
         when(remoteGroupPort.getRelationships()).thenReturn(relationships);
         when(remoteGroupPort.getIdentifier()).thenReturn("remote-group-port-id");
+        processor = remoteGroupPort;
 
         sessionState = new SharedSessionState(remoteGroupPort, new AtomicLong(0));
-        processSession = new MockProcessSession(sessionState, remoteGroupPort);
+        processSession = channelTransfer ? new ChannelTransferProcessSession(sessionState, remoteGroupPort) : new MockProcessSession(sessionState, remoteGroupPort);
         processContext = new MockProcessContext(remoteGroupPort);
     }
 
@@ -224,6 +247,74 @@ public class TestStandardRemoteGroupPort {
 
     }
 
+    @Test
+    public void testSendRawFromFileRegion() throws Exception {
+
+        setupMock(SiteToSiteTransportProtocol.RAW, TransferDirection.SEND);
+        setupMockProcessSession(true);
+
+        final String peerUrl = "nifi://node1.example.com:9090";
+        final PeerDescription peerDescription = new PeerDescription("node1.example.com", 9090, false);
+        try (final SocketChannel socketChannel = SocketChannel.open()) {
+            final CommunicationsSession commsSession = new SocketChannelCommunicationsSession(socketChannel);
+            final Peer peer = new Peer(peerDescription, commsSession, peerUrl, REMOTE_CLUSTER_URL);
+
+            doReturn(peer).when(transaction).getCommunicant();
+
+            // The content can only be read while the session holds the file open, that is, while the packet is being sent
+            final List<String> sentContents = new ArrayList<>();
+            doAnswer(invocation -> {
+                final FileRegionDataPacket dataPacket = invocation.getArgumentAt(0, FileRegionDataPacket.class);
+                final ByteBuffer buffer = ByteBuffer.allocate((int) dataPacket.getSize());
+                dataPacket.getChannel().read(buffer, dataPacket.getPosition());
+                sentContents.add(new String(buffer.array(), StandardCharsets.UTF_8));
+                return null;
+            }).when(transaction).send(any(FileRegionDataPacket.class));
+
+            final MockFlowFile flowFile = processSession.createFlowFile("0123456789".getBytes());
+            sessionState.getFlowFileQueue().offer(flowFile);
+
+            port.onTrigger(processContext, processSession);
+
+            assertEquals(Collections.singletonList("0123456789"), sentContents);
+            assertEquals(1, sessionState.getProvenanceEvents().size());
+            assertEquals(ProvenanceEventType.SEND, sessionState.getProvenanceEvents().get(0).getEventType());
+        }
+    }
+
+    @Test
+    public void testReceiveRawThroughChannel() throws Exception {
+
+        setupMock(SiteToSiteTransportProtocol.RAW, TransferDirection.RECEIVE);
+        setupMockProcessSession(true);
+
+        final String peerUrl = "nifi://node1.example.com:9090";
+        final PeerDescription peerDescription = new PeerDescription("node1.example.com", 9090, false);
+        try (final SocketChannel socketChannel = SocketChannel.open()) {
+            final CommunicationsSession commsSession = new SocketChannelCommunicationsSession(socketChannel);
+            final Peer peer = new Peer(peerDescription, commsSession, peerUrl, REMOTE_CLUSTER_URL);
+
+            doReturn(peer).when(transaction).getCommunicant();
+
+            final Map<String, String> attributes = new HashMap<>();
+            attributes.put(CoreAttributes.UUID.key(), "flowfile-uuid");
+            final byte[] dataPacketContents = "DataPacket Contents".getBytes();
+            final DataPacket dataPacket = new ChannelDataPacket(attributes,
+                    Channels.newChannel(new ByteArrayInputStream(dataPacketContents)), dataPacketContents.length);
+
+            // Return null when it gets called second time.
+            doReturn(dataPacket).doReturn(null).when(this.transaction).receive();
+
+            port.onTrigger(processContext, processSession);
+
+            assertEquals(1, ((ChannelTransferProcessSession) processSession).channelImports);
+            processSession.assertAllFlowFilesTransferred(Relationship.ANONYMOUS);
+            final List<MockFlowFile> flowFiles = processSession.getFlowFilesForRelationship(Relationship.ANONYMOUS);
+            assertEquals(1, flowFiles.size());
+            flowFiles.get(0).assertContentEquals(dataPacketContents);
+        }
+    }
+
     @Test
     public void testSendHttp() throws Exception {
 
@@ -393,6 +484,58 @@ public class TestStandardRemoteGroupPort {
         }
     }
 
+    @Test
+    public void testSendHttpPipelinesCommits() throws Exception {
+
+        final SiteToSiteClientConfig siteToSiteClientConfig = new SiteToSiteClient.Builder()
+                .requestBatchCount(2)
+                .buildConfig();
+        setupMock(SiteToSiteTransportProtocol.HTTP, TransferDirection.SEND, siteToSiteClientConfig);
+        setupMockProcessSession();
+        doReturn(true).when(port).isRunning();
+
+        final PeerDescription peerDescription = new PeerDescription("node1.example.com", 8080, false);
+        final HttpCommunicationsSession commsSession = new HttpCommunicationsSession();
+        final Peer peer = new Peer(peerDescription, commsSession, "http://node1.example.com:8080/nifi", REMOTE_CLUSTER_URL);
+        doReturn(peer).when(transaction).getCommunicant();
+        commsSession.setDataTransferUrl("http://node1.example.com:8080/nifi-api/output-ports/port-id/transactions/transaction-id/flow-files");
+
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch secondTransactionConfirmed = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            events.add("send");
+            return null;
+        }).when(transaction).send(any(DataPacket.class));
+        doAnswer(invocation -> {
+            events.add("confirm");
+            secondTransactionConfirmed.countDown();
+            return null;
+        }).when(transaction).confirm();
+        doAnswer(invocation -> {
+            // Keep the commit of the first transaction in flight until the second transaction has exchanged its data
+            secondTransactionConfirmed.await(5, TimeUnit.SECONDS);
+            events.add("complete");
+            return null;
+        }).when(transaction).complete();
+
+        for (int i = 0; i < 4; i++) {
+            sessionState.getFlowFileQueue().offer(processSession.createFlowFile(("FlowFile " + i).getBytes()));
+        }
+
+        port.onTrigger(processContext, () -> new MockProcessSession(sessionState, processor) {
+            @Override
+            public void commit() {
+                events.add("commit");
+                super.commit();
+            }
+        });
+
+        // Each session is committed only after its transaction has been completed with the remote instance
+        assertEquals(Arrays.asList("send", "send", "confirm", "send", "send", "confirm", "complete", "commit", "complete", "commit"), events);
+        assertEquals(4, sessionState.getProvenanceEvents().size());
+        assertEquals(0, sessionState.getFlowFileQueue().size().getObjectCount());
+    }
+
     @Test
     public void testReceiveHttp() throws Exception {
 
@@ -438,4 +581,40 @@ public class TestStandardRemoteGroupPort {
         flowFile.assertAttributeEquals(SiteToSiteAttributes.S2S_ADDRESS.key(), peer.getHost() + ":" + peer.getPort());
 
     }
+
+    /**
+     * A MockProcessSession that hands out FlowFile content as a region of a file and imports content from a channel,
+     * as the framework's session does when content is held in the FileSystemRepository.
+     */
+    private static class ChannelTransferProcessSession extends MockProcessSession implements ChannelTransferSession {
+        private int channelImports = 0;
+
+        public ChannelTransferProcessSession(final SharedSessionState sharedState, final Processor processor) {
+            super(sharedState, processor);
+        }
+
+        @Override
+        public boolean readFileRegion(final FlowFile source, final FileRegionCallback callback) throws IOException {
+            final byte[] content = ((MockFlowFile) source).toByteArray();
+            final Path file = Files.createTempFile("file-region", ".bin");
+            try {
+                // Place the content after a few leading bytes, as content claims share Resource Claim files
+                final byte[] leadingBytes = "leading".getBytes();
+                Files.write(file, leadingBytes);
+                Files.write(file, content, StandardOpenOption.APPEND);
+                try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    callback.process(channel, leadingBytes.length, content.length);
+                }
+            } finally {
+                Files.delete(file);
+            }
+            return true;
+        }
+
+        @Override
+        public FlowFile importFrom(final ReadableByteChannel source, final long length, final FlowFile destination) {
+            channelImports++;
+            return importFrom(new LimitingInputStream(Channels.newInputStream(source), length), destination);
+        }
+    }
 }
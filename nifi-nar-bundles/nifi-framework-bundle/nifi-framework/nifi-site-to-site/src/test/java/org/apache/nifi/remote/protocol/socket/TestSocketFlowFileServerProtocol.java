@@ -16,11 +16,17 @@
  */
 package org.apache.nifi.remote.protocol.socket;
 
+import org.apache.nifi.controller.repository.ChannelTransferSession;
+import org.apache.nifi.controller.repository.FileRegionCallback;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.processor.Processor;
+import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.remote.Peer;
 import org.apache.nifi.remote.PeerDescription;
 import org.apache.nifi.remote.StandardVersionNegotiator;
 import org.apache.nifi.remote.cluster.ClusterNodeInformation;
 import org.apache.nifi.remote.cluster.NodeInformation;
+import org.apache.nifi.remote.codec.StandardFlowFileCodec;
 import org.apache.nifi.remote.io.socket.SocketChannelCommunicationsSession;
 import org.apache.nifi.remote.io.socket.SocketChannelInput;
 import org.apache.nifi.remote.io.socket.SocketChannelOutput;
@@ -28,7 +34,12 @@ import org.apache.nifi.remote.protocol.HandshakeProperties;
 import org.apache.nifi.remote.protocol.HandshakeProperty;
 import org.apache.nifi.remote.protocol.Response;
 import org.apache.nifi.remote.protocol.ResponseCode;
+import org.apache.nifi.remote.util.StandardDataPacket;
+import org.apache.nifi.util.MockFlowFile;
+import org.apache.nifi.util.MockProcessContext;
+import org.apache.nifi.util.MockProcessSession;
 import org.apache.nifi.util.NiFiProperties;
+import org.apache.nifi.util.SharedSessionState;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -39,13 +50,28 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class TestSocketFlowFileServerProtocol {
@@ -57,6 +83,10 @@ public class TestSocketFlowFileServerProtocol {
     }
 
     private Peer getDefaultPeer(final HandshakeProperties handshakeProperties, final OutputStream outputStream) throws IOException {
+        return getDefaultPeer(handshakeProperties, outputStream, new byte[0]);
+    }
+
+    private Peer getDefaultPeer(final HandshakeProperties handshakeProperties, final OutputStream outputStream, final byte[] additionalInput) throws IOException {
         final PeerDescription description = new PeerDescription("peer-host", 8080, false);
 
         final byte[] inputBytes;
@@ -68,6 +98,7 @@ public class TestSocketFlowFileServerProtocol {
             dos.writeInt(1); // num of properties
             dos.writeUTF(HandshakeProperty.GZIP.name());
             dos.writeUTF(String.valueOf(handshakeProperties.isUseGzip()));
+            dos.write(additionalInput);
             dos.flush();
 
             inputBytes = bos.toByteArray();
@@ -182,4 +213,96 @@ public class TestSocketFlowFileServerProtocol {
         }
     }
 
+    @Test
+    public void testTransferFlowFileFromFileRegion() throws Exception {
+        final SocketFlowFileServerProtocol protocol = getDefaultSocketFlowFileServerProtocol();
+
+        final Processor rootGroupPort = mock(Processor.class);
+        when(rootGroupPort.getRelationships()).thenReturn(Collections.singleton(Relationship.ANONYMOUS));
+        when(rootGroupPort.getIdentifier()).thenReturn("root-group-port-id");
+        final SharedSessionState sessionState = new SharedSessionState(rootGroupPort, new AtomicLong(0));
+        final FileRegionProcessSession session = new FileRegionProcessSession(sessionState, rootGroupPort);
+
+        final MockFlowFile flowFile = session.createFlowFile("Server content sent from a file region".getBytes());
+        sessionState.getFlowFileQueue().offer(flowFile);
+
+        // The peer confirms the transaction with the checksum of the bytes that the codec would have written
+        final StandardFlowFileCodec codec = new StandardFlowFileCodec();
+        final ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
+        final CRC32 expectedCrc = new CRC32();
+        codec.encode(new StandardDataPacket(flowFile.getAttributes(), new ByteArrayInputStream(flowFile.toByteArray()), flowFile.getSize()),
+            new CheckedOutputStream(expectedOut, expectedCrc));
+
+        final ByteArrayOutputStream peerResponses = new ByteArrayOutputStream();
+        final DataOutputStream responseOut = new DataOutputStream(peerResponses);
+        ResponseCode.CONFIRM_TRANSACTION.writeResponse(responseOut, String.valueOf(expectedCrc.getValue()));
+        ResponseCode.TRANSACTION_FINISHED.writeResponse(responseOut);
+
+        final HandshakeProperties handshakeProperties = new HandshakeProperties();
+        handshakeProperties.setCommsIdentifier("communication-identifier");
+        handshakeProperties.setTransitUriPrefix("uri-prefix");
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final Peer peer = getDefaultPeer(handshakeProperties, outputStream, peerResponses.toByteArray());
+        final SocketChannelOutput channelOutput = (SocketChannelOutput) peer.getCommunicationsSession().getOutput();
+        doAnswer(invocation -> {
+            final FileChannel channel = invocation.getArgumentAt(0, FileChannel.class);
+            final long position = invocation.getArgumentAt(1, Long.class);
+            final long count = invocation.getArgumentAt(2, Long.class);
+            final ByteBuffer buffer = ByteBuffer.allocate((int) count);
+            channel.read(buffer, position);
+            outputStream.write(buffer.array());
+            invocation.getArgumentAt(3, CRC32.class).update(buffer.array());
+            return count;
+        }).when(channelOutput).transferFrom(any(FileChannel.class), anyLong(), anyLong(), any(CRC32.class));
+
+        protocol.handshake(peer);
+        assertEquals(1, protocol.transferFlowFiles(peer, new MockProcessContext(rootGroupPort), session, codec));
+        verify(channelOutput).transferFrom(any(FileChannel.class), anyLong(), anyLong(), any(CRC32.class));
+
+        try (final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals(ResponseCode.PROPERTIES_OK, Response.read(dis).getCode());
+            assertEquals(ResponseCode.MORE_DATA, Response.read(dis).getCode());
+
+            final byte[] encoded = new byte[expectedOut.size()];
+            dis.readFully(encoded);
+            assertArrayEquals(expectedOut.toByteArray(), encoded);
+
+            assertEquals(ResponseCode.FINISH_TRANSACTION, Response.read(dis).getCode());
+            assertEquals(ResponseCode.CONFIRM_TRANSACTION, Response.read(dis).getCode());
+        }
+    }
+
+    /**
+     * A MockProcessSession that hands out FlowFile content as a region of a file, as the framework's session does
+     * when content is held in the FileSystemRepository.
+     */
+    private static class FileRegionProcessSession extends MockProcessSession implements ChannelTransferSession {
+        public FileRegionProcessSession(final SharedSessionState sharedState, final Processor processor) {
+            super(sharedState, processor);
+        }
+
+        @Override
+        public boolean readFileRegion(final FlowFile source, final FileRegionCallback callback) throws IOException {
+            final byte[] content = ((MockFlowFile) source).toByteArray();
+            final Path file = Files.createTempFile("file-region", ".bin");
+            try {
+                // Place the content after a few leading bytes, as content claims share Resource Claim files
+                final byte[] leadingBytes = "leading".getBytes();
+                Files.write(file, leadingBytes);
+                Files.write(file, content, StandardOpenOption.APPEND);
+                try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    callback.process(channel, leadingBytes.length, content.length);
+                }
+            } finally {
+                Files.delete(file);
+            }
+            return true;
+        }
+
+        @Override
+        public FlowFile importFrom(final ReadableByteChannel source, final long length, final FlowFile destination) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -70,6 +70,7 @@ public class ProcessorAuditor extends NiFiAuditor {
     private static final String SCHEDULING_PERIOD = "Run Schedule";
     private static final String SCHEDULING_STRATEGY = "Scheduling Strategy";
     private static final String EXECUTION_NODE = "Execution Node";
+    private static final String EXECUTION_MODE = "Execution Mode";
     private static final String EXTENSION_VERSION = "Extension Version";
 
     /**
@@ -379,6 +380,9 @@ public class ProcessorAuditor extends NiFiAuditor {
             if (newConfig.getExecutionNode() != null) {
                 values.put(EXECUTION_NODE, processor.getExecutionNode().name());
             }
+            if (newConfig.getExecutionMode() != null) {
+                values.put(EXECUTION_MODE, processor.getExecutionMode().name());
+            }
         }
 
         return values;
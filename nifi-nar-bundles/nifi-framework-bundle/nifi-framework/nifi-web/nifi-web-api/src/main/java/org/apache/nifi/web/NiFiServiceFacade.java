@@ -69,6 +69,7 @@ import org.apache.nifi.web.api.dto.action.HistoryQueryDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceEventDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceOptionsDTO;
+import org.apache.nifi.web.api.dto.provenance.ProvenanceQueryPageDTO;
 import org.apache.nifi.web.api.dto.provenance.lineage.LineageDTO;
 import org.apache.nifi.web.api.dto.search.SearchResultsDTO;
 import org.apache.nifi.web.api.dto.status.ControllerStatusDTO;
@@ -237,6 +238,14 @@ public interface NiFiServiceFacade {
      */
     ProvenanceDTO getProvenance(String queryId, Boolean summarize, Boolean incrementalResults);
 
+    /**
+     * Retrieves a single page of the provenance events that match a provenance request.
+     *
+     * @param page the request and the page to retrieve
+     * @return the page of events
+     */
+    ProvenanceQueryPageDTO getProvenanceQueryPage(ProvenanceQueryPageDTO page);
+
     /**
      * Deletes provenance.
      *
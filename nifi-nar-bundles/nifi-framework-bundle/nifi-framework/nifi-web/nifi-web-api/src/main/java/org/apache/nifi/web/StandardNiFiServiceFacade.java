@@ -194,6 +194,7 @@ import org.apache.nifi.web.api.dto.flow.FlowDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceEventDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceOptionsDTO;
+import org.apache.nifi.web.api.dto.provenance.ProvenanceQueryPageDTO;
 import org.apache.nifi.web.api.dto.provenance.lineage.LineageDTO;
 import org.apache.nifi.web.api.dto.search.SearchResultsDTO;
 import org.apache.nifi.web.api.dto.status.ConnectionStatusDTO;
@@ -2653,6 +2654,11 @@ public class StandardNiFiServiceFacade implements NiFiServiceFacade {
         return controllerFacade.submitProvenance(query);
     }
 
+    @Override
+    public ProvenanceQueryPageDTO getProvenanceQueryPage(final ProvenanceQueryPageDTO page) {
+        return controllerFacade.getProvenanceQueryPage(page);
+    }
+
     @Override
     public void deleteProvenance(final String queryId) {
         controllerFacade.deleteProvenanceQuery(queryId);
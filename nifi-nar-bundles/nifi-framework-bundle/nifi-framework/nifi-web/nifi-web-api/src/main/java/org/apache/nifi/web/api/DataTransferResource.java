@@ -78,6 +78,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
+import java.net.URI;
 import java.net.UnknownHostException;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -90,6 +91,8 @@ import static org.apache.nifi.remote.protocol.http.HttpHeaders.HANDSHAKE_PROPERT
 import static org.apache.nifi.remote.protocol.http.HttpHeaders.HANDSHAKE_PROPERTY_BATCH_SIZE;
 import static org.apache.nifi.remote.protocol.http.HttpHeaders.HANDSHAKE_PROPERTY_REQUEST_EXPIRATION;
 import static org.apache.nifi.remote.protocol.http.HttpHeaders.HANDSHAKE_PROPERTY_USE_COMPRESSION;
+import static org.apache.nifi.remote.protocol.http.HttpHeaders.NEXT_TRANSACTION_URL;
+import static org.apache.nifi.remote.protocol.http.HttpHeaders.PIPELINE_NEXT_TRANSACTION;
 
 /**
  * RESTful endpoint for managing a SiteToSite connection.
@@ -112,7 +115,7 @@ public class DataTransferResource extends ApplicationResource {
 
     private NiFiServiceFacade serviceFacade;
     private final ResponseCreator responseCreator = new ResponseCreator();
-    private final VersionNegotiator transportProtocolVersionNegotiator = new TransportProtocolVersionNegotiator(1);
+    private final VersionNegotiator transportProtocolVersionNegotiator = new TransportProtocolVersionNegotiator(2, 1);
     private final HttpRemoteSiteListener transactionManager;
     private final NiFiProperties nifiProperties;
 
@@ -479,7 +482,8 @@ public class DataTransferResource extends ApplicationResource {
             return responseCreator.unexpectedErrorResponse(portId, transactionId, e);
         }
 
-        return noCache(setCommonHeaders(Response.ok(entity), transportProtocolVersion, transactionManager)).build();
+        final Response.ResponseBuilder builder = pipelineNextTransaction(Response.ok(entity), req, PORT_TYPE_OUTPUT, portId, transportProtocolVersion);
+        return noCache(setCommonHeaders(builder, transportProtocolVersion, transactionManager)).build();
     }
 
 
@@ -592,7 +596,29 @@ public class DataTransferResource extends ApplicationResource {
             return responseCreator.unexpectedErrorResponse(portId, transactionId, e);
         }
 
-        return noCache(setCommonHeaders(Response.ok(entity), transportProtocolVersion, transactionManager)).build();
+        Response.ResponseBuilder builder = Response.ok(entity);
+        if (ResponseCode.CONFIRM_TRANSACTION.getCode() == responseCode) {
+            builder = pipelineNextTransaction(builder, req, PORT_TYPE_INPUT, portId, transportProtocolVersion);
+        }
+        return noCache(setCommonHeaders(builder, transportProtocolVersion, transactionManager)).build();
+    }
+
+    /**
+     * Creates the next transaction for the same port along with a commit, if the client asked for it and the negotiated
+     * transport protocol version supports it. The client can start sending or receiving data with the returned
+     * transaction URL directly, without a separate request to create a transaction.
+     */
+    private Response.ResponseBuilder pipelineNextTransaction(final Response.ResponseBuilder builder, final HttpServletRequest req,
+                                                             final String portType, final String portId, final int transportProtocolVersion) {
+        if (!new TransportProtocolVersionNegotiator(transportProtocolVersion).isPipeliningSupported()
+                || !Boolean.valueOf(req.getHeader(PIPELINE_NEXT_TRANSACTION))) {
+            return builder;
+        }
+
+        final String nextTransactionId = transactionManager.createTransaction();
+        final URI nextTransactionUri = buildResourceUri(uriInfo.getBaseUriBuilder(), "data-transfer", portType, portId, "transactions", nextTransactionId);
+        logger.debug("Pipelined the next transaction for portId={}, transactionId={}", portId, nextTransactionId);
+        return builder.header(NEXT_TRANSACTION_URL, nextTransactionUri.toString());
     }
 
     private Response cancelTransaction(String transactionId, TransactionResultEntity entity) {
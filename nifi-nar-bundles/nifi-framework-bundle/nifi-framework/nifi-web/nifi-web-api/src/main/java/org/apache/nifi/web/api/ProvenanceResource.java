@@ -29,6 +29,7 @@ import org.apache.nifi.authorization.user.NiFiUserUtils;
 import org.apache.nifi.web.NiFiServiceFacade;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceOptionsDTO;
+import org.apache.nifi.web.api.dto.provenance.ProvenanceQueryPageDTO;
 import org.apache.nifi.web.api.dto.provenance.lineage.LineageDTO;
 import org.apache.nifi.web.api.dto.provenance.lineage.LineageRequestDTO;
 import org.apache.nifi.web.api.dto.provenance.lineage.LineageResultsDTO;
@@ -36,6 +37,7 @@ import org.apache.nifi.web.api.entity.ComponentEntity;
 import org.apache.nifi.web.api.entity.LineageEntity;
 import org.apache.nifi.web.api.entity.ProvenanceEntity;
 import org.apache.nifi.web.api.entity.ProvenanceOptionsEntity;
+import org.apache.nifi.web.api.entity.ProvenanceQueryPageEntity;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
@@ -243,6 +245,96 @@ public class ProvenanceResource extends ApplicationResource {
         );
     }
 
+    /**
+     * Gets a single page of the provenance events that match the specified query criteria.
+     *
+     * @param httpServletRequest request
+     * @param requestPageEntity  A provenanceQueryPageEntity
+     * @return A provenanceQueryPageEntity
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("pages")
+    @ApiOperation(
+            value = "Gets a page of the provenance events that match a provenance query",
+            notes = "Unlike a submitted provenance query, the results are not collected by NiFi, so any number of matching events can be "
+                    + "retrieved, one page at a time. The response includes a continuation token that is used to request the next page; "
+                    + "if it is not present, there are no more matching events. Events are returned in the order that they were added to the "
+                    + "repository. When clustered, the id of the node to search must be specified.",
+            response = ProvenanceQueryPageEntity.class,
+            authorizations = {
+                    @Authorization(value = "Read - /provenance"),
+                    @Authorization(value = "Read - /data/{component-type}/{uuid}")
+            }
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 400, message = "NiFi was unable to complete the request because it was invalid. The request should not be retried without modification."),
+                    @ApiResponse(code = 401, message = "Client could not be authenticated."),
+                    @ApiResponse(code = 403, message = "Client is not authorized to make this request."),
+                    @ApiResponse(code = 409, message = "The request was valid but NiFi was not in the appropriate state to process it. Retrying the same request later may be successful.")
+            }
+    )
+    public Response getProvenanceQueryPage(
+            @Context final HttpServletRequest httpServletRequest,
+            @ApiParam(
+                    value = "The provenance query details and the page to retrieve.",
+                    required = true
+            ) ProvenanceQueryPageEntity requestPageEntity) {
+
+        // check the request
+        if (requestPageEntity == null) {
+            requestPageEntity = new ProvenanceQueryPageEntity();
+        }
+
+        if (requestPageEntity.getProvenanceQueryPage() == null) {
+            requestPageEntity.setProvenanceQueryPage(new ProvenanceQueryPageDTO());
+        }
+
+        final ProvenanceQueryPageDTO requestPageDto = requestPageEntity.getProvenanceQueryPage();
+        if (requestPageDto.getPageSize() != null && requestPageDto.getPageSize() < 1) {
+            throw new IllegalArgumentException("The page size must be positive.");
+        }
+
+        // each node pages through its own events, so a continuation token is meaningful only to the node that issued it
+        final String clusterNodeId = requestPageDto.getRequest() == null ? null : requestPageDto.getRequest().getClusterNodeId();
+        if (isReplicateRequest()) {
+            if (clusterNodeId == null) {
+                throw new IllegalArgumentException("The cluster node identifier must be specified.");
+            }
+
+            // change content type to JSON for serializing entity
+            final Map<String, String> headersToOverride = new HashMap<>();
+            headersToOverride.put("content-type", MediaType.APPLICATION_JSON);
+            return replicate(HttpMethod.POST, requestPageEntity, clusterNodeId, headersToOverride);
+        }
+
+        return withWriteLock(
+                serviceFacade,
+                requestPageEntity,
+                lookup -> authorizeProvenanceRequest(),
+                null,
+                (pageEntity) -> {
+                    // get the page of events
+                    final ProvenanceQueryPageDTO dto = serviceFacade.getProvenanceQueryPage(pageEntity.getProvenanceQueryPage());
+
+                    // set the cluster id if necessary
+                    if (clusterNodeId != null) {
+                        dto.getRequest().setClusterNodeId(clusterNodeId);
+                        dto.getProvenanceEvents().forEach(event -> event.setClusterNodeId(clusterNodeId));
+                    }
+
+                    // create the response entity
+                    final ProvenanceQueryPageEntity entity = new ProvenanceQueryPageEntity();
+                    entity.setProvenanceQueryPage(dto);
+
+                    // generate the response
+                    return generateOkResponse(entity).build();
+                }
+        );
+    }
+
     /**
      * Gets the provenance with the specified id.
      *
@@ -675,6 +675,7 @@ public final class DtoFactory {
         dto.setBackPressureObjectThreshold(connection.getFlowFileQueue().getBackPressureObjectThreshold());
         dto.setBackPressureDataSizeThreshold(connection.getFlowFileQueue().getBackPressureDataSizeThreshold());
         dto.setFlowFileExpiration(connection.getFlowFileQueue().getFlowFileExpiration());
+        dto.setFlowFileQueueImplementation(connection.getFlowFileQueueImplementation());
         dto.setPrioritizers(new ArrayList<String>());
         for (final FlowFilePrioritizer comparator : connection.getFlowFileQueue().getPriorities()) {
             dto.getPrioritizers().add(comparator.getClass().getCanonicalName());
@@ -1130,6 +1131,18 @@ public final class DtoFactory {
         snapshot.setFlowFilesOut(connectionStatus.getOutputCount());
         snapshot.setBytesOut(connectionStatus.getOutputBytes());
 
+        snapshot.setQueueTimeCount(connectionStatus.getQueueTimeCount());
+        snapshot.setQueueTimeP50Millis(connectionStatus.getQueueTimeP50Millis());
+        snapshot.setQueueTimeP99Millis(connectionStatus.getQueueTimeP99Millis());
+        snapshot.setQueueTimeMaxMillis(connectionStatus.getQueueTimeMaxMillis());
+
+        snapshot.setSwapOutCount(connectionStatus.getSwapOutCount());
+        snapshot.setSwapOutBytes(connectionStatus.getSwapOutBytes());
+        snapshot.setSwapOutMillis(connectionStatus.getSwapOutMillis());
+        snapshot.setSwapInCount(connectionStatus.getSwapInCount());
+        snapshot.setSwapInBytes(connectionStatus.getSwapInBytes());
+        snapshot.setSwapInMillis(connectionStatus.getSwapInMillis());
+
         if (connectionStatus.getBackPressureObjectThreshold() > 0) {
             snapshot.setPercentUseCount(Math.min(100, StatusMerger.getUtilization(connectionStatus.getQueuedCount(), connectionStatus.getBackPressureObjectThreshold())));
         }
@@ -1597,6 +1610,13 @@ public final class DtoFactory {
         batchDTO.setDuration(port.getBatchDuration());
         dto.setBatchSettings(batchDTO);
 
+        dto.setEffectiveBatchCount(port.getEffectiveBatchCount());
+        dto.setEffectiveBatchSize(port.getEffectiveBatchSize());
+        dto.setCompressionRatio(port.getCompressionRatio());
+        dto.setTransferRate(port.getTransferRate());
+        dto.setTransactionCount(port.getTransactionCount());
+        dto.setUncompressedBytesSent(port.getUncompressedBytesSent());
+
         // determine if this port is currently connected to another component locally
         if (ConnectableType.REMOTE_OUTPUT_PORT.equals(port.getConnectableType())) {
             dto.setConnected(!port.getConnections().isEmpty());
@@ -3060,6 +3080,7 @@ public final class DtoFactory {
             }
         }
         resultsDto.setNodes(nodeDtos);
+        resultsDto.setPartial(results.isPartial());
 
         // include any errors
         if (results.getError() != null) {
@@ -3140,6 +3161,15 @@ public final class DtoFactory {
         // provenance disk usage
         final Set<SystemDiagnosticsSnapshotDTO.StorageUsageDTO> provenanceRepositoryStorageUsageDtos = new LinkedHashSet<>();
         snapshot.setProvenanceRepositoryStorageUsage(provenanceRepositoryStorageUsageDtos);
+        snapshot.setProvenanceIndexLagEvents(sysDiagnostics.getProvenanceIndexLagEvents());
+        final Long provenanceIndexLagMillis = sysDiagnostics.getProvenanceIndexLagMillis();
+        snapshot.setProvenanceIndexLagSeconds(provenanceIndexLagMillis == null ? null : TimeUnit.MILLISECONDS.toSeconds(provenanceIndexLagMillis));
+        snapshot.setProvenanceEventsDroppedByPolicy(sysDiagnostics.getProvenanceEventsDroppedByPolicy());
+        snapshot.setProvenanceEventsProjectedByPolicy(sysDiagnostics.getProvenanceEventsProjectedByPolicy());
+        snapshot.setOffHeapFlowFileAttributeBytes(sysDiagnostics.getOffHeapFlowFileAttributeBytes());
+        snapshot.setPreparedQueryCacheHits(sysDiagnostics.getPreparedQueryCacheHits());
+        snapshot.setPreparedQueryCacheMisses(sysDiagnostics.getPreparedQueryCacheMisses());
+        snapshot.setPreparedQueryCacheEvictions(sysDiagnostics.getPreparedQueryCacheEvictions());
         for (final Map.Entry<String, StorageUsage> entry : sysDiagnostics.getProvenanceRepositoryStorageUsage().entrySet()) {
             provenanceRepositoryStorageUsageDtos.add(createStorageUsageDTO(entry.getKey(), entry.getValue()));
         }
@@ -3592,6 +3622,7 @@ public final class DtoFactory {
         dto.setBulletinLevel(procNode.getBulletinLevel().name());
         dto.setSchedulingStrategy(procNode.getSchedulingStrategy().name());
         dto.setExecutionNode(procNode.getExecutionNode().name());
+        dto.setExecutionMode(procNode.getExecutionMode().name());
         dto.setAnnotationData(procNode.getAnnotationData());
 
         // set up the default values for concurrent tasks and scheduling period
@@ -3810,6 +3841,7 @@ public final class DtoFactory {
         copy.setComments(original.getComments());
         copy.setSchedulingStrategy(original.getSchedulingStrategy());
         copy.setExecutionNode(original.getExecutionNode());
+        copy.setExecutionMode(original.getExecutionMode());
         copy.setConcurrentlySchedulableTaskCount(original.getConcurrentlySchedulableTaskCount());
         copy.setCustomUiUrl(original.getCustomUiUrl());
         copy.setDescriptors(copy(original.getDescriptors()));
@@ -3836,6 +3868,7 @@ public final class DtoFactory {
         copy.setParentGroupId(original.getParentGroupId());
         copy.setSelectedRelationships(copy(original.getSelectedRelationships()));
         copy.setFlowFileExpiration(original.getFlowFileExpiration());
+        copy.setFlowFileQueueImplementation(original.getFlowFileQueueImplementation());
         copy.setBackPressureObjectThreshold(original.getBackPressureObjectThreshold());
         copy.setBackPressureDataSizeThreshold(original.getBackPressureDataSizeThreshold());
         copy.setPrioritizers(copy(original.getPrioritizers()));
@@ -3894,6 +3927,12 @@ public final class DtoFactory {
         copy.setUseCompression(original.getUseCompression());
         copy.setExists(original.getExists());
         copy.setVersionedComponentId(original.getVersionedComponentId());
+        copy.setEffectiveBatchCount(original.getEffectiveBatchCount());
+        copy.setEffectiveBatchSize(original.getEffectiveBatchSize());
+        copy.setCompressionRatio(original.getCompressionRatio());
+        copy.setTransferRate(original.getTransferRate());
+        copy.setTransactionCount(original.getTransactionCount());
+        copy.setUncompressedBytesSent(original.getUncompressedBytesSent());
 
         final BatchSettingsDTO batchOrg = original.getBatchSettings();
         if (batchOrg != null) {
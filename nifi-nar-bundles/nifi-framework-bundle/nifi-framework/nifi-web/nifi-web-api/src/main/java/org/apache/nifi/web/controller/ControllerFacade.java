@@ -70,6 +70,7 @@ import org.apache.nifi.provenance.ProvenanceRepository;
 import org.apache.nifi.provenance.SearchableFields;
 import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
 import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QueryPage;
 import org.apache.nifi.provenance.search.QueryResult;
 import org.apache.nifi.provenance.search.QuerySubmission;
 import org.apache.nifi.provenance.search.SearchTerm;
@@ -96,6 +97,7 @@ import org.apache.nifi.web.api.dto.provenance.AttributeDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceEventDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceOptionsDTO;
+import org.apache.nifi.web.api.dto.provenance.ProvenanceQueryPageDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceRequestDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceResultsDTO;
 import org.apache.nifi.web.api.dto.provenance.ProvenanceSearchableFieldDTO;
@@ -128,6 +130,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TimeZone;
 import java.util.TreeSet;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -983,7 +986,18 @@ public class ControllerFacade implements Authorizable {
         final ProvenanceRequestDTO requestDto = provenanceDto.getRequest();
 
         // create the query
-        final Query query = new Query(provenanceDto.getId());
+        final Query query = createQuery(provenanceDto.getId(), requestDto);
+
+        // submit the query to the provenance repository
+        final ProvenanceRepository provenanceRepository = flowController.getProvenanceRepository();
+        final QuerySubmission querySubmission = provenanceRepository.submitQuery(query, NiFiUserUtils.getNiFiUser());
+
+        // return the query with the results populated at this point
+        return getProvenanceQuery(querySubmission.getQueryIdentifier(), requestDto.getSummarize(), requestDto.getIncrementalResults());
+    }
+
+    private Query createQuery(final String queryId, final ProvenanceRequestDTO requestDto) {
+        final Query query = new Query(queryId);
 
         // if the request was specified
         if (requestDto != null) {
@@ -1016,15 +1030,45 @@ public class ControllerFacade implements Authorizable {
             query.setMaxFileSize(requestDto.getMaximumFileSize());
 
             // set the max results desired
-            query.setMaxResults(requestDto.getMaxResults());
+            if (requestDto.getMaxResults() != null) {
+                query.setMaxResults(requestDto.getMaxResults());
+            }
         }
 
-        // submit the query to the provenance repository
-        final ProvenanceRepository provenanceRepository = flowController.getProvenanceRepository();
-        final QuerySubmission querySubmission = provenanceRepository.submitQuery(query, NiFiUserUtils.getNiFiUser());
+        return query;
+    }
 
-        // return the query with the results populated at this point
-        return getProvenanceQuery(querySubmission.getQueryIdentifier(), requestDto.getSummarize(), requestDto.getIncrementalResults());
+    /**
+     * Retrieves a single page of the provenance events that match a provenance request.
+     *
+     * @param pageDto dto
+     * @return the page of provenance events
+     */
+    public ProvenanceQueryPageDTO getProvenanceQueryPage(final ProvenanceQueryPageDTO pageDto) {
+        final ProvenanceRequestDTO requestDto = pageDto.getRequest();
+        final Query query = createQuery(UUID.randomUUID().toString(), requestDto);
+        final int pageSize = pageDto.getPageSize() == null ? query.getMaxResults() : pageDto.getPageSize();
+
+        try {
+            final ProvenanceRepository provenanceRepository = flowController.getProvenanceRepository();
+            final QueryPage queryPage = provenanceRepository.queryEvents(query, pageDto.getContinuationToken(), pageSize, NiFiUserUtils.getNiFiUser());
+
+            final boolean summarize = requestDto != null && Boolean.TRUE.equals(requestDto.getSummarize());
+            final List<ProvenanceEventDTO> events = new ArrayList<>();
+            for (final ProvenanceEventRecord record : queryPage.getEvents()) {
+                events.add(createProvenanceEventDto(record, summarize));
+            }
+
+            final ProvenanceQueryPageDTO dto = new ProvenanceQueryPageDTO();
+            dto.setRequest(requestDto);
+            dto.setContinuationToken(pageDto.getContinuationToken());
+            dto.setPageSize(pageSize);
+            dto.setProvenanceEvents(events);
+            dto.setNextContinuationToken(queryPage.getContinuationToken());
+            return dto;
+        } catch (final IOException ioe) {
+            throw new NiFiCoreException("An error occurred while searching the provenance events.", ioe);
+        }
     }
 
     /**
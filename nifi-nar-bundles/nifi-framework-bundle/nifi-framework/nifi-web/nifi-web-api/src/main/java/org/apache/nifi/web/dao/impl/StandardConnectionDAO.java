@@ -26,6 +26,7 @@ import org.apache.nifi.connectable.Connectable;
 import org.apache.nifi.connectable.ConnectableType;
 import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.connectable.Position;
+import org.apache.nifi.connectable.StandardConnection;
 import org.apache.nifi.controller.FlowController;
 import org.apache.nifi.controller.exception.ValidationException;
 import org.apache.nifi.controller.queue.DropFlowFileStatus;
@@ -219,6 +220,10 @@ public class StandardConnectionDAO extends ComponentDAO implements ConnectionDAO
                 validationErrors.add("The label index must be positive.");
             }
         }
+        if (isNotNull(connectionDTO.getFlowFileQueueImplementation())
+                && !StandardConnection.FLOWFILE_QUEUE_IMPLEMENTATIONS.contains(connectionDTO.getFlowFileQueueImplementation())) {
+            validationErrors.add("FlowFile Queue implementation must be one of " + StandardConnection.FLOWFILE_QUEUE_IMPLEMENTATIONS);
+        }
 
         // validation is required when connecting to a remote process group since each node in a
         // cluster may or may not be authorized
@@ -311,7 +316,8 @@ public class StandardConnectionDAO extends ComponentDAO implements ConnectionDAO
         }
 
         // create the connection
-        final Connection connection = flowController.createConnection(connectionDTO.getId(), connectionDTO.getName(), source, destination, relationships);
+        final Connection connection = flowController.createConnection(connectionDTO.getId(), connectionDTO.getName(), source, destination, relationships,
+                connectionDTO.getFlowFileQueueImplementation());
 
         // configure the connection
         configureConnection(connection, connectionDTO);
@@ -434,6 +440,12 @@ public class StandardConnectionDAO extends ComponentDAO implements ConnectionDAO
     }
 
     private void verifyUpdate(final Connection connection, final ConnectionDTO connectionDTO) {
+        // the queue holding the FlowFiles of the connection cannot be replaced
+        if (isNotNull(connectionDTO.getFlowFileQueueImplementation())
+                && !connectionDTO.getFlowFileQueueImplementation().equals(connection.getFlowFileQueueImplementation())) {
+            throw new ValidationException(Collections.singletonList("Cannot change the FlowFile Queue implementation of an existing connection"));
+        }
+
         // determine what the request is attempting
         if (isAnyNotNull(connectionDTO.getBackPressureDataSizeThreshold(),
                 connectionDTO.getBackPressureObjectThreshold(),
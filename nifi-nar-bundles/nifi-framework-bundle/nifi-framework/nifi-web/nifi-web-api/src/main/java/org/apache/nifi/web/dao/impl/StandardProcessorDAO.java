@@ -33,6 +33,7 @@ import org.apache.nifi.groups.ProcessGroup;
 import org.apache.nifi.logging.LogLevel;
 import org.apache.nifi.nar.ExtensionManager;
 import org.apache.nifi.processor.Relationship;
+import org.apache.nifi.scheduling.ExecutionMode;
 import org.apache.nifi.scheduling.ExecutionNode;
 import org.apache.nifi.scheduling.SchedulingStrategy;
 import org.apache.nifi.util.BundleUtils;
@@ -131,6 +132,7 @@ public class StandardProcessorDAO extends ComponentDAO implements ProcessorDAO {
             // perform the configuration
             final String schedulingStrategy = config.getSchedulingStrategy();
             final String executionNode = config.getExecutionNode();
+            final String executionMode = config.getExecutionMode();
             final String comments = config.getComments();
             final String annotationData = config.getAnnotationData();
             final Integer maxTasks = config.getConcurrentlySchedulableTaskCount();
@@ -152,6 +154,9 @@ public class StandardProcessorDAO extends ComponentDAO implements ProcessorDAO {
                 if (isNotNull(executionNode)) {
                     processor.setExecutionNode(ExecutionNode.valueOf(executionNode));
                 }
+                if (isNotNull(executionMode)) {
+                    processor.setExecutionMode(ExecutionMode.valueOf(executionMode));
+                }
                 if (isNotNull(comments)) {
                     processor.setComments(comments);
                 }
@@ -240,6 +245,13 @@ public class StandardProcessorDAO extends ComponentDAO implements ProcessorDAO {
                 validationErrors.add(String.format("Execution node: Value must be one of [%s]", StringUtils.join(ExecutionNode.values(), ", ")));
             }
         }
+        if (isNotNull(config.getExecutionMode())) {
+            try {
+                ExecutionMode.valueOf(config.getExecutionMode());
+            } catch (IllegalArgumentException iae) {
+                validationErrors.add(String.format("Execution mode: Value must be one of [%s]", StringUtils.join(ExecutionMode.values(), ", ")));
+            }
+        }
 
         // get the current scheduling strategy
         SchedulingStrategy schedulingStrategy = processorNode.getSchedulingStrategy();
@@ -400,6 +412,7 @@ public class StandardProcessorDAO extends ComponentDAO implements ProcessorDAO {
                     configDTO.getSchedulingPeriod(),
                     configDTO.getSchedulingStrategy(),
                     configDTO.getExecutionNode(),
+                    configDTO.getExecutionMode(),
                     configDTO.getYieldDuration())) {
 
                 modificationRequest = true;
@@ -194,6 +194,19 @@
                         </div>
                         <div class="clear"></div>
                     </div>
+                    <div id="execution-mode-options" class="setting">
+                        <div class="execution-mode-setting">
+                            <div class="setting-name">
+                                <fmt:message key="partials.canvas.processor-configuration.ExecutionMode"/>
+                                <fmt:message key="partials.canvas.processor-configuration.ExecutionModeTitle" var="ExecutionModeTitle"/>
+                                <div class="fa fa-question-circle" alt="Info" title="${ExecutionModeTitle}"></div>
+                            </div>
+                            <div class="setting-field">
+                                <div id="execution-mode-combo"></div>
+                            </div>
+                        </div>
+                        <div class="clear"></div>
+                    </div>
                 </div>
                 <div class="spacer">&nbsp;</div>
                 <div id="run-duration-setting-container" class="settings-right">
@@ -137,6 +137,21 @@
         }];
     };
 
+    /**
+     * Gets the available execution modes.
+     */
+    var getExecutionModeOptions = function () {
+        return [{
+            text: 'Standard',
+            value: 'STANDARD',
+            description: 'Processor tasks will run on the Timer Driven thread pool'
+        }, {
+            text: 'Virtual threads',
+            value: 'VIRTUAL_THREADS',
+            description: 'Processor tasks will run on virtual threads, for processors that spend most of their time waiting on I/O'
+        }];
+    };
+
     /**
      * Handle any expected processor configuration errors.
      *
@@ -262,6 +277,9 @@
         if ($('#execution-node-combo').combo('getSelectedOption').value !== (details.config['executionNode'] + '')) {
             return true;
         }
+        if ($('#execution-mode-combo').combo('getSelectedOption').value !== (details.config['executionMode'] + '')) {
+            return true;
+        }
         if ($('#processor-name').val() !== details['name']) {
             return true;
         }
@@ -328,6 +346,7 @@
         }
 
         processorConfigDto['executionNode'] = $('#execution-node-combo').combo('getSelectedOption').value;
+        processorConfigDto['executionMode'] = $('#execution-mode-combo').combo('getSelectedOption').value;
         processorConfigDto['penaltyDuration'] = $('#penalty-duration').val();
         processorConfigDto['yieldDuration'] = $('#yield-duration').val();
         processorConfigDto['bulletinLevel'] = $('#bulletin-level-combo').combo('getSelectedOption').value;
@@ -715,6 +734,7 @@
                                 $('#timer-driven-options').hide();
                                 $('#event-driven-options').show();
                                 $('#cron-driven-options').hide();
+                                $('#execution-mode-options').hide();
                             } else {
                                 $('#event-driven-warning').hide();
 
@@ -722,10 +742,12 @@
                                     $('#timer-driven-options').hide();
                                     $('#event-driven-options').hide();
                                     $('#cron-driven-options').show();
+                                    $('#execution-mode-options').hide();
                                 } else {
                                     $('#timer-driven-options').show();
                                     $('#event-driven-options').hide();
                                     $('#cron-driven-options').hide();
+                                    $('#execution-mode-options').show();
                                 }
                             }
                         }
@@ -748,6 +770,21 @@
                         $('#execution-node-options').hide();
                     }
 
+                    // initialize the execution mode combo
+                    $('#execution-mode-combo').combo({
+                        options: getExecutionModeOptions(),
+                        selectedOption: {
+                            value: processor.config['executionMode']
+                        }
+                    });
+
+                    // the execution mode only applies to timer driven processors
+                    if (schedulingStrategy === 'EVENT_DRIVEN' || schedulingStrategy === 'CRON_DRIVEN') {
+                        $('#execution-mode-options').hide();
+                    } else {
+                        $('#execution-mode-options').show();
+                    }
+
                     // initialize the concurrentTasks
                     var defaultConcurrentTasks = processor.config['defaultConcurrentTasks'];
                     $('#timer-driven-concurrently-schedulable-tasks').val(defaultConcurrentTasks['TIMER_DRIVEN']);
@@ -417,7 +417,7 @@ public class PutHBaseRecord extends AbstractPutHBase {
             Map visSettings = null;
             if (recordPath != null) {
                 final RecordPathResult result = recordPath.evaluate(record);
-                FieldValue fv = result.getSelectedFields().findFirst().get();
+                FieldValue fv = result.getFirstSelectedField().get();
                 visField = fv.getField();
                 visSettings = (Map)fv.getValue();
             }
@@ -19,6 +19,7 @@ package org.apache.nifi.metrics;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricSet;
+import org.apache.nifi.controller.status.ConnectionStatus;
 import org.apache.nifi.controller.status.ProcessGroupStatus;
 import org.apache.nifi.controller.status.ProcessorStatus;
 
@@ -69,6 +70,8 @@ public class FlowMetricSet implements MetricSet {
         metrics.put(MetricNames.FLOW_FILES_QUEUED, (Gauge<Integer>) () -> currentStatusReference.get().getQueuedCount());
         metrics.put(MetricNames.FLOW_FILES_SENT, (Gauge<Integer>) () -> currentStatusReference.get().getFlowFilesSent());
         metrics.put(MetricNames.TOTAL_TASK_DURATION_NANOS, (Gauge<Long>) () -> calculateProcessingNanos(currentStatusReference.get()));
+        metrics.put(MetricNames.QUEUE_TIME_P99_MILLIS, (Gauge<Long>) () -> calculateMaxQueueTimeP99Millis(currentStatusReference.get()));
+        metrics.put(MetricNames.QUEUE_TIME_MAX_MILLIS, (Gauge<Long>) () -> calculateMaxQueueTimeMillis(currentStatusReference.get()));
 
         return metrics;
     }
@@ -92,4 +95,44 @@ public class FlowMetricSet implements MetricSet {
 
         return nanos;
     }
+
+    /**
+     * Find the connection in a process group whose FlowFiles wait the longest at the 99th percentile.
+     *
+     * @param status the current process group status.
+     * @return the largest 99th percentile queue time of any connection in the process group, in milliseconds.
+     */
+    private long calculateMaxQueueTimeP99Millis(final ProcessGroupStatus status) {
+        long millis = 0L;
+
+        for (final ConnectionStatus connectionStatus : status.getConnectionStatus()) {
+            millis = Math.max(millis, connectionStatus.getQueueTimeP99Millis());
+        }
+
+        for (final ProcessGroupStatus childGroupStatus : status.getProcessGroupStatus()) {
+            millis = Math.max(millis, calculateMaxQueueTimeP99Millis(childGroupStatus));
+        }
+
+        return millis;
+    }
+
+    /**
+     * Find the longest time that any FlowFile waited in a connection of a process group.
+     *
+     * @param status the current process group status.
+     * @return the largest queue time of any connection in the process group, in milliseconds.
+     */
+    private long calculateMaxQueueTimeMillis(final ProcessGroupStatus status) {
+        long millis = 0L;
+
+        for (final ConnectionStatus connectionStatus : status.getConnectionStatus()) {
+            millis = Math.max(millis, connectionStatus.getQueueTimeMaxMillis());
+        }
+
+        for (final ProcessGroupStatus childGroupStatus : status.getProcessGroupStatus()) {
+            millis = Math.max(millis, calculateMaxQueueTimeMillis(childGroupStatus));
+        }
+
+        return millis;
+    }
 }
@@ -32,4 +32,10 @@ public interface MetricNames {
     String BYTES_WRITTEN = "BytesWrittenLast5Minutes";
     String ACTIVE_THREADS = "ActiveThreads";
     String TOTAL_TASK_DURATION_NANOS = "TotalTaskDurationNanoSeconds";
+    String QUEUE_TIME_P50_MILLIS = "QueueTimeP50MillisLast5Minutes";
+    String QUEUE_TIME_P99_MILLIS = "QueueTimeP99MillisLast5Minutes";
+    String QUEUE_TIME_MAX_MILLIS = "QueueTimeMaxMillisLast5Minutes";
+
+    // Prefix of the metrics that are reported for each connection
+    String CONNECTION_PREFIX = "connection";
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.metrics.reporting.task;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.ScheduledReporter;
 import com.codahale.metrics.jvm.MemoryUsageGaugeSet;
@@ -24,9 +25,11 @@ import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.annotation.lifecycle.OnScheduled;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.controller.ConfigurationContext;
+import org.apache.nifi.controller.status.ConnectionStatus;
 import org.apache.nifi.controller.status.ProcessGroupStatus;
 import org.apache.nifi.expression.ExpressionLanguageScope;
 import org.apache.nifi.metrics.FlowMetricSet;
+import org.apache.nifi.metrics.MetricNames;
 import org.apache.nifi.metrics.reporting.reporter.service.MetricReporterService;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.reporting.AbstractReportingTask;
@@ -35,8 +38,14 @@ import org.apache.nifi.reporting.ReportingInitializationContext;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
 
 /**
  * A reporting task for NiFi instance and JVM related metrics.
@@ -51,7 +60,8 @@ import java.util.concurrent.atomic.AtomicReference;
 @Tags({"metrics", "reporting"})
 @CapabilityDescription("This reporting task reports a set of metrics regarding the JVM and the NiFi instance" +
         "to a reporter. The reporter is provided by a MetricReporterService. It can be optionally used for a specific" +
-        "process group if a property with the group id is provided.")
+        "process group if a property with the group id is provided. The time that FlowFiles wait in each connection " +
+        "of the process group is reported as well.")
 public class MetricsReportingTask extends AbstractReportingTask {
 
     /**
@@ -94,6 +104,16 @@ public class MetricsReportingTask extends AbstractReportingTask {
      */
     protected AtomicReference<ProcessGroupStatus> currentStatusReference;
 
+    /**
+     * Points to the most recent status of each connection in the reported process group, by connection id.
+     */
+    protected AtomicReference<Map<String, ConnectionStatus>> currentConnectionStatusReference;
+
+    /**
+     * The ids of the connections whose metrics are registered in {@link #metricRegistry}.
+     */
+    private final Set<String> registeredConnectionIds = new HashSet<>();
+
     /**
      * Register all wanted metrics to {@link #metricRegistry}.
      * <p>
@@ -103,6 +123,7 @@ public class MetricsReportingTask extends AbstractReportingTask {
     protected void init(ReportingInitializationContext config) {
         metricRegistry = new MetricRegistry();
         currentStatusReference = new AtomicReference<>();
+        currentConnectionStatusReference = new AtomicReference<>(Collections.emptyMap());
         metricRegistry.registerAll(new MemoryUsageGaugeSet());
         metricRegistry.registerAll(new FlowMetricSet(currentStatusReference));
     }
@@ -136,12 +157,60 @@ public class MetricsReportingTask extends AbstractReportingTask {
 
         if (statusToReport != null) {
             currentStatusReference.set(statusToReport);
+            updateConnectionMetrics(statusToReport);
             reporter.report();
         } else {
             getLogger().error("Process group with provided group id could not be found.");
         }
     }
 
+    /**
+     * Register queue time metrics for every connection in the given status that does not have them yet, and remove
+     * the metrics of connections that no longer exist.
+     *
+     * @param status the process group status that is being reported.
+     */
+    private void updateConnectionMetrics(final ProcessGroupStatus status) {
+        final Map<String, ConnectionStatus> connectionStatuses = new HashMap<>();
+        collectConnectionStatuses(status, connectionStatuses);
+        currentConnectionStatusReference.set(connectionStatuses);
+
+        for (final String connectionId : connectionStatuses.keySet()) {
+            if (registeredConnectionIds.add(connectionId)) {
+                registerConnectionGauge(connectionId, MetricNames.QUEUE_TIME_P50_MILLIS, ConnectionStatus::getQueueTimeP50Millis);
+                registerConnectionGauge(connectionId, MetricNames.QUEUE_TIME_P99_MILLIS, ConnectionStatus::getQueueTimeP99Millis);
+                registerConnectionGauge(connectionId, MetricNames.QUEUE_TIME_MAX_MILLIS, ConnectionStatus::getQueueTimeMaxMillis);
+            }
+        }
+
+        final Iterator<String> registeredItr = registeredConnectionIds.iterator();
+        while (registeredItr.hasNext()) {
+            final String connectionId = registeredItr.next();
+            if (!connectionStatuses.containsKey(connectionId)) {
+                final String prefix = MetricRegistry.name(MetricNames.CONNECTION_PREFIX, connectionId) + ".";
+                metricRegistry.removeMatching((name, metric) -> name.startsWith(prefix));
+                registeredItr.remove();
+            }
+        }
+    }
+
+    private void registerConnectionGauge(final String connectionId, final String metricName, final ToLongFunction<ConnectionStatus> value) {
+        metricRegistry.register(MetricRegistry.name(MetricNames.CONNECTION_PREFIX, connectionId, metricName), (Gauge<Long>) () -> {
+            final ConnectionStatus connectionStatus = currentConnectionStatusReference.get().get(connectionId);
+            return connectionStatus == null ? 0L : value.applyAsLong(connectionStatus);
+        });
+    }
+
+    private void collectConnectionStatuses(final ProcessGroupStatus status, final Map<String, ConnectionStatus> connectionStatuses) {
+        for (final ConnectionStatus connectionStatus : status.getConnectionStatus()) {
+            connectionStatuses.put(connectionStatus.getId(), connectionStatus);
+        }
+
+        for (final ProcessGroupStatus childGroupStatus : status.getProcessGroupStatus()) {
+            collectConnectionStatuses(childGroupStatus, connectionStatuses);
+        }
+    }
+
     @Override
     protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         List<PropertyDescriptor> properties = new ArrayList<>();
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.metrics.reporting.task;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.ScheduledReporter;
@@ -23,8 +24,10 @@ import com.codahale.metrics.jvm.MemoryUsageGaugeSet;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.controller.ConfigurationContext;
 import org.apache.nifi.controller.ControllerService;
+import org.apache.nifi.controller.status.ConnectionStatus;
 import org.apache.nifi.controller.status.ProcessGroupStatus;
 import org.apache.nifi.metrics.FlowMetricSet;
+import org.apache.nifi.metrics.MetricNames;
 import org.apache.nifi.metrics.reporting.reporter.service.MetricReporterService;
 import org.apache.nifi.reporting.ReportingContext;
 import org.apache.nifi.reporting.ReportingInitializationContext;
@@ -42,11 +45,13 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -228,6 +233,37 @@ public class MetricsReportingTaskTest {
         assertNull(testedReportingTask.currentStatusReference.get());
     }
 
+    /**
+     * Make sure that queue time metrics are registered for each connection, including connections of child groups,
+     * and that they are removed once the connection no longer exists.
+     */
+    @Test
+    public void testConnectionQueueTimeMetrics() throws Exception {
+        final ConnectionStatus connectionStatus = new ConnectionStatus();
+        connectionStatus.setId("connection-id");
+        connectionStatus.setQueueTimeP50Millis(10L);
+        connectionStatus.setQueueTimeP99Millis(250L);
+        connectionStatus.setQueueTimeMaxMillis(400L);
+        innerGroupStatus.setConnectionStatus(Collections.singletonList(connectionStatus));
+        rootGroupStatus.setProcessGroupStatus(Collections.singletonList(innerGroupStatus));
+        reportingContextStub.getEventAccess().setProcessGroupStatus(rootGroupStatus);
+
+        testedReportingTask.initialize(reportingInitContextStub);
+        testedReportingTask.connect(configurationContextStub);
+        testedReportingTask.onTrigger(reportingContextStub);
+
+        ArgumentCaptor<MetricRegistry> registryCaptor = ArgumentCaptor.forClass(MetricRegistry.class);
+        verify(reporterServiceStub).createReporter(registryCaptor.capture());
+        Map<String, Metric> usedMetrics = registryCaptor.getValue().getMetrics();
+        final String p99Name = MetricRegistry.name(MetricNames.CONNECTION_PREFIX, "connection-id", MetricNames.QUEUE_TIME_P99_MILLIS);
+        assertEquals(250L, ((Gauge<?>) usedMetrics.get(p99Name)).getValue());
+        assertEquals(400L, ((Gauge<?>) usedMetrics.get(MetricNames.QUEUE_TIME_MAX_MILLIS)).getValue());
+
+        innerGroupStatus.setConnectionStatus(Collections.emptyList());
+        testedReportingTask.onTrigger(reportingContextStub);
+        assertFalse(registryCaptor.getValue().getMetrics().containsKey(p99Name));
+    }
+
     /**
      * Make sure that {@link MetricsReportingTask#connect(ConfigurationContext)} does not create a new reporter
      * if there is already an active reporter.
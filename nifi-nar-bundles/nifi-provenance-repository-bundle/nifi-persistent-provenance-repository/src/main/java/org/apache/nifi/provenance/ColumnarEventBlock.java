@@ -0,0 +1,715 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Encodes and decodes a block of Provenance Events column-wise. Rather than writing each event as a record, every field of the
+ * events in the block is written as its own column: the event identifiers and timestamps are delta-encoded, and the low-cardinality
+ * strings (component identifiers and types, FlowFile attribute keys and values, and a shared symbol table for event types, queue
+ * identifiers, relationships and content claim coordinates) are replaced by indices into dictionaries that are written once per block.
+ * </p>
+ *
+ * <p>
+ * Each column is deflated independently, and only when doing so makes it smaller, so that columns of similar values compress well
+ * while already-compact columns do not pay for the compression framing. A block carries everything that is needed to decode it,
+ * so it can be read without any state from the blocks that precede it.
+ * </p>
+ */
+final class ColumnarEventBlock {
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarEventBlock.class);
+
+    private static final int DICTIONARY_COMPONENT_IDS = 0;
+    private static final int DICTIONARY_COMPONENT_TYPES = 1;
+    private static final int DICTIONARY_ATTRIBUTE_KEYS = 2;
+    private static final int DICTIONARY_ATTRIBUTE_VALUES = 3;
+    private static final int DICTIONARY_SYMBOLS = 4;
+    private static final int DICTIONARY_COUNT = 5;
+
+    private static final int COLUMN_EVENT_ID = 0;
+    private static final int COLUMN_EVENT_TIME = 1;
+    private static final int COLUMN_ENTRY_DATE = 2;
+    private static final int COLUMN_LINEAGE_START_DATE = 3;
+    private static final int COLUMN_EVENT_DURATION = 4;
+    private static final int COLUMN_EVENT_TYPE = 5;
+    private static final int COLUMN_COMPONENT_ID = 6;
+    private static final int COLUMN_COMPONENT_TYPE = 7;
+    private static final int COLUMN_SOURCE_QUEUE_ID = 8;
+    private static final int COLUMN_RELATIONSHIP = 9;
+    private static final int COLUMN_FLOWFILE_UUID = 10;
+    private static final int COLUMN_TRANSIT_URI = 11;
+    private static final int COLUMN_SOURCE_SYSTEM_FLOWFILE_ID = 12;
+    private static final int COLUMN_ALTERNATE_IDENTIFIER = 13;
+    private static final int COLUMN_DETAILS = 14;
+    private static final int COLUMN_PARENT_UUIDS = 15;
+    private static final int COLUMN_CHILD_UUIDS = 16;
+    private static final int COLUMN_PREVIOUS_ATTRIBUTES = 17;
+    private static final int COLUMN_UPDATED_ATTRIBUTES = 18;
+    private static final int COLUMN_CONTENT_CLAIMS = 19;
+    private static final int COLUMN_COUNT = 20;
+
+    // FlowFile UUID column: the UUID is usually the value of the 'uuid' attribute, so it is only written out when it is not.
+    private static final int UUID_NULL = 0;
+    private static final int UUID_FROM_UPDATED_ATTRIBUTES = 1;
+    private static final int UUID_FROM_PREVIOUS_ATTRIBUTES = 2;
+    private static final int UUID_EXPLICIT = 3;
+
+    private static final int CLAIM_CURRENT = 1;
+    private static final int CLAIM_CURRENT_OFFSET = 2;
+    private static final int CLAIM_PREVIOUS = 4;
+    private static final int CLAIM_PREVIOUS_OFFSET = 8;
+    private static final int CLAIM_PREVIOUS_SIZE = 16;
+
+    private static final int CODEC_RAW = 0;
+    private static final int CODEC_DEFLATE = 1;
+
+    // Columns smaller than this are never worth deflating
+    private static final int MIN_DEFLATE_LENGTH = 64;
+
+    private ColumnarEventBlock() {
+    }
+
+    /**
+     * Encodes blocks of events. An Encoder reuses its buffers between blocks and is not thread-safe.
+     */
+    static final class Encoder {
+        private final Dictionary[] dictionaries = new Dictionary[DICTIONARY_COUNT];
+        private final ColumnBuffer[] columns = new ColumnBuffer[COLUMN_COUNT];
+        private final ColumnBuffer dictionaryColumn = new ColumnBuffer(8192);
+        private final ColumnBuffer deflated = new ColumnBuffer(8192);
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        private final byte[] deflateBuffer = new byte[8192];
+
+        Encoder() {
+            for (int i = 0; i < DICTIONARY_COUNT; i++) {
+                dictionaries[i] = new Dictionary();
+            }
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                columns[i] = new ColumnBuffer(1024);
+            }
+        }
+
+        /**
+         * Encodes the given events into the given buffer, replacing any content that the buffer already holds
+         *
+         * @param events the events to encode
+         * @param eventIds the identifiers to use for the events, in the same order as the events
+         * @param eventCount the number of events to encode
+         * @param firstEventId the identifier that the event id column is relative to
+         * @param body the buffer to write the encoded block to
+         */
+        void encode(final List<ProvenanceEventRecord> events, final long[] eventIds, final int eventCount, final long firstEventId, final ColumnBuffer body) {
+            for (final Dictionary dictionary : dictionaries) {
+                dictionary.clear();
+            }
+            for (final ColumnBuffer column : columns) {
+                column.clear();
+            }
+
+            long previousId = firstEventId;
+            long previousTime = 0L;
+            for (int i = 0; i < eventCount; i++) {
+                final ProvenanceEventRecord event = events.get(i);
+                final long eventTime = event.getEventTime();
+
+                columns[COLUMN_EVENT_ID].writeSignedVarLong(eventIds[i] - previousId);
+                columns[COLUMN_EVENT_TIME].writeSignedVarLong(eventTime - previousTime);
+                columns[COLUMN_ENTRY_DATE].writeSignedVarLong(event.getFlowFileEntryDate() - eventTime);
+                columns[COLUMN_LINEAGE_START_DATE].writeSignedVarLong(event.getLineageStartDate() - eventTime);
+                columns[COLUMN_EVENT_DURATION].writeSignedVarLong(event.getEventDuration());
+                previousId = eventIds[i];
+                previousTime = eventTime;
+
+                final ProvenanceEventType eventType = event.getEventType();
+                writeIndex(COLUMN_EVENT_TYPE, DICTIONARY_SYMBOLS, eventType == null ? null : eventType.name());
+                writeIndex(COLUMN_COMPONENT_ID, DICTIONARY_COMPONENT_IDS, event.getComponentId());
+                writeIndex(COLUMN_COMPONENT_TYPE, DICTIONARY_COMPONENT_TYPES, event.getComponentType());
+                writeIndex(COLUMN_SOURCE_QUEUE_ID, DICTIONARY_SYMBOLS, event.getSourceQueueIdentifier());
+                writeIndex(COLUMN_RELATIONSHIP, DICTIONARY_SYMBOLS, event.getRelationship());
+
+                writeFlowFileUuid(event);
+                columns[COLUMN_TRANSIT_URI].writeString(event.getTransitUri());
+                columns[COLUMN_SOURCE_SYSTEM_FLOWFILE_ID].writeString(event.getSourceSystemFlowFileIdentifier());
+                columns[COLUMN_ALTERNATE_IDENTIFIER].writeString(event.getAlternateIdentifierUri());
+                columns[COLUMN_DETAILS].writeString(event.getDetails());
+
+                writeStrings(columns[COLUMN_PARENT_UUIDS], event.getParentUuids());
+                writeStrings(columns[COLUMN_CHILD_UUIDS], event.getChildUuids());
+                writeAttributes(columns[COLUMN_PREVIOUS_ATTRIBUTES], event.getPreviousAttributes());
+                writeAttributes(columns[COLUMN_UPDATED_ATTRIBUTES], event.getUpdatedAttributes());
+                writeContentClaims(event);
+            }
+
+            body.clear();
+            body.writeVarLong(eventCount);
+            for (final Dictionary dictionary : dictionaries) {
+                dictionaryColumn.clear();
+                dictionary.writeTo(dictionaryColumn);
+                writeColumn(dictionaryColumn, body);
+            }
+            for (final ColumnBuffer column : columns) {
+                writeColumn(column, body);
+            }
+        }
+
+        private void writeIndex(final int column, final int dictionary, final String value) {
+            columns[column].writeVarLong(dictionaries[dictionary].indexOf(value));
+        }
+
+        private void writeFlowFileUuid(final ProvenanceEventRecord event) {
+            final ColumnBuffer column = columns[COLUMN_FLOWFILE_UUID];
+            final String uuid = event.getFlowFileUuid();
+            if (uuid == null) {
+                column.writeVarLong(UUID_NULL);
+            } else if (uuid.equals(getUuidAttribute(event.getUpdatedAttributes()))) {
+                column.writeVarLong(UUID_FROM_UPDATED_ATTRIBUTES);
+            } else if (uuid.equals(getUuidAttribute(event.getPreviousAttributes()))) {
+                column.writeVarLong(UUID_FROM_PREVIOUS_ATTRIBUTES);
+            } else {
+                column.writeVarLong(UUID_EXPLICIT);
+                column.writeString(uuid);
+            }
+        }
+
+        private void writeStrings(final ColumnBuffer column, final List<String> values) {
+            if (values == null) {
+                column.writeVarLong(0);
+                return;
+            }
+
+            column.writeVarLong(values.size() + 1);
+            for (final String value : values) {
+                column.writeString(value);
+            }
+        }
+
+        private void writeAttributes(final ColumnBuffer column, final Map<String, String> attributes) {
+            if (attributes == null) {
+                column.writeVarLong(0);
+                return;
+            }
+
+            column.writeVarLong(attributes.size() + 1);
+            for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+                column.writeVarLong(dictionaries[DICTIONARY_ATTRIBUTE_KEYS].indexOf(entry.getKey()));
+                column.writeVarLong(dictionaries[DICTIONARY_ATTRIBUTE_VALUES].indexOf(entry.getValue()));
+            }
+        }
+
+        private void writeContentClaims(final ProvenanceEventRecord event) {
+            final boolean current = event.getContentClaimContainer() != null && event.getContentClaimSection() != null && event.getContentClaimIdentifier() != null;
+            final boolean previous = event.getPreviousContentClaimContainer() != null && event.getPreviousContentClaimSection() != null
+                && event.getPreviousContentClaimIdentifier() != null;
+
+            int flags = 0;
+            if (current) {
+                flags |= CLAIM_CURRENT;
+                if (event.getContentClaimOffset() != null) {
+                    flags |= CLAIM_CURRENT_OFFSET;
+                }
+            }
+            if (previous) {
+                flags |= CLAIM_PREVIOUS;
+                if (event.getPreviousContentClaimOffset() != null) {
+                    flags |= CLAIM_PREVIOUS_OFFSET;
+                }
+            }
+            if (event.getPreviousFileSize() != null) {
+                flags |= CLAIM_PREVIOUS_SIZE;
+            }
+
+            final ColumnBuffer column = columns[COLUMN_CONTENT_CLAIMS];
+            final Dictionary symbols = dictionaries[DICTIONARY_SYMBOLS];
+            column.writeByte(flags);
+            column.writeVarLong(event.getFileSize());
+            if (current) {
+                column.writeVarLong(symbols.indexOf(event.getContentClaimContainer()));
+                column.writeVarLong(symbols.indexOf(event.getContentClaimSection()));
+                column.writeVarLong(symbols.indexOf(event.getContentClaimIdentifier()));
+                if (event.getContentClaimOffset() != null) {
+                    column.writeVarLong(event.getContentClaimOffset());
+                }
+            }
+            if (previous) {
+                column.writeVarLong(symbols.indexOf(event.getPreviousContentClaimContainer()));
+                column.writeVarLong(symbols.indexOf(event.getPreviousContentClaimSection()));
+                column.writeVarLong(symbols.indexOf(event.getPreviousContentClaimIdentifier()));
+                if (event.getPreviousContentClaimOffset() != null) {
+                    column.writeVarLong(event.getPreviousContentClaimOffset());
+                }
+            }
+            if (event.getPreviousFileSize() != null) {
+                column.writeVarLong(event.getPreviousFileSize());
+            }
+        }
+
+        private void writeColumn(final ColumnBuffer column, final ColumnBuffer body) {
+            final int rawLength = column.length();
+            if (rawLength >= MIN_DEFLATE_LENGTH) {
+                deflated.clear();
+                deflater.reset();
+                deflater.setInput(column.bytes(), 0, rawLength);
+                deflater.finish();
+                while (!deflater.finished() && deflated.length() < rawLength) {
+                    final int len = deflater.deflate(deflateBuffer);
+                    deflated.writeBytes(deflateBuffer, 0, len);
+                }
+
+                if (deflater.finished() && deflated.length() < rawLength) {
+                    body.writeByte(CODEC_DEFLATE);
+                    body.writeVarLong(rawLength);
+                    body.writeVarLong(deflated.length());
+                    body.writeBytes(deflated.bytes(), 0, deflated.length());
+                    return;
+                }
+            }
+
+            body.writeByte(CODEC_RAW);
+            body.writeVarLong(rawLength);
+            body.writeBytes(column.bytes(), 0, rawLength);
+        }
+    }
+
+    /**
+     * Decodes blocks of events. A Decoder reuses its Inflater between blocks and is not thread-safe.
+     */
+    static final class Decoder {
+        private final Inflater inflater = new Inflater(true);
+
+        /**
+         * Decodes a block that was encoded by an {@link Encoder}
+         *
+         * @param body the encoded block
+         * @param firstEventId the identifier that the event id column is relative to
+         * @param storageFilename the name of the file that the block was read from
+         * @param storageByteOffset the offset of the block in the file
+         * @param maxAttributeChars the maximum number of characters to retain for any FlowFile attribute value
+         * @return the events in the block, in the order that they were written
+         * @throws IOException if the block is corrupt
+         */
+        List<StandardProvenanceEventRecord> decode(final byte[] body, final long firstEventId, final String storageFilename, final long storageByteOffset,
+            final int maxAttributeChars) throws IOException {
+
+            final ColumnInput in = new ColumnInput(body, 0, body.length);
+            final int eventCount = in.readVarInt();
+
+            final List<List<String>> dictionaries = new ArrayList<>(DICTIONARY_COUNT);
+            for (int i = 0; i < DICTIONARY_COUNT; i++) {
+                final ColumnInput dictionaryColumn = readColumn(in);
+                final int size = dictionaryColumn.readVarInt();
+                final List<String> values = new ArrayList<>(size + 1);
+                values.add(null);
+                for (int j = 0; j < size; j++) {
+                    final String value = dictionaryColumn.readString();
+                    values.add(i == DICTIONARY_ATTRIBUTE_VALUES ? truncate(value, maxAttributeChars) : value);
+                }
+                dictionaries.add(values);
+            }
+
+            final ColumnInput[] columns = new ColumnInput[COLUMN_COUNT];
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                columns[i] = readColumn(in);
+            }
+
+            final List<String> componentIds = dictionaries.get(DICTIONARY_COMPONENT_IDS);
+            final List<String> componentTypes = dictionaries.get(DICTIONARY_COMPONENT_TYPES);
+            final List<String> attributeKeys = dictionaries.get(DICTIONARY_ATTRIBUTE_KEYS);
+            final List<String> attributeValues = dictionaries.get(DICTIONARY_ATTRIBUTE_VALUES);
+            final List<String> symbols = dictionaries.get(DICTIONARY_SYMBOLS);
+
+            final List<StandardProvenanceEventRecord> events = new ArrayList<>(eventCount);
+            long eventId = firstEventId;
+            long eventTime = 0L;
+            for (int i = 0; i < eventCount; i++) {
+                eventId += columns[COLUMN_EVENT_ID].readSignedVarLong();
+                eventTime += columns[COLUMN_EVENT_TIME].readSignedVarLong();
+
+                final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+                builder.setEventId(eventId);
+                builder.setEventTime(eventTime);
+                builder.setFlowFileEntryDate(eventTime + columns[COLUMN_ENTRY_DATE].readSignedVarLong());
+                builder.setLineageStartDate(eventTime + columns[COLUMN_LINEAGE_START_DATE].readSignedVarLong());
+                builder.setEventDuration(columns[COLUMN_EVENT_DURATION].readSignedVarLong());
+                builder.setEventType(toEventType(lookup(symbols, columns[COLUMN_EVENT_TYPE])));
+                builder.setComponentId(lookup(componentIds, columns[COLUMN_COMPONENT_ID]));
+                builder.setComponentType(lookup(componentTypes, columns[COLUMN_COMPONENT_TYPE]));
+                builder.setSourceQueueIdentifier(lookup(symbols, columns[COLUMN_SOURCE_QUEUE_ID]));
+                builder.setRelationship(lookup(symbols, columns[COLUMN_RELATIONSHIP]));
+
+                final ColumnInput uuidColumn = columns[COLUMN_FLOWFILE_UUID];
+                final int uuidEncoding = uuidColumn.readVarInt();
+                final String explicitUuid = uuidEncoding == UUID_EXPLICIT ? uuidColumn.readString() : null;
+
+                builder.setTransitUri(columns[COLUMN_TRANSIT_URI].readString());
+                builder.setSourceSystemFlowFileIdentifier(columns[COLUMN_SOURCE_SYSTEM_FLOWFILE_ID].readString());
+                builder.setAlternateIdentifierUri(columns[COLUMN_ALTERNATE_IDENTIFIER].readString());
+                builder.setDetails(columns[COLUMN_DETAILS].readString());
+                builder.setParentUuids(readStrings(columns[COLUMN_PARENT_UUIDS]));
+                builder.setChildUuids(readStrings(columns[COLUMN_CHILD_UUIDS]));
+
+                final Map<String, String> previousAttributes = readAttributes(columns[COLUMN_PREVIOUS_ATTRIBUTES], attributeKeys, attributeValues);
+                final Map<String, String> updatedAttributes = readAttributes(columns[COLUMN_UPDATED_ATTRIBUTES], attributeKeys, attributeValues);
+                builder.setPreviousAttributes(previousAttributes);
+                builder.setUpdatedAttributes(updatedAttributes);
+
+                switch (uuidEncoding) {
+                    case UUID_FROM_UPDATED_ATTRIBUTES:
+                        builder.setFlowFileUUID(getUuidAttribute(updatedAttributes));
+                        break;
+                    case UUID_FROM_PREVIOUS_ATTRIBUTES:
+                        builder.setFlowFileUUID(getUuidAttribute(previousAttributes));
+                        break;
+                    case UUID_EXPLICIT:
+                        builder.setFlowFileUUID(explicitUuid);
+                        break;
+                    default:
+                        break;
+                }
+
+                readContentClaims(columns[COLUMN_CONTENT_CLAIMS], symbols, builder);
+                builder.setStorageLocation(storageFilename, storageByteOffset);
+
+                // All columns have been consumed for this event, so an event that cannot be built can be skipped without affecting the others.
+                try {
+                    events.add(builder.build());
+                } catch (final IllegalStateException ise) {
+                    logger.error("Failed to read Provenance Event {} from {}; will skip this event and continue reading subsequent events", eventId, storageFilename, ise);
+                }
+            }
+
+            return events;
+        }
+
+        private ColumnInput readColumn(final ColumnInput in) throws IOException {
+            final int codec = in.readByte();
+            final int rawLength = in.readVarInt();
+            if (codec == CODEC_RAW) {
+                final ColumnInput column = new ColumnInput(in.bytes(), in.position(), rawLength);
+                in.skip(rawLength);
+                return column;
+            }
+
+            if (codec != CODEC_DEFLATE) {
+                throw new IOException("Unknown column encoding " + codec);
+            }
+
+            final int storedLength = in.readVarInt();
+            final byte[] raw = new byte[rawLength];
+            inflater.reset();
+            inflater.setInput(in.bytes(), in.position(), storedLength);
+            try {
+                int inflated = 0;
+                while (inflated < rawLength) {
+                    final int len = inflater.inflate(raw, inflated, rawLength - inflated);
+                    if (len == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new IOException("Column is truncated; expected " + rawLength + " bytes but found only " + inflated);
+                    }
+                    inflated += len;
+                }
+            } catch (final DataFormatException dfe) {
+                throw new IOException("Column is corrupt", dfe);
+            }
+
+            in.skip(storedLength);
+            return new ColumnInput(raw, 0, rawLength);
+        }
+
+        private String lookup(final List<String> dictionary, final ColumnInput column) throws IOException {
+            final int index = column.readVarInt();
+            if (index >= dictionary.size()) {
+                throw new IOException("Dictionary index " + index + " is out of bounds for a dictionary of " + (dictionary.size() - 1) + " values");
+            }
+            return dictionary.get(index);
+        }
+
+        private List<String> readStrings(final ColumnInput column) throws IOException {
+            final int sizePlusOne = column.readVarInt();
+            if (sizePlusOne < 2) {
+                return sizePlusOne == 0 ? null : Collections.emptyList();
+            }
+
+            final List<String> values = new ArrayList<>(sizePlusOne - 1);
+            for (int i = 1; i < sizePlusOne; i++) {
+                values.add(column.readString());
+            }
+            return values;
+        }
+
+        private Map<String, String> readAttributes(final ColumnInput column, final List<String> keys, final List<String> values) throws IOException {
+            final int sizePlusOne = column.readVarInt();
+            if (sizePlusOne == 0) {
+                return null;
+            }
+
+            final Map<String, String> attributes = new LinkedHashMap<>(sizePlusOne * 2);
+            for (int i = 1; i < sizePlusOne; i++) {
+                attributes.put(lookup(keys, column), lookup(values, column));
+            }
+            return attributes;
+        }
+
+        private void readContentClaims(final ColumnInput column, final List<String> symbols, final StandardProvenanceEventRecord.Builder builder) throws IOException {
+            final int flags = column.readByte();
+            final long fileSize = column.readVarLong();
+
+            if ((flags & CLAIM_CURRENT) != 0) {
+                final String container = lookup(symbols, column);
+                final String section = lookup(symbols, column);
+                final String identifier = lookup(symbols, column);
+                final Long offset = (flags & CLAIM_CURRENT_OFFSET) != 0 ? column.readVarLong() : null;
+                builder.setCurrentContentClaim(container, section, identifier, offset, fileSize);
+            } else {
+                builder.setCurrentContentClaim(null, null, null, null, fileSize);
+            }
+
+            String previousContainer = null;
+            String previousSection = null;
+            String previousIdentifier = null;
+            Long previousOffset = null;
+            if ((flags & CLAIM_PREVIOUS) != 0) {
+                previousContainer = lookup(symbols, column);
+                previousSection = lookup(symbols, column);
+                previousIdentifier = lookup(symbols, column);
+                previousOffset = (flags & CLAIM_PREVIOUS_OFFSET) != 0 ? column.readVarLong() : null;
+            }
+
+            if ((flags & CLAIM_PREVIOUS_SIZE) != 0) {
+                final long previousSize = column.readVarLong();
+                builder.setPreviousContentClaim(previousContainer, previousSection, previousIdentifier, previousOffset, previousSize);
+            } else if ((flags & CLAIM_PREVIOUS) != 0) {
+                builder.setPreviousContentClaim(previousContainer, previousSection, previousIdentifier, previousOffset, 0L);
+            }
+        }
+
+        private static ProvenanceEventType toEventType(final String name) {
+            if (name == null) {
+                return ProvenanceEventType.UNKNOWN;
+            }
+
+            try {
+                return ProvenanceEventType.valueOf(name);
+            } catch (final IllegalArgumentException iae) {
+                return ProvenanceEventType.UNKNOWN;
+            }
+        }
+
+        private static String truncate(final String value, final int maxLength) {
+            if (value == null || value.length() <= maxLength) {
+                return value;
+            }
+            return value.substring(0, maxLength);
+        }
+    }
+
+    private static String getUuidAttribute(final Map<String, String> attributes) {
+        return attributes == null ? null : attributes.get(CoreAttributes.UUID.key());
+    }
+
+    /**
+     * A per-block dictionary. Index 0 is reserved for <code>null</code>, so values are numbered from 1 in the order that they are first seen.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int indexOf(final String value) {
+            if (value == null) {
+                return 0;
+            }
+
+            final Integer existing = indices.get(value);
+            if (existing != null) {
+                return existing;
+            }
+
+            values.add(value);
+            final int index = values.size();
+            indices.put(value, index);
+            return index;
+        }
+
+        void writeTo(final ColumnBuffer column) {
+            column.writeVarLong(values.size());
+            for (final String value : values) {
+                column.writeString(value);
+            }
+        }
+
+        void clear() {
+            indices.clear();
+            values.clear();
+        }
+    }
+
+    /**
+     * A growable byte buffer with variable-length integer and string encoding.
+     */
+    static final class ColumnBuffer {
+        private byte[] bytes;
+        private int length;
+
+        ColumnBuffer(final int initialCapacity) {
+            bytes = new byte[Math.max(16, initialCapacity)];
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int length() {
+            return length;
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        private void ensureCapacity(final int additional) {
+            final int required = length + additional;
+            if (required > bytes.length) {
+                final byte[] expanded = new byte[Math.max(required, bytes.length * 2)];
+                System.arraycopy(bytes, 0, expanded, 0, length);
+                bytes = expanded;
+            }
+        }
+
+        void writeByte(final int value) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) value;
+        }
+
+        void writeBytes(final byte[] source, final int offset, final int len) {
+            ensureCapacity(len);
+            System.arraycopy(source, offset, bytes, length, len);
+            length += len;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0L) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeSignedVarLong(final long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        /**
+         * Writes a nullable string as its UTF-8 length plus one, followed by its UTF-8 bytes
+         */
+        void writeString(final String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1);
+            writeBytes(utf8, 0, utf8.length);
+        }
+    }
+
+    private static final class ColumnInput {
+        private final byte[] bytes;
+        private final int limit;
+        private int position;
+
+        ColumnInput(final byte[] bytes, final int offset, final int length) {
+            this.bytes = bytes;
+            this.position = offset;
+            this.limit = offset + length;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int position() {
+            return position;
+        }
+
+        void skip(final int count) throws IOException {
+            if (position + count > limit) {
+                throw new IOException("Unexpected end of column");
+            }
+            position += count;
+        }
+
+        int readByte() throws IOException {
+            if (position >= limit) {
+                throw new IOException("Unexpected end of column");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable-length integer");
+        }
+
+        int readVarInt() throws IOException {
+            final long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IOException("Variable-length integer " + value + " is out of range");
+            }
+            return (int) value;
+        }
+
+        long readSignedVarLong() throws IOException {
+            final long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() throws IOException {
+            final int lengthPlusOne = readVarInt();
+            if (lengthPlusOne == 0) {
+                return null;
+            }
+
+            final int utf8Length = lengthPlusOne - 1;
+            final int start = position;
+            skip(utf8Length);
+            return new String(bytes, start, utf8Length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.nifi.provenance.serialization.CompressableRecordReader;
+import org.apache.nifi.provenance.toc.TocReader;
+import org.apache.nifi.stream.io.StreamUtils;
+
+/**
+ * Reads Provenance Event files that were written by a {@link ColumnarRecordWriter}. An entire block of events is decoded at once and the
+ * decoded events are then returned one at a time. When skipping to an event, blocks whose largest event identifier is smaller than the
+ * identifier being sought are skipped over without being decoded.
+ */
+public class ColumnarRecordReader extends CompressableRecordReader {
+    private final ColumnarEventBlock.Decoder decoder = new ColumnarEventBlock.Decoder();
+    private List<StandardProvenanceEventRecord> blockEvents = Collections.emptyList();
+    private int blockEventIndex = 0;
+
+    public ColumnarRecordReader(final InputStream in, final String filename, final TocReader tocReader, final int maxAttributeChars) throws IOException {
+        super(in, filename, tocReader, maxAttributeChars);
+    }
+
+    private void verifySerializationVersion(final int serializationVersion) {
+        if (serializationVersion > ColumnarRecordWriter.SERIALIZATION_VERSION) {
+            throw new IllegalArgumentException("Unable to deserialize record because the version is " + serializationVersion
+                + " and supported versions are 1-" + ColumnarRecordWriter.SERIALIZATION_VERSION);
+        }
+    }
+
+    @Override
+    protected void readHeader(final DataInputStream in, final int serializationVersion) throws IOException {
+        verifySerializationVersion(serializationVersion);
+        in.readLong(); // first event id; each block carries the identifiers that it needs
+    }
+
+    private boolean hasBufferedEvents() {
+        return blockEventIndex < blockEvents.size();
+    }
+
+    private void clearBufferedEvents() {
+        blockEvents = Collections.emptyList();
+        blockEventIndex = 0;
+    }
+
+    @Override
+    public boolean isData() {
+        return hasBufferedEvents() || super.isData();
+    }
+
+    @Override
+    public void skipToBlock(final int blockIndex) throws IOException {
+        if (getTocReader() != null && blockIndex != getBlockIndex()) {
+            clearBufferedEvents();
+        }
+
+        super.skipToBlock(blockIndex);
+    }
+
+    @Override
+    protected StandardProvenanceEventRecord nextRecord(final DataInputStream in, final int serializationVersion) throws IOException {
+        verifySerializationVersion(serializationVersion);
+
+        while (!hasBufferedEvents()) {
+            if (!isData(in)) {
+                return null;
+            }
+
+            final long blockOffset = getBytesConsumed();
+            final long blockFirstEventId = in.readLong();
+            in.readLong(); // the largest event id in the block is needed only when skipping to an event
+            readBlock(in, blockOffset, blockFirstEventId);
+        }
+
+        return blockEvents.get(blockEventIndex++);
+    }
+
+    private void readBlock(final DataInputStream in, final long blockOffset, final long blockFirstEventId) throws IOException {
+        final int length = in.readInt();
+        final byte[] body = new byte[length];
+        StreamUtils.fillBuffer(in, body);
+
+        blockEvents = decoder.decode(body, blockFirstEventId, getFilename(), blockOffset, getMaxAttributeLength());
+        blockEventIndex = 0;
+    }
+
+    private boolean isData(final InputStream in) throws IOException {
+        in.mark(1);
+        final int nextByte = in.read();
+        in.reset();
+
+        return nextByte > -1;
+    }
+
+    @Override
+    protected Optional<StandardProvenanceEventRecord> readToEvent(final long eventId, final DataInputStream dis, final int serializationVersion) throws IOException {
+        verifySerializationVersion(serializationVersion);
+
+        while (true) {
+            while (hasBufferedEvents()) {
+                final StandardProvenanceEventRecord event = blockEvents.get(blockEventIndex++);
+                if (event.getEventId() >= eventId) {
+                    return Optional.of(event);
+                }
+            }
+
+            if (!isData(dis)) {
+                return Optional.empty();
+            }
+
+            final long blockOffset = getBytesConsumed();
+            final long blockFirstEventId = dis.readLong();
+            final long blockMaxEventId = dis.readLong();
+            if (blockMaxEventId < eventId) {
+                // None of the events in this block are wanted. Skip over it instead of decoding it.
+                final int length = dis.readInt();
+                StreamUtils.skip(dis, length);
+            } else {
+                readBlock(dis, blockOffset, blockFirstEventId);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return "ColumnarRecordReader, toc: " + getTocReader().getFile().getAbsolutePath() + ", journal: " + getFilename();
+        } catch (final Exception e) {
+            return "ColumnarRecordReader@" + Integer.toHexString(this.hashCode());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.provenance.serialization.CompressableRecordWriter;
+import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.toc.TocWriter;
+
+/**
+ * <p>
+ * A Record Writer that stores Provenance Events column-wise rather than row-by-row. Events are buffered in memory and written out
+ * as a single encoded block (see {@link ColumnarEventBlock}) each time that the writer is flushed or closed, or when the number of buffered
+ * events reaches the configured maximum. Each block is framed by the identifiers of its first and largest event, so that readers are able
+ * to skip over blocks that cannot contain an event that they are looking for without decoding them.
+ * </p>
+ *
+ * <p>
+ * A block of events is never split across two blocks of the Table-of-Contents: the decision to start a new TOC block is made when the first
+ * event of an event block is buffered, so the Block Index that is returned in the {@link StorageSummary} for each event is the block that the
+ * event will be written to. Because the size of an event is not known until its block has been encoded, the serialized length that is reported
+ * for each event is always 0.
+ * </p>
+ */
+public class ColumnarRecordWriter extends CompressableRecordWriter {
+    public static final int SERIALIZATION_VERSION = 1;
+    public static final String SERIALIZATION_NAME = "ColumnarRecordWriter";
+    public static final int DEFAULT_MAX_EVENTS_PER_BLOCK = 1024;
+
+    private final int maxEventsPerBlock;
+    private final ColumnarEventBlock.Encoder encoder = new ColumnarEventBlock.Encoder();
+    private final ColumnarEventBlock.ColumnBuffer blockBuffer = new ColumnarEventBlock.ColumnBuffer(64 * 1024);
+    private final List<ProvenanceEventRecord> pendingEvents = new ArrayList<>();
+    private long[] pendingEventIds = new long[64];
+    private final String summaryLocation;
+    private int recordsWritten = 0;
+
+    public ColumnarRecordWriter(final File file, final AtomicLong idGenerator, final TocWriter writer, final boolean compressed,
+        final int uncompressedBlockSize, final int maxEventsPerBlock) throws IOException {
+        super(file, idGenerator, writer, compressed, uncompressedBlockSize);
+        this.maxEventsPerBlock = maxEventsPerBlock;
+        this.summaryLocation = file.getParentFile().getName() + "/" + file.getName();
+    }
+
+    public ColumnarRecordWriter(final OutputStream out, final String storageLocation, final AtomicLong idGenerator, final TocWriter tocWriter, final boolean compressed,
+        final int uncompressedBlockSize, final int maxEventsPerBlock) throws IOException {
+        super(out, storageLocation, idGenerator, tocWriter, compressed, uncompressedBlockSize);
+        this.maxEventsPerBlock = maxEventsPerBlock;
+        this.summaryLocation = storageLocation;
+    }
+
+    @Override
+    public synchronized StorageSummary writeRecord(final ProvenanceEventRecord record) throws IOException {
+        if (isDirty()) {
+            throw new IOException("Cannot update Provenance Repository because this Record Writer has already failed to write to the Repository");
+        }
+
+        try {
+            final long recordIdentifier = record.getEventId() == -1L ? getIdGenerator().getAndIncrement() : record.getEventId();
+            if (pendingEvents.isEmpty()) {
+                ensureStreamState(recordIdentifier, getBytesWritten());
+            }
+
+            if (pendingEvents.size() == pendingEventIds.length) {
+                pendingEventIds = Arrays.copyOf(pendingEventIds, pendingEventIds.length * 2);
+            }
+            pendingEventIds[pendingEvents.size()] = recordIdentifier;
+            pendingEvents.add(record);
+            recordsWritten++;
+
+            final TocWriter tocWriter = getTocWriter();
+            final Integer blockIndex = tocWriter == null ? null : tocWriter.getCurrentBlockIndex();
+            final long bytesWritten = getBytesWritten();
+
+            if (pendingEvents.size() >= maxEventsPerBlock) {
+                writePendingEvents();
+            }
+
+            return new StorageSummary(recordIdentifier, summaryLocation, blockIndex, 0L, bytesWritten);
+        } catch (final IOException ioe) {
+            markDirty();
+            throw ioe;
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (!pendingEvents.isEmpty()) {
+            if (isDirty()) {
+                // The writer has failed, so any buffered events can no longer be written to the underlying file.
+                pendingEvents.clear();
+            } else {
+                try {
+                    writePendingEvents();
+                } catch (final IOException ioe) {
+                    markDirty();
+                    throw ioe;
+                }
+            }
+        }
+
+        super.flush();
+    }
+
+    @Override
+    public synchronized int getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    private void writePendingEvents() throws IOException {
+        writeBlock(pendingEvents, pendingEventIds, pendingEvents.size(), getBufferedOutputStream());
+        pendingEvents.clear();
+    }
+
+    private void writeBlock(final List<ProvenanceEventRecord> events, final long[] eventIds, final int eventCount, final DataOutputStream out) throws IOException {
+        long maxEventId = eventIds[0];
+        for (int i = 1; i < eventCount; i++) {
+            maxEventId = Math.max(maxEventId, eventIds[i]);
+        }
+
+        encoder.encode(events, eventIds, eventCount, eventIds[0], blockBuffer);
+
+        out.writeLong(eventIds[0]);
+        out.writeLong(maxEventId);
+        out.writeInt(blockBuffer.length());
+        out.write(blockBuffer.bytes(), 0, blockBuffer.length());
+    }
+
+    @Override
+    protected void writeRecord(final ProvenanceEventRecord event, final long eventId, final DataOutputStream out) throws IOException {
+        writeBlock(Collections.singletonList(event), new long[] {eventId}, 1, out);
+    }
+
+    @Override
+    protected void writeHeader(final long firstEventId, final DataOutputStream out) throws IOException {
+        out.writeLong(firstEventId);
+    }
+
+    @Override
+    protected int getSerializationVersion() {
+        return SERIALIZATION_VERSION;
+    }
+
+    @Override
+    protected String getSerializationName() {
+        return SERIALIZATION_NAME;
+    }
+}
@@ -52,6 +52,7 @@ import org.apache.nifi.provenance.lucene.LuceneUtil;
 import org.apache.nifi.provenance.lucene.SimpleIndexManager;
 import org.apache.nifi.provenance.lucene.UpdateMinimumEventId;
 import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QueryPage;
 import org.apache.nifi.provenance.search.QueryResult;
 import org.apache.nifi.provenance.search.QuerySubmission;
 import org.apache.nifi.provenance.search.SearchableField;
@@ -121,6 +122,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -416,6 +418,10 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
     @Override
     public List<ProvenanceEventRecord> getEvents(final long firstRecordId, final int maxRecords, final NiFiUser user) throws IOException {
+        return getMatchingEvents(firstRecordId, maxRecords, record -> isAuthorized(record, user));
+    }
+
+    private List<ProvenanceEventRecord> getMatchingEvents(final long firstRecordId, final int maxRecords, final Predicate<ProvenanceEventRecord> filter) throws IOException {
         final List<ProvenanceEventRecord> records = new ArrayList<>(maxRecords);
 
         final List<Path> paths = getPathsForId(firstRecordId);
@@ -444,7 +450,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
                 StandardProvenanceEventRecord record;
                 while (records.size() < maxRecords && (record = reader.nextRecord()) != null) {
-                    if (record.getEventId() >= firstRecordId && isAuthorized(record, user)) {
+                    if (record.getEventId() >= firstRecordId && filter.test(record)) {
                         records.add(record);
                     }
                 }
@@ -2393,6 +2399,20 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         throw new AccessDeniedException("Cannot retrieve Provenance Lineage Submission because " + user.getIdentity() + " is not the user who submitted the request.");
     }
 
+    @Override
+    public QueryPage queryEvents(final Query query, final String continuationToken, final int pageSize, final NiFiUser user) throws IOException {
+        // Without an index that can be read in Event ID order, the page is found by reading the Event Files from the first
+        // Event ID of the page onward. Reading one event beyond the page size tells us whether or not there is a next page.
+        final ProvenanceQueryFilter filter = ProvenanceQueryFilter.forPage(query, continuationToken, pageSize);
+        final List<ProvenanceEventRecord> events = getMatchingEvents(filter.getMinEventId(), pageSize + 1, record -> filter.test(record) && isAuthorized(record, user));
+
+        if (events.size() <= pageSize) {
+            return new QueryPage(events, null);
+        }
+
+        return new QueryPage(events.subList(0, pageSize), String.valueOf(events.get(pageSize).getEventId()));
+    }
+
     @Override
     public QuerySubmission retrieveQuerySubmission(final String queryIdentifier, final NiFiUser user) {
         final QuerySubmission submission = querySubmissionMap.get(queryIdentifier);
@@ -39,6 +39,17 @@ public class RepositoryConfiguration {
 
     public static final String CONCURRENT_MERGE_THREADS = "nifi.provenance.repository.concurrent.merge.threads";
     public static final String WARM_CACHE_FREQUENCY = "nifi.provenance.repository.warm.cache.frequency";
+    public static final String EVENT_FILE_FORMAT = "nifi.provenance.repository.event.file.format";
+    public static final String EVENT_FILE_FORMAT_ROW = "row";
+    public static final String EVENT_FILE_FORMAT_COLUMNAR = "columnar";
+    public static final String SKIP_INDEX_ENABLED = "nifi.provenance.repository.skip.index.enabled";
+    public static final String INDEX_QUEUE_SIZE = "nifi.provenance.repository.index.queue.size";
+    public static final String INDEX_BACKPRESSURE_STRATEGY = "nifi.provenance.repository.index.backpressure.strategy";
+    public static final String INDEX_BACKPRESSURE_BLOCK = "block";
+    public static final String INDEX_BACKPRESSURE_DEGRADE = "degrade";
+    public static final String INDEX_COMMIT_EVENTS = "nifi.provenance.repository.index.commit.events";
+    public static final String INDEX_COMMIT_INTERVAL = "nifi.provenance.repository.index.commit.interval";
+    public static final String LINEAGE_MAX_NODES = "nifi.provenance.repository.lineage.max.nodes";
 
     private final Map<String, File> storageDirectories = new LinkedHashMap<>();
     private long recordLifeMillis = TimeUnit.MILLISECONDS.convert(24, TimeUnit.HOURS);
@@ -66,6 +77,13 @@ public class RepositoryConfiguration {
     private boolean allowRollover = true;
     private int concurrentMergeThreads = 4;
     private Integer warmCacheFrequencyMinutes = null;
+    private boolean columnarEventFiles = false;
+    private boolean skipIndexEnabled = false;
+    private int indexQueueSize = 1000;
+    private boolean degradeIndexingWhenBehind = false;
+    private int maxEventsPerIndexCommit = 1_000_000;
+    private long indexCommitIntervalMillis = TimeUnit.SECONDS.toMillis(30L);
+    private int maxLineageEvents = 1000;
 
     public void setAllowRollover(final boolean allow) {
         this.allowRollover = allow;
@@ -366,6 +384,105 @@ public class RepositoryConfiguration {
         return Optional.ofNullable(warmCacheFrequencyMinutes);
     }
 
+    /**
+     * Specifies whether newly created Event Files should store events column-wise, in blocks of events that are dictionary-encoded and
+     * compressed per column, rather than one record at a time. Existing Event Files can always be read, regardless of this setting.
+     *
+     * @param columnar <code>true</code> to write columnar Event Files, <code>false</code> to write row-oriented Event Files
+     */
+    public void setColumnarEventFiles(final boolean columnar) {
+        this.columnarEventFiles = columnar;
+    }
+
+    public boolean isColumnarEventFiles() {
+        return columnarEventFiles;
+    }
+
+    /**
+     * Specifies whether a Skip Index (Bloom Filters of FlowFile UUID's and Component ID's, along with the range of Event Times) should
+     * be written alongside each Event File and used to answer lineage and exact-match FlowFile UUID / Component ID queries directly
+     * from the Event Files, rather than from the Event Index.
+     *
+     * @param enabled <code>true</code> to write and use Skip Indexes, <code>false</code> otherwise
+     */
+    public void setSkipIndexEnabled(final boolean enabled) {
+        this.skipIndexEnabled = enabled;
+    }
+
+    public boolean isSkipIndexEnabled() {
+        return skipIndexEnabled;
+    }
+
+    /**
+     * @return the maximum number of events that may be waiting to be indexed at any one time
+     */
+    public int getIndexQueueSize() {
+        return indexQueueSize;
+    }
+
+    public void setIndexQueueSize(final int indexQueueSize) {
+        if (indexQueueSize < 1) {
+            throw new IllegalArgumentException("Index Queue Size must be positive");
+        }
+        this.indexQueueSize = indexQueueSize;
+    }
+
+    /**
+     * Specifies what should happen when events are stored faster than they can be indexed. If <code>false</code>, storing events blocks
+     * until there is room to queue them for indexing. If <code>true</code>, storing events never waits for the index: once the queue is
+     * mostly full, events are indexed with only the fields needed for lineage, and events that arrive while the queue is full are not indexed.
+     *
+     * @param degrade whether to degrade indexing rather than block when indexing falls behind
+     */
+    public void setDegradeIndexingWhenBehind(final boolean degrade) {
+        this.degradeIndexingWhenBehind = degrade;
+    }
+
+    public boolean isDegradeIndexingWhenBehind() {
+        return degradeIndexingWhenBehind;
+    }
+
+    /**
+     * @return the number of events that may be written to an index before the index is committed
+     */
+    public int getMaxEventsPerIndexCommit() {
+        return maxEventsPerIndexCommit;
+    }
+
+    public void setMaxEventsPerIndexCommit(final int maxEventsPerIndexCommit) {
+        if (maxEventsPerIndexCommit < 1) {
+            throw new IllegalArgumentException("Max Events per Index Commit must be positive");
+        }
+        this.maxEventsPerIndexCommit = maxEventsPerIndexCommit;
+    }
+
+    /**
+     * @param timeUnit the desired time unit
+     * @return the maximum amount of time that may elapse between commits of an index that is being written to
+     */
+    public long getIndexCommitInterval(final TimeUnit timeUnit) {
+        return timeUnit.convert(indexCommitIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void setIndexCommitInterval(final long interval, final TimeUnit timeUnit) {
+        this.indexCommitIntervalMillis = TimeUnit.MILLISECONDS.convert(interval, timeUnit);
+    }
+
+    /**
+     * @return the maximum number of events that a single lineage computation or expansion may retrieve. If more events are related to
+     *         the FlowFiles of interest, a partial lineage is returned, which can be expanded further.
+     */
+    public int getMaxLineageEvents() {
+        return maxLineageEvents;
+    }
+
+    public void setMaxLineageEvents(final int maxLineageEvents) {
+        if (maxLineageEvents < 1) {
+            throw new IllegalArgumentException("Max Lineage Events must be positive");
+        }
+        this.maxLineageEvents = maxLineageEvents;
+    }
+
     public boolean supportsEncryption() {
         boolean keyProviderIsConfigured = CryptoUtils.isValidKeyProvider(keyProviderImplementation, keyProviderLocation, keyId, encryptionKeys);
 
@@ -431,6 +548,13 @@ public class RepositoryConfiguration {
         final int journalCount = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_JOURNAL_COUNT, 16);
         final int concurrentMergeThreads = nifiProperties.getIntegerProperty(CONCURRENT_MERGE_THREADS, 2);
         final String warmCacheFrequency = nifiProperties.getProperty(WARM_CACHE_FREQUENCY);
+        final String eventFileFormat = nifiProperties.getProperty(EVENT_FILE_FORMAT, EVENT_FILE_FORMAT_ROW).trim();
+        final boolean skipIndexEnabled = Boolean.parseBoolean(nifiProperties.getProperty(SKIP_INDEX_ENABLED, "false"));
+        final int indexQueueSize = nifiProperties.getIntegerProperty(INDEX_QUEUE_SIZE, 1000);
+        final String backPressureStrategy = nifiProperties.getProperty(INDEX_BACKPRESSURE_STRATEGY, INDEX_BACKPRESSURE_BLOCK).trim();
+        final int maxEventsPerIndexCommit = nifiProperties.getIntegerProperty(INDEX_COMMIT_EVENTS, 1_000_000);
+        final String indexCommitInterval = nifiProperties.getProperty(INDEX_COMMIT_INTERVAL, "30 secs");
+        final int maxLineageEvents = nifiProperties.getIntegerProperty(LINEAGE_MAX_NODES, 1000);
 
         final long storageMillis = FormatUtils.getTimeDuration(storageTime, TimeUnit.MILLISECONDS);
         final long maxStorageBytes = DataUnit.parseDataSize(storageSize, DataUnit.B).longValue();
@@ -482,10 +606,28 @@ public class RepositoryConfiguration {
         config.setJournalCount(journalCount);
         config.setMaxAttributeChars(maxAttrChars);
         config.setConcurrentMergeThreads(concurrentMergeThreads);
+        config.setSkipIndexEnabled(skipIndexEnabled);
+        config.setIndexQueueSize(indexQueueSize);
+        config.setMaxEventsPerIndexCommit(maxEventsPerIndexCommit);
+        config.setIndexCommitInterval(FormatUtils.getTimeDuration(indexCommitInterval, TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        config.setMaxLineageEvents(maxLineageEvents);
+
+        if (INDEX_BACKPRESSURE_DEGRADE.equalsIgnoreCase(backPressureStrategy)) {
+            config.setDegradeIndexingWhenBehind(true);
+        } else if (!backPressureStrategy.isEmpty() && !INDEX_BACKPRESSURE_BLOCK.equalsIgnoreCase(backPressureStrategy)) {
+            logger.warn("Found {} property set to '{}' but the only supported values are '{}' and '{}'; using '{}' instead",
+                INDEX_BACKPRESSURE_STRATEGY, backPressureStrategy, INDEX_BACKPRESSURE_BLOCK, INDEX_BACKPRESSURE_DEGRADE, INDEX_BACKPRESSURE_BLOCK);
+        }
 
         if (warmCacheFrequency != null && !warmCacheFrequency.trim().equals("")) {
             config.setWarmCacheFrequencyMinutes((int) FormatUtils.getTimeDuration(warmCacheFrequency, TimeUnit.MINUTES));
         }
+        if (EVENT_FILE_FORMAT_COLUMNAR.equalsIgnoreCase(eventFileFormat)) {
+            config.setColumnarEventFiles(true);
+        } else if (!eventFileFormat.isEmpty() && !EVENT_FILE_FORMAT_ROW.equalsIgnoreCase(eventFileFormat)) {
+            logger.warn("Found {} property set to '{}' but the only supported values are '{}' and '{}'; using '{}' instead",
+                EVENT_FILE_FORMAT, eventFileFormat, EVENT_FILE_FORMAT_ROW, EVENT_FILE_FORMAT_COLUMNAR, EVENT_FILE_FORMAT_ROW);
+        }
         if (shardSize != null) {
             config.setDesiredIndexSize(DataUnit.parseDataSize(shardSize, DataUnit.B).longValue());
         }
@@ -23,6 +23,7 @@ import org.apache.nifi.authorization.resource.Authorizable;
 import org.apache.nifi.authorization.user.NiFiUser;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
 import org.apache.nifi.provenance.authorization.UserEventAuthorizer;
 import org.apache.nifi.provenance.index.EventIndex;
 import org.apache.nifi.provenance.index.lucene.LuceneEventIndex;
@@ -30,11 +31,13 @@ import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
 import org.apache.nifi.provenance.lucene.IndexManager;
 import org.apache.nifi.provenance.lucene.SimpleIndexManager;
 import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QueryPage;
 import org.apache.nifi.provenance.search.QuerySubmission;
 import org.apache.nifi.provenance.search.SearchableField;
 import org.apache.nifi.provenance.serialization.RecordReaders;
 import org.apache.nifi.provenance.serialization.StorageSummary;
 import org.apache.nifi.provenance.store.EventFileManager;
+import org.apache.nifi.provenance.store.EventFileQuery;
 import org.apache.nifi.provenance.store.EventStore;
 import org.apache.nifi.provenance.store.PartitionedWriteAheadEventStore;
 import org.apache.nifi.provenance.store.RecordReaderFactory;
@@ -58,6 +61,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -121,6 +125,9 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
         final IdentifierLookup idLookup) throws IOException {
         final RecordWriterFactory recordWriterFactory = (file, idGenerator, compressed, createToc) -> {
             final TocWriter tocWriter = createToc ? new StandardTocWriter(TocUtil.getTocFile(file), false, false) : null;
+            if (config.isColumnarEventFiles()) {
+                return new ColumnarRecordWriter(file, idGenerator, tocWriter, compressed, BLOCK_SIZE, ColumnarRecordWriter.DEFAULT_MAX_EVENTS_PER_BLOCK);
+            }
             return new EventIdFirstSchemaRecordWriter(file, idGenerator, tocWriter, compressed, BLOCK_SIZE, idLookup);
         };
 
@@ -251,6 +258,22 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
         return eventIndex.submitQuery(query, createEventAuthorizer(user), user == null ? null : user.getIdentity());
     }
 
+    @Override
+    public QueryPage queryEvents(final Query query, final String continuationToken, final int pageSize, final NiFiUser user) throws IOException {
+        // The continuation token is the ID of the event at which the next page begins. Reading one event beyond the page size
+        // tells us whether or not there is a next page, so that the last page is not followed by an empty one.
+        final ProvenanceQueryFilter filter = ProvenanceQueryFilter.forPage(query, continuationToken, pageSize);
+        final EventFileQuery eventFileQuery = EventFileQuery.forQuery(query, filter);
+        final List<ProvenanceEventRecord> events = eventStore.getEvents(eventFileQuery, pageSize + 1, createEventAuthorizer(user), EventTransformer.EMPTY_TRANSFORMER);
+
+        if (events.size() <= pageSize) {
+            return new QueryPage(events, null);
+        }
+
+        final List<ProvenanceEventRecord> page = events.subList(0, pageSize);
+        return new QueryPage(page, String.valueOf(events.get(pageSize).getEventId()));
+    }
+
     @Override
     public QuerySubmission retrieveQuerySubmission(final String queryIdentifier, final NiFiUser user) {
         return eventIndex.retrieveQuerySubmission(queryIdentifier, user);
@@ -343,4 +366,14 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
             throw new IllegalArgumentException("There is no defined container with name " + containerName);
         }
     }
+
+    @Override
+    public Long getIndexLagEvents() {
+        return eventIndex == null ? null : eventIndex.getIndexLagEvents();
+    }
+
+    @Override
+    public Long getIndexLagMillis() {
+        return eventIndex == null ? null : eventIndex.getIndexLag(TimeUnit.MILLISECONDS);
+    }
 }
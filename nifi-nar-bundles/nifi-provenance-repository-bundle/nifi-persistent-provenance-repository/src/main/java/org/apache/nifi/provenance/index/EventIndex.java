@@ -20,6 +20,7 @@ package org.apache.nifi.provenance.index;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.nifi.authorization.user.NiFiUser;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
@@ -157,4 +158,15 @@ public interface EventIndex extends Closeable {
      * @throws IOException if unable to commit the changes
      */
     void commitChanges(String partitionName) throws IOException;
+
+    /**
+     * @return the number of events that have been handed to the Event Index but have not yet been written to the index
+     */
+    long getIndexLagEvents();
+
+    /**
+     * @param timeUnit the desired time unit
+     * @return how long the oldest event that has not yet been written to the index has been waiting, or 0 if all events have been written
+     */
+    long getIndexLag(TimeUnit timeUnit);
 }
@@ -52,6 +52,10 @@ public class EventIndexTask implements Runnable {
     private final EventReporter eventReporter;
     private final int commitThreshold;
 
+    // Describes the batch of documents that have been taken from the queue but not yet written to the index
+    private volatile int inFlightCount = 0;
+    private volatile long oldestInFlightNanos = Long.MAX_VALUE;
+
     public EventIndexTask(final BlockingQueue<StoredDocument> documentQueue, final RepositoryConfiguration repoConfig, final IndexManager indexManager,
         final IndexDirectoryManager directoryManager, final int maxEventsPerCommit, final EventReporter eventReporter) {
         this.documentQueue = documentQueue;
@@ -93,6 +97,9 @@ public class EventIndexTask implements Runnable {
                     continue;
                 }
 
+                oldestInFlightNanos = toIndex.stream().mapToLong(StoredDocument::getCreatedNanos).min().getAsLong();
+                inFlightCount = toIndex.size();
+
                 // Write documents to the currently active index.
                 final Map<String, List<StoredDocument>> docsByPartition = toIndex.stream()
                     .collect(Collectors.groupingBy(doc -> doc.getStorageSummary().getPartitionName().get()));
@@ -106,10 +113,28 @@ public class EventIndexTask implements Runnable {
             } catch (final Exception e) {
                 logger.error("Failed to index Provenance Events", e);
                 eventReporter.reportEvent(Severity.ERROR, EVENT_CATEGORY, "Failed to index Provenance Events. See logs for more information.");
+            } finally {
+                inFlightCount = 0;
+                oldestInFlightNanos = Long.MAX_VALUE;
             }
         }
     }
 
+    /**
+     * @return the number of documents that this task has taken from the queue but not yet written to the index
+     */
+    int getInFlightCount() {
+        return inFlightCount;
+    }
+
+    /**
+     * @return the creation time, in terms of {@link System#nanoTime()}, of the oldest document that this task has taken from the queue
+     *         but not yet written to the index, or {@link Long#MAX_VALUE} if there is no such document
+     */
+    long getOldestInFlightNanos() {
+        return oldestInFlightNanos;
+    }
+
 
     /**
      * Re-indexes the documents given. The IndexableDocument's provided are required to have the IndexDirectory provided.
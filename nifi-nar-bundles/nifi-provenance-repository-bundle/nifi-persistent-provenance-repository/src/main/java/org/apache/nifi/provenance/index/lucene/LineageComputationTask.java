@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.index.lucene;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.StandardLineageResult;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.index.EventIndexSearcher;
+import org.apache.nifi.provenance.lucene.IndexManager;
+import org.apache.nifi.provenance.store.EventStore;
+import org.apache.nifi.provenance.util.LongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Computes a lineage by walking a frontier of FlowFile UUIDs in batches, rather than issuing a single Lucene query
+ * for all UUIDs against every index directory at once. Each batch is searched against the index directories,
+ * oldest first, and the Event IDs that are found are de-duplicated through a {@link LongHashSet} before the events
+ * themselves are fetched from the Event Store. Each batch is a single step of the {@link StandardLineageResult}.
+ * </p>
+ *
+ * <p>
+ * No more than the configured number of events is ever retrieved. If more events are related to the FlowFiles of
+ * interest, the remaining work is skipped and the result is marked as partial, so that the user can expand the
+ * lineage further from the nodes that were returned.
+ * </p>
+ */
+public class LineageComputationTask implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(LineageComputationTask.class);
+    private static final Set<String> LUCENE_FIELDS_TO_LOAD = Collections.singleton(SearchableFields.Identifier.getSearchableFieldName());
+
+    // Lucene's BooleanQuery allows at most 1024 clauses by default
+    static final int MAX_UUIDS_PER_QUERY = 500;
+
+    private final List<List<String>> frontier;
+    private final StandardLineageResult result;
+    private final int maxEvents;
+    private final IndexManager indexManager;
+    private final List<File> indexDirectories;
+    private final EventStore eventStore;
+    private final EventAuthorizer authorizer;
+
+    public LineageComputationTask(final Collection<String> flowFileUuids, final StandardLineageResult result, final int maxEvents, final IndexManager indexManager,
+        final List<File> indexDirectories, final EventStore eventStore, final EventAuthorizer authorizer) {
+        this.frontier = partition(flowFileUuids);
+        this.result = result;
+        this.maxEvents = maxEvents;
+        this.indexManager = indexManager;
+        this.indexDirectories = indexDirectories;
+        this.eventStore = eventStore;
+        this.authorizer = authorizer;
+    }
+
+    /**
+     * @param flowFileUuids the FlowFile UUIDs whose lineage is to be computed
+     * @return the number of steps that a task computing the lineage of the given FlowFiles reports to its result
+     */
+    public static int getNumberOfSteps(final Collection<String> flowFileUuids) {
+        return Math.max(1, partition(flowFileUuids).size());
+    }
+
+    private static List<List<String>> partition(final Collection<String> flowFileUuids) {
+        if (flowFileUuids == null || flowFileUuids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>(Math.min(MAX_UUIDS_PER_QUERY, flowFileUuids.size()));
+        for (final String uuid : flowFileUuids) {
+            if (batch.size() >= MAX_UUIDS_PER_QUERY) {
+                batches.add(batch);
+                batch = new ArrayList<>(MAX_UUIDS_PER_QUERY);
+            }
+            batch.add(uuid);
+        }
+        batches.add(batch);
+        return batches;
+    }
+
+    @Override
+    public void run() {
+        if (frontier.isEmpty()) {
+            result.update(Collections.emptyList(), 0L);
+            return;
+        }
+
+        final long startNanos = System.nanoTime();
+        final LongHashSet eventIdsSeen = new LongHashSet(maxEvents);
+
+        for (final List<String> batch : frontier) {
+            if (result.isFinished()) {
+                logger.debug("Will not continue computing lineage for {} because the computation has already finished or been canceled", result);
+                return;
+            }
+
+            if (eventIdsSeen.size() >= maxEvents) {
+                // The budget is exhausted. Complete the remaining steps without querying so that the lineage is computed from what we have.
+                result.setPartial();
+                result.update(Collections.emptyList(), 0L);
+                continue;
+            }
+
+            final List<ProvenanceEventRecord> events;
+            try {
+                final List<Long> eventIds = findEventIds(batch, eventIdsSeen);
+                events = eventIds.isEmpty() ? Collections.emptyList() : eventStore.getEvents(eventIds, authorizer, EventTransformer.PLACEHOLDER_TRANSFORMER);
+            } catch (final Exception e) {
+                logger.error("Failed to compute lineage for {} FlowFiles", batch.size(), e);
+                result.setError("Failed to compute lineage due to " + e);
+                return;
+            }
+
+            result.update(events, events.size());
+        }
+
+        logger.debug("Retrieved {} events for lineage of {} batches of FlowFile UUIDs in {} millis",
+            eventIdsSeen.size(), frontier.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private List<Long> findEventIds(final List<String> flowFileUuids, final LongHashSet eventIdsSeen) throws IOException {
+        final BooleanQuery lineageQuery = buildLineageQuery(flowFileUuids);
+        final List<Long> eventIds = new ArrayList<>();
+
+        for (final File indexDir : indexDirectories) {
+            if (eventIdsSeen.size() >= maxEvents) {
+                result.setPartial();
+                break;
+            }
+
+            final EventIndexSearcher searcher;
+            try {
+                searcher = indexManager.borrowIndexSearcher(indexDir);
+            } catch (final FileNotFoundException fnfe) {
+                // The index has not yet been committed or has already aged off; either way there is nothing to find in it.
+                logger.debug("Could not find a valid Lucene index in {}; will not search it for lineage", indexDir);
+                continue;
+            }
+
+            try {
+                // Ask for enough documents that we can still fill the remaining budget even if every event already seen is among the hits
+                final int remaining = maxEvents - eventIdsSeen.size();
+                final TopDocs topDocs = searcher.getIndexSearcher().search(lineageQuery, remaining + eventIdsSeen.size());
+                if (topDocs.totalHits > topDocs.scoreDocs.length) {
+                    result.setPartial();
+                }
+
+                final IndexReader indexReader = searcher.getIndexSearcher().getIndexReader();
+                for (final ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    final long eventId = indexReader.document(scoreDoc.doc, LUCENE_FIELDS_TO_LOAD)
+                        .getField(SearchableFields.Identifier.getSearchableFieldName()).numericValue().longValue();
+
+                    if (eventIdsSeen.contains(eventId)) {
+                        continue;
+                    }
+
+                    if (eventIdsSeen.size() >= maxEvents) {
+                        result.setPartial();
+                        break;
+                    }
+
+                    eventIdsSeen.add(eventId);
+                    eventIds.add(eventId);
+                }
+            } finally {
+                indexManager.returnIndexSearcher(searcher);
+            }
+        }
+
+        return eventIds;
+    }
+
+    static BooleanQuery buildLineageQuery(final Collection<String> flowFileUuids) {
+        // Create a query for all Events related to the FlowFiles of interest. We do this by adding all ID's as
+        // "SHOULD" clauses and then setting the minimum required to 1.
+        final BooleanQuery lineageQuery = new BooleanQuery();
+        for (final String flowFileUuid : flowFileUuids) {
+            lineageQuery.add(new TermQuery(new Term(SearchableFields.FlowFileUUID.getSearchableFieldName(), flowFileUuid)), Occur.SHOULD);
+        }
+        lineageQuery.setMinimumNumberShouldMatch(1);
+
+        return lineageQuery;
+    }
+}
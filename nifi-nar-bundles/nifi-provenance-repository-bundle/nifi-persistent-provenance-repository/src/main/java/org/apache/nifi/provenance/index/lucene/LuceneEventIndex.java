@@ -20,6 +20,7 @@ package org.apache.nifi.provenance.index.lucene;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -27,26 +28,23 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.Term;
-import org.apache.lucene.search.BooleanClause.Occur;
-import org.apache.lucene.search.BooleanQuery;
-import org.apache.lucene.search.TermQuery;
 import org.apache.nifi.authorization.AccessDeniedException;
 import org.apache.nifi.authorization.user.NiFiUser;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.provenance.AsyncLineageSubmission;
 import org.apache.nifi.provenance.AsyncQuerySubmission;
+import org.apache.nifi.provenance.ProgressiveResult;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.RepositoryConfiguration;
 import org.apache.nifi.provenance.SearchableFields;
@@ -63,7 +61,9 @@ import org.apache.nifi.provenance.lucene.IndexManager;
 import org.apache.nifi.provenance.lucene.LuceneUtil;
 import org.apache.nifi.provenance.search.Query;
 import org.apache.nifi.provenance.search.QuerySubmission;
+import org.apache.nifi.provenance.search.SearchableField;
 import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.store.EventFileQuery;
 import org.apache.nifi.provenance.store.EventStore;
 import org.apache.nifi.provenance.util.DirectoryUtils;
 import org.apache.nifi.provenance.util.NamedThreadFactory;
@@ -82,24 +82,28 @@ public class LuceneEventIndex implements EventIndex {
 
     public static final int MAX_UNDELETED_QUERY_RESULTS = 10;
     public static final int MAX_DELETE_INDEX_WAIT_SECONDS = 30;
-    public static final int MAX_LINEAGE_NODES = 1000;
     public static final int MAX_INDEX_THREADS = 100;
 
     private final ConcurrentMap<String, AsyncQuerySubmission> querySubmissionMap = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, AsyncLineageSubmission> lineageSubmissionMap = new ConcurrentHashMap<>();
-    private final BlockingQueue<StoredDocument> documentQueue = new LinkedBlockingQueue<>(1000);
+    private final BlockingQueue<StoredDocument> documentQueue;
+    private final int degradeThreshold;
     private final List<EventIndexTask> indexTasks = Collections.synchronizedList(new ArrayList<>());
     private final ExecutorService queryExecutor;
     private final ExecutorService indexExecutor;
     private final RepositoryConfiguration config;
     private final IndexManager indexManager;
     private final ConvertEventToLuceneDocument eventConverter;
+    private final ConvertEventToLuceneDocument lineageOnlyEventConverter;
     private final IndexDirectoryManager directoryManager;
     private volatile boolean closed = false;
 
     private final TimedBuffer<TimestampedLong> queuePauseNanos = new TimedBuffer<>(TimeUnit.SECONDS, 300, new LongEntityAccess());
     private final TimedBuffer<TimestampedLong> eventsIndexed = new TimedBuffer<>(TimeUnit.SECONDS, 300, new LongEntityAccess());
     private final AtomicLong eventCount = new AtomicLong(0L);
+    private final AtomicLong lineageOnlyEventCount = new AtomicLong(0L);
+    private final AtomicLong unindexedEventCount = new AtomicLong(0L);
+    private final AtomicLong lastDegradedWarningMillis = new AtomicLong(0L);
     private final EventReporter eventReporter;
 
     private final List<CachedQuery> cachedQueries = new ArrayList<>();
@@ -109,11 +113,13 @@ public class LuceneEventIndex implements EventIndex {
     private EventStore eventStore;
 
     public LuceneEventIndex(final RepositoryConfiguration config, final IndexManager indexManager, final EventReporter eventReporter) {
-        this(config, indexManager, EventIndexTask.DEFAULT_MAX_EVENTS_PER_COMMIT, eventReporter);
+        this(config, indexManager, config.getMaxEventsPerIndexCommit(), eventReporter);
     }
 
     public LuceneEventIndex(final RepositoryConfiguration config, final IndexManager indexManager, final int maxEventsPerCommit, final EventReporter eventReporter) {
         this.eventReporter = eventReporter;
+        documentQueue = new ArrayBlockingQueue<>(config.getIndexQueueSize());
+        degradeThreshold = Math.max(1, config.getIndexQueueSize() / 4);
         queryExecutor = Executors.newFixedThreadPool(config.getQueryThreadPoolSize(), new NamedThreadFactory("Provenance Query"));
         indexExecutor = Executors.newFixedThreadPool(config.getIndexThreadPoolSize(), new NamedThreadFactory("Index Provenance Events"));
         cacheWarmerExecutor = Executors.newScheduledThreadPool(config.getStorageDirectories().size(), new NamedThreadFactory("Warm Lucene Index", true));
@@ -145,6 +151,12 @@ public class LuceneEventIndex implements EventIndex {
         this.config = config;
         this.indexManager = indexManager;
         this.eventConverter = new ConvertEventToLuceneDocument(config.getSearchableFields(), config.getSearchableAttributes());
+
+        // When indexing falls behind and the repository is configured to degrade rather than block, events are indexed
+        // using only those fields that lineage needs, as that is far cheaper than indexing every configured field and attribute.
+        final List<SearchableField> lineageFields = new ArrayList<>(config.getSearchableFields());
+        lineageFields.retainAll(Arrays.asList(SearchableFields.FlowFileUUID, SearchableFields.ComponentID, SearchableFields.EventType));
+        this.lineageOnlyEventConverter = new ConvertEventToLuceneDocument(lineageFields, Collections.emptyList());
     }
 
     @Override
@@ -288,6 +300,11 @@ public class LuceneEventIndex implements EventIndex {
             cachedQuery.update(event, location);
         }
 
+        if (config.isDegradeIndexingWhenBehind()) {
+            addEventWithoutBlocking(event, location);
+            return;
+        }
+
         final Document document = eventConverter.convert(event, location);
         if (document == null) {
             logger.debug("Received Provenance Event {} to index but it contained no information that should be indexed, so skipping it", event.getEventId());
@@ -320,6 +337,69 @@ public class LuceneEventIndex implements EventIndex {
         }
     }
 
+    private void addEventWithoutBlocking(final ProvenanceEventRecord event, final StorageSummary location) {
+        final boolean behind = documentQueue.remainingCapacity() < degradeThreshold;
+        final Document document = behind ? lineageOnlyEventConverter.convert(event, location) : eventConverter.convert(event, location);
+        if (document == null) {
+            logger.debug("Received Provenance Event {} to index but it contained no information that should be indexed, so skipping it", event.getEventId());
+            return;
+        }
+
+        if (documentQueue.offer(new StoredDocument(document, location))) {
+            eventCount.incrementAndGet();
+            if (behind) {
+                lineageOnlyEventCount.incrementAndGet();
+                warnIndexingDegraded();
+            }
+        } else {
+            unindexedEventCount.incrementAndGet();
+            warnIndexingDegraded();
+        }
+    }
+
+    private void warnIndexingDegraded() {
+        final long now = System.currentTimeMillis();
+        final long lastWarning = lastDegradedWarningMillis.get();
+        if (now - lastWarning < TimeUnit.MINUTES.toMillis(1L) || !lastDegradedWarningMillis.compareAndSet(lastWarning, now)) {
+            return;
+        }
+
+        final String message = String.format("Provenance Events are being stored faster than they can be indexed; %s events are waiting to be indexed, the oldest for %s millis. "
+            + "Since startup, %s events have been indexed only for lineage and %s events have not been indexed at all.",
+            getIndexLagEvents(), getIndexLag(TimeUnit.MILLISECONDS), lineageOnlyEventCount.get(), unindexedEventCount.get());
+        logger.warn(message);
+        eventReporter.reportEvent(Severity.WARNING, EVENT_CATEGORY, message);
+    }
+
+    @Override
+    public long getIndexLagEvents() {
+        long lag = documentQueue.size();
+        synchronized (indexTasks) {
+            for (final EventIndexTask task : indexTasks) {
+                lag += task.getInFlightCount();
+            }
+        }
+
+        return lag;
+    }
+
+    @Override
+    public long getIndexLag(final TimeUnit timeUnit) {
+        final StoredDocument head = documentQueue.peek();
+        long oldestNanos = head == null ? Long.MAX_VALUE : head.getCreatedNanos();
+        synchronized (indexTasks) {
+            for (final EventIndexTask task : indexTasks) {
+                oldestNanos = Math.min(oldestNanos, task.getOldestInFlightNanos());
+            }
+        }
+
+        if (oldestNanos == Long.MAX_VALUE) {
+            return 0L;
+        }
+
+        return timeUnit.convert(Math.max(0L, System.nanoTime() - oldestNanos), TimeUnit.NANOSECONDS);
+    }
+
     private void incrementAndReportStats() {
         final long fiveMinutesAgo = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5);
         final TimestampedLong nanosLastFive = queuePauseNanos.getAggregateValue(fiveMinutesAgo);
@@ -377,23 +457,48 @@ public class LuceneEventIndex implements EventIndex {
     private ComputeLineageSubmission submitLineageComputation(final Collection<String> flowFileUuids, final NiFiUser user, final EventAuthorizer eventAuthorizer,
         final LineageComputationType computationType, final Long eventId, final long startTimestamp, final long endTimestamp) {
 
-        final List<File> indexDirs = directoryManager.getDirectories(startTimestamp, endTimestamp);
-        final AsyncLineageSubmission submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, indexDirs.size(), user == null ? null : user.getIdentity());
-        lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+        final int maxLineageEvents = config.getMaxLineageEvents();
+        if (config.isSkipIndexEnabled() && flowFileUuids != null && !flowFileUuids.isEmpty()) {
+            final AsyncLineageSubmission submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, 1, user == null ? null : user.getIdentity());
+            lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
 
-        final BooleanQuery lineageQuery = buildLineageQuery(flowFileUuids);
-        final List<File> indexDirectories = directoryManager.getDirectories(startTimestamp, endTimestamp);
-        if (indexDirectories.isEmpty()) {
-            submission.getResult().update(Collections.emptyList(), 0L);
-        } else {
-            Collections.sort(indexDirectories, DirectoryUtils.OLDEST_INDEX_FIRST);
+            final StandardLineageResult result = submission.getResult();
+            final EventFileQuery eventFileQuery = EventFileQuery.forFlowFiles(flowFileUuids, startTimestamp, endTimestamp);
+            logger.debug("Submitting {} against Event Files", eventFileQuery);
+            queryExecutor.submit(() -> {
+                try {
+                    // Ask for one more event than we are allowed to return so that we know whether or not the lineage is partial
+                    final List<ProvenanceEventRecord> events = eventStore.getEvents(eventFileQuery, maxLineageEvents + 1, eventAuthorizer, EventTransformer.PLACEHOLDER_TRANSFORMER);
+                    if (events.size() > maxLineageEvents) {
+                        result.setPartial();
+                        events.subList(maxLineageEvents, events.size()).clear();
+                    }
 
-            for (final File indexDir : indexDirectories) {
-                queryExecutor.submit(new QueryTask(lineageQuery, submission.getResult(), MAX_LINEAGE_NODES, indexManager, indexDir,
-                    eventStore, eventAuthorizer, EventTransformer.PLACEHOLDER_TRANSFORMER));
+                    result.update(events, events.size());
+                } catch (final Exception e) {
+                    result.setError("Failed to retrieve Provenance Events from store; see logs for more details");
+                    logger.error("Failed to retrieve Provenance Events from store for {}", eventFileQuery, e);
+                }
+            });
+
+            try {
+                result.awaitCompletion(500, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
             }
+
+            return submission;
         }
 
+        final int numSteps = LineageComputationTask.getNumberOfSteps(flowFileUuids);
+        final AsyncLineageSubmission submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, numSteps, user == null ? null : user.getIdentity());
+        lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+
+        final List<File> indexDirectories = directoryManager.getDirectories(startTimestamp, endTimestamp);
+        Collections.sort(indexDirectories, DirectoryUtils.OLDEST_INDEX_FIRST);
+        queryExecutor.submit(new LineageComputationTask(flowFileUuids, submission.getResult(), maxLineageEvents, indexManager, indexDirectories,
+            eventStore, eventAuthorizer));
+
         // Some computations will complete very quickly. In this case, we don't want to wait
         // for the client to submit a second query to obtain the result. Instead, we want to just
         // wait some short period of time for the computation to complete before returning the submission.
@@ -406,23 +511,6 @@ public class LuceneEventIndex implements EventIndex {
         return submission;
     }
 
-    private BooleanQuery buildLineageQuery(final Collection<String> flowFileUuids) {
-        // Create a query for all Events related to the FlowFiles of interest. We do this by adding all ID's as
-        // "SHOULD" clauses and then setting the minimum required to 1.
-        final BooleanQuery lineageQuery;
-        if (flowFileUuids == null || flowFileUuids.isEmpty()) {
-            lineageQuery = null;
-        } else {
-            lineageQuery = new BooleanQuery();
-            for (final String flowFileUuid : flowFileUuids) {
-                lineageQuery.add(new TermQuery(new Term(SearchableFields.FlowFileUUID.getSearchableFieldName(), flowFileUuid)), Occur.SHOULD);
-            }
-            lineageQuery.setMinimumNumberShouldMatch(1);
-        }
-
-        return lineageQuery;
-    }
-
     @Override
     public QuerySubmission submitQuery(final Query query, final EventAuthorizer authorizer, final String userId) {
         validate(query);
@@ -460,6 +548,23 @@ public class LuceneEventIndex implements EventIndex {
             }
         }
 
+        // Exact-match lookups by FlowFile UUID and/or Component ID can be answered directly from the Event Files,
+        // using their Skip Indexes to read only those files that may contain a matching event.
+        final Optional<EventFileQuery> eventFileQuery = config.isSkipIndexEnabled() ? EventFileQuery.fromQuery(query) : Optional.empty();
+        if (eventFileQuery.isPresent()) {
+            final AsyncQuerySubmission submission = new AsyncQuerySubmission(query, 1, userId);
+            querySubmissionMap.put(query.getIdentifier(), submission);
+            submitEventFileQuery(eventFileQuery.get(), query.getMaxResults(), authorizer, EventTransformer.EMPTY_TRANSFORMER, submission.getResult());
+
+            try {
+                submission.getResult().awaitCompletion(500, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return submission;
+        }
+
         final List<File> indexDirectories = directoryManager.getDirectories(
             query.getStartDate() == null ? null : query.getStartDate().getTime(),
             query.getEndDate() == null ? null : query.getEndDate().getTime());
@@ -494,6 +599,21 @@ public class LuceneEventIndex implements EventIndex {
     }
 
 
+    private void submitEventFileQuery(final EventFileQuery eventFileQuery, final int maxResults, final EventAuthorizer authorizer,
+        final EventTransformer transformer, final ProgressiveResult result) {
+
+        logger.debug("Submitting {} against Event Files", eventFileQuery);
+        queryExecutor.submit(() -> {
+            try {
+                final List<ProvenanceEventRecord> events = eventStore.getEvents(eventFileQuery, maxResults, authorizer, transformer);
+                result.update(events, events.size());
+            } catch (final Exception e) {
+                result.setError("Failed to retrieve Provenance Events from store; see logs for more details");
+                logger.error("Failed to retrieve Provenance Events from store for {}", eventFileQuery, e);
+            }
+        });
+    }
+
     @Override
     public ComputeLineageSubmission submitLineageComputation(final String flowFileUuid, final NiFiUser user, final EventAuthorizer eventAuthorizer) {
         return submitLineageComputation(Collections.singleton(flowFileUuid), user, eventAuthorizer, LineageComputationType.FLOWFILE_LINEAGE, null, 0L, Long.MAX_VALUE);
@@ -196,7 +196,7 @@ public class SimpleIndexManager implements IndexManager {
             config.setMergeScheduler(mergeScheduler);
 
             final IndexWriter indexWriter = new IndexWriter(directory, config);
-            final EventIndexWriter eventIndexWriter = new LuceneEventIndexWriter(indexWriter, indexDirectory);
+            final EventIndexWriter eventIndexWriter = new LuceneEventIndexWriter(indexWriter, indexDirectory, repoConfig.getIndexCommitInterval(TimeUnit.NANOSECONDS));
 
             final IndexWriterCount writerCount = new IndexWriterCount(eventIndexWriter, analyzer, directory, 1, false);
             logger.debug("Providing new index writer for {}", indexDirectory);
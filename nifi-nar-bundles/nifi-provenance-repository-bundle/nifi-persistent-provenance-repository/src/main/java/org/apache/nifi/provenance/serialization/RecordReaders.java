@@ -30,6 +30,8 @@ import java.util.zip.GZIPInputStream;
 import org.apache.nifi.properties.NiFiPropertiesLoader;
 import org.apache.nifi.provenance.ByteArraySchemaRecordReader;
 import org.apache.nifi.provenance.ByteArraySchemaRecordWriter;
+import org.apache.nifi.provenance.ColumnarRecordReader;
+import org.apache.nifi.provenance.ColumnarRecordWriter;
 import org.apache.nifi.provenance.EncryptedSchemaRecordReader;
 import org.apache.nifi.provenance.EventIdFirstSchemaRecordReader;
 import org.apache.nifi.provenance.EventIdFirstSchemaRecordWriter;
@@ -159,6 +161,10 @@ public class RecordReaders {
                     final TocReader tocReader = new StandardTocReader(tocFile);
                     return new EventIdFirstSchemaRecordReader(bufferedInStream, filename, tocReader, maxAttributeChars);
                 }
+                case ColumnarRecordWriter.SERIALIZATION_NAME: {
+                    final TocReader tocReader = tocFile.exists() ? new StandardTocReader(tocFile) : null;
+                    return new ColumnarRecordReader(bufferedInStream, filename, tocReader, maxAttributeChars);
+                }
                 case EncryptedSchemaRecordReader.SERIALIZATION_NAME: {
                     if (!tocFile.exists()) {
                         throw new FileNotFoundException("Cannot create TOC Reader because the file " + tocFile + " does not exist");
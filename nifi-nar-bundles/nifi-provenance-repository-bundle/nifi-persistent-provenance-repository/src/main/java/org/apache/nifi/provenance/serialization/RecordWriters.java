@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.nifi.provenance.ByteArraySchemaRecordWriter;
+import org.apache.nifi.provenance.ColumnarRecordWriter;
 import org.apache.nifi.provenance.toc.StandardTocWriter;
 import org.apache.nifi.provenance.toc.TocUtil;
 import org.apache.nifi.provenance.toc.TocWriter;
@@ -38,4 +39,10 @@ public class RecordWriters {
         return new ByteArraySchemaRecordWriter(file, idGenerator, tocWriter, compressed, compressionBlockBytes);
     }
 
+    public static RecordWriter newColumnarRecordWriter(final File file, final AtomicLong idGenerator, final boolean compressed, final boolean createToc,
+        final int compressionBlockBytes) throws IOException {
+        final TocWriter tocWriter = createToc ? new StandardTocWriter(TocUtil.getTocFile(file), false, false) : null;
+        return new ColumnarRecordWriter(file, idGenerator, tocWriter, compressed, compressionBlockBytes, ColumnarRecordWriter.DEFAULT_MAX_EVENTS_PER_BLOCK);
+    }
+
 }
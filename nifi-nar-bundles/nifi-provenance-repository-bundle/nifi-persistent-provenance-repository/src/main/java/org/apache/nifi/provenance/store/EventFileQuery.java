@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.store;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceQueryFilter;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerm;
+import org.apache.nifi.provenance.search.SearchableField;
+
+/**
+ * An exact-match query that can be answered directly from the Event Files, using each file's {@link EventFileSkipIndex}
+ * to avoid reading files that cannot contain a matching event. An event matches if it is associated with any of the
+ * given FlowFile UUID's (if any are given), was generated by the given component (if one is given), and has an Event Time
+ * within the given range. A query created by {@link #forQuery(Query, ProvenanceQueryFilter)} may also carry any other criteria of a {@link Query},
+ * which are evaluated against each event that is read.
+ */
+public class EventFileQuery {
+    private final Set<String> flowFileUuids;
+    private final String componentId;
+    private final long startTimestamp;
+    private final long endTimestamp;
+    private final long minEventId;
+    private final List<Predicate<ProvenanceEventRecord>> additionalCriteria;
+
+    private EventFileQuery(final Set<String> flowFileUuids, final String componentId, final long startTimestamp, final long endTimestamp) {
+        this(flowFileUuids, componentId, startTimestamp, endTimestamp, 0L, Collections.emptyList());
+    }
+
+    private EventFileQuery(final Set<String> flowFileUuids, final String componentId, final long startTimestamp, final long endTimestamp,
+        final long minEventId, final List<Predicate<ProvenanceEventRecord>> additionalCriteria) {
+        this.flowFileUuids = flowFileUuids;
+        this.componentId = componentId;
+        this.startTimestamp = startTimestamp;
+        this.endTimestamp = endTimestamp;
+        this.minEventId = minEventId;
+        this.additionalCriteria = additionalCriteria;
+    }
+
+    public static EventFileQuery forFlowFiles(final Collection<String> flowFileUuids, final long startTimestamp, final long endTimestamp) {
+        final Set<String> uuids = new HashSet<>(flowFileUuids.size());
+        for (final String uuid : flowFileUuids) {
+            uuids.add(uuid.toLowerCase(Locale.ROOT));
+        }
+
+        return new EventFileQuery(uuids, null, startTimestamp, endTimestamp);
+    }
+
+    /**
+     * Determines whether or not the given query can be answered by an EventFileQuery. This is the case only if every Search Term
+     * is an exact (non-wildcard) match against the FlowFile UUID or Component ID and no File Size constraints are given.
+     *
+     * @param query the query
+     * @return an equivalent EventFileQuery, or an empty Optional if the query cannot be answered without the Event Index
+     */
+    public static Optional<EventFileQuery> fromQuery(final Query query) {
+        if (query.getMinFileSize() != null || query.getMaxFileSize() != null || query.getSearchTerms().isEmpty()) {
+            return Optional.empty();
+        }
+
+        String flowFileUuid = null;
+        String componentId = null;
+        for (final SearchTerm searchTerm : query.getSearchTerms()) {
+            final String value = searchTerm.getValue();
+            if (value == null || value.contains("*") || value.contains("?")) {
+                return Optional.empty();
+            }
+
+            final String normalized = value.toLowerCase(Locale.ROOT);
+            if (SearchableFields.FlowFileUUID.equals(searchTerm.getSearchableField()) && (flowFileUuid == null || flowFileUuid.equals(normalized))) {
+                flowFileUuid = normalized;
+            } else if (SearchableFields.ComponentID.equals(searchTerm.getSearchableField()) && (componentId == null || componentId.equals(normalized))) {
+                componentId = normalized;
+            } else {
+                return Optional.empty();
+            }
+        }
+
+        final Set<String> uuids = flowFileUuid == null ? Collections.emptySet() : Collections.singleton(flowFileUuid);
+        final long start = query.getStartDate() == null ? 0L : query.getStartDate().getTime();
+        final long end = query.getEndDate() == null ? Long.MAX_VALUE : query.getEndDate().getTime();
+        return Optional.of(new EventFileQuery(uuids, componentId, start, end));
+    }
+
+    /**
+     * Creates an EventFileQuery that matches exactly those events that match the given filter. Any exact matches in the query against
+     * the FlowFile UUID or Component ID are used to avoid reading Event Files, as with {@link #fromQuery(Query)}. All other criteria,
+     * including wildcard matches and matches against FlowFile attributes, can be evaluated only by reading the events.
+     *
+     * @param query the query
+     * @param filter the filter for the query, which determines the smallest Event ID that may match
+     * @return an equivalent EventFileQuery
+     */
+    public static EventFileQuery forQuery(final Query query, final ProvenanceQueryFilter filter) {
+        String flowFileUuid = null;
+        String componentId = null;
+        for (final SearchTerm searchTerm : query.getSearchTerms()) {
+            final SearchableField field = searchTerm.getSearchableField();
+            final String value = searchTerm.getValue();
+            if (value == null || value.contains("*") || value.contains("?")) {
+                continue;
+            }
+
+            final String normalized = value.toLowerCase(Locale.ROOT);
+            if (flowFileUuid == null && SearchableFields.FlowFileUUID.equals(field)) {
+                flowFileUuid = normalized;
+            } else if (componentId == null && SearchableFields.ComponentID.equals(field)) {
+                componentId = normalized;
+            }
+        }
+
+        final Set<String> uuids = flowFileUuid == null ? Collections.emptySet() : Collections.singleton(flowFileUuid);
+        final long start = query.getStartDate() == null ? 0L : query.getStartDate().getTime();
+        final long end = query.getEndDate() == null ? Long.MAX_VALUE : query.getEndDate().getTime();
+        return new EventFileQuery(uuids, componentId, start, end, filter.getMinEventId(), Collections.singletonList(filter));
+    }
+
+    /**
+     * @return the smallest Event ID that may match this query
+     */
+    public long getMinEventId() {
+        return minEventId;
+    }
+
+    /**
+     * @param skipIndex the Skip Index for an Event File
+     * @return <code>false</code> if the Event File described by the given Skip Index definitely contains no matching events
+     */
+    public boolean mightMatch(final EventFileSkipIndex skipIndex) {
+        if (!skipIndex.overlaps(startTimestamp, endTimestamp)) {
+            return false;
+        }
+
+        if (componentId != null && !skipIndex.mightContainComponent(componentId)) {
+            return false;
+        }
+
+        if (flowFileUuids.isEmpty()) {
+            return true;
+        }
+
+        for (final String uuid : flowFileUuids) {
+            if (skipIndex.mightContainFlowFile(uuid)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean matches(final ProvenanceEventRecord event) {
+        // A minimum of 0 places no restriction on the Event ID, even for events that have not yet been assigned one.
+        if ((minEventId > 0L && event.getEventId() < minEventId) || event.getEventTime() < startTimestamp || event.getEventTime() > endTimestamp) {
+            return false;
+        }
+
+        for (final Predicate<ProvenanceEventRecord> criterion : additionalCriteria) {
+            if (!criterion.test(event)) {
+                return false;
+            }
+        }
+
+        if (componentId != null && (event.getComponentId() == null || !componentId.equals(event.getComponentId().toLowerCase(Locale.ROOT)))) {
+            return false;
+        }
+
+        if (flowFileUuids.isEmpty()) {
+            return true;
+        }
+
+        for (final String uuid : ProvenanceQueryFilter.getFlowFileUuids(event)) {
+            if (flowFileUuids.contains(uuid.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "EventFileQuery[flowFileUuids=" + flowFileUuids + ", componentId=" + componentId + ", start=" + startTimestamp + ", end=" + endTimestamp
+            + ", minEventId=" + minEventId + ", additionalCriteria=" + additionalCriteria.size() + "]";
+    }
+}
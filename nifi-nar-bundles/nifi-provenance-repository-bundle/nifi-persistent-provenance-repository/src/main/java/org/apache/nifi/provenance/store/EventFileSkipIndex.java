@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceQueryFilter;
+import org.apache.nifi.provenance.util.BloomFilter;
+import org.apache.nifi.provenance.util.DirectoryUtils;
+
+/**
+ * <p>
+ * A compact summary of the events that are contained within a single Event File, which allows exact-match lookups
+ * (by FlowFile UUID or Component ID) and time-bounded lookups to skip any Event File that cannot possibly contain
+ * a matching event, without consulting the Event Index. The summary holds a Bloom Filter of the FlowFile UUID's
+ * that an event would be indexed under, a Bloom Filter of Component ID's, and the minimum and maximum Event Time.
+ * </p>
+ *
+ * <p>
+ * The index is built in memory while the Event File is being written and is then written to a sidecar file in the
+ * <code>skip</code> directory that is alongside the Event File. All values are lower-cased, so lookups are case-insensitive,
+ * as they are for the Lucene-based Event Index.
+ * </p>
+ */
+public class EventFileSkipIndex {
+    static final String SKIP_INDEX_DIRECTORY = "skip";
+    static final String SKIP_INDEX_EXTENSION = ".skip";
+
+    private static final int ENCODING_VERSION = 1;
+    private static final int FLOWFILE_UUID_BITS = 1 << 23;
+    private static final int COMPONENT_ID_BITS = 1 << 16;
+    private static final int NUM_HASHES = 7;
+
+    private final BloomFilter flowFileUuids;
+    private final BloomFilter componentIds;
+    private long eventCount;
+    private long minEventTime;
+    private long maxEventTime;
+
+    public EventFileSkipIndex() {
+        this(new BloomFilter(FLOWFILE_UUID_BITS, NUM_HASHES), new BloomFilter(COMPONENT_ID_BITS, NUM_HASHES), 0L, Long.MAX_VALUE, Long.MIN_VALUE);
+    }
+
+    private EventFileSkipIndex(final BloomFilter flowFileUuids, final BloomFilter componentIds, final long eventCount, final long minEventTime, final long maxEventTime) {
+        this.flowFileUuids = flowFileUuids;
+        this.componentIds = componentIds;
+        this.eventCount = eventCount;
+        this.minEventTime = minEventTime;
+        this.maxEventTime = maxEventTime;
+    }
+
+    public synchronized void addAll(final Iterable<ProvenanceEventRecord> events) {
+        for (final ProvenanceEventRecord event : events) {
+            for (final String uuid : ProvenanceQueryFilter.getFlowFileUuids(event)) {
+                flowFileUuids.add(uuid.toLowerCase(Locale.ROOT));
+            }
+
+            if (event.getComponentId() != null) {
+                componentIds.add(event.getComponentId().toLowerCase(Locale.ROOT));
+            }
+
+            minEventTime = Math.min(minEventTime, event.getEventTime());
+            maxEventTime = Math.max(maxEventTime, event.getEventTime());
+            eventCount++;
+        }
+    }
+
+    public synchronized boolean mightContainFlowFile(final String flowFileUuid) {
+        return eventCount > 0 && flowFileUuids.mightContain(flowFileUuid.toLowerCase(Locale.ROOT));
+    }
+
+    public synchronized boolean mightContainComponent(final String componentId) {
+        return eventCount > 0 && componentIds.mightContain(componentId.toLowerCase(Locale.ROOT));
+    }
+
+    public synchronized boolean overlaps(final long startTime, final long endTime) {
+        return eventCount > 0 && minEventTime <= endTime && maxEventTime >= startTime;
+    }
+
+    public synchronized long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Compacts the Bloom Filters and atomically writes this index to the given file
+     *
+     * @param file the file to write to
+     * @throws IOException if unable to write to the file
+     */
+    public synchronized void writeTo(final File file) throws IOException {
+        flowFileUuids.compact();
+        componentIds.compact();
+
+        final File directory = file.getParentFile();
+        if (!directory.exists()) {
+            Files.createDirectories(directory.toPath());
+        }
+
+        final File tempFile = new File(directory, file.getName() + ".tmp");
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(ENCODING_VERSION);
+            out.writeLong(eventCount);
+            out.writeLong(minEventTime);
+            out.writeLong(maxEventTime);
+            flowFileUuids.writeTo(out);
+            componentIds.writeTo(out);
+        }
+
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static EventFileSkipIndex read(final File file) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            final int version = in.readInt();
+            if (version != ENCODING_VERSION) {
+                throw new IOException("Cannot read Event File Skip Index " + file + " because it has an encoding version of " + version
+                    + " but only version " + ENCODING_VERSION + " is supported");
+            }
+
+            final long eventCount = in.readLong();
+            final long minEventTime = in.readLong();
+            final long maxEventTime = in.readLong();
+            final BloomFilter flowFileUuids = BloomFilter.readFrom(in);
+            final BloomFilter componentIds = BloomFilter.readFrom(in);
+            return new EventFileSkipIndex(flowFileUuids, componentIds, eventCount, minEventTime, maxEventTime);
+        }
+    }
+
+    /**
+     * @param eventFile an Event File
+     * @return the sidecar file that holds the Skip Index for the given Event File. The name of the file is based only on the
+     *         first Event ID of the Event File, so that it does not change when the Event File is compressed.
+     */
+    public static File getSkipIndexFile(final File eventFile) {
+        final File skipDir = new File(eventFile.getParentFile(), SKIP_INDEX_DIRECTORY);
+        return new File(skipDir, DirectoryUtils.getMinId(eventFile) + SKIP_INDEX_EXTENSION);
+    }
+}
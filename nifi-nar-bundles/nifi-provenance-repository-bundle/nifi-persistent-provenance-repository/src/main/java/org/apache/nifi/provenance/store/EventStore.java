@@ -114,6 +114,19 @@ public interface EventStore extends Closeable {
      */
     List<ProvenanceEventRecord> getEvents(List<Long> eventIds, EventAuthorizer authorizer, EventTransformer unauthorizedTransformer) throws IOException;
 
+    /**
+     * Retrieves up to maxRecords events that match the given query, reading the events directly from the store rather than
+     * consulting an Event Index. All events will be returned in the order that they were written to the store.
+     *
+     * @param query the query that events must match
+     * @param maxRecords the maximum number of records to retrieve. The actual number of results returned may be less than this.
+     * @param authorizer the authorizer that should be used to filter out any events that the user doesn't have access to
+     * @param unauthorizedTransformer the transformer to apply to unauthorized events
+     * @return a List of events that match the given query
+     * @throws IOException if unable to retrieve records from the store
+     */
+    List<ProvenanceEventRecord> getEvents(EventFileQuery query, int maxRecords, EventAuthorizer authorizer, EventTransformer unauthorizedTransformer) throws IOException;
+
     /**
      * Causes the latest events in this store to be re-indexed by the given Event Index
      *
@@ -96,6 +96,15 @@ public interface EventStorePartition extends Closeable {
      */
     EventIterator createEventIterator(List<Long> eventIds);
 
+    /**
+     * Returns an {@link EventIterator} that iterates over all events in the partition that match the given query, in the order
+     * in which they were stored. Any Event File whose Skip Index shows that it cannot contain a matching event will not be read.
+     *
+     * @param query the query that events must match
+     * @return an EventIterator that iterates over the matching events
+     */
+    EventIterator createEventIterator(EventFileQuery query);
+
     /**
      * Purges any events from the partition that are older than the given amount of time
      *
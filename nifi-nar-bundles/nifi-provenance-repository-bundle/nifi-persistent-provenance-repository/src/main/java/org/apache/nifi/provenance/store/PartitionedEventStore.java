@@ -167,6 +167,12 @@ public abstract class PartitionedEventStore implements EventStore {
         return getEvents(eventIds.size(), authorizer, part -> part.createEventIterator(eventIds), transformer);
     }
 
+    @Override
+    public List<ProvenanceEventRecord> getEvents(final EventFileQuery query, final int maxRecords, final EventAuthorizer authorizer,
+        final EventTransformer transformer) throws IOException {
+        return getEvents(maxRecords, authorizer, part -> part.createEventIterator(query), transformer);
+    }
+
     private List<ProvenanceEventRecord> getEvents(final int maxRecords, final EventAuthorizer authorizer,
         final Function<EventStorePartition, EventIterator> eventIteratorFactory, final EventTransformer transformer) throws IOException {
 
@@ -17,6 +17,8 @@
 
 package org.apache.nifi.provenance.store;
 
+import java.io.File;
+
 import org.apache.nifi.provenance.serialization.RecordWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +29,7 @@ public class RecordWriterLease {
     private final RecordWriter writer;
     private final long maxBytes;
     private final int maxEvents;
+    private final EventFileSkipIndex skipIndex;
     private long usageCounter;
     private boolean markedRollable = false;
     private boolean closed = false;
@@ -36,15 +39,31 @@ public class RecordWriterLease {
     }
 
     public RecordWriterLease(final RecordWriter writer, final long maxBytes, final int maxEvents) {
+        this(writer, maxBytes, maxEvents, null);
+    }
+
+    /**
+     * @param writer the writer to lease
+     * @param maxBytes the number of bytes after which the writer should be rolled over
+     * @param maxEvents the number of events after which the writer should be rolled over
+     * @param skipIndex the Skip Index that summarizes the events written to the writer's file, or <code>null</code> if no
+     *            Skip Index is to be maintained. The Skip Index is persisted once the writer has been closed.
+     */
+    public RecordWriterLease(final RecordWriter writer, final long maxBytes, final int maxEvents, final EventFileSkipIndex skipIndex) {
         this.writer = writer;
         this.maxBytes = maxBytes;
         this.maxEvents = maxEvents;
+        this.skipIndex = skipIndex;
     }
 
     public RecordWriter getWriter() {
         return writer;
     }
 
+    public EventFileSkipIndex getSkipIndex() {
+        return skipIndex;
+    }
+
     public synchronized boolean tryClaim() {
         if (markedRollable || writer.isClosed() || writer.isDirty() || writer.getBytesWritten() >= maxBytes || writer.getRecordsWritten() >= maxEvents) {
             return false;
@@ -58,11 +77,7 @@ public class RecordWriterLease {
         usageCounter--;
 
         if (closed && usageCounter < 1) {
-            try {
-                writer.close();
-            } catch (final Exception e) {
-                logger.warn("Failed to close " + writer, e);
-            }
+            closeWriter();
         }
     }
 
@@ -83,10 +98,24 @@ public class RecordWriterLease {
         closed = true;
 
         if (usageCounter < 1) {
+            closeWriter();
+        }
+    }
+
+    private void closeWriter() {
+        try {
+            writer.close();
+        } catch (final Exception e) {
+            logger.warn("Failed to close " + writer, e);
+        }
+
+        // Only persist the Skip Index once the writer has been closed, as no more events can be written to the file after this point.
+        if (skipIndex != null && writer.getFile() != null) {
+            final File skipIndexFile = EventFileSkipIndex.getSkipIndexFile(writer.getFile());
             try {
-                writer.close();
+                skipIndex.writeTo(skipIndexFile);
             } catch (final Exception e) {
-                logger.warn("Failed to close " + writer, e);
+                logger.warn("Failed to write Skip Index {} for {}; the Event File will be scanned for all exact-match queries", skipIndexFile, writer.getFile(), e);
             }
         }
     }
@@ -52,6 +52,7 @@ import org.apache.nifi.provenance.serialization.RecordReader;
 import org.apache.nifi.provenance.serialization.RecordWriter;
 import org.apache.nifi.provenance.serialization.StorageSummary;
 import org.apache.nifi.provenance.store.iterator.EventIterator;
+import org.apache.nifi.provenance.store.iterator.FilteringEventIterator;
 import org.apache.nifi.provenance.store.iterator.SelectiveRecordReaderEventIterator;
 import org.apache.nifi.provenance.store.iterator.SequentialRecordReaderEventIterator;
 import org.apache.nifi.provenance.toc.TocUtil;
@@ -191,7 +192,7 @@ public class WriteAheadStorePartition implements EventStorePartition {
         Map<ProvenanceEventRecord, StorageSummary> storageMap;
         final RecordWriter writer = lease.getWriter();
         try {
-            storageMap = addEvents(events, writer);
+            storageMap = addEvents(events, writer, lease.getSkipIndex());
         } finally {
             lease.relinquishClaim();
         }
@@ -254,7 +255,8 @@ public class WriteAheadStorePartition implements EventStorePartition {
         final RecordWriter updatedWriter = recordWriterFactory.createWriter(updatedEventFile, idGenerator, false, true);
         updatedWriter.writeHeader(nextEventId);
 
-        final RecordWriterLease updatedLease = new RecordWriterLease(updatedWriter, config.getMaxEventFileCapacity(), config.getMaxEventFileCount());
+        final EventFileSkipIndex skipIndex = config.isSkipIndexEnabled() ? new EventFileSkipIndex() : null;
+        final RecordWriterLease updatedLease = new RecordWriterLease(updatedWriter, config.getMaxEventFileCapacity(), config.getMaxEventFileCount(), skipIndex);
         final boolean updated = eventWriterLeaseRef.compareAndSet(lease, updatedLease);
 
         if (!updated) {
@@ -291,9 +293,16 @@ public class WriteAheadStorePartition implements EventStorePartition {
         return true;
     }
 
-    private Map<ProvenanceEventRecord, StorageSummary> addEvents(final Iterable<ProvenanceEventRecord> events, final RecordWriter writer) throws IOException {
+    private Map<ProvenanceEventRecord, StorageSummary> addEvents(final Iterable<ProvenanceEventRecord> events, final RecordWriter writer,
+        final EventFileSkipIndex skipIndex) throws IOException {
         final Map<ProvenanceEventRecord, StorageSummary> locationMap = new HashMap<>();
 
+        // Update the Skip Index before writing the events so that an exact-match query never skips
+        // over the file while it contains events that the Skip Index does not yet account for.
+        if (skipIndex != null) {
+            skipIndex.addAll(events);
+        }
+
         try {
             long maxId = -1L;
             int numEvents = 0;
@@ -447,6 +456,67 @@ public class WriteAheadStorePartition implements EventStorePartition {
         return new SelectiveRecordReaderEventIterator(allFiles, recordReaderFactory, eventIds, config.getMaxAttributeChars());
     }
 
+    @Override
+    public EventIterator createEventIterator(final EventFileQuery query) {
+        final List<File> allFiles = new ArrayList<>();
+        synchronized (minEventIdToPathMap) {
+            // A file cannot contain any event whose ID is at least the query's minimum if the next file begins at or below that minimum.
+            File previousFile = null;
+            for (final Map.Entry<Long, File> entry : minEventIdToPathMap.entrySet()) {
+                if (previousFile != null && entry.getKey() > query.getMinEventId()) {
+                    allFiles.add(previousFile);
+                }
+
+                previousFile = entry.getValue();
+            }
+
+            if (previousFile != null) {
+                allFiles.add(previousFile);
+            }
+        }
+
+        final RecordWriterLease lease = eventWriterLeaseRef.get();
+        final File activeFile = lease == null ? null : lease.getWriter().getFile();
+
+        final List<File> filesOfInterest = new ArrayList<>();
+        for (final File eventFile : allFiles) {
+            final EventFileSkipIndex skipIndex;
+            if (eventFile.equals(activeFile) && lease.getSkipIndex() != null) {
+                skipIndex = lease.getSkipIndex();
+            } else {
+                skipIndex = readSkipIndex(eventFile);
+            }
+
+            // If there is no Skip Index for the file, we must scan it.
+            if (skipIndex == null || query.mightMatch(skipIndex)) {
+                filesOfInterest.add(eventFile);
+            }
+        }
+
+        logger.debug("{} will scan {} of {} Event Files for {}", this, filesOfInterest.size(), allFiles.size(), query);
+        if (filesOfInterest.isEmpty()) {
+            return EventIterator.EMPTY;
+        }
+
+        final EventIterator iterator = new SequentialRecordReaderEventIterator(filesOfInterest, recordReaderFactory, query.getMinEventId(),
+            config.getMaxAttributeChars());
+        return new FilteringEventIterator(iterator, query::matches);
+    }
+
+    private EventFileSkipIndex readSkipIndex(final File eventFile) {
+        final File skipIndexFile = EventFileSkipIndex.getSkipIndexFile(eventFile);
+        if (!skipIndexFile.exists()) {
+            return null;
+        }
+
+        try {
+            return EventFileSkipIndex.read(skipIndexFile);
+        } catch (final IOException ioe) {
+            logger.warn("Failed to read Skip Index {}; will scan all events in {} instead", skipIndexFile, eventFile, ioe);
+            return null;
+        }
+    }
+
     private Optional<File> getPathForEventId(final long id) {
         File lastFile = null;
 
@@ -513,6 +583,11 @@ public class WriteAheadStorePartition implements EventStorePartition {
             logger.warn("Failed to remove Provenance Table-of-Contents file {}; this file should be cleaned up manually", tocFile);
         }
 
+        final File skipIndexFile = EventFileSkipIndex.getSkipIndexFile(file);
+        if (skipIndexFile.exists() && !skipIndexFile.delete()) {
+            logger.warn("Failed to remove Provenance Skip Index file {}; this file should be cleaned up manually", skipIndexFile);
+        }
+
         return true;
     }
 
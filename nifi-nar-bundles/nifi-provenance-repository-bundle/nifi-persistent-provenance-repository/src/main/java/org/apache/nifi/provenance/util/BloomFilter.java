@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * <p>
+ * A simple Bloom Filter over String values. The number of bits is always a power of two, which allows the filter to be
+ * folded in half (by OR'ing the upper half of the bits into the lower half) without invalidating any value that was previously
+ * added. This allows a filter to be sized generously while values are being added and then compacted down to a size that is
+ * appropriate for the number of values that were actually added before it is persisted.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class BloomFilter {
+    private static final double MAX_COMPACTED_FILL_RATIO = 0.5D;
+
+    private final int numHashes;
+    private long[] words;
+
+    /**
+     * @param numBits the number of bits to use. This value will be rounded up to the next power of two and will be at least 64.
+     * @param numHashes the number of hash functions to apply to each value
+     */
+    public BloomFilter(final int numBits, final int numHashes) {
+        if (numBits < 1) {
+            throw new IllegalArgumentException("Number of bits must be positive");
+        }
+        if (numHashes < 1) {
+            throw new IllegalArgumentException("Number of hashes must be positive");
+        }
+
+        final int wordsNeeded = (int) ((numBits + 63L) / 64);
+        int wordCount = Integer.highestOneBit(wordsNeeded);
+        if (wordCount < wordsNeeded) {
+            wordCount <<= 1;
+        }
+
+        this.words = new long[wordCount];
+        this.numHashes = numHashes;
+    }
+
+    private BloomFilter(final long[] words, final int numHashes) {
+        this.words = words;
+        this.numHashes = numHashes;
+    }
+
+    public void add(final String value) {
+        final long hash1 = hash(value);
+        final long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        final long mask = (long) words.length * 64 - 1;
+
+        long combined = hash1;
+        for (int i = 0; i < numHashes; i++) {
+            final long bitIndex = combined & mask;
+            words[(int) (bitIndex >>> 6)] |= 1L << bitIndex;
+            combined += hash2;
+        }
+    }
+
+    /**
+     * @param value the value to check
+     * @return <code>false</code> if the value was definitely never added to this filter, <code>true</code> if it may have been
+     */
+    public boolean mightContain(final String value) {
+        final long hash1 = hash(value);
+        final long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        final long mask = (long) words.length * 64 - 1;
+
+        long combined = hash1;
+        for (int i = 0; i < numHashes; i++) {
+            final long bitIndex = combined & mask;
+            if ((words[(int) (bitIndex >>> 6)] & (1L << bitIndex)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+
+        return true;
+    }
+
+    /**
+     * Folds the filter in half for as long as doing so keeps the ratio of bits that are set at or below one half. Any value
+     * that was added before compaction will still be reported as possibly contained afterward.
+     */
+    public void compact() {
+        while (words.length > 1) {
+            final double fillRatio = (double) getCardinality() / getNumBits();
+            final double foldedFillRatio = 1D - (1D - fillRatio) * (1D - fillRatio);
+            if (foldedFillRatio > MAX_COMPACTED_FILL_RATIO) {
+                return;
+            }
+
+            final int half = words.length / 2;
+            final long[] folded = new long[half];
+            for (int i = 0; i < half; i++) {
+                folded[i] = words[i] | words[i + half];
+            }
+            words = folded;
+        }
+    }
+
+    public int getNumBits() {
+        return words.length * 64;
+    }
+
+    public int getCardinality() {
+        int cardinality = 0;
+        for (final long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    public void writeTo(final DataOutputStream out) throws IOException {
+        out.writeInt(numHashes);
+        out.writeInt(words.length);
+        for (final long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    public static BloomFilter readFrom(final DataInputStream in) throws IOException {
+        final int numHashes = in.readInt();
+        final int wordCount = in.readInt();
+        if (numHashes < 1 || wordCount < 1 || Integer.bitCount(wordCount) != 1) {
+            throw new IOException("Invalid Bloom Filter encoding: " + numHashes + " hashes over " + wordCount + " words");
+        }
+
+        final long[] words = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = in.readLong();
+        }
+
+        return new BloomFilter(words, numHashes);
+    }
+
+    private static long hash(final String value) {
+        // 64-bit FNV-1a over the characters of the String, followed by a finalization step to spread the bits.
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A set of primitive long values, backed by a single open-addressing array. Unlike a {@code Set<Long>}, no object is
+ * allocated per value, so a set of many thousands of Event IDs occupies only a little more than 8 bytes per ID.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class LongHashSet {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final double MAX_LOAD_FACTOR = 0.5D;
+
+    private long[] slots;
+    private int size;
+    private boolean containsEmptyValue;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize the number of values that the set is expected to hold
+     */
+    public LongHashSet(final int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+
+        slots = createSlots(Math.max(16, Integer.highestOneBit(Math.max(1, expectedSize)) << 2));
+    }
+
+    private static long[] createSlots(final int capacity) {
+        final long[] slots = new long[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+
+    /**
+     * Adds the given value to the set
+     *
+     * @param value the value to add
+     * @return <code>true</code> if the value was added, <code>false</code> if it was already present
+     */
+    public boolean add(final long value) {
+        if (value == EMPTY) {
+            if (containsEmptyValue) {
+                return false;
+            }
+
+            containsEmptyValue = true;
+            size++;
+            return true;
+        }
+
+        if (!insert(slots, value)) {
+            return false;
+        }
+
+        size++;
+        if (size > slots.length * MAX_LOAD_FACTOR) {
+            grow();
+        }
+
+        return true;
+    }
+
+    public boolean contains(final long value) {
+        if (value == EMPTY) {
+            return containsEmptyValue;
+        }
+
+        final int mask = slots.length - 1;
+        for (int index = hash(value) & mask;; index = (index + 1) & mask) {
+            final long slot = slots[index];
+            if (slot == value) {
+                return true;
+            }
+            if (slot == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static boolean insert(final long[] slots, final long value) {
+        final int mask = slots.length - 1;
+        for (int index = hash(value) & mask;; index = (index + 1) & mask) {
+            final long slot = slots[index];
+            if (slot == value) {
+                return false;
+            }
+            if (slot == EMPTY) {
+                slots[index] = value;
+                return true;
+            }
+        }
+    }
+
+    private void grow() {
+        final long[] grown = createSlots(slots.length << 1);
+        for (final long slot : slots) {
+            if (slot != EMPTY) {
+                insert(grown, slot);
+            }
+        }
+
+        slots = grown;
+    }
+
+    private static int hash(final long value) {
+        // Event IDs are sequential, so mix the bits to avoid long runs of occupied slots.
+        long h = value * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) h;
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.provenance.serialization.RecordReader;
+import org.apache.nifi.provenance.serialization.RecordReaders;
+import org.apache.nifi.provenance.serialization.RecordWriter;
+import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.toc.NopTocWriter;
+import org.apache.nifi.provenance.toc.StandardTocReader;
+import org.apache.nifi.provenance.toc.StandardTocWriter;
+import org.apache.nifi.provenance.toc.TocReader;
+import org.apache.nifi.provenance.toc.TocUtil;
+import org.apache.nifi.provenance.toc.TocWriter;
+import org.apache.nifi.util.file.FileUtils;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class TestColumnarRecordReaderWriter extends AbstractTestRecordReaderWriter {
+    private final AtomicLong idGenerator = new AtomicLong(0L);
+    private File journalFile;
+    private File tocFile;
+
+    @Before
+    public void setup() {
+        journalFile = new File("target/storage/" + UUID.randomUUID().toString() + "/testColumnarRecordReaderWriter");
+        tocFile = TocUtil.getTocFile(journalFile);
+        idGenerator.set(0L);
+    }
+
+    @Override
+    protected RecordWriter createWriter(final File file, final TocWriter tocWriter, final boolean compressed, final int uncompressedBlockSize) throws IOException {
+        return new ColumnarRecordWriter(file, idGenerator, tocWriter, compressed, uncompressedBlockSize, ColumnarRecordWriter.DEFAULT_MAX_EVENTS_PER_BLOCK);
+    }
+
+    @Override
+    protected RecordReader createReader(final InputStream in, final String journalFilename, final TocReader tocReader, final int maxAttributeSize) throws IOException {
+        return new ColumnarRecordReader(in, journalFilename, tocReader, maxAttributeSize);
+    }
+
+    @Test
+    public void testAllFieldsRecovered() throws IOException {
+        final Map<String, String> previousAttributes = new HashMap<>();
+        previousAttributes.put("filename", "1.txt");
+        previousAttributes.put("uuid", "11111111-1111-1111-1111-111111111111");
+        previousAttributes.put("removed", "gone");
+
+        final Map<String, String> updatedAttributes = new HashMap<>();
+        updatedAttributes.put("filename", "2.txt");
+        updatedAttributes.put("removed", null);
+
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(1_500_000_000_000L);
+        builder.setFlowFileEntryDate(1_499_999_999_000L);
+        builder.setLineageStartDate(1_499_999_998_000L);
+        builder.setEventDuration(42L);
+        builder.setEventType(ProvenanceEventType.FORK);
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+        builder.setSourceQueueIdentifier("queue-1");
+        builder.setRelationship("success");
+        builder.setDetails("forked");
+        builder.setAlternateIdentifierUri("urn:alternate");
+        builder.setSourceSystemFlowFileIdentifier("source-1");
+        builder.setAttributes(previousAttributes, updatedAttributes);
+        builder.setFlowFileUUID("11111111-1111-1111-1111-111111111111");
+        builder.addParentUuid("11111111-1111-1111-1111-111111111111");
+        builder.addChildUuid("22222222-2222-2222-2222-222222222222");
+        builder.addChildUuid("33333333-3333-3333-3333-333333333333");
+        builder.setPreviousContentClaim("container-1", "section-1", "identifier-1", 1L, 100L);
+        builder.setCurrentContentClaim("container-2", "section-2", "identifier-2", 2L, 200L);
+        final ProvenanceEventRecord record = builder.build();
+
+        final RecordWriter writer = createWriter(journalFile, new StandardTocWriter(tocFile, false, false), false, 8192);
+        writer.writeHeader(0L);
+        writer.writeRecord(record);
+        writer.close();
+
+        try (final FileInputStream fis = new FileInputStream(journalFile);
+            final RecordReader reader = createReader(fis, journalFile.getName(), new StandardTocReader(tocFile), 2048)) {
+
+            final StandardProvenanceEventRecord recovered = reader.nextRecord();
+            assertNotNull(recovered);
+            assertEquals(0L, recovered.getEventId());
+            assertEquals(record.getEventTime(), recovered.getEventTime());
+            assertEquals(record.getFlowFileEntryDate(), recovered.getFlowFileEntryDate());
+            assertEquals(record.getLineageStartDate(), recovered.getLineageStartDate());
+            assertEquals(42L, recovered.getEventDuration());
+            assertEquals(ProvenanceEventType.FORK, recovered.getEventType());
+            assertEquals("1234", recovered.getComponentId());
+            assertEquals("dummy processor", recovered.getComponentType());
+            assertEquals("queue-1", recovered.getSourceQueueIdentifier());
+            assertEquals("success", recovered.getRelationship());
+            assertEquals("forked", recovered.getDetails());
+            assertEquals("urn:alternate", recovered.getAlternateIdentifierUri());
+            assertEquals("source-1", recovered.getSourceSystemFlowFileIdentifier());
+            assertNull(recovered.getTransitUri());
+            assertEquals("11111111-1111-1111-1111-111111111111", recovered.getFlowFileUuid());
+            assertEquals(record.getParentUuids(), recovered.getParentUuids());
+            assertEquals(record.getChildUuids(), recovered.getChildUuids());
+            assertEquals(previousAttributes, recovered.getPreviousAttributes());
+            assertEquals(updatedAttributes, recovered.getUpdatedAttributes());
+            assertTrue(recovered.getUpdatedAttributes().containsKey("removed"));
+
+            assertEquals("container-1", recovered.getPreviousContentClaimContainer());
+            assertEquals("section-1", recovered.getPreviousContentClaimSection());
+            assertEquals("identifier-1", recovered.getPreviousContentClaimIdentifier());
+            assertEquals(Long.valueOf(1L), recovered.getPreviousContentClaimOffset());
+            assertEquals(Long.valueOf(100L), recovered.getPreviousFileSize());
+            assertEquals("container-2", recovered.getContentClaimContainer());
+            assertEquals("section-2", recovered.getContentClaimSection());
+            assertEquals("identifier-2", recovered.getContentClaimIdentifier());
+            assertEquals(Long.valueOf(2L), recovered.getContentClaimOffset());
+            assertEquals(200L, recovered.getFileSize());
+
+            assertNull(reader.nextRecord());
+        }
+
+        FileUtils.deleteFile(journalFile.getParentFile(), true);
+    }
+
+    @Test
+    public void testAttributesTruncated() throws IOException {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("uuid", UUID.randomUUID().toString());
+        attributes.put("long", "0123456789012345678901234567890123456789012345678901234567890123456789");
+
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.fromFlowFile(TestUtil.createFlowFile(3L, 3000L, attributes));
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+
+        final RecordWriter writer = createWriter(journalFile, new StandardTocWriter(tocFile, false, false), false, 8192);
+        writer.writeHeader(0L);
+        writer.writeRecord(builder.build());
+        writer.close();
+
+        try (final FileInputStream fis = new FileInputStream(journalFile);
+            final RecordReader reader = createReader(fis, journalFile.getName(), new StandardTocReader(tocFile), 40)) {
+
+            final StandardProvenanceEventRecord recovered = reader.nextRecord();
+            assertEquals(40, recovered.getUpdatedAttributes().get("long").length());
+            assertEquals(attributes.get("uuid"), recovered.getFlowFileUuid());
+        }
+
+        FileUtils.deleteFile(journalFile.getParentFile(), true);
+    }
+
+    @Test
+    public void testBlocksAlignWithTableOfContents() throws IOException {
+        final int maxEventsPerBlock = 7;
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+        final List<StorageSummary> summaries = new ArrayList<>();
+
+        try (final RecordWriter writer = new ColumnarRecordWriter(journalFile, idGenerator, new StandardTocWriter(tocFile, false, false), false, 256, maxEventsPerBlock)) {
+            writer.writeHeader(0L);
+
+            // write batches of varying sizes, flushing after each, as the Event Store does
+            for (int batch = 0; batch < 10; batch++) {
+                for (int i = 0; i <= batch; i++) {
+                    final ProvenanceEventRecord event = createEvent();
+                    events.add(event);
+                    summaries.add(writer.writeRecord(event));
+                }
+                writer.flush();
+            }
+
+            assertEquals(events.size(), writer.getRecordsWritten());
+        }
+
+        final TocReader tocReader = new StandardTocReader(tocFile);
+        assertTrue(tocReader.getLastBlockOffset() > 0L);
+
+        for (final StorageSummary summary : summaries) {
+            assertEquals(summary.getBlockIndex(), tocReader.getBlockIndexForEventId(summary.getEventId()));
+        }
+
+        try (final FileInputStream fis = new FileInputStream(journalFile);
+            final RecordReader reader = createReader(fis, journalFile.getName(), tocReader, 2048)) {
+
+            for (int i = 0; i < events.size(); i++) {
+                final StandardProvenanceEventRecord recovered = reader.nextRecord();
+                assertNotNull(recovered);
+                assertEquals(i, recovered.getEventId());
+                assertEquals(events.get(i), recovered);
+            }
+            assertNull(reader.nextRecord());
+        }
+
+        // skip to events in random order, each time with a new reader, as a query would
+        final long[] eventIds = new long[] {54, 0, 17, 18, 33, 44, 6, 7};
+        for (final long eventId : eventIds) {
+            try (final FileInputStream fis = new FileInputStream(journalFile);
+                final RecordReader reader = createReader(fis, journalFile.getName(), new StandardTocReader(tocFile), 2048)) {
+
+                final Optional<ProvenanceEventRecord> event = reader.skipToEvent(eventId);
+                assertTrue(event.isPresent());
+                assertEquals(eventId, event.get().getEventId());
+                assertEquals(events.get((int) eventId), event.get());
+                assertEquals(events.size() - 1, reader.getMaxEventId());
+            }
+        }
+
+        try (final FileInputStream fis = new FileInputStream(journalFile);
+            final RecordReader reader = createReader(fis, journalFile.getName(), new StandardTocReader(tocFile), 2048)) {
+            assertFalse(reader.skipToEvent(events.size()).isPresent());
+        }
+
+        FileUtils.deleteFile(journalFile.getParentFile(), true);
+    }
+
+    @Test
+    public void testRecordReadersRecognizesFormat() throws IOException {
+        final File file = new File(journalFile.getParentFile(), "1.prov");
+        try (final RecordWriter writer = createWriter(file, new StandardTocWriter(TocUtil.getTocFile(file), false, false), false, 8192)) {
+            writer.writeHeader(0L);
+            writer.writeRecord(createEvent());
+            writer.writeRecord(createEvent());
+        }
+
+        try (final RecordReader reader = RecordReaders.newRecordReader(file, null, 2048)) {
+            assertTrue(reader instanceof ColumnarRecordReader);
+            assertEquals(0L, reader.nextRecord().getEventId());
+            assertEquals(1L, reader.nextRecord().getEventId());
+            assertNull(reader.nextRecord());
+        }
+
+        FileUtils.deleteFile(journalFile.getParentFile(), true);
+    }
+
+    @Test
+    @Ignore("For local performance testing only")
+    public void testStorageSizeAndWritePerformance() throws IOException {
+        // Compares the number of bytes that each event takes on disk, and the write throughput, of the columnar format against the
+        // row-oriented EventIdFirstSchemaRecordWriter that is currently used by the WriteAheadProvenanceRepository.
+        final int numEvents = 500_000;
+        final List<ProvenanceEventRecord> events = createRealisticEvents(50_000);
+
+        for (int iteration = 0; iteration < 5; iteration++) {
+            final long rowBytes = timeWrites("EventIdFirstSchemaRecordWriter", events, numEvents,
+                file -> new EventIdFirstSchemaRecordWriter(file, new AtomicLong(0L), new NopTocWriter(), false, 32 * 1024, IdentifierLookup.EMPTY));
+            final long columnarBytes = timeWrites("ColumnarRecordWriter", events, numEvents,
+                file -> new ColumnarRecordWriter(file, new AtomicLong(0L), new NopTocWriter(), false, 32 * 1024, ColumnarRecordWriter.DEFAULT_MAX_EVENTS_PER_BLOCK));
+            System.out.println(String.format("Columnar format is %.1f%% of the size of the row format", 100D * columnarBytes / rowBytes));
+        }
+
+        FileUtils.deleteFile(journalFile.getParentFile(), true);
+    }
+
+    private interface WriterFactory {
+        RecordWriter create(File file) throws IOException;
+    }
+
+    private long timeWrites(final String description, final List<ProvenanceEventRecord> events, final int numEvents, final WriterFactory factory) throws IOException {
+        final File file = new File(journalFile.getParentFile(), description + ".prov");
+        file.getParentFile().mkdirs();
+
+        final long startNanos = System.nanoTime();
+        try (final RecordWriter writer = factory.create(file)) {
+            writer.writeHeader(0L);
+
+            // flush every 100 events, which is a typical batch size for the Event Store
+            for (int i = 0; i < numEvents; i++) {
+                writer.writeRecord(events.get(i % events.size()));
+                if (i % 100 == 99) {
+                    writer.flush();
+                }
+            }
+        }
+
+        final long nanos = System.nanoTime() - startNanos;
+        final long millis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(nanos));
+        final long bytes = file.length();
+        System.out.println(String.format("%s: %d events in %d millis (%d events/sec), %.1f bytes/event", description, numEvents, millis,
+            numEvents * 1000L / millis, (double) bytes / numEvents));
+        return bytes;
+    }
+
+    private List<ProvenanceEventRecord> createRealisticEvents(final int count) {
+        final List<String> componentIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            componentIds.add(UUID.randomUUID().toString());
+        }
+
+        final List<ProvenanceEventType> eventTypes = Arrays.asList(ProvenanceEventType.RECEIVE, ProvenanceEventType.ATTRIBUTES_MODIFIED,
+            ProvenanceEventType.CONTENT_MODIFIED, ProvenanceEventType.ROUTE, ProvenanceEventType.SEND, ProvenanceEventType.DROP);
+
+        final List<ProvenanceEventRecord> events = new ArrayList<>(count);
+        final long startTime = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            final Map<String, String> attributes = new HashMap<>();
+            attributes.put("uuid", UUID.randomUUID().toString());
+            attributes.put("filename", "file-" + (i % 1000) + ".json");
+            attributes.put("path", "./");
+            attributes.put("mime.type", "application/json");
+            attributes.put("kafka.topic", "events");
+            attributes.put("kafka.partition", String.valueOf(i % 8));
+            attributes.put("record.count", String.valueOf(i % 50));
+            attributes.put("schema.name", "event-schema");
+
+            final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+            builder.setEventTime(startTime + i);
+            builder.setEventType(eventTypes.get(i % eventTypes.size()));
+            builder.setTransitUri("kafka://broker-1:9092/events");
+            builder.setRelationship("success");
+            builder.fromFlowFile(TestUtil.createFlowFile(i, 1024L + i % 4096, attributes));
+            builder.setComponentId(componentIds.get(i % componentIds.size()));
+            builder.setComponentType("PublishKafkaRecord");
+            builder.setCurrentContentClaim("default", String.valueOf(i % 1024), (startTime / 1000) + "-" + (i / 100), (i % 100) * 4096L, 1024L + i % 4096);
+            events.add(builder.build());
+        }
+
+        return events;
+    }
+}
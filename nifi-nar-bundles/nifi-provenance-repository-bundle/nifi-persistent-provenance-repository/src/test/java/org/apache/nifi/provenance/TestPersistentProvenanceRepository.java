@@ -42,6 +42,7 @@ import org.apache.nifi.provenance.lucene.CachingIndexManager;
 import org.apache.nifi.provenance.lucene.IndexManager;
 import org.apache.nifi.provenance.lucene.IndexingAction;
 import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QueryPage;
 import org.apache.nifi.provenance.search.QueryResult;
 import org.apache.nifi.provenance.search.QuerySubmission;
 import org.apache.nifi.provenance.search.SearchTerms;
@@ -509,6 +510,49 @@ public class TestPersistentProvenanceRepository {
         assertEquals(10, result.getMatchingEvents().size());
     }
 
+    @Test
+    public void testQueryEventsPages() throws IOException, InterruptedException {
+        final RepositoryConfiguration config = createConfiguration();
+        config.setMaxEventFileLife(500, TimeUnit.MILLISECONDS);
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS);
+        repo.initialize(getEventReporter(), null, null, IdentifierLookup.EMPTY);
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("filename", "file-1");
+
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.setComponentType("dummy processor");
+
+        for (int i = 0; i < 10; i++) {
+            attributes.put("uuid", "00000000-0000-0000-0000-00000000000" + i);
+            builder.fromFlowFile(createFlowFile(i, 3000L, attributes));
+            builder.setComponentId(i % 2 == 0 ? "1234" : "5678");
+            repo.registerEvent(builder.build());
+        }
+
+        repo.waitForRollover();
+
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "1234"));
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.Filename, "FILE-*"));
+
+        final List<Long> eventIds = new ArrayList<>();
+        String continuationToken = null;
+        int pages = 0;
+        do {
+            final QueryPage page = repo.queryEvents(query, continuationToken, 2, createUser());
+            page.getEvents().forEach(event -> eventIds.add(event.getEventId()));
+            continuationToken = page.getContinuationToken();
+            pages++;
+        } while (continuationToken != null);
+
+        assertEquals(Arrays.asList(0L, 2L, 4L, 6L, 8L), eventIds);
+        assertEquals(3, pages);
+    }
+
     @Test
     public void testIndexOnRolloverAndSubsequentSearch() throws IOException, InterruptedException, ParseException {
         assumeFalse(isWindowsEnvironment());
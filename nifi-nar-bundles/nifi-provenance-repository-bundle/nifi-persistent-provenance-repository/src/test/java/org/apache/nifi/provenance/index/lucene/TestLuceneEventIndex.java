@@ -29,6 +29,7 @@ import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
 import org.apache.nifi.provenance.lineage.LineageNode;
 import org.apache.nifi.provenance.lineage.LineageNodeType;
 import org.apache.nifi.provenance.lineage.ProvenanceEventLineageNode;
+import org.apache.nifi.provenance.index.EventIndexWriter;
 import org.apache.nifi.provenance.lucene.IndexManager;
 import org.apache.nifi.provenance.lucene.SimpleIndexManager;
 import org.apache.nifi.provenance.search.Query;
@@ -39,6 +40,7 @@ import org.apache.nifi.provenance.serialization.StorageSummary;
 import org.apache.nifi.provenance.store.ArrayListEventStore;
 import org.apache.nifi.provenance.store.EventStore;
 import org.apache.nifi.provenance.store.StorageResult;
+import org.apache.nifi.reporting.Severity;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
@@ -56,6 +58,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -491,6 +494,117 @@ public class TestLuceneEventIndex {
         assertEquals(event, matchingEvents.get(0));
     }
 
+    @Test(timeout = 60000)
+    public void testDegradeIndexingWhenBehind() throws IOException, InterruptedException {
+        assumeFalse(isWindowsEnvironment());
+        final RepositoryConfiguration repoConfig = createConfig(1);
+        repoConfig.setIndexThreadPoolSize(1);
+        repoConfig.setIndexQueueSize(8);
+        repoConfig.setDegradeIndexingWhenBehind(true);
+
+        // Hold the index thread inside of the Index Manager until the test has filled the queue.
+        final IndexManager realIndexManager = new SimpleIndexManager(repoConfig);
+        final CountDownLatch writerRequested = new CountDownLatch(1);
+        final CountDownLatch releaseWriter = new CountDownLatch(1);
+        final IndexManager indexManager = Mockito.spy(realIndexManager);
+        Mockito.doAnswer(new Answer<EventIndexWriter>() {
+            @Override
+            public EventIndexWriter answer(final InvocationOnMock invocation) throws Throwable {
+                writerRequested.countDown();
+                releaseWriter.await();
+                return realIndexManager.borrowIndexWriter(invocation.getArgumentAt(0, File.class));
+            }
+        }).when(indexManager).borrowIndexWriter(Mockito.any(File.class));
+
+        final EventReporter eventReporter = Mockito.mock(EventReporter.class);
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+        final LuceneEventIndex index = new LuceneEventIndex(repoConfig, indexManager, eventReporter);
+        index.initialize(eventStore);
+
+        assertEquals(0L, index.getIndexLagEvents());
+        assertEquals(0L, index.getIndexLag(TimeUnit.MILLISECONDS));
+
+        index.addEvents(eventStore.addEvent(createEvent()).getStorageLocations());
+        writerRequested.await();
+        assertEquals(1L, index.getIndexLagEvents());
+
+        // With the index thread stuck, 8 more events fill the queue. The rest must be skipped rather than blocking the caller.
+        for (int i = 0; i < 20; i++) {
+            index.addEvents(eventStore.addEvent(createEvent()).getStorageLocations());
+        }
+
+        Thread.sleep(10L);
+        assertEquals(9L, index.getIndexLagEvents());
+        assertTrue(index.getIndexLag(TimeUnit.MILLISECONDS) >= 10L);
+        Mockito.verify(eventReporter).reportEvent(Mockito.eq(Severity.WARNING), Mockito.anyString(), Mockito.anyString());
+
+        releaseWriter.countDown();
+        while (index.getIndexLagEvents() > 0) {
+            Thread.sleep(25L);
+        }
+
+        assertEquals(0L, index.getIndexLag(TimeUnit.MILLISECONDS));
+        index.close();
+    }
+
+    @Test(timeout = 60000)
+    public void testExpandParentsOfLargeJoinIsBoundedByMaxLineageEvents() throws IOException, InterruptedException {
+        assumeFalse(isWindowsEnvironment());
+        final RepositoryConfiguration repoConfig = createConfig(1);
+        repoConfig.setMaxLineageEvents(2000);
+        final IndexManager indexManager = new SimpleIndexManager(repoConfig);
+
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+        final LuceneEventIndex index = new LuceneEventIndex(repoConfig, indexManager, 3, EventReporter.NO_OP);
+        index.initialize(eventStore);
+
+        // More parents than Lucene allows clauses in a single Boolean Query
+        final StandardProvenanceEventRecord.Builder joinBuilder = new StandardProvenanceEventRecord.Builder();
+        for (int i = 0; i < 1500; i++) {
+            final ProvenanceEventRecord parentEvent = createEvent();
+            index.addEvents(eventStore.addEvent(parentEvent).getStorageLocations());
+            joinBuilder.addParentUuid(parentEvent.getFlowFileUuid());
+        }
+
+        final ProvenanceEventRecord join = joinBuilder
+                .setEventType(ProvenanceEventType.JOIN)
+                .setAttributes(Collections.emptyMap(), Collections.emptyMap())
+                .addChildFlowFile("1234")
+                .setComponentId("component-1")
+                .setComponentType("unit test")
+                .setEventId(idGenerator.getAndIncrement())
+                .setEventTime(System.currentTimeMillis())
+                .setFlowFileEntryDate(System.currentTimeMillis())
+                .setFlowFileUUID("1234")
+                .setLineageStartDate(0L)
+                .setCurrentContentClaim("container", "section", "unit-test-id", 0L, 1024L)
+                .build();
+        index.addEvents(eventStore.addEvent(join).getStorageLocations());
+
+        final NiFiUser user = createUser();
+
+        List<LineageNode> nodes = Collections.emptyList();
+        while (nodes.size() < 1501) {
+            final ComputeLineageSubmission submission = index.submitExpandParents(join.getEventId(), user, EventAuthorizer.GRANT_ALL);
+            assertTrue(submission.getResult().awaitCompletion(5, TimeUnit.SECONDS));
+            assertNull(submission.getResult().getError());
+
+            nodes = submission.getResult().getNodes();
+            Thread.sleep(25L);
+        }
+
+        assertEquals(1501, nodes.size());
+
+        repoConfig.setMaxLineageEvents(100);
+        final ComputeLineageSubmission bounded = index.submitExpandParents(join.getEventId(), user, EventAuthorizer.GRANT_ALL);
+        assertTrue(bounded.getResult().awaitCompletion(5, TimeUnit.SECONDS));
+        assertNull(bounded.getResult().getError());
+        assertTrue(bounded.getResult().isPartial());
+        assertEquals(100, bounded.getResult().getNodes().size());
+
+        index.close();
+    }
+
     private RepositoryConfiguration createConfig() {
         return createConfig(1);
     }
@@ -149,6 +149,28 @@ public class ArrayListEventStore implements EventStore {
         return events;
     }
 
+    @Override
+    public List<ProvenanceEventRecord> getEvents(final EventFileQuery query, final int maxRecords, final EventAuthorizer authorizer, final EventTransformer transformer) {
+        final List<ProvenanceEventRecord> matching = new ArrayList<>();
+        for (final ProvenanceEventRecord event : events) {
+            if (matching.size() >= maxRecords) {
+                break;
+            }
+
+            if (!query.matches(event)) {
+                continue;
+            }
+
+            if (authorizer.isAuthorized(event)) {
+                matching.add(event);
+            } else {
+                transformer.transform(event).ifPresent(matching::add);
+            }
+        }
+
+        return matching;
+    }
+
     @Override
     public void reindexLatestEvents(EventIndex eventIndex) {
     }
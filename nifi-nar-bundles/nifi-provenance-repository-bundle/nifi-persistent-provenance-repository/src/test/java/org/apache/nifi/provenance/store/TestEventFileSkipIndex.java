@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.provenance.TestUtil;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerms;
+import org.junit.Test;
+
+public class TestEventFileSkipIndex {
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final EventFileSkipIndex skipIndex = new EventFileSkipIndex();
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            events.add(createEvent(ProvenanceEventType.RECEIVE, UUID.randomUUID().toString(), "component-" + (i % 20), 1000L + i));
+        }
+        skipIndex.addAll(events);
+
+        final File eventFile = new File("target/storage/" + UUID.randomUUID() + "/8.prov");
+        final File skipIndexFile = EventFileSkipIndex.getSkipIndexFile(eventFile);
+        assertEquals("8.skip", skipIndexFile.getName());
+        assertEquals(EventFileSkipIndex.getSkipIndexFile(new File(eventFile.getParentFile(), "8.prov.gz")), skipIndexFile);
+
+        skipIndex.writeTo(skipIndexFile);
+        final EventFileSkipIndex recovered = EventFileSkipIndex.read(skipIndexFile);
+
+        // Compaction must have shrunk the filters well below their in-memory size
+        assertTrue(skipIndexFile.length() < 64 * 1024);
+        assertEquals(5000L, recovered.getEventCount());
+
+        for (final ProvenanceEventRecord event : events) {
+            assertTrue(recovered.mightContainFlowFile(event.getFlowFileUuid()));
+            assertTrue(recovered.mightContainFlowFile(event.getFlowFileUuid().toUpperCase()));
+            assertTrue(recovered.mightContainComponent(event.getComponentId()));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (recovered.mightContainFlowFile(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue("Found " + falsePositives + " false positives", falsePositives < 500);
+
+        assertTrue(recovered.overlaps(0L, 1000L));
+        assertTrue(recovered.overlaps(5999L, Long.MAX_VALUE));
+        assertFalse(recovered.overlaps(0L, 999L));
+        assertFalse(recovered.overlaps(6000L, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testEmptyIndexNeverMatches() {
+        final EventFileSkipIndex skipIndex = new EventFileSkipIndex();
+        final EventFileQuery query = EventFileQuery.forFlowFiles(Collections.singleton(UUID.randomUUID().toString()), 0L, Long.MAX_VALUE);
+        assertFalse(query.mightMatch(skipIndex));
+    }
+
+    @Test
+    public void testChildAndParentUuidsAreIncluded() {
+        final String parentUuid = UUID.randomUUID().toString();
+        final String childUuid = UUID.randomUUID().toString();
+
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder()
+            .setEventType(ProvenanceEventType.FORK)
+            .setEventTime(System.currentTimeMillis())
+            .setComponentId("1234")
+            .setComponentType("dummy processor")
+            .setFlowFileUUID(parentUuid)
+            .setCurrentContentClaim(null, null, null, null, 0L)
+            .setAttributes(Collections.emptyMap(), Collections.emptyMap());
+        builder.addChildFlowFile(childUuid);
+        final ProvenanceEventRecord fork = builder.build();
+
+        final EventFileSkipIndex skipIndex = new EventFileSkipIndex();
+        skipIndex.addAll(Collections.singleton(fork));
+
+        final EventFileQuery childQuery = EventFileQuery.forFlowFiles(Collections.singleton(childUuid), 0L, Long.MAX_VALUE);
+        assertTrue(childQuery.mightMatch(skipIndex));
+        assertTrue(childQuery.matches(fork));
+
+        final EventFileQuery unrelatedQuery = EventFileQuery.forFlowFiles(Arrays.asList(UUID.randomUUID().toString()), 0L, Long.MAX_VALUE);
+        assertFalse(unrelatedQuery.matches(fork));
+    }
+
+    @Test
+    public void testFromQuery() {
+        final Query uuidQuery = new Query(UUID.randomUUID().toString());
+        uuidQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, "ABC"));
+        uuidQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "1234"));
+        assertTrue(EventFileQuery.fromQuery(uuidQuery).isPresent());
+
+        final ProvenanceEventRecord match = createEvent(ProvenanceEventType.RECEIVE, "abc", "1234", 5L);
+        final ProvenanceEventRecord otherComponent = createEvent(ProvenanceEventType.RECEIVE, "abc", "5678", 5L);
+        assertTrue(EventFileQuery.fromQuery(uuidQuery).get().matches(match));
+        assertFalse(EventFileQuery.fromQuery(uuidQuery).get().matches(otherComponent));
+
+        final Query wildcardQuery = new Query(UUID.randomUUID().toString());
+        wildcardQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, "abc*"));
+        assertFalse(EventFileQuery.fromQuery(wildcardQuery).isPresent());
+
+        final Query filenameQuery = new Query(UUID.randomUUID().toString());
+        filenameQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.Filename, "1.txt"));
+        assertFalse(EventFileQuery.fromQuery(filenameQuery).isPresent());
+
+        final Query sizeQuery = new Query(UUID.randomUUID().toString());
+        sizeQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "1234"));
+        sizeQuery.setMinFileSize("1 KB");
+        assertFalse(EventFileQuery.fromQuery(sizeQuery).isPresent());
+
+        assertFalse(EventFileQuery.fromQuery(new Query(UUID.randomUUID().toString())).isPresent());
+    }
+
+    private ProvenanceEventRecord createEvent(final ProvenanceEventType type, final String uuid, final String componentId, final long eventTime) {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("uuid", uuid);
+
+        return new StandardProvenanceEventRecord.Builder()
+            .setEventType(type)
+            .setEventTime(eventTime)
+            .setTransitUri("nifi://unit-test")
+            .fromFlowFile(TestUtil.createFlowFile(3L, 3000L, attributes))
+            .setComponentId(componentId)
+            .setComponentType("dummy processor")
+            .build();
+    }
+}
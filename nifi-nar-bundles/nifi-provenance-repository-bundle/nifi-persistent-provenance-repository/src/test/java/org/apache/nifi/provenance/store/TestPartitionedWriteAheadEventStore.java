@@ -41,10 +41,14 @@ import org.apache.nifi.provenance.EventIdFirstSchemaRecordWriter;
 import org.apache.nifi.provenance.IdentifierLookup;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.ProvenanceQueryFilter;
 import org.apache.nifi.provenance.RepositoryConfiguration;
+import org.apache.nifi.provenance.SearchableFields;
 import org.apache.nifi.provenance.StandardProvenanceEventRecord;
 import org.apache.nifi.provenance.authorization.EventAuthorizer;
 import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerms;
 import org.apache.nifi.provenance.serialization.RecordReaders;
 import org.apache.nifi.provenance.serialization.RecordWriters;
 import org.apache.nifi.provenance.serialization.StorageSummary;
@@ -422,6 +426,52 @@ public class TestPartitionedWriteAheadEventStore {
     }
 
 
+    @Test
+    public void testPageThroughEventsMatchingQuery() throws IOException {
+        final RepositoryConfiguration config = createConfig();
+        config.setMaxEventFileCount(10);
+        final PartitionedWriteAheadEventStore store = new PartitionedWriteAheadEventStore(config, writerFactory, readerFactory, EventReporter.NO_OP, new EventFileManager());
+        store.initialize();
+
+        final List<ProvenanceEventRecord> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final ProvenanceEventRecord event = new StandardProvenanceEventRecord.Builder()
+                .fromEvent(createEvent())
+                .setComponentId("component-" + (i % 3))
+                .build();
+
+            final StorageResult result = store.addEvents(Collections.singleton(event));
+            if (i % 3 == 0) {
+                expected.add(addId(event, result.getStorageLocations().values().iterator().next().getEventId()));
+            }
+        }
+
+        for (final String componentId : new String[] {"COMPONENT-0", "*-0"}) {
+            final Query query = new Query(UUID.randomUUID().toString());
+            query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, componentId));
+            query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.newSearchableAttribute("updated"), "t*e"));
+
+            final List<ProvenanceEventRecord> found = new ArrayList<>();
+            long minEventId = 0L;
+            while (true) {
+                final ProvenanceQueryFilter filter = ProvenanceQueryFilter.forPage(query, String.valueOf(minEventId), 8);
+                final List<ProvenanceEventRecord> page = store.getEvents(EventFileQuery.forQuery(query, filter), 8, EventAuthorizer.GRANT_ALL, EventTransformer.EMPTY_TRANSFORMER);
+                found.addAll(page);
+                if (page.size() < 8) {
+                    break;
+                }
+
+                minEventId = page.get(page.size() - 1).getEventId() + 1;
+            }
+
+            assertEquals(expected, found);
+        }
+
+        final Query noMatchQuery = new Query(UUID.randomUUID().toString());
+        noMatchQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.newSearchableAttribute("updated"), "false"));
+        assertTrue(store.getEvents(EventFileQuery.forQuery(noMatchQuery, ProvenanceQueryFilter.forQuery(noMatchQuery)), 8, EventAuthorizer.GRANT_ALL, EventTransformer.EMPTY_TRANSFORMER).isEmpty());
+    }
+
     private RepositoryConfiguration createConfig() {
         return createConfig(2);
     }
@@ -18,12 +18,18 @@
 package org.apache.nifi.provenance.store;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -31,14 +37,19 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.apache.nifi.events.EventReporter;
+import org.apache.nifi.provenance.ColumnarRecordWriter;
 import org.apache.nifi.provenance.EventIdFirstSchemaRecordWriter;
 import org.apache.nifi.provenance.IdentifierLookup;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.RepositoryConfiguration;
+import org.apache.nifi.provenance.SearchableFields;
 import org.apache.nifi.provenance.TestUtil;
 import org.apache.nifi.provenance.index.EventIndex;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerms;
 import org.apache.nifi.provenance.serialization.RecordReaders;
 import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.store.iterator.EventIterator;
 import org.apache.nifi.provenance.toc.StandardTocWriter;
 import org.apache.nifi.provenance.toc.TocUtil;
 import org.apache.nifi.provenance.toc.TocWriter;
@@ -50,19 +61,33 @@ import org.mockito.stubbing.Answer;
 public class TestWriteAheadStorePartition {
 
     @Test
-    @SuppressWarnings("unchecked")
     public void testReindex() throws IOException {
-        final RepositoryConfiguration repoConfig = createConfig(1, "testReindex");
-        repoConfig.setMaxEventFileCount(5);
+        final RecordWriterFactory recordWriterFactory = (file, idGenerator, compressed, createToc) -> {
+            final TocWriter tocWriter = createToc ? new StandardTocWriter(TocUtil.getTocFile(file), false, false) : null;
+            return new EventIdFirstSchemaRecordWriter(file, idGenerator, tocWriter, compressed, 32 * 1024, IdentifierLookup.EMPTY);
+        };
 
-        final String partitionName = repoConfig.getStorageDirectories().keySet().iterator().next();
-        final File storageDirectory = repoConfig.getStorageDirectories().values().iterator().next();
+        verifyReindex(recordWriterFactory, "testReindex");
+    }
 
+    @Test
+    public void testReindexColumnar() throws IOException {
         final RecordWriterFactory recordWriterFactory = (file, idGenerator, compressed, createToc) -> {
             final TocWriter tocWriter = createToc ? new StandardTocWriter(TocUtil.getTocFile(file), false, false) : null;
-            return new EventIdFirstSchemaRecordWriter(file, idGenerator, tocWriter, compressed, 32 * 1024, IdentifierLookup.EMPTY);
+            return new ColumnarRecordWriter(file, idGenerator, tocWriter, compressed, 32 * 1024, ColumnarRecordWriter.DEFAULT_MAX_EVENTS_PER_BLOCK);
         };
 
+        verifyReindex(recordWriterFactory, "testReindexColumnar");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyReindex(final RecordWriterFactory recordWriterFactory, final String testName) throws IOException {
+        final RepositoryConfiguration repoConfig = createConfig(1, testName);
+        repoConfig.setMaxEventFileCount(5);
+
+        final String partitionName = repoConfig.getStorageDirectories().keySet().iterator().next();
+        final File storageDirectory = repoConfig.getStorageDirectories().values().iterator().next();
+
         final RecordReaderFactory recordReaderFactory = (file, logs, maxChars) -> RecordReaders.newRecordReader(file, logs, maxChars);
 
         final WriteAheadStorePartition partition = new WriteAheadStorePartition(storageDirectory, partitionName, repoConfig, recordWriterFactory,
@@ -97,6 +122,82 @@ public class TestWriteAheadStorePartition {
         }
     }
 
+    @Test
+    public void testEventFileQueryOnlyReadsCandidateFiles() throws IOException {
+        final RepositoryConfiguration repoConfig = createConfig(1, "testEventFileQueryOnlyReadsCandidateFiles");
+        repoConfig.setMaxEventFileCount(10);
+        repoConfig.setSkipIndexEnabled(true);
+
+        final String partitionName = repoConfig.getStorageDirectories().keySet().iterator().next();
+        final File storageDirectory = repoConfig.getStorageDirectories().values().iterator().next();
+
+        final RecordWriterFactory recordWriterFactory = (file, idGenerator, compressed, createToc) -> {
+            final TocWriter tocWriter = createToc ? new StandardTocWriter(TocUtil.getTocFile(file), false, false) : null;
+            return new EventIdFirstSchemaRecordWriter(file, idGenerator, tocWriter, compressed, 32 * 1024, IdentifierLookup.EMPTY);
+        };
+
+        final Set<File> filesRead = new HashSet<>();
+        final RecordReaderFactory recordReaderFactory = (file, logs, maxChars) -> {
+            filesRead.add(file);
+            return RecordReaders.newRecordReader(file, logs, maxChars);
+        };
+
+        final WriteAheadStorePartition partition = new WriteAheadStorePartition(storageDirectory, partitionName, repoConfig, recordWriterFactory,
+            recordReaderFactory, new LinkedBlockingQueue<>(), new AtomicLong(0L), EventReporter.NO_OP);
+        partition.initialize();
+
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+        for (int i = 0; i < 105; i++) {
+            final ProvenanceEventRecord event = TestUtil.createEvent();
+            events.add(event);
+            partition.addEvents(Collections.singleton(event));
+        }
+
+        // Each of the 10 full Event Files should have had a Skip Index written when it was rolled over.
+        // The Skip Index of the active Event File is held only in memory.
+        final File[] skipIndexFiles = new File(storageDirectory, "skip").listFiles();
+        assertNotNull(skipIndexFiles);
+        assertEquals(10, skipIndexFiles.length);
+
+        for (final int eventIndex : new int[] {25, 95, 102}) {
+            filesRead.clear();
+
+            final String uuid = events.get(eventIndex).getFlowFileUuid();
+            final EventFileQuery query = EventFileQuery.forFlowFiles(Collections.singleton(uuid.toUpperCase()), 0L, Long.MAX_VALUE);
+            final List<ProvenanceEventRecord> found = readAll(partition.createEventIterator(query));
+
+            assertEquals(1, found.size());
+            assertEquals(uuid, found.get(0).getFlowFileUuid());
+            assertEquals(eventIndex, found.get(0).getEventId());
+            assertEquals(1, filesRead.size());
+        }
+
+        filesRead.clear();
+        final EventFileQuery noMatchQuery = EventFileQuery.forFlowFiles(Collections.singleton(UUID.randomUUID().toString()), 0L, Long.MAX_VALUE);
+        assertTrue(readAll(partition.createEventIterator(noMatchQuery)).isEmpty());
+        assertTrue(filesRead.isEmpty());
+
+        final Query componentQuery = new Query(UUID.randomUUID().toString());
+        componentQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "1234"));
+        assertEquals(105, readAll(partition.createEventIterator(EventFileQuery.fromQuery(componentQuery).get())).size());
+
+        partition.close();
+    }
+
+    private List<ProvenanceEventRecord> readAll(final EventIterator iterator) throws IOException {
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+        try {
+            Optional<ProvenanceEventRecord> option;
+            while ((option = iterator.nextEvent()).isPresent()) {
+                events.add(option.get());
+            }
+        } finally {
+            iterator.close();
+        }
+
+        return events;
+    }
+
     private RepositoryConfiguration createConfig(final int numStorageDirs, final String testName) {
         final RepositoryConfiguration config = new RepositoryConfiguration();
         final File storageDir = new File("target/storage/" + testName + "/" + UUID.randomUUID().toString());
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestLongHashSet {
+
+    @Test
+    public void testAddAndContains() {
+        final LongHashSet set = new LongHashSet();
+        assertTrue(set.isEmpty());
+
+        for (long i = 0; i < 10_000; i++) {
+            assertTrue(set.add(i));
+        }
+        for (long i = 0; i < 10_000; i++) {
+            assertFalse(set.add(i));
+            assertTrue(set.contains(i));
+        }
+
+        assertFalse(set.contains(10_000L));
+        assertFalse(set.contains(-1L));
+        assertEquals(10_000, set.size());
+    }
+
+    @Test
+    public void testExtremeValues() {
+        final LongHashSet set = new LongHashSet(0);
+        assertFalse(set.contains(Long.MIN_VALUE));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertTrue(set.add(Long.MAX_VALUE));
+        assertTrue(set.add(0L));
+        assertFalse(set.add(Long.MIN_VALUE));
+
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertTrue(set.contains(Long.MAX_VALUE));
+        assertTrue(set.contains(0L));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void testMatchesHashSet() {
+        final Random random = new Random(42L);
+        final LongHashSet set = new LongHashSet(16);
+        final Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            final long value = random.nextInt(100_000);
+            assertEquals(expected.add(value), set.add(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long i = 0; i < 100_000; i++) {
+            assertEquals(expected.contains(i), set.contains(i));
+        }
+    }
+}
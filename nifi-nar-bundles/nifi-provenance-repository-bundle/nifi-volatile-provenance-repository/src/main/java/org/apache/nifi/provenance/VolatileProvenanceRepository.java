@@ -31,6 +31,7 @@ import org.apache.nifi.provenance.lineage.FlowFileLineage;
 import org.apache.nifi.provenance.lineage.Lineage;
 import org.apache.nifi.provenance.lineage.LineageComputationType;
 import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QueryPage;
 import org.apache.nifi.provenance.search.QueryResult;
 import org.apache.nifi.provenance.search.QuerySubmission;
 import org.apache.nifi.provenance.search.SearchTerm;
@@ -448,6 +449,24 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
         return result;
     }
 
+    @Override
+    public QueryPage queryEvents(final Query query, final String continuationToken, final int pageSize, final NiFiUser user) throws IOException {
+        // The ring buffer is iterated from oldest to newest, so selecting one event beyond the page size tells us whether or not there is a next page.
+        final ProvenanceQueryFilter filter = ProvenanceQueryFilter.forPage(query, continuationToken, pageSize);
+        final List<ProvenanceEventRecord> events = ringBuffer.getSelectedElements(new Filter<ProvenanceEventRecord>() {
+            @Override
+            public boolean select(final ProvenanceEventRecord value) {
+                return filter.test(value) && isAuthorized(value, user);
+            }
+        }, pageSize + 1);
+
+        if (events.size() <= pageSize) {
+            return new QueryPage(events, null);
+        }
+
+        return new QueryPage(events.subList(0, pageSize), String.valueOf(events.get(pageSize).getEventId()));
+    }
+
     @Override
     public QuerySubmission retrieveQuerySubmission(final String queryIdentifier, final NiFiUser user) {
         final QuerySubmission submission = querySubmissionMap.get(queryIdentifier);
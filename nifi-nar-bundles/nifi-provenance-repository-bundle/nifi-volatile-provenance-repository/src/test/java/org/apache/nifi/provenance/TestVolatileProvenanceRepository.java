@@ -19,6 +19,7 @@ package org.apache.nifi.provenance;
 import org.apache.nifi.authorization.user.NiFiUser;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QueryPage;
 import org.apache.nifi.provenance.search.QuerySubmission;
 import org.apache.nifi.provenance.search.SearchTerms;
 import org.apache.nifi.util.NiFiProperties;
@@ -26,6 +27,8 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -119,6 +122,44 @@ public class TestVolatileProvenanceRepository {
         }
     }
 
+    @Test
+    public void testQueryEventsPages() throws IOException {
+        repo = new VolatileProvenanceRepository(NiFiProperties.createBasicNiFiProperties(null, null));
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("filename", "file-1");
+
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.setComponentType("dummy processor");
+
+        for (int i = 0; i < 10; i++) {
+            attributes.put("uuid", "00000000-0000-0000-0000-00000000000" + i);
+            builder.fromFlowFile(createFlowFile(i, 3000L, attributes));
+            builder.setComponentId(i % 2 == 0 ? "1234" : "5678");
+            repo.registerEvent(builder.build());
+        }
+
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "1234"));
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.Filename, "FILE-*"));
+
+        final List<Long> eventIds = new ArrayList<>();
+        String continuationToken = null;
+        int pages = 0;
+        do {
+            final QueryPage page = repo.queryEvents(query, continuationToken, 2, createUser());
+            page.getEvents().forEach(event -> eventIds.add(event.getEventId()));
+            continuationToken = page.getContinuationToken();
+            pages++;
+        } while (continuationToken != null);
+
+        assertEquals(Arrays.asList(0L, 2L, 4L, 6L, 8L), eventIds);
+        assertEquals(3, pages);
+    }
+
     private FlowFile createFlowFile(final long id, final long fileSize, final Map<String, String> attributes) {
         final Map<String, String> attrCopy = new HashMap<>(attributes);
 
@@ -180,7 +180,7 @@ public class CalculateRecordStats extends AbstractProcessor {
             while ((record = reader.nextRecord()) != null) {
                 for (Map.Entry<String, RecordPath> entry : paths.entrySet()) {
                     RecordPathResult result = entry.getValue().evaluate(record);
-                    Optional<FieldValue> value = result.getSelectedFields().findFirst();
+                    Optional<FieldValue> value = result.getFirstSelectedField();
                     if (value.isPresent() && value.get().getValue() != null) {
                         String approxValue = value.get().getValue().toString();
                         String baseKey = String.format("recordStats.%s", entry.getKey());
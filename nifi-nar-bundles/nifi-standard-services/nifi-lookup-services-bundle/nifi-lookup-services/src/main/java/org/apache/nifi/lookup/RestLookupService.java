@@ -345,7 +345,7 @@ public class RestLookupService extends AbstractControllerService implements Reco
             Record record = reader.nextRecord();
 
             if (recordPath != null) {
-                Optional<FieldValue> fv = recordPath.evaluate(record).getSelectedFields().findFirst();
+                Optional<FieldValue> fv = recordPath.evaluate(record).getFirstSelectedField();
                 if (fv.isPresent()) {
                     FieldValue fieldValue = fv.get();
                     RecordSchema schema = new SimpleRecordSchema(Collections.singletonList(fieldValue.getField()));
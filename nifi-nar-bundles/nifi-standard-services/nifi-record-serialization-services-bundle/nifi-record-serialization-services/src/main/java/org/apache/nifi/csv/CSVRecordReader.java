@@ -35,8 +35,8 @@ import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.io.input.BOMInputStream;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
@@ -110,7 +110,7 @@ public class CSVRecordReader extends AbstractCSVRecordReader {
                 values.put(rawFieldName, value);
             }
 
-            return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
+            return new ArrayRecord(schema, values, coerceTypes, dropUnknownFields);
         }
 
         return null;
@@ -34,8 +34,8 @@ import org.apache.commons.lang3.CharUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordSchema;
 
@@ -165,7 +165,7 @@ public class JacksonCSVRecordReader extends AbstractCSVRecordReader {
                 values.put(rawFieldName, value);
             }
 
-            return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
+            return new ArrayRecord(schema, values, coerceTypes, dropUnknownFields);
         }
 
         return null;
@@ -29,8 +29,8 @@ import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -171,7 +171,7 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
                         childValues.put(childFieldName, childValue);
                     }
 
-                    final Record possibleRecord = new MapRecord(possibleSchema, childValues);
+                    final Record possibleRecord = new ArrayRecord(possibleSchema, childValues);
                     if (DataTypeUtils.isCompatibleDataType(possibleRecord, possibleDataType)) {
                         return possibleRecord;
                     }
@@ -192,7 +192,7 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
                 childValues.put(childFieldName, childValue);
             }
 
-            final MapRecord record = new MapRecord(childSchema, childValues);
+            final ArrayRecord record = new ArrayRecord(childSchema, childValues);
             return record;
         }
 
@@ -30,8 +30,8 @@ import java.util.function.Supplier;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
@@ -144,7 +144,7 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
         }
 
         final Supplier<String> supplier = () -> jsonNode.toString();
-        return new MapRecord(schema, values, SerializedForm.of(supplier, "application/json"), false, dropUnknown);
+        return new ArrayRecord(schema, values, SerializedForm.of(supplier, "application/json"), false, dropUnknown);
     }
 
 